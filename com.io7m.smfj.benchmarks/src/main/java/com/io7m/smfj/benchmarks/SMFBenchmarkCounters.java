@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary counters reported alongside the primary benchmark score. When
+ * used with {@link org.openjdk.jmh.annotations.Mode#Throughput} and a time
+ * unit of seconds, JMH reports {@code vertices} as vertices per second and
+ * {@code megabytes} as megabytes (10^6 octets) per second.
+ */
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class SMFBenchmarkCounters
+{
+  /**
+   * The number of vertices processed.
+   */
+
+  public long vertices;
+
+  /**
+   * The number of megabytes processed.
+   */
+
+  public double megabytes;
+
+  /**
+   * Construct a set of counters.
+   */
+
+  public SMFBenchmarkCounters()
+  {
+
+  }
+
+  /**
+   * Reset the counters at the start of each iteration.
+   */
+
+  @Setup(Level.Iteration)
+  public void reset()
+  {
+    this.vertices = 0L;
+    this.megabytes = 0.0;
+  }
+
+  /**
+   * Record that an operation processed the given amount of data.
+   *
+   * @param vertexCount The number of vertices
+   * @param octets      The number of octets
+   */
+
+  public void record(
+    final long vertexCount,
+    final long octets)
+  {
+    this.vertices += vertexCount;
+    this.megabytes += (double) octets / 1_000_000.0;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * An output stream that discards all data and counts the number of octets
+ * written to it.
+ */
+
+public final class SMFBenchmarkCountingOutputStream extends OutputStream
+{
+  private long count;
+
+  /**
+   * Construct a stream.
+   */
+
+  public SMFBenchmarkCountingOutputStream()
+  {
+
+  }
+
+  /**
+   * @return The number of octets written so far
+   */
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  @Override
+  public void write(
+    final int b)
+  {
+    ++this.count;
+  }
+
+  @Override
+  public void write(
+    final byte[] b,
+    final int off,
+    final int len)
+  {
+    this.count += len;
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderType;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+import java.util.Objects;
+import java.util.Optional;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A parser event receiver that accepts all data and passes every received
+ * value to a {@link Blackhole} so that the parsing work cannot be eliminated.
+ * Errors are recorded so that benchmarks can fail loudly on broken input.
+ */
+
+public final class SMFBenchmarkEvents
+  implements SMFParserEventsType,
+  SMFParserEventsHeaderType,
+  SMFParserEventsBodyType,
+  SMFParserEventsDataAttributesNonInterleavedType,
+  SMFParserEventsDataAttributeValuesType,
+  SMFParserEventsDataTrianglesType
+{
+  private final Blackhole blackhole;
+  private SMFErrorType error;
+
+  /**
+   * Construct a receiver.
+   *
+   * @param inBlackhole The blackhole that will consume values
+   */
+
+  public SMFBenchmarkEvents(
+    final Blackhole inBlackhole)
+  {
+    this.blackhole = Objects.requireNonNull(inBlackhole, "blackhole");
+  }
+
+  /**
+   * @throws IllegalStateException If any error was received
+   */
+
+  public void checkNoErrors()
+  {
+    if (this.error != null) {
+      throw new IllegalStateException(this.error.fullMessage());
+    }
+  }
+
+  @Override
+  public void onStart()
+  {
+
+  }
+
+  @Override
+  public Optional<SMFParserEventsHeaderType> onVersionReceived(
+    final SMFFormatVersion version)
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public void onFinish()
+  {
+
+  }
+
+  @Override
+  public void onError(
+    final SMFErrorType e)
+  {
+    this.error = e;
+  }
+
+  @Override
+  public void onWarning(
+    final SMFWarningType w)
+  {
+
+  }
+
+  @Override
+  public Optional<SMFParserEventsBodyType> onHeaderParsed(
+    final SMFHeader header)
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributesNonInterleavedType>
+  onAttributesNonInterleaved()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataTrianglesType> onTriangles()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataMetaType> onMeta(
+    final SMFSchemaIdentifier schema)
+  {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributeValuesType> onDataAttributeStart(
+    final SMFAttribute attribute)
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public void onDataAttributesNonInterleavedFinish()
+  {
+
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned1(
+    final long x)
+  {
+    this.blackhole.consume(x);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned2(
+    final long x,
+    final long y)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned3(
+    final long x,
+    final long y,
+    final long z)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+    this.blackhole.consume(w);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned1(
+    final long x)
+  {
+    this.blackhole.consume(x);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned2(
+    final long x,
+    final long y)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned3(
+    final long x,
+    final long y,
+    final long z)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+    this.blackhole.consume(w);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat1(
+    final double x)
+  {
+    this.blackhole.consume(x);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat2(
+    final double x,
+    final double y)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat3(
+    final double x,
+    final double y,
+    final double z)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat4(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+  {
+    this.blackhole.consume(x);
+    this.blackhole.consume(y);
+    this.blackhole.consume(z);
+    this.blackhole.consume(w);
+  }
+
+  @Override
+  public void onDataAttributeValueFinish()
+  {
+
+  }
+
+  @Override
+  public void onDataTriangle(
+    final long v0,
+    final long v1,
+    final long v2)
+  {
+    this.blackhole.consume(v0);
+    this.blackhole.consume(v1);
+    this.blackhole.consume(v2);
+  }
+
+  @Override
+  public void onDataTrianglesFinish()
+  {
+
+  }
+}
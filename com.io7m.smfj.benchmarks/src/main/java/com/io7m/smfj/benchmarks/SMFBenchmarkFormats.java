@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.obj.SMFFormatOBJ;
+import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.format.xml.SMFFormatXML;
+import com.io7m.smfj.parser.api.SMFParserProviderType;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Functions to look up formats by their short benchmark parameter names:
+ * {@code smfb}, {@code smft}, {@code smfx}, and {@code obj}.
+ */
+
+public final class SMFBenchmarkFormats
+{
+  private SMFBenchmarkFormats()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @param name The format name
+   *
+   * @return A parser provider for the named format
+   */
+
+  public static SMFParserProviderType parser(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    switch (name) {
+      case "smfb":
+        return new SMFFormatBinary2();
+      case "smft":
+        return new SMFFormatText();
+      case "smfx":
+        return new SMFFormatXML();
+      case "obj":
+        return new SMFFormatOBJ();
+      default:
+        throw new IllegalArgumentException("Unrecognized format: " + name);
+    }
+  }
+
+  /**
+   * @param name The format name
+   *
+   * @return A serializer provider for the named format
+   */
+
+  public static SMFSerializerProviderType serializer(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    switch (name) {
+      case "smfb":
+        return new SMFFormatBinary2();
+      case "smft":
+        return new SMFFormatText();
+      case "smfx":
+        return new SMFFormatXML();
+      default:
+        throw new IllegalArgumentException(
+          "Unrecognized or unserializable format: " + name);
+    }
+  }
+
+  /**
+   * Write the synthetic mesh produced by
+   * {@link SMFBenchmarkMeshes#header(long, ByteOrder)} to a new temporary
+   * file in the named format.
+   *
+   * @param name        The format name
+   * @param vertexCount The number of vertices
+   *
+   * @return The new file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static Path writeTemporary(
+    final String name,
+    final long vertexCount)
+    throws IOException
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var file = Files.createTempFile("smfj-benchmark-", "." + name);
+    try (var output = new BufferedOutputStream(
+      Files.newOutputStream(file), 65536)) {
+      if ("obj".equals(name)) {
+        SMFBenchmarkMeshes.writeOBJ(vertexCount, output);
+      } else {
+        final var format = serializer(name);
+        try (var serializer = format.serializerCreate(
+          format.serializerSupportedVersions().last(),
+          file.toUri(),
+          output)) {
+          SMFBenchmarkMeshes.write(
+            SMFBenchmarkMeshes.header(vertexCount, ByteOrder.BIG_ENDIAN),
+            serializer);
+        }
+      }
+    }
+    return file;
+  }
+}
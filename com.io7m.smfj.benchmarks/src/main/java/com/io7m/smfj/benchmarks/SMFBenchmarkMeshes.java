@@ -0,0 +1,377 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
+import com.io7m.smfj.serializer.api.SMFSerializerType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_FLOATING;
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A generator of synthetic meshes for benchmarking.
+ */
+
+public final class SMFBenchmarkMeshes
+{
+  private static final SMFAttribute POSITION =
+    SMFAttribute.of(
+      SMFAttributeName.of("position"), ELEMENT_TYPE_FLOATING, 3, 32);
+  private static final SMFAttribute NORMAL =
+    SMFAttribute.of(
+      SMFAttributeName.of("normal"), ELEMENT_TYPE_FLOATING, 3, 32);
+  private static final SMFAttribute UV =
+    SMFAttribute.of(
+      SMFAttributeName.of("uv"), ELEMENT_TYPE_FLOATING, 2, 32);
+  private static final SMFAttribute COLOR =
+    SMFAttribute.of(
+      SMFAttributeName.of("color"), ELEMENT_TYPE_INTEGER_UNSIGNED, 4, 8);
+
+  private static final SMFAttribute TANGENT =
+    SMFAttribute.of(
+      SMFAttributeName.of("tangent"), ELEMENT_TYPE_FLOATING, 4, 32);
+  private static final SMFAttribute UV1 =
+    SMFAttribute.of(
+      SMFAttributeName.of("uv1"), ELEMENT_TYPE_FLOATING, 2, 32);
+  private static final SMFAttribute WEIGHTS =
+    SMFAttribute.of(
+      SMFAttributeName.of("weights"), ELEMENT_TYPE_FLOATING, 4, 32);
+  private static final SMFAttribute JOINTS =
+    SMFAttribute.of(
+      SMFAttributeName.of("joints"), ELEMENT_TYPE_INTEGER_UNSIGNED, 4, 16);
+
+  private SMFBenchmarkMeshes()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Produce a header for a synthetic mesh. The mesh is a strip of
+   * {@code vertexCount - 2} triangles with position, normal, texture
+   * coordinate, and color attributes.
+   *
+   * @param vertexCount The number of vertices (at least 3)
+   * @param byteOrder   The byte order of the data
+   *
+   * @return A header
+   */
+
+  public static SMFHeader header(
+    final long vertexCount,
+    final ByteOrder byteOrder)
+  {
+    Objects.requireNonNull(byteOrder, "byteOrder");
+
+    if (vertexCount < 3L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Vertex count %d must be at least 3",
+          Long.valueOf(vertexCount)));
+    }
+
+    return SMFHeader.builder()
+      .setVertexCount(vertexCount)
+      .setTriangles(SMFTriangles.of(vertexCount - 2L, 32))
+      .setDataByteOrder(byteOrder)
+      .setAttributesInOrder(List.of(POSITION, NORMAL, UV, COLOR))
+      .build();
+  }
+
+  /**
+   * Produce a header for a synthetic mesh with the attributes of
+   * {@link #header(long, ByteOrder)} plus tangent, secondary texture
+   * coordinate, joint weight, and joint index attributes, for a total of
+   * eight attributes.
+   *
+   * @param vertexCount The number of vertices (at least 3)
+   * @param byteOrder   The byte order of the data
+   *
+   * @return A header
+   */
+
+  public static SMFHeader headerWide(
+    final long vertexCount,
+    final ByteOrder byteOrder)
+  {
+    return header(vertexCount, byteOrder)
+      .withAttributesInOrder(
+        List.of(
+          POSITION, NORMAL, UV, COLOR, TANGENT, UV1, WEIGHTS, JOINTS));
+  }
+
+  /**
+   * Produce a header for a synthetic mesh that has no vertex attributes.
+   * The mesh is a strip of triangles that wraps around as often as
+   * necessary to keep every index representable in
+   * {@code triangleIndexSizeBits} bits.
+   *
+   * @param triangleCount         The number of triangles
+   * @param triangleIndexSizeBits The size of triangle indices
+   * @param byteOrder             The byte order of the data
+   *
+   * @return A header
+   */
+
+  public static SMFHeader headerTrianglesOnly(
+    final long triangleCount,
+    final int triangleIndexSizeBits,
+    final ByteOrder byteOrder)
+  {
+    Objects.requireNonNull(byteOrder, "byteOrder");
+
+    final var indexLimit =
+      triangleIndexSizeBits >= 63
+        ? Long.MAX_VALUE
+        : 1L << triangleIndexSizeBits;
+
+    return SMFHeader.builder()
+      .setVertexCount(Math.min(indexLimit, Math.max(3L, triangleCount + 2L)))
+      .setTriangles(SMFTriangles.of(triangleCount, triangleIndexSizeBits))
+      .setDataByteOrder(byteOrder)
+      .build();
+  }
+
+  /**
+   * @param header A header
+   *
+   * @return The size in octets of the vertex data described by the header
+   */
+
+  public static long vertexDataSizeOctets(
+    final SMFHeader header)
+  {
+    Objects.requireNonNull(header, "header");
+
+    long vertexSize = 0L;
+    for (final var attribute : header.attributesInOrder()) {
+      vertexSize += (long) attribute.sizeOctets();
+    }
+    return vertexSize * header.vertexCount();
+  }
+
+  /**
+   * Write a synthetic mesh to the given serializer. The data is
+   * deterministic: the same header always produces the same mesh.
+   *
+   * @param header     A header produced by {@link #header(long, ByteOrder)},
+   *                   {@link #headerWide(long, ByteOrder)}, or
+   *                   {@link #headerTrianglesOnly(long, int, ByteOrder)}
+   * @param serializer The serializer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void write(
+    final SMFHeader header,
+    final SMFSerializerType serializer)
+    throws IOException
+  {
+    Objects.requireNonNull(header, "header");
+    Objects.requireNonNull(serializer, "serializer");
+
+    serializer.serializeHeader(header);
+    writeVertexData(header, serializer);
+    writeTriangles(header, serializer);
+  }
+
+  /**
+   * Write the synthetic mesh described by {@link #header(long, ByteOrder)} as
+   * a Wavefront OBJ file. OBJ files cannot carry the color attribute, so only
+   * positions, normals, and texture coordinates are written.
+   *
+   * @param vertexCount The number of vertices (at least 3)
+   * @param output      The output stream
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void writeOBJ(
+    final long vertexCount,
+    final OutputStream output)
+    throws IOException
+  {
+    Objects.requireNonNull(output, "output");
+
+    if (vertexCount < 3L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Vertex count %d must be at least 3",
+          Long.valueOf(vertexCount)));
+    }
+
+    final var writer =
+      new BufferedWriter(new OutputStreamWriter(output, UTF_8), 65536);
+
+    for (long index = 0L; index < vertexCount; ++index) {
+      writer.append("v ");
+      writer.append(Long.toString(index >>> 1));
+      writer.append(".0 ");
+      writer.append(Long.toString(index & 1L));
+      writer.append(".0 0.0\n");
+    }
+
+    final var scale = 1.0 / (double) vertexCount;
+    for (long index = 0L; index < vertexCount; ++index) {
+      writer.append(
+        String.format(
+          Locale.ROOT,
+          "vt %f %d.0\n",
+          Double.valueOf((double) index * scale),
+          Long.valueOf(index & 1L)));
+    }
+
+    for (long index = 0L; index < vertexCount; ++index) {
+      writer.append("vn 0.0 0.0 1.0\n");
+    }
+
+    final var triangleCount = vertexCount - 2L;
+    for (long index = 0L; index < triangleCount; ++index) {
+      if ((index & 1L) == 0L) {
+        writeOBJFace(writer, index, index + 1L, index + 2L);
+      } else {
+        writeOBJFace(writer, index + 1L, index, index + 2L);
+      }
+    }
+
+    writer.flush();
+  }
+
+  private static void writeOBJFace(
+    final BufferedWriter writer,
+    final long v0,
+    final long v1,
+    final long v2)
+    throws IOException
+  {
+    writer.append('f');
+    for (final var vertex : new long[]{v0, v1, v2}) {
+      final var text = Long.toString(vertex + 1L);
+      writer.append(' ');
+      writer.append(text);
+      writer.append('/');
+      writer.append(text);
+      writer.append('/');
+      writer.append(text);
+    }
+    writer.append('\n');
+  }
+
+  private static void writeVertexData(
+    final SMFHeader header,
+    final SMFSerializerType serializer)
+    throws IOException
+  {
+    try (var data = serializer.serializeVertexDataNonInterleavedStart()) {
+      for (final var attribute : header.attributesInOrder()) {
+        try (var values = data.serializeData(attribute.name())) {
+          writeAttribute(header.vertexCount(), attribute, values);
+        }
+      }
+    }
+  }
+
+  private static void writeAttribute(
+    final long vertexCount,
+    final SMFAttribute attribute,
+    final SMFSerializerDataAttributesValuesType values)
+    throws IOException
+  {
+    switch (attribute.name().value()) {
+      case "position": {
+        for (long index = 0L; index < vertexCount; ++index) {
+          final var x = (double) (index >>> 1);
+          final var y = (double) (index & 1L);
+          values.serializeValueFloat3(x, y, 0.0);
+        }
+        break;
+      }
+      case "normal": {
+        for (long index = 0L; index < vertexCount; ++index) {
+          values.serializeValueFloat3(0.0, 0.0, 1.0);
+        }
+        break;
+      }
+      case "tangent":
+      case "weights": {
+        for (long index = 0L; index < vertexCount; ++index) {
+          values.serializeValueFloat4(1.0, 0.0, 0.0, 1.0);
+        }
+        break;
+      }
+      case "joints": {
+        for (long index = 0L; index < vertexCount; ++index) {
+          final var j = index & 0xffffL;
+          values.serializeValueIntegerUnsigned4(j, j, 0L, 0L);
+        }
+        break;
+      }
+      case "uv1":
+      case "uv": {
+        final var scale = 1.0 / (double) vertexCount;
+        for (long index = 0L; index < vertexCount; ++index) {
+          values.serializeValueFloat2(
+            (double) index * scale,
+            (double) (index & 1L));
+        }
+        break;
+      }
+      case "color": {
+        for (long index = 0L; index < vertexCount; ++index) {
+          final var c = index & 0xffL;
+          values.serializeValueIntegerUnsigned4(c, c, c, 0xffL);
+        }
+        break;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void writeTriangles(
+    final SMFHeader header,
+    final SMFSerializerType serializer)
+    throws IOException
+  {
+    try (var triangles = serializer.serializeTrianglesStart()) {
+      final var triangleCount = header.triangles().triangleCount();
+      final var stripLength = header.vertexCount() - 2L;
+      for (long index = 0L; index < triangleCount; ++index) {
+        final var base = index % stripLength;
+        if ((base & 1L) == 0L) {
+          triangles.serializeTriangle(base, base + 1L, base + 2L);
+        } else {
+          triangles.serializeTriangle(base + 1L, base, base + 2L);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare serializing a mesh with interleaved vertex data to a file through
+ * a stream, through a channel opened for reading and writing (in which the
+ * vertex data is mapped), and through a channel opened only for writing (in
+ * which the vertex data is assembled in memory).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFBinary2InterleavedBenchmark
+{
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000000", "10000000"})
+  public long vertexCount;
+
+  /**
+   * The kind of output: {@code stream}, {@code channel}, or
+   * {@code channelWriteOnly}.
+   */
+
+  @Param({"stream", "channel", "channelWriteOnly"})
+  public String output;
+
+  private Path file;
+  private SMFHeader header;
+  private SMFFormatBinary2 format;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFBinary2InterleavedBenchmark()
+  {
+
+  }
+
+  /**
+   * Prepare the synthetic mesh header and the output file.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.format =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setSerializeVertexDataInterleaved(true)
+          .build());
+    this.header =
+      SMFBenchmarkMeshes.header(this.vertexCount, ByteOrder.LITTLE_ENDIAN);
+    this.file = Files.createTempFile("smfj-benchmark-", ".smfb");
+  }
+
+  /**
+   * Delete the output file.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Serialize the synthetic mesh.
+   *
+   * @return The size of the file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public long serialize()
+    throws IOException
+  {
+    final var version = this.format.serializerSupportedVersions().last();
+    switch (this.output) {
+      case "stream": {
+        try (var stream = Files.newOutputStream(this.file)) {
+          try (var serializer =
+                 this.format.serializerCreate(
+                   version, this.file.toUri(), stream)) {
+            SMFBenchmarkMeshes.write(this.header, serializer);
+          }
+        }
+        break;
+      }
+      case "channel": {
+        this.serializeChannel(
+          version,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+        break;
+      }
+      case "channelWriteOnly": {
+        this.serializeChannel(
+          version,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+        break;
+      }
+      default: {
+        throw new IllegalArgumentException(
+          "Unrecognized output: " + this.output);
+      }
+    }
+    return Files.size(this.file);
+  }
+
+  private void serializeChannel(
+    final SMFFormatVersion version,
+    final StandardOpenOption... options)
+    throws IOException
+  {
+    try (var channel = FileChannel.open(this.file, options)) {
+      try (var serializer =
+             this.format.serializerCreateChannel(
+               version, this.file.toUri(), channel)) {
+        SMFBenchmarkMeshes.write(this.header, serializer);
+      }
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare loading an eight-attribute smf/b file into memory using
+ * memory-mapped random-access parsing on a single thread against parallel
+ * decoding of the attribute arrays and triangles.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFBinary2ParallelBenchmark
+{
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000000"})
+  public long vertexCount;
+
+  /**
+   * The number of decoding threads; zero indicates that no executor is used.
+   */
+
+  @Param({"0", "2", "8"})
+  public int threads;
+
+  private Path file;
+  private FileChannel channel;
+  private ExecutorService executor;
+  private SMFFormatBinary2 format;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFBinary2ParallelBenchmark()
+  {
+
+  }
+
+  /**
+   * Write the synthetic mesh and open it.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    final var configuration =
+      SMFFormatBinary2Configuration.builder()
+        .setRandomAccessMemoryMapped(true);
+
+    if (this.threads > 0) {
+      this.executor = Executors.newFixedThreadPool(this.threads);
+      configuration.setRandomAccessExecutor(this.executor);
+    }
+
+    this.format = new SMFFormatBinary2(configuration.build());
+    this.file = Files.createTempFile("smfj-benchmark-", ".smfb");
+    try (var output = Files.newOutputStream(this.file)) {
+      try (var serializer = this.format.serializerCreate(
+        this.format.serializerSupportedVersions().last(),
+        this.file.toUri(),
+        output)) {
+        SMFBenchmarkMeshes.write(
+          SMFBenchmarkMeshes.headerWide(
+            this.vertexCount, ByteOrder.LITTLE_ENDIAN),
+          serializer);
+      }
+    }
+
+    this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+  }
+
+  /**
+   * Close and delete the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    if (this.executor != null) {
+      this.executor.shutdown();
+    }
+    this.channel.close();
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Load the file into memory.
+   *
+   * @return The mesh
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public SMFMemoryMesh load()
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    try (var parser = this.format.parserCreateRandomAccess(
+      producer, this.file.toUri(), this.channel)) {
+      parser.parse();
+    }
+    if (!producer.errors().isEmpty()) {
+      throw new IllegalStateException(producer.errors().get(0).fullMessage());
+    }
+    return producer.mesh();
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare random-access parsing of smf/b files using the bounds-checked
+ * channel readers against parsing from memory-mapped regions.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFBinary2RandomAccessBenchmark
+{
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"10000", "1000000"})
+  public long vertexCount;
+
+  /**
+   * The byte order of the synthetic mesh.
+   */
+
+  @Param({"BIG_ENDIAN", "LITTLE_ENDIAN"})
+  public String byteOrder;
+
+  private Path file;
+  private FileChannel channel;
+  private SMFFormatBinary2 formatReader;
+  private SMFFormatBinary2 formatMapped;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFBinary2RandomAccessBenchmark()
+  {
+
+  }
+
+  /**
+   * Write the synthetic mesh and open it.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.formatReader =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setRandomAccessMemoryMapped(false)
+          .build());
+    this.formatMapped =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setRandomAccessMemoryMapped(true)
+          .build());
+
+    final var order =
+      "BIG_ENDIAN".equals(this.byteOrder)
+        ? ByteOrder.BIG_ENDIAN
+        : ByteOrder.LITTLE_ENDIAN;
+
+    this.file = Files.createTempFile("smfj-benchmark-", ".smfb");
+    try (var output = Files.newOutputStream(this.file)) {
+      try (var serializer = this.formatReader.serializerCreate(
+        this.formatReader.serializerSupportedVersions().last(),
+        this.file.toUri(),
+        output)) {
+        SMFBenchmarkMeshes.write(
+          SMFBenchmarkMeshes.header(this.vertexCount, order),
+          serializer);
+      }
+    }
+
+    this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+  }
+
+  /**
+   * Close and delete the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    this.channel.close();
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Parse the file using the bounds-checked channel readers.
+   *
+   * @param blackhole The blackhole
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public void parseChannel(
+    final Blackhole blackhole)
+    throws IOException
+  {
+    this.parse(this.formatReader, blackhole);
+  }
+
+  /**
+   * Parse the file using memory-mapped regions.
+   *
+   * @param blackhole The blackhole
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public void parseMapped(
+    final Blackhole blackhole)
+    throws IOException
+  {
+    this.parse(this.formatMapped, blackhole);
+  }
+
+  private void parse(
+    final SMFFormatBinary2 format,
+    final Blackhole blackhole)
+    throws IOException
+  {
+    final var events = new SMFBenchmarkEvents(blackhole);
+    try (var parser = format.parserCreateRandomAccess(
+      events, this.file.toUri(), this.channel)) {
+      parser.parse();
+    }
+    events.checkNoErrors();
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measure the rate at which the triangles section of smf/b files is
+ * decoded. The synthetic mesh has no vertex attributes, so the time is
+ * dominated by reading, validating, and delivering triangles.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFBinary2TrianglesBenchmark
+{
+  private static final URI SOURCE = URI.create("urn:benchmark");
+
+  /**
+   * The number of triangles in the synthetic mesh.
+   */
+
+  @Param({"1000000"})
+  public long triangleCount;
+
+  /**
+   * The size of triangle indices.
+   */
+
+  @Param({"16", "32"})
+  public int indexSizeBits;
+
+  private byte[] data;
+  private Path file;
+  private FileChannel channel;
+  private SMFFormatBinary2 format;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFBinary2TrianglesBenchmark()
+  {
+
+  }
+
+  /**
+   * Write the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.format =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setRandomAccessMemoryMapped(true)
+          .build());
+
+    this.file = Files.createTempFile("smfj-benchmark-", ".smfb");
+    try (var output = Files.newOutputStream(this.file)) {
+      try (var serializer = this.format.serializerCreate(
+        this.format.serializerSupportedVersions().last(),
+        this.file.toUri(),
+        output)) {
+        SMFBenchmarkMeshes.write(
+          SMFBenchmarkMeshes.headerTrianglesOnly(
+            this.triangleCount,
+            this.indexSizeBits,
+            ByteOrder.LITTLE_ENDIAN),
+          serializer);
+      }
+    }
+
+    this.data = Files.readAllBytes(this.file);
+    this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+  }
+
+  /**
+   * Close and delete the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    this.channel.close();
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Decode the triangles using the sequential parser.
+   *
+   * @param blackhole The blackhole
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public void parseSequential(
+    final Blackhole blackhole)
+    throws IOException
+  {
+    final var events = new SMFBenchmarkEvents(blackhole);
+    try (var parser = this.format.parserCreateSequential(
+      events, SOURCE, new ByteArrayInputStream(this.data))) {
+      parser.parse();
+    }
+    events.checkNoErrors();
+  }
+
+  /**
+   * Decode the triangles from memory-mapped regions.
+   *
+   * @param blackhole The blackhole
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public void parseMapped(
+    final Blackhole blackhole)
+    throws IOException
+  {
+    final var events = new SMFBenchmarkEvents(blackhole);
+    try (var parser = this.format.parserCreateRandomAccess(
+      events, this.file.toUri(), this.channel)) {
+      parser.parse();
+    }
+    events.checkNoErrors();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the serializers of every format that supports serialization. The
+ * output is counted and discarded so that only the serializer is measured.
+ * The secondary counters report vertices per second and megabytes per
+ * second; run with {@code -prof gc} to obtain the allocation rate.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFFormatSerializeBenchmark
+{
+  private static final URI OUTPUT_URI =
+    URI.create("urn:com.io7m.smfj.benchmarks:output");
+
+  /**
+   * The format.
+   */
+
+  @Param({"smfb", "smft", "smfx"})
+  public String format;
+
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public long vertexCount;
+
+  private SMFSerializerProviderType serializers;
+  private SMFHeader header;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFFormatSerializeBenchmark()
+  {
+
+  }
+
+  /**
+   * Prepare the synthetic mesh header.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    this.serializers = SMFBenchmarkFormats.serializer(this.format);
+    this.header =
+      SMFBenchmarkMeshes.header(this.vertexCount, ByteOrder.BIG_ENDIAN);
+  }
+
+  /**
+   * Serialize the synthetic mesh.
+   *
+   * @param counters The secondary counters
+   *
+   * @return The number of octets written
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public long serialize(
+    final SMFBenchmarkCounters counters)
+    throws IOException
+  {
+    final var output = new SMFBenchmarkCountingOutputStream();
+    try (var serializer = this.serializers.serializerCreate(
+      this.serializers.serializerSupportedVersions().last(),
+      OUTPUT_URI,
+      output)) {
+      SMFBenchmarkMeshes.write(this.header, serializer);
+    }
+    counters.record(this.vertexCount, output.count());
+    return output.count();
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFSchemaName;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.processing.api.SMFFilterCommandContext;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterApplicationInfoAdd;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeRemove;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeRename;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeResample;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeTrim;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterCheck;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterCheckConfiguration;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterEndiannessSet;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterMetadataAdd;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterMetadataRemove;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterSchemaCheck;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterSchemaSet;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterTrianglesOptimize;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterTrianglesOptimizeConfiguration;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure each of the standard in-memory mesh filters. The
+ * {@code schema-validate} filter is not included: it only examines the
+ * header and metadata, and so its cost does not depend on the mesh size.
+ * The secondary counters report vertices per second and megabytes of
+ * in-memory vertex data per second. Run with {@code -prof gc} to obtain the allocation rate.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFMemoryMeshFilterBenchmark
+{
+  private static final SMFSchemaIdentifier SCHEMA =
+    SMFSchemaIdentifier.of(
+      SMFSchemaName.of("com.io7m.smfj.benchmarks"), 1, 0);
+
+  /**
+   * The filter.
+   */
+
+  @Param({
+    SMFMemoryMeshFilterApplicationInfoAdd.NAME,
+    SMFMemoryMeshFilterAttributeRemove.NAME,
+    SMFMemoryMeshFilterAttributeRename.NAME,
+    SMFMemoryMeshFilterAttributeResample.NAME,
+    SMFMemoryMeshFilterAttributeTrim.NAME,
+    SMFMemoryMeshFilterCheck.NAME,
+    SMFMemoryMeshFilterEndiannessSet.NAME,
+    SMFMemoryMeshFilterMetadataAdd.NAME,
+    SMFMemoryMeshFilterMetadataRemove.NAME,
+    SMFMemoryMeshFilterSchemaCheck.NAME,
+    SMFMemoryMeshFilterSchemaSet.NAME,
+    SMFMemoryMeshFilterTrianglesOptimize.NAME,
+  })
+  public String filterName;
+
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public long vertexCount;
+
+  private Path directory;
+  private Path metadata;
+  private SMFFilterCommandContext context;
+  private SMFMemoryMeshFilterType filter;
+  private SMFMemoryMesh mesh;
+  private long meshSize;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFMemoryMeshFilterBenchmark()
+  {
+
+  }
+
+  private static SMFMemoryMeshFilterType createFilter(
+    final String name)
+  {
+    final var position = SMFAttributeName.of("position");
+    final var normal = SMFAttributeName.of("normal");
+
+    switch (name) {
+      case SMFMemoryMeshFilterApplicationInfoAdd.NAME:
+        return SMFMemoryMeshFilterApplicationInfoAdd.create();
+      case SMFMemoryMeshFilterAttributeRemove.NAME:
+        return SMFMemoryMeshFilterAttributeRemove.create(
+          SMFAttributeName.of("color"));
+      case SMFMemoryMeshFilterAttributeRename.NAME:
+        return SMFMemoryMeshFilterAttributeRename.create(
+          SMFAttributeName.of("uv"), SMFAttributeName.of("texcoord"));
+      case SMFMemoryMeshFilterAttributeResample.NAME:
+        return SMFMemoryMeshFilterAttributeResample.create(position, 16);
+      case SMFMemoryMeshFilterAttributeTrim.NAME:
+        return SMFMemoryMeshFilterAttributeTrim.create(
+          Set.of(position, normal));
+      case SMFMemoryMeshFilterCheck.NAME:
+        return SMFMemoryMeshFilterCheck.create(
+          SMFMemoryMeshFilterCheckConfiguration.builder()
+            .setName(position)
+            .setComponentType(SMFComponentType.ELEMENT_TYPE_FLOATING)
+            .setComponentCount(3)
+            .setComponentSize(32)
+            .build());
+      case SMFMemoryMeshFilterEndiannessSet.NAME:
+        return SMFMemoryMeshFilterEndiannessSet.create(
+          ByteOrder.LITTLE_ENDIAN);
+      case SMFMemoryMeshFilterMetadataAdd.NAME:
+        return SMFMemoryMeshFilterMetadataAdd.create(
+          SCHEMA, Path.of("metadata.bin"));
+      case SMFMemoryMeshFilterMetadataRemove.NAME:
+        return SMFMemoryMeshFilterMetadataRemove.create(
+          Optional.empty(), Optional.empty());
+      case SMFMemoryMeshFilterSchemaCheck.NAME:
+        return SMFMemoryMeshFilterSchemaCheck.create(SCHEMA);
+      case SMFMemoryMeshFilterSchemaSet.NAME:
+        return SMFMemoryMeshFilterSchemaSet.create(SCHEMA);
+      case SMFMemoryMeshFilterTrianglesOptimize.NAME:
+        return SMFMemoryMeshFilterTrianglesOptimize.create(
+          SMFMemoryMeshFilterTrianglesOptimizeConfiguration.builder()
+            .setValidate(true)
+            .setOptimize(16)
+            .build());
+      default:
+        throw new IllegalArgumentException("Unrecognized filter: " + name);
+    }
+  }
+
+  /**
+   * Create the filter and load the synthetic mesh into memory.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.directory = Files.createTempDirectory("smfj-benchmark-");
+    this.metadata = this.directory.resolve("metadata.bin");
+    Files.write(this.metadata, new byte[4096]);
+
+    this.context =
+      SMFFilterCommandContext.of(
+        this.directory, this.directory.resolve("filters.txt"));
+    this.filter = createFilter(this.filterName);
+
+    final var file =
+      SMFBenchmarkFormats.writeTemporary("smfb", this.vertexCount);
+    try {
+      final var producer = SMFMemoryMeshProducer.create();
+      try (var stream = new BufferedInputStream(
+        Files.newInputStream(file), 65536)) {
+        try (var parser = new SMFFormatBinary2().parserCreateSequential(
+          producer, file.toUri(), stream)) {
+          parser.parse();
+        }
+      }
+      if (!producer.errors().isEmpty()) {
+        throw new IllegalStateException(
+          producer.errors().get(0).fullMessage());
+      }
+      this.mesh =
+        SMFMemoryMeshFilterSchemaSet.create(SCHEMA)
+          .filter(this.context, producer.mesh())
+          .get();
+      this.meshSize =
+        SMFBenchmarkMeshes.vertexDataSizeOctets(this.mesh.header());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Delete the temporary files.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    Files.deleteIfExists(this.metadata);
+    Files.deleteIfExists(this.directory);
+  }
+
+  /**
+   * Apply the filter to the mesh.
+   *
+   * @param counters The secondary counters
+   *
+   * @return The filtered mesh
+   */
+
+  @Benchmark
+  public SMFMemoryMesh filter(
+    final SMFBenchmarkCounters counters)
+  {
+    final var result = this.filter.filter(this.context, this.mesh);
+    if (result.isFailed()) {
+      throw new IllegalStateException(result.errors().get(0).fullMessage());
+    }
+    counters.record(this.vertexCount, this.meshSize);
+    return result.get();
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshParser;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the construction of in-memory meshes, both from an smf/b file and
+ * from an existing in-memory mesh (which isolates the cost of the producer
+ * from the cost of decoding). The secondary counters report vertices per
+ * second and megabytes per second; the latter counts the file size when
+ * parsing, and the size of the vertex data when copying. Run with
+ * {@code -prof gc} to obtain the allocation rate.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFMemoryMeshProducerBenchmark
+{
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public long vertexCount;
+
+  private Path file;
+  private long fileSize;
+  private SMFFormatBinary2 format;
+  private SMFMemoryMesh mesh;
+  private long meshSize;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFMemoryMeshProducerBenchmark()
+  {
+
+  }
+
+  private static SMFMemoryMesh checkedMesh(
+    final SMFMemoryMeshProducerType producer)
+  {
+    if (!producer.errors().isEmpty()) {
+      throw new IllegalStateException(producer.errors().get(0).fullMessage());
+    }
+    return producer.mesh();
+  }
+
+  /**
+   * Write the synthetic mesh and load it into memory.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.format = new SMFFormatBinary2();
+    this.file = SMFBenchmarkFormats.writeTemporary("smfb", this.vertexCount);
+    this.fileSize = Files.size(this.file);
+    this.mesh = this.produceFromFile();
+    this.meshSize =
+      SMFBenchmarkMeshes.vertexDataSizeOctets(this.mesh.header());
+  }
+
+  /**
+   * Delete the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Parse an smf/b file into an in-memory mesh.
+   *
+   * @param counters The secondary counters
+   *
+   * @return The mesh
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public SMFMemoryMesh produceFromBinary(
+    final SMFBenchmarkCounters counters)
+    throws IOException
+  {
+    final var result = this.produceFromFile();
+    counters.record(this.vertexCount, this.fileSize);
+    return result;
+  }
+
+  /**
+   * Copy an existing in-memory mesh into a new in-memory mesh.
+   *
+   * @param counters The secondary counters
+   *
+   * @return The mesh
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public SMFMemoryMesh produceFromMemory(
+    final SMFBenchmarkCounters counters)
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    try (var parser = SMFMemoryMeshParser.createSequential(
+      this.mesh, producer)) {
+      parser.parse();
+    }
+    counters.record(this.vertexCount, this.meshSize);
+    return checkedMesh(producer);
+  }
+
+  private SMFMemoryMesh produceFromFile()
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    try (var stream = new BufferedInputStream(
+      Files.newInputStream(this.file), 65536)) {
+      try (var parser = this.format.parserCreateSequential(
+        producer, this.file.toUri(), stream)) {
+        parser.parse();
+      }
+    }
+    return checkedMesh(producer);
+  }
+}
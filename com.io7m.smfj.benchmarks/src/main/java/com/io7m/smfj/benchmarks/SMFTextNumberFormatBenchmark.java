@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.text.SMFTNumberFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the number formatter used by the smf/t serializer with
+ * {@link Double#toString(double)}. The values are typical of vertex
+ * positions: a mix of magnitudes around one, either arbitrary doubles or
+ * values that were originally stored as {@code float}. Run with
+ * {@code -prof gc} to compare the allocation rates.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFTextNumberFormatBenchmark
+{
+  /**
+   * The kind of values.
+   */
+
+  @Param({"float32", "float64"})
+  public String values;
+
+  private double[] data;
+  private SMFTNumberFormatter formatter;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFTextNumberFormatBenchmark()
+  {
+
+  }
+
+  /**
+   * Generate the values.
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    final var random = new SplittableRandom(0x534d46L);
+    this.data = new double[100_000];
+    for (int index = 0; index < this.data.length; ++index) {
+      final double x = (random.nextDouble() - 0.5) * 200.0;
+      switch (this.values) {
+        case "float32":
+          this.data[index] = (float) x;
+          break;
+        case "float64":
+          this.data[index] = x;
+          break;
+        default:
+          throw new IllegalArgumentException(
+            "Unrecognized values: " + this.values);
+      }
+    }
+    this.formatter = new SMFTNumberFormatter();
+  }
+
+  /**
+   * Format the values with {@link Double#toString(double)}.
+   *
+   * @return The number of characters produced
+   */
+
+  @Benchmark
+  public long formatJDK()
+  {
+    long count = 0L;
+    for (final double x : this.data) {
+      count += (long) Double.toString(x).length();
+    }
+    return count;
+  }
+
+  /**
+   * Format the values as the shortest decimals that round to the original
+   * {@code double} values.
+   *
+   * @return The number of characters produced
+   */
+
+  @Benchmark
+  public long formatDouble()
+  {
+    final var f = this.formatter;
+    long count = 0L;
+    for (final double x : this.data) {
+      f.reset();
+      f.appendDouble(x);
+      count += (long) f.length();
+    }
+    return count;
+  }
+
+  /**
+   * Format the values as the serializer does for 32-bit attributes when
+   * narrowing is enabled.
+   *
+   * @return The number of characters produced
+   */
+
+  @Benchmark
+  public long formatNarrowed()
+  {
+    final var f = this.formatter;
+    long count = 0L;
+    for (final double x : this.data) {
+      f.reset();
+      f.appendFloating(x, 32);
+      count += (long) f.length();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.benchmarks;
+
+import com.io7m.smfj.format.xml.SMFFormatXML;
+import com.io7m.smfj.format.xml.SMFFormatXMLParserKind;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the validating SAX parser and the streaming StAX parser of the
+ * XML format on the same synthetic mesh.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SMFXMLParseBenchmark
+{
+  /**
+   * The parser implementation.
+   */
+
+  @Param({"PARSER_SAX_VALIDATING", "PARSER_STREAMING"})
+  public SMFFormatXMLParserKind parser;
+
+  /**
+   * The number of vertices in the synthetic mesh.
+   */
+
+  @Param({"1000", "100000", "1000000"})
+  public long vertexCount;
+
+  private Path file;
+  private long fileSize;
+  private SMFFormatXML parsers;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SMFXMLParseBenchmark()
+  {
+
+  }
+
+  /**
+   * Write the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IOException
+  {
+    this.parsers = new SMFFormatXML(this.parser);
+    this.file = SMFBenchmarkFormats.writeTemporary("smfx", this.vertexCount);
+    this.fileSize = Files.size(this.file);
+  }
+
+  /**
+   * Delete the synthetic mesh.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IOException
+  {
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Parse the file.
+   *
+   * @param blackhole The blackhole
+   * @param counters  The secondary counters
+   *
+   * @throws IOException On I/O errors
+   */
+
+  @Benchmark
+  public void parse(
+    final Blackhole blackhole,
+    final SMFBenchmarkCounters counters)
+    throws IOException
+  {
+    final var events = new SMFBenchmarkEvents(blackhole);
+    try (var stream = new BufferedInputStream(
+      Files.newInputStream(this.file), 65536)) {
+      try (var p = this.parsers.parserCreateSequential(
+        events, this.file.toUri(), stream)) {
+        p.parse();
+      }
+    }
+    events.checkNoErrors();
+    counters.record(this.vertexCount, this.fileSize);
+  }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for
+ * any purpose with or without fee is hereby granted, provided that the
+ * above copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ * WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR
+ * BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES
+ * OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION,
+ * ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS
+ * SOFTWARE.
+ */
+
+
+package com.io7m.smfj.cmdline;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.io7m.smfj.frontend.SMFParserProviders;
+import com.io7m.smfj.frontend.SMFSerializerProviders;
+import com.io7m.smfj.parser.api.SMFParserProviderType;
+import com.io7m.smfj.processing.api.SMFFilterCommandContext;
+import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The batch command. Evaluates a single filter command file on many input
+ * files, using a fixed-size pool of worker threads.
+ */
+
+@Parameters(commandDescription = "Filter many mesh files in parallel")
+public final class CommandBatch extends CommandRoot
+{
+  private static final Logger LOG = LoggerFactory.getLogger(CommandBatch.class);
+
+  @Parameter(
+    names = "--input-directory",
+    description = "A directory that will be searched recursively for input files")
+  private Path directoryIn;
+
+  @Parameter(
+    names = "--input-manifest",
+    description = "A file listing input files, one per line, relative to the manifest")
+  private Path manifestIn;
+
+  @Parameter(
+    names = "--input-format",
+    description = "The input file format")
+  private String formatIn;
+
+  @Parameter(
+    names = "--output-directory",
+    required = true,
+    description = "The output directory")
+  private Path directoryOut;
+
+  @Parameter(
+    names = "--output-format",
+    required = true,
+    description = "The output file format")
+  private String formatOut;
+
+  @Parameter(
+    names = "--commands",
+    required = true,
+    description = "The filter commands")
+  private Path fileCommands;
+
+  @Parameter(
+    names = "--source-directory",
+    description = "The source directory")
+  private Path sourceDirectory = Paths.get("");
+
+  @Parameter(
+    names = "--threads",
+    description = "The number of worker threads")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  CommandBatch()
+  {
+
+  }
+
+  private static String suffixOf(
+    final Path file)
+  {
+    final String name = file.getFileName().toString();
+    final int index = name.lastIndexOf('.');
+    if (index == -1) {
+      return "";
+    }
+    return name.substring(index + 1);
+  }
+
+  private static Path withSuffix(
+    final Path file,
+    final String suffix)
+  {
+    final String name = file.getFileName().toString();
+    final int index = name.lastIndexOf('.');
+    final String base = index == -1 ? name : name.substring(0, index);
+    return file.resolveSibling(base + "." + suffix);
+  }
+
+  @Override
+  public Integer call()
+    throws Exception
+  {
+    super.call();
+
+    if ((this.directoryIn == null) == (this.manifestIn == null)) {
+      LOG.error("exactly one of --input-directory or --input-manifest must be specified");
+      return Integer.valueOf(1);
+    }
+
+    if (this.threads < 1) {
+      LOG.error("the number of threads must be at least 1");
+      return Integer.valueOf(1);
+    }
+
+    final Optional<List<SMFMemoryMeshFilterType>> filtersOpt =
+      SMFFilterJob.parseFilterCommands(this.fileCommands);
+
+    if (filtersOpt.isEmpty()) {
+      return Integer.valueOf(1);
+    }
+
+    final Optional<SMFSerializerProviderType> serializersOpt =
+      SMFSerializerProviders.findSerializerProvider(
+        Optional.of(this.formatOut), "");
+
+    if (serializersOpt.isEmpty()) {
+      return Integer.valueOf(1);
+    }
+
+    final Optional<List<SMFFilterJob>> jobsOpt =
+      this.createJobs(filtersOpt.get(), serializersOpt.get());
+
+    if (jobsOpt.isEmpty()) {
+      return Integer.valueOf(1);
+    }
+
+    return Integer.valueOf(this.runJobs(jobsOpt.get()));
+  }
+
+  private Optional<List<SMFFilterJob>> createJobs(
+    final List<SMFMemoryMeshFilterType> filters,
+    final SMFSerializerProviderType serializers)
+    throws IOException
+  {
+    final Path base;
+    final List<Path> inputs;
+    if (this.directoryIn != null) {
+      base = this.directoryIn.toAbsolutePath().normalize();
+      inputs = this.listDirectory(base);
+    } else {
+      base = this.manifestIn.toAbsolutePath().normalize().getParent();
+      inputs = listManifest(base, this.manifestIn);
+    }
+
+    LOG.debug("found {} input files", Integer.valueOf(inputs.size()));
+
+    final SMFFilterCommandContext context =
+      SMFFilterCommandContext.of(
+        this.sourceDirectory.toAbsolutePath(),
+        this.fileCommands.toAbsolutePath());
+
+    final String suffixOut = serializers.serializerFormat().suffix();
+    final Path outputBase = this.directoryOut.toAbsolutePath().normalize();
+    final Map<String, Optional<SMFParserProviderType>> parsersBySuffix =
+      new HashMap<>();
+    final Map<Path, Path> outputs = new HashMap<>(inputs.size());
+    final List<SMFFilterJob> jobs = new ArrayList<>(inputs.size());
+
+    boolean failed = false;
+    for (final Path input : inputs) {
+      final Optional<SMFParserProviderType> parsersOpt =
+        parsersBySuffix.computeIfAbsent(
+          suffixOf(input),
+          ignored -> SMFParserProviders.findParserProvider(
+            Optional.ofNullable(this.formatIn), input.toString()));
+
+      if (parsersOpt.isEmpty()) {
+        LOG.error("no parser is available for {}", input);
+        failed = true;
+        continue;
+      }
+
+      final Path relative =
+        input.startsWith(base) ? base.relativize(input) : input.getFileName();
+      final Path output =
+        withSuffix(outputBase.resolve(relative), suffixOut);
+
+      final Path existing = outputs.put(output, input);
+      if (existing != null) {
+        LOG.error(
+          "input files {} and {} would both be written to {}",
+          existing,
+          input,
+          output);
+        failed = true;
+        continue;
+      }
+
+      jobs.add(new SMFFilterJob(
+        context,
+        filters,
+        parsersOpt.get(),
+        input,
+        Optional.of(serializers),
+        Optional.of(output)));
+    }
+
+    if (failed) {
+      return Optional.empty();
+    }
+    return Optional.of(jobs);
+  }
+
+  private List<Path> listDirectory(
+    final Path base)
+    throws IOException
+  {
+    final Set<String> suffixes = this.inputSuffixes();
+    try (Stream<Path> files = Files.walk(base)) {
+      return files
+        .filter(Files::isRegularFile)
+        .filter(file -> suffixes.contains(suffixOf(file)))
+        .sorted()
+        .collect(Collectors.toList());
+    }
+  }
+
+  private static List<Path> listManifest(
+    final Path base,
+    final Path manifest)
+    throws IOException
+  {
+    return Files.readAllLines(manifest, StandardCharsets.UTF_8)
+      .stream()
+      .map(String::trim)
+      .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+      .map(line -> base.resolve(line).normalize())
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * @return The suffixes of files that will be picked up when searching
+   * an input directory
+   */
+
+  private Set<String> inputSuffixes()
+  {
+    return ServiceLoader.load(SMFParserProviderType.class)
+      .stream()
+      .map(ServiceLoader.Provider::get)
+      .map(SMFParserProviderType::parserFormat)
+      .filter(format -> this.formatIn == null || format.name().equals(this.formatIn))
+      .map(format -> format.suffix())
+      .collect(Collectors.toSet());
+  }
+
+  private int runJobs(
+    final List<SMFFilterJob> jobs)
+    throws InterruptedException
+  {
+    final AtomicInteger threadIndex = new AtomicInteger(0);
+    final ExecutorService executor =
+      Executors.newFixedThreadPool(this.threads, runnable -> {
+        final Thread thread = new Thread(runnable);
+        thread.setName("com.io7m.smfj.cmdline.batch[" + threadIndex.getAndIncrement() + "]");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    final long timeThen = System.nanoTime();
+    long bytes = 0L;
+    int failures = 0;
+
+    try {
+      final ExecutorCompletionService<JobResult> completion =
+        new ExecutorCompletionService<>(executor);
+      for (final SMFFilterJob job : jobs) {
+        completion.submit(() -> runJob(job));
+      }
+
+      for (int index = 0; index < jobs.size(); ++index) {
+        final JobResult result = completion.take().get();
+        bytes += result.bytes;
+
+        if (result.succeeded) {
+          LOG.info(
+            "[{}/{}] ok {} -> {} ({})",
+            Integer.valueOf(index + 1),
+            Integer.valueOf(jobs.size()),
+            result.job.fileIn(),
+            result.job.fileOut().get(),
+            result.duration);
+        } else {
+          ++failures;
+          LOG.error(
+            "[{}/{}] failed {} ({})",
+            Integer.valueOf(index + 1),
+            Integer.valueOf(jobs.size()),
+            result.job.fileIn(),
+            result.duration);
+        }
+      }
+    } catch (final ExecutionException e) {
+      LOG.error("batch execution failed: ", e.getCause());
+      return 1;
+    } finally {
+      executor.shutdownNow();
+    }
+
+    final Duration elapsed = Duration.ofNanos(System.nanoTime() - timeThen);
+    final double seconds = Math.max(elapsed.toNanos() / 1.0e9, 1.0e-9);
+    LOG.info(
+      "processed {} files ({} failed, {} bytes) in {} using {} threads: {} files/s, {} MiB/s",
+      Integer.valueOf(jobs.size()),
+      Integer.valueOf(failures),
+      Long.valueOf(bytes),
+      elapsed,
+      Integer.valueOf(this.threads),
+      String.format("%.2f", Double.valueOf(jobs.size() / seconds)),
+      String.format("%.2f", Double.valueOf(bytes / seconds / (1024.0 * 1024.0))));
+
+    return failures == 0 ? 0 : 1;
+  }
+
+  private static JobResult runJob(
+    final SMFFilterJob job)
+  {
+    final long timeThen = System.nanoTime();
+    long bytes = 0L;
+    boolean succeeded;
+
+    try {
+      bytes = Files.size(job.fileIn());
+      Files.createDirectories(job.fileOut().get().getParent());
+      succeeded = job.run();
+    } catch (final Exception e) {
+      LOG.error("{}: {}", job.fileIn(), e.getMessage());
+      LOG.debug("exception: ", e);
+      succeeded = false;
+    }
+
+    return new JobResult(
+      job,
+      succeeded,
+      bytes,
+      Duration.ofNanos(System.nanoTime() - timeThen));
+  }
+
+  private static final class JobResult
+  {
+    private final SMFFilterJob job;
+    private final boolean succeeded;
+    private final long bytes;
+    private final Duration duration;
+
+    JobResult(
+      final SMFFilterJob in_job,
+      final boolean in_succeeded,
+      final long in_bytes,
+      final Duration in_duration)
+    {
+      this.job = in_job;
+      this.succeeded = in_succeeded;
+      this.bytes = in_bytes;
+      this.duration = in_duration;
+    }
+  }
+}
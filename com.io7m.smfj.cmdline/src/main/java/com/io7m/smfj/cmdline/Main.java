@@ -48,12 +48,14 @@ public final class Main implements Runnable
     this.args = Objects.requireNonNull(in_args, "Arguments");
 
     final CommandRoot root = new CommandRoot();
+    final CommandBatch batch = new CommandBatch();
     final CommandFormats formats = new CommandFormats();
     final CommandFilter filter = new CommandFilter();
     final CommandListFilters listFilters = new CommandListFilters();
     final CommandProbe probe = new CommandProbe();
 
     this.commands = new HashMap<>(8);
+    this.commands.put("batch", batch);
     this.commands.put("filter", filter);
     this.commands.put("list-formats", formats);
     this.commands.put("list-filters", listFilters);
@@ -63,6 +65,7 @@ public final class Main implements Runnable
     this.commander = new JCommander(root);
     this.commander.setConsole(this.console);
     this.commander.setProgramName("smf");
+    this.commander.addCommand("batch", batch);
     this.commander.addCommand("filter", filter);
     this.commander.addCommand("list-formats", formats);
     this.commander.addCommand("list-filters", listFilters);
@@ -82,6 +85,21 @@ public final class Main implements Runnable
     System.exit(cm.exitCode());
   }
 
+  /**
+   * The main entry point, without calling {@link System#exit(int)}.
+   *
+   * @param args Command line arguments
+   *
+   * @return The program exit code
+   */
+
+  public static int mainExitless(final String[] args)
+  {
+    final Main cm = new Main(args);
+    cm.run();
+    return cm.exitCode();
+  }
+
   /**
    * @return The program exit code
    */
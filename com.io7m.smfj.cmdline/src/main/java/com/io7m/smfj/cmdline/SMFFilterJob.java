@@ -0,0 +1,352 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for
+ * any purpose with or without fee is hereby granted, provided that the
+ * above copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ * WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR
+ * BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES
+ * OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS,
+ * WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION,
+ * ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS
+ * SOFTWARE.
+ */
+
+
+package com.io7m.smfj.cmdline;
+
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFPartialLogged;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.frontend.SMFFilterCommandFile;
+import com.io7m.smfj.parser.api.SMFParserProviderType;
+import com.io7m.smfj.processing.api.SMFFilterCommandContext;
+import com.io7m.smfj.processing.api.SMFFilterCommandModuleResolver;
+import com.io7m.smfj.processing.api.SMFFilterCommandModuleResolverType;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.processing.api.SMFMemoryMeshSerializer;
+import com.io7m.smfj.processing.api.SMFStreamingFilterPipeline;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The evaluation of a list of filters on a single input file, optionally
+ * serializing the result to an output file. A job may be executed on any
+ * thread; jobs share nothing except the (immutable) filters and providers.
+ */
+
+final class SMFFilterJob
+{
+  private static final Logger LOG = LoggerFactory.getLogger(SMFFilterJob.class);
+
+  private final SMFFilterCommandContext context;
+  private final List<SMFMemoryMeshFilterType> filters;
+  private final Optional<List<SMFStreamingFilterType>> streaming;
+  private final SMFParserProviderType parsers;
+  private final Path fileIn;
+  private final Optional<SMFSerializerProviderType> serializers;
+  private final Optional<Path> fileOut;
+
+  SMFFilterJob(
+    final SMFFilterCommandContext in_context,
+    final List<SMFMemoryMeshFilterType> in_filters,
+    final SMFParserProviderType in_parsers,
+    final Path in_file_in,
+    final Optional<SMFSerializerProviderType> in_serializers,
+    final Optional<Path> in_file_out)
+  {
+    this.context =
+      Objects.requireNonNull(in_context, "Context");
+    this.filters =
+      List.copyOf(Objects.requireNonNull(in_filters, "Filters"));
+    this.parsers =
+      Objects.requireNonNull(in_parsers, "Parsers");
+    this.fileIn =
+      Objects.requireNonNull(in_file_in, "File in");
+    this.serializers =
+      Objects.requireNonNull(in_serializers, "Serializers");
+    this.fileOut =
+      Objects.requireNonNull(in_file_out, "File out");
+
+    if (this.serializers.isPresent() != this.fileOut.isPresent()) {
+      throw new IllegalArgumentException(
+        "An output file requires a serializer provider and vice versa");
+    }
+
+    this.streaming = streamingFilters(this.filters);
+  }
+
+  /**
+   * Log the given warnings and errors.
+   *
+   * @param warnings The warnings
+   * @param errors   The errors
+   */
+
+  static void logMessages(
+    final List<? extends SMFWarningType> warnings,
+    final List<? extends SMFErrorType> errors)
+  {
+    warnings.forEach(e -> {
+      LOG.warn("{}", e.fullMessage());
+      final Optional<Exception> exceptionOpt = e.exception();
+      if (exceptionOpt.isPresent()) {
+        LOG.error("exception: ", exceptionOpt.get());
+      }
+    });
+
+    errors.forEach(e -> {
+      LOG.error("{}", e.fullMessage());
+      final Optional<Exception> exceptionOpt = e.exception();
+      if (exceptionOpt.isPresent()) {
+        LOG.error("exception: ", exceptionOpt.get());
+      }
+    });
+  }
+
+  /**
+   * Parse a filter command file.
+   *
+   * @param file The command file
+   *
+   * @return The parsed filters, or nothing if parsing failed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static Optional<List<SMFMemoryMeshFilterType>> parseFilterCommands(
+    final Path file)
+    throws IOException
+  {
+    final SMFFilterCommandModuleResolverType resolver =
+      SMFFilterCommandModuleResolver.create();
+
+    try (var stream = Files.newInputStream(file)) {
+      final SMFPartialLogged<List<SMFMemoryMeshFilterType>> result =
+        SMFFilterCommandFile.parseFromStream(
+          resolver, Optional.of(file.toUri()), stream);
+
+      logMessages(result.warnings(), result.errors());
+
+      if (result.isSucceeded()) {
+        return Optional.of(result.get());
+      }
+
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<List<SMFStreamingFilterType>> streamingFilters(
+    final List<SMFMemoryMeshFilterType> filters)
+  {
+    final var streaming = new ArrayList<SMFStreamingFilterType>(filters.size());
+    for (final var filter : filters) {
+      final var streamingOpt = filter.streaming();
+      if (streamingOpt.isEmpty()) {
+        LOG.debug("filter {} does not support streaming", filter.name());
+        return Optional.empty();
+      }
+      streaming.add(streamingOpt.get());
+    }
+    return Optional.of(streaming);
+  }
+
+  /**
+   * @return The input file
+   */
+
+  Path fileIn()
+  {
+    return this.fileIn;
+  }
+
+  /**
+   * @return The output file, if any
+   */
+
+  Optional<Path> fileOut()
+  {
+    return this.fileOut;
+  }
+
+  /**
+   * Execute the job.
+   *
+   * @return {@code true} if the job succeeded
+   */
+
+  boolean run()
+  {
+    /*
+     * If every filter can be evaluated on the parser event stream, then
+     * filter the mesh as it is parsed instead of loading it into memory.
+     */
+
+    if (this.fileOut.isPresent() && this.streaming.isPresent()) {
+      LOG.debug("all filters support streaming; mesh will not be loaded into memory");
+      return this.runStreaming(
+        this.streaming.get(), this.serializers.get(), this.fileOut.get());
+    }
+
+    final Optional<SMFMemoryMesh> meshOpt = this.loadMemoryMesh();
+    if (meshOpt.isEmpty()) {
+      return false;
+    }
+
+    final Optional<SMFMemoryMesh> filteredOpt =
+      this.runFilters(meshOpt.get());
+
+    if (filteredOpt.isEmpty()) {
+      return false;
+    }
+
+    if (this.fileOut.isPresent()) {
+      return this.serializeMesh(
+        filteredOpt.get(), this.serializers.get(), this.fileOut.get());
+    }
+    return true;
+  }
+
+  private boolean runStreaming(
+    final List<SMFStreamingFilterType> streamingFilters,
+    final SMFSerializerProviderType serializerProvider,
+    final Path output)
+  {
+    LOG.debug("filtering {} to {}", this.fileIn, output);
+    final var timeThen = LocalDateTime.now();
+
+    boolean succeeded;
+    try (var is = Files.newInputStream(this.fileIn)) {
+      try (var os = Files.newOutputStream(output)) {
+        try (var serializer =
+               serializerProvider.serializerCreate(
+                 serializerProvider.serializerSupportedVersions().last(),
+                 output.toUri(),
+                 os)) {
+          final var pipeline =
+            SMFStreamingFilterPipeline.create(
+              this.context, streamingFilters, serializer);
+          try (var parser = this.parsers.parserCreateSequential(
+            pipeline, this.fileIn.toUri(), is)) {
+            parser.parse();
+          }
+
+          logMessages(pipeline.warnings(), pipeline.errors());
+          succeeded = pipeline.errors().isEmpty();
+        }
+      }
+    } catch (final IOException e) {
+      LOG.error("could not filter mesh: {}", e.getMessage());
+      LOG.debug("i/o error: ", e);
+      succeeded = false;
+    }
+
+    /*
+     * Unlike the in-memory path, the output file is written before the
+     * input has been fully parsed. Don't leave a partial file behind.
+     */
+
+    if (!succeeded) {
+      try {
+        Files.deleteIfExists(output);
+      } catch (final IOException e) {
+        LOG.error("could not delete {}: {}", output, e.getMessage());
+      }
+      return false;
+    }
+
+    final var timeNow = LocalDateTime.now();
+    LOG.debug("filtered in {}", Duration.between(timeThen, timeNow));
+    return true;
+  }
+
+  private boolean serializeMesh(
+    final SMFMemoryMesh filtered,
+    final SMFSerializerProviderType serializerProvider,
+    final Path output)
+  {
+    LOG.debug("serializing to {}", output);
+    final var timeThen = LocalDateTime.now();
+    try (var os = Files.newOutputStream(output)) {
+      try (var serializer =
+             serializerProvider.serializerCreate(
+               serializerProvider.serializerSupportedVersions().last(),
+               output.toUri(),
+               os)) {
+        SMFMemoryMeshSerializer.serialize(filtered, serializer);
+      }
+    } catch (final IOException e) {
+      LOG.error("could not serialize mesh: {}", e.getMessage());
+      LOG.debug("i/o error: ", e);
+      return false;
+    }
+    final var timeNow = LocalDateTime.now();
+    LOG.debug("serialized in {}", Duration.between(timeThen, timeNow));
+    return true;
+  }
+
+  private Optional<SMFMemoryMesh> runFilters(
+    final SMFMemoryMesh mesh)
+  {
+    SMFMemoryMesh meshCurrent = mesh;
+    for (int index = 0; index < this.filters.size(); ++index) {
+      final SMFMemoryMeshFilterType filter = this.filters.get(index);
+      LOG.debug("evaluating filter: {}", filter.name());
+
+      final SMFPartialLogged<SMFMemoryMesh> result =
+        filter.filter(this.context, meshCurrent);
+
+      logMessages(result.warnings(), result.errors());
+
+      if (result.isSucceeded()) {
+        meshCurrent = result.get();
+      } else {
+        return Optional.empty();
+      }
+    }
+
+    return Optional.of(meshCurrent);
+  }
+
+  private Optional<SMFMemoryMesh> loadMemoryMesh()
+  {
+    final SMFMemoryMeshProducerType loader =
+      SMFMemoryMeshProducer.create();
+
+    LOG.debug("open {}", this.fileIn);
+    try (var stream = Files.newInputStream(this.fileIn)) {
+      try (var parser = this.parsers.parserCreateSequential(
+        loader, this.fileIn.toUri(), stream)) {
+        parser.parse();
+      }
+
+      logMessages(loader.warnings(), loader.errors());
+
+      if (!loader.errors().isEmpty()) {
+        return Optional.empty();
+      }
+    } catch (final IOException e) {
+      LOG.error("could not load mesh: {}", e.getMessage());
+      LOG.debug("i/o error: ", e);
+      return Optional.empty();
+    }
+    return Optional.of(loader.mesh());
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.core;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import java.util.Map;
+import org.immutables.value.Value;
+
+/**
+ * The layout of interleaved vertex data. The data of each vertex occupies
+ * {@link #stride()} octets, and the data of each attribute within a vertex
+ * starts at the offset given by {@link #offsets()}.
+ */
+
+@Value.Immutable
+@ImmutablesStyleType
+public interface SMFInterleavedLayoutType
+{
+  /**
+   * @return The size in octets of the data of a single vertex
+   */
+
+  @Value.Parameter
+  int stride();
+
+  /**
+   * @return The offset in octets of the data of each attribute, relative to
+   * the start of the data of each vertex
+   */
+
+  @Value.Parameter
+  Map<SMFAttributeName, Integer> offsets();
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.stride() < 0) {
+      throw new IllegalArgumentException(
+        String.format("Stride %d must be non-negative", this.stride()));
+    }
+
+    for (final var entry : this.offsets().entrySet()) {
+      final int offset = entry.getValue().intValue();
+      if (offset < 0 || offset >= this.stride()) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Offset %d of attribute %s must be in the range [0, %d)",
+            Integer.valueOf(offset),
+            entry.getKey().value(),
+            Integer.valueOf(this.stride())));
+      }
+    }
+  }
+}
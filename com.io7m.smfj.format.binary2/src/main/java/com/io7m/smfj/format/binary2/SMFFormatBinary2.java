@@ -24,6 +24,7 @@ import com.io7m.jbssio.vanilla.BSSWriters;
 import com.io7m.smfj.core.SMFFormatDescription;
 import com.io7m.smfj.core.SMFFormatVersion;
 import com.io7m.smfj.core.SMFPartialLogged;
+import com.io7m.smfj.format.binary2.internal.SMFB2ChannelSerializer;
 import com.io7m.smfj.format.binary2.internal.SMFB2ParserRandomAccess;
 import com.io7m.smfj.format.binary2.internal.SMFB2ParserSequential;
 import com.io7m.smfj.format.binary2.internal.SMFB2ParsingContexts;
@@ -64,23 +65,57 @@ public final class SMFFormatBinary2
   private final BSSReaderProviderType readers;
   private final BSSWriterProviderType writers;
   private final SMFB2ParsingContexts parserContexts;
+  private final SMFFormatBinary2Configuration configuration;
 
   /**
    * Construct a binary format provider.
    *
-   * @param inReaders A provider of readers
-   * @param inWriters A provider of writers
+   * @param inReaders       A provider of readers
+   * @param inWriters       A provider of writers
+   * @param inConfiguration The format configuration
    */
 
   public SMFFormatBinary2(
     final BSSReaderProviderType inReaders,
-    final BSSWriterProviderType inWriters)
+    final BSSWriterProviderType inWriters,
+    final SMFFormatBinary2Configuration inConfiguration)
   {
     this.readers = Objects.requireNonNull(inReaders, "readers");
     this.writers = Objects.requireNonNull(inWriters, "writers");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
     this.parserContexts = new SMFB2ParsingContexts(inReaders);
   }
 
+  /**
+   * Construct a binary format provider.
+   *
+   * @param inReaders A provider of readers
+   * @param inWriters A provider of writers
+   */
+
+  public SMFFormatBinary2(
+    final BSSReaderProviderType inReaders,
+    final BSSWriterProviderType inWriters)
+  {
+    this(
+      inReaders,
+      inWriters,
+      SMFFormatBinary2Configuration.builder().build());
+  }
+
+  /**
+   * Construct a binary format provider.
+   *
+   * @param inConfiguration The format configuration
+   */
+
+  public SMFFormatBinary2(
+    final SMFFormatBinary2Configuration inConfiguration)
+  {
+    this(new BSSReaders(), new BSSWriters(), inConfiguration);
+  }
+
   /**
    * Construct a binary format provider.
    */
@@ -151,7 +186,8 @@ public final class SMFFormatBinary2
     Objects.requireNonNull(uri, "uri");
     Objects.requireNonNull(file, "file");
 
-    return new SMFB2ParserRandomAccess(events, uri, file, this.parserContexts);
+    return new SMFB2ParserRandomAccess(
+      events, uri, file, this.parserContexts, this.configuration);
   }
 
   @Override
@@ -192,6 +228,24 @@ public final class SMFFormatBinary2
 
     return new SMFB2Serializer(
       version,
-      this.writers.createWriterFromStream(uri, stream, "root"));
+      this.writers,
+      uri,
+      this.writers.createWriterFromStream(uri, stream, "root"),
+      this.configuration);
+  }
+
+  @Override
+  public SMFSerializerType serializerCreateChannel(
+    final SMFFormatVersion version,
+    final URI uri,
+    final FileChannel channel)
+    throws UnsupportedOperationException, IOException
+  {
+    Objects.requireNonNull(version, "version");
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(channel, "channel");
+
+    return new SMFB2ChannelSerializer(
+      version, this.writers, uri, channel, this.configuration);
   }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.immutables.value.Value;
+
+/**
+ * Configuration values for the binary2 format.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface SMFFormatBinary2ConfigurationType
+{
+  /**
+   * <p>If set to {@code true}, random-access parsers will map the vertex and
+   * triangle sections of files directly into memory using {@link
+   * java.nio.channels.FileChannel#map(java.nio.channels.FileChannel.MapMode,
+   * long, long)} and will decode values directly from the mapped buffers.
+   * Otherwise, all values are decoded using the same bounds-checked readers
+   * used by sequential parsers.</p>
+   *
+   * <p>Sequential parsers are unaffected by this option.</p>
+   *
+   * @return {@code true} if random-access parsers should use memory mapping
+   */
+
+  @Value.Default
+  default boolean randomAccessMemoryMapped()
+  {
+    return false;
+  }
+
+  /**
+   * <p>If present, random-access parsers decode the vertex attribute arrays
+   * and triangle sections of files concurrently using the given executor.
+   * When the parser reaches an attribute that the receiver has accepted, or
+   * a triangle section that has a receiver, it splits the data into one
+   * range per worker, decodes the ranges concurrently, and then delivers the
+   * decoded values to the event receiver on the calling thread in the same
+   * order as a sequential parse. Receivers therefore do not need to be
+   * thread-safe. Attributes that the receiver declines, including those
+   * excluded by a projection, are skipped without being decoded.</p>
+   *
+   * <p>Decoding tasks read directly from memory-mapped regions of the file,
+   * so the presence of an executor implies
+   * {@link #randomAccessMemoryMapped()}. The decoded values of one array at
+   * a time are held in memory, in arrays of the same width as the values in
+   * the file, until they have been delivered. Parallel decoding is only used
+   * if more than one task can run at a time: if the machine has a single
+   * processor, or the executor is a {@link java.util.concurrent.ForkJoinPool}
+   * or {@link java.util.concurrent.ThreadPoolExecutor} with a single worker,
+   * files are parsed from mapped memory on the calling thread. The executor
+   * is not shut down by the parser. Sequential parsers are unaffected by
+   * this option.</p>
+   *
+   * @return The executor used for parallel decoding, if any
+   */
+
+  Optional<Executor> randomAccessExecutor();
+
+  /**
+   * <p>If set to {@code true}, serializers write vertex data into an
+   * interleaved vertex data section instead of a non-interleaved section.
+   * The data of each vertex is then stored contiguously, with a declared
+   * stride and per-attribute offsets, so that the vertex data of a file can
+   * be mapped directly into a vertex buffer. Parsers deliver the data of
+   * both kinds of section to the same events.</p>
+   *
+   * <p>Attribute values are still serialized one attribute at a time, and
+   * every attribute must be serialized. Serializers that write to a file
+   * channel opened for both reading and writing map the vertex data and
+   * write the values of each attribute directly into place, and allow
+   * attributes to be serialized concurrently. Serializers that write to a
+   * stream, or to a channel that cannot be read, assemble the section in
+   * memory and write it when the vertex data serializer is closed, so the
+   * size of the section is limited to a little under 2GiB.</p>
+   *
+   * @return {@code true} if serializers should write interleaved vertex data
+   */
+
+  @Value.Default
+  default boolean serializeVertexDataInterleaved()
+  {
+    return false;
+  }
+}
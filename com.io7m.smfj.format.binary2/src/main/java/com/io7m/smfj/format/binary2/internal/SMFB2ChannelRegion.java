@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * A buffered stream that writes to a region of a file channel using
+ * positional writes. Positional writes do not use or modify the position of
+ * the channel, so any number of regions of the same channel may be written
+ * at once, provided that the regions do not overlap.
+ */
+
+public final class SMFB2ChannelRegion extends OutputStream
+{
+  private static final int BUFFER_SIZE = 65536;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private long offset;
+  private boolean closed;
+
+  /**
+   * Construct a region.
+   *
+   * @param inChannel The channel
+   * @param inOffset  The offset within the channel of the start of the region
+   */
+
+  public SMFB2ChannelRegion(
+    final FileChannel inChannel,
+    final long inOffset)
+  {
+    this.channel = Objects.requireNonNull(inChannel, "channel");
+    this.offset = inOffset;
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  /**
+   * Write all of the given data at the given offset in the channel.
+   *
+   * @param channel The channel
+   * @param offset  The offset
+   * @param data    The data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void writeFully(
+    final FileChannel channel,
+    final long offset,
+    final ByteBuffer data)
+    throws IOException
+  {
+    var position = offset;
+    while (data.hasRemaining()) {
+      position += channel.write(data, position);
+    }
+  }
+
+  private void checkNotClosed()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IOException("Region is closed");
+    }
+  }
+
+  private void writeDirect(
+    final ByteBuffer data)
+    throws IOException
+  {
+    final var size = data.remaining();
+    writeFully(this.channel, this.offset, data);
+    this.offset += size;
+  }
+
+  @Override
+  public void write(
+    final int b)
+    throws IOException
+  {
+    this.checkNotClosed();
+    if (!this.buffer.hasRemaining()) {
+      this.flush();
+    }
+    this.buffer.put((byte) b);
+  }
+
+  @Override
+  public void write(
+    final byte[] data,
+    final int dataOffset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(dataOffset, length, data.length);
+    this.checkNotClosed();
+
+    if (length > this.buffer.remaining()) {
+      this.flush();
+    }
+    if (length >= this.buffer.capacity()) {
+      this.writeDirect(ByteBuffer.wrap(data, dataOffset, length));
+      return;
+    }
+    this.buffer.put(data, dataOffset, length);
+  }
+
+  @Override
+  public void flush()
+    throws IOException
+  {
+    this.checkNotClosed();
+    this.buffer.flip();
+    this.writeDirect(this.buffer);
+    this.buffer.clear();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.flush();
+      this.closed = true;
+    }
+  }
+}
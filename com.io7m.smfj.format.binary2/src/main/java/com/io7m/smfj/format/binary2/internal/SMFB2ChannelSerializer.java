@@ -0,0 +1,325 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.jbssio.api.BSSWriterProviderType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFMetadataValue;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFVoid;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesInterleaved;
+import com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleavedChannel;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
+import com.io7m.smfj.serializer.api.SMFSerializerType;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * A serializer that writes directly to a file channel. Small structures
+ * such as headers are encoded into buffers and written together with the
+ * payloads that follow them using gathering writes. Vertex and triangle
+ * data are written into regions at offsets computed from the header, using
+ * positional writes.
+ */
+
+public final class SMFB2ChannelSerializer implements SMFSerializerType
+{
+  private final SMFFormatVersion version;
+  private final BSSWriterProviderType writers;
+  private final URI uri;
+  private final FileChannel channel;
+  private final SMFFormatBinary2Configuration configuration;
+  private SMFHeader headerReceived;
+  private long position;
+  private boolean closed;
+
+  /**
+   * Construct a serializer.
+   *
+   * @param inVersion       The format version
+   * @param inWriters       A provider of writers
+   * @param inURI           The URI of the channel, for diagnostic messages
+   * @param inChannel       The channel
+   * @param inConfiguration The format configuration
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public SMFB2ChannelSerializer(
+    final SMFFormatVersion inVersion,
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final FileChannel inChannel,
+    final SMFFormatBinary2Configuration inConfiguration)
+    throws IOException
+  {
+    this.version =
+      Objects.requireNonNull(inVersion, "version");
+    this.writers =
+      Objects.requireNonNull(inWriters, "writers");
+    this.uri =
+      Objects.requireNonNull(inURI, "uri");
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.position = inChannel.position();
+  }
+
+  private void checkNotClosed()
+  {
+    if (this.closed) {
+      throw new IllegalStateException("Serializer is closed");
+    }
+  }
+
+  private void checkHeader()
+  {
+    if (this.headerReceived == null) {
+      throw new IllegalStateException("Must serialize header first!");
+    }
+  }
+
+  private <T> ByteBuffer encode(
+    final String name,
+    final SMFB2StructureWriterType<T> structure,
+    final T value)
+    throws IOException
+  {
+    final var stream = new ByteArrayOutputStream(256);
+    try (var writer =
+           this.writers.createWriterFromStream(this.uri, stream, name)) {
+      structure.write(writer, value);
+    }
+    return ByteBuffer.wrap(stream.toByteArray());
+  }
+
+  private void writeGathering(
+    final ByteBuffer... buffers)
+    throws IOException
+  {
+    var size = 0L;
+    for (final var buffer : buffers) {
+      size += buffer.remaining();
+    }
+
+    this.channel.position(this.position);
+    var written = 0L;
+    while (written < size) {
+      written += this.channel.write(buffers);
+    }
+    this.position += size;
+  }
+
+  @Override
+  public void serializeHeader(
+    final SMFHeader header)
+    throws IllegalStateException, IOException
+  {
+    this.checkNotClosed();
+
+    this.headerReceived = Objects.requireNonNull(header, "header");
+    this.writeGathering(
+      this.encode("fileHeader", new SMFB2WritingFileHeader(), this.version),
+      this.encode("smf", new SMFB2WritingSectionSMF(), header));
+  }
+
+  @Override
+  public SMFSerializerDataAttributesNonInterleavedType serializeVertexDataNonInterleavedStart()
+    throws IllegalStateException, IOException
+  {
+    this.checkNotClosed();
+    this.checkHeader();
+
+    if (this.configuration.serializeVertexDataInterleaved()) {
+      final var interleaved =
+        SMFB2SerializerDataAttributesInterleaved.createForChannel(
+          this.headerReceived,
+          this.writers,
+          this.uri,
+          this.channel,
+          this.position);
+
+      this.position += interleaved.sectionSize();
+      return interleaved.start();
+    }
+
+    final var serializer =
+      new SMFB2SerializerDataAttributesNonInterleavedChannel(
+        this.headerReceived,
+        this.writers,
+        this.uri,
+        this.channel,
+        this.position);
+
+    this.position += serializer.sectionSize();
+    return serializer.start();
+  }
+
+  @Override
+  public SMFSerializerDataTrianglesType serializeTrianglesStart()
+    throws IllegalStateException, IOException
+  {
+    this.checkNotClosed();
+    this.checkHeader();
+
+    final var sizeAlign =
+      SMFB2Serializer.trianglesSize(this.headerReceived);
+
+    this.writeGathering(
+      this.encode(
+        "sectionHeader",
+        new SMFB2WritingSectionHeader(),
+        SMFB2Section.of(SMFB2ParsingSectionTriangles.magic(), sizeAlign, 0L)));
+
+    final var region = new SMFB2ChannelRegion(this.channel, this.position);
+    final var writer =
+      this.writers.createWriterFromStream(this.uri, region, "triangles");
+    final var subWriter =
+      writer.createSubWriterBounded("triangles", sizeAlign);
+
+    this.position += sizeAlign;
+    return new ChannelTriangles(
+      SMFB2Serializer.writeTriangles(this.headerReceived, subWriter),
+      () -> {
+        try {
+          writer.close();
+        } finally {
+          region.close();
+        }
+      });
+  }
+
+  @Override
+  public void serializeMetadata(
+    final SMFSchemaIdentifier schema,
+    final byte[] data)
+    throws IllegalStateException, IOException
+  {
+    this.checkNotClosed();
+
+    final var value = SMFMetadataValue.of(schema, data);
+    final var metaDataSize = Integer.toUnsignedLong(data.length);
+
+    var sectionDataSize = 0L;
+    sectionDataSize += SMFB2ParsingSchemaIdentifier.schemaIdentifierSize();
+    sectionDataSize += 4L;
+    sectionDataSize += metaDataSize;
+    final var unpadded = sectionDataSize;
+    sectionDataSize = SMFB2Alignment.alignNext(sectionDataSize, 16);
+
+    final var section =
+      SMFB2Section.of(SMFB2ParsingSectionMetadata.magic(), sectionDataSize, 0L);
+
+    final var prefix =
+      this.encode("metadata", (writer, v) -> {
+        new SMFB2WritingSectionHeader().write(writer, section);
+        new SMFB2WritingSchemaIdentifier().write(writer, v.schemaId());
+        writer.writeU32BE("dataSize", metaDataSize);
+      }, value);
+
+    this.writeGathering(
+      prefix,
+      ByteBuffer.wrap(value.data()),
+      ByteBuffer.allocate(Math.toIntExact(sectionDataSize - unpadded)));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.writeGathering(
+        this.encode("end", new SMFB2WritingSectionEnd(), SMFVoid.void_()));
+      this.closed = true;
+    }
+  }
+
+  private static final class ChannelTriangles
+    implements SMFSerializerDataTrianglesType
+  {
+    private final SMFSerializerDataTrianglesType delegate;
+    private final Closeable resource;
+
+    ChannelTriangles(
+      final SMFSerializerDataTrianglesType inDelegate,
+      final Closeable inResource)
+    {
+      this.delegate = Objects.requireNonNull(inDelegate, "delegate");
+      this.resource = Objects.requireNonNull(inResource, "resource");
+    }
+
+    @Override
+    public void serializeTriangle(
+      final long v0,
+      final long v1,
+      final long v2)
+      throws IOException, IllegalStateException
+    {
+      this.delegate.serializeTriangle(v0, v1, v2);
+    }
+
+    @Override
+    public void serializeTriangles(
+      final IntBuffer indices,
+      final int count)
+      throws IOException, IllegalStateException
+    {
+      this.delegate.serializeTriangles(indices, count);
+    }
+
+    @Override
+    public void serializeTriangles(
+      final LongBuffer indices,
+      final int count)
+      throws IOException, IllegalStateException
+    {
+      this.delegate.serializeTriangles(indices, count);
+    }
+
+    @Override
+    public void serializeTriangles(
+      final ByteBuffer data,
+      final int indexSizeBits,
+      final int count)
+      throws IOException, IllegalStateException
+    {
+      this.delegate.serializeTriangles(data, indexSizeBits, count);
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      try {
+        this.delegate.close();
+      } finally {
+        this.resource.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The decoded values of a single attribute. Values are held in arrays of
+ * the same width as the components of the attribute, in native byte order,
+ * so that decoded values occupy no more memory than the file does: 8-bit
+ * integers are held in a {@code byte[]}, 16-bit integers and 16-bit
+ * floating point values in a {@code short[]}, and so on. Values are only
+ * widened to the form passed to receivers as they are delivered.
+ */
+
+final class SMFB2DecodedAttribute
+{
+  private final SMFAttribute attribute;
+  private final int valueCount;
+  private byte[] bytes;
+  private short[] shorts;
+  private int[] ints;
+  private long[] longs;
+  private float[] floats;
+  private double[] doubles;
+
+  private SMFB2DecodedAttribute(
+    final SMFAttribute inAttribute,
+    final int inValueCount)
+  {
+    this.attribute = Objects.requireNonNull(inAttribute, "attribute");
+    this.valueCount = inValueCount;
+
+    final var floating =
+      inAttribute.componentType() == SMFComponentType.ELEMENT_TYPE_FLOATING;
+
+    switch (inAttribute.componentSizeBits()) {
+      case 8: {
+        this.bytes = new byte[inValueCount];
+        break;
+      }
+      case 16: {
+        this.shorts = new short[inValueCount];
+        break;
+      }
+      case 32: {
+        if (floating) {
+          this.floats = new float[inValueCount];
+        } else {
+          this.ints = new int[inValueCount];
+        }
+        break;
+      }
+      case 64: {
+        if (floating) {
+          this.doubles = new double[inValueCount];
+        } else {
+          this.longs = new long[inValueCount];
+        }
+        break;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  /**
+   * Allocate storage for the values of an attribute.
+   *
+   * @param attribute  The attribute
+   * @param valueCount The number of values (vertices times components)
+   *
+   * @return Storage for the values, to be filled by
+   * {@link #decodeVertices(SMFB2ParsingContextType, long, int, int, ByteOrder)}
+   */
+
+  static SMFB2DecodedAttribute allocate(
+    final SMFAttribute attribute,
+    final int valueCount)
+  {
+    return new SMFB2DecodedAttribute(attribute, valueCount);
+  }
+
+  /**
+   * Decode the values of a range of vertices from the mapped region of the
+   * file starting at {@code offset}. Distinct ranges may be decoded
+   * concurrently.
+   *
+   * @param context     The parsing context
+   * @param offset      The absolute offset of the data of the first vertex
+   * @param vertexFirst The index of the first vertex
+   * @param vertexCount The number of vertices
+   * @param byteOrder   The byte order of the data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void decodeVertices(
+    final SMFB2ParsingContextType context,
+    final long offset,
+    final int vertexFirst,
+    final int vertexCount,
+    final ByteOrder byteOrder)
+    throws IOException
+  {
+    final var components = this.attribute.componentCount();
+    final var sizeOfOne = Integer.toUnsignedLong(this.attribute.sizeOctets());
+    final var perWindow = SMFB2Mapping.elementsPerWindow(sizeOfOne);
+
+    var windowOffset = offset;
+    var index = 0;
+    while (index < vertexCount) {
+      final var count = (int) Math.min(vertexCount - index, perWindow);
+      final var size = count * sizeOfOne;
+      final var buffer =
+        context.mapRegion(windowOffset, size).order(byteOrder);
+      this.decodeWindow(
+        buffer, (vertexFirst + index) * components, count * components);
+      windowOffset += size;
+      index += count;
+    }
+  }
+
+  private void decodeWindow(
+    final ByteBuffer buffer,
+    final int start,
+    final int count)
+  {
+    if (this.bytes != null) {
+      buffer.get(0, this.bytes, start, count);
+    } else if (this.shorts != null) {
+      buffer.asShortBuffer().get(this.shorts, start, count);
+    } else if (this.ints != null) {
+      buffer.asIntBuffer().get(this.ints, start, count);
+    } else if (this.longs != null) {
+      buffer.asLongBuffer().get(this.longs, start, count);
+    } else if (this.floats != null) {
+      buffer.asFloatBuffer().get(this.floats, start, count);
+    } else {
+      buffer.asDoubleBuffer().get(this.doubles, start, count);
+    }
+  }
+
+  /**
+   * Deliver the decoded values, either in blocks to a bulk receiver or one
+   * vertex at a time.
+   *
+   * @param values The receiver of values
+   * @param bulk   The bulk receiver, if the receiver asked for one
+   */
+
+  void deliver(
+    final SMFParserEventsDataAttributeValuesType values,
+    final Optional<SMFParserEventsDataAttributeValuesBulkType> bulk)
+  {
+    if (bulk.isPresent()) {
+      this.deliverBulk(bulk.get());
+      return;
+    }
+
+    switch (this.attribute.componentType()) {
+      case ELEMENT_TYPE_FLOATING: {
+        this.deliverFloating(values);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        this.deliverIntegerSigned(values);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        this.deliverIntegerUnsigned(values);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Values that are already held in the form that bulk receivers take are
+   * delivered as a single block. Other values are widened into a reusable
+   * array and delivered in blocks of whole vertices.
+   */
+
+  private void deliverBulk(
+    final SMFParserEventsDataAttributeValuesBulkType bulk)
+  {
+    final var componentType = this.attribute.componentType();
+
+    if (this.floats != null) {
+      bulk.onDataAttributeValuesFloat32(this.floats, 0, this.valueCount);
+      return;
+    }
+    if (this.doubles != null) {
+      bulk.onDataAttributeValuesFloat64(this.doubles, 0, this.valueCount);
+      return;
+    }
+    if (this.longs != null) {
+      if (componentType == SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED) {
+        bulk.onDataAttributeValuesIntegerSigned(
+          this.longs, 0, this.valueCount);
+      } else {
+        bulk.onDataAttributeValuesIntegerUnsigned(
+          this.longs, 0, this.valueCount);
+      }
+      return;
+    }
+
+    final var chunk =
+      Math.min(
+        this.valueCount,
+        Math.max(
+          1,
+          SMFB2ParsingVertexDataBulk.CHUNK_SIZE_OCTETS
+            / this.attribute.sizeOctets())
+          * this.attribute.componentCount());
+
+    switch (componentType) {
+      case ELEMENT_TYPE_FLOATING: {
+        final var block = new float[chunk];
+        for (var base = 0; base < this.valueCount; base += chunk) {
+          final var count = Math.min(chunk, this.valueCount - base);
+          for (var index = 0; index < count; ++index) {
+            block[index] = (float) this.floating(base + index);
+          }
+          bulk.onDataAttributeValuesFloat32(block, 0, count);
+        }
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        final var block = new long[chunk];
+        for (var base = 0; base < this.valueCount; base += chunk) {
+          final var count = Math.min(chunk, this.valueCount - base);
+          for (var index = 0; index < count; ++index) {
+            block[index] = this.integerSigned(base + index);
+          }
+          bulk.onDataAttributeValuesIntegerSigned(block, 0, count);
+        }
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        final var block = new long[chunk];
+        for (var base = 0; base < this.valueCount; base += chunk) {
+          final var count = Math.min(chunk, this.valueCount - base);
+          for (var index = 0; index < count; ++index) {
+            block[index] = this.integerUnsigned(base + index);
+          }
+          bulk.onDataAttributeValuesIntegerUnsigned(block, 0, count);
+        }
+        return;
+      }
+    }
+  }
+
+  private double floating(
+    final int index)
+  {
+    if (this.floats != null) {
+      return (double) this.floats[index];
+    }
+    if (this.doubles != null) {
+      return this.doubles[index];
+    }
+    return (double) Binary16.unpackFloat((char) this.shorts[index]);
+  }
+
+  private long integerSigned(
+    final int index)
+  {
+    if (this.bytes != null) {
+      return (long) this.bytes[index];
+    }
+    if (this.shorts != null) {
+      return (long) this.shorts[index];
+    }
+    if (this.ints != null) {
+      return (long) this.ints[index];
+    }
+    return this.longs[index];
+  }
+
+  private long integerUnsigned(
+    final int index)
+  {
+    if (this.bytes != null) {
+      return Byte.toUnsignedLong(this.bytes[index]);
+    }
+    if (this.shorts != null) {
+      return Short.toUnsignedLong(this.shorts[index]);
+    }
+    if (this.ints != null) {
+      return Integer.toUnsignedLong(this.ints[index]);
+    }
+    return this.longs[index];
+  }
+
+  private void deliverFloating(
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var total = this.valueCount;
+    switch (this.attribute.componentCount()) {
+      case 1: {
+        for (var base = 0; base < total; ++base) {
+          values.onDataAttributeValueFloat1(this.floating(base));
+        }
+        return;
+      }
+      case 2: {
+        for (var base = 0; base < total; base += 2) {
+          values.onDataAttributeValueFloat2(
+            this.floating(base),
+            this.floating(base + 1));
+        }
+        return;
+      }
+      case 3: {
+        for (var base = 0; base < total; base += 3) {
+          values.onDataAttributeValueFloat3(
+            this.floating(base),
+            this.floating(base + 1),
+            this.floating(base + 2));
+        }
+        return;
+      }
+      case 4: {
+        for (var base = 0; base < total; base += 4) {
+          values.onDataAttributeValueFloat4(
+            this.floating(base),
+            this.floating(base + 1),
+            this.floating(base + 2),
+            this.floating(base + 3));
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private void deliverIntegerSigned(
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var total = this.valueCount;
+    switch (this.attribute.componentCount()) {
+      case 1: {
+        for (var base = 0; base < total; ++base) {
+          values.onDataAttributeValueIntegerSigned1(
+            this.integerSigned(base));
+        }
+        return;
+      }
+      case 2: {
+        for (var base = 0; base < total; base += 2) {
+          values.onDataAttributeValueIntegerSigned2(
+            this.integerSigned(base),
+            this.integerSigned(base + 1));
+        }
+        return;
+      }
+      case 3: {
+        for (var base = 0; base < total; base += 3) {
+          values.onDataAttributeValueIntegerSigned3(
+            this.integerSigned(base),
+            this.integerSigned(base + 1),
+            this.integerSigned(base + 2));
+        }
+        return;
+      }
+      case 4: {
+        for (var base = 0; base < total; base += 4) {
+          values.onDataAttributeValueIntegerSigned4(
+            this.integerSigned(base),
+            this.integerSigned(base + 1),
+            this.integerSigned(base + 2),
+            this.integerSigned(base + 3));
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private void deliverIntegerUnsigned(
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var total = this.valueCount;
+    switch (this.attribute.componentCount()) {
+      case 1: {
+        for (var base = 0; base < total; ++base) {
+          values.onDataAttributeValueIntegerUnsigned1(
+            this.integerUnsigned(base));
+        }
+        return;
+      }
+      case 2: {
+        for (var base = 0; base < total; base += 2) {
+          values.onDataAttributeValueIntegerUnsigned2(
+            this.integerUnsigned(base),
+            this.integerUnsigned(base + 1));
+        }
+        return;
+      }
+      case 3: {
+        for (var base = 0; base < total; base += 3) {
+          values.onDataAttributeValueIntegerUnsigned3(
+            this.integerUnsigned(base),
+            this.integerUnsigned(base + 1),
+            this.integerUnsigned(base + 2));
+        }
+        return;
+      }
+      case 4: {
+        for (var base = 0; base < total; base += 4) {
+          values.onDataAttributeValueIntegerUnsigned4(
+            this.integerUnsigned(base),
+            this.integerUnsigned(base + 1),
+            this.integerUnsigned(base + 2),
+            this.integerUnsigned(base + 3));
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+}
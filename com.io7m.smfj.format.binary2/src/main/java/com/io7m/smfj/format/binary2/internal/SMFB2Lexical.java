@@ -39,4 +39,14 @@ final class SMFB2Lexical
       (int) reader.offsetCurrentAbsolute(),
       Optional.of(reader.uri()));
   }
+
+  public static LexicalPosition<URI> ofOffset(
+    final URI uri,
+    final long offset)
+  {
+    return LexicalPosition.of(
+      0,
+      (int) offset,
+      Optional.of(uri));
+  }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.jbssio.api.BSSReaderType;
+import com.io7m.junreachable.UnreachableCodeException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Functions to help with decoding data from memory-mapped regions.
+ */
+
+final class SMFB2Mapping
+{
+  /**
+   * The maximum size of a single mapped window. Regions larger than this are
+   * mapped and decoded as a series of consecutive windows.
+   */
+
+  static final long WINDOW_SIZE_MAXIMUM = 1L << 30;
+
+  private SMFB2Mapping()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @param elementSize The size of a single element in octets
+   *
+   * @return The number of whole elements that fit into a single window
+   */
+
+  static long elementsPerWindow(
+    final long elementSize)
+  {
+    return Math.max(1L, WINDOW_SIZE_MAXIMUM / elementSize);
+  }
+
+  /**
+   * Check that the given reader has at least {@code required} octets
+   * remaining.
+   *
+   * @param reader   The reader
+   * @param required The required number of octets
+   *
+   * @throws IOException If there is insufficient data remaining
+   */
+
+  static void checkRemaining(
+    final BSSReaderType reader,
+    final long required)
+    throws IOException
+  {
+    final var remaining = reader.bytesRemaining();
+    if (remaining.isPresent()) {
+      final var available = remaining.getAsLong();
+      if (Long.compareUnsigned(available, required) < 0) {
+        throw reader.createException(
+          "Section is too small to contain the declared data",
+          Map.of(
+            "Required",
+            Long.toUnsignedString(required),
+            "Remaining",
+            Long.toUnsignedString(available)),
+          EOFException::new);
+      }
+    }
+  }
+}
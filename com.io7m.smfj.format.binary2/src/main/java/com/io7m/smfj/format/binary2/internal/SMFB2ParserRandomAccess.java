@@ -17,6 +17,7 @@
 
 package com.io7m.smfj.format.binary2.internal;
 
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
 import com.io7m.smfj.parser.api.SMFParseErrors;
 import com.io7m.smfj.parser.api.SMFParserEventsType;
 import com.io7m.smfj.parser.api.SMFParserRandomAccessType;
@@ -31,12 +32,14 @@ public final class SMFB2ParserRandomAccess implements SMFParserRandomAccessType
   private final URI uri;
   private final FileChannel channel;
   private final SMFB2ParsingContexts parserContexts;
+  private final SMFFormatBinary2Configuration configuration;
 
   public SMFB2ParserRandomAccess(
     final SMFParserEventsType inEvents,
     final URI inUri,
     final FileChannel inStream,
-    final SMFB2ParsingContexts inParserContexts)
+    final SMFB2ParsingContexts inParserContexts,
+    final SMFFormatBinary2Configuration inConfiguration)
   {
     this.events =
       Objects.requireNonNull(inEvents, "inEvents");
@@ -46,19 +49,34 @@ public final class SMFB2ParserRandomAccess implements SMFParserRandomAccessType
       Objects.requireNonNull(inStream, "inStream");
     this.parserContexts =
       Objects.requireNonNull(inParserContexts, "inParserContexts");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "inConfiguration");
   }
 
   @Override
   public void parse()
   {
-    try (var context =
-           this.parserContexts.ofChannel(this.uri, this.channel, this.events)) {
-      new SMFB2ParsingFile(this.events).parse(context);
+    try (var context = this.createContext()) {
+      new SMFB2ParsingFile(
+        this.events,
+        this.configuration.randomAccessExecutor())
+        .parse(context);
     } catch (final IOException e) {
       this.events.onError(SMFParseErrors.errorException(e));
     }
   }
 
+  private SMFB2ParsingContextType createContext()
+    throws IOException
+  {
+    if (this.configuration.randomAccessMemoryMapped()
+      || this.configuration.randomAccessExecutor().isPresent()) {
+      return this.parserContexts.ofChannelMapped(
+        this.uri, this.channel, this.events);
+    }
+    return this.parserContexts.ofChannel(this.uri, this.channel, this.events);
+  }
+
   @Override
   public void close()
   {
@@ -22,6 +22,7 @@ import com.io7m.smfj.core.SMFErrorType;
 import com.io7m.smfj.core.SMFWarningType;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public interface SMFB2ParsingContextType extends Closeable
 {
@@ -42,6 +43,33 @@ public interface SMFB2ParsingContextType extends Closeable
     WithReaderFunctionType<T> receiver)
     throws IOException;
 
+  /**
+   * @return {@code true} if this context supports {@link #mapRegion(long, long)}
+   */
+
+  boolean supportsMapping();
+
+  /**
+   * Map a region of the underlying file directly into memory. The returned
+   * buffer is positioned at zero, has a limit of {@code size}, and uses
+   * big-endian byte order.
+   *
+   * @param offset The absolute offset of the start of the region
+   * @param size   The size of the region in octets; must not exceed
+   *               {@link Integer#MAX_VALUE}
+   *
+   * @return A buffer containing the region
+   *
+   * @throws IOException                   On I/O errors
+   * @throws UnsupportedOperationException If {@link #supportsMapping()} is
+   *                                       {@code false}
+   */
+
+  ByteBuffer mapRegion(
+    long offset,
+    long size)
+    throws IOException, UnsupportedOperationException;
+
   interface WithReaderFunctionType<T>
   {
 
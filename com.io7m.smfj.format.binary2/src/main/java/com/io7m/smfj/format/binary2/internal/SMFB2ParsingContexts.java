@@ -24,12 +24,16 @@ import com.io7m.jbssio.api.BSSReaderSequentialType;
 import com.io7m.smfj.core.SMFErrorType;
 import com.io7m.smfj.core.SMFWarningType;
 import com.io7m.smfj.parser.api.SMFParserEventsErrorType;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayDeque;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,18 +66,46 @@ public final class SMFB2ParsingContexts
     final SMFParserEventsErrorType errors)
     throws IOException
   {
-    return ContextOfChannel.create(this.readers, uri, channel, errors);
+    return ContextOfChannel.create(
+      this.readers, uri, channel, Optional.empty(), errors);
+  }
+
+  /**
+   * Create a context that reads structural data using a reader over the
+   * given channel, but that also allows for mapping the bulk data sections
+   * of the file directly into memory.
+   *
+   * @param uri     The URI of the file
+   * @param channel The file channel
+   * @param errors  The error receiver
+   *
+   * @return A parsing context
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public SMFB2ParsingContextType ofChannelMapped(
+    final URI uri,
+    final FileChannel channel,
+    final SMFParserEventsErrorType errors)
+    throws IOException
+  {
+    return ContextOfChannel.create(
+      this.readers, uri, channel, Optional.of(channel), errors);
   }
 
   private static final class ContextOfChannel implements SMFB2ParsingContextType
   {
     private final SMFParserEventsErrorType errors;
     private final ArrayDeque<BSSReaderRandomAccessType> readerStack;
+    private final Optional<FileChannel> mappable;
 
     private ContextOfChannel(
-      final SMFParserEventsErrorType inErrors)
+      final SMFParserEventsErrorType inErrors,
+      final Optional<FileChannel> inMappable)
     {
       this.errors = Objects.requireNonNull(inErrors, "errors");
+      this.mappable = Objects.requireNonNull(inMappable, "mappable");
       this.readerStack = new ArrayDeque<>();
     }
 
@@ -81,10 +113,11 @@ public final class SMFB2ParsingContexts
       final BSSReaderProviderType readers,
       final URI uri,
       final SeekableByteChannel channel,
+      final Optional<FileChannel> mappable,
       final SMFParserEventsErrorType inErrors)
       throws IOException
     {
-      final var context = new ContextOfChannel(inErrors);
+      final var context = new ContextOfChannel(inErrors, mappable);
 
       final var reader =
         readers.createReaderFromChannel(
@@ -163,6 +196,50 @@ public final class SMFB2ParsingContexts
       }
     }
 
+    @Override
+    public boolean supportsMapping()
+    {
+      return this.mappable.isPresent();
+    }
+
+    @Override
+    public ByteBuffer mapRegion(
+      final long offset,
+      final long size)
+      throws IOException
+    {
+      if (this.mappable.isEmpty()) {
+        throw new UnsupportedOperationException(
+          "This context does not support memory mapping");
+      }
+
+      if (Long.compareUnsigned(size, Integer.MAX_VALUE) > 0) {
+        throw new IllegalArgumentException(
+          String.format(
+            "Region size %s exceeds the maximum mappable size %s",
+            Long.toUnsignedString(size),
+            Integer.toUnsignedString(Integer.MAX_VALUE)));
+      }
+
+      final var channel = this.mappable.get();
+      final var end = Math.addExact(offset, size);
+      if (Long.compareUnsigned(end, channel.size()) > 0) {
+        throw new EOFException(
+          String.format(
+            "Region 0x%s size %s extends past the end of the file (size %s)",
+            Long.toUnsignedString(offset, 16),
+            Long.toUnsignedString(size),
+            Long.toUnsignedString(channel.size())));
+      }
+
+      LOG.trace(
+        "mapping region 0x{} size {}",
+        Long.toUnsignedString(offset, 16),
+        Long.valueOf(size));
+
+      return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    }
+
     @Override
     public void close()
     {
@@ -262,6 +339,21 @@ public final class SMFB2ParsingContexts
       }
     }
 
+    @Override
+    public boolean supportsMapping()
+    {
+      return false;
+    }
+
+    @Override
+    public ByteBuffer mapRegion(
+      final long offset,
+      final long size)
+    {
+      throw new UnsupportedOperationException(
+        "Stream contexts do not support memory mapping");
+    }
+
     @Override
     public void close()
       throws IOException
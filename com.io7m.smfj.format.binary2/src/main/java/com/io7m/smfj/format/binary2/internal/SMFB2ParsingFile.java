@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,11 +41,31 @@ public final class SMFB2ParsingFile
 
   private final SMFParserEventsType events;
   private final HashMap<Long, BodyParseHandlerType> handlers;
+  private final Optional<Executor> executor;
+  private Optional<SMFB2ParsingParallel> parallel;
 
   public SMFB2ParsingFile(
     final SMFParserEventsType inEvents)
+  {
+    this(inEvents, Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param inEvents   The event receiver
+   * @param inExecutor The executor used to decode sections in parallel, if
+   *                   any; ignored if the parsing context does not support
+   *                   mapping, or if the executor has a single worker
+   */
+
+  public SMFB2ParsingFile(
+    final SMFParserEventsType inEvents,
+    final Optional<Executor> inExecutor)
   {
     this.events = Objects.requireNonNull(inEvents, "events");
+    this.executor = Objects.requireNonNull(inExecutor, "executor");
+    this.parallel = Optional.empty();
 
     this.handlers = new HashMap<>();
 
@@ -53,16 +74,19 @@ public final class SMFB2ParsingFile
       SMFB2ParsingFile::handleMetadata);
     this.handlers.put(
       Long.valueOf(SMFB2ParsingSectionVertexDataNI.magic()),
-      SMFB2ParsingFile::handleVertexDataNI);
+      this::handleVertexDataNI);
+    this.handlers.put(
+      Long.valueOf(SMFB2ParsingSectionVertexDataInterleaved.magic()),
+      SMFB2ParsingFile::handleVertexDataInterleaved);
     this.handlers.put(
       Long.valueOf(SMFB2ParsingSectionTriangles.magic()),
-      SMFB2ParsingFile::handleTriangles);
+      this::handleTriangles);
     this.handlers.put(
       Long.valueOf(SMFB2ParsingSectionEnd.magic()),
       SMFB2ParsingFile::handleEnd);
   }
 
-  private static boolean handleTriangles(
+  private boolean handleTriangles(
     final SMFB2ParsingContextType context,
     final BSSReaderType reader,
     final SMFParserEventsBodyType bodyEvents,
@@ -78,13 +102,14 @@ public final class SMFB2ParsingFile
         section,
         smf,
         triangleTracker,
-        eventHandler)
+        eventHandler,
+        this.parallel)
         .parse(context);
     }
     return true;
   }
 
-  private static boolean handleVertexDataNI(
+  private boolean handleVertexDataNI(
     final SMFB2ParsingContextType context,
     final BSSReaderType reader,
     final SMFParserEventsBodyType bodyEvents,
@@ -96,12 +121,30 @@ public final class SMFB2ParsingFile
     final var eventHandlerOpt = bodyEvents.onAttributesNonInterleaved();
     if (eventHandlerOpt.isPresent()) {
       final var eventHandler = eventHandlerOpt.get();
-      new SMFB2ParsingSectionVertexDataNI(section, smf, eventHandler)
+      new SMFB2ParsingSectionVertexDataNI(
+        section,
+        smf,
+        eventHandler,
+        this.parallel)
         .parse(context);
     }
     return true;
   }
 
+  private static boolean handleVertexDataInterleaved(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFParserEventsBodyType bodyEvents,
+    final SMFB2Section section,
+    final SMFTriangleTracker triangleTracker,
+    final SMFHeader smf)
+    throws IOException
+  {
+    new SMFB2ParsingSectionVertexDataInterleaved(section, smf, bodyEvents)
+      .parse(context);
+    return true;
+  }
+
   private static boolean handleEnd(
     final SMFB2ParsingContextType context,
     final BSSReaderType reader,
@@ -187,6 +230,21 @@ public final class SMFB2ParsingFile
     }
 
     final var bodyEvents = bodyEventsOpt.get();
+    if (this.executor.isPresent() && context.supportsMapping()) {
+      this.parallel = SMFB2ParsingParallel.create(this.executor.get());
+    }
+
+    this.parseSections(context, reader, bodyEvents, triangleTracker, smf);
+  }
+
+  private void parseSections(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFParserEventsBodyType bodyEvents,
+    final SMFTriangleTracker triangleTracker,
+    final SMFHeader smf)
+    throws IOException
+  {
     while (true) {
       if (LOG.isTraceEnabled()) {
         LOG.trace(
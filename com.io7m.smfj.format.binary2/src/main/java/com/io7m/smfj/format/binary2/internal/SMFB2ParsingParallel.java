@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFTriangles;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * <p>Concurrent decoding of vertex attribute arrays and triangle
+ * sections.</p>
+ *
+ * <p>Nothing is decoded in advance. When a section parser reaches an
+ * attribute that the receiver has accepted, or a triangle section that has
+ * a receiver, it asks this decoder for the data. The data is split into one
+ * contiguous range per worker, the ranges are decoded concurrently from
+ * memory-mapped regions of the file, and the section parser then delivers
+ * the decoded values on the parsing thread in file order. Attributes that
+ * the receiver declines are skipped by offset without being decoded, and
+ * at most one array is held in memory at a time. All validation is
+ * performed by the section parsers; data that cannot be decoded into a
+ * single array is decoded by the section parsers in the usual way.</p>
+ */
+
+final class SMFB2ParsingParallel
+{
+  /**
+   * The maximum number of values that will be decoded into a single array.
+   */
+
+  private static final long ARRAY_SIZE_MAXIMUM = Integer.MAX_VALUE - 8L;
+
+  /**
+   * The minimum size in octets of the range of data decoded by one task.
+   * Smaller arrays are split into fewer ranges.
+   */
+
+  private static final long RANGE_SIZE_MINIMUM = 65536L;
+
+  private final Executor executor;
+  private final int workers;
+
+  private SMFB2ParsingParallel(
+    final Executor inExecutor,
+    final int inWorkers)
+  {
+    this.executor = Objects.requireNonNull(inExecutor, "executor");
+    this.workers = inWorkers;
+  }
+
+  /**
+   * Create a decoder that uses the given executor, if the executor can run
+   * more than one task at a time. Decoding in parallel only pays for itself
+   * if several decoding tasks can run at once; with a single worker, it adds
+   * the cost of holding decoded values without saving any time. Executors
+   * of kinds other than {@link ForkJoinPool} and {@link ThreadPoolExecutor}
+   * are assumed to have one worker per processor.
+   *
+   * @param executor The executor
+   *
+   * @return A decoder, or nothing if decoding in parallel would not help
+   */
+
+  static Optional<SMFB2ParsingParallel> create(
+    final Executor executor)
+  {
+    final var workers = workersOf(executor);
+    if (workers > 1) {
+      return Optional.of(new SMFB2ParsingParallel(executor, workers));
+    }
+    return Optional.empty();
+  }
+
+  private static int workersOf(
+    final Executor executor)
+  {
+    Objects.requireNonNull(executor, "executor");
+
+    final var processors = Runtime.getRuntime().availableProcessors();
+    if (executor instanceof ForkJoinPool) {
+      return Math.min(processors, ((ForkJoinPool) executor).getParallelism());
+    }
+    if (executor instanceof ThreadPoolExecutor) {
+      return Math.min(
+        processors, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+    }
+    return processors;
+  }
+
+  /**
+   * Decode all values of an attribute.
+   *
+   * @param context     The parsing context; must support mapping
+   * @param offset      The absolute offset of the attribute data
+   * @param vertexCount The number of vertices
+   * @param byteOrder   The byte order of the data
+   * @param attribute   The attribute
+   *
+   * @return The decoded values, or nothing if the values would not fit into
+   * a single array
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<SMFB2DecodedAttribute> decodeAttribute(
+    final SMFB2ParsingContextType context,
+    final long offset,
+    final long vertexCount,
+    final ByteOrder byteOrder,
+    final SMFAttribute attribute)
+    throws IOException
+  {
+    final var valueCount =
+      Math.multiplyExact(vertexCount, attribute.componentCount());
+    if (Long.compareUnsigned(valueCount, ARRAY_SIZE_MAXIMUM) > 0) {
+      return Optional.empty();
+    }
+
+    final var result =
+      SMFB2DecodedAttribute.allocate(attribute, (int) valueCount);
+    final var sizeOfOne = Integer.toUnsignedLong(attribute.sizeOctets());
+
+    this.decodeRanges(
+      (int) vertexCount,
+      sizeOfOne,
+      (first, count) -> result.decodeVertices(
+        context,
+        offset + (long) first * sizeOfOne,
+        first,
+        count,
+        byteOrder));
+    return Optional.of(result);
+  }
+
+  /**
+   * Decode all indices of a triangle section.
+   *
+   * @param context         The parsing context; must support mapping
+   * @param offset          The absolute offset of the triangle data
+   * @param headerTriangles The triangle information from the header
+   * @param byteOrder       The byte order of the data
+   *
+   * @return The decoded indices, or nothing if the indices would not fit
+   * into a single array
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<long[]> decodeTriangles(
+    final SMFB2ParsingContextType context,
+    final long offset,
+    final SMFTriangles headerTriangles,
+    final ByteOrder byteOrder)
+    throws IOException
+  {
+    final var triangleCount = headerTriangles.triangleCount();
+    final var indexCount = Math.multiplyExact(triangleCount, 3L);
+    if (Long.compareUnsigned(indexCount, ARRAY_SIZE_MAXIMUM) > 0) {
+      return Optional.empty();
+    }
+
+    final var indices = new long[(int) indexCount];
+    final var bits = headerTriangles.triangleIndexSizeBits();
+    final var sizeOfOne =
+      Integer.toUnsignedLong(headerTriangles.triangleSizeOctets());
+
+    this.decodeRanges(
+      (int) triangleCount,
+      sizeOfOne,
+      (first, count) -> decodeTriangleRange(
+        context,
+        offset + (long) first * sizeOfOne,
+        bits,
+        byteOrder,
+        indices,
+        first,
+        count));
+    return Optional.of(indices);
+  }
+
+  private static void decodeTriangleRange(
+    final SMFB2ParsingContextType context,
+    final long offset,
+    final int bits,
+    final ByteOrder byteOrder,
+    final long[] indices,
+    final int triangleFirst,
+    final int triangleCount)
+    throws IOException
+  {
+    final var sizeOfIndex = (long) (bits / 8);
+    final var perWindow = SMFB2Mapping.elementsPerWindow(sizeOfIndex * 3L);
+
+    var windowOffset = offset;
+    var triangle = 0;
+    while (triangle < triangleCount) {
+      final var count = (int) Math.min(triangleCount - triangle, perWindow);
+      final var size = count * sizeOfIndex * 3L;
+      final var buffer =
+        context.mapRegion(windowOffset, size).order(byteOrder);
+      decodeIndices(
+        buffer, bits, indices, (triangleFirst + triangle) * 3, count * 3);
+      windowOffset += size;
+      triangle += count;
+    }
+  }
+
+  private static void decodeIndices(
+    final ByteBuffer buffer,
+    final int bits,
+    final long[] indices,
+    final int start,
+    final int count)
+  {
+    for (var index = 0; index < count; ++index) {
+      indices[start + index] = switch (bits) {
+        case 8 -> Byte.toUnsignedLong(buffer.get(index));
+        case 16 -> Short.toUnsignedLong(buffer.getShort(index << 1));
+        case 32 -> Integer.toUnsignedLong(buffer.getInt(index << 2));
+        case 64 -> buffer.getLong(index << 3);
+        default -> throw new UnreachableCodeException();
+      };
+    }
+  }
+
+  /**
+   * Split {@code elementCount} elements into at most one contiguous range
+   * per worker, and decode the ranges concurrently. If the executor rejects
+   * a task, the range is decoded on the calling thread. This method returns
+   * when every range has been decoded.
+   */
+
+  private void decodeRanges(
+    final int elementCount,
+    final long sizeOfOne,
+    final RangeDecoderType decoder)
+    throws IOException
+  {
+    final var minimum =
+      (int) Math.max(
+        1L, Math.min((long) elementCount, RANGE_SIZE_MINIMUM / sizeOfOne));
+    final var ranges =
+      Math.max(1, Math.min(this.workers, elementCount / minimum));
+    final var perRange = (elementCount + ranges - 1) / ranges;
+
+    final var tasks = new ArrayList<CompletableFuture<Void>>(ranges);
+    try {
+      for (var first = 0; first < elementCount; first += perRange) {
+        final var rangeFirst = first;
+        final var rangeCount = Math.min(perRange, elementCount - first);
+        try {
+          tasks.add(CompletableFuture.runAsync(() -> {
+            try {
+              decoder.decode(rangeFirst, rangeCount);
+            } catch (final IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }, this.executor));
+        } catch (final RejectedExecutionException e) {
+          decoder.decode(rangeFirst, rangeCount);
+        }
+      }
+    } finally {
+      awaitAll(tasks);
+    }
+  }
+
+  /**
+   * Wait for all of the given tasks, and then raise the first failure, if
+   * any. Waiting for every task ensures that no task is still reading from
+   * the file when the parser moves on.
+   */
+
+  private static void awaitAll(
+    final ArrayList<CompletableFuture<Void>> tasks)
+    throws IOException
+  {
+    try {
+      CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    } catch (final CompletionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @FunctionalInterface
+  private interface RangeDecoderType
+  {
+    void decode(
+      int first,
+      int count)
+      throws IOException;
+  }
+}
@@ -17,6 +17,7 @@
 package com.io7m.smfj.format.binary2.internal;
 
 import com.io7m.jbssio.api.BSSReaderType;
+import com.io7m.jlexing.core.LexicalPosition;
 import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFPartial;
@@ -25,13 +26,15 @@ import com.io7m.smfj.core.SMFVoid;
 import com.io7m.smfj.format.support.SMFTriangleTracker;
 import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.nio.ByteOrder.BIG_ENDIAN;
-import static java.nio.ByteOrder.LITTLE_ENDIAN;
-
 /**
  * An 'end' section.
  */
@@ -42,10 +45,21 @@ public final class SMFB2ParsingSectionTriangles
   private static final Logger LOG =
     LoggerFactory.getLogger(SMFB2ParsingSectionTriangles.class);
 
+  /**
+   * The number of triangles decoded and delivered at a time.
+   */
+
+  private static final int CHUNK_TRIANGLES = 4096;
+
   private final SMFB2Section sectionHeader;
   private final SMFHeader smfHeader;
   private final SMFTriangleTracker triangleTracker;
   private final SMFParserEventsDataTrianglesType triangles;
+  private final Supplier<LexicalPosition<URI>> lexicalMapped;
+  private final Optional<SMFB2ParsingParallel> parallel;
+  private long[] indexChunk;
+  private URI lexicalURI;
+  private long lexicalOffset;
 
   /**
    * Construct a parser.
@@ -62,6 +76,34 @@ public final class SMFB2ParsingSectionTriangles
     final SMFTriangleTracker inTriangleTracker,
     final SMFParserEventsDataTrianglesType inTriangles)
   {
+    this(
+      inSectionHeader,
+      inSMFHeader,
+      inTriangleTracker,
+      inTriangles,
+      Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param inSMFHeader       The SMF header
+   * @param inTriangles       The triangle receiver
+   * @param inTriangleTracker The triangle tracker
+   * @param inSectionHeader   The section header for this section
+   * @param inParallel        The decoder used to decode the triangle
+   *                          indices in parallel, if any
+   */
+
+  public SMFB2ParsingSectionTriangles(
+    final SMFB2Section inSectionHeader,
+    final SMFHeader inSMFHeader,
+    final SMFTriangleTracker inTriangleTracker,
+    final SMFParserEventsDataTrianglesType inTriangles,
+    final Optional<SMFB2ParsingParallel> inParallel)
+  {
+    this.parallel =
+      Objects.requireNonNull(inParallel, "inParallel");
     this.sectionHeader =
       Objects.requireNonNull(inSectionHeader, "sectionHeader");
     this.smfHeader =
@@ -70,6 +112,8 @@ public final class SMFB2ParsingSectionTriangles
       Objects.requireNonNull(inTriangleTracker, "inTriangleTracker");
     this.triangles =
       Objects.requireNonNull(inTriangles, "inTriangles");
+    this.lexicalMapped =
+      () -> SMFB2Lexical.ofOffset(this.lexicalURI, this.lexicalOffset);
   }
 
   /**
@@ -115,143 +159,188 @@ public final class SMFB2ParsingSectionTriangles
 
     final var headerTriangles = this.smfHeader.triangles();
     final var byteOrder = this.smfHeader.dataByteOrder();
-    if (Objects.equals(byteOrder, BIG_ENDIAN)) {
-      this.parseTrianglesBE(reader, headerTriangles);
-    } else if (Objects.equals(byteOrder, LITTLE_ENDIAN)) {
-      this.parseTrianglesLE(reader, headerTriangles);
+    final var decoded =
+      this.parallel.isPresent()
+        && this.parseTrianglesDecoded(
+        context, reader, headerTriangles, byteOrder, this.parallel.get());
+
+    if (!decoded) {
+      if (context.supportsMapping()) {
+        this.parseTrianglesMapped(context, reader, headerTriangles, byteOrder);
+      } else {
+        this.parseTrianglesReader(reader, headerTriangles, byteOrder);
+      }
     }
 
     this.triangles.onDataTrianglesFinish();
     return SMFPartial.succeeded(SMFVoid.void_());
   }
 
-  private void parseTrianglesBE(
+  private void parseTrianglesReader(
     final BSSReaderType reader,
-    final SMFTriangles headerTriangles)
+    final SMFTriangles headerTriangles,
+    final ByteOrder byteOrder)
     throws IOException
   {
     final var triangleCount = headerTriangles.triangleCount();
-    switch (headerTriangles.triangleIndexSizeBits()) {
-      case 8: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU8("v0");
-          final var v1 = reader.readU8("v1");
-          final var v2 = reader.readU8("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
-        }
-        break;
-      }
-      case 16: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU16BE("v0");
-          final var v1 = reader.readU16BE("v1");
-          final var v2 = reader.readU16BE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
-        }
-        break;
-      }
-      case 32: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU32BE("v0");
-          final var v1 = reader.readU32BE("v1");
-          final var v2 = reader.readU32BE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
-        }
-        break;
-      }
-      case 64: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU64BE("v0");
-          final var v1 = reader.readU64BE("v1");
-          final var v2 = reader.readU64BE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
-        }
-        break;
-      }
-      default: {
-        throw new UnreachableCodeException();
-      }
+    final var sizeOfOne = headerTriangles.triangleSizeOctets();
+    final var bytes = new byte[CHUNK_TRIANGLES * sizeOfOne];
+    final var buffer = ByteBuffer.wrap(bytes).order(byteOrder);
+    this.lexicalURI = reader.uri();
+
+    var remaining = triangleCount;
+    while (Long.compareUnsigned(remaining, 0L) > 0) {
+      final var count = (int) Math.min(remaining, CHUNK_TRIANGLES);
+      final var offset = reader.offsetCurrentAbsolute();
+      SMFB2ParsingVertexDataBulk.readFully(reader, bytes, count * sizeOfOne);
+      this.parseTrianglesWindow(offset, count, headerTriangles, buffer);
+      remaining -= count;
+    }
+  }
+
+  private void parseTrianglesMapped(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFTriangles headerTriangles,
+    final ByteOrder byteOrder)
+    throws IOException
+  {
+    final var triangleCount = headerTriangles.triangleCount();
+    final var sizeOfOne =
+      Integer.toUnsignedLong(headerTriangles.triangleSizeOctets());
+    SMFB2Mapping.checkRemaining(
+      reader, Math.multiplyExact(sizeOfOne, triangleCount));
+
+    final var perWindow = SMFB2Mapping.elementsPerWindow(sizeOfOne);
+    this.lexicalURI = reader.uri();
+
+    var offset = reader.offsetCurrentAbsolute();
+    var remaining = triangleCount;
+    while (Long.compareUnsigned(remaining, 0L) > 0) {
+      final var count = Math.min(remaining, perWindow);
+      final var size = count * sizeOfOne;
+      final var buffer =
+        context.mapRegion(offset, size).order(byteOrder);
+      this.parseTrianglesWindow(
+        offset, (int) count, headerTriangles, buffer);
+      offset += size;
+      remaining -= count;
     }
   }
 
-  private void parseTrianglesLE(
+  private boolean parseTrianglesDecoded(
+    final SMFB2ParsingContextType context,
     final BSSReaderType reader,
-    final SMFTriangles headerTriangles)
+    final SMFTriangles headerTriangles,
+    final ByteOrder byteOrder,
+    final SMFB2ParsingParallel decoder)
     throws IOException
   {
     final var triangleCount = headerTriangles.triangleCount();
-    switch (headerTriangles.triangleIndexSizeBits()) {
-      case 8: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU8("v0");
-          final var v1 = reader.readU8("v1");
-          final var v2 = reader.readU8("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
+    final var sizeOfOne =
+      Integer.toUnsignedLong(headerTriangles.triangleSizeOctets());
+    SMFB2Mapping.checkRemaining(
+      reader, Math.multiplyExact(sizeOfOne, triangleCount));
+
+    final var offset = reader.offsetCurrentAbsolute();
+    final var indicesOpt =
+      decoder.decodeTriangles(context, offset, headerTriangles, byteOrder);
+    if (indicesOpt.isEmpty()) {
+      return false;
+    }
+
+    final var indices = indicesOpt.get();
+    this.lexicalURI = reader.uri();
+
+    final var total = indices.length / 3;
+    for (var done = 0; done < total; done += CHUNK_TRIANGLES) {
+      final var count = Math.min(CHUNK_TRIANGLES, total - done);
+      this.trackTriangles(
+        offset + done * sizeOfOne, sizeOfOne, indices, done * 3, count);
+      this.triangles.onDataTriangles(indices, done * 3, count);
+    }
+    return true;
+  }
+
+  private void parseTrianglesWindow(
+    final long offset,
+    final int triangleCount,
+    final SMFTriangles headerTriangles,
+    final ByteBuffer buffer)
+  {
+    final var indices = this.indexArray();
+    final var sizeOfOne = headerTriangles.triangleSizeOctets();
+    final var sizeBits = headerTriangles.triangleIndexSizeBits();
+
+    var done = 0;
+    while (done < triangleCount) {
+      final var count = Math.min(CHUNK_TRIANGLES, triangleCount - done);
+      final var base = done * 3;
+      final var size = count * 3;
+
+      switch (sizeBits) {
+        case 8: {
+          for (var index = 0; index < size; ++index) {
+            indices[index] = Byte.toUnsignedLong(buffer.get(base + index));
+          }
+          break;
         }
-        break;
-      }
-      case 16: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU16LE("v0");
-          final var v1 = reader.readU16LE("v1");
-          final var v2 = reader.readU16LE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
+        case 16: {
+          for (var index = 0; index < size; ++index) {
+            indices[index] =
+              Short.toUnsignedLong(buffer.getShort((base + index) << 1));
+          }
+          break;
         }
-        break;
-      }
-      case 32: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU32LE("v0");
-          final var v1 = reader.readU32LE("v1");
-          final var v2 = reader.readU32LE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
+        case 32: {
+          for (var index = 0; index < size; ++index) {
+            indices[index] =
+              Integer.toUnsignedLong(buffer.getInt((base + index) << 2));
+          }
+          break;
         }
-        break;
-      }
-      case 64: {
-        for (long index = 0L;
-             Long.compareUnsigned(index, triangleCount) < 0;
-             ++index) {
-          final var v0 = reader.readU64LE("v0");
-          final var v1 = reader.readU64LE("v1");
-          final var v2 = reader.readU64LE("v2");
-          this.triangleTracker.addTriangle(
-            SMFB2Lexical.ofReader(reader), v0, v1, v2);
-          this.triangles.onDataTriangle(v0, v1, v2);
+        case 64: {
+          buffer.duplicate()
+            .order(buffer.order())
+            .asLongBuffer()
+            .get(base, indices, 0, size);
+          break;
+        }
+        default: {
+          throw new UnreachableCodeException();
         }
-        break;
-      }
-      default: {
-        throw new UnreachableCodeException();
       }
+
+      this.trackTriangles(
+        offset + (long) done * sizeOfOne, sizeOfOne, indices, 0, count);
+      this.triangles.onDataTriangles(indices, 0, count);
+      done += count;
+    }
+  }
+
+  private void trackTriangles(
+    final long offset,
+    final long sizeOfOne,
+    final long[] indices,
+    final int indexOffset,
+    final int count)
+  {
+    for (var triangle = 0; triangle < count; ++triangle) {
+      final var index = indexOffset + triangle * 3;
+      this.lexicalOffset = offset + (triangle + 1) * sizeOfOne;
+      this.triangleTracker.addTriangle(
+        this.lexicalMapped,
+        indices[index],
+        indices[index + 1],
+        indices[index + 2]);
+    }
+  }
+
+  private long[] indexArray()
+  {
+    if (this.indexChunk == null) {
+      this.indexChunk = new long[CHUNK_TRIANGLES * 3];
     }
+    return this.indexChunk;
   }
 }
@@ -0,0 +1,490 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.jbssio.api.BSSReaderType;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFInterleavedLayout;
+import com.io7m.smfj.core.SMFVoid;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A parser for the interleaved vertex data section. The section data starts
+ * with a version number, the stride of each vertex, and the offset of each
+ * attribute within a vertex, followed by the data of all vertices. Receivers
+ * that ask for interleaved data are given the data of the vertices as it
+ * appears in the file; otherwise, the values of each attribute are
+ * extracted and delivered exactly as for non-interleaved data.
+ */
+
+public final class SMFB2ParsingSectionVertexDataInterleaved
+  implements SMFB2StructureParserType<SMFVoid>
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFB2ParsingSectionVertexDataInterleaved.class);
+
+  private static final long VERSION = 1L;
+
+  private final SMFB2Section sectionHeader;
+  private final SMFHeader smfHeader;
+  private final SMFParserEventsBodyType events;
+
+  /**
+   * Construct a parser.
+   *
+   * @param inSectionHeader The section header for this section
+   * @param inSMFHeader     The SMF header
+   * @param inEvents        The receiver of body events
+   */
+
+  public SMFB2ParsingSectionVertexDataInterleaved(
+    final SMFB2Section inSectionHeader,
+    final SMFHeader inSMFHeader,
+    final SMFParserEventsBodyType inEvents)
+  {
+    this.sectionHeader =
+      Objects.requireNonNull(inSectionHeader, "sectionHeader");
+    this.smfHeader =
+      Objects.requireNonNull(inSMFHeader, "smfHeader");
+    this.events =
+      Objects.requireNonNull(inEvents, "events");
+  }
+
+  /**
+   * @return The magic number identifying the section.
+   */
+
+  public static long magic()
+  {
+    return 0x534D_465F_5644_494CL;
+  }
+
+  /**
+   * @return The version of the section written by this implementation
+   */
+
+  public static long version()
+  {
+    return VERSION;
+  }
+
+  /**
+   * Determine the layout used to write interleaved data for the given
+   * header. Attributes are stored in the order in which they are declared,
+   * each starting at a multiple of its component size. The stride is a
+   * multiple of four octets and of the largest component size.
+   *
+   * @param header The header
+   *
+   * @return The layout
+   */
+
+  public static SMFInterleavedLayout layoutOf(
+    final SMFHeader header)
+  {
+    final var offsets = new LinkedHashMap<SMFAttributeName, Integer>();
+    var offset = 0L;
+    var alignment = 4;
+    for (final var attribute : header.attributesInOrder()) {
+      final var componentSize = attribute.componentSizeOctets();
+      offset = SMFB2Alignment.alignNext(offset, componentSize);
+      offsets.put(attribute.name(), Integer.valueOf(Math.toIntExact(offset)));
+      offset = Math.addExact(offset, attribute.sizeOctets());
+      alignment = Math.max(alignment, componentSize);
+    }
+
+    return SMFInterleavedLayout.of(
+      Math.toIntExact(SMFB2Alignment.alignNext(offset, alignment)),
+      offsets);
+  }
+
+  /**
+   * @param attributeCount The number of attributes
+   *
+   * @return The size of the section data that precedes the vertex data,
+   * including padding
+   */
+
+  public static long tableSize(
+    final int attributeCount)
+  {
+    return SMFB2Alignment.alignNext(
+      16L + Math.multiplyExact(4L, (long) attributeCount), 16);
+  }
+
+  /**
+   * @param header The header
+   * @param layout The layout
+   *
+   * @return The size of the section data, including padding
+   */
+
+  public static long sectionDataSize(
+    final SMFHeader header,
+    final SMFInterleavedLayout layout)
+  {
+    final var vertexData =
+      Math.multiplyExact(
+        Integer.toUnsignedLong(layout.stride()),
+        header.vertexCount());
+
+    return Math.addExact(
+      tableSize(header.attributesInOrder().size()),
+      SMFB2Alignment.alignNext(vertexData, 16));
+  }
+
+  @Override
+  public SMFVoid parse(final SMFB2ParsingContextType context)
+    throws IOException
+  {
+    return context.withReader(
+      "vertexDataInterleaved",
+      this.sectionHeader.sizeOfData(),
+      reader -> {
+        this.parseWithReader(context, reader);
+        return SMFVoid.void_();
+      });
+  }
+
+  private void parseWithReader(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader)
+    throws IOException
+  {
+    if (!SMFB2ParsingSectionHeader.checkHeader(
+      context,
+      reader,
+      this.sectionHeader,
+      magic(),
+      "vertex-data-interleaved")) {
+      return;
+    }
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(
+        "section '{}' @ 0x{}",
+        "vertex-data-interleaved",
+        Long.toUnsignedString(reader.offsetCurrentAbsolute(), 16));
+    }
+
+    final var version = reader.readU32BE("version");
+    if (version != VERSION) {
+      context.publishWarning(
+        SMFB2ParseErrors.warningOf(
+          reader,
+          "Unsupported interleaved vertex data version %s; skipping it",
+          Long.toUnsignedString(version)));
+      return;
+    }
+
+    final var layoutOpt = this.parseLayout(context, reader);
+    if (layoutOpt.isEmpty()) {
+      return;
+    }
+
+    final var layout = layoutOpt.get();
+
+    SMFB2Mapping.checkRemaining(
+      reader,
+      Math.multiplyExact(
+        Integer.toUnsignedLong(layout.stride()),
+        this.smfHeader.vertexCount()));
+
+    final var interleavedOpt = this.events.onAttributesInterleaved();
+    if (interleavedOpt.isPresent()) {
+      final var interleaved = interleavedOpt.get();
+      try {
+        this.deliverInterleaved(context, reader, layout, interleaved);
+      } finally {
+        interleaved.onDataAttributesInterleavedFinish();
+      }
+      return;
+    }
+
+    final var nonInterleavedOpt = this.events.onAttributesNonInterleaved();
+    if (nonInterleavedOpt.isPresent()) {
+      this.deliverNonInterleaved(
+        context, reader, layout, nonInterleavedOpt.get());
+    }
+  }
+
+  private Optional<SMFInterleavedLayout> parseLayout(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader)
+    throws IOException
+  {
+    final var stride = reader.readU32BE("stride");
+    final var attributeCount = reader.readU32BE("attributeCount");
+    reader.readU32BE("reserved");
+
+    final var attributes = this.smfHeader.attributesInOrder();
+    if (attributeCount != (long) attributes.size()) {
+      context.publishError(
+        SMFB2ParseErrors.errorOf(
+          reader,
+          "Interleaved vertex data specifies %s attributes but the header declares %s",
+          Long.toUnsignedString(attributeCount),
+          Integer.valueOf(attributes.size())));
+      return Optional.empty();
+    }
+
+    if (Long.compareUnsigned(stride, Integer.MAX_VALUE) > 0) {
+      context.publishError(
+        SMFB2ParseErrors.errorOf(
+          reader,
+          "Interleaved vertex data stride %s is too large",
+          Long.toUnsignedString(stride)));
+      return Optional.empty();
+    }
+
+    final var offsets = new LinkedHashMap<SMFAttributeName, Integer>();
+    for (final var attribute : attributes) {
+      final var offset = reader.readU32BE("offset");
+      final var end = offset + Integer.toUnsignedLong(attribute.sizeOctets());
+      if (Long.compareUnsigned(end, stride) > 0) {
+        context.publishError(
+          SMFB2ParseErrors.errorOf(
+            reader,
+            "Attribute %s at offset %s with size %s does not fit within the stride %s",
+            attribute.name().value(),
+            Long.toUnsignedString(offset),
+            Integer.valueOf(attribute.sizeOctets()),
+            Long.toUnsignedString(stride)));
+        return Optional.empty();
+      }
+      offsets.put(attribute.name(), Integer.valueOf((int) offset));
+    }
+
+    final var byOffset = new ArrayList<>(attributes);
+    byOffset.sort(Comparator.comparing(a -> offsets.get(a.name())));
+    for (int index = 1; index < byOffset.size(); ++index) {
+      final var previous = byOffset.get(index - 1);
+      final var current = byOffset.get(index);
+      final var previousEnd =
+        offsets.get(previous.name()).intValue() + previous.sizeOctets();
+      if (previousEnd > offsets.get(current.name()).intValue()) {
+        context.publishError(
+          SMFB2ParseErrors.errorOf(
+            reader,
+            "Attribute %s overlaps attribute %s",
+            current.name().value(),
+            previous.name().value()));
+        return Optional.empty();
+      }
+    }
+
+    final var tableUsed = 16L + 4L * (long) attributes.size();
+    reader.skip(tableSize(attributes.size()) - tableUsed);
+    return Optional.of(SMFInterleavedLayout.of((int) stride, offsets));
+  }
+
+  private void deliverInterleaved(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFInterleavedLayout layout,
+    final SMFParserEventsDataAttributesInterleavedType receiver)
+    throws IOException
+  {
+    final var stride = layout.stride();
+    final var byteOrder = this.smfHeader.dataByteOrder();
+
+    if (context.supportsMapping()) {
+      var vertexFirst = 0L;
+      for (final var window : this.mapWindows(context, reader, layout)) {
+        receiver.onDataAttributesInterleaved(
+          layout, vertexFirst, window.asReadOnlyBuffer().order(byteOrder));
+        vertexFirst += (long) (window.limit() / stride);
+      }
+      return;
+    }
+
+    if (stride == 0) {
+      return;
+    }
+
+    final var chunkVertices =
+      Math.max(1, SMFB2ParsingVertexDataBulk.CHUNK_SIZE_OCTETS / stride);
+    final var bytes = new byte[Math.multiplyExact(chunkVertices, stride)];
+
+    var vertexFirst = 0L;
+    final var vertexCount = this.smfHeader.vertexCount();
+    while (Long.compareUnsigned(vertexFirst, vertexCount) < 0) {
+      final var count = (int) Math.min(vertexCount - vertexFirst, chunkVertices);
+      final var size = count * stride;
+      SMFB2ParsingVertexDataBulk.readFully(reader, bytes, size);
+      receiver.onDataAttributesInterleaved(
+        layout,
+        vertexFirst,
+        ByteBuffer.wrap(bytes, 0, size).asReadOnlyBuffer().order(byteOrder));
+      vertexFirst += (long) count;
+    }
+  }
+
+  private void deliverNonInterleaved(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFInterleavedLayout layout,
+    final SMFParserEventsDataAttributesNonInterleavedType receiver)
+    throws IOException
+  {
+    try {
+      final List<ByteBuffer> windows;
+      if (context.supportsMapping()) {
+        windows = this.mapWindows(context, reader, layout);
+      } else {
+        windows = this.readWindow(reader, layout);
+      }
+
+      for (final var attribute : this.smfHeader.attributesInOrder()) {
+        final var valuesOpt = receiver.onDataAttributeStart(attribute);
+        if (valuesOpt.isPresent()) {
+          final var values = valuesOpt.get();
+          try {
+            this.deliverAttribute(windows, layout, attribute, values);
+          } finally {
+            values.onDataAttributeValueFinish();
+          }
+        }
+      }
+    } finally {
+      receiver.onDataAttributesNonInterleavedFinish();
+    }
+  }
+
+  /*
+   * The values of a single attribute are gathered from the vertices in
+   * each window into a buffer in the non-interleaved layout, and are then
+   * delivered in the same way as values read from a non-interleaved
+   * section.
+   */
+
+  private void deliverAttribute(
+    final List<ByteBuffer> windows,
+    final SMFInterleavedLayout layout,
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var stride = layout.stride();
+    final var offset = layout.offsets().get(attribute.name()).intValue();
+    final var sizeOfOne = attribute.sizeOctets();
+    final var bulkOpt = SMFB2ParsingVertexDataBulk.create(attribute, values);
+
+    final var chunkVertices =
+      Math.max(1, SMFB2ParsingVertexDataBulk.CHUNK_SIZE_OCTETS / sizeOfOne);
+    final var bytes = new byte[chunkVertices * sizeOfOne];
+    final var packed =
+      ByteBuffer.wrap(bytes).order(this.smfHeader.dataByteOrder());
+
+    for (final var window : windows) {
+      final var vertices = window.limit() / stride;
+      for (var base = 0; base < vertices; base += chunkVertices) {
+        final var count = Math.min(chunkVertices, vertices - base);
+        for (var index = 0; index < count; ++index) {
+          window.get(
+            (base + index) * stride + offset,
+            bytes,
+            index * sizeOfOne,
+            sizeOfOne);
+        }
+
+        packed.position(0);
+        packed.limit(count * sizeOfOne);
+        if (bulkOpt.isPresent()) {
+          bulkOpt.get().deliver(packed, count);
+        } else {
+          SMFB2ParsingVertexDataMapped.parseWindow(
+            count, attribute, packed, values);
+        }
+      }
+    }
+  }
+
+  private List<ByteBuffer> mapWindows(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final SMFInterleavedLayout layout)
+    throws IOException
+  {
+    final var stride = Integer.toUnsignedLong(layout.stride());
+    final var windows = new ArrayList<ByteBuffer>();
+    if (stride == 0L) {
+      return windows;
+    }
+
+    final var byteOrder = this.smfHeader.dataByteOrder();
+    final var perWindow = SMFB2Mapping.elementsPerWindow(stride);
+
+    var offset = reader.offsetCurrentAbsolute();
+    var remaining = this.smfHeader.vertexCount();
+    while (Long.compareUnsigned(remaining, 0L) > 0) {
+      final var count = Math.min(remaining, perWindow);
+      final var size = count * stride;
+      windows.add(context.mapRegion(offset, size).order(byteOrder));
+      offset += size;
+      remaining -= count;
+    }
+    return windows;
+  }
+
+  private List<ByteBuffer> readWindow(
+    final BSSReaderType reader,
+    final SMFInterleavedLayout layout)
+    throws IOException
+  {
+    final var size =
+      Math.multiplyExact(
+        Integer.toUnsignedLong(layout.stride()),
+        this.smfHeader.vertexCount());
+
+    if (size == 0L) {
+      return List.of();
+    }
+
+    if (Long.compareUnsigned(size, Integer.MAX_VALUE) > 0) {
+      throw reader.createException(
+        "Interleaved vertex data is too large to be read without mapping",
+        Map.of(
+          "Size",
+          Long.toUnsignedString(size),
+          "Maximum",
+          Integer.toUnsignedString(Integer.MAX_VALUE)),
+        IOException::new);
+    }
+
+    final var bytes = new byte[(int) size];
+    SMFB2ParsingVertexDataBulk.readFully(reader, bytes, (int) size);
+    return List.of(
+      ByteBuffer.wrap(bytes).order(this.smfHeader.dataByteOrder()));
+  }
+}
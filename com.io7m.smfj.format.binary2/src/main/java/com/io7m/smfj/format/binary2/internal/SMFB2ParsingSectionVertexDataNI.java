@@ -27,6 +27,7 @@ import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.util.Objects;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,12 +40,34 @@ public final class SMFB2ParsingSectionVertexDataNI
   private final SMFParserEventsDataAttributesNonInterleavedType nonInterleaved;
   private final SMFB2Section sectionHeader;
   private final SMFHeader smfHeader;
+  private final Optional<SMFB2ParsingParallel> parallel;
 
   public SMFB2ParsingSectionVertexDataNI(
     final SMFB2Section inSectionHeader,
     final SMFHeader inSMFHeader,
     final SMFParserEventsDataAttributesNonInterleavedType inNonInterleaved)
   {
+    this(inSectionHeader, inSMFHeader, inNonInterleaved, Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param inSectionHeader  The section header for this section
+   * @param inSMFHeader      The SMF header
+   * @param inNonInterleaved The receiver of vertex data
+   * @param inParallel       The decoder used to decode accepted attributes
+   *                         in parallel, if any
+   */
+
+  public SMFB2ParsingSectionVertexDataNI(
+    final SMFB2Section inSectionHeader,
+    final SMFHeader inSMFHeader,
+    final SMFParserEventsDataAttributesNonInterleavedType inNonInterleaved,
+    final Optional<SMFB2ParsingParallel> inParallel)
+  {
+    this.parallel =
+      Objects.requireNonNull(inParallel, "parallel");
     this.sectionHeader =
       Objects.requireNonNull(inSectionHeader, "sectionHeader");
     this.smfHeader =
@@ -134,21 +157,78 @@ public final class SMFB2ParsingSectionVertexDataNI
             sizeAligned,
             dataReader -> {
               try {
-                parseAttributeWithReader(
-                  this.smfHeader.vertexCount(),
-                  this.smfHeader.dataByteOrder(),
-                  attribute,
-                  dataReader,
-                  values);
+                this.parseAttribute(context, dataReader, attribute, values);
                 return SMFVoid.void_();
               } finally {
                 values.onDataAttributeValueFinish();
               }
             });
+        } else {
+          context.withReader(
+            attribute.name().value(),
+            sizeAligned,
+            dataReader -> SMFVoid.void_());
         }
       }
     } finally {
       this.nonInterleaved.onDataAttributesNonInterleavedFinish();
     }
   }
+
+  private void parseAttribute(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType dataReader,
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType values)
+    throws IOException
+  {
+    final var vertexCount = this.smfHeader.vertexCount();
+    final var byteOrder = this.smfHeader.dataByteOrder();
+    final var bulkOpt = SMFB2ParsingVertexDataBulk.create(attribute, values);
+
+    /*
+     * Raw receivers are given views of the mapped file, so there is nothing
+     * to decode for them in parallel.
+     */
+
+    final var wantsDecoded =
+      bulkOpt.isEmpty() || bulkOpt.get().bulkReceiver().isPresent();
+
+    if (this.parallel.isPresent() && wantsDecoded) {
+      SMFB2Mapping.checkRemaining(
+        dataReader,
+        Math.multiplyExact(
+          Integer.toUnsignedLong(attribute.sizeOctets()), vertexCount));
+
+      final var decodedOpt =
+        this.parallel.get().decodeAttribute(
+          context,
+          dataReader.offsetCurrentAbsolute(),
+          vertexCount,
+          byteOrder,
+          attribute);
+
+      if (decodedOpt.isPresent()) {
+        decodedOpt.get()
+          .deliver(values, bulkOpt.flatMap(b -> b.bulkReceiver()));
+        return;
+      }
+    }
+
+    if (context.supportsMapping()) {
+      SMFB2ParsingVertexDataMapped.parseAttributeMapped(
+        context,
+        dataReader,
+        vertexCount,
+        byteOrder,
+        attribute,
+        values,
+        bulkOpt);
+    } else if (bulkOpt.isPresent()) {
+      bulkOpt.get().parseWithReader(dataReader, vertexCount, byteOrder);
+    } else {
+      parseAttributeWithReader(
+        vertexCount, byteOrder, attribute, dataReader, values);
+    }
+  }
 }
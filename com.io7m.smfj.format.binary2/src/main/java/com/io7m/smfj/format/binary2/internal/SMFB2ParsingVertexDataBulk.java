@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.jbssio.api.BSSReaderType;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesRawType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Delivery of vertex data to bulk and raw receivers. Data is decoded from
+ * buffers containing whole vertices; buffers are either read in chunks from
+ * a reader, or are memory-mapped windows of the file.
+ */
+
+final class SMFB2ParsingVertexDataBulk
+{
+  /**
+   * The size in octets of the chunks read from readers, and of the blocks
+   * of values passed to bulk receivers.
+   */
+
+  static final int CHUNK_SIZE_OCTETS = 65536;
+
+  private final SMFAttribute attribute;
+  private final SMFParserEventsDataAttributeValuesRawType raw;
+  private final SMFParserEventsDataAttributeValuesBulkType bulk;
+  private final int sizeOfOne;
+  private final int chunkVertices;
+  private float[] floats;
+  private double[] doubles;
+  private long[] longs;
+
+  private SMFB2ParsingVertexDataBulk(
+    final SMFAttribute inAttribute,
+    final SMFParserEventsDataAttributeValuesRawType inRaw,
+    final SMFParserEventsDataAttributeValuesBulkType inBulk)
+  {
+    this.attribute = Objects.requireNonNull(inAttribute, "attribute");
+    this.raw = inRaw;
+    this.bulk = inBulk;
+    this.sizeOfOne = inAttribute.sizeOctets();
+    this.chunkVertices = Math.max(1, CHUNK_SIZE_OCTETS / this.sizeOfOne);
+  }
+
+  /**
+   * Create a bulk delivery for the given receiver, if the receiver has asked
+   * for bulk or raw delivery.
+   *
+   * @param attribute The attribute
+   * @param values    The receiver
+   *
+   * @return A bulk delivery, or nothing if the receiver wants per-vertex
+   * values
+   */
+
+  static Optional<SMFB2ParsingVertexDataBulk> create(
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var rawOpt = values.onDataAttributeValuesRaw();
+    if (rawOpt.isPresent()) {
+      return Optional.of(
+        new SMFB2ParsingVertexDataBulk(attribute, rawOpt.get(), null));
+    }
+
+    final var bulkOpt = values.onDataAttributeValuesBulk();
+    if (bulkOpt.isPresent()) {
+      return Optional.of(
+        new SMFB2ParsingVertexDataBulk(attribute, null, bulkOpt.get()));
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * @return The bulk receiver, or nothing if the receiver asked for raw data
+   */
+
+  Optional<SMFParserEventsDataAttributeValuesBulkType> bulkReceiver()
+  {
+    return Optional.ofNullable(this.bulk);
+  }
+
+  /**
+   * Read and deliver the data for {@code vertexCount} vertices from the given
+   * reader.
+   *
+   * @param reader      The reader
+   * @param vertexCount The number of vertices
+   * @param byteOrder   The byte order of the data
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void parseWithReader(
+    final BSSReaderType reader,
+    final long vertexCount,
+    final ByteOrder byteOrder)
+    throws IOException
+  {
+    final var bytes = new byte[this.chunkVertices * this.sizeOfOne];
+    final var buffer = ByteBuffer.wrap(bytes).order(byteOrder);
+
+    var remaining = vertexCount;
+    while (Long.compareUnsigned(remaining, 0L) > 0) {
+      final var count = (int) Math.min(remaining, this.chunkVertices);
+      final var size = count * this.sizeOfOne;
+      readFully(reader, bytes, size);
+      buffer.position(0);
+      buffer.limit(size);
+      this.deliver(buffer, count);
+      remaining -= count;
+    }
+  }
+
+  /**
+   * Read exactly {@code size} octets from the given reader.
+   *
+   * @param reader The reader
+   * @param bytes  The array that will hold the octets
+   * @param size   The number of octets
+   *
+   * @throws IOException On I/O errors, or if the data ends early
+   */
+
+  static void readFully(
+    final BSSReaderType reader,
+    final byte[] bytes,
+    final int size)
+    throws IOException
+  {
+    var offset = 0;
+    while (offset < size) {
+      final var read = reader.readBytes("data", bytes, offset, size - offset);
+      if (read <= 0) {
+        throw new EOFException(
+          String.format(
+            "Unexpected end of data at offset 0x%s",
+            Long.toUnsignedString(reader.offsetCurrentAbsolute(), 16)));
+      }
+      offset += read;
+    }
+  }
+
+  /**
+   * Deliver the data for {@code vertexCount} vertices held in the given
+   * buffer. The data starts at offset zero in the buffer, and the buffer's
+   * byte order must be set to that of the data.
+   *
+   * @param buffer      The buffer
+   * @param vertexCount The number of vertices
+   */
+
+  void deliver(
+    final ByteBuffer buffer,
+    final int vertexCount)
+  {
+    if (this.raw != null) {
+      final var view =
+        buffer.asReadOnlyBuffer()
+          .position(0)
+          .limit(vertexCount * this.sizeOfOne)
+          .order(buffer.order());
+      this.raw.onDataAttributeValuesRaw(view);
+      return;
+    }
+
+    switch (this.attribute.componentType()) {
+      case ELEMENT_TYPE_FLOATING: {
+        this.deliverFloating(buffer, vertexCount);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        this.deliverIntegerSigned(buffer, vertexCount);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        this.deliverIntegerUnsigned(buffer, vertexCount);
+        return;
+      }
+    }
+  }
+
+  private int chunkValues()
+  {
+    return this.chunkVertices * this.attribute.componentCount();
+  }
+
+  private void deliverFloating(
+    final ByteBuffer buffer,
+    final int vertexCount)
+  {
+    final var total = vertexCount * this.attribute.componentCount();
+    final var chunk = this.chunkValues();
+
+    switch (this.attribute.componentSizeBits()) {
+      case 16: {
+        final var values = this.floatArray();
+        for (var base = 0; base < total; base += chunk) {
+          final var count = Math.min(chunk, total - base);
+          for (var index = 0; index < count; ++index) {
+            values[index] =
+              Binary16.unpackFloat(buffer.getChar((base + index) << 1));
+          }
+          this.bulk.onDataAttributeValuesFloat32(values, 0, count);
+        }
+        return;
+      }
+      case 32: {
+        final var values = this.floatArray();
+        final var view =
+          buffer.duplicate()
+            .order(buffer.order())
+            .asFloatBuffer();
+        for (var base = 0; base < total; base += chunk) {
+          final var count = Math.min(chunk, total - base);
+          view.get(values, 0, count);
+          this.bulk.onDataAttributeValuesFloat32(values, 0, count);
+        }
+        return;
+      }
+      case 64: {
+        final var values = this.doubleArray();
+        final var view =
+          buffer.duplicate()
+            .order(buffer.order())
+            .asDoubleBuffer();
+        for (var base = 0; base < total; base += chunk) {
+          final var count = Math.min(chunk, total - base);
+          view.get(values, 0, count);
+          this.bulk.onDataAttributeValuesFloat64(values, 0, count);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private void deliverIntegerSigned(
+    final ByteBuffer buffer,
+    final int vertexCount)
+  {
+    final var total = vertexCount * this.attribute.componentCount();
+    final var chunk = this.chunkValues();
+    final var values = this.longArray();
+    final var bits = this.attribute.componentSizeBits();
+
+    for (var base = 0; base < total; base += chunk) {
+      final var count = Math.min(chunk, total - base);
+      for (var index = 0; index < count; ++index) {
+        final var position = base + index;
+        values[index] = switch (bits) {
+          case 8 -> (long) buffer.get(position);
+          case 16 -> (long) buffer.getShort(position << 1);
+          case 32 -> (long) buffer.getInt(position << 2);
+          case 64 -> buffer.getLong(position << 3);
+          default -> throw new UnreachableCodeException();
+        };
+      }
+      this.bulk.onDataAttributeValuesIntegerSigned(values, 0, count);
+    }
+  }
+
+  private void deliverIntegerUnsigned(
+    final ByteBuffer buffer,
+    final int vertexCount)
+  {
+    final var total = vertexCount * this.attribute.componentCount();
+    final var chunk = this.chunkValues();
+    final var values = this.longArray();
+    final var bits = this.attribute.componentSizeBits();
+
+    for (var base = 0; base < total; base += chunk) {
+      final var count = Math.min(chunk, total - base);
+      for (var index = 0; index < count; ++index) {
+        final var position = base + index;
+        values[index] = switch (bits) {
+          case 8 -> Byte.toUnsignedLong(buffer.get(position));
+          case 16 -> Short.toUnsignedLong(buffer.getShort(position << 1));
+          case 32 -> Integer.toUnsignedLong(buffer.getInt(position << 2));
+          case 64 -> buffer.getLong(position << 3);
+          default -> throw new UnreachableCodeException();
+        };
+      }
+      this.bulk.onDataAttributeValuesIntegerUnsigned(values, 0, count);
+    }
+  }
+
+  private float[] floatArray()
+  {
+    if (this.floats == null) {
+      this.floats = new float[this.chunkValues()];
+    }
+    return this.floats;
+  }
+
+  private double[] doubleArray()
+  {
+    if (this.doubles == null) {
+      this.doubles = new double[this.chunkValues()];
+    }
+    return this.doubles;
+  }
+
+  private long[] longArray()
+  {
+    if (this.longs == null) {
+      this.longs = new long[this.chunkValues()];
+    }
+    return this.longs;
+  }
+}
@@ -0,0 +1,770 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.jbssio.api.BSSReaderType;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * Functions to decode vertex data directly from memory-mapped regions of a
+ * file, avoiding the per-component overhead of reading through a
+ * {@link BSSReaderType}.
+ */
+
+final class SMFB2ParsingVertexDataMapped
+{
+  private SMFB2ParsingVertexDataMapped()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Decode the values of the given attribute for {@code vertexCount}
+   * vertices, starting at the current offset of {@code reader}. The reader
+   * itself is not advanced.
+   *
+   * @param context     The parsing context
+   * @param reader      The reader positioned at the start of the data
+   * @param vertexCount The number of vertices
+   * @param byteOrder   The byte order of the data
+   * @param attribute   The attribute
+   * @param values      The receiver of values
+   * @param bulk        The bulk delivery, if the receiver asked for one
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static void parseAttributeMapped(
+    final SMFB2ParsingContextType context,
+    final BSSReaderType reader,
+    final long vertexCount,
+    final ByteOrder byteOrder,
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType values,
+    final Optional<SMFB2ParsingVertexDataBulk> bulk)
+    throws IOException
+  {
+    final var sizeOfOne =
+      Integer.toUnsignedLong(attribute.sizeOctets());
+    SMFB2Mapping.checkRemaining(
+      reader, Math.multiplyExact(sizeOfOne, vertexCount));
+
+    final var perWindow =
+      SMFB2Mapping.elementsPerWindow(sizeOfOne);
+
+    var offset = reader.offsetCurrentAbsolute();
+    var remaining = vertexCount;
+    while (Long.compareUnsigned(remaining, 0L) > 0) {
+      final var count = Math.min(remaining, perWindow);
+      final var size = count * sizeOfOne;
+      final var buffer =
+        context.mapRegion(offset, size).order(byteOrder);
+      if (bulk.isPresent()) {
+        bulk.get().deliver(buffer, (int) count);
+      } else {
+        parseWindow((int) count, attribute, buffer, values);
+      }
+      offset += size;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * Decode and deliver the values of the given attribute for
+   * {@code vertexCount} vertices held in the given buffer. The data starts
+   * at offset zero in the buffer, and the buffer's byte order must be set to
+   * that of the data.
+   *
+   * @param vertexCount The number of vertices
+   * @param attribute   The attribute
+   * @param buffer      The buffer
+   * @param values      The receiver of values
+   */
+
+  static void parseWindow(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentType()) {
+      case ELEMENT_TYPE_FLOATING: {
+        parseWindowFloating(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        parseWindowIntegerSigned(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        parseWindowIntegerUnsigned(vertexCount, attribute, buffer, values);
+        return;
+      }
+    }
+  }
+
+  private static void parseWindowFloating(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentSizeBits()) {
+      case 16: {
+        parseWindowFloating16(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 32: {
+        parseWindowFloating32(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 64: {
+        parseWindowFloating64(vertexCount, attribute, buffer, values);
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowFloating16(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 2;
+          final var c0 = Binary16.unpackDouble(buffer.getChar(base));
+          values.onDataAttributeValueFloat1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = Binary16.unpackDouble(buffer.getChar(base));
+          final var c1 = Binary16.unpackDouble(buffer.getChar(base + 2));
+          values.onDataAttributeValueFloat2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 6;
+          final var c0 = Binary16.unpackDouble(buffer.getChar(base));
+          final var c1 = Binary16.unpackDouble(buffer.getChar(base + 2));
+          final var c2 = Binary16.unpackDouble(buffer.getChar(base + 4));
+          values.onDataAttributeValueFloat3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = Binary16.unpackDouble(buffer.getChar(base));
+          final var c1 = Binary16.unpackDouble(buffer.getChar(base + 2));
+          final var c2 = Binary16.unpackDouble(buffer.getChar(base + 4));
+          final var c3 = Binary16.unpackDouble(buffer.getChar(base + 6));
+          values.onDataAttributeValueFloat4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowFloating32(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = (double) buffer.getFloat(base);
+          values.onDataAttributeValueFloat1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = (double) buffer.getFloat(base);
+          final var c1 = (double) buffer.getFloat(base + 4);
+          values.onDataAttributeValueFloat2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 12;
+          final var c0 = (double) buffer.getFloat(base);
+          final var c1 = (double) buffer.getFloat(base + 4);
+          final var c2 = (double) buffer.getFloat(base + 8);
+          values.onDataAttributeValueFloat3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = (double) buffer.getFloat(base);
+          final var c1 = (double) buffer.getFloat(base + 4);
+          final var c2 = (double) buffer.getFloat(base + 8);
+          final var c3 = (double) buffer.getFloat(base + 12);
+          values.onDataAttributeValueFloat4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowFloating64(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = buffer.getDouble(base);
+          values.onDataAttributeValueFloat1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = buffer.getDouble(base);
+          final var c1 = buffer.getDouble(base + 8);
+          values.onDataAttributeValueFloat2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 24;
+          final var c0 = buffer.getDouble(base);
+          final var c1 = buffer.getDouble(base + 8);
+          final var c2 = buffer.getDouble(base + 16);
+          values.onDataAttributeValueFloat3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 32;
+          final var c0 = buffer.getDouble(base);
+          final var c1 = buffer.getDouble(base + 8);
+          final var c2 = buffer.getDouble(base + 16);
+          final var c3 = buffer.getDouble(base + 24);
+          values.onDataAttributeValueFloat4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerSigned(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentSizeBits()) {
+      case 8: {
+        parseWindowIntegerSigned8(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 16: {
+        parseWindowIntegerSigned16(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 32: {
+        parseWindowIntegerSigned32(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 64: {
+        parseWindowIntegerSigned64(vertexCount, attribute, buffer, values);
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerSigned8(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 1;
+          final var c0 = (long) buffer.get(base);
+          values.onDataAttributeValueIntegerSigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 2;
+          final var c0 = (long) buffer.get(base);
+          final var c1 = (long) buffer.get(base + 1);
+          values.onDataAttributeValueIntegerSigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 3;
+          final var c0 = (long) buffer.get(base);
+          final var c1 = (long) buffer.get(base + 1);
+          final var c2 = (long) buffer.get(base + 2);
+          values.onDataAttributeValueIntegerSigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = (long) buffer.get(base);
+          final var c1 = (long) buffer.get(base + 1);
+          final var c2 = (long) buffer.get(base + 2);
+          final var c3 = (long) buffer.get(base + 3);
+          values.onDataAttributeValueIntegerSigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerSigned16(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 2;
+          final var c0 = (long) buffer.getShort(base);
+          values.onDataAttributeValueIntegerSigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = (long) buffer.getShort(base);
+          final var c1 = (long) buffer.getShort(base + 2);
+          values.onDataAttributeValueIntegerSigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 6;
+          final var c0 = (long) buffer.getShort(base);
+          final var c1 = (long) buffer.getShort(base + 2);
+          final var c2 = (long) buffer.getShort(base + 4);
+          values.onDataAttributeValueIntegerSigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = (long) buffer.getShort(base);
+          final var c1 = (long) buffer.getShort(base + 2);
+          final var c2 = (long) buffer.getShort(base + 4);
+          final var c3 = (long) buffer.getShort(base + 6);
+          values.onDataAttributeValueIntegerSigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerSigned32(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = (long) buffer.getInt(base);
+          values.onDataAttributeValueIntegerSigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = (long) buffer.getInt(base);
+          final var c1 = (long) buffer.getInt(base + 4);
+          values.onDataAttributeValueIntegerSigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 12;
+          final var c0 = (long) buffer.getInt(base);
+          final var c1 = (long) buffer.getInt(base + 4);
+          final var c2 = (long) buffer.getInt(base + 8);
+          values.onDataAttributeValueIntegerSigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = (long) buffer.getInt(base);
+          final var c1 = (long) buffer.getInt(base + 4);
+          final var c2 = (long) buffer.getInt(base + 8);
+          final var c3 = (long) buffer.getInt(base + 12);
+          values.onDataAttributeValueIntegerSigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerSigned64(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = buffer.getLong(base);
+          values.onDataAttributeValueIntegerSigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          values.onDataAttributeValueIntegerSigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 24;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          final var c2 = buffer.getLong(base + 16);
+          values.onDataAttributeValueIntegerSigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 32;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          final var c2 = buffer.getLong(base + 16);
+          final var c3 = buffer.getLong(base + 24);
+          values.onDataAttributeValueIntegerSigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerUnsigned(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentSizeBits()) {
+      case 8: {
+        parseWindowIntegerUnsigned8(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 16: {
+        parseWindowIntegerUnsigned16(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 32: {
+        parseWindowIntegerUnsigned32(vertexCount, attribute, buffer, values);
+        return;
+      }
+      case 64: {
+        parseWindowIntegerUnsigned64(vertexCount, attribute, buffer, values);
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerUnsigned8(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 1;
+          final var c0 = Byte.toUnsignedLong(buffer.get(base));
+          values.onDataAttributeValueIntegerUnsigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 2;
+          final var c0 = Byte.toUnsignedLong(buffer.get(base));
+          final var c1 = Byte.toUnsignedLong(buffer.get(base + 1));
+          values.onDataAttributeValueIntegerUnsigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 3;
+          final var c0 = Byte.toUnsignedLong(buffer.get(base));
+          final var c1 = Byte.toUnsignedLong(buffer.get(base + 1));
+          final var c2 = Byte.toUnsignedLong(buffer.get(base + 2));
+          values.onDataAttributeValueIntegerUnsigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = Byte.toUnsignedLong(buffer.get(base));
+          final var c1 = Byte.toUnsignedLong(buffer.get(base + 1));
+          final var c2 = Byte.toUnsignedLong(buffer.get(base + 2));
+          final var c3 = Byte.toUnsignedLong(buffer.get(base + 3));
+          values.onDataAttributeValueIntegerUnsigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerUnsigned16(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 2;
+          final var c0 = Short.toUnsignedLong(buffer.getShort(base));
+          values.onDataAttributeValueIntegerUnsigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = Short.toUnsignedLong(buffer.getShort(base));
+          final var c1 = Short.toUnsignedLong(buffer.getShort(base + 2));
+          values.onDataAttributeValueIntegerUnsigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 6;
+          final var c0 = Short.toUnsignedLong(buffer.getShort(base));
+          final var c1 = Short.toUnsignedLong(buffer.getShort(base + 2));
+          final var c2 = Short.toUnsignedLong(buffer.getShort(base + 4));
+          values.onDataAttributeValueIntegerUnsigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = Short.toUnsignedLong(buffer.getShort(base));
+          final var c1 = Short.toUnsignedLong(buffer.getShort(base + 2));
+          final var c2 = Short.toUnsignedLong(buffer.getShort(base + 4));
+          final var c3 = Short.toUnsignedLong(buffer.getShort(base + 6));
+          values.onDataAttributeValueIntegerUnsigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerUnsigned32(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 4;
+          final var c0 = Integer.toUnsignedLong(buffer.getInt(base));
+          values.onDataAttributeValueIntegerUnsigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = Integer.toUnsignedLong(buffer.getInt(base));
+          final var c1 = Integer.toUnsignedLong(buffer.getInt(base + 4));
+          values.onDataAttributeValueIntegerUnsigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 12;
+          final var c0 = Integer.toUnsignedLong(buffer.getInt(base));
+          final var c1 = Integer.toUnsignedLong(buffer.getInt(base + 4));
+          final var c2 = Integer.toUnsignedLong(buffer.getInt(base + 8));
+          values.onDataAttributeValueIntegerUnsigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = Integer.toUnsignedLong(buffer.getInt(base));
+          final var c1 = Integer.toUnsignedLong(buffer.getInt(base + 4));
+          final var c2 = Integer.toUnsignedLong(buffer.getInt(base + 8));
+          final var c3 = Integer.toUnsignedLong(buffer.getInt(base + 12));
+          values.onDataAttributeValueIntegerUnsigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void parseWindowIntegerUnsigned64(
+    final int vertexCount,
+    final SMFAttribute attribute,
+    final ByteBuffer buffer,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    switch (attribute.componentCount()) {
+      case 1: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 8;
+          final var c0 = buffer.getLong(base);
+          values.onDataAttributeValueIntegerUnsigned1(c0);
+        }
+        return;
+      }
+      case 2: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 16;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          values.onDataAttributeValueIntegerUnsigned2(c0, c1);
+        }
+        return;
+      }
+      case 3: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 24;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          final var c2 = buffer.getLong(base + 16);
+          values.onDataAttributeValueIntegerUnsigned3(c0, c1, c2);
+        }
+        return;
+      }
+      case 4: {
+        for (var index = 0; index < vertexCount; ++index) {
+          final var base = index * 32;
+          final var c0 = buffer.getLong(base);
+          final var c1 = buffer.getLong(base + 8);
+          final var c2 = buffer.getLong(base + 16);
+          final var c3 = buffer.getLong(base + 24);
+          values.onDataAttributeValueIntegerUnsigned4(c0, c1, c2, c3);
+        }
+        return;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+}
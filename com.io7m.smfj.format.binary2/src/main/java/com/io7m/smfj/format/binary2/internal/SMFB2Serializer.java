@@ -18,6 +18,7 @@
 
 package com.io7m.smfj.format.binary2.internal;
 
+import com.io7m.jbssio.api.BSSWriterProviderType;
 import com.io7m.jbssio.api.BSSWriterSequentialType;
 import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFFormatVersion;
@@ -26,6 +27,8 @@ import com.io7m.smfj.core.SMFMetadataValue;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFTriangles;
 import com.io7m.smfj.core.SMFVoid;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesInterleaved;
 import com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved;
 import com.io7m.smfj.format.binary2.internal.serial.Triangles8;
 import com.io7m.smfj.format.binary2.internal.serial.be.WriterBETriangles16;
@@ -38,6 +41,7 @@ import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedTyp
 import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
 import com.io7m.smfj.serializer.api.SMFSerializerType;
 import java.io.IOException;
+import java.net.URI;
 import java.util.Objects;
 
 import static java.nio.ByteOrder.BIG_ENDIAN;
@@ -46,17 +50,29 @@ import static java.nio.ByteOrder.LITTLE_ENDIAN;
 public final class SMFB2Serializer implements SMFSerializerType
 {
   private final SMFFormatVersion version;
+  private final BSSWriterProviderType writers;
+  private final URI uri;
   private final BSSWriterSequentialType writer;
+  private final SMFFormatBinary2Configuration configuration;
   private SMFHeader headerReceived;
 
   public SMFB2Serializer(
     final SMFFormatVersion inVersion,
-    final BSSWriterSequentialType inWriter)
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final BSSWriterSequentialType inWriter,
+    final SMFFormatBinary2Configuration inConfiguration)
   {
     this.version =
       Objects.requireNonNull(inVersion, "version");
+    this.writers =
+      Objects.requireNonNull(inWriters, "writers");
+    this.uri =
+      Objects.requireNonNull(inURI, "uri");
     this.writer =
       Objects.requireNonNull(inWriter, "writer");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
   }
 
   @Override
@@ -81,6 +97,16 @@ public final class SMFB2Serializer implements SMFSerializerType
       throw new IllegalStateException("Must serialize header first!");
     }
 
+    if (this.configuration.serializeVertexDataInterleaved()) {
+      return SMFB2SerializerDataAttributesInterleaved.createForStream(
+        this.headerReceived,
+        this.writers,
+        this.uri,
+        data -> this.writer.writeBytes(
+          "vertexDataInterleaved", data, 0, data.length))
+        .start();
+    }
+
     final var subWriter =
       this.writer.createSubWriter("vertexDataNonInterleaved");
 
@@ -99,10 +125,7 @@ public final class SMFB2Serializer implements SMFSerializerType
       throw new IllegalStateException("Must serialize header first!");
     }
 
-    final SMFTriangles triangles = this.headerReceived.triangles();
-    final var sizeOfOne = triangles.triangleSizeOctets();
-    final var sizeOfAll = sizeOfOne * triangles.triangleCount();
-    final var sizeAlign = SMFB2Alignment.alignNext(sizeOfAll, 16);
+    final var sizeAlign = trianglesSize(this.headerReceived);
 
     new SMFB2WritingSectionHeader()
       .write(
@@ -112,47 +135,79 @@ public final class SMFB2Serializer implements SMFSerializerType
     final var subWriter =
       this.writer.createSubWriterBounded("triangles", sizeAlign);
 
-    final var byteOrder = this.headerReceived.dataByteOrder();
+    return writeTriangles(this.headerReceived, subWriter);
+  }
+
+  /**
+   * @param header    The header
+   * @param subWriter A writer bounded to the size of the triangle data
+   *
+   * @return A triangle serializer for the given header
+   */
+
+  static SMFSerializerDataTrianglesType writeTriangles(
+    final SMFHeader header,
+    final BSSWriterSequentialType subWriter)
+  {
+    final var triangles = header.triangles();
+    final var byteOrder = header.dataByteOrder();
     if (Objects.equals(byteOrder, BIG_ENDIAN)) {
-      return this.writeTrianglesBE(triangles, subWriter);
+      return writeTrianglesBE(header, triangles, subWriter);
     }
     if (Objects.equals(byteOrder, LITTLE_ENDIAN)) {
-      return this.writeTrianglesLE(triangles, subWriter);
+      return writeTrianglesLE(header, triangles, subWriter);
     }
     throw new UnreachableCodeException();
   }
 
-  private SMFSerializerDataTrianglesType writeTrianglesLE(
+  /**
+   * @param header The header
+   *
+   * @return The size of the triangle data, including padding
+   */
+
+  static long trianglesSize(
+    final SMFHeader header)
+  {
+    final SMFTriangles triangles = header.triangles();
+    final var sizeOfOne = triangles.triangleSizeOctets();
+    final var sizeOfAll = sizeOfOne * triangles.triangleCount();
+    return SMFB2Alignment.alignNext(sizeOfAll, 16);
+  }
+
+  private static SMFSerializerDataTrianglesType writeTrianglesLE(
+    final SMFHeader header,
     final SMFTriangles triangles,
     final BSSWriterSequentialType subWriter)
   {
     switch (triangles.triangleIndexSizeBits()) {
       case 8:
-        return new Triangles8(subWriter, this.headerReceived);
+        return new Triangles8(subWriter, header);
       case 16:
-        return new WriterLETriangles16(subWriter, this.headerReceived);
+        return new WriterLETriangles16(subWriter, header);
       case 32:
-        return new WriterLETriangles32(subWriter, this.headerReceived);
+        return new WriterLETriangles32(subWriter, header);
       case 64:
-        return new WriterLETriangles64(subWriter, this.headerReceived);
+        return new WriterLETriangles64(subWriter, header);
       default:
         throw new UnreachableCodeException();
     }
   }
 
-  private SMFSerializerDataTrianglesType writeTrianglesBE(
+  private static SMFSerializerDataTrianglesType writeTrianglesBE(
+    final SMFHeader header,
     final SMFTriangles triangles,
     final BSSWriterSequentialType subWriter)
   {
     switch (triangles.triangleIndexSizeBits()) {
       case 8:
-        return new Triangles8(subWriter, this.headerReceived);
+        return new Triangles8(subWriter, header);
       case 16:
-        return new WriterBETriangles16(subWriter, this.headerReceived);
+        return new WriterBETriangles16(subWriter, header);
       case 32:
-        return new WriterBETriangles32(subWriter, this.headerReceived);
+        return new WriterBETriangles32(subWriter, header);
       case 64:
-        return new WriterBETriangles64(subWriter, this.headerReceived);
+        return new WriterBETriangles64(subWriter, header);
       default:
         throw new UnreachableCodeException();
     }
@@ -0,0 +1,671 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal.serial;
+
+import com.io7m.jbssio.api.BSSWriterProviderType;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFInterleavedLayout;
+import com.io7m.smfj.format.binary2.internal.SMFB2ChannelRegion;
+import com.io7m.smfj.format.binary2.internal.SMFB2ParsingSectionVertexDataInterleaved;
+import com.io7m.smfj.format.binary2.internal.SMFB2Section;
+import com.io7m.smfj.format.binary2.internal.SMFB2WritingSectionHeader;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved.determineVertexDataSizeForAttribute;
+import static com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved.serializePerVertex;
+
+/**
+ * <p>A serializer that writes vertex data in an interleaved vertex data
+ * section. Attributes are serialized one at a time in the same manner as
+ * non-interleaved data, and the encoded values of each attribute are
+ * written directly into place within each vertex of the section.</p>
+ *
+ * <p>When writing to a stream, the section is assembled in memory and
+ * written out in full when the serializer is closed. When writing to a file
+ * channel that can be read, the vertex data of the section is mapped, and
+ * the values of each attribute are copied directly into place within the
+ * mapping, so the section is never held in memory. When writing to a
+ * channel that cannot be read, the vertex data is assembled in memory and
+ * written with a single positional write. In both cases, attributes may be
+ * serialized in any order and concurrently from multiple threads.</p>
+ *
+ * <p>Starting data for an attribute twice raises
+ * {@link IllegalStateException}, as does closing the serializer before the
+ * data of every attribute has been serialized.</p>
+ */
+
+public final class SMFB2SerializerDataAttributesInterleaved
+  implements SMFSerializerDataAttributesNonInterleavedType
+{
+  private final SMFHeader header;
+  private final BSSWriterProviderType writers;
+  private final URI uri;
+  private final TargetType target;
+  private final SMFInterleavedLayout layout;
+  private final long sectionDataSize;
+  private final Set<SMFAttributeName> started;
+  private final Set<SMFAttributeName> finished;
+  private long dataStart;
+  private boolean closed;
+
+  private SMFB2SerializerDataAttributesInterleaved(
+    final SMFHeader inHeader,
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final TargetType inTarget)
+  {
+    this.header =
+      Objects.requireNonNull(inHeader, "Header");
+    this.writers =
+      Objects.requireNonNull(inWriters, "Writers");
+    this.uri =
+      Objects.requireNonNull(inURI, "URI");
+    this.target =
+      Objects.requireNonNull(inTarget, "Target");
+    this.layout =
+      SMFB2ParsingSectionVertexDataInterleaved.layoutOf(inHeader);
+    this.sectionDataSize =
+      SMFB2ParsingSectionVertexDataInterleaved.sectionDataSize(
+        inHeader, this.layout);
+    this.started = ConcurrentHashMap.newKeySet();
+    this.finished = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Create a serializer that assembles the section in memory.
+   *
+   * @param inHeader  The header
+   * @param inWriters A provider of writers
+   * @param inURI     The URI of the output, for diagnostic messages
+   * @param inOutput  The destination of the encoded section
+   *
+   * @return A serializer
+   */
+
+  public static SMFB2SerializerDataAttributesInterleaved createForStream(
+    final SMFHeader inHeader,
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final SectionOutputType inOutput)
+  {
+    return new SMFB2SerializerDataAttributesInterleaved(
+      inHeader, inWriters, inURI, new TargetMemory(inOutput));
+  }
+
+  /**
+   * Create a serializer that writes the section directly to a channel.
+   *
+   * @param inHeader       The header
+   * @param inWriters      A provider of writers
+   * @param inURI          The URI of the channel, for diagnostic messages
+   * @param inChannel      The channel
+   * @param inSectionStart The offset in the channel at which the section
+   *                       starts
+   *
+   * @return A serializer
+   */
+
+  public static SMFB2SerializerDataAttributesInterleaved createForChannel(
+    final SMFHeader inHeader,
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final FileChannel inChannel,
+    final long inSectionStart)
+  {
+    return new SMFB2SerializerDataAttributesInterleaved(
+      inHeader, inWriters, inURI, new TargetChannel(inChannel, inSectionStart));
+  }
+
+  /**
+   * @return The size of the section, including the section header
+   */
+
+  public long sectionSize()
+  {
+    return 16L + this.sectionDataSize;
+  }
+
+  /**
+   * Write the section header and the layout of the data.
+   *
+   * @return this
+   *
+   * @throws IOException On I/O errors, or if the section is too large to be
+   *                     held in memory when it must be assembled in memory
+   */
+
+  public SMFB2SerializerDataAttributesInterleaved start()
+    throws IOException
+  {
+    final var attributes = this.header.attributesInOrder();
+    final var tableSize =
+      SMFB2ParsingSectionVertexDataInterleaved.tableSize(attributes.size());
+
+    final var stream = new ByteArrayOutputStream(256);
+    try (var writer =
+           this.writers.createWriterFromStream(
+             this.uri, stream, "vertexDataInterleaved")) {
+      new SMFB2WritingSectionHeader().write(
+        writer,
+        SMFB2Section.of(
+          SMFB2ParsingSectionVertexDataInterleaved.magic(),
+          this.sectionDataSize,
+          0L));
+
+      writer.writeU32BE(
+        "version", SMFB2ParsingSectionVertexDataInterleaved.version());
+      writer.writeU32BE(
+        "stride", Integer.toUnsignedLong(this.layout.stride()));
+      writer.writeU32BE(
+        "attributeCount", Integer.toUnsignedLong(attributes.size()));
+      writer.writeU32BE("reserved", 0L);
+
+      for (final var attribute : attributes) {
+        writer.writeU32BE(
+          "offset",
+          this.layout.offsets().get(attribute.name()).longValue());
+      }
+      writer.padTo(16L + tableSize);
+    }
+
+    final var prefix = stream.toByteArray();
+    this.dataStart = prefix.length;
+
+    var packed = 0L;
+    for (final var attribute : attributes) {
+      packed += attribute.sizeOctets();
+    }
+
+    final var stride = Integer.toUnsignedLong(this.layout.stride());
+    this.target.start(
+      prefix,
+      this.sectionSize(),
+      Math.multiplyExact(stride, this.header.vertexCount()),
+      this.layout.stride(),
+      packed != stride);
+    return this;
+  }
+
+  @Override
+  public SMFSerializerDataAttributesValuesType serializeData(
+    final SMFAttributeName name)
+    throws IllegalArgumentException, IllegalStateException, IOException
+  {
+    final var by_name = this.header.attributesByName();
+    if (!by_name.containsKey(name)) {
+      throw new IllegalArgumentException(
+        "No such attribute: " + name.value());
+    }
+
+    if (!this.started.add(name)) {
+      throw new IllegalStateException(
+        "Data has already been started for attribute: " + name.value());
+    }
+
+    final SMFAttribute attribute = by_name.get(name);
+    final var size =
+      determineVertexDataSizeForAttribute(this.header, attribute);
+
+    final var region =
+      this.target.region(
+        this.dataStart + this.layout.offsets().get(name).longValue(),
+        attribute.sizeOctets(),
+        this.layout.stride(),
+        this.header.vertexCount());
+
+    final var writer =
+      this.writers.createWriterFromStream(this.uri, region, name.value());
+    final var subWriter =
+      writer.createSubWriterBounded(name.value(), size);
+
+    final var byteOrder = this.header.dataByteOrder();
+    return new WriterBulk(
+      serializePerVertex(subWriter, attribute, byteOrder),
+      subWriter,
+      attribute,
+      byteOrder,
+      () -> {
+        try {
+          writer.close();
+        } finally {
+          region.close();
+        }
+        this.finished.add(name);
+      });
+  }
+
+  @Override
+  public boolean serializeDataConcurrentSupported()
+  {
+    return this.target.concurrentSupported();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+
+    final var missing =
+      this.header.attributesInOrder()
+        .stream()
+        .map(SMFAttribute::name)
+        .filter(name -> !this.finished.contains(name))
+        .map(SMFAttributeName::value)
+        .collect(Collectors.toCollection(TreeSet::new));
+
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException(
+        "Data was not serialized for attributes: "
+          + String.join(", ", missing));
+    }
+
+    this.target.finish();
+  }
+
+  /**
+   * A destination for an encoded section.
+   */
+
+  @FunctionalInterface
+  public interface SectionOutputType
+  {
+    /**
+     * Write the given section.
+     *
+     * @param data The encoded section, including the section header
+     *
+     * @throws IOException On I/O errors
+     */
+
+    void write(byte[] data)
+      throws IOException;
+  }
+
+  private interface TargetType
+  {
+    void start(
+      byte[] prefix,
+      long sectionSize,
+      long vertexDataSize,
+      int stride,
+      boolean gaps)
+      throws IOException;
+
+    OutputStream region(
+      long offset,
+      int elementSize,
+      int stride,
+      long elementCount);
+
+    boolean concurrentSupported();
+
+    void finish()
+      throws IOException;
+  }
+
+  /**
+   * A destination for the encoded elements of strided regions.
+   */
+
+  @FunctionalInterface
+  private interface StridedOutputType
+  {
+    /**
+     * Copy octets into place. The octets never span more than one element.
+     *
+     * @param position The position relative to the start of the target
+     * @param data     The source array
+     * @param offset   The offset within the source array
+     * @param length   The number of octets
+     */
+
+    void put(
+      long position,
+      byte[] data,
+      int offset,
+      int length);
+  }
+
+  private static final class TargetMemory implements TargetType
+  {
+    private final SectionOutputType output;
+    private byte[] section;
+
+    TargetMemory(
+      final SectionOutputType inOutput)
+    {
+      this.output = Objects.requireNonNull(inOutput, "Output");
+    }
+
+    @Override
+    public void start(
+      final byte[] prefix,
+      final long sectionSize,
+      final long vertexDataSize,
+      final int stride,
+      final boolean gaps)
+      throws IOException
+    {
+      this.section = allocate(sectionSize, "serialize to a stream");
+      System.arraycopy(prefix, 0, this.section, 0, prefix.length);
+    }
+
+    @Override
+    public OutputStream region(
+      final long offset,
+      final int elementSize,
+      final int stride,
+      final long elementCount)
+    {
+      return new StridedRegion(
+        (position, data, dataOffset, length) -> System.arraycopy(
+          data, dataOffset, this.section, (int) position, length),
+        offset,
+        elementSize,
+        stride,
+        elementCount);
+    }
+
+    @Override
+    public boolean concurrentSupported()
+    {
+      return false;
+    }
+
+    @Override
+    public void finish()
+      throws IOException
+    {
+      final var data = this.section;
+      this.section = null;
+      this.output.write(data);
+    }
+  }
+
+  /**
+   * <p>A target that writes the vertex data to a channel.</p>
+   *
+   * <p>If the channel can be read, the vertex data of the section is mapped
+   * in windows of whole vertices, and the elements of each region are
+   * copied directly into the mapped windows, so that no system calls are
+   * made per element. Otherwise, the vertex data is assembled in memory and
+   * written with positional writes when the serializer is closed.</p>
+   *
+   * <p>In both cases, each region writes disjoint octets, and every region
+   * is closed before the serializer is closed, so regions may be written
+   * concurrently.</p>
+   */
+
+  private static final class TargetChannel implements TargetType
+  {
+    private static final long WINDOW_SIZE_MAXIMUM = 1L << 30;
+
+    private final FileChannel channel;
+    private final long sectionStart;
+    private long sectionEnd;
+    private long dataStart;
+    private long dataEnd;
+    private long windowSize;
+    private ByteBuffer[] windows;
+    private byte[] data;
+
+    TargetChannel(
+      final FileChannel inChannel,
+      final long inSectionStart)
+    {
+      this.channel = Objects.requireNonNull(inChannel, "Channel");
+      this.sectionStart = inSectionStart;
+    }
+
+    @Override
+    public void start(
+      final byte[] prefix,
+      final long sectionSize,
+      final long vertexDataSize,
+      final int stride,
+      final boolean gaps)
+      throws IOException
+    {
+      this.sectionEnd = this.sectionStart + sectionSize;
+      this.dataStart = this.sectionStart + prefix.length;
+      this.dataEnd = this.dataStart + vertexDataSize;
+
+      SMFB2ChannelRegion.writeFully(
+        this.channel, this.sectionStart, ByteBuffer.wrap(prefix));
+
+      if (!this.map(vertexDataSize, stride, gaps)) {
+        this.data = allocate(vertexDataSize, "assemble in memory");
+      }
+    }
+
+    private boolean map(
+      final long vertexDataSize,
+      final int stride,
+      final boolean gaps)
+      throws IOException
+    {
+      if (vertexDataSize == 0L) {
+        this.windowSize = 1L;
+        this.windows = new ByteBuffer[0];
+        return true;
+      }
+
+      final var windowVertices =
+        Math.max(1L, WINDOW_SIZE_MAXIMUM / (long) stride);
+      this.windowSize = windowVertices * (long) stride;
+
+      final var count =
+        (int) ((vertexDataSize + this.windowSize - 1L) / this.windowSize);
+      final var mapped = new ByteBuffer[count];
+      for (int index = 0; index < count; ++index) {
+        final var position = index * this.windowSize;
+        final var size = Math.min(this.windowSize, vertexDataSize - position);
+        try {
+          mapped[index] =
+            this.channel.map(
+              FileChannel.MapMode.READ_WRITE,
+              this.dataStart + position,
+              size);
+        } catch (final NonReadableChannelException e) {
+          return false;
+        }
+
+        /*
+         * If the layout contains padding between attributes, the padding
+         * will never be written by the attribute regions, so it is cleared
+         * here in case the file already contained data at this position.
+         */
+
+        if (gaps) {
+          clearWindow(mapped[index]);
+        }
+      }
+
+      this.windows = mapped;
+      return true;
+    }
+
+    private static void clearWindow(
+      final ByteBuffer window)
+    {
+      final var zeros = new byte[65536];
+      var position = 0;
+      while (position < window.capacity()) {
+        final var size = Math.min(zeros.length, window.capacity() - position);
+        window.put(position, zeros, 0, size);
+        position += size;
+      }
+    }
+
+    @Override
+    public OutputStream region(
+      final long offset,
+      final int elementSize,
+      final int stride,
+      final long elementCount)
+    {
+      final var base = this.sectionStart + offset - this.dataStart;
+      return new StridedRegion(
+        this::put, base, elementSize, stride, elementCount);
+    }
+
+    private void put(
+      final long position,
+      final byte[] source,
+      final int offset,
+      final int length)
+    {
+      if (this.windows != null) {
+        final var window = this.windows[(int) (position / this.windowSize)];
+        window.put((int) (position % this.windowSize), source, offset, length);
+      } else {
+        System.arraycopy(source, offset, this.data, (int) position, length);
+      }
+    }
+
+    @Override
+    public boolean concurrentSupported()
+    {
+      return true;
+    }
+
+    @Override
+    public void finish()
+      throws IOException
+    {
+      if (this.data != null) {
+        SMFB2ChannelRegion.writeFully(
+          this.channel, this.dataStart, ByteBuffer.wrap(this.data));
+        this.data = null;
+      }
+      this.windows = null;
+      this.clear(this.dataEnd, this.sectionEnd);
+    }
+
+    private void clear(
+      final long start,
+      final long end)
+      throws IOException
+    {
+      final var zeros = ByteBuffer.allocate(65536);
+      var position = start;
+      while (position < end) {
+        final var size =
+          (int) Math.min((long) zeros.capacity(), end - position);
+        SMFB2ChannelRegion.writeFully(
+          this.channel, position, zeros.clear().limit(size));
+        position += size;
+      }
+    }
+  }
+
+  private static byte[] allocate(
+    final long size,
+    final String purpose)
+    throws IOException
+  {
+    if (Long.compareUnsigned(size, Integer.MAX_VALUE - 8L) > 0) {
+      throw new IOException(
+        String.format(
+          "Interleaved vertex data section of %s octets is too large to %s",
+          Long.toUnsignedString(size),
+          purpose));
+    }
+    return new byte[(int) size];
+  }
+
+  /**
+   * A stream that writes consecutive elements of a fixed size to a strided
+   * region of an output, discarding octets written after the last element.
+   */
+
+  private static final class StridedRegion extends OutputStream
+  {
+    private final StridedOutputType output;
+    private final long offset;
+    private final int elementSize;
+    private final int stride;
+    private final long octetCount;
+    private final byte[] single;
+    private long octetsWritten;
+
+    StridedRegion(
+      final StridedOutputType inOutput,
+      final long inOffset,
+      final int inElementSize,
+      final int inStride,
+      final long inElementCount)
+    {
+      this.output = Objects.requireNonNull(inOutput, "Output");
+      this.offset = inOffset;
+      this.elementSize = inElementSize;
+      this.stride = inStride;
+      this.octetCount = inElementCount * (long) inElementSize;
+      this.single = new byte[1];
+    }
+
+    @Override
+    public void write(
+      final int b)
+    {
+      this.single[0] = (byte) b;
+      this.write(this.single, 0, 1);
+    }
+
+    @Override
+    public void write(
+      final byte[] data,
+      final int dataOffset,
+      final int length)
+    {
+      Objects.checkFromIndexSize(dataOffset, length, data.length);
+
+      var index = dataOffset;
+      var remaining =
+        (int) Math.min((long) length, this.octetCount - this.octetsWritten);
+      while (remaining > 0) {
+        final var element = this.octetsWritten / this.elementSize;
+        final var within = (int) (this.octetsWritten % this.elementSize);
+        final var size = Math.min(remaining, this.elementSize - within);
+        this.output.put(
+          this.offset + element * this.stride + within, data, index, size);
+        index += size;
+        remaining -= size;
+        this.octetsWritten += size;
+      }
+    }
+  }
+}
@@ -28,6 +28,7 @@ import com.io7m.smfj.format.binary2.internal.SMFB2WritingSectionHeader;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
 import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.Objects;
 import java.util.SortedMap;
 
@@ -55,7 +56,7 @@ public final class SMFB2SerializerDataAttributesNonInterleaved
       determineVertexDataSize(this.header);
   }
 
-  private static long determineVertexDataSize(
+  static long determineVertexDataSize(
     final SMFHeader header)
   {
     return header.attributesInOrder()
@@ -64,7 +65,7 @@ public final class SMFB2SerializerDataAttributesNonInterleaved
       .sum();
   }
 
-  private static long determineVertexDataSizeForAttribute(
+  static long determineVertexDataSizeForAttribute(
     final SMFHeader header,
     final SMFAttribute attribute)
   {
@@ -114,6 +115,18 @@ public final class SMFB2SerializerDataAttributesNonInterleaved
         determineVertexDataSizeForAttribute(this.header, attribute));
 
     final var byteOrder = this.header.dataByteOrder();
+    return new WriterBulk(
+      serializePerVertex(subWriter, attribute, byteOrder),
+      subWriter,
+      attribute,
+      byteOrder);
+  }
+
+  static SMFSerializerDataAttributesValuesType serializePerVertex(
+    final BSSWriterSequentialType subWriter,
+    final SMFAttribute attribute,
+    final ByteOrder byteOrder)
+  {
     switch (attribute.componentType()) {
       case ELEMENT_TYPE_INTEGER_SIGNED: {
         if (Objects.equals(byteOrder, BIG_ENDIAN)) {
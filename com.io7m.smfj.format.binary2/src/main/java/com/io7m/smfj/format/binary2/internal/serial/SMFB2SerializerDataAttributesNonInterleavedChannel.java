@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal.serial;
+
+import com.io7m.jbssio.api.BSSWriterProviderType;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.format.binary2.internal.SMFB2ChannelRegion;
+import com.io7m.smfj.format.binary2.internal.SMFB2ParsingSectionVertexDataNI;
+import com.io7m.smfj.format.binary2.internal.SMFB2Section;
+import com.io7m.smfj.format.binary2.internal.SMFB2WritingSectionHeader;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved.determineVertexDataSize;
+import static com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved.determineVertexDataSizeForAttribute;
+import static com.io7m.smfj.format.binary2.internal.serial.SMFB2SerializerDataAttributesNonInterleaved.serializePerVertex;
+
+/**
+ * A serializer for non-interleaved vertex data that writes directly to a
+ * file channel. The offset of the data of every attribute is computed from
+ * the header up front, and the data of each attribute is written to its own
+ * region of the file with positional writes.
+ *
+ * <p>Because the regions are disjoint and positional writes do not use the
+ * position of the channel, attributes may be serialized in any order and
+ * concurrently from multiple threads. Starting data for an attribute twice
+ * raises {@link IllegalStateException}.</p>
+ */
+
+public final class SMFB2SerializerDataAttributesNonInterleavedChannel
+  implements SMFSerializerDataAttributesNonInterleavedType
+{
+  private final SMFHeader header;
+  private final BSSWriterProviderType writers;
+  private final URI uri;
+  private final FileChannel channel;
+  private final long sectionStart;
+  private final long vertexDataSize;
+  private final Map<SMFAttributeName, Long> offsets;
+  private final Set<SMFAttributeName> started;
+
+  /**
+   * Construct a serializer.
+   *
+   * @param inHeader       The header
+   * @param inWriters      A provider of writers
+   * @param inURI          The URI of the channel, for diagnostic messages
+   * @param inChannel      The channel
+   * @param inSectionStart The offset in the channel at which the section
+   *                       starts
+   */
+
+  public SMFB2SerializerDataAttributesNonInterleavedChannel(
+    final SMFHeader inHeader,
+    final BSSWriterProviderType inWriters,
+    final URI inURI,
+    final FileChannel inChannel,
+    final long inSectionStart)
+  {
+    this.header =
+      Objects.requireNonNull(inHeader, "Header");
+    this.writers =
+      Objects.requireNonNull(inWriters, "Writers");
+    this.uri =
+      Objects.requireNonNull(inURI, "URI");
+    this.channel =
+      Objects.requireNonNull(inChannel, "Channel");
+    this.sectionStart = inSectionStart;
+    this.vertexDataSize = determineVertexDataSize(this.header);
+
+    this.started = ConcurrentHashMap.newKeySet();
+    this.offsets = new HashMap<>();
+    var offset = inSectionStart + 16L;
+    for (final var attribute : this.header.attributesInOrder()) {
+      this.offsets.put(attribute.name(), Long.valueOf(offset));
+      offset += determineVertexDataSizeForAttribute(this.header, attribute);
+    }
+  }
+
+  /**
+   * @return The size of the section, including the section header
+   */
+
+  public long sectionSize()
+  {
+    return 16L + this.vertexDataSize;
+  }
+
+  /**
+   * Write the section header.
+   *
+   * @return this
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public SMFB2SerializerDataAttributesNonInterleavedChannel start()
+    throws IOException
+  {
+    final var section =
+      SMFB2Section.of(
+        SMFB2ParsingSectionVertexDataNI.magic(),
+        this.vertexDataSize,
+        0L);
+
+    try (var region = new SMFB2ChannelRegion(this.channel, this.sectionStart)) {
+      try (var writer =
+             this.writers.createWriterFromStream(
+               this.uri, region, "vertexDataNonInterleaved")) {
+        new SMFB2WritingSectionHeader().write(writer, section);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public SMFSerializerDataAttributesValuesType serializeData(
+    final SMFAttributeName name)
+    throws IllegalArgumentException, IllegalStateException, IOException
+  {
+    final var by_name = this.header.attributesByName();
+    if (!by_name.containsKey(name)) {
+      throw new IllegalArgumentException(
+        "No such attribute: " + name.value());
+    }
+
+    if (!this.started.add(name)) {
+      throw new IllegalStateException(
+        "Data has already been started for attribute: " + name.value());
+    }
+
+    final SMFAttribute attribute = by_name.get(name);
+    final long offset = this.offsets.get(name).longValue();
+
+    final var region = new SMFB2ChannelRegion(this.channel, offset);
+    final var writer =
+      this.writers.createWriterFromStream(this.uri, region, name.value());
+    final var subWriter =
+      writer.createSubWriterBounded(
+        name.value(),
+        determineVertexDataSizeForAttribute(this.header, attribute));
+
+    final var byteOrder = this.header.dataByteOrder();
+    return new WriterBulk(
+      serializePerVertex(subWriter, attribute, byteOrder),
+      subWriter,
+      attribute,
+      byteOrder,
+      () -> {
+        try {
+          writer.close();
+        } finally {
+          region.close();
+        }
+      });
+  }
+
+  @Override
+  public boolean serializeDataConcurrentSupported()
+  {
+    return true;
+  }
+
+  @Override
+  public void close()
+  {
+
+  }
+}
@@ -21,12 +21,24 @@ import com.io7m.jbssio.api.BSSWriterSequentialType;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.Objects;
 
 public abstract class Triangles implements SMFSerializerDataTrianglesType
 {
+  /**
+   * The maximum size in octets of the buffers written by the block methods.
+   */
+
+  private static final int CHUNK_SIZE_OCTETS = 3 * 8 * 4096;
+
   private final BSSWriterSequentialType writer;
   private final SMFHeader header;
+  private byte[] chunk;
+  private ByteBuffer chunkBuffer;
 
   protected Triangles(
     final BSSWriterSequentialType inWriter,
@@ -43,6 +55,212 @@ public abstract class Triangles implements SMFSerializerDataTrianglesType
     return this.writer;
   }
 
+  private static void checkRemaining(
+    final long remaining,
+    final int count)
+  {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+        "Triangle count must be non-negative: " + count);
+    }
+    if (remaining < (long) count * 3L) {
+      throw new BufferUnderflowException();
+    }
+  }
+
+  private ByteBuffer chunkBuffer()
+  {
+    if (this.chunkBuffer == null) {
+      this.chunk = new byte[CHUNK_SIZE_OCTETS];
+      this.chunkBuffer = ByteBuffer.wrap(this.chunk);
+      this.chunkBuffer.order(this.header.dataByteOrder());
+    }
+    this.chunkBuffer.clear();
+    return this.chunkBuffer;
+  }
+
+  private int indexSizeBits()
+  {
+    return this.header.triangles().triangleIndexSizeBits();
+  }
+
+  private int chunkIndices()
+  {
+    return CHUNK_SIZE_OCTETS / (this.indexSizeBits() / 8);
+  }
+
+  private static void putIndex(
+    final ByteBuffer buffer,
+    final int sizeBits,
+    final long value)
+  {
+    switch (sizeBits) {
+      case 8:
+        buffer.put((byte) value);
+        break;
+      case 16:
+        buffer.putShort((short) value);
+        break;
+      case 32:
+        buffer.putInt((int) value);
+        break;
+      default:
+        buffer.putLong(value);
+        break;
+    }
+  }
+
+  private static long getIndex(
+    final ByteBuffer buffer,
+    final int sizeBits)
+  {
+    switch (sizeBits) {
+      case 8:
+        return Byte.toUnsignedLong(buffer.get());
+      case 16:
+        return Short.toUnsignedLong(buffer.getShort());
+      case 32:
+        return Integer.toUnsignedLong(buffer.getInt());
+      case 64:
+        return buffer.getLong();
+      default:
+        throw new IllegalArgumentException(
+          "Unsupported index size: " + sizeBits);
+    }
+  }
+
+  private void flush(
+    final ByteBuffer buffer)
+    throws IOException
+  {
+    this.writer.writeBytes("data", this.chunk, 0, buffer.position());
+  }
+
+  @Override
+  public final void serializeTriangles(
+    final IntBuffer indices,
+    final int count)
+    throws IOException
+  {
+    checkRemaining(indices.remaining(), count);
+
+    final var bits = this.indexSizeBits();
+    final var perChunk = this.chunkIndices();
+    var remaining = count * 3;
+    while (remaining > 0) {
+      final var size = Math.min(remaining, perChunk);
+      final var buffer = this.chunkBuffer();
+      if (bits == 32) {
+        buffer.asIntBuffer().put(indices.slice().limit(size));
+        indices.position(indices.position() + size);
+        buffer.position(size << 2);
+      } else {
+        for (int index = 0; index < size; ++index) {
+          putIndex(buffer, bits, Integer.toUnsignedLong(indices.get()));
+        }
+      }
+      this.flush(buffer);
+      remaining -= size;
+    }
+  }
+
+  @Override
+  public final void serializeTriangles(
+    final LongBuffer indices,
+    final int count)
+    throws IOException
+  {
+    checkRemaining(indices.remaining(), count);
+
+    final var bits = this.indexSizeBits();
+    final var perChunk = this.chunkIndices();
+    var remaining = count * 3;
+    while (remaining > 0) {
+      final var size = Math.min(remaining, perChunk);
+      final var buffer = this.chunkBuffer();
+      if (bits == 64) {
+        buffer.asLongBuffer().put(indices.slice().limit(size));
+        indices.position(indices.position() + size);
+        buffer.position(size << 3);
+      } else {
+        for (int index = 0; index < size; ++index) {
+          putIndex(buffer, bits, indices.get());
+        }
+      }
+      this.flush(buffer);
+      remaining -= size;
+    }
+  }
+
+  @Override
+  public final void serializeTriangles(
+    final ByteBuffer data,
+    final int indexSizeBits,
+    final int count)
+    throws IOException
+  {
+    switch (indexSizeBits) {
+      case 8:
+      case 16:
+      case 32:
+      case 64:
+        break;
+      default:
+        throw new IllegalArgumentException(
+          "Unsupported index size: " + indexSizeBits);
+    }
+
+    final var octets = indexSizeBits / 8;
+    checkRemaining(data.remaining() / octets, count);
+
+    /*
+     * If the indices are already the size and byte order of those in the
+     * file, they can be written without decoding them.
+     */
+
+    final var bits = this.indexSizeBits();
+    if (indexSizeBits == bits
+      && (octets == 1 || data.order().equals(this.header.dataByteOrder()))) {
+      this.serializeTrianglesDirect(data, count * 3 * octets);
+      return;
+    }
+
+    final var perChunk = this.chunkIndices();
+    var remaining = count * 3;
+    while (remaining > 0) {
+      final var size = Math.min(remaining, perChunk);
+      final var buffer = this.chunkBuffer();
+      for (int index = 0; index < size; ++index) {
+        putIndex(buffer, bits, getIndex(data, indexSizeBits));
+      }
+      this.flush(buffer);
+      remaining -= size;
+    }
+  }
+
+  private void serializeTrianglesDirect(
+    final ByteBuffer data,
+    final int size)
+    throws IOException
+  {
+    if (data.hasArray()) {
+      this.writer.writeBytes(
+        "data", data.array(), data.arrayOffset() + data.position(), size);
+      data.position(data.position() + size);
+      return;
+    }
+
+    var remaining = size;
+    while (remaining > 0) {
+      final var block = Math.min(remaining, CHUNK_SIZE_OCTETS);
+      final var buffer = this.chunkBuffer();
+      data.get(this.chunk, 0, block);
+      buffer.position(block);
+      this.flush(buffer);
+      remaining -= block;
+    }
+  }
+
   @Override
   public final void close()
     throws IOException
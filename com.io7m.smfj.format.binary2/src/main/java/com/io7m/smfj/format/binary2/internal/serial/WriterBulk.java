@@ -0,0 +1,473 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.binary2.internal.serial;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.jbssio.api.BSSWriterSequentialType;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_FLOATING;
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED;
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED;
+
+/**
+ * A writer that encodes blocks of values into a buffer in the layout of the
+ * attribute, and writes each buffer with a single operation. Individual
+ * vertices are passed to the per-vertex writer.
+ */
+
+final class WriterBulk implements SMFSerializerDataAttributesValuesType
+{
+  /**
+   * The maximum size in octets of the buffers written.
+   */
+
+  static final int CHUNK_SIZE_OCTETS = 65536;
+
+  private final SMFSerializerDataAttributesValuesType delegate;
+  private final BSSWriterSequentialType writer;
+  private final SMFAttribute attribute;
+  private final int sizeOfOne;
+  private final int chunkValues;
+  private final byte[] chunk;
+  private final ByteBuffer chunkBuffer;
+  private final Closeable resource;
+
+  WriterBulk(
+    final SMFSerializerDataAttributesValuesType inDelegate,
+    final BSSWriterSequentialType inWriter,
+    final SMFAttribute inAttribute,
+    final ByteOrder inByteOrder)
+  {
+    this(inDelegate, inWriter, inAttribute, inByteOrder, () -> {
+    });
+  }
+
+  /**
+   * Construct a writer.
+   *
+   * @param inDelegate  The per-vertex writer
+   * @param inWriter    The writer used by the per-vertex writer
+   * @param inAttribute The attribute
+   * @param inByteOrder The byte order of the data
+   * @param inResource  A resource closed after the per-vertex writer
+   */
+
+  WriterBulk(
+    final SMFSerializerDataAttributesValuesType inDelegate,
+    final BSSWriterSequentialType inWriter,
+    final SMFAttribute inAttribute,
+    final ByteOrder inByteOrder,
+    final Closeable inResource)
+  {
+    this.resource =
+      Objects.requireNonNull(inResource, "Resource");
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "Delegate");
+    this.writer =
+      Objects.requireNonNull(inWriter, "Writer");
+    this.attribute =
+      Objects.requireNonNull(inAttribute, "Attribute");
+
+    this.sizeOfOne = inAttribute.sizeOctets();
+    final int chunkVertices = Math.max(1, CHUNK_SIZE_OCTETS / this.sizeOfOne);
+    this.chunkValues = chunkVertices * inAttribute.componentCount();
+    this.chunk = new byte[chunkVertices * this.sizeOfOne];
+    this.chunkBuffer = ByteBuffer.wrap(this.chunk);
+    this.chunkBuffer.order(Objects.requireNonNull(inByteOrder, "ByteOrder"));
+  }
+
+  private void check(
+    final SMFComponentType type,
+    final int components,
+    final int length,
+    final int offset,
+    final int count)
+  {
+    Objects.checkFromIndexSize(offset, count, length);
+    if (this.attribute.componentType() != type
+      || this.attribute.componentCount() != components) {
+      final String text =
+        new StringBuilder(128)
+          .append("Incorrect type.")
+          .append(System.lineSeparator())
+          .append("  Expected: ")
+          .append(this.attribute.componentType().getName())
+          .append(" ")
+          .append(this.attribute.componentCount())
+          .append(" ")
+          .append(this.attribute.componentSizeBits())
+          .append(System.lineSeparator())
+          .append("  Received: A block of ")
+          .append(type.getName())
+          .append(" ")
+          .append(components)
+          .append(" values")
+          .append(System.lineSeparator())
+          .toString();
+      throw new IllegalArgumentException(text);
+    }
+    if (count % components != 0) {
+      throw new IllegalArgumentException(
+        "Value count must be a multiple of the component count");
+    }
+  }
+
+  private void flush()
+    throws IOException
+  {
+    final int size = this.chunkBuffer.position();
+    if (size > 0) {
+      this.writer.writeBytes("data", this.chunk, 0, size);
+      this.chunkBuffer.clear();
+    }
+  }
+
+  @Override
+  public void serializeValuesFloat32(
+    final int components,
+    final float[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.check(ELEMENT_TYPE_FLOATING, components, values.length, offset, count);
+
+    final ByteBuffer buffer = this.chunkBuffer;
+    final int bits = this.attribute.componentSizeBits();
+    int index = offset;
+    int remaining = count;
+    while (remaining > 0) {
+      final int size = Math.min(remaining, this.chunkValues);
+      final int end = index + size;
+      switch (bits) {
+        case 16: {
+          for (int i = index; i < end; ++i) {
+            buffer.putChar(Binary16.packFloat(values[i]));
+          }
+          break;
+        }
+        case 32: {
+          buffer.asFloatBuffer().put(values, index, size);
+          buffer.position(size << 2);
+          break;
+        }
+        default: {
+          for (int i = index; i < end; ++i) {
+            buffer.putDouble(values[i]);
+          }
+          break;
+        }
+      }
+      this.flush();
+      index = end;
+      remaining -= size;
+    }
+  }
+
+  @Override
+  public void serializeValuesFloat64(
+    final int components,
+    final double[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.check(ELEMENT_TYPE_FLOATING, components, values.length, offset, count);
+
+    final ByteBuffer buffer = this.chunkBuffer;
+    final int bits = this.attribute.componentSizeBits();
+    int index = offset;
+    int remaining = count;
+    while (remaining > 0) {
+      final int size = Math.min(remaining, this.chunkValues);
+      final int end = index + size;
+      switch (bits) {
+        case 16: {
+          for (int i = index; i < end; ++i) {
+            buffer.putChar(Binary16.packDouble(values[i]));
+          }
+          break;
+        }
+        case 32: {
+          for (int i = index; i < end; ++i) {
+            buffer.putFloat((float) values[i]);
+          }
+          break;
+        }
+        default: {
+          buffer.asDoubleBuffer().put(values, index, size);
+          buffer.position(size << 3);
+          break;
+        }
+      }
+      this.flush();
+      index = end;
+      remaining -= size;
+    }
+  }
+
+  @Override
+  public void serializeValuesIntegerSigned(
+    final int components,
+    final long[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.check(
+      ELEMENT_TYPE_INTEGER_SIGNED, components, values.length, offset, count);
+    this.serializeIntegers(values, offset, count);
+  }
+
+  @Override
+  public void serializeValuesIntegerUnsigned(
+    final int components,
+    final long[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.check(
+      ELEMENT_TYPE_INTEGER_UNSIGNED, components, values.length, offset, count);
+    this.serializeIntegers(values, offset, count);
+  }
+
+  private void serializeIntegers(
+    final long[] values,
+    final int offset,
+    final int count)
+    throws IOException
+  {
+    /*
+     * Signed and unsigned integers have the same two's complement encoding
+     * once truncated to the size of the component.
+     */
+
+    final ByteBuffer buffer = this.chunkBuffer;
+    final int bits = this.attribute.componentSizeBits();
+    int index = offset;
+    int remaining = count;
+    while (remaining > 0) {
+      final int size = Math.min(remaining, this.chunkValues);
+      final int end = index + size;
+      switch (bits) {
+        case 8: {
+          for (int i = index; i < end; ++i) {
+            buffer.put((byte) values[i]);
+          }
+          break;
+        }
+        case 16: {
+          for (int i = index; i < end; ++i) {
+            buffer.putShort((short) values[i]);
+          }
+          break;
+        }
+        case 32: {
+          for (int i = index; i < end; ++i) {
+            buffer.putInt((int) values[i]);
+          }
+          break;
+        }
+        default: {
+          buffer.asLongBuffer().put(values, index, size);
+          buffer.position(size << 3);
+          break;
+        }
+      }
+      this.flush();
+      index = end;
+      remaining -= size;
+    }
+  }
+
+  @Override
+  public boolean serializeValuesRawSupported()
+  {
+    return true;
+  }
+
+  @Override
+  public void serializeValuesRaw(
+    final ByteBuffer data)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    Objects.requireNonNull(data, "data");
+
+    final int size = data.remaining();
+    if (size % this.sizeOfOne != 0) {
+      throw new IllegalArgumentException(
+        new StringBuilder(128)
+          .append("Raw data must contain a whole number of vertices.")
+          .append(System.lineSeparator())
+          .append("  Vertex size: ")
+          .append(this.sizeOfOne)
+          .append(System.lineSeparator())
+          .append("  Received: ")
+          .append(size)
+          .append(" octets")
+          .append(System.lineSeparator())
+          .toString());
+    }
+
+    if (data.hasArray()) {
+      this.writer.writeBytes(
+        "data", data.array(), data.arrayOffset() + data.position(), size);
+      data.position(data.limit());
+      return;
+    }
+
+    while (data.hasRemaining()) {
+      final int block = Math.min(data.remaining(), this.chunk.length);
+      data.get(this.chunk, 0, block);
+      this.writer.writeBytes("data", this.chunk, 0, block);
+    }
+  }
+
+  @Override
+  public void serializeValueFloat4(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueFloat4(x, y, z, w);
+  }
+
+  @Override
+  public void serializeValueFloat3(
+    final double x,
+    final double y,
+    final double z)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueFloat3(x, y, z);
+  }
+
+  @Override
+  public void serializeValueFloat2(
+    final double x,
+    final double y)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueFloat2(x, y);
+  }
+
+  @Override
+  public void serializeValueFloat1(
+    final double x)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueFloat1(x);
+  }
+
+  @Override
+  public void serializeValueIntegerSigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerSigned4(x, y, z, w);
+  }
+
+  @Override
+  public void serializeValueIntegerSigned3(
+    final long x,
+    final long y,
+    final long z)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerSigned3(x, y, z);
+  }
+
+  @Override
+  public void serializeValueIntegerSigned2(
+    final long x,
+    final long y)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerSigned2(x, y);
+  }
+
+  @Override
+  public void serializeValueIntegerSigned1(
+    final long x)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerSigned1(x);
+  }
+
+  @Override
+  public void serializeValueIntegerUnsigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerUnsigned4(x, y, z, w);
+  }
+
+  @Override
+  public void serializeValueIntegerUnsigned3(
+    final long x,
+    final long y,
+    final long z)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerUnsigned3(x, y, z);
+  }
+
+  @Override
+  public void serializeValueIntegerUnsigned2(
+    final long x,
+    final long y)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerUnsigned2(x, y);
+  }
+
+  @Override
+  public void serializeValueIntegerUnsigned1(
+    final long x)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    this.delegate.serializeValueIntegerUnsigned1(x);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      this.delegate.close();
+    } finally {
+      this.resource.close();
+    }
+  }
+}
@@ -21,7 +21,7 @@
 
 @Export
 
-@Version("1.0.0")
+@Version("1.4.0")
 
 @Capability(
   namespace = "com.io7m.smf.format",
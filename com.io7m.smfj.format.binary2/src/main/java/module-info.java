@@ -28,6 +28,7 @@ module com.io7m.smfj.format.binary2
   requires static com.io7m.immutables.style;
   requires static org.immutables.value;
 
+  requires com.io7m.ieee754b16.core;
   requires com.io7m.jaffirm.core;
   requires com.io7m.jbssio.api;
   requires com.io7m.jbssio.vanilla;
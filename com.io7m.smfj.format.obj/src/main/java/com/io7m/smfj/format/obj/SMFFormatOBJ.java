@@ -30,7 +30,10 @@ import org.osgi.service.component.annotations.Component;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A provider for the Wavefront OBJ format.
@@ -41,13 +44,16 @@ public final class SMFFormatOBJ implements SMFParserProviderType
 {
   private static final SMFFormatDescription FORMAT = makeFormat();
   private static final SortedSet<SMFFormatVersion> SUPPORTED = makeSupported();
+  private static final int PARALLEL_CHUNK_SIZE = 1048576;
+
+  private final SMFFormatOBJConfiguration configuration;
 
   private static SMFFormatDescription makeFormat()
   {
     final SMFFormatDescription.Builder fb = SMFFormatDescription.builder();
     fb.setDescription("Wavefront OBJ");
     fb.setSuffix("obj");
-    fb.setRandomAccess(false);
+    fb.setRandomAccess(true);
     fb.setName("obj");
     fb.setMimeType("application/wavefront-obj");
     return fb.build();
@@ -61,12 +67,58 @@ public final class SMFFormatOBJ implements SMFParserProviderType
   }
 
   /**
-   * Construct an OBJ format provider.
+   * Construct an OBJ format provider that uses the
+   * {@link SMFFormatOBJImporterKind#IMPORTER_IN_MEMORY} importer.
    */
 
   public SMFFormatOBJ()
   {
+    this(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY);
+  }
+
+  /**
+   * Construct an OBJ format provider. Temporary files, if any, are created
+   * in the directory named by the {@code java.io.tmpdir} system property.
+   *
+   * @param in_kind The kind of importer that will be created
+   */
+
+  public SMFFormatOBJ(
+    final SMFFormatOBJImporterKind in_kind)
+  {
+    this(SMFFormatOBJConfiguration.builder()
+           .setImporterKind(in_kind)
+           .build());
+  }
 
+  /**
+   * Construct an OBJ format provider.
+   *
+   * @param in_kind      The kind of importer that will be created
+   * @param in_directory The directory used for temporary files
+   */
+
+  public SMFFormatOBJ(
+    final SMFFormatOBJImporterKind in_kind,
+    final Path in_directory)
+  {
+    this(SMFFormatOBJConfiguration.builder()
+           .setImporterKind(in_kind)
+           .setTemporaryDirectory(in_directory)
+           .build());
+  }
+
+  /**
+   * Construct an OBJ format provider.
+   *
+   * @param in_configuration The configuration
+   */
+
+  public SMFFormatOBJ(
+    final SMFFormatOBJConfiguration in_configuration)
+  {
+    this.configuration =
+      Objects.requireNonNull(in_configuration, "configuration");
   }
 
   @Override
@@ -94,9 +146,35 @@ public final class SMFFormatOBJ implements SMFParserProviderType
     final InputStream stream)
     throws UnsupportedOperationException
   {
+    final var config = this.configuration;
+    if (config.importerKind() == SMFFormatOBJImporterKind.IMPORTER_TWO_PASS) {
+      return SMFOBJImporter.createTwoPass(
+        Optional.empty(),
+        stream,
+        events,
+        config.temporaryDirectory(),
+        config.spillSegmentSize());
+    }
     return SMFOBJImporter.create(Optional.empty(), stream, events);
   }
 
+  /**
+   * <p>Create a random-access parser.</p>
+   *
+   * <p>The file is divided into ranges of whole lines that are parsed in
+   * parallel in the configured fork/join pool (see
+   * {@link SMFFormatOBJConfiguration#parallelPool()}), and the results are
+   * merged in file order, so the published events are exactly those of a
+   * sequential parse. Files that use features that cannot be parsed in
+   * parallel, or that contain errors, are parsed sequentially.</p>
+   *
+   * @param events The event receiver
+   * @param path   The URI referred to by the file, for diagnostic messages
+   * @param file   A file channel
+   *
+   * @return A new parser
+   */
+
   @Override
   public SMFParserRandomAccessType parserCreateRandomAccess(
     final SMFParserEventsType events,
@@ -104,6 +182,23 @@ public final class SMFFormatOBJ implements SMFParserProviderType
     final FileChannel file)
     throws UnsupportedOperationException
   {
-    throw new UnsupportedOperationException();
+    return new SMFOBJParallelImporter(
+      events,
+      path,
+      file,
+      this.configuration.parallelPool().orElseGet(ForkJoinPool::commonPool),
+      PARALLEL_CHUNK_SIZE,
+      this.storageFactory());
+  }
+
+  private SMFOBJStorageType.FactoryType storageFactory()
+  {
+    final var config = this.configuration;
+    if (config.importerKind() == SMFFormatOBJImporterKind.IMPORTER_TWO_PASS) {
+      final Path temporary = config.temporaryDirectory();
+      final long segment_size = config.spillSegmentSize();
+      return () -> SMFOBJStorageSpilled.create(temporary, segment_size);
+    }
+    return SMFOBJStorageHeap::new;
   }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.format.obj;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.immutables.value.Value;
+
+/**
+ * Configuration values for the OBJ format.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface SMFFormatOBJConfigurationType
+{
+  /**
+   * @return The kind of importer used by sequential and random-access parsers
+   */
+
+  @Value.Default
+  default SMFFormatOBJImporterKind importerKind()
+  {
+    return SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY;
+  }
+
+  /**
+   * The directory in which temporary files are created, if the importer
+   * uses temporary files. By default, this is the directory named by the
+   * {@code java.io.tmpdir} system property.
+   *
+   * @return The directory used for temporary files
+   */
+
+  @Value.Default
+  default Path temporaryDirectory()
+  {
+    return Paths.get(System.getProperty("java.io.tmpdir"));
+  }
+
+  /**
+   * The pool used by random-access parsers to parse ranges of the file in
+   * parallel. If no pool is specified, the common pool is used. The pool is
+   * not shut down by the parser.
+   *
+   * @return The pool used for parallel parsing, if any
+   *
+   * @see SMFFormatOBJ#parserCreateRandomAccess(com.io7m.smfj.parser.api.SMFParserEventsType,
+   * java.net.URI, java.nio.channels.FileChannel)
+   */
+
+  Optional<ForkJoinPool> parallelPool();
+
+  /**
+   * The size in octets of the segments in which the
+   * {@link SMFFormatOBJImporterKind#IMPORTER_TWO_PASS} importer maps each of
+   * its temporary files. The size must be a positive multiple of 8 that is
+   * no greater than {@link Integer#MAX_VALUE}.
+   *
+   * @return The size of mapped segments in octets
+   */
+
+  @Value.Default
+  default long spillSegmentSize()
+  {
+    return 1073741824L;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final long size = this.spillSegmentSize();
+    if (size <= 0L || size % 8L != 0L || size > (long) Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Segment size %d must be a positive multiple of 8 no greater than %d",
+          Long.valueOf(size),
+          Integer.valueOf(Integer.MAX_VALUE)));
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+/**
+ * The available implementations of the OBJ importer.
+ */
+
+public enum SMFFormatOBJImporterKind
+{
+  /**
+   * An importer that holds the values of the model on the heap until the
+   * whole file has been parsed. This is the default.
+   */
+
+  IMPORTER_IN_MEMORY,
+
+  /**
+   * An importer that makes a first pass over the file that counts unique
+   * vertices and triangles and writes the values of the model to temporary
+   * files, and a second pass that streams the values to the receiver from
+   * the memory-mapped files. The heap holds only the table of unique
+   * vertices, so the importer is suitable for models that are too large to
+   * hold in memory.
+   */
+
+  IMPORTER_TWO_PASS
+}
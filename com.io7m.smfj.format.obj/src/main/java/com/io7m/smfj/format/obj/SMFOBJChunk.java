@@ -0,0 +1,712 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * <p>The statements parsed from one range of an OBJ file.</p>
+ *
+ * <p>A chunk owns the lines that start within its range of the file, and
+ * reads past the end of the range to complete the last such line. The
+ * {@code v}, {@code vt}, {@code vn}, and {@code f} statements of the owned
+ * lines are parsed into primitive arrays, and statements that the importer
+ * ignores are skipped. Face indices are kept as written in the file, as OBJ
+ * indices are global; the chunk only records how far each face reaches
+ * beyond the values defined earlier in the same chunk, so that forward
+ * references can be detected when chunks are merged in file order.</p>
+ *
+ * <p>Only a strict subset of the OBJ syntax is recognized. Anything else,
+ * including relative (negative) indices and any statement that would be an
+ * error, marks the chunk as failed. The caller is then expected to parse the
+ * whole file sequentially, which produces exactly the errors and values that
+ * a sequential import would.</p>
+ */
+
+final class SMFOBJChunk
+{
+  private static final int OVERHANG_INITIAL = 65536;
+  private static final int OVERHANG_MAXIMUM = 16777216;
+
+  private static final double[] POWERS_OF_TEN = {
+    1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7,
+    1.0e8, 1.0e9, 1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+    1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22,
+  };
+
+  private final double[] numbers;
+  private double[] positions;
+  private int position_count;
+  private double[] normals;
+  private int normal_count;
+  private double[] uvs;
+  private int uv_count;
+  private int[] corners;
+  private int corner_count;
+  private int[] faces;
+  private int face_count;
+  private int position_excess;
+  private int normal_excess;
+  private int uv_excess;
+  private boolean failed;
+  private byte[] data;
+  private int cursor;
+  private int line_end;
+  private long significand;
+  private int significand_digits;
+
+  private SMFOBJChunk()
+  {
+    this.numbers = new double[4];
+    this.positions = new double[3 * 64];
+    this.normals = new double[3 * 64];
+    this.uvs = new double[2 * 64];
+    this.corners = new int[3 * 64];
+    this.faces = new int[64];
+  }
+
+  /**
+   * Parse the lines that start within the given range of a file.
+   *
+   * @param file  The file
+   * @param size  The size of the file
+   * @param start The start of the range
+   * @param end   The end of the range (exclusive)
+   *
+   * @return The parsed chunk
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static SMFOBJChunk parse(
+    final FileChannel file,
+    final long size,
+    final long start,
+    final long end)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "File");
+
+    /*
+     * The octet before the range is read so that it can be determined
+     * whether the range begins at the start of a line.
+     */
+
+    final long read_start = Math.max(0L, start - 1L);
+    int overhang = OVERHANG_INITIAL;
+    while (true) {
+      final long read_end = Math.min(size, end + (long) overhang);
+      final byte[] data = read(file, read_start, read_end);
+      final boolean complete = read_end == size;
+
+      final SMFOBJChunk chunk = new SMFOBJChunk();
+      chunk.data = data;
+      final int owned_start = (int) (start - read_start);
+      final int owned_end = (int) (end - read_start);
+      if (chunk.parseLines(owned_start, owned_end, complete)) {
+        chunk.data = null;
+        return chunk;
+      }
+
+      if (overhang >= OVERHANG_MAXIMUM) {
+        chunk.data = null;
+        chunk.failed = true;
+        return chunk;
+      }
+      overhang = Math.multiplyExact(overhang, 2);
+    }
+  }
+
+  private static byte[] read(
+    final FileChannel file,
+    final long start,
+    final long end)
+    throws IOException
+  {
+    final byte[] data = new byte[Math.toIntExact(end - start)];
+    final ByteBuffer buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining()) {
+      final int r = file.read(buffer, start + (long) buffer.position());
+      if (r < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+    }
+    return data;
+  }
+
+  private static boolean isTerminator(
+    final byte b)
+  {
+    return b == '\n' || b == '\r';
+  }
+
+  private static boolean isSpace(
+    final byte b)
+  {
+    return b == ' ' || b == '\t';
+  }
+
+  private static boolean isDigit(
+    final int b)
+  {
+    return b >= '0' && b <= '9';
+  }
+
+  private static double[] reserve(
+    final double[] array,
+    final int required)
+  {
+    if (required <= array.length) {
+      return array;
+    }
+    return Arrays.copyOf(
+      array, Math.max(required, Math.multiplyExact(array.length, 2)));
+  }
+
+  private static int[] reserve(
+    final int[] array,
+    final int required)
+  {
+    if (required <= array.length) {
+      return array;
+    }
+    return Arrays.copyOf(
+      array, Math.max(required, Math.multiplyExact(array.length, 2)));
+  }
+
+  /**
+   * Append the values of this chunk to the given storage and vertex table.
+   * Chunks must be merged in file order.
+   *
+   * @param storage  The storage
+   * @param vertices The vertex table
+   *
+   * @return {@code false} if the chunk refers to values that are not
+   * defined before the statements that refer to them
+   *
+   * @throws IOException On I/O errors
+   */
+
+  boolean mergeInto(
+    final SMFOBJStorageType storage,
+    final SMFOBJVertexTable vertices)
+    throws IOException
+  {
+    if (this.failed
+      || this.position_excess > storage.positionCount()
+      || this.normal_excess > storage.normalCount()
+      || this.uv_excess > storage.uvCount()) {
+      return false;
+    }
+
+    final double[] p = this.positions;
+    for (int index = 0; index < this.position_count * 3; index += 3) {
+      storage.addPosition(p[index], p[index + 1], p[index + 2]);
+    }
+    final double[] n = this.normals;
+    for (int index = 0; index < this.normal_count * 3; index += 3) {
+      storage.addNormal(n[index], n[index + 1], n[index + 2]);
+    }
+    final double[] t = this.uvs;
+    for (int index = 0; index < this.uv_count * 2; index += 2) {
+      storage.addUV(t[index], t[index + 1]);
+    }
+
+    /*
+     * Vertices are assigned for every corner of every face, in order, and
+     * polygons are reduced to the triangle formed by the first, second, and
+     * last corners, exactly as the sequential importer does.
+     */
+
+    final int[] c = this.corners;
+    int corner = 0;
+    for (int face = 0; face < this.face_count; ++face) {
+      final int size = this.faces[face];
+      int v0 = -1;
+      int v1 = -1;
+      int v2 = -1;
+      for (int index = 0; index < size; ++index) {
+        final int b = corner * 3;
+        final int vertex = vertices.vertexFor(c[b], c[b + 1], c[b + 2]);
+        if (index == 0) {
+          v0 = vertex;
+        } else if (index == 1) {
+          v1 = vertex;
+        } else {
+          v2 = vertex;
+        }
+        ++corner;
+      }
+      storage.addTriangle(v0, v1, v2);
+    }
+    return true;
+  }
+
+  /**
+   * Parse the lines starting in {@code [start, end)}.
+   *
+   * @return {@code false} if the data ended before the last line was
+   * terminated, and more data must be read
+   */
+
+  private boolean parseLines(
+    final int start,
+    final int end,
+    final boolean complete)
+  {
+    final byte[] d = this.data;
+    int offset = start;
+    if (start > 0 && !isTerminator(d[start - 1])) {
+      offset = this.lineEnd(start);
+      if (offset == d.length) {
+        return complete;
+      }
+      offset = this.nextLineStart(offset);
+    }
+
+    while (offset < end && offset < d.length) {
+      final int terminator = this.lineEnd(offset);
+      if (terminator == d.length && !complete) {
+        return false;
+      }
+
+      this.cursor = offset;
+      this.line_end = terminator;
+      if (!this.parseLine()) {
+        this.failed = true;
+        return true;
+      }
+
+      if (terminator == d.length) {
+        break;
+      }
+      offset = this.nextLineStart(terminator);
+    }
+    return true;
+  }
+
+  private int lineEnd(
+    final int from)
+  {
+    final byte[] d = this.data;
+    int index = from;
+    while (index < d.length && !isTerminator(d[index])) {
+      ++index;
+    }
+    return index;
+  }
+
+  private int nextLineStart(
+    final int terminator)
+  {
+    final byte[] d = this.data;
+    if (d[terminator] == '\r'
+      && terminator + 1 < d.length
+      && d[terminator + 1] == '\n') {
+      return terminator + 2;
+    }
+    return terminator + 1;
+  }
+
+  private boolean skipSpaces()
+  {
+    while (this.cursor < this.line_end && isSpace(this.data[this.cursor])) {
+      ++this.cursor;
+    }
+    return this.cursor < this.line_end;
+  }
+
+  private int tokenEnd()
+  {
+    int index = this.cursor;
+    while (index < this.line_end && !isSpace(this.data[index])) {
+      ++index;
+    }
+    return index;
+  }
+
+  private boolean keywordIs(
+    final int from,
+    final int to,
+    final String keyword)
+  {
+    if (to - from != keyword.length()) {
+      return false;
+    }
+    for (int index = 0; index < keyword.length(); ++index) {
+      if (this.data[from + index] != keyword.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean parseLine()
+  {
+    if (!this.skipSpaces() || this.data[this.cursor] == '#') {
+      return true;
+    }
+
+    final int from = this.cursor;
+    final int to = this.tokenEnd();
+    this.cursor = to;
+
+    if (this.keywordIs(from, to, "v")) {
+      return this.parseV();
+    }
+    if (this.keywordIs(from, to, "vt")) {
+      return this.parseVT();
+    }
+    if (this.keywordIs(from, to, "vn")) {
+      return this.parseVN();
+    }
+    if (this.keywordIs(from, to, "f")) {
+      return this.parseF();
+    }
+    return this.parseIgnored(from, to);
+  }
+
+  /**
+   * Parse the statements that do not contribute to the model.
+   */
+
+  private boolean parseIgnored(
+    final int from,
+    final int to)
+  {
+    if (this.keywordIs(from, to, "o")
+      || this.keywordIs(from, to, "usemtl")
+      || this.keywordIs(from, to, "mtllib")) {
+      return this.skipSpaces();
+    }
+    if (this.keywordIs(from, to, "s")) {
+      return this.parseS();
+    }
+    return false;
+  }
+
+  private boolean parseS()
+  {
+    if (!this.skipSpaces()) {
+      return false;
+    }
+    final int from = this.cursor;
+    final int to = this.tokenEnd();
+    this.cursor = to;
+    if (this.skipSpaces()) {
+      return false;
+    }
+    if (this.keywordIs(from, to, "off")) {
+      return true;
+    }
+    for (int index = from; index < to; ++index) {
+      if (!isDigit(this.data[index])) {
+        return false;
+      }
+    }
+    return to - from <= 9;
+  }
+
+  /**
+   * Parse up to four numbers into {@link #numbers}.
+   *
+   * @return The number of numbers parsed, or {@code -1} on failure
+   */
+
+  private int parseNumbers()
+  {
+    int count = 0;
+    while (this.skipSpaces()) {
+      if (count == this.numbers.length) {
+        return -1;
+      }
+      final int to = this.tokenEnd();
+      final double x = this.parseDouble(this.cursor, to);
+      if (Double.isNaN(x)) {
+        return -1;
+      }
+      this.numbers[count] = x;
+      this.cursor = to;
+      ++count;
+    }
+    return count;
+  }
+
+  private boolean parseV()
+  {
+    final int count = this.parseNumbers();
+    if (count != 3 && count != 4) {
+      return false;
+    }
+    final int offset = this.position_count * 3;
+    this.positions = reserve(this.positions, offset + 3);
+    System.arraycopy(this.numbers, 0, this.positions, offset, 3);
+    ++this.position_count;
+    return true;
+  }
+
+  private boolean parseVN()
+  {
+    if (this.parseNumbers() != 3) {
+      return false;
+    }
+    final int offset = this.normal_count * 3;
+    this.normals = reserve(this.normals, offset + 3);
+    System.arraycopy(this.numbers, 0, this.normals, offset, 3);
+    ++this.normal_count;
+    return true;
+  }
+
+  private boolean parseVT()
+  {
+    final int count = this.parseNumbers();
+    if (count != 2 && count != 3) {
+      return false;
+    }
+    final int offset = this.uv_count * 2;
+    this.uvs = reserve(this.uvs, offset + 2);
+    System.arraycopy(this.numbers, 0, this.uvs, offset, 2);
+    ++this.uv_count;
+    return true;
+  }
+
+  /**
+   * Parse a face. Every corner of the face must have the same form: one of
+   * {@code v}, {@code v/vt}, {@code v//vn}, or {@code v/vt/vn}.
+   */
+
+  private boolean parseF()
+  {
+    final int first = this.corner_count;
+    int form = -1;
+    while (this.skipSpaces()) {
+      final int to = this.tokenEnd();
+      final int offset = this.corner_count * 3;
+      this.corners = reserve(this.corners, offset + 3);
+
+      final int corner_form = this.parseCorner(this.cursor, to, offset);
+      if (corner_form < 0 || (form != -1 && corner_form != form)) {
+        return false;
+      }
+      form = corner_form;
+      ++this.corner_count;
+      this.cursor = to;
+    }
+
+    final int size = this.corner_count - first;
+    if (size < 3) {
+      return false;
+    }
+    this.faces = reserve(this.faces, this.face_count + 1);
+    this.faces[this.face_count] = size;
+    ++this.face_count;
+    return true;
+  }
+
+  /**
+   * Parse a corner into {@link #corners} at {@code offset}, and record how
+   * far its indices reach beyond the values defined so far in this chunk.
+   *
+   * @return A number identifying the form of the corner, or {@code -1} on
+   * failure
+   */
+
+  private int parseCorner(
+    final int from,
+    final int to,
+    final int offset)
+  {
+    int index = from;
+    final int v = this.parseIndex(index, to);
+    if (v <= 0) {
+      return -1;
+    }
+    index = this.cursor;
+
+    int vt = -1;
+    int vn = -1;
+    int form = 0;
+    if (index < to) {
+      if (this.data[index] != '/') {
+        return -1;
+      }
+      ++index;
+      if (index < to && this.data[index] != '/') {
+        vt = this.parseIndex(index, to);
+        if (vt <= 0) {
+          return -1;
+        }
+        index = this.cursor;
+        form |= 1;
+      }
+      if (index < to) {
+        if (this.data[index] != '/') {
+          return -1;
+        }
+        ++index;
+        vn = this.parseIndex(index, to);
+        if (vn <= 0 || this.cursor != to) {
+          return -1;
+        }
+        form |= 2;
+      } else if (vt == -1) {
+        return -1;
+      }
+    }
+
+    this.recordCorner(offset, v, vt, vn);
+    return form;
+  }
+
+  private void recordCorner(
+    final int offset,
+    final int v,
+    final int vt,
+    final int vn)
+  {
+    this.corners[offset] = v;
+    this.corners[offset + 1] = vt;
+    this.corners[offset + 2] = vn;
+    this.position_excess =
+      Math.max(this.position_excess, v - this.position_count);
+    if (vt != -1) {
+      this.uv_excess = Math.max(this.uv_excess, vt - this.uv_count);
+    }
+    if (vn != -1) {
+      this.normal_excess = Math.max(this.normal_excess, vn - this.normal_count);
+    }
+  }
+
+  /**
+   * Parse a positive decimal index starting at {@code from}, stopping at a
+   * slash or at {@code to}. The cursor is left after the index.
+   *
+   * @return The index, or {@code -1} on failure
+   */
+
+  private int parseIndex(
+    final int from,
+    final int to)
+  {
+    int index = from;
+    int result = 0;
+    while (index < to && this.data[index] != '/') {
+      final int b = this.data[index];
+      if (!isDigit(b) || index - from == 9) {
+        return -1;
+      }
+      result = result * 10 + (b - '0');
+      ++index;
+    }
+    if (index == from) {
+      return -1;
+    }
+    this.cursor = index;
+    return result;
+  }
+
+  /**
+   * Parse a decimal number. Numbers that can be converted exactly with a
+   * single floating point operation are converted directly, and all others
+   * are passed to {@link Double#parseDouble(String)}, so the result is
+   * always identical to that of {@link Double#parseDouble(String)}.
+   *
+   * @return The number, or {@code NaN} if the token is not a number
+   */
+
+  private double parseDouble(
+    final int from,
+    final int to)
+  {
+    final byte[] d = this.data;
+    int index = from;
+    final boolean negative = index < to && d[index] == '-';
+    if (negative || (index < to && d[index] == '+')) {
+      ++index;
+    }
+
+    this.significand = 0L;
+    this.significand_digits = 0;
+    final int integer_end = this.parseDigits(index, to);
+    boolean any = integer_end != index;
+    int exponent = 0;
+    index = integer_end;
+    if (index < to && d[index] == '.') {
+      final int fraction_end = this.parseDigits(index + 1, to);
+      any |= fraction_end != index + 1;
+      exponent = index + 1 - fraction_end;
+      index = fraction_end;
+    }
+
+    if (any && index == to && this.significand_digits <= 15
+      && exponent >= -(POWERS_OF_TEN.length - 1)) {
+      final double value =
+        (double) this.significand / POWERS_OF_TEN[-exponent];
+      return negative ? -value : value;
+    }
+    return this.parseDoubleSlowly(from, to);
+  }
+
+  /**
+   * Accumulate the decimal digits starting at {@code from} into
+   * {@link #significand}, counting the significant digits.
+   *
+   * @return The index after the last digit
+   */
+
+  private int parseDigits(
+    final int from,
+    final int to)
+  {
+    final byte[] d = this.data;
+    long s = this.significand;
+    int digits = this.significand_digits;
+    int index = from;
+    while (index < to && isDigit(d[index])) {
+      s = s * 10L + (long) (d[index] - '0');
+      digits += s == 0L ? 0 : 1;
+      ++index;
+    }
+    this.significand = s;
+    this.significand_digits = digits;
+    return index;
+  }
+
+  private double parseDoubleSlowly(
+    final int from,
+    final int to)
+  {
+    // CHECKSTYLE:OFF
+    final String text = new String(this.data, from, to - from, US_ASCII);
+    // CHECKSTYLE:ON
+    try {
+      final double value = Double.parseDouble(text);
+      if (Double.isNaN(value)) {
+        return Double.NaN;
+      }
+      return value;
+    } catch (final NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import com.io7m.jcoords.core.conversion.CAxisSystem;
+import com.io7m.jlexing.core.LexicalPositions;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.core.SMFCoordinateSystem;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFSchemaName;
+import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.parser.api.SMFParseWarning;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesRawType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderType;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+import static com.io7m.jcoords.core.conversion.CAxis.AXIS_NEGATIVE_Z;
+import static com.io7m.jcoords.core.conversion.CAxis.AXIS_POSITIVE_X;
+import static com.io7m.jcoords.core.conversion.CAxis.AXIS_POSITIVE_Y;
+import static com.io7m.smfj.core.SMFFaceWindingOrder.FACE_WINDING_ORDER_COUNTER_CLOCKWISE;
+
+/**
+ * <p>The delivery of an imported model to an event receiver.</p>
+ *
+ * <p>A header is constructed from the unique vertices and triangles of the
+ * model, and the attribute values and triangles are then delivered from the
+ * given storage. Attribute values are delivered to bulk or raw receivers in
+ * blocks when the receiver asks for them.</p>
+ */
+
+final class SMFOBJDelivery
+{
+  /**
+   * The number of vertices delivered in each block to bulk and raw
+   * receivers.
+   */
+
+  private static final int CHUNK_VERTICES = 8192;
+
+  private final SMFParserEventsType events;
+  private final SMFOBJStorageType storage;
+  private final SMFOBJVertexTable vertices;
+  private SMFHeader header;
+  private SMFAttribute attrib_position;
+  private SMFAttribute attrib_normal;
+  private SMFAttribute attrib_uv;
+
+  /**
+   * Construct a delivery.
+   *
+   * @param in_events   The event receiver
+   * @param in_storage  The storage, which must no longer be writable
+   * @param in_vertices The unique vertices of the model
+   */
+
+  SMFOBJDelivery(
+    final SMFParserEventsType in_events,
+    final SMFOBJStorageType in_storage,
+    final SMFOBJVertexTable in_vertices)
+  {
+    this.events = Objects.requireNonNull(in_events, "Events");
+    this.storage = Objects.requireNonNull(in_storage, "Storage");
+    this.vertices = Objects.requireNonNull(in_vertices, "Vertices");
+  }
+
+  /**
+   * Deliver the header and then the data of the model.
+   */
+
+  void deliver()
+  {
+    this.deliverHeader();
+  }
+
+  private void deliverData(
+    final SMFParserEventsBodyType events_data)
+  {
+    if (this.vertices.size() > 0) {
+      final Optional<SMFParserEventsDataAttributesNonInterleavedType> events_noninterleaved_opt =
+        events_data.onAttributesNonInterleaved();
+
+      if (events_noninterleaved_opt.isPresent()) {
+        final SMFParserEventsDataAttributesNonInterleavedType events_noninterleaved =
+          events_noninterleaved_opt.get();
+        try {
+          this.deliverDataPosition(events_noninterleaved);
+          this.deliverDataNormals(events_noninterleaved);
+          this.deliverDataUV(events_noninterleaved);
+        } finally {
+          events_noninterleaved.onDataAttributesNonInterleavedFinish();
+        }
+      }
+    }
+
+    if (this.storage.triangleCount() > 0) {
+      this.deliverDataTriangles(events_data);
+    }
+  }
+
+  private void deliverHeader()
+  {
+    final SMFHeader.Builder header_b = SMFHeader.builder();
+    header_b.setSchemaIdentifier(SMFSchemaIdentifier.of(
+      SMFSchemaName.of("com.io7m.example"), 0, 0));
+
+    final List<SMFAttribute> attributes =
+      new ArrayList<>();
+
+    final SMFAttributeName name_position =
+      SMFAttributeName.of("position");
+    final SMFAttributeName name_normal =
+      SMFAttributeName.of("normal");
+    final SMFAttributeName name_uv =
+      SMFAttributeName.of("uv:0");
+
+    this.attrib_position = SMFAttribute.of(
+      name_position, SMFComponentType.ELEMENT_TYPE_FLOATING, 3, 32);
+    this.attrib_normal = SMFAttribute.of(
+      name_normal, SMFComponentType.ELEMENT_TYPE_FLOATING, 3, 32);
+    this.attrib_uv = SMFAttribute.of(
+      name_uv, SMFComponentType.ELEMENT_TYPE_FLOATING, 2, 32);
+
+    final int vertex_count = this.vertices.size();
+    if (vertex_count > 0) {
+      header_b.setVertexCount((long) vertex_count);
+      attributes.add(this.attrib_position);
+      if (this.vertices.normal(0) != -1) {
+        attributes.add(this.attrib_normal);
+      }
+      if (this.vertices.uv(0) != -1) {
+        attributes.add(this.attrib_uv);
+      }
+    }
+
+    header_b.setAttributesInOrder(attributes);
+
+    int triangle_bits = 32;
+    if (vertex_count < 65536) {
+      triangle_bits = 16;
+    }
+
+    final SMFCoordinateSystem system =
+      SMFCoordinateSystem.of(
+        CAxisSystem.of(AXIS_POSITIVE_X, AXIS_POSITIVE_Y, AXIS_NEGATIVE_Z),
+        FACE_WINDING_ORDER_COUNTER_CLOCKWISE);
+
+    {
+      final String text =
+        new StringBuilder(128)
+          .append("OBJ files do not contain coordinate system information.")
+          .append(System.lineSeparator())
+          .append(
+            "A possibly incorrect default coordinate system has been assumed: ")
+          .append(system.toHumanString())
+          .append(System.lineSeparator())
+          .toString();
+      this.events.onWarning(
+        SMFParseWarning.of(LexicalPositions.zero(), text, Optional.empty()));
+    }
+
+    header_b.setCoordinateSystem(system);
+    header_b.setTriangles(
+      SMFTriangles.of((long) this.storage.triangleCount(), triangle_bits));
+    this.header = header_b.build();
+
+    final Optional<SMFParserEventsHeaderType> events_header_opt =
+      this.events.onVersionReceived(SMFFormatVersion.of(1, 0));
+
+    if (events_header_opt.isPresent()) {
+      final SMFParserEventsHeaderType events_header = events_header_opt.get();
+      final Optional<SMFParserEventsBodyType> events_data_opt =
+        events_header.onHeaderParsed(this.header);
+
+      if (events_data_opt.isPresent()) {
+        final SMFParserEventsBodyType events_data = events_data_opt.get();
+        this.deliverData(events_data);
+      }
+    }
+  }
+
+  private void deliverDataTriangles(
+    final SMFParserEventsBodyType events_data)
+  {
+    final Optional<SMFParserEventsDataTrianglesType> events_tri_opt =
+      events_data.onTriangles();
+
+    if (events_tri_opt.isPresent()) {
+      final SMFParserEventsDataTrianglesType events_tri = events_tri_opt.get();
+      try {
+        final SMFOBJStorageType t = this.storage;
+        final int count = t.triangleCount();
+        for (int index = 0; index < count; ++index) {
+          events_tri.onDataTriangle(
+            (long) t.triangle(index, 0),
+            (long) t.triangle(index, 1),
+            (long) t.triangle(index, 2));
+        }
+      } finally {
+        events_tri.onDataTrianglesFinish();
+      }
+    }
+  }
+
+  private void deliverDataUV(
+    final SMFParserEventsDataAttributesNonInterleavedType events_noninterleaved)
+  {
+    if (this.vertices.uv(0) != -1) {
+      this.deliverDataAttribute(
+        events_noninterleaved,
+        this.attrib_uv,
+        this.storage::uv,
+        this.vertices::uv);
+    }
+  }
+
+  private void deliverDataNormals(
+    final SMFParserEventsDataAttributesNonInterleavedType events_noninterleaved)
+  {
+    if (this.vertices.normal(0) != -1) {
+      this.deliverDataAttribute(
+        events_noninterleaved,
+        this.attrib_normal,
+        this.storage::normal,
+        this.vertices::normal);
+    }
+  }
+
+  private void deliverDataPosition(
+    final SMFParserEventsDataAttributesNonInterleavedType events_noninterleaved)
+  {
+    this.deliverDataAttribute(
+      events_noninterleaved,
+      this.attrib_position,
+      this.storage::position,
+      this.vertices::position);
+  }
+
+  /**
+   * Deliver the values of an attribute. The value of each vertex is the
+   * value of {@code source} selected by the (one-based) index that
+   * {@code index_of} yields for the vertex. Vertices that have no index for
+   * the attribute receive zero values.
+   */
+
+  private void deliverDataAttribute(
+    final SMFParserEventsDataAttributesNonInterleavedType events_noninterleaved,
+    final SMFAttribute attribute,
+    final ValueSourceType source,
+    final IntUnaryOperator index_of)
+  {
+    final Optional<SMFParserEventsDataAttributeValuesType> events_opt =
+      events_noninterleaved.onDataAttributeStart(attribute);
+
+    if (events_opt.isPresent()) {
+      final SMFParserEventsDataAttributeValuesType data_events = events_opt.get();
+      try {
+        final int missing =
+          this.deliverDataAttributeValues(
+            data_events, attribute, source, index_of);
+        if (missing > 0) {
+          this.events.onWarning(SMFParseWarning.of(
+            LexicalPositions.zero(),
+            String.format(
+              "%d vertices have no value for attribute %s; zero values have been assumed",
+              Integer.valueOf(missing),
+              attribute.name().value()),
+            Optional.empty()));
+        }
+      } finally {
+        data_events.onDataAttributeValueFinish();
+      }
+    }
+  }
+
+  private int deliverDataAttributeValues(
+    final SMFParserEventsDataAttributeValuesType data_events,
+    final SMFAttribute attribute,
+    final ValueSourceType source,
+    final IntUnaryOperator index_of)
+  {
+    final Optional<SMFParserEventsDataAttributeValuesRawType> raw_opt =
+      data_events.onDataAttributeValuesRaw();
+    if (raw_opt.isPresent()) {
+      return this.deliverDataAttributeValuesRaw(
+        raw_opt.get(), attribute, source, index_of);
+    }
+
+    final Optional<SMFParserEventsDataAttributeValuesBulkType> bulk_opt =
+      data_events.onDataAttributeValuesBulk();
+    if (bulk_opt.isPresent()) {
+      return this.deliverDataAttributeValuesBulk(
+        bulk_opt.get(), attribute, source, index_of);
+    }
+
+    return this.deliverDataAttributeValuesIndividually(
+      data_events, attribute, source, index_of);
+  }
+
+  private int deliverDataAttributeValuesRaw(
+    final SMFParserEventsDataAttributeValuesRawType raw,
+    final SMFAttribute attribute,
+    final ValueSourceType source,
+    final IntUnaryOperator index_of)
+  {
+    final int components = attribute.componentCount();
+    final int vertex_count = this.vertices.size();
+    int missing = 0;
+
+    final ByteOrder order = this.header.dataByteOrder();
+    final ByteBuffer buffer =
+      ByteBuffer.allocate(CHUNK_VERTICES * components * 4).order(order);
+
+    for (int base = 0; base < vertex_count; base += CHUNK_VERTICES) {
+      final int count = Math.min(CHUNK_VERTICES, vertex_count - base);
+      buffer.clear();
+      for (int vertex = base; vertex < base + count; ++vertex) {
+        final int index = index_of.applyAsInt(vertex) - 1;
+        if (index < 0) {
+          ++missing;
+        }
+        for (int c = 0; c < components; ++c) {
+          buffer.putFloat(index < 0 ? 0.0f : (float) source.value(index, c));
+        }
+      }
+      buffer.flip();
+      raw.onDataAttributeValuesRaw(buffer.asReadOnlyBuffer().order(order));
+    }
+    return missing;
+  }
+
+  private int deliverDataAttributeValuesBulk(
+    final SMFParserEventsDataAttributeValuesBulkType bulk,
+    final SMFAttribute attribute,
+    final ValueSourceType source,
+    final IntUnaryOperator index_of)
+  {
+    final int components = attribute.componentCount();
+    final int vertex_count = this.vertices.size();
+    int missing = 0;
+
+    final float[] block = new float[CHUNK_VERTICES * components];
+    for (int base = 0; base < vertex_count; base += CHUNK_VERTICES) {
+      final int count = Math.min(CHUNK_VERTICES, vertex_count - base);
+      int target = 0;
+      for (int vertex = base; vertex < base + count; ++vertex) {
+        final int index = index_of.applyAsInt(vertex) - 1;
+        if (index < 0) {
+          ++missing;
+          Arrays.fill(block, target, target + components, 0.0f);
+        } else {
+          for (int c = 0; c < components; ++c) {
+            block[target + c] = (float) source.value(index, c);
+          }
+        }
+        target += components;
+      }
+      bulk.onDataAttributeValuesFloat32(block, 0, target);
+    }
+    return missing;
+  }
+
+  private int deliverDataAttributeValuesIndividually(
+    final SMFParserEventsDataAttributeValuesType data_events,
+    final SMFAttribute attribute,
+    final ValueSourceType source,
+    final IntUnaryOperator index_of)
+  {
+    final int components = attribute.componentCount();
+    final int vertex_count = this.vertices.size();
+    int missing = 0;
+
+    for (int vertex = 0; vertex < vertex_count; ++vertex) {
+      final int index = index_of.applyAsInt(vertex) - 1;
+      if (index < 0) {
+        ++missing;
+      }
+      switch (components) {
+        case 2: {
+          if (index < 0) {
+            data_events.onDataAttributeValueFloat2(0.0, 0.0);
+          } else {
+            data_events.onDataAttributeValueFloat2(
+              source.value(index, 0),
+              source.value(index, 1));
+          }
+          break;
+        }
+        default: {
+          if (index < 0) {
+            data_events.onDataAttributeValueFloat3(0.0, 0.0, 0.0);
+          } else {
+            data_events.onDataAttributeValueFloat3(
+              source.value(index, 0),
+              source.value(index, 1),
+              source.value(index, 2));
+          }
+          break;
+        }
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * A source of attribute values.
+   */
+
+  @FunctionalInterface
+  private interface ValueSourceType
+  {
+    double value(
+      int index,
+      int component);
+  }
+}
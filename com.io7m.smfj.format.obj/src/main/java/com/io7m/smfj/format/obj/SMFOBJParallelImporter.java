@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import com.io7m.smfj.parser.api.SMFParseErrors;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+import com.io7m.smfj.parser.api.SMFParserRandomAccessType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>An importer that parses the statements of a file in parallel.</p>
+ *
+ * <p>The file is divided into ranges of approximately equal size, and one
+ * task per range is submitted to a fork/join pool. Each task parses the
+ * lines that start within its range into an {@link SMFOBJChunk}. The chunks
+ * are merged on the calling thread in file order, so positions, normals,
+ * texture coordinates, and unique vertices are numbered exactly as they
+ * would be by a sequential import, and the model is then delivered to the
+ * event receiver in the usual manner. At most a small multiple of the
+ * parallelism of the pool is in flight at any one time.</p>
+ *
+ * <p>If any chunk cannot be parsed, the file is imported sequentially with
+ * an {@link SMFOBJImporter} instead, so errors are reported exactly as they
+ * would be by a sequential import. No events are published before this
+ * decision is made.</p>
+ */
+
+final class SMFOBJParallelImporter implements SMFParserRandomAccessType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFOBJParallelImporter.class);
+
+  private final SMFParserEventsType events;
+  private final URI uri;
+  private final FileChannel file;
+  private final ForkJoinPool pool;
+  private final int chunk_size;
+  private final int window;
+  private final SMFOBJStorageType.FactoryType storage_constructor;
+
+  /**
+   * Construct an importer.
+   *
+   * @param in_events     The event receiver
+   * @param in_uri        The URI of the file, for diagnostic messages
+   * @param in_file       The file
+   * @param in_pool       The pool used to parse chunks
+   * @param in_chunk_size The approximate size in octets of chunks
+   * @param in_storage    A function that creates storage
+   */
+
+  SMFOBJParallelImporter(
+    final SMFParserEventsType in_events,
+    final URI in_uri,
+    final FileChannel in_file,
+    final ForkJoinPool in_pool,
+    final int in_chunk_size,
+    final SMFOBJStorageType.FactoryType in_storage)
+  {
+    this.events = Objects.requireNonNull(in_events, "Events");
+    this.uri = Objects.requireNonNull(in_uri, "URI");
+    this.file = Objects.requireNonNull(in_file, "File");
+    this.pool = Objects.requireNonNull(in_pool, "Pool");
+    this.storage_constructor = Objects.requireNonNull(in_storage, "Storage");
+    if (in_chunk_size <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    this.chunk_size = in_chunk_size;
+    this.window = Math.max(2, Math.multiplyExact(in_pool.getParallelism(), 2));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+
+  }
+
+  @Override
+  public void parse()
+  {
+    this.events.onStart();
+    try {
+      if (!this.importParallel()) {
+        LOG.debug(
+          "{}: file could not be parsed in parallel; parsing sequentially",
+          this.uri);
+        this.importSequential();
+      }
+    } catch (final IOException | UncheckedIOException e) {
+      this.events.onError(SMFParseErrors.errorException(e));
+    } finally {
+      this.events.onFinish();
+    }
+  }
+
+  private void importSequential()
+    throws IOException
+  {
+    this.file.position(0L);
+    SMFOBJImporter.createWithStorage(
+      Optional.empty(),
+      Channels.newInputStream(this.file),
+      this.events,
+      this.storage_constructor)
+      .importModel();
+  }
+
+  private boolean importParallel()
+    throws IOException
+  {
+    try (SMFOBJStorageType storage = this.storage_constructor.create()) {
+      final SMFOBJVertexTable vertices = new SMFOBJVertexTable();
+      if (!this.load(storage, vertices)) {
+        return false;
+      }
+      storage.finishWriting();
+      new SMFOBJDelivery(this.events, storage, vertices).deliver();
+      return true;
+    }
+  }
+
+  private boolean load(
+    final SMFOBJStorageType storage,
+    final SMFOBJVertexTable vertices)
+    throws IOException
+  {
+    final long size = this.file.size();
+    final ArrayDeque<ForkJoinTask<SMFOBJChunk>> pending =
+      new ArrayDeque<>(this.window);
+
+    long offset = 0L;
+    try {
+      while (true) {
+        if (offset < size && pending.size() < this.window) {
+          final long start = offset;
+          final long end = Math.min(size, start + (long) this.chunk_size);
+          pending.add(this.pool.submit(
+            () -> SMFOBJChunk.parse(this.file, size, start, end)));
+          offset = end;
+          continue;
+        }
+
+        final ForkJoinTask<SMFOBJChunk> task = pending.poll();
+        if (task == null) {
+          return true;
+        }
+
+        final SMFOBJChunk chunk;
+        try {
+          chunk = task.join();
+        } catch (final RuntimeException e) {
+          LOG.debug("chunk failed: ", e);
+          return false;
+        }
+
+        if (!chunk.mergeInto(storage, vertices)) {
+          return false;
+        }
+      }
+    } finally {
+      for (final ForkJoinTask<SMFOBJChunk> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+}
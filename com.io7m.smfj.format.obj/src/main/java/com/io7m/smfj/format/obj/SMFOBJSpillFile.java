@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>A column of 32-bit integer or 64-bit floating point values held in a
+ * temporary file. A column holds values of only one of the two types.</p>
+ *
+ * <p>Values are appended through a small direct buffer. When writing has
+ * finished, the file is memory-mapped in segments and values are read back
+ * by index. The segment size is a multiple of the size of the largest value,
+ * so no value spans two segments. The file is deleted when the column is
+ * closed.</p>
+ */
+
+final class SMFOBJSpillFile implements Closeable
+{
+  private static final int BUFFER_SIZE = 65536;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final long segment_size;
+  private MappedByteBuffer[] segments;
+  private long size;
+
+  private SMFOBJSpillFile(
+    final FileChannel in_channel,
+    final long in_segment_size)
+  {
+    this.channel = Objects.requireNonNull(in_channel, "Channel");
+    this.segment_size = in_segment_size;
+    this.buffer =
+      ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Create a new column in a temporary file.
+   *
+   * @param directory    The directory that will contain the file
+   * @param name         A name used as part of the file name
+   * @param segment_size The size in octets of the mapped segments; must be
+   *                     a positive multiple of 8 no greater than
+   *                     {@link Integer#MAX_VALUE}
+   *
+   * @return A new column
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static SMFOBJSpillFile create(
+    final Path directory,
+    final String name,
+    final long segment_size)
+    throws IOException
+  {
+    Objects.requireNonNull(directory, "Directory");
+    Objects.requireNonNull(name, "Name");
+
+    if (segment_size <= 0L
+      || segment_size % 8L != 0L
+      || segment_size > (long) Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Segment size %d must be a positive multiple of 8",
+          Long.valueOf(segment_size)));
+    }
+
+    final Path file =
+      Files.createTempFile(directory, "smfj-obj-" + name + "-", ".tmp");
+    return new SMFOBJSpillFile(
+      FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE), segment_size);
+  }
+
+  private void reserve(
+    final int octets)
+    throws IOException
+  {
+    if (this.segments != null) {
+      throw new IllegalStateException("Column is no longer writable");
+    }
+    if (this.buffer.remaining() < octets) {
+      this.flush();
+    }
+  }
+
+  private void flush()
+    throws IOException
+  {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.size += (long) this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  /**
+   * Append a value.
+   *
+   * @param x The value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void putDouble(
+    final double x)
+    throws IOException
+  {
+    this.reserve(8);
+    this.buffer.putDouble(x);
+  }
+
+  /**
+   * Append a value.
+   *
+   * @param x The value
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void putInt(
+    final int x)
+    throws IOException
+  {
+    this.reserve(4);
+    this.buffer.putInt(x);
+  }
+
+  /**
+   * Indicate that no more values will be appended, and map the file.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void finishWriting()
+    throws IOException
+  {
+    this.flush();
+
+    final int count =
+      Math.toIntExact((this.size + this.segment_size - 1L) / this.segment_size);
+    final MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+    for (int index = 0; index < count; ++index) {
+      final long offset = (long) index * this.segment_size;
+      final long length = Math.min(this.segment_size, this.size - offset);
+      mapped[index] =
+        this.channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      mapped[index].order(ByteOrder.nativeOrder());
+    }
+    this.segments = mapped;
+  }
+
+  /**
+   * @param index The index of the value
+   *
+   * @return The value at the given index
+   */
+
+  double getDouble(
+    final long index)
+  {
+    final long offset = index << 3;
+    return this.segments[(int) (offset / this.segment_size)]
+      .getDouble((int) (offset % this.segment_size));
+  }
+
+  /**
+   * @param index The index of the value
+   *
+   * @return The value at the given index
+   */
+
+  int getInt(
+    final long index)
+  {
+    final long offset = index << 2;
+    return this.segments[(int) (offset / this.segment_size)]
+      .getInt((int) (offset % this.segment_size));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.segments = null;
+    this.channel.close();
+  }
+}
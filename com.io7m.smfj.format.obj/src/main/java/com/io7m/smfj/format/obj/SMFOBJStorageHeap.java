@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.util.Arrays;
+
+/**
+ * Storage held in primitive arrays on the heap.
+ */
+
+final class SMFOBJStorageHeap implements SMFOBJStorageType
+{
+  private double[] positions;
+  private int position_count;
+  private double[] normals;
+  private int normal_count;
+  private double[] uvs;
+  private int uv_count;
+  private int[] triangles;
+  private int triangle_count;
+
+  SMFOBJStorageHeap()
+  {
+    this.positions = new double[3 * 64];
+    this.normals = new double[3 * 64];
+    this.uvs = new double[2 * 64];
+    this.triangles = new int[3 * 64];
+  }
+
+  private static double[] reserve(
+    final double[] array,
+    final int required)
+  {
+    if (required <= array.length) {
+      return array;
+    }
+    return Arrays.copyOf(
+      array, Math.max(required, Math.multiplyExact(array.length, 2)));
+  }
+
+  private static int[] reserve(
+    final int[] array,
+    final int required)
+  {
+    if (required <= array.length) {
+      return array;
+    }
+    return Arrays.copyOf(
+      array, Math.max(required, Math.multiplyExact(array.length, 2)));
+  }
+
+  @Override
+  public void addPosition(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int offset = Math.multiplyExact(this.position_count, 3);
+    this.positions = reserve(this.positions, offset + 3);
+    this.positions[offset] = x;
+    this.positions[offset + 1] = y;
+    this.positions[offset + 2] = z;
+    ++this.position_count;
+  }
+
+  @Override
+  public void addNormal(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int offset = Math.multiplyExact(this.normal_count, 3);
+    this.normals = reserve(this.normals, offset + 3);
+    this.normals[offset] = x;
+    this.normals[offset + 1] = y;
+    this.normals[offset + 2] = z;
+    ++this.normal_count;
+  }
+
+  @Override
+  public void addUV(
+    final double x,
+    final double y)
+  {
+    final int offset = Math.multiplyExact(this.uv_count, 2);
+    this.uvs = reserve(this.uvs, offset + 2);
+    this.uvs[offset] = x;
+    this.uvs[offset + 1] = y;
+    ++this.uv_count;
+  }
+
+  @Override
+  public void addTriangle(
+    final int v0,
+    final int v1,
+    final int v2)
+  {
+    final int offset = Math.multiplyExact(this.triangle_count, 3);
+    this.triangles = reserve(this.triangles, offset + 3);
+    this.triangles[offset] = v0;
+    this.triangles[offset + 1] = v1;
+    this.triangles[offset + 2] = v2;
+    ++this.triangle_count;
+  }
+
+  @Override
+  public int positionCount()
+  {
+    return this.position_count;
+  }
+
+  @Override
+  public int normalCount()
+  {
+    return this.normal_count;
+  }
+
+  @Override
+  public int uvCount()
+  {
+    return this.uv_count;
+  }
+
+  @Override
+  public int triangleCount()
+  {
+    return this.triangle_count;
+  }
+
+  @Override
+  public void finishWriting()
+  {
+
+  }
+
+  @Override
+  public double position(
+    final int index,
+    final int component)
+  {
+    return this.positions[(index * 3) + component];
+  }
+
+  @Override
+  public double normal(
+    final int index,
+    final int component)
+  {
+    return this.normals[(index * 3) + component];
+  }
+
+  @Override
+  public double uv(
+    final int index,
+    final int component)
+  {
+    return this.uvs[(index * 2) + component];
+  }
+
+  @Override
+  public int triangle(
+    final int index,
+    final int vertex)
+  {
+    return this.triangles[(index * 3) + vertex];
+  }
+
+  @Override
+  public void close()
+  {
+
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * <p>Storage held in temporary memory-mapped files.</p>
+ *
+ * <p>Each of the positions, normals, texture coordinates, and triangles is
+ * written to its own column as it is parsed, so the heap holds none of the
+ * values of the model. Values are stored with double precision, so the
+ * values delivered are exactly those that {@link SMFOBJStorageHeap} would
+ * deliver.</p>
+ */
+
+final class SMFOBJStorageSpilled implements SMFOBJStorageType
+{
+  private final SMFOBJSpillFile positions;
+  private final SMFOBJSpillFile normals;
+  private final SMFOBJSpillFile uvs;
+  private final SMFOBJSpillFile triangles;
+  private int position_count;
+  private int normal_count;
+  private int uv_count;
+  private int triangle_count;
+
+  private SMFOBJStorageSpilled(
+    final SMFOBJSpillFile in_positions,
+    final SMFOBJSpillFile in_normals,
+    final SMFOBJSpillFile in_uvs,
+    final SMFOBJSpillFile in_triangles)
+  {
+    this.positions = Objects.requireNonNull(in_positions, "Positions");
+    this.normals = Objects.requireNonNull(in_normals, "Normals");
+    this.uvs = Objects.requireNonNull(in_uvs, "UVs");
+    this.triangles = Objects.requireNonNull(in_triangles, "Triangles");
+  }
+
+  /**
+   * Create new storage.
+   *
+   * @param directory    The directory that will contain the temporary files
+   * @param segment_size The size in octets of the mapped segments of each
+   *                     file
+   *
+   * @return New storage
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static SMFOBJStorageSpilled create(
+    final Path directory,
+    final long segment_size)
+    throws IOException
+  {
+    final SMFOBJSpillFile[] files = new SMFOBJSpillFile[4];
+    try {
+      files[0] = SMFOBJSpillFile.create(directory, "positions", segment_size);
+      files[1] = SMFOBJSpillFile.create(directory, "normals", segment_size);
+      files[2] = SMFOBJSpillFile.create(directory, "uvs", segment_size);
+      files[3] = SMFOBJSpillFile.create(directory, "triangles", segment_size);
+    } catch (final IOException e) {
+      for (final SMFOBJSpillFile file : files) {
+        if (file != null) {
+          try {
+            file.close();
+          } catch (final IOException ex) {
+            e.addSuppressed(ex);
+          }
+        }
+      }
+      throw e;
+    }
+    return new SMFOBJStorageSpilled(files[0], files[1], files[2], files[3]);
+  }
+
+  @Override
+  public void addPosition(
+    final double x,
+    final double y,
+    final double z)
+    throws IOException
+  {
+    this.positions.putDouble(x);
+    this.positions.putDouble(y);
+    this.positions.putDouble(z);
+    this.position_count = Math.incrementExact(this.position_count);
+  }
+
+  @Override
+  public void addNormal(
+    final double x,
+    final double y,
+    final double z)
+    throws IOException
+  {
+    this.normals.putDouble(x);
+    this.normals.putDouble(y);
+    this.normals.putDouble(z);
+    this.normal_count = Math.incrementExact(this.normal_count);
+  }
+
+  @Override
+  public void addUV(
+    final double x,
+    final double y)
+    throws IOException
+  {
+    this.uvs.putDouble(x);
+    this.uvs.putDouble(y);
+    this.uv_count = Math.incrementExact(this.uv_count);
+  }
+
+  @Override
+  public void addTriangle(
+    final int v0,
+    final int v1,
+    final int v2)
+    throws IOException
+  {
+    this.triangles.putInt(v0);
+    this.triangles.putInt(v1);
+    this.triangles.putInt(v2);
+    this.triangle_count = Math.incrementExact(this.triangle_count);
+  }
+
+  @Override
+  public int positionCount()
+  {
+    return this.position_count;
+  }
+
+  @Override
+  public int normalCount()
+  {
+    return this.normal_count;
+  }
+
+  @Override
+  public int uvCount()
+  {
+    return this.uv_count;
+  }
+
+  @Override
+  public int triangleCount()
+  {
+    return this.triangle_count;
+  }
+
+  @Override
+  public void finishWriting()
+    throws IOException
+  {
+    this.positions.finishWriting();
+    this.normals.finishWriting();
+    this.uvs.finishWriting();
+    this.triangles.finishWriting();
+  }
+
+  @Override
+  public double position(
+    final int index,
+    final int component)
+  {
+    return this.positions.getDouble(((long) index * 3L) + component);
+  }
+
+  @Override
+  public double normal(
+    final int index,
+    final int component)
+  {
+    return this.normals.getDouble(((long) index * 3L) + component);
+  }
+
+  @Override
+  public double uv(
+    final int index,
+    final int component)
+  {
+    return this.uvs.getDouble(((long) index * 2L) + component);
+  }
+
+  @Override
+  public int triangle(
+    final int index,
+    final int vertex)
+  {
+    return this.triangles.getInt(((long) index * 3L) + vertex);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    IOException failure = null;
+    final SMFOBJSpillFile[] files = {
+      this.positions,
+      this.normals,
+      this.uvs,
+      this.triangles,
+    };
+
+    for (final SMFOBJSpillFile file : files) {
+      try {
+        file.close();
+      } catch (final IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p>The storage used by an importer for the positions, normals, texture
+ * coordinates, and triangles of a model.</p>
+ *
+ * <p>Values are appended while the OBJ file is parsed. When parsing has
+ * finished, {@link #finishWriting()} is called, after which values may be
+ * read back in any order. Indices are zero-based.</p>
+ */
+
+interface SMFOBJStorageType extends Closeable
+{
+  /**
+   * Append a position.
+   *
+   * @param x The x component
+   * @param y The y component
+   * @param z The z component
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void addPosition(
+    double x,
+    double y,
+    double z)
+    throws IOException;
+
+  /**
+   * Append a normal.
+   *
+   * @param x The x component
+   * @param y The y component
+   * @param z The z component
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void addNormal(
+    double x,
+    double y,
+    double z)
+    throws IOException;
+
+  /**
+   * Append a texture coordinate.
+   *
+   * @param x The x component
+   * @param y The y component
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void addUV(
+    double x,
+    double y)
+    throws IOException;
+
+  /**
+   * Append a triangle.
+   *
+   * @param v0 The first vertex
+   * @param v1 The second vertex
+   * @param v2 The third vertex
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void addTriangle(
+    int v0,
+    int v1,
+    int v2)
+    throws IOException;
+
+  /**
+   * @return The number of positions
+   */
+
+  int positionCount();
+
+  /**
+   * @return The number of normals
+   */
+
+  int normalCount();
+
+  /**
+   * @return The number of texture coordinates
+   */
+
+  int uvCount();
+
+  /**
+   * @return The number of triangles
+   */
+
+  int triangleCount();
+
+  /**
+   * Indicate that no more values will be appended.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void finishWriting()
+    throws IOException;
+
+  /**
+   * @param index     The position index
+   * @param component The component
+   *
+   * @return The given component of the given position
+   */
+
+  double position(
+    int index,
+    int component);
+
+  /**
+   * @param index     The normal index
+   * @param component The component
+   *
+   * @return The given component of the given normal
+   */
+
+  double normal(
+    int index,
+    int component);
+
+  /**
+   * @param index     The texture coordinate index
+   * @param component The component
+   *
+   * @return The given component of the given texture coordinate
+   */
+
+  double uv(
+    int index,
+    int component);
+
+  /**
+   * @param index  The triangle index
+   * @param vertex The triangle vertex in the range {@code [0, 2]}
+   *
+   * @return The given vertex of the given triangle
+   */
+
+  int triangle(
+    int index,
+    int vertex);
+
+  /**
+   * A function that creates storage.
+   */
+
+  @FunctionalInterface
+  interface FactoryType
+  {
+    /**
+     * @return New storage
+     *
+     * @throws IOException On I/O errors
+     */
+
+    SMFOBJStorageType create()
+      throws IOException;
+  }
+}
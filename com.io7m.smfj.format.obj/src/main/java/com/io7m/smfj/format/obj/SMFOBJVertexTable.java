@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.obj;
+
+import java.util.Arrays;
+
+/**
+ * <p>A table of unique OBJ vertices.</p>
+ *
+ * <p>An OBJ face refers to a vertex by a triple of position, texture
+ * coordinate, and normal indices. Each distinct triple becomes one SMF
+ * vertex. The table assigns consecutive vertex numbers to triples in the
+ * order in which they are first seen, and holds the triples in primitive
+ * columns so that the attribute values for a vertex can later be looked up.
+ * Triples are found again using an open-addressing hash table of vertex
+ * numbers, so no objects are allocated per vertex.</p>
+ *
+ * <p>Absent texture coordinate or normal indices are represented by
+ * {@code -1}.</p>
+ */
+
+final class SMFOBJVertexTable
+{
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private int[] slots;
+  private int slotMask;
+  private int[] positions;
+  private int[] uvs;
+  private int[] normals;
+  private int size;
+
+  SMFOBJVertexTable()
+  {
+    this.slots = new int[INITIAL_CAPACITY * 2];
+    this.slotMask = this.slots.length - 1;
+    this.positions = new int[INITIAL_CAPACITY];
+    this.uvs = new int[INITIAL_CAPACITY];
+    this.normals = new int[INITIAL_CAPACITY];
+  }
+
+  private static int hash(
+    final int v,
+    final int vt,
+    final int vn)
+  {
+    long h = (long) v * 0x9E3779B97F4A7C15L;
+    h ^= (long) vt * 0xC2B2AE3D27D4EB4FL;
+    h ^= (long) vn * 0x165667B19E3779F9L;
+    h ^= h >>> 29;
+    h *= 0xBF58476D1CE4E5B9L;
+    h ^= h >>> 32;
+    return (int) h;
+  }
+
+  /**
+   * @return The number of unique vertices
+   */
+
+  int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @param vertex A vertex number
+   *
+   * @return The (one-based) position index of the vertex
+   */
+
+  int position(
+    final int vertex)
+  {
+    return this.positions[vertex];
+  }
+
+  /**
+   * @param vertex A vertex number
+   *
+   * @return The (one-based) texture coordinate index of the vertex, or
+   * {@code -1} if there is none
+   */
+
+  int uv(
+    final int vertex)
+  {
+    return this.uvs[vertex];
+  }
+
+  /**
+   * @param vertex A vertex number
+   *
+   * @return The (one-based) normal index of the vertex, or {@code -1} if
+   * there is none
+   */
+
+  int normal(
+    final int vertex)
+  {
+    return this.normals[vertex];
+  }
+
+  /**
+   * Find the vertex number of the given triple, assigning a new number if
+   * the triple has not been seen before.
+   *
+   * @param v  The position index
+   * @param vt The texture coordinate index, or {@code -1}
+   * @param vn The normal index, or {@code -1}
+   *
+   * @return The vertex number
+   */
+
+  int vertexFor(
+    final int v,
+    final int vt,
+    final int vn)
+  {
+    final int[] s = this.slots;
+    int slot = hash(v, vt, vn) & this.slotMask;
+    while (true) {
+      final int entry = s[slot];
+      if (entry == 0) {
+        break;
+      }
+      final int vertex = entry - 1;
+      if (this.positions[vertex] == v
+        && this.uvs[vertex] == vt
+        && this.normals[vertex] == vn) {
+        return vertex;
+      }
+      slot = (slot + 1) & this.slotMask;
+    }
+
+    final int vertex = this.size;
+    if (vertex == this.positions.length) {
+      this.growColumns();
+    }
+    this.positions[vertex] = v;
+    this.uvs[vertex] = vt;
+    this.normals[vertex] = vn;
+    this.size = vertex + 1;
+    s[slot] = vertex + 1;
+
+    if (this.size * 2 > this.slots.length) {
+      this.rehash();
+    }
+    return vertex;
+  }
+
+  private void growColumns()
+  {
+    final int capacity = Math.multiplyExact(this.positions.length, 2);
+    this.positions = Arrays.copyOf(this.positions, capacity);
+    this.uvs = Arrays.copyOf(this.uvs, capacity);
+    this.normals = Arrays.copyOf(this.normals, capacity);
+  }
+
+  private void rehash()
+  {
+    final int[] s = new int[Math.multiplyExact(this.slots.length, 2)];
+    final int mask = s.length - 1;
+    for (int vertex = 0; vertex < this.size; ++vertex) {
+      int slot = hash(
+        this.positions[vertex],
+        this.uvs[vertex],
+        this.normals[vertex]) & mask;
+      while (s[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      s[slot] = vertex + 1;
+    }
+    this.slots = s;
+    this.slotMask = mask;
+  }
+}
@@ -20,7 +20,7 @@
 
 @Export
 
-@Version("1.0.0")
+@Version("1.1.0")
 
 @Capability(
   namespace = "com.io7m.smf.format",
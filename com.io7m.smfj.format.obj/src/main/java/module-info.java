@@ -25,12 +25,13 @@ module com.io7m.smfj.format.obj
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
   requires static org.osgi.service.component.annotations;
+  requires static com.io7m.immutables.style;
+  requires static org.immutables.value;
 
   requires com.io7m.jaffirm.core;
   requires com.io7m.jcoords.core;
   requires com.io7m.jlexing.core;
   requires com.io7m.jobj.core;
-  requires com.io7m.jtensors.core;
   requires com.io7m.smfj.core;
   requires com.io7m.smfj.parser.api;
   requires org.slf4j;
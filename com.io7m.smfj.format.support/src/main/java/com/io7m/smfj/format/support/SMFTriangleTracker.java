@@ -20,6 +20,7 @@ package com.io7m.smfj.format.support;
 import com.io7m.jlexing.core.LexicalPosition;
 import java.net.URI;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A tracker of triangle counts and indices.
@@ -67,10 +68,35 @@ public final class SMFTriangleTracker
     final long v2)
   {
     Objects.requireNonNull(lexical, "lexical");
+    this.addTriangle(() -> lexical, v0, v1, v2);
+  }
+
+  /**
+   * Add a triangle. The lexical position of the triangle is only requested
+   * from {@code lexical} if the triangle is invalid, so callers that create
+   * a single supplier up front can add triangles without allocating.
+   *
+   * @param lexical A supplier of the triangle declaration position
+   * @param v0      The index of vertex 0
+   * @param v1      The index of vertex 1
+   * @param v2      The index of vertex 2
+   */
 
-    this.checkTriangleVertex(lexical, 0, v0);
-    this.checkTriangleVertex(lexical, 1, v1);
-    this.checkTriangleVertex(lexical, 2, v2);
+  public void addTriangle(
+    final Supplier<LexicalPosition<URI>> lexical,
+    final long v0,
+    final long v1,
+    final long v2)
+  {
+    final long vertexCount = this.expectedVertexCount;
+    if (Long.compareUnsigned(v0, vertexCount) >= 0
+      || Long.compareUnsigned(v1, vertexCount) >= 0
+      || Long.compareUnsigned(v2, vertexCount) >= 0) {
+      final LexicalPosition<URI> position = lexical.get();
+      this.checkTriangleVertex(position, 0, v0);
+      this.checkTriangleVertex(position, 1, v1);
+      this.checkTriangleVertex(position, 2, v2);
+    }
     this.triangleCount = Math.addExact(this.triangleCount, 1L);
   }
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An incremental decoder for lines of Base64 encoded data. Lines are decoded
+ * as they are added, so the complete encoded text is never held in memory.
+ * Encoded groups are allowed to span lines.
+ */
+
+public final class SMFBase64LineDecoder
+{
+  private static final int OUTPUT_INITIAL_LINES = 1 << 14;
+
+  private final Base64.Decoder decoder;
+  private final byte[] carry;
+  private int carry_size;
+  private byte[] encoded;
+  private byte[] decoded;
+  private byte[] output;
+  private int output_size;
+  private boolean padded;
+
+  private SMFBase64LineDecoder(
+    final long in_expected_lines)
+  {
+    this.decoder = Base64.getUrlDecoder();
+    this.carry = new byte[4];
+    this.encoded = new byte[SMFBase64Lines.LINE_LENGTH];
+    this.decoded = new byte[SMFBase64Lines.LINE_OCTETS];
+
+    final long lines =
+      Math.max(0L, Math.min(in_expected_lines, OUTPUT_INITIAL_LINES));
+    this.output = new byte[(int) lines * SMFBase64Lines.LINE_OCTETS];
+  }
+
+  /**
+   * Create a new decoder.
+   *
+   * @param expected_lines The number of lines that are expected to be added,
+   *                       used only to size the output buffer
+   *
+   * @return A new decoder
+   */
+
+  public static SMFBase64LineDecoder create(
+    final long expected_lines)
+  {
+    return new SMFBase64LineDecoder(expected_lines);
+  }
+
+  /**
+   * Decode a line of data.
+   *
+   * @param line The line
+   *
+   * @throws IllegalArgumentException If the line is not valid Base64 data
+   */
+
+  public void addLine(
+    final CharSequence line)
+    throws IllegalArgumentException
+  {
+    Objects.requireNonNull(line, "Line");
+
+    final int length = line.length();
+    if (length == 0) {
+      return;
+    }
+    if (this.padded) {
+      throw new IllegalArgumentException("Data follows Base64 padding");
+    }
+
+    final int total = this.carry_size + length;
+    final int usable = total & ~3;
+    if (usable == 0) {
+      for (int index = 0; index < length; ++index) {
+        this.carry[this.carry_size] = octetOf(line.charAt(index));
+        ++this.carry_size;
+      }
+      return;
+    }
+
+    if (usable != this.encoded.length) {
+      this.encoded = new byte[usable];
+    }
+
+    System.arraycopy(this.carry, 0, this.encoded, 0, this.carry_size);
+    int index = 0;
+    for (int target = this.carry_size; target < usable; ++target) {
+      this.encoded[target] = octetOf(line.charAt(index));
+      ++index;
+    }
+
+    this.carry_size = 0;
+    for (; index < length; ++index) {
+      this.carry[this.carry_size] = octetOf(line.charAt(index));
+      ++this.carry_size;
+    }
+
+    this.padded = this.encoded[usable - 1] == '=';
+    this.decodeAndAppend(this.encoded);
+  }
+
+  /**
+   * Finish decoding.
+   *
+   * @return The decoded data
+   *
+   * @throws IllegalArgumentException If the data is not valid Base64 data
+   */
+
+  public byte[] finish()
+    throws IllegalArgumentException
+  {
+    if (this.carry_size > 0) {
+      if (this.padded) {
+        throw new IllegalArgumentException("Data follows Base64 padding");
+      }
+      this.decodeAndAppend(Arrays.copyOf(this.carry, this.carry_size));
+      this.carry_size = 0;
+    }
+
+    if (this.output_size == this.output.length) {
+      return this.output;
+    }
+    return Arrays.copyOf(this.output, this.output_size);
+  }
+
+  private static byte octetOf(
+    final char c)
+  {
+    if (c > 0x7f) {
+      throw new IllegalArgumentException(
+        String.format("Illegal Base64 character U+%04X", (int) c));
+    }
+    return (byte) c;
+  }
+
+  private void decodeAndAppend(
+    final byte[] src)
+  {
+    final int size_max = (src.length / 4 + 1) * 3;
+    if (size_max > this.decoded.length) {
+      this.decoded = new byte[size_max];
+    }
+
+    final int size = this.decoder.decode(src, this.decoded);
+    final int required = Math.addExact(this.output_size, size);
+    if (required > this.output.length) {
+      this.output = Arrays.copyOf(
+        this.output,
+        (int) Math.min(
+          Math.max((long) required, (long) this.output.length * 2L),
+          Integer.MAX_VALUE - 8));
+    }
+    System.arraycopy(this.decoded, 0, this.output, this.output_size, size);
+    this.output_size = required;
+  }
+}
@@ -17,12 +17,13 @@
 package com.io7m.smfj.format.text;
 
 import com.io7m.junreachable.UnreachableCodeException;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Base64 encoding.
@@ -30,14 +31,70 @@ import java.util.stream.Collectors;
 
 public final class SMFBase64Lines
 {
-  private static final Pattern SPLIT_PATTERN = Pattern.compile(
-    "(?<=\\G.{72})");
+  /**
+   * The maximum number of characters in a line of encoded data.
+   */
+
+  public static final int LINE_LENGTH = 72;
+
+  /**
+   * The number of octets of data encoded by a complete line.
+   */
+
+  public static final int LINE_OCTETS = (LINE_LENGTH / 4) * 3;
 
   private SMFBase64Lines()
   {
     throw new UnreachableCodeException();
   }
 
+  /**
+   * @param size The size in octets of the data
+   *
+   * @return The number of lines that {@link #writeBase64Lines(byte[], Writer,
+   * String)} will produce for data of the given size
+   */
+
+  public static int lineCount(
+    final int size)
+  {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size must be non-negative");
+    }
+    final long encoded = ((size + 2L) / 3L) * 4L;
+    return Math.toIntExact((encoded + (LINE_LENGTH - 1)) / LINE_LENGTH);
+  }
+
+  /**
+   * Serialize the given binary data into lines of at most 72 characters of
+   * Base64 text, writing each line followed by the given line separator. The
+   * data is encoded incrementally and the complete encoded text is never held
+   * in memory.
+   *
+   * @param data           The data
+   * @param writer         The output writer
+   * @param line_separator The line separator
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void writeBase64Lines(
+    final byte[] data,
+    final Writer writer,
+    final String line_separator)
+    throws IOException
+  {
+    Objects.requireNonNull(data, "Data");
+    Objects.requireNonNull(writer, "Writer");
+    Objects.requireNonNull(line_separator, "Line separator");
+
+    final Base64.Encoder encoder = Base64.getUrlEncoder();
+    try (OutputStream output =
+           encoder.wrap(new LineOutputStream(writer, line_separator))) {
+      output.write(data);
+    }
+  }
+
   /**
    * Serialize the given binary data into lines of at most 72 characters of Base64 text. The lines
    * do not have terminating line breaks.
@@ -53,7 +110,12 @@ public final class SMFBase64Lines
     Objects.requireNonNull(data, "Data");
     final Base64.Encoder encoder = Base64.getUrlEncoder();
     final String text = encoder.encodeToString(data);
-    return Arrays.asList(SPLIT_PATTERN.split(text));
+    final List<String> lines = new ArrayList<>(lineCount(data.length));
+    for (int index = 0; index < text.length(); index += LINE_LENGTH) {
+      lines.add(text.substring(
+        index, Math.min(text.length(), index + LINE_LENGTH)));
+    }
+    return lines;
   }
 
   /**
@@ -62,6 +124,8 @@ public final class SMFBase64Lines
    * @param lines A set of lines of Base64 encoded data
    *
    * @return The decoded binary data
+   *
+   * @see SMFBase64LineDecoder
    */
 
   public static byte[] fromBase64Lines(
@@ -69,9 +133,87 @@ public final class SMFBase64Lines
   {
     Objects.requireNonNull(lines, "Lines");
 
-    final String text =
-      lines.stream().map(String::trim).collect(Collectors.joining()).trim();
-    final Base64.Decoder decoder = Base64.getUrlDecoder();
-    return decoder.decode(text);
+    final SMFBase64LineDecoder decoder =
+      SMFBase64LineDecoder.create(lines.size());
+    for (final String line : lines) {
+      decoder.addLine(line.trim());
+    }
+    return decoder.finish();
+  }
+
+  /**
+   * A stream that writes encoded octets to a writer as lines. Closing the
+   * stream terminates the current line, if any, but does not close the
+   * writer.
+   */
+
+  private static final class LineOutputStream extends OutputStream
+  {
+    private final Writer writer;
+    private final String separator;
+    private final char[] line;
+    private int column;
+
+    LineOutputStream(
+      final Writer in_writer,
+      final String in_separator)
+    {
+      this.writer = in_writer;
+      this.separator = in_separator;
+      this.line = new char[LINE_LENGTH];
+    }
+
+    @Override
+    public void write(
+      final int b)
+      throws IOException
+    {
+      this.line[this.column] = (char) (b & 0xff);
+      ++this.column;
+      if (this.column == LINE_LENGTH) {
+        this.flushLine();
+      }
+    }
+
+    @Override
+    public void write(
+      final byte[] b,
+      final int off,
+      final int len)
+      throws IOException
+    {
+      Objects.checkFromIndexSize(off, len, b.length);
+
+      int index = off;
+      final int end = off + len;
+      while (index < end) {
+        final int count = Math.min(end - index, LINE_LENGTH - this.column);
+        for (int k = 0; k < count; ++k) {
+          this.line[this.column + k] = (char) (b[index + k] & 0xff);
+        }
+        this.column += count;
+        index += count;
+        if (this.column == LINE_LENGTH) {
+          this.flushLine();
+        }
+      }
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+      if (this.column > 0) {
+        this.flushLine();
+      }
+    }
+
+    private void flushLine()
+      throws IOException
+    {
+      this.writer.write(this.line, 0, this.column);
+      this.writer.write(this.separator);
+      this.column = 0;
+    }
   }
 }
@@ -38,7 +38,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
@@ -46,6 +51,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,13 +81,15 @@ public final class SMFFormatText
   private static final SMFFormatDescription FORMAT = makeFormat();
   private static final SortedSet<SMFFormatVersion> SUPPORTED = makeVersion();
 
+  private final SMFFormatTextConfiguration configuration;
+
   private static SMFFormatDescription makeFormat()
   {
     final SMFFormatDescription.Builder b = SMFFormatDescription.builder();
     b.setDescription("A plain text encoding of SMF data");
     b.setMimeType("text/vnd.io7m.smf");
     b.setName("smf/t");
-    b.setRandomAccess(false);
+    b.setRandomAccess(true);
     b.setSuffix("smft");
     return b.build();
   }
@@ -95,11 +103,24 @@ public final class SMFFormatText
 
   /**
    * Construct a text format provider.
+   *
+   * @param in_configuration The format configuration
    */
 
-  public SMFFormatText()
+  public SMFFormatText(
+    final SMFFormatTextConfiguration in_configuration)
   {
+    this.configuration =
+      Objects.requireNonNull(in_configuration, "configuration");
+  }
+
+  /**
+   * Construct a text format provider.
+   */
 
+  public SMFFormatText()
+  {
+    this(SMFFormatTextConfiguration.builder().build());
   }
 
   private static SMFPartialLogged<SMFFormatVersion> parseSMFVersion(
@@ -186,19 +207,99 @@ public final class SMFFormatText
     Objects.requireNonNull(in_uri, "URI");
     Objects.requireNonNull(in_stream, "Stream");
 
+    final SMFTLineReaderType reader =
+      SMFTLineReaderStreamIO.create(in_uri, in_stream);
     return new Parser(
-      in_events, SMFTLineReaderStreamIO.create(in_uri, in_stream));
+      in_events,
+      reader,
+      (version, state, receiver) ->
+        new SMFTV1Parser(version, state, receiver, reader));
+  }
+
+  /**
+   * <p>Create a parser that parses the attribute and triangle data of the
+   * given file in parallel.</p>
+   *
+   * <p>The file is mapped into memory, and the header is parsed as usual.
+   * The lines of each attribute and of the triangles are then divided into
+   * chunks (see {@link SMFFormatTextConfiguration#parallelChunkSizeOctets()}
+   * and {@link SMFFormatTextConfiguration#parallelChunkSizeLines()})
+   * that are parsed concurrently in the configured fork/join pool. The parsed
+   * values are delivered to the event receiver on the calling thread in the
+   * same order as a sequential parse, so receivers do not need to be
+   * thread-safe. Chunks that cannot be parsed are reparsed sequentially, and
+   * so errors are reported exactly as they would be by a sequential parser.
+   * </p>
+   *
+   * <p>Files that are too large to be mapped as a single buffer are parsed
+   * sequentially.</p>
+   *
+   * @param in_events The event receiver
+   * @param in_uri    The URI referred to by the input file, for error
+   *                  messages
+   * @param in_file   The input file
+   *
+   * @return A new parser
+   */
+
+  public SMFParserSequentialType parserCreateParallel(
+    final SMFParserEventsType in_events,
+    final URI in_uri,
+    final FileChannel in_file)
+  {
+    Objects.requireNonNull(in_events, "Events");
+    Objects.requireNonNull(in_uri, "URI");
+    Objects.requireNonNull(in_file, "File");
+
+    return new ParserParallel(
+      in_events,
+      in_uri,
+      in_file,
+      this.configuration.parallelPool().orElseGet(ForkJoinPool::commonPool),
+      this.configuration.parallelChunkSizeOctets(),
+      this.configuration.parallelChunkSizeLines());
   }
 
+  /**
+   * <p>Create a random-access parser.</p>
+   *
+   * <p>The file is mapped into memory, and the header is parsed as usual. If
+   * the event receiver accepts the body of the file, the parser builds an
+   * index of the positions of the body sections and of each attribute by
+   * counting lines, without lexing or parsing any data. The parser then
+   * moves directly to each section and attribute that the receiver accepts;
+   * the data of declined attributes is never read. Indices are kept in the
+   * configured {@link SMFFormatTextConfiguration#sectionIndexCache()}, if
+   * any, so that later parses of the same file do not need to scan the body
+   * at all.</p>
+   *
+   * <p>Files with bodies that cannot be indexed, and files that are too large
+   * to be mapped as a single buffer, are parsed sequentially.</p>
+   *
+   * @param in_events The event receiver
+   * @param in_uri    The URI referred to by the input file, for error
+   *                  messages, and the key of the file in the index cache
+   * @param in_file   The input file
+   *
+   * @return A new parser
+   */
+
   @Override
   public SMFParserRandomAccessType parserCreateRandomAccess(
-    final SMFParserEventsType events,
-    final URI uri,
-    final FileChannel file)
-    throws UnsupportedOperationException
+    final SMFParserEventsType in_events,
+    final URI in_uri,
+    final FileChannel in_file)
   {
-    throw new UnsupportedOperationException(
-      "Random access parsing is not supported");
+    Objects.requireNonNull(in_events, "Events");
+    Objects.requireNonNull(in_uri, "URI");
+    Objects.requireNonNull(in_file, "File");
+
+    return new ParserRandomAccess(
+      in_events,
+      in_uri,
+      in_file,
+      this.configuration.sectionIndexCache()
+        .orElseGet(SMFTSectionIndexCache::create));
   }
 
   @Override
@@ -221,7 +322,11 @@ public final class SMFFormatText
     throws UnsupportedOperationException
   {
     if (SUPPORTED.contains(version)) {
-      return new SMFTV1Serializer(version, uri, stream);
+      return new SMFTV1Serializer(
+        version,
+        uri,
+        stream,
+        this.configuration.serializerNarrowFloats());
     }
 
     throw new UnsupportedOperationException(notSupported(version));
@@ -260,17 +365,206 @@ public final class SMFFormatText
     }
   }
 
+  private static final class ParserParallel implements SMFParserSequentialType
+  {
+    private final SMFParserEventsType events;
+    private final URI uri;
+    private final FileChannel file;
+    private final ForkJoinPool pool;
+    private final int chunkOctetsMaximum;
+    private final int chunkLinesMaximum;
+
+    ParserParallel(
+      final SMFParserEventsType in_events,
+      final URI in_uri,
+      final FileChannel in_file,
+      final ForkJoinPool in_pool,
+      final int in_chunk_octets_maximum,
+      final int in_chunk_lines_maximum)
+    {
+      this.events = Objects.requireNonNull(in_events, "Events");
+      this.uri = Objects.requireNonNull(in_uri, "URI");
+      this.file = Objects.requireNonNull(in_file, "File");
+      this.pool = Objects.requireNonNull(in_pool, "Pool");
+      this.chunkOctetsMaximum = in_chunk_octets_maximum;
+      this.chunkLinesMaximum = in_chunk_lines_maximum;
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+
+    }
+
+    @Override
+    public void parse()
+    {
+      final Parser parser;
+      try {
+        parser = this.createParser();
+      } catch (final IOException e) {
+        this.events.onStart();
+        this.events.onError(SMFParseError.of(
+          LexicalPositions.zero(), e.getMessage(), Optional.of(e)));
+        this.events.onFinish();
+        return;
+      }
+      parser.parse();
+    }
+
+    private Parser createParser()
+      throws IOException
+    {
+      final long size = this.file.size();
+      if (size > (long) Integer.MAX_VALUE) {
+        LOG.debug("file is too large to be mapped; parsing sequentially");
+        return sequentialFromChannel(this.events, this.uri, this.file);
+      }
+
+      final ByteBuffer buffer =
+        this.file.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+      final SMFTLineReaderMapped reader =
+        SMFTLineReaderMapped.create(this.uri, buffer);
+      final Optional<SMFTParallelDecoder> decoder =
+        Optional.of(new SMFTParallelDecoder(
+          this.pool,
+          buffer,
+          reader,
+          this.chunkOctetsMaximum,
+          this.chunkLinesMaximum));
+      return new Parser(
+        this.events,
+        reader,
+        (version, state, receiver) ->
+          new SMFTV1Parser(version, state, receiver, reader, decoder));
+    }
+  }
+
+  private static Parser sequentialFromChannel(
+    final SMFParserEventsType events,
+    final URI uri,
+    final FileChannel file)
+    throws IOException
+  {
+    file.position(0L);
+    final SMFTLineReaderType reader =
+      SMFTLineReaderStreamIO.create(uri, Channels.newInputStream(file));
+    return new Parser(
+      events,
+      reader,
+      (version, state, receiver) ->
+        new SMFTV1Parser(version, state, receiver, reader));
+  }
+
+  private static final class ParserRandomAccess
+    implements SMFParserRandomAccessType
+  {
+    private final SMFParserEventsType events;
+    private final URI uri;
+    private final FileChannel file;
+    private final SMFTSectionIndexCache indices;
+
+    ParserRandomAccess(
+      final SMFParserEventsType in_events,
+      final URI in_uri,
+      final FileChannel in_file,
+      final SMFTSectionIndexCache in_indices)
+    {
+      this.events = Objects.requireNonNull(in_events, "Events");
+      this.uri = Objects.requireNonNull(in_uri, "URI");
+      this.file = Objects.requireNonNull(in_file, "File");
+      this.indices = Objects.requireNonNull(in_indices, "Indices");
+    }
+
+    @Override
+    public void close()
+      throws IOException
+    {
+
+    }
+
+    @Override
+    public void parse()
+    {
+      final Parser parser;
+      try {
+        parser = this.createParser();
+      } catch (final IOException e) {
+        this.events.onStart();
+        this.events.onError(SMFParseError.of(
+          LexicalPositions.zero(), e.getMessage(), Optional.of(e)));
+        this.events.onFinish();
+        return;
+      }
+      parser.parse();
+    }
+
+    private Parser createParser()
+      throws IOException
+    {
+      final long size = this.file.size();
+      if (size > (long) Integer.MAX_VALUE) {
+        LOG.debug("file is too large to be mapped; parsing sequentially");
+        return sequentialFromChannel(this.events, this.uri, this.file);
+      }
+
+      final ByteBuffer buffer =
+        this.file.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+      final SMFTLineReaderMapped reader =
+        SMFTLineReaderMapped.create(this.uri, buffer);
+      final Optional<FileTime> modified = lastModified(this.uri);
+      return new Parser(
+        this.events,
+        reader,
+        (version, state, receiver) ->
+          new SMFTV1Parser(
+            version, state, receiver, reader, this.indices, modified));
+    }
+
+    /**
+     * The modification time of the file is only available if the URI
+     * refers to a file in the default file system.
+     */
+
+    private static Optional<FileTime> lastModified(
+      final URI uri)
+    {
+      if (!"file".equals(uri.getScheme())) {
+        return Optional.empty();
+      }
+
+      try {
+        return Optional.of(Files.getLastModifiedTime(Paths.get(uri)));
+      } catch (final IOException | IllegalArgumentException e) {
+        LOG.debug("could not determine modification time of {}: ", uri, e);
+        return Optional.empty();
+      }
+    }
+  }
+
+  private interface V1ParserFactoryType
+  {
+    SMFTV1Parser create(
+      SMFFormatVersion version,
+      BitSet state,
+      SMFParserEventsType events);
+  }
+
   private static final class Parser implements SMFParserSequentialType
   {
     private final SMFParserEventsType events;
     private final SMFTLineReaderType reader;
+    private final V1ParserFactoryType v1;
 
     Parser(
       final SMFParserEventsType in_events,
-      final SMFTLineReaderType in_reader)
+      final SMFTLineReaderType in_reader,
+      final V1ParserFactoryType in_v1)
     {
       this.events = Objects.requireNonNull(in_events, "Events");
       this.reader = Objects.requireNonNull(in_reader, "Reader");
+      this.v1 = Objects.requireNonNull(in_v1, "V1");
     }
 
     @Override
@@ -308,7 +602,7 @@ public final class SMFFormatText
         final SMFFormatVersion version = result.get();
         switch (version.major()) {
           case 1: {
-            try (var p = new SMFTV1Parser(version, state, this.events, this.reader)) {
+            try (var p = this.v1.create(version, state, this.events)) {
               p.parse();
             }
             break;
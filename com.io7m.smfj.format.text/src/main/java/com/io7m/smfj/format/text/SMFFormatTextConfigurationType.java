@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.immutables.value.Value;
+
+/**
+ * Configuration values for the text format.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface SMFFormatTextConfigurationType
+{
+  /**
+   * The pool used by parallel parsers to parse chunks of attribute and
+   * triangle data. If no pool is specified, the common pool is used. The
+   * pool is not shut down by the parser.
+   *
+   * @return The pool used for parallel parsing, if any
+   *
+   * @see SMFFormatText#parserCreateParallel(com.io7m.smfj.parser.api.SMFParserEventsType,
+   * java.net.URI, java.nio.channels.FileChannel)
+   */
+
+  Optional<ForkJoinPool> parallelPool();
+
+  /**
+   * The approximate size in octets of the chunks into which parallel parsers
+   * divide attribute and triangle data. Chunks always contain a whole number
+   * of lines, and so a chunk may exceed this size by up to one line.
+   *
+   * @return The maximum chunk size in octets
+   *
+   * @see #parallelChunkSizeLines()
+   */
+
+  @Value.Default
+  default int parallelChunkSizeOctets()
+  {
+    return 1048576;
+  }
+
+  /**
+   * The maximum number of non-empty lines in each of the chunks into which
+   * parallel parsers divide attribute and triangle data. A chunk ends at
+   * whichever of this limit and {@link #parallelChunkSizeOctets()} is reached
+   * first.
+   *
+   * @return The maximum chunk size in lines
+   */
+
+  @Value.Default
+  default int parallelChunkSizeLines()
+  {
+    return 65536;
+  }
+
+  /**
+   * The cache in which random-access parsers keep the section indices of the
+   * files that they parse. If no cache is specified, an index is built each
+   * time a file is parsed.
+   *
+   * @return The section index cache, if any
+   *
+   * @see SMFFormatText#parserCreateRandomAccess(com.io7m.smfj.parser.api.SMFParserEventsType,
+   * java.net.URI, java.nio.channels.FileChannel)
+   */
+
+  Optional<SMFTSectionIndexCache> sectionIndexCache();
+
+  /**
+   * Whether serializers should write the floating point values of
+   * attributes with components of at most 32 bits as the shortest decimal
+   * that rounds to the {@code float} value, rather than the shortest decimal
+   * that rounds to the {@code double} value. This typically halves the
+   * length of such values, but readers that do not narrow parsed values to
+   * the declared component size will observe slightly different values.
+   *
+   * @return {@code true} if 32-bit floating point values should be narrowed
+   */
+
+  @Value.Default
+  default boolean serializerNarrowFloats()
+  {
+    return false;
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.parallelChunkSizeOctets() <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Chunk size %d must be positive",
+          Integer.valueOf(this.parallelChunkSizeOctets())));
+    }
+    if (this.parallelChunkSizeLines() <= 0) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Chunk line count %d must be positive",
+          Integer.valueOf(this.parallelChunkSizeLines())));
+    }
+  }
+}
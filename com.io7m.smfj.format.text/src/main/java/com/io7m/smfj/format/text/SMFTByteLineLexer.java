@@ -0,0 +1,434 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <p>A lexer that reads numbers directly from the undecoded bytes of a
+ * line.</p>
+ *
+ * <p>The lexer only recognizes a strict subset of the syntax accepted by
+ * {@link SMFTLineLexer} and the standard Java number parsing functions:
+ * space-separated tokens consisting of plain ASCII decimal numbers. Any
+ * value that the lexer cannot read with certainty causes the lexer to enter
+ * a failed state, and callers are then expected to fall back to
+ * {@link #lex()} and the usual string-based parsing. This means that values
+ * are always parsed exactly as they would be otherwise, and that error
+ * messages are unchanged.</p>
+ *
+ * <p>No objects are allocated unless {@link #lex()} is called.</p>
+ */
+
+public final class SMFTByteLineLexer
+{
+  private final SMFTLineLexer lexer;
+  private byte[] data;
+  private int start;
+  private int end;
+  private int cursor;
+  private boolean failed;
+  private boolean negative;
+  private long significand;
+  private int significant;
+  private int exponent;
+
+  /**
+   * Create a new lexer.
+   */
+
+  public SMFTByteLineLexer()
+  {
+    this.lexer = new SMFTLineLexer();
+    this.data = new byte[0];
+  }
+
+  private static boolean isDigit(
+    final int b)
+  {
+    return b >= '0' && b <= '9';
+  }
+
+  private static boolean isTrimmable(
+    final byte b)
+  {
+    return (b & 0xff) <= ' ';
+  }
+
+  private static boolean needsQuoting(
+    final String token)
+  {
+    if (token.isEmpty() || token.charAt(0) == '#') {
+      return true;
+    }
+    for (int index = 0; index < token.length(); ++index) {
+      final char c = token.charAt(index);
+      if (c == '"' || c == '\\' || Character.isSpaceChar(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Set the current line. The lexer does not copy the given array, and so
+   * the array must not be modified while the line is being lexed.
+   *
+   * @param in_data   The array containing the line
+   * @param in_offset The offset of the line
+   * @param in_length The length of the line, excluding any line terminator
+   */
+
+  void set(
+    final byte[] in_data,
+    final int in_offset,
+    final int in_length)
+  {
+    Objects.checkFromIndexSize(in_offset, in_length, in_data.length);
+
+    int s = in_offset;
+    int e = in_offset + in_length;
+    while (s < e && isTrimmable(in_data[s])) {
+      ++s;
+    }
+    while (e > s && isTrimmable(in_data[e - 1])) {
+      --e;
+    }
+
+    this.data = in_data;
+    this.start = s;
+    this.end = e;
+    this.cursor = s;
+    this.failed = false;
+  }
+
+  /**
+   * Set the current line.
+   *
+   * @param line The line
+   */
+
+  void setLine(
+    final String line)
+  {
+    final byte[] bytes = line.getBytes(UTF_8);
+    this.set(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Set the current line to a line that will lex to the given tokens.
+   *
+   * @param tokens The tokens
+   */
+
+  void setTokens(
+    final List<String> tokens)
+  {
+    final StringBuilder text = new StringBuilder(64);
+    for (int index = 0; index < tokens.size(); ++index) {
+      if (index > 0) {
+        text.append(' ');
+      }
+
+      final String token = tokens.get(index);
+      if (needsQuoting(token)) {
+        text.append('"');
+        for (int c = 0; c < token.length(); ++c) {
+          final char ch = token.charAt(c);
+          if (ch == '"' || ch == '\\') {
+            text.append('\\');
+          }
+          text.append(ch);
+        }
+        text.append('"');
+      } else {
+        text.append(token);
+      }
+    }
+    this.setLine(text.toString());
+  }
+
+  /**
+   * @return {@code true} if the current line is empty or is a comment
+   */
+
+  public boolean isEmpty()
+  {
+    return this.start == this.end || this.data[this.start] == '#';
+  }
+
+  /**
+   * Move back to the start of the current line, and clear the failure flag.
+   */
+
+  public void rewind()
+  {
+    this.cursor = this.start;
+    this.failed = false;
+  }
+
+  /**
+   * @return {@code true} if every token read since the last call to
+   * {@link #rewind()} was read successfully, and there are no remaining
+   * tokens on the line
+   */
+
+  public boolean isCompleteSuccess()
+  {
+    if (this.failed) {
+      return false;
+    }
+    this.skipSpaces();
+    return this.cursor == this.end;
+  }
+
+  /**
+   * @return The current line decoded as text
+   */
+
+  public String text()
+  {
+    // CHECKSTYLE:OFF
+    return new String(this.data, this.start, this.end - this.start, UTF_8);
+    // CHECKSTYLE:ON
+  }
+
+  /**
+   * Lex the current line with an {@link SMFTLineLexer}. The result is
+   * exactly what {@link SMFTLineReaderType#line()} would have returned for
+   * the line.
+   *
+   * @return The tokens of the current line
+   */
+
+  public List<String> lex()
+  {
+    if (this.isEmpty()) {
+      return List.of();
+    }
+    return this.lexer.lex(this.text());
+  }
+
+  private boolean skipSpaces()
+  {
+    while (this.cursor < this.end && this.data[this.cursor] == ' ') {
+      ++this.cursor;
+    }
+    return this.cursor < this.end;
+  }
+
+  private int tokenEnd()
+  {
+    int index = this.cursor;
+    while (index < this.end && this.data[index] != ' ') {
+      ++index;
+    }
+    return index;
+  }
+
+  private long fail()
+  {
+    this.failed = true;
+    return 0L;
+  }
+
+  private long digits(
+    final int from,
+    final int to)
+  {
+    final int count = to - from;
+    if (count <= 0 || count > 18) {
+      return this.fail();
+    }
+
+    long result = 0L;
+    for (int index = from; index < to; ++index) {
+      final int b = this.data[index];
+      if (!isDigit(b)) {
+        return this.fail();
+      }
+      result = result * 10L + (long) (b - '0');
+    }
+    this.cursor = to;
+    return result;
+  }
+
+  /**
+   * Read an unsigned integer.
+   *
+   * @return The integer, or {@code 0} if an integer could not be read
+   */
+
+  public long nextUnsigned()
+  {
+    if (this.failed || !this.skipSpaces()) {
+      return this.fail();
+    }
+    return this.digits(this.cursor, this.tokenEnd());
+  }
+
+  /**
+   * Read a signed integer.
+   *
+   * @return The integer, or {@code 0} if an integer could not be read
+   */
+
+  public long nextSigned()
+  {
+    if (this.failed || !this.skipSpaces()) {
+      return this.fail();
+    }
+
+    final int limit = this.tokenEnd();
+    if (this.data[this.cursor] == '-') {
+      return -this.digits(this.cursor + 1, limit);
+    }
+    return this.digits(this.cursor, limit);
+  }
+
+  /**
+   * Read a floating point number.
+   *
+   * @return The number, or {@code 0.0} if a number could not be read
+   */
+
+  public double nextDouble()
+  {
+    if (this.failed || !this.skipSpaces()) {
+      return (double) this.fail();
+    }
+
+    final int limit = this.tokenEnd();
+    final int index = this.decimal(this.cursor, limit);
+    if (this.failed || index != limit) {
+      return (double) this.fail();
+    }
+
+    final double result =
+      SMFTFastDouble.toDouble(this.negative, this.significand, this.exponent);
+    if (Double.isNaN(result)) {
+      return (double) this.fail();
+    }
+
+    this.cursor = limit;
+    return result;
+  }
+
+  /**
+   * Read the sign, significand, and exponent of a decimal number.
+   */
+
+  private int decimal(
+    final int from,
+    final int limit)
+  {
+    int index = from;
+
+    final byte sign = this.data[index];
+    this.negative = sign == '-';
+    if (this.negative || sign == '+') {
+      ++index;
+    }
+
+    this.significand = 0L;
+    this.significant = 0;
+    this.exponent = 0;
+
+    final int integerStart = index;
+    index = this.significandDigits(index, limit, false);
+    boolean any = index > integerStart;
+
+    if (index < limit && this.data[index] == '.') {
+      final int fractionStart = index + 1;
+      index = this.significandDigits(fractionStart, limit, true);
+      any = any || index > fractionStart;
+    }
+
+    if (!any) {
+      this.fail();
+      return limit;
+    }
+
+    if (index < limit && (this.data[index] == 'e' || this.data[index] == 'E')) {
+      return this.exponentDigits(index + 1, limit);
+    }
+    return index;
+  }
+
+  /**
+   * Accumulate decimal digits into the significand. Leading zeros are not
+   * significant. Digits after the decimal point decrement the exponent.
+   */
+
+  private int significandDigits(
+    final int from,
+    final int limit,
+    final boolean fraction)
+  {
+    int index = from;
+    while (index < limit && isDigit(this.data[index])) {
+      final int digit = this.data[index] - '0';
+      if (this.significand != 0L || digit != 0) {
+        if (this.significant == 19) {
+          this.fail();
+          return limit;
+        }
+        this.significand = this.significand * 10L + (long) digit;
+        ++this.significant;
+      }
+      if (fraction) {
+        --this.exponent;
+      }
+      ++index;
+    }
+    return index;
+  }
+
+  private int exponentDigits(
+    final int from,
+    final int limit)
+  {
+    int index = from;
+    boolean negativeExponent = false;
+    if (index < limit && (this.data[index] == '-' || this.data[index] == '+')) {
+      negativeExponent = this.data[index] == '-';
+      ++index;
+    }
+
+    final int digitsStart = index;
+    int value = 0;
+    while (index < limit && isDigit(this.data[index])) {
+      if (index - digitsStart == 5) {
+        this.fail();
+        return limit;
+      }
+      value = value * 10 + (this.data[index] - '0');
+      ++index;
+    }
+
+    if (index == digitsStart) {
+      this.fail();
+      return limit;
+    }
+
+    this.exponent += negativeExponent ? -value : value;
+    return index;
+  }
+}
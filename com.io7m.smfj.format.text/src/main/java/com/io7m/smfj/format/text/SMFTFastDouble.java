@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.math.BigInteger;
+
+/**
+ * Conversion of decimal significands and exponents to correctly rounded
+ * {@code double} values without allocating. The conversion uses Clinger's
+ * exact fast path where it applies, and the Eisel-Lemire algorithm
+ * otherwise. Inputs that neither method can convert with certainty (values
+ * that are too close to a rounding boundary, subnormals, and values that
+ * overflow) are rejected, and callers are expected to fall back to
+ * {@link Double#parseDouble(String)}.
+ */
+
+final class SMFTFastDouble
+{
+  private static final int POWER_MIN = -342;
+  private static final int POWER_MAX = 308;
+  private static final long[] POW5_HIGH;
+  private static final long[] POW5_LOW;
+
+  private static final double[] POW10 = {
+    1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7,
+    1.0e8, 1.0e9, 1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+    1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22,
+  };
+
+  /*
+   * 128-bit approximations of 5^q for each q in [POWER_MIN, POWER_MAX],
+   * normalized so that the most significant bit is set. Values for q >= 0
+   * are truncated, and values for q < 0 are rounded up.
+   */
+
+  static {
+    final int count = POWER_MAX - POWER_MIN + 1;
+    POW5_HIGH = new long[count];
+    POW5_LOW = new long[count];
+
+    final BigInteger five = BigInteger.valueOf(5L);
+    final BigInteger mask =
+      BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    BigInteger power = BigInteger.ONE;
+    for (int q = 0; q <= POWER_MAX; ++q) {
+      final int shift = power.bitLength() - 128;
+      final BigInteger t =
+        shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+      POW5_HIGH[q - POWER_MIN] = t.shiftRight(64).longValue();
+      POW5_LOW[q - POWER_MIN] = t.and(mask).longValue();
+      power = power.multiply(five);
+    }
+
+    power = five;
+    for (int q = -1; q >= POWER_MIN; --q) {
+      final BigInteger t =
+        BigInteger.ONE.shiftLeft(power.bitLength() + 127)
+          .divide(power)
+          .add(BigInteger.ONE);
+      POW5_HIGH[q - POWER_MIN] = t.shiftRight(64).longValue();
+      POW5_LOW[q - POWER_MIN] = t.and(mask).longValue();
+      power = power.multiply(five);
+    }
+  }
+
+  private SMFTFastDouble()
+  {
+
+  }
+
+  /**
+   * Compute {@code significand * 10^power}, rounded to the nearest
+   * {@code double}.
+   *
+   * @param negative    {@code true} if the value is negative
+   * @param significand The decimal significand, treated as unsigned
+   * @param power       The decimal exponent
+   *
+   * @return The value, or {@link Double#NaN} if the value could not be
+   * computed exactly
+   */
+
+  static double toDouble(
+    final boolean negative,
+    final long significand,
+    final int power)
+  {
+    if (significand == 0L) {
+      return negative ? -0.0 : 0.0;
+    }
+
+    /*
+     * Both the significand and the power of ten are exactly representable,
+     * so a single correctly rounded operation yields the correct result.
+     */
+
+    if (power >= -22 && power <= 22
+      && Long.compareUnsigned(significand, 1L << 53) <= 0) {
+      double d = (double) significand;
+      if (power < 0) {
+        d = d / POW10[-power];
+      } else {
+        d = d * POW10[power];
+      }
+      return negative ? -d : d;
+    }
+
+    if (power < POWER_MIN || power > POWER_MAX) {
+      return Double.NaN;
+    }
+    return eiselLemire(negative, significand, power);
+  }
+
+  private static double eiselLemire(
+    final boolean negative,
+    final long significand,
+    final int power)
+  {
+    final int index = power - POWER_MIN;
+    final int zeros = Long.numberOfLeadingZeros(significand);
+    final long w = significand << zeros;
+
+    long upper = Math.unsignedMultiplyHigh(w, POW5_HIGH[index]);
+    long lower = w * POW5_HIGH[index];
+
+    /*
+     * The bits below the rounding bit are either all zero or all one, and so
+     * the truncated product might be on the wrong side of a rounding
+     * boundary. Include the low half of the power of five, and give up if
+     * that still isn't enough to decide.
+     */
+
+    final long low = upper & 0x1FFL;
+    if (low == 0x1FFL || low == 0L) {
+      final long middle = Math.unsignedMultiplyHigh(w, POW5_LOW[index]);
+      final long sum = lower + middle;
+      if (Long.compareUnsigned(sum, lower) < 0) {
+        upper += 1L;
+      }
+      lower = sum;
+
+      if (isAmbiguous(upper, lower)) {
+        return Double.NaN;
+      }
+    }
+
+    final int upperBit = (int) (upper >>> 63);
+    long mantissa = upper >>> (upperBit + 9);
+    mantissa = (mantissa + 1L) >>> 1;
+
+    long exponent =
+      ((217706L * (long) power) >> 16) + 1086L + (long) upperBit - (long) zeros;
+    if (mantissa >= (1L << 53)) {
+      mantissa = 1L << 52;
+      exponent += 1L;
+    }
+    mantissa &= ~(1L << 52);
+
+    if (exponent < 1L || exponent > 2046L) {
+      return Double.NaN;
+    }
+
+    final long sign = negative ? 1L << 63 : 0L;
+    return Double.longBitsToDouble(mantissa | (exponent << 52) | sign);
+  }
+
+  /**
+   * @return {@code true} if the product is within one unit of a value that
+   * would round differently
+   */
+
+  private static boolean isAmbiguous(
+    final long upper,
+    final long lower)
+  {
+    final long check = upper & 0x1FFL;
+    if (check == 0x1FFL) {
+      return lower == -1L;
+    }
+    if (check == 0L) {
+      return Long.compareUnsigned(lower, 1L) <= 0;
+    }
+    return false;
+  }
+}
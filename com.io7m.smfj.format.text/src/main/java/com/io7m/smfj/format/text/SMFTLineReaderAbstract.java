@@ -32,12 +32,14 @@ abstract class SMFTLineReaderAbstract implements SMFTLineReaderType
 {
   private final LexicalPositionMutable<URI> position;
   private final SMFTLineLexer lexer;
+  private final SMFTByteLineLexer skipper;
 
   SMFTLineReaderAbstract(
     final URI in_uri,
     final int in_start)
   {
     this.lexer = new SMFTLineLexer();
+    this.skipper = new SMFTByteLineLexer();
     this.position = LexicalPositionMutable.create(
       in_start - 1,
       0,
@@ -71,21 +73,93 @@ abstract class SMFTLineReaderAbstract implements SMFTLineReaderType
     }
 
     if (this.log().isTraceEnabled()) {
-      if (this.position.file().isPresent()) {
-        final URI file = this.position.file().get();
-        this.log().trace(
-          "{}:{}: {}", file, Integer.valueOf(this.position.line()), trimmed);
-      } else {
-        this.log().trace(
-          "{}: {}", Integer.valueOf(this.position.line()), trimmed);
-      }
+      this.trace(trimmed);
     }
 
     return Optional.of(this.lexer.lex(trimmed));
   }
 
+  private void trace(
+    final String trimmed)
+  {
+    if (this.position.file().isPresent()) {
+      final URI file = this.position.file().get();
+      this.log().trace(
+        "{}:{}: {}", file, Integer.valueOf(this.position.line()), trimmed);
+    } else {
+      this.log().trace(
+        "{}: {}", Integer.valueOf(this.position.line()), trimmed);
+    }
+  }
+
+  @Override
+  public final boolean lineBytes(
+    final SMFTByteLineLexer line_lexer)
+    throws IOException
+  {
+    final boolean present = this.lineNextBytes(line_lexer);
+    this.position.setLine(Math.addExact(this.position.line(), 1));
+
+    if (present && this.log().isTraceEnabled() && !line_lexer.isEmpty()) {
+      this.trace(line_lexer.text());
+    }
+    return present;
+  }
+
+  @Override
+  public final boolean lineSkip()
+    throws IOException
+  {
+    while (true) {
+      final boolean present = this.lineNextBytes(this.skipper);
+      this.position.setLine(Math.addExact(this.position.line(), 1));
+
+      if (!present) {
+        return false;
+      }
+      if (!this.skipper.isEmpty()) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Set the number of the most recently read line.
+   *
+   * @param line The line number
+   */
+
+  protected final void setLine(
+    final int line)
+  {
+    this.position.setLine(line);
+  }
+
   protected abstract Logger log();
 
   protected abstract String lineNextRaw()
     throws IOException;
+
+  /**
+   * Read the next line into the given lexer. Implementations that have
+   * access to the undecoded bytes of lines should override this method.
+   *
+   * @param line_lexer The lexer
+   *
+   * @return {@code false} on EOF
+   *
+   * @throws IOException On I/O errors
+   */
+
+  protected boolean lineNextBytes(
+    final SMFTByteLineLexer line_lexer)
+    throws IOException
+  {
+    final String line = this.lineNextRaw();
+    if (line == null) {
+      return false;
+    }
+    line_lexer.setLine(line);
+    return true;
+  }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A line reader that reads from a buffer, typically a memory-mapped file.
+ * The reader tracks the offset of the next line in the buffer, and can be
+ * moved to any line boundary. Line terminators are handled in the same
+ * manner as {@link java.io.BufferedReader#readLine()}.
+ */
+
+public final class SMFTLineReaderMapped extends SMFTLineReaderAbstract
+{
+  private static final Logger LOG;
+
+  static {
+    LOG = LoggerFactory.getLogger(SMFTLineReaderMapped.class);
+  }
+
+  private final ByteBuffer buffer;
+  private byte[] line;
+  private int lineLength;
+  private int offset;
+
+  private SMFTLineReaderMapped(
+    final URI in_uri,
+    final ByteBuffer in_buffer)
+  {
+    super(in_uri, 1);
+    this.buffer = Objects.requireNonNull(in_buffer, "buffer");
+    this.line = new byte[256];
+  }
+
+  /**
+   * Construct a new line reader. The reader uses absolute indexing and does
+   * not modify the position or limit of the buffer; the content of the buffer
+   * is taken to be everything from index {@code 0} to the limit.
+   *
+   * @param in_uri    The file URI, for diagnostic messages
+   * @param in_buffer The buffer
+   *
+   * @return A line reader
+   */
+
+  public static SMFTLineReaderMapped create(
+    final URI in_uri,
+    final ByteBuffer in_buffer)
+  {
+    return new SMFTLineReaderMapped(in_uri, in_buffer);
+  }
+
+  /**
+   * @param buffer The buffer
+   * @param from   The offset of the start of a line
+   *
+   * @return The offset of the terminator of the line starting at {@code from},
+   * or the limit of the buffer if the line is not terminated
+   */
+
+  static int lineEnd(
+    final ByteBuffer buffer,
+    final int from)
+  {
+    final int limit = buffer.limit();
+    for (int index = from; index < limit; ++index) {
+      final byte b = buffer.get(index);
+      if (b == '\n' || b == '\r') {
+        return index;
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * @param buffer The buffer
+   * @param end    The offset of the terminator of a line
+   *
+   * @return The offset of the start of the next line
+   */
+
+  static int lineNextStart(
+    final ByteBuffer buffer,
+    final int end)
+  {
+    final int limit = buffer.limit();
+    if (end >= limit) {
+      return limit;
+    }
+    if (buffer.get(end) == '\r'
+      && end + 1 < limit
+      && buffer.get(end + 1) == '\n') {
+      return end + 2;
+    }
+    return end + 1;
+  }
+
+  /**
+   * @return The offset of the next line in the buffer
+   */
+
+  public int offset()
+  {
+    return this.offset;
+  }
+
+  /**
+   * @return The size in octets of the content of the buffer
+   */
+
+  public int size()
+  {
+    return this.buffer.limit();
+  }
+
+  /**
+   * @param in_offset An offset within the buffer
+   *
+   * @return {@code true} if a line starts at the given offset
+   */
+
+  public boolean isLineStart(
+    final int in_offset)
+  {
+    final ByteBuffer b = this.buffer;
+    final int limit = b.limit();
+    if (in_offset < 0 || in_offset > limit) {
+      return false;
+    }
+    if (in_offset == 0) {
+      return true;
+    }
+
+    final byte previous = b.get(in_offset - 1);
+    if (previous == '\n') {
+      return true;
+    }
+    return previous == '\r'
+      && (in_offset == limit || b.get(in_offset) != '\n');
+  }
+
+  /**
+   * Move the reader to the given offset. The offset must be the start of a
+   * line.
+   *
+   * @param in_offset The offset of the next line to be read
+   * @param in_line   The number of the line preceding the next line
+   */
+
+  public void seek(
+    final int in_offset,
+    final int in_line)
+  {
+    this.offset = Objects.checkIndex(in_offset, this.buffer.limit() + 1);
+    this.setLine(in_line);
+  }
+
+  @Override
+  protected Logger log()
+  {
+    return LOG;
+  }
+
+  @Override
+  protected String lineNextRaw()
+  {
+    if (this.lineNext()) {
+      // CHECKSTYLE:OFF
+      return new String(this.line, 0, this.lineLength, UTF_8);
+      // CHECKSTYLE:ON
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean lineNextBytes(
+    final SMFTByteLineLexer line_lexer)
+  {
+    if (this.lineNext()) {
+      line_lexer.set(this.line, 0, this.lineLength);
+      return true;
+    }
+    return false;
+  }
+
+  private boolean lineNext()
+  {
+    if (this.offset >= this.buffer.limit()) {
+      return false;
+    }
+
+    final int end = lineEnd(this.buffer, this.offset);
+    this.lineLength = end - this.offset;
+    if (this.lineLength > this.line.length) {
+      this.line = new byte[Math.max(this.lineLength, this.line.length * 2)];
+    }
+    this.buffer.get(this.offset, this.line, 0, this.lineLength);
+    this.offset = lineNextStart(this.buffer, end);
+    return true;
+  }
+}
@@ -16,18 +16,21 @@
 
 package com.io7m.smfj.format.text;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
- * A line reader based on blocking stream IO.
+ * A line reader based on blocking stream IO. Lines are split directly from
+ * the undecoded bytes of the stream, and are only decoded if they are
+ * requested as text. Line terminators are handled in the same manner as
+ * {@link java.io.BufferedReader#readLine()}.
  */
 
 public final class SMFTLineReaderStreamIO extends SMFTLineReaderAbstract
@@ -38,16 +41,22 @@ public final class SMFTLineReaderStreamIO extends SMFTLineReaderAbstract
     LOG = LoggerFactory.getLogger(SMFTLineReaderStreamIO.class);
   }
 
-  private final BufferedReader reader;
+  private final InputStream stream;
+  private byte[] buffer;
+  private int bufferPosition;
+  private int bufferLimit;
+  private boolean eof;
+  private boolean skipLineFeed;
+  private int lineStart;
+  private int lineLength;
 
   private SMFTLineReaderStreamIO(
     final URI in_uri,
     final InputStream in_stream)
   {
     super(in_uri, 1);
-    this.reader = new BufferedReader(
-      new InputStreamReader(
-        Objects.requireNonNull(in_stream, "stream"), StandardCharsets.UTF_8));
+    this.stream = Objects.requireNonNull(in_stream, "stream");
+    this.buffer = new byte[65536];
   }
 
   /**
@@ -76,6 +85,101 @@ public final class SMFTLineReaderStreamIO extends SMFTLineReaderAbstract
   protected String lineNextRaw()
     throws IOException
   {
-    return this.reader.readLine();
+    if (this.lineNext()) {
+      // CHECKSTYLE:OFF
+      return new String(this.buffer, this.lineStart, this.lineLength, UTF_8);
+      // CHECKSTYLE:ON
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean lineNextBytes(
+    final SMFTByteLineLexer line_lexer)
+    throws IOException
+  {
+    if (this.lineNext()) {
+      line_lexer.set(this.buffer, this.lineStart, this.lineLength);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Find the next line in the buffer, reading more data as necessary.
+   *
+   * @return {@code false} on EOF
+   */
+
+  private boolean lineNext()
+    throws IOException
+  {
+    if (this.skipLineFeed) {
+      while (this.bufferPosition == this.bufferLimit && !this.eof) {
+        this.fill();
+      }
+      if (this.bufferPosition < this.bufferLimit
+        && this.buffer[this.bufferPosition] == '\n') {
+        ++this.bufferPosition;
+      }
+      this.skipLineFeed = false;
+    }
+
+    int scan = this.bufferPosition;
+    while (true) {
+      for (; scan < this.bufferLimit; ++scan) {
+        final byte b = this.buffer[scan];
+        if (b == '\n' || b == '\r') {
+          this.lineStart = this.bufferPosition;
+          this.lineLength = scan - this.bufferPosition;
+          this.bufferPosition = scan + 1;
+          this.skipLineFeed = b == '\r';
+          return true;
+        }
+      }
+
+      if (this.eof) {
+        if (this.bufferPosition < this.bufferLimit) {
+          this.lineStart = this.bufferPosition;
+          this.lineLength = this.bufferLimit - this.bufferPosition;
+          this.bufferPosition = this.bufferLimit;
+          return true;
+        }
+        return false;
+      }
+
+      final int scanned = scan - this.bufferPosition;
+      this.fill();
+      scan = this.bufferPosition + scanned;
+    }
+  }
+
+  /**
+   * Move any unconsumed data to the start of the buffer, growing the buffer
+   * if it is full, and then read as much data as will fit.
+   */
+
+  private void fill()
+    throws IOException
+  {
+    final int remaining = this.bufferLimit - this.bufferPosition;
+    if (this.bufferPosition > 0) {
+      System.arraycopy(
+        this.buffer, this.bufferPosition, this.buffer, 0, remaining);
+      this.bufferPosition = 0;
+      this.bufferLimit = remaining;
+    }
+
+    if (this.bufferLimit == this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+    }
+
+    final int r = this.stream.read(
+      this.buffer, this.bufferLimit, this.buffer.length - this.bufferLimit);
+    if (r == -1) {
+      this.eof = true;
+    } else {
+      this.bufferLimit += r;
+    }
   }
 }
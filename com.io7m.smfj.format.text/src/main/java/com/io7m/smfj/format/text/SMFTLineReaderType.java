@@ -44,4 +44,51 @@ public interface SMFTLineReaderType
 
   Optional<List<String>> line()
     throws IOException;
+
+  /**
+   * Read the next line without decoding or lexing it. The line is made
+   * available through the given lexer, and is only valid until the next
+   * call to any method of this reader.
+   *
+   * @param lexer The lexer that will receive the line
+   *
+   * @return {@code false} on EOF
+   *
+   * @throws IOException On I/O errors
+   */
+
+  default boolean lineBytes(
+    final SMFTByteLineLexer lexer)
+    throws IOException
+  {
+    final Optional<List<String>> line_opt = this.line();
+    if (!line_opt.isPresent()) {
+      return false;
+    }
+    lexer.setTokens(line_opt.get());
+    return true;
+  }
+
+  /**
+   * Skip lines up to and including the next line that is neither empty nor
+   * a comment. Skipped lines are not lexed.
+   *
+   * @return {@code false} if EOF was reached before a line could be skipped
+   *
+   * @throws IOException On I/O errors
+   */
+
+  default boolean lineSkip()
+    throws IOException
+  {
+    while (true) {
+      final Optional<List<String>> line_opt = this.line();
+      if (!line_opt.isPresent()) {
+        return false;
+      }
+      if (!line_opt.get().isEmpty()) {
+        return true;
+      }
+    }
+  }
 }
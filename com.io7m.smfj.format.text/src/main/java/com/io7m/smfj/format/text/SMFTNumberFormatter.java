@@ -0,0 +1,746 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+
+/**
+ * <p>A formatter that renders numbers into a reusable character buffer
+ * without allocating.</p>
+ *
+ * <p>Floating point values are rendered using the Schubfach algorithm, which
+ * yields the shortest decimal that rounds to the original value, in the same
+ * layout as {@link Double#toString(double)}. Values that are known to be
+ * stored with at most 32 bits of precision can be rendered using the
+ * shortest decimal that rounds to the {@code float} value instead, which is
+ * typically around half the length.</p>
+ */
+
+public final class SMFTNumberFormatter
+{
+  private static final int K_MIN = -324;
+  private static final int K_MAX = 292;
+  private static final long[] G1;
+  private static final long[] G0;
+
+  private static final long MASK_63 = 0x7fff_ffff_ffff_ffffL;
+  private static final long MASK_32 = 0xffff_ffffL;
+
+  private static final int DOUBLE_P = 53;
+  private static final int DOUBLE_Q_MIN = -1074;
+  private static final long DOUBLE_C_MIN = 1L << 52;
+  private static final long DOUBLE_C_TINY = 3L;
+  private static final int DOUBLE_BQ_MASK = 0x7ff;
+  private static final long DOUBLE_T_MASK = DOUBLE_C_MIN - 1L;
+
+  private static final int FLOAT_P = 24;
+  private static final int FLOAT_Q_MIN = -149;
+  private static final int FLOAT_C_MIN = 1 << 23;
+  private static final int FLOAT_C_TINY = 8;
+  private static final int FLOAT_BQ_MASK = 0xff;
+  private static final int FLOAT_T_MASK = FLOAT_C_MIN - 1;
+
+  private static final double[] POW10 = {
+    1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7,
+    1.0e8, 1.0e9, 1.0e10, 1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+    1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22,
+  };
+
+  /*
+   * 126-bit approximations of 10^-k for each k in [K_MIN, K_MAX]. For each
+   * k, let 10^-k = b * 2^r for the unique r such that 2^125 <= b < 2^126.
+   * Then g = floor(b) + 1, G1 holds the upper 63 bits of g, and G0 holds the
+   * lower 63 bits of g.
+   */
+
+  static {
+    final int count = K_MAX - K_MIN + 1;
+    G1 = new long[count];
+    G0 = new long[count];
+
+    final BigInteger mask = BigInteger.valueOf(MASK_63);
+    for (int k = K_MIN; k <= K_MAX; ++k) {
+      final int r = flog2pow10(-k) - 125;
+
+      BigInteger numerator = BigInteger.ONE;
+      BigInteger denominator = BigInteger.ONE;
+      if (k <= 0) {
+        numerator = BigInteger.TEN.pow(-k);
+      } else {
+        denominator = BigInteger.TEN.pow(k);
+      }
+      if (r <= 0) {
+        numerator = numerator.shiftLeft(-r);
+      } else {
+        denominator = denominator.shiftLeft(r);
+      }
+
+      final BigInteger g =
+        numerator.divide(denominator).add(BigInteger.ONE);
+      G1[k - K_MIN] = g.shiftRight(63).longValue();
+      G0[k - K_MIN] = g.and(mask).longValue();
+    }
+  }
+
+  private final char[] digits;
+  private char[] buffer;
+  private int length;
+
+  /**
+   * Create a new formatter.
+   */
+
+  public SMFTNumberFormatter()
+  {
+    this.buffer = new char[128];
+    this.digits = new char[20];
+  }
+
+  private static int flog10pow2(
+    final int e)
+  {
+    return (int) ((long) e * 661_971_961_083L >> 41);
+  }
+
+  private static int flog10threeQuartersPow2(
+    final int e)
+  {
+    return (int) ((long) e * 661_971_961_083L + -274_743_187_321L >> 41);
+  }
+
+  private static int flog2pow10(
+    final int e)
+  {
+    return (int) ((long) e * 913_124_641_741L >> 38);
+  }
+
+  private static long roundOdd(
+    final long g1,
+    final long g0,
+    final long cp)
+  {
+    final long x1 = Math.multiplyHigh(g0, cp);
+    final long y0 = g1 * cp;
+    final long y1 = Math.multiplyHigh(g1, cp);
+    final long z = (y0 >>> 1) + x1;
+    final long vbp = y1 + (z >>> 63);
+    return vbp | (z & MASK_63) + MASK_63 >>> 63;
+  }
+
+  private static int roundOdd(
+    final long g,
+    final long cp)
+  {
+    final long x1 = Math.multiplyHigh(g, cp);
+    final long vbp = x1 >>> 31;
+    return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+  }
+
+  /**
+   * @return The current content of the buffer
+   */
+
+  public String text()
+  {
+    return String.valueOf(this.buffer, 0, this.length);
+  }
+
+  /**
+   * @return The number of characters in the buffer
+   */
+
+  public int length()
+  {
+    return this.length;
+  }
+
+  /**
+   * Clear the buffer.
+   */
+
+  public void reset()
+  {
+    this.length = 0;
+  }
+
+  /**
+   * Write the content of the buffer to the given writer.
+   *
+   * @param writer The writer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public void writeTo(
+    final Writer writer)
+    throws IOException
+  {
+    writer.write(this.buffer, 0, this.length);
+  }
+
+  /**
+   * Append a character.
+   *
+   * @param c The character
+   */
+
+  public void append(
+    final char c)
+  {
+    this.reserve(1);
+    this.buffer[this.length] = c;
+    ++this.length;
+  }
+
+  /**
+   * Append a signed integer.
+   *
+   * @param x The value
+   */
+
+  public void appendSigned(
+    final long x)
+  {
+    if (x < 0L) {
+      this.append('-');
+      this.appendDigitsUnsigned(-x);
+    } else {
+      this.appendDigitsUnsigned(x);
+    }
+  }
+
+  /**
+   * Append an unsigned integer.
+   *
+   * @param x The value
+   */
+
+  public void appendUnsigned(
+    final long x)
+  {
+    this.appendDigitsUnsigned(x);
+  }
+
+  /**
+   * Append a floating point value that is stored with the given number of
+   * bits. If the size is at most 32 and the value is exactly representable
+   * as a {@code float}, the value is appended as if by
+   * {@link #appendFloat(float)}. Otherwise, it is appended as if by
+   * {@link #appendDouble(double)}.
+   *
+   * @param x         The value
+   * @param size_bits The size of the value in bits
+   */
+
+  public void appendFloating(
+    final double x,
+    final int size_bits)
+  {
+    if (size_bits <= 32) {
+      final float f = (float) x;
+      if ((double) f == x) {
+        this.appendFloat(f);
+        return;
+      }
+    }
+    this.appendDouble(x);
+  }
+
+  /**
+   * Append the shortest decimal that rounds to the given value.
+   *
+   * @param x The value
+   */
+
+  public void appendDouble(
+    final double x)
+  {
+    final long bits = Double.doubleToRawLongBits(x);
+    final long t = bits & DOUBLE_T_MASK;
+    final int bq = (int) (bits >>> 52) & DOUBLE_BQ_MASK;
+
+    if (bq == DOUBLE_BQ_MASK) {
+      this.appendSpecial(t != 0L, bits < 0L);
+      return;
+    }
+
+    if (bits < 0L) {
+      this.append('-');
+    }
+
+    if (bq != 0) {
+      final int mq = -DOUBLE_Q_MIN + 1 - bq;
+      final long c = DOUBLE_C_MIN | t;
+      if (0 < mq && mq < DOUBLE_P) {
+        final long f = c >> mq;
+        if (f << mq == c) {
+          this.appendDecimal(f, 0);
+          return;
+        }
+      }
+      this.appendDoubleDecimal(-mq, c, 0);
+      return;
+    }
+
+    if (t != 0L) {
+      if (t < DOUBLE_C_TINY) {
+        this.appendDoubleDecimal(DOUBLE_Q_MIN, 10L * t, -1);
+      } else {
+        this.appendDoubleDecimal(DOUBLE_Q_MIN, t, 0);
+      }
+      return;
+    }
+
+    this.appendDecimal(0L, 0);
+  }
+
+  /**
+   * Append the shortest decimal that rounds to the given {@code float}
+   * value. The decimal is guaranteed to yield the same {@code float} value
+   * when it is parsed as a {@code double} and then narrowed to a
+   * {@code float}; in the rare cases where that cannot be guaranteed cheaply,
+   * the value is appended as if by {@link #appendDouble(double)}.
+   *
+   * @param x The value
+   */
+
+  public void appendFloat(
+    final float x)
+  {
+    final int bits = Float.floatToRawIntBits(x);
+    final int t = bits & FLOAT_T_MASK;
+    final int bq = (bits >>> 23) & FLOAT_BQ_MASK;
+
+    if (bq == FLOAT_BQ_MASK) {
+      this.appendSpecial(t != 0, bits < 0);
+      return;
+    }
+
+    if (bq == 0 && t == 0) {
+      if (bits < 0) {
+        this.append('-');
+      }
+      this.appendDecimal(0L, 0);
+      return;
+    }
+
+    final long decimal;
+    if (bq != 0) {
+      final int mq = -FLOAT_Q_MIN + 1 - bq;
+      final int c = FLOAT_C_MIN | t;
+      if (this.appendFloatInteger(bits, mq, c)) {
+        return;
+      }
+      decimal = floatDecimal(-mq, c, 0);
+    } else {
+      decimal = t < FLOAT_C_TINY
+        ? floatDecimal(FLOAT_Q_MIN, 10 * t, -1)
+        : floatDecimal(FLOAT_Q_MIN, t, 0);
+    }
+
+    this.appendFloatDecimal(x, bits, decimal);
+  }
+
+  /**
+   * Append the float value c * 2^-mq if it is an integer.
+   *
+   * @return {@code true} if the value was appended
+   */
+
+  private boolean appendFloatInteger(
+    final int bits,
+    final int mq,
+    final int c)
+  {
+    if (0 < mq && mq < FLOAT_P) {
+      final int f = c >> mq;
+      if (f << mq == c) {
+        if (bits < 0) {
+          this.append('-');
+        }
+        this.appendDecimal(f, 0);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Append the packed shortest decimal for the float value x.
+   */
+
+  private void appendFloatDecimal(
+    final float x,
+    final int bits,
+    final long decimal)
+  {
+    /*
+     * The decimal is parsed as a double by readers, and so it is only used
+     * if the double nearest to it is known to narrow to the original value.
+     * The check is exact, because the significand has at most nine digits
+     * and the power of ten is exactly representable.
+     */
+
+    long f = decimal >>> 32;
+    int e = (int) decimal;
+    while (f % 10L == 0L) {
+      f /= 10L;
+      ++e;
+    }
+
+    if (e >= -22 && e <= 22) {
+      final double d = e >= 0 ? (double) f * POW10[e] : (double) f / POW10[-e];
+      if ((float) d == Math.abs(x)) {
+        if (bits < 0) {
+          this.append('-');
+        }
+        this.appendDecimal(f, e);
+        return;
+      }
+    }
+
+    this.appendDouble(x);
+  }
+
+  /**
+   * Compute the shortest decimal for the float value c * 2^q.
+   *
+   * @return The significand in the upper 32 bits, and the exponent in the
+   * lower 32 bits
+   */
+
+  private static long floatDecimal(
+    final int q,
+    final int c,
+    final int dk)
+  {
+    final int out = c & 0x1;
+    final long cb = (long) c << 2;
+    final long cbr = cb + 2L;
+    final long cbl;
+    final int k;
+
+    if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+      cbl = cb - 2L;
+      k = flog10pow2(q);
+    } else {
+      cbl = cb - 1L;
+      k = flog10threeQuartersPow2(q);
+    }
+
+    final int h = q + flog2pow10(-k) + 33;
+    final long g = G1[k - K_MIN] + 1L;
+    final int vb = roundOdd(g, cb << h);
+    final int vbl = roundOdd(g, cbl << h);
+    final int vbr = roundOdd(g, cbr << h);
+
+    final int s = vb >> 2;
+    if (s >= 100) {
+      final int sp10 = 10 * (int) ((long) s * 1_717_986_919L >>> 34);
+      final int tp10 = sp10 + 10;
+      final boolean upin = vbl + out <= sp10 << 2;
+      final boolean wpin = (tp10 << 2) + out <= vbr;
+      if (upin != wpin) {
+        return packDecimal(upin ? sp10 : tp10, k);
+      }
+    }
+
+    final int t = s + 1;
+    final boolean uin = vbl + out <= s << 2;
+    final boolean win = (t << 2) + out <= vbr;
+    if (uin != win) {
+      return packDecimal(uin ? s : t, k + dk);
+    }
+
+    final int cmp = vb - (s + t << 1);
+    return packDecimal(
+      cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+  }
+
+  private static long packDecimal(
+    final int f,
+    final int e)
+  {
+    return (long) f << 32 | (long) e & MASK_32;
+  }
+
+  /**
+   * Append the shortest decimal for the double value c * 2^q.
+   */
+
+  private void appendDoubleDecimal(
+    final int q,
+    final long c,
+    final int dk)
+  {
+    final int out = (int) c & 0x1;
+    final long cb = c << 2;
+    final long cbr = cb + 2L;
+    final long cbl;
+    final int k;
+
+    if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+      cbl = cb - 2L;
+      k = flog10pow2(q);
+    } else {
+      cbl = cb - 1L;
+      k = flog10threeQuartersPow2(q);
+    }
+
+    final int h = q + flog2pow10(-k) + 2;
+    final long g1 = G1[k - K_MIN];
+    final long g0 = G0[k - K_MIN];
+    final long vb = roundOdd(g1, g0, cb << h);
+    final long vbl = roundOdd(g1, g0, cbl << h);
+    final long vbr = roundOdd(g1, g0, cbr << h);
+
+    final long s = vb >> 2;
+    if (s >= 100L) {
+      final long sp10 =
+        10L * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+      final long tp10 = sp10 + 10L;
+      final boolean upin = vbl + out <= sp10 << 2;
+      final boolean wpin = (tp10 << 2) + out <= vbr;
+      if (upin != wpin) {
+        this.appendDecimal(upin ? sp10 : tp10, k);
+        return;
+      }
+    }
+
+    final long t = s + 1L;
+    final boolean uin = vbl + out <= s << 2;
+    final boolean win = (t << 2) + out <= vbr;
+    if (uin != win) {
+      this.appendDecimal(uin ? s : t, k + dk);
+      return;
+    }
+
+    final long cmp = vb - (s + t << 1);
+    this.appendDecimal(
+      cmp < 0L || cmp == 0L && (s & 0x1L) == 0L ? s : t, k + dk);
+  }
+
+  private void appendSpecial(
+    final boolean nan,
+    final boolean negative)
+  {
+    if (nan) {
+      this.appendString("NaN");
+    } else if (negative) {
+      this.appendString("-Infinity");
+    } else {
+      this.appendString("Infinity");
+    }
+  }
+
+  private void appendString(
+    final String text)
+  {
+    final int count = text.length();
+    this.reserve(count);
+    text.getChars(0, count, this.buffer, this.length);
+    this.length += count;
+  }
+
+  /**
+   * Append the value f * 10^e in the same layout as
+   * {@link Double#toString(double)}.
+   */
+
+  private void appendDecimal(
+    final long f,
+    final int e)
+  {
+    long m = f;
+    int exponent = e;
+    if (m == 0L) {
+      this.appendString("0.0");
+      return;
+    }
+
+    while (m % 10L == 0L) {
+      m /= 10L;
+      ++exponent;
+    }
+
+    final int count = this.digitsOf(m);
+    final int start = this.digits.length - count;
+
+    /*
+     * The value is 0.d[0]d[1]...d[count - 1] * 10^point.
+     */
+
+    final int point = count + exponent;
+    this.reserve(count + 32);
+
+    if (point > 0 && point <= 7) {
+      this.appendDecimalPlain(start, count, point);
+    } else if (point > -3 && point <= 0) {
+      this.appendDecimalFraction(start, count, point);
+    } else {
+      this.appendDecimalScientific(start, count, point - 1);
+    }
+  }
+
+  /**
+   * Append the digits with the decimal point after the first {@code point}
+   * digits, such as {@code 123.45}.
+   */
+
+  private void appendDecimalPlain(
+    final int start,
+    final int count,
+    final int point)
+  {
+    final char[] d = this.digits;
+    for (int i = 0; i < point; ++i) {
+      this.put(i < count ? d[start + i] : '0');
+    }
+    this.put('.');
+    if (point >= count) {
+      this.put('0');
+    } else {
+      for (int i = point; i < count; ++i) {
+        this.put(d[start + i]);
+      }
+    }
+  }
+
+  /**
+   * Append the digits after {@code -point} leading zeroes, such as
+   * {@code 0.0012345}.
+   */
+
+  private void appendDecimalFraction(
+    final int start,
+    final int count,
+    final int point)
+  {
+    final char[] d = this.digits;
+    this.put('0');
+    this.put('.');
+    for (int i = point; i < 0; ++i) {
+      this.put('0');
+    }
+    for (int i = 0; i < count; ++i) {
+      this.put(d[start + i]);
+    }
+  }
+
+  /**
+   * Append the digits in scientific notation, such as {@code 1.2345E-7}.
+   */
+
+  private void appendDecimalScientific(
+    final int start,
+    final int count,
+    final int exponent)
+  {
+    final char[] d = this.digits;
+    this.put(d[start]);
+    this.put('.');
+    if (count == 1) {
+      this.put('0');
+    } else {
+      for (int i = 1; i < count; ++i) {
+        this.put(d[start + i]);
+      }
+    }
+
+    this.put('E');
+    int scientific = exponent;
+    if (scientific < 0) {
+      this.put('-');
+      scientific = -scientific;
+    }
+    if (scientific >= 100) {
+      this.put((char) ('0' + scientific / 100));
+      scientific %= 100;
+      this.put((char) ('0' + scientific / 10));
+    } else if (scientific >= 10) {
+      this.put((char) ('0' + scientific / 10));
+    }
+    this.put((char) ('0' + scientific % 10));
+  }
+
+  /**
+   * Append a character for which space has already been reserved.
+   */
+
+  private void put(
+    final char c)
+  {
+    this.buffer[this.length] = c;
+    ++this.length;
+  }
+
+  private void appendDigitsUnsigned(
+    final long x)
+  {
+    final int count = this.digitsOf(x);
+    this.reserve(count);
+    System.arraycopy(
+      this.digits,
+      this.digits.length - count,
+      this.buffer,
+      this.length,
+      count);
+    this.length += count;
+  }
+
+  /**
+   * Write the decimal digits of the unsigned value x to the end of the
+   * digits array.
+   *
+   * @return The number of digits
+   */
+
+  private int digitsOf(
+    final long x)
+  {
+    final char[] d = this.digits;
+    int index = d.length;
+    long v = x;
+
+    if (v < 0L) {
+      final long q = Long.divideUnsigned(v, 10L);
+      d[--index] = (char) ('0' + (int) (v - q * 10L));
+      v = q;
+    }
+
+    do {
+      final long q = v / 10L;
+      d[--index] = (char) ('0' + (int) (v - q * 10L));
+      v = q;
+    } while (v != 0L);
+
+    return d.length - index;
+  }
+
+  private void reserve(
+    final int count)
+  {
+    final int required = this.length + count;
+    if (required > this.buffer.length) {
+      final char[] next = new char[Math.max(required, this.buffer.length * 2)];
+      System.arraycopy(this.buffer, 0, next, 0, this.length);
+      this.buffer = next;
+    }
+  }
+}
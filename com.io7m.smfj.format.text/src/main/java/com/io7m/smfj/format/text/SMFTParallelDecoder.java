@@ -0,0 +1,501 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A decoder that parses the lines of attribute and triangle data in
+ * parallel.</p>
+ *
+ * <p>Starting at the current offset of a {@link SMFTLineReaderMapped}, the
+ * decoder scans forward for line terminators to divide the data into chunks
+ * of whole lines, and submits one task per chunk to a fork/join pool. The
+ * decoded chunks are delivered to the receiver on the calling thread, in file
+ * order, and the line reader is moved past each delivered chunk.</p>
+ *
+ * <p>If a chunk contains anything that cannot be parsed, the decoder stops
+ * at the start of that chunk and returns the number of elements delivered so
+ * far. The caller is then expected to parse the remaining lines sequentially,
+ * which produces the same errors at the same positions as a fully sequential
+ * parse.</p>
+ */
+
+public final class SMFTParallelDecoder
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFTParallelDecoder.class);
+
+  private final ForkJoinPool pool;
+  private final ByteBuffer buffer;
+  private final SMFTLineReaderMapped reader;
+  private final int chunkOctetsMaximum;
+  private final int chunkLinesMaximum;
+  private final int window;
+
+  SMFTParallelDecoder(
+    final ForkJoinPool in_pool,
+    final ByteBuffer in_buffer,
+    final SMFTLineReaderMapped in_reader,
+    final int in_chunk_octets_maximum,
+    final int in_chunk_lines_maximum)
+  {
+    this.pool = Objects.requireNonNull(in_pool, "pool");
+    this.buffer = Objects.requireNonNull(in_buffer, "buffer");
+    this.reader = Objects.requireNonNull(in_reader, "reader");
+    this.chunkOctetsMaximum = in_chunk_octets_maximum;
+    this.chunkLinesMaximum = in_chunk_lines_maximum;
+    this.window = Math.max(2, Math.multiplyExact(in_pool.getParallelism(), 2));
+  }
+
+  private static Chunk decodeChunk(
+    final ByteBuffer buffer,
+    final Chunk chunk)
+  {
+    final int size = chunk.end - chunk.start;
+    final byte[] data = new byte[size];
+    buffer.get(chunk.start, data, 0, size);
+
+    final int width = chunk.width;
+    final boolean floating = chunk.type == SMFComponentType.ELEMENT_TYPE_FLOATING;
+    if (floating) {
+      chunk.doubles = new double[Math.multiplyExact(chunk.lines, width)];
+    } else {
+      chunk.longs = new long[Math.multiplyExact(chunk.lines, width)];
+    }
+
+    final ByteBuffer wrapped = ByteBuffer.wrap(data);
+    final SMFTByteLineLexer lexer = new SMFTByteLineLexer();
+    int element = 0;
+    int offset = 0;
+    while (offset < size && element < chunk.lines) {
+      final int end = SMFTLineReaderMapped.lineEnd(wrapped, offset);
+      lexer.set(data, offset, end - offset);
+      offset = SMFTLineReaderMapped.lineNextStart(wrapped, end);
+      if (lexer.isEmpty()) {
+        continue;
+      }
+
+      final int base = element * width;
+      final boolean ok;
+      if (floating) {
+        ok = decodeDoubles(lexer, width, chunk.doubles, base);
+      } else {
+        ok = decodeLongs(lexer, chunk.type, width, chunk.longs, base);
+      }
+      if (!ok) {
+        chunk.failed = true;
+        return chunk;
+      }
+      ++element;
+    }
+
+    chunk.failed = element != chunk.lines;
+    return chunk;
+  }
+
+  private static boolean decodeDoubles(
+    final SMFTByteLineLexer lexer,
+    final int width,
+    final double[] values,
+    final int base)
+  {
+    for (int index = 0; index < width; ++index) {
+      values[base + index] = lexer.nextDouble();
+    }
+    if (lexer.isCompleteSuccess()) {
+      return true;
+    }
+
+    final List<String> tokens = lexer.lex();
+    if (tokens.size() != width) {
+      return false;
+    }
+    try {
+      for (int index = 0; index < width; ++index) {
+        values[base + index] = Double.parseDouble(tokens.get(index));
+      }
+      return true;
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static boolean decodeLongs(
+    final SMFTByteLineLexer lexer,
+    final SMFComponentType type,
+    final int width,
+    final long[] values,
+    final int base)
+  {
+    final boolean signed = type == SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED;
+    for (int index = 0; index < width; ++index) {
+      values[base + index] = signed ? lexer.nextSigned() : lexer.nextUnsigned();
+    }
+    if (lexer.isCompleteSuccess()) {
+      return true;
+    }
+
+    final List<String> tokens = lexer.lex();
+    if (tokens.size() != width) {
+      return false;
+    }
+    try {
+      for (int index = 0; index < width; ++index) {
+        final String token = tokens.get(index);
+        values[base + index] =
+          signed ? Long.parseLong(token) : Long.parseUnsignedLong(token);
+      }
+      return true;
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static void deliverValues(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final Chunk chunk)
+  {
+    switch (chunk.type) {
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        deliverSigned(receiver, chunk.width, chunk.longs, chunk.lines);
+        return;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        deliverUnsigned(receiver, chunk.width, chunk.longs, chunk.lines);
+        return;
+      }
+      case ELEMENT_TYPE_FLOATING: {
+        deliverFloating(receiver, chunk.width, chunk.doubles, chunk.lines);
+        return;
+      }
+    }
+    throw new UnreachableCodeException();
+  }
+
+  private static void deliverFloating(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int width,
+    final double[] v,
+    final int count)
+  {
+    for (int index = 0; index < count; ++index) {
+      final int b = index * width;
+      switch (width) {
+        case 1:
+          receiver.onDataAttributeValueFloat1(v[b]);
+          break;
+        case 2:
+          receiver.onDataAttributeValueFloat2(v[b], v[b + 1]);
+          break;
+        case 3:
+          receiver.onDataAttributeValueFloat3(v[b], v[b + 1], v[b + 2]);
+          break;
+        case 4:
+          receiver.onDataAttributeValueFloat4(
+            v[b], v[b + 1], v[b + 2], v[b + 3]);
+          break;
+        default:
+          throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void deliverSigned(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int width,
+    final long[] v,
+    final int count)
+  {
+    for (int index = 0; index < count; ++index) {
+      final int b = index * width;
+      switch (width) {
+        case 1:
+          receiver.onDataAttributeValueIntegerSigned1(v[b]);
+          break;
+        case 2:
+          receiver.onDataAttributeValueIntegerSigned2(v[b], v[b + 1]);
+          break;
+        case 3:
+          receiver.onDataAttributeValueIntegerSigned3(
+            v[b], v[b + 1], v[b + 2]);
+          break;
+        case 4:
+          receiver.onDataAttributeValueIntegerSigned4(
+            v[b], v[b + 1], v[b + 2], v[b + 3]);
+          break;
+        default:
+          throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void deliverUnsigned(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int width,
+    final long[] v,
+    final int count)
+  {
+    for (int index = 0; index < count; ++index) {
+      final int b = index * width;
+      switch (width) {
+        case 1:
+          receiver.onDataAttributeValueIntegerUnsigned1(v[b]);
+          break;
+        case 2:
+          receiver.onDataAttributeValueIntegerUnsigned2(v[b], v[b + 1]);
+          break;
+        case 3:
+          receiver.onDataAttributeValueIntegerUnsigned3(
+            v[b], v[b + 1], v[b + 2]);
+          break;
+        case 4:
+          receiver.onDataAttributeValueIntegerUnsigned4(
+            v[b], v[b + 1], v[b + 2], v[b + 3]);
+          break;
+        default:
+          throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private static void deliverTriangles(
+    final SMFParserEventsDataTrianglesType receiver,
+    final Chunk chunk)
+  {
+    final long[] v = chunk.longs;
+    for (int index = 0; index < chunk.lines; ++index) {
+      final int b = index * 3;
+      receiver.onDataTriangle(v[b], v[b + 1], v[b + 2]);
+    }
+  }
+
+  /**
+   * Parse and deliver the values of an attribute.
+   *
+   * @param attribute The attribute
+   * @param count     The number of values expected
+   * @param receiver  The receiver of values
+   *
+   * @return The number of values delivered
+   */
+
+  public long attributeValues(
+    final SMFAttribute attribute,
+    final long count,
+    final SMFParserEventsDataAttributeValuesType receiver)
+  {
+    Objects.requireNonNull(attribute, "attribute");
+    Objects.requireNonNull(receiver, "receiver");
+
+    return this.run(
+      count,
+      attribute.componentType(),
+      attribute.componentCount(),
+      chunk -> deliverValues(receiver, chunk));
+  }
+
+  /**
+   * Parse and deliver triangles.
+   *
+   * @param count    The number of triangles expected
+   * @param receiver The receiver of triangles
+   *
+   * @return The number of triangles delivered
+   */
+
+  public long triangles(
+    final long count,
+    final SMFParserEventsDataTrianglesType receiver)
+  {
+    Objects.requireNonNull(receiver, "receiver");
+
+    return this.run(
+      count,
+      SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED,
+      3,
+      chunk -> deliverTriangles(receiver, chunk));
+  }
+
+  private long run(
+    final long count,
+    final SMFComponentType type,
+    final int width,
+    final ChunkDeliveryType delivery)
+  {
+    final ArrayDeque<Chunk> pending = new ArrayDeque<>(this.window);
+    int offset = this.reader.offset();
+    int line = this.reader.position().line();
+    long scanned = 0L;
+    long delivered = 0L;
+    boolean eof = false;
+
+    try {
+      while (true) {
+        if (!eof && scanned < count && pending.size() < this.window) {
+          final Chunk chunk =
+            this.scan(offset, line, count - scanned, type, width);
+          if (chunk.lines == 0) {
+            eof = true;
+            continue;
+          }
+
+          offset = chunk.end;
+          line = chunk.lineEnd;
+          scanned = Math.addExact(scanned, (long) chunk.lines);
+          chunk.task = this.pool.submit(
+            () -> decodeChunk(this.buffer, chunk));
+          pending.add(chunk);
+          continue;
+        }
+
+        final Chunk chunk = pending.poll();
+        if (chunk == null) {
+          return delivered;
+        }
+
+        if (!this.complete(chunk)) {
+          LOG.debug(
+            "chunk at line {} could not be parsed in parallel",
+            Integer.valueOf(chunk.lineStart + 1));
+          this.reader.seek(chunk.start, chunk.lineStart);
+          return delivered;
+        }
+
+        delivery.deliver(chunk);
+        delivered = Math.addExact(delivered, (long) chunk.lines);
+        this.reader.seek(chunk.end, chunk.lineEnd);
+      }
+    } finally {
+      for (final Chunk chunk : pending) {
+        chunk.task.cancel(false);
+      }
+    }
+  }
+
+  private boolean complete(
+    final Chunk chunk)
+  {
+    try {
+      return !chunk.task.join().failed;
+    } catch (final RuntimeException e) {
+      LOG.debug("chunk failed: ", e);
+      return false;
+    }
+  }
+
+  /**
+   * Scan forward from {@code start} for a chunk of at most {@code remaining}
+   * non-empty lines. The chunk ends after {@code chunkLinesMaximum}
+   * non-empty lines, or after the first line that reaches
+   * {@code chunkOctetsMaximum} octets from the start of the chunk, whichever
+   * comes first.
+   */
+
+  private Chunk scan(
+    final int start,
+    final int line_start,
+    final long remaining,
+    final SMFComponentType type,
+    final int width)
+  {
+    final ByteBuffer b = this.buffer;
+    final int limit = b.limit();
+    final long wanted = Math.min(remaining, (long) this.chunkLinesMaximum);
+
+    int offset = start;
+    int line = line_start;
+    int lines = 0;
+    int end = start;
+    int line_end = line_start;
+    while (lines < wanted
+      && offset < limit
+      && offset - start < this.chunkOctetsMaximum) {
+      final int lineEnd = SMFTLineReaderMapped.lineEnd(b, offset);
+      final int lineNext = SMFTLineReaderMapped.lineNextStart(b, lineEnd);
+      line = Math.addExact(line, 1);
+      if (!isEmptyLine(b, offset, lineEnd)) {
+        ++lines;
+        end = lineNext;
+        line_end = line;
+      }
+      offset = lineNext;
+    }
+
+    final Chunk chunk = new Chunk(type, width);
+    chunk.start = start;
+    chunk.end = end;
+    chunk.lineStart = line_start;
+    chunk.lineEnd = line_end;
+    chunk.lines = lines;
+    return chunk;
+  }
+
+  private static boolean isEmptyLine(
+    final ByteBuffer b,
+    final int start,
+    final int end)
+  {
+    for (int index = start; index < end; ++index) {
+      final int c = b.get(index) & 0xff;
+      if (c > ' ') {
+        return c == '#';
+      }
+    }
+    return true;
+  }
+
+  private interface ChunkDeliveryType
+  {
+    void deliver(Chunk chunk);
+  }
+
+  private static final class Chunk
+  {
+    private final SMFComponentType type;
+    private final int width;
+    private int start;
+    private int end;
+    private int lineStart;
+    private int lineEnd;
+    private int lines;
+    private boolean failed;
+    private double[] doubles;
+    private long[] longs;
+    private ForkJoinTask<Chunk> task;
+
+    Chunk(
+      final SMFComponentType in_type,
+      final int in_width)
+    {
+      this.type = in_type;
+      this.width = in_width;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import java.net.URI;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A cache of section indices, keyed by file URI.</p>
+ *
+ * <p>Parsers only use a cached index if the size and modification time of
+ * the file and the end of its header match the index, and if the line at
+ * the offset of each indexed section is the command that starts that
+ * section. An index that fails any of these checks is rebuilt and replaces
+ * the cached index. An edit that keeps the size, the modification time, and
+ * the position of every section command of a file is not detected, but
+ * such an edit cannot invalidate the offsets in the index.</p>
+ *
+ * <p>Caches are safe to use from multiple threads.</p>
+ *
+ * @see SMFFormatTextConfiguration#sectionIndexCache()
+ */
+
+public final class SMFTSectionIndexCache
+{
+  private final ConcurrentHashMap<URI, SMFTSectionIndex> indices;
+
+  private SMFTSectionIndexCache()
+  {
+    this.indices = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return A new empty cache
+   */
+
+  public static SMFTSectionIndexCache create()
+  {
+    return new SMFTSectionIndexCache();
+  }
+
+  /**
+   * Find the index for the given file.
+   *
+   * @param uri      The file URI
+   * @param size     The current size of the file
+   * @param modified The current modification time of the file, if known
+   *
+   * @return The index, if one exists for a file of the given size and
+   * modification time
+   */
+
+  public Optional<SMFTSectionIndex> find(
+    final URI uri,
+    final long size,
+    final Optional<FileTime> modified)
+  {
+    Objects.requireNonNull(uri, "uri");
+    Objects.requireNonNull(modified, "modified");
+
+    final SMFTSectionIndex index = this.indices.get(uri);
+    if (index != null
+      && index.fileSize() == size
+      && index.fileLastModified().equals(modified)) {
+      return Optional.of(index);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Save the index for the given file, replacing any existing index.
+   *
+   * @param uri   The file URI
+   * @param index The index
+   */
+
+  public void put(
+    final URI uri,
+    final SMFTSectionIndex index)
+  {
+    this.indices.put(
+      Objects.requireNonNull(uri, "uri"),
+      Objects.requireNonNull(index, "index"));
+  }
+
+  /**
+   * Remove the index for the given file, if any.
+   *
+   * @param uri The file URI
+   */
+
+  public void remove(
+    final URI uri)
+  {
+    this.indices.remove(Objects.requireNonNull(uri, "uri"));
+  }
+
+  /**
+   * Remove all indices.
+   */
+
+  public void clear()
+  {
+    this.indices.clear();
+  }
+
+  /**
+   * @return The number of cached indices
+   */
+
+  public int size()
+  {
+    return this.indices.size();
+  }
+}
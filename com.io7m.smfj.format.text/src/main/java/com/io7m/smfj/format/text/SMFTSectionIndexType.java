@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * <p>An index of the body sections of a text file.</p>
+ *
+ * <p>An index is built by random-access parsers the first time that the body
+ * of a file is parsed. It records the position of each section and of each
+ * attribute in the vertices sections, so that later parses of the same file
+ * can move directly to the data that an event receiver asks for. Indices
+ * can be kept between parses with a {@link SMFTSectionIndexCache}.</p>
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface SMFTSectionIndexType
+{
+  /**
+   * @return The size in octets of the indexed file
+   */
+
+  long fileSize();
+
+  /**
+   * @return The modification time of the indexed file, if it is known
+   */
+
+  Optional<FileTime> fileLastModified();
+
+  /**
+   * @return The offset in octets of the first line after the header
+   */
+
+  long bodyOffset();
+
+  /**
+   * @return The number of lines in the indexed file
+   */
+
+  int lineCount();
+
+  /**
+   * @return The sections in the order in which they appear in the file
+   */
+
+  List<SMFTSection> sections();
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+/**
+ * The kinds of sections recorded in a section index.
+ *
+ * @see SMFTSectionIndex
+ */
+
+public enum SMFTSectionKind
+{
+  /**
+   * A {@code vertices-noninterleaved} section. The section is followed in
+   * the index by one {@link #SECTION_ATTRIBUTE} entry for each attribute
+   * in the section.
+   */
+
+  SECTION_VERTICES_NON_INTERLEAVED,
+
+  /**
+   * An {@code attribute} block inside a vertices section.
+   */
+
+  SECTION_ATTRIBUTE,
+
+  /**
+   * A {@code triangles} section.
+   */
+
+  SECTION_TRIANGLES,
+
+  /**
+   * A {@code metadata} section.
+   */
+
+  SECTION_METADATA
+}
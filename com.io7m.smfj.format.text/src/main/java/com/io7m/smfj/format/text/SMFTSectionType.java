@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text;
+
+import com.io7m.immutables.styles.ImmutablesStyleType;
+import com.io7m.smfj.core.SMFAttributeName;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * The start of a section in a text file.
+ */
+
+@ImmutablesStyleType
+@Value.Immutable
+public interface SMFTSectionType
+{
+  /**
+   * @return The kind of section
+   */
+
+  @Value.Parameter
+  SMFTSectionKind kind();
+
+  /**
+   * @return The offset in octets of the line that starts the section
+   */
+
+  @Value.Parameter
+  long offset();
+
+  /**
+   * @return The number of the line that starts the section
+   */
+
+  @Value.Parameter
+  int line();
+
+  /**
+   * @return The name of the attribute, for attribute sections
+   */
+
+  @Value.Parameter
+  Optional<SMFAttributeName> attribute();
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    if (this.kind() == SMFTSectionKind.SECTION_ATTRIBUTE
+      != this.attribute().isPresent()) {
+      throw new IllegalArgumentException(
+        "Only attribute sections must have attribute names");
+    }
+    if (this.offset() < 0L) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Offset %d must be non-negative",
+          Long.valueOf(this.offset())));
+    }
+    if (this.line() < 1) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Line %d must be positive",
+          Integer.valueOf(this.line())));
+    }
+  }
+}
@@ -19,7 +19,7 @@
  */
 
 @Export
-@Version("1.0.0")
+@Version("1.6.0")
 
 @Capability(
   namespace = "com.io7m.smf.format",
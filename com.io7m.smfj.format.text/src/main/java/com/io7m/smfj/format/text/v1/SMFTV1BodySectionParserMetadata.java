@@ -22,7 +22,7 @@ import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFSchemaName;
 import com.io7m.smfj.core.SMFWarningType;
-import com.io7m.smfj.format.text.SMFBase64Lines;
+import com.io7m.smfj.format.text.SMFBase64LineDecoder;
 import com.io7m.smfj.format.text.SMFTBodySectionParserType;
 import com.io7m.smfj.format.text.SMFTLineReaderType;
 import com.io7m.smfj.format.text.SMFTParsingStatus;
@@ -30,7 +30,6 @@ import com.io7m.smfj.parser.api.SMFParseError;
 import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -143,7 +142,15 @@ public final class SMFTV1BodySectionParserMetadata
     final int lines)
     throws IOException
   {
-    final ArrayList<String> lines_saved = new ArrayList<>();
+    /*
+     * Decode each line as it is read so that the encoded text is never
+     * accumulated in memory.
+     */
+
+    final SMFBase64LineDecoder decoder =
+      SMFBase64LineDecoder.create(Integer.toUnsignedLong(lines));
+
+    List<String> data_line = List.of();
     for (int index = 0; Integer.compareUnsigned(index, lines) < 0; ++index) {
       final Optional<List<String>> data_line_opt = this.reader.line();
       if (!data_line_opt.isPresent()) {
@@ -154,10 +161,8 @@ public final class SMFTV1BodySectionParserMetadata
         return FAILURE;
       }
 
-      final List<String> data_line = data_line_opt.get();
-      if (data_line.size() == 1) {
-        lines_saved.add(data_line.get(0));
-      } else {
+      data_line = data_line_opt.get();
+      if (data_line.size() != 1) {
         receiver.onError(SMFTErrors.errorExpectedGot(
           "Cannot parse base64 encoded data.",
           "Base64 encoded data",
@@ -165,21 +170,37 @@ public final class SMFTV1BodySectionParserMetadata
           this.reader.position()));
         return FAILURE;
       }
+
+      try {
+        decoder.addLine(data_line.get(0));
+      } catch (final IllegalArgumentException e) {
+        return this.failDecoding(receiver, data_line, e);
+      }
     }
 
+    final byte[] data;
     try {
-      final byte[] data = SMFBase64Lines.fromBase64Lines(lines_saved);
-      receiver.onMetaData(schema, data);
-      return SUCCESS;
-    } catch (final Exception e) {
-      receiver.onError(SMFTErrors.errorExpectedGotWithException(
-        "Cannot parse base64 encoded data.",
-        "Base64 encoded data",
-        List.copyOf(lines_saved),
-        this.reader.position(),
-        e));
-      return FAILURE;
+      data = decoder.finish();
+    } catch (final IllegalArgumentException e) {
+      return this.failDecoding(receiver, data_line, e);
     }
+
+    receiver.onMetaData(schema, data);
+    return SUCCESS;
+  }
+
+  private SMFTParsingStatus failDecoding(
+    final SMFParserEventsDataMetaType receiver,
+    final List<String> data_line,
+    final Exception e)
+  {
+    receiver.onError(SMFTErrors.errorExpectedGotWithException(
+      "Cannot parse base64 encoded data.",
+      "Base64 encoded data",
+      data_line,
+      this.reader.position(),
+      e));
+    return FAILURE;
   }
 
   private static final class IgnoringMetaReceiver
@@ -16,9 +16,12 @@
 
 package com.io7m.smfj.format.text.v1;
 
+import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.format.text.SMFTBodySectionParserType;
+import com.io7m.smfj.format.text.SMFTByteLineLexer;
 import com.io7m.smfj.format.text.SMFTLineReaderType;
+import com.io7m.smfj.format.text.SMFTParallelDecoder;
 import com.io7m.smfj.format.text.SMFTParsingStatus;
 import com.io7m.smfj.format.text.implementation.Flags;
 import com.io7m.smfj.parser.api.SMFParseError;
@@ -54,6 +57,8 @@ public final class SMFTV1BodySectionParserTriangles implements
   private final SMFTLineReaderType reader;
   private final Supplier<SMFHeader> header_get;
   private final BitSet state;
+  private final SMFTByteLineLexer bytes;
+  private final Optional<SMFTParallelDecoder> parallel;
 
   /**
    * Construct a parser.
@@ -67,10 +72,30 @@ public final class SMFTV1BodySectionParserTriangles implements
     final Supplier<SMFHeader> in_header_get,
     final SMFTLineReaderType in_reader,
     final BitSet in_state)
+  {
+    this(in_header_get, in_reader, in_state, Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param in_header_get A function that yields a header
+   * @param in_reader     A line reader
+   * @param in_state      The current state
+   * @param in_parallel   A decoder used to parse data in parallel, if any
+   */
+
+  public SMFTV1BodySectionParserTriangles(
+    final Supplier<SMFHeader> in_header_get,
+    final SMFTLineReaderType in_reader,
+    final BitSet in_state,
+    final Optional<SMFTParallelDecoder> in_parallel)
   {
     this.header_get = Objects.requireNonNull(in_header_get, "Header");
     this.reader = Objects.requireNonNull(in_reader, "Reader");
     this.state = Objects.requireNonNull(in_state, "State");
+    this.parallel = Objects.requireNonNull(in_parallel, "Parallel");
+    this.bytes = new SMFTByteLineLexer();
   }
 
   private static SMFParserEventsDataTrianglesType makeTriangleReceiver(
@@ -164,34 +189,25 @@ public final class SMFTV1BodySectionParserTriangles implements
       final SMFHeader header = this.header_get.get();
       final long triangle_count = header.triangles().triangleCount();
       long triangles_remaining = triangle_count;
+      if (this.parallel.isPresent()) {
+        triangles_remaining = Math.subtractExact(
+          triangles_remaining,
+          this.parallel.get().triangles(triangle_count, tri_receiver));
+      }
+
       boolean encountered_end = false;
       while (!encountered_end) {
-        final Optional<List<String>> line_opt = this.reader.line();
-        if (!line_opt.isPresent()) {
-          receiver.onError(unexpectedEOF(this.reader));
-          return FAILURE;
-        }
-
-        final List<String> line = line_opt.get();
-        if (line.isEmpty()) {
-          continue;
-        }
-
-        switch (line.get(0)) {
-          case "end": {
+        switch (this.parseTriangleLine(receiver, tri_receiver)) {
+          case LINE_EMPTY:
+            break;
+          case LINE_END:
             encountered_end = true;
             break;
-          }
-          default: {
-            switch (this.parseAttributeElementUnsigned3(tri_receiver, line)) {
-              case SUCCESS:
-                triangles_remaining =
-                  Math.subtractExact(triangles_remaining, 1L);
-                break;
-              case FAILURE:
-                return FAILURE;
-            }
-          }
+          case LINE_TRIANGLE:
+            triangles_remaining = Math.subtractExact(triangles_remaining, 1L);
+            break;
+          case LINE_FAILURE:
+            return FAILURE;
         }
       }
 
@@ -207,6 +223,56 @@ public final class SMFTV1BodySectionParserTriangles implements
     }
   }
 
+  private LineResult parseTriangleLine(
+    final SMFParserEventsBodyType receiver,
+    final SMFParserEventsDataTrianglesType tri_receiver)
+    throws IOException
+  {
+    if (!this.reader.lineBytes(this.bytes)) {
+      receiver.onError(unexpectedEOF(this.reader));
+      return LineResult.LINE_FAILURE;
+    }
+
+    if (this.bytes.isEmpty()) {
+      return LineResult.LINE_EMPTY;
+    }
+
+    /*
+     * Try to read the triangle directly from the bytes of the line. If
+     * that fails for any reason, lex the line and parse it as text so
+     * that values and error messages are exactly as they would be
+     * otherwise.
+     */
+
+    final SMFTByteLineLexer b = this.bytes;
+    b.rewind();
+    final long v0 = b.nextUnsigned();
+    final long v1 = b.nextUnsigned();
+    final long v2 = b.nextUnsigned();
+    if (b.isCompleteSuccess()) {
+      tri_receiver.onDataTriangle(v0, v1, v2);
+      return LineResult.LINE_TRIANGLE;
+    }
+
+    final List<String> line = b.lex();
+    if (line.isEmpty()) {
+      return LineResult.LINE_EMPTY;
+    }
+
+    if ("end".equals(line.get(0))) {
+      return LineResult.LINE_END;
+    }
+
+    switch (this.parseAttributeElementUnsigned3(tri_receiver, line)) {
+      case SUCCESS:
+        return LineResult.LINE_TRIANGLE;
+      case FAILURE:
+        return LineResult.LINE_FAILURE;
+    }
+
+    throw new UnreachableCodeException();
+  }
+
   private SMFTParsingStatus parseAttributeElementUnsigned3(
     final SMFParserEventsDataTrianglesType receiver,
     final List<String> line)
@@ -236,4 +302,11 @@ public final class SMFTV1BodySectionParserTriangles implements
     return FAILURE;
   }
 
+  private enum LineResult
+  {
+    LINE_EMPTY,
+    LINE_END,
+    LINE_TRIANGLE,
+    LINE_FAILURE
+  }
 }
@@ -24,12 +24,14 @@ import com.io7m.smfj.core.SMFErrorType;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFWarningType;
 import com.io7m.smfj.format.text.SMFTBodySectionParserType;
+import com.io7m.smfj.format.text.SMFTByteLineLexer;
 import com.io7m.smfj.format.text.SMFTLineReaderType;
+import com.io7m.smfj.format.text.SMFTParallelDecoder;
 import com.io7m.smfj.format.text.SMFTParsingStatus;
+import com.io7m.smfj.format.text.SMFTSection;
 import com.io7m.smfj.format.text.implementation.Flags;
 import com.io7m.smfj.parser.api.SMFParseError;
 import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
-import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesIgnoringReceiver;
 import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
 import java.io.IOException;
@@ -40,6 +42,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -58,6 +61,8 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
   private final SMFTLineReaderType reader;
   private final Supplier<SMFHeader> header_get;
   private final BitSet state;
+  private final SMFTByteLineLexer bytes;
+  private final Optional<SMFTParallelDecoder> parallel;
 
   /**
    * Construct a parser.
@@ -71,10 +76,30 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
     final Supplier<SMFHeader> in_header_get,
     final SMFTLineReaderType in_reader,
     final BitSet in_state)
+  {
+    this(in_header_get, in_reader, in_state, Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param in_header_get A function that yields a header
+   * @param in_reader     A line reader
+   * @param in_state      The current state
+   * @param in_parallel   A decoder used to parse data in parallel, if any
+   */
+
+  public SMFTV1BodySectionParserVerticesNonInterleaved(
+    final Supplier<SMFHeader> in_header_get,
+    final SMFTLineReaderType in_reader,
+    final BitSet in_state,
+    final Optional<SMFTParallelDecoder> in_parallel)
   {
     this.header_get = Objects.requireNonNull(in_header_get, "Header");
     this.reader = Objects.requireNonNull(in_reader, "Reader");
     this.state = Objects.requireNonNull(in_state, "State");
+    this.parallel = Objects.requireNonNull(in_parallel, "Parallel");
+    this.bytes = new SMFTByteLineLexer();
   }
 
   private static String remainingAttributes(
@@ -88,14 +113,6 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
       .collect(Collectors.joining(" "));
   }
 
-  private static SMFParserEventsDataAttributeValuesType makeValueReceiver(
-    final SMFParserEventsDataAttributesNonInterleavedType data_receiver,
-    final SMFAttribute attr)
-  {
-    return data_receiver.onDataAttributeStart(attr).orElseGet(
-      () -> new SMFParserEventsDataAttributeValuesIgnoringReceiver(data_receiver));
-  }
-
   private static SMFParserEventsDataAttributesNonInterleavedType makeDataReceiver(
     final SMFParserEventsBodyType receiver,
     final Optional<SMFParserEventsDataAttributesNonInterleavedType> data_receiver_opt)
@@ -152,7 +169,7 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
         switch (command_name) {
           case "attribute": {
             switch (this.parseAttribute(
-              header, attributes_done, data_receiver, line)) {
+              header, attributes_done, data_receiver, line, true)) {
               case SUCCESS:
                 break;
               case FAILURE:
@@ -170,28 +187,93 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
         }
       }
 
-      if (attributes_done.size() != header.attributesByName().size()) {
-        header.attributesByName().keySet().forEach(
-          name -> data_receiver.onError(SMFParseError.of(
+      return this.checkAttributesDone(header, attributes_done, data_receiver);
+    } finally {
+      data_receiver.onDataAttributesNonInterleavedFinish();
+    }
+  }
+
+  /**
+   * Parse a vertices section using the positions of its attributes recorded
+   * in a section index. The reader is only moved to the attributes that the
+   * receiver accepts; the lines of other attributes are not read at all.
+   *
+   * @param receiver   The receiver
+   * @param attributes The attribute sections, in file order
+   * @param seek       A function that moves the reader to the start of a
+   *                   section
+   *
+   * @return The parsing status
+   *
+   * @throws IOException On I/O errors
+   */
+
+  SMFTParsingStatus parseIndexed(
+    final SMFParserEventsBodyType receiver,
+    final List<SMFTSection> attributes,
+    final Consumer<SMFTSection> seek)
+    throws IOException
+  {
+    final HashSet<String> attributes_done = new HashSet<>();
+
+    final SMFParserEventsDataAttributesNonInterleavedType data_receiver =
+      makeDataReceiver(receiver, receiver.onAttributesNonInterleaved());
+
+    try {
+      final SMFHeader header = this.header_get.get();
+
+      for (final SMFTSection section : attributes) {
+        seek.accept(section);
+
+        final Optional<List<String>> line_opt = this.reader.line();
+        if (!line_opt.isPresent()) {
+          data_receiver.onError(SMFParseError.of(
             this.reader.position(),
-            String.format("No data specified for attribute '%s'", name.value()),
-            Optional.empty()
-          )));
-        return FAILURE;
+            "Unexpected EOF",
+            Optional.empty()));
+          return FAILURE;
+        }
+
+        switch (this.parseAttribute(
+          header, attributes_done, data_receiver, line_opt.get(), false)) {
+          case SUCCESS:
+            break;
+          case FAILURE:
+            return FAILURE;
+        }
       }
 
-      this.state.set(Flags.VERTICES_RECEIVED, true);
-      return SUCCESS;
+      return this.checkAttributesDone(header, attributes_done, data_receiver);
     } finally {
       data_receiver.onDataAttributesNonInterleavedFinish();
     }
   }
 
+  private SMFTParsingStatus checkAttributesDone(
+    final SMFHeader header,
+    final Set<String> attributes_done,
+    final SMFParserEventsDataAttributesNonInterleavedType data_receiver)
+  {
+    if (attributes_done.size() != header.attributesByName().size()) {
+      header.attributesByName().keySet().forEach(
+        name -> data_receiver.onError(SMFParseError.of(
+          this.reader.position(),
+          String.format("No data specified for attribute '%s'", name.value()),
+          Optional.empty()
+        )));
+      return FAILURE;
+    }
+
+    this.state.set(Flags.VERTICES_RECEIVED, true);
+    return SUCCESS;
+  }
+
   private SMFTParsingStatus parseAttribute(
     final SMFHeader header,
     final Set<String> attributes,
     final SMFParserEventsDataAttributesNonInterleavedType receiver,
-    final List<String> line)
+    final List<String> line,
+    final boolean skip_declined)
     throws IOException
   {
     if (line.size() == 2) {
@@ -222,10 +304,16 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
       final SMFAttribute attr = by_name.get(name);
       attributes.add(name.value());
 
-      final SMFParserEventsDataAttributeValuesType new_receiver =
-        makeValueReceiver(receiver, attr);
-      return this.parseAttributeNonInterleavedValues(
-        header, new_receiver, attr);
+      final Optional<SMFParserEventsDataAttributeValuesType> new_receiver =
+        receiver.onDataAttributeStart(attr);
+      if (new_receiver.isPresent()) {
+        return this.parseAttributeNonInterleavedValues(
+          header, new_receiver.get(), attr);
+      }
+      if (skip_declined) {
+        return this.skipAttributeNonInterleavedValues(header, receiver);
+      }
+      return SUCCESS;
     }
 
     receiver.onError(errorMalformedCommand(
@@ -241,9 +329,15 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
   {
     try {
       long vertices_remaining = header.vertexCount();
+      if (this.parallel.isPresent()) {
+        vertices_remaining = Math.subtractExact(
+          vertices_remaining,
+          this.parallel.get().attributeValues(
+            attribute, vertices_remaining, receiver));
+      }
+
       while (vertices_remaining > 0L) {
-        final Optional<List<String>> line_opt = this.reader.line();
-        if (!line_opt.isPresent()) {
+        if (!this.reader.lineBytes(this.bytes)) {
           receiver.onError(SMFParseError.of(
             this.reader.position(),
             "Unexpected EOF",
@@ -251,7 +345,23 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
           return FAILURE;
         }
 
-        final List<String> line = line_opt.get();
+        if (this.bytes.isEmpty()) {
+          continue;
+        }
+
+        /*
+         * Try to read the element directly from the bytes of the line. If
+         * that fails for any reason, lex the line and parse it as text so
+         * that values and error messages are exactly as they would be
+         * otherwise.
+         */
+
+        if (this.parseAttributeElementBytes(receiver, attribute)) {
+          vertices_remaining = Math.subtractExact(vertices_remaining, 1L);
+          continue;
+        }
+
+        final List<String> line = this.bytes.lex();
         if (line.isEmpty()) {
           continue;
         }
@@ -271,6 +381,204 @@ public final class SMFTV1BodySectionParserVerticesNonInterleaved implements
     }
   }
 
+  /**
+   * Skip the values of an attribute that the receiver declined. The lines are
+   * not lexed, and so the values are not checked for validity.
+   */
+
+  private SMFTParsingStatus skipAttributeNonInterleavedValues(
+    final SMFHeader header,
+    final SMFParserEventsDataAttributesNonInterleavedType receiver)
+    throws IOException
+  {
+    long vertices_remaining = header.vertexCount();
+    while (vertices_remaining > 0L) {
+      if (!this.reader.lineSkip()) {
+        receiver.onError(SMFParseError.of(
+          this.reader.position(),
+          "Unexpected EOF",
+          Optional.empty()));
+        return FAILURE;
+      }
+      vertices_remaining = Math.subtractExact(vertices_remaining, 1L);
+    }
+    return SUCCESS;
+  }
+
+  private boolean parseAttributeElementBytes(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final SMFAttribute attribute)
+  {
+    this.bytes.rewind();
+
+    switch (attribute.componentType()) {
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        return this.parseAttributeElementBytesSigned(
+          receiver, attribute.componentCount());
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        return this.parseAttributeElementBytesUnsigned(
+          receiver, attribute.componentCount());
+      }
+      case ELEMENT_TYPE_FLOATING: {
+        return this.parseAttributeElementBytesFloating(
+          receiver, attribute.componentCount());
+      }
+    }
+
+    throw new UnreachableCodeException();
+  }
+
+  private boolean parseAttributeElementBytesFloating(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int count)
+  {
+    final SMFTByteLineLexer b = this.bytes;
+    switch (count) {
+      case 1: {
+        final double x = b.nextDouble();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueFloat1(x);
+          return true;
+        }
+        return false;
+      }
+      case 2: {
+        final double x = b.nextDouble();
+        final double y = b.nextDouble();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueFloat2(x, y);
+          return true;
+        }
+        return false;
+      }
+      case 3: {
+        final double x = b.nextDouble();
+        final double y = b.nextDouble();
+        final double z = b.nextDouble();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueFloat3(x, y, z);
+          return true;
+        }
+        return false;
+      }
+      case 4: {
+        final double x = b.nextDouble();
+        final double y = b.nextDouble();
+        final double z = b.nextDouble();
+        final double w = b.nextDouble();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueFloat4(x, y, z, w);
+          return true;
+        }
+        return false;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private boolean parseAttributeElementBytesSigned(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int count)
+  {
+    final SMFTByteLineLexer b = this.bytes;
+    switch (count) {
+      case 1: {
+        final long x = b.nextSigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerSigned1(x);
+          return true;
+        }
+        return false;
+      }
+      case 2: {
+        final long x = b.nextSigned();
+        final long y = b.nextSigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerSigned2(x, y);
+          return true;
+        }
+        return false;
+      }
+      case 3: {
+        final long x = b.nextSigned();
+        final long y = b.nextSigned();
+        final long z = b.nextSigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerSigned3(x, y, z);
+          return true;
+        }
+        return false;
+      }
+      case 4: {
+        final long x = b.nextSigned();
+        final long y = b.nextSigned();
+        final long z = b.nextSigned();
+        final long w = b.nextSigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerSigned4(x, y, z, w);
+          return true;
+        }
+        return false;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
+  private boolean parseAttributeElementBytesUnsigned(
+    final SMFParserEventsDataAttributeValuesType receiver,
+    final int count)
+  {
+    final SMFTByteLineLexer b = this.bytes;
+    switch (count) {
+      case 1: {
+        final long x = b.nextUnsigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerUnsigned1(x);
+          return true;
+        }
+        return false;
+      }
+      case 2: {
+        final long x = b.nextUnsigned();
+        final long y = b.nextUnsigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerUnsigned2(x, y);
+          return true;
+        }
+        return false;
+      }
+      case 3: {
+        final long x = b.nextUnsigned();
+        final long y = b.nextUnsigned();
+        final long z = b.nextUnsigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerUnsigned3(x, y, z);
+          return true;
+        }
+        return false;
+      }
+      case 4: {
+        final long x = b.nextUnsigned();
+        final long y = b.nextUnsigned();
+        final long z = b.nextUnsigned();
+        final long w = b.nextUnsigned();
+        if (b.isCompleteSuccess()) {
+          receiver.onDataAttributeValueIntegerUnsigned4(x, y, z, w);
+          return true;
+        }
+        return false;
+      }
+      default: {
+        throw new UnreachableCodeException();
+      }
+    }
+  }
+
   private SMFTParsingStatus parseAttributeElement(
     final SMFParserEventsDataAttributeValuesType receiver,
     final SMFAttribute attribute,
@@ -19,14 +19,20 @@ package com.io7m.smfj.format.text.v1;
 import com.io7m.jaffirm.core.Invariants;
 import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.core.SMFFormatVersion;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.format.text.SMFTBodySectionParserType;
 import com.io7m.smfj.format.text.SMFTHeaderCommandParserType;
+import com.io7m.smfj.format.text.SMFTLineReaderMapped;
 import com.io7m.smfj.format.text.SMFTLineReaderType;
+import com.io7m.smfj.format.text.SMFTParallelDecoder;
 import com.io7m.smfj.format.text.SMFTParsingStatus;
+import com.io7m.smfj.format.text.SMFTSection;
+import com.io7m.smfj.format.text.SMFTSectionIndex;
+import com.io7m.smfj.format.text.SMFTSectionIndexCache;
 import com.io7m.smfj.parser.api.SMFParseError;
 import com.io7m.smfj.parser.api.SMFParseErrors;
 import com.io7m.smfj.parser.api.SMFParseWarnings;
@@ -36,6 +42,7 @@ import com.io7m.smfj.parser.api.SMFParserEventsType;
 import com.io7m.smfj.parser.api.SMFParserSequentialType;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
@@ -44,10 +51,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static com.io7m.smfj.format.text.SMFTParsingStatus.FAILURE;
 import static com.io7m.smfj.format.text.SMFTParsingStatus.SUCCESS;
+import static com.io7m.smfj.format.text.SMFTSectionKind.SECTION_ATTRIBUTE;
 import static com.io7m.smfj.format.text.implementation.Flags.TRIANGLES_REQUIRED;
 import static com.io7m.smfj.format.text.implementation.Flags.VERTICES_REQUIRED;
 
@@ -57,6 +68,9 @@ import static com.io7m.smfj.format.text.implementation.Flags.VERTICES_REQUIRED;
 
 public final class SMFTV1Parser implements SMFParserSequentialType
 {
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFTV1Parser.class);
+
   private final SMFParserEventsType events;
   private final SMFTLineReaderType reader;
   private final SMFFormatVersion version;
@@ -64,6 +78,10 @@ public final class SMFTV1Parser implements SMFParserSequentialType
   private final TreeMap<String, SMFTBodySectionParserType> body_commands;
   private final SMFHeader.Builder header_builder;
   private final BitSet state;
+  private final SMFTV1BodySectionParserVerticesNonInterleaved vertices;
+  private final Optional<SMFTLineReaderMapped> random_reader;
+  private final Optional<SMFTSectionIndexCache> random_indices;
+  private final Optional<FileTime> random_modified;
   private TreeMap<SMFAttributeName, Integer> attributes_lines;
   private Collection<SMFAttribute> attributes_list;
   private SMFHeader header;
@@ -83,6 +101,90 @@ public final class SMFTV1Parser implements SMFParserSequentialType
     final SMFParserEventsType in_events,
     final SMFTLineReaderType in_reader)
   {
+    this(in_version, in_state, in_events, in_reader, Optional.empty());
+  }
+
+  /**
+   * Construct a parser.
+   *
+   * @param in_version  The format version
+   * @param in_state    Parser state
+   * @param in_events   An event receiver
+   * @param in_reader   A line reader
+   * @param in_parallel A decoder used to parse attribute and triangle data
+   *                    in parallel, if any
+   */
+
+  public SMFTV1Parser(
+    final SMFFormatVersion in_version,
+    final BitSet in_state,
+    final SMFParserEventsType in_events,
+    final SMFTLineReaderType in_reader,
+    final Optional<SMFTParallelDecoder> in_parallel)
+  {
+    this(
+      in_version,
+      in_state,
+      in_events,
+      in_reader,
+      in_parallel,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty());
+  }
+
+  /**
+   * Construct a random-access parser. The body of the file is parsed using
+   * a section index taken from the given cache, or built and added to the
+   * cache if the cache does not contain a usable index. Only the sections
+   * and attributes accepted by the event receiver are read.
+   *
+   * @param in_version  The format version
+   * @param in_state    Parser state
+   * @param in_events   An event receiver
+   * @param in_reader   A line reader
+   * @param in_indices  A section index cache
+   * @param in_modified The modification time of the file, if known
+   */
+
+  public SMFTV1Parser(
+    final SMFFormatVersion in_version,
+    final BitSet in_state,
+    final SMFParserEventsType in_events,
+    final SMFTLineReaderMapped in_reader,
+    final SMFTSectionIndexCache in_indices,
+    final Optional<FileTime> in_modified)
+  {
+    this(
+      in_version,
+      in_state,
+      in_events,
+      in_reader,
+      Optional.empty(),
+      Optional.of(in_reader),
+      Optional.of(in_indices),
+      in_modified);
+  }
+
+  private SMFTV1Parser(
+    final SMFFormatVersion in_version,
+    final BitSet in_state,
+    final SMFParserEventsType in_events,
+    final SMFTLineReaderType in_reader,
+    final Optional<SMFTParallelDecoder> in_parallel,
+    final Optional<SMFTLineReaderMapped> in_random_reader,
+    final Optional<SMFTSectionIndexCache> in_random_indices,
+    final Optional<FileTime> in_random_modified)
+  {
+    Objects.requireNonNull(in_parallel, "Parallel");
+
+    this.random_reader =
+      Objects.requireNonNull(in_random_reader, "Random reader");
+    this.random_indices =
+      Objects.requireNonNull(in_random_indices, "Random indices");
+    this.random_modified =
+      Objects.requireNonNull(in_random_modified, "Random modified");
+
     this.version = Objects.requireNonNull(in_version, "Version");
     this.state = Objects.requireNonNull(in_state, "State");
     this.events = Objects.requireNonNull(in_events, "Events");
@@ -116,13 +218,15 @@ public final class SMFTV1Parser implements SMFParserSequentialType
     this.registerHeaderCommand(
       new SMFTV1HeaderCommandEndianness(this.reader, this.header_builder));
 
-    this.body_commands = new TreeMap<>();
-    this.registerBodyCommand(
+    this.vertices =
       new SMFTV1BodySectionParserVerticesNonInterleaved(
-        () -> this.header, this.reader, this.state));
+        () -> this.header, this.reader, this.state, in_parallel);
+
+    this.body_commands = new TreeMap<>();
+    this.registerBodyCommand(this.vertices);
     this.registerBodyCommand(
       new SMFTV1BodySectionParserTriangles(
-        () -> this.header, this.reader, this.state));
+        () -> this.header, this.reader, this.state, in_parallel));
     this.registerBodyCommand(
       new SMFTV1BodySectionParserMetadata(
         () -> this.header, this.reader));
@@ -243,6 +347,12 @@ public final class SMFTV1Parser implements SMFParserSequentialType
     }
 
     final SMFParserEventsBodyType data_receiver = r_opt.get();
+    if (this.random_reader.isPresent()) {
+      this.parseBodyRandomAccess(
+        data_receiver, this.random_reader.get(), this.random_indices.get());
+      return;
+    }
+
     switch (this.parseBodyCommands(data_receiver)) {
       case SUCCESS:
         break;
@@ -251,6 +361,131 @@ public final class SMFTV1Parser implements SMFParserSequentialType
     }
   }
 
+  private SMFTParsingStatus parseBodyRandomAccess(
+    final SMFParserEventsBodyType receiver,
+    final SMFTLineReaderMapped mapped,
+    final SMFTSectionIndexCache indices)
+    throws Exception
+  {
+    final URI uri = this.reader.position().file().orElseThrow();
+    final int body_offset = mapped.offset();
+    final int body_line = mapped.position().line();
+
+    /*
+     * A cached index is only used if the section commands are still at
+     * the indexed offsets. The file may have been edited without changing
+     * its size or modification time.
+     */
+
+    Optional<SMFTSectionIndex> index_opt =
+      indices.find(uri, mapped.size(), this.random_modified)
+        .filter(index -> index.bodyOffset() == (long) body_offset);
+
+    if (index_opt.isPresent()) {
+      if (!SMFTV1SectionIndexer.check(mapped, index_opt.get())) {
+        LOG.debug("{}: cached index is stale", uri);
+        index_opt = Optional.empty();
+      }
+      mapped.seek(body_offset, body_line);
+    }
+
+    if (!index_opt.isPresent()) {
+      index_opt =
+        SMFTV1SectionIndexer.index(mapped, this.header, this.random_modified);
+      if (index_opt.isPresent()) {
+        indices.put(uri, index_opt.get());
+      } else {
+        indices.remove(uri);
+      }
+      mapped.seek(body_offset, body_line);
+    }
+
+    /*
+     * A file that cannot be indexed has some structural problem in its
+     * body. Parse it sequentially so that the problem is reported in the
+     * usual manner.
+     */
+
+    if (!index_opt.isPresent()) {
+      LOG.debug("{}: body could not be indexed; parsing sequentially", uri);
+      return this.parseBodyCommands(receiver);
+    }
+
+    return this.parseBodyIndexed(receiver, mapped, index_opt.get());
+  }
+
+  private SMFTParsingStatus parseBodyIndexed(
+    final SMFParserEventsBodyType receiver,
+    final SMFTLineReaderMapped mapped,
+    final SMFTSectionIndex index)
+    throws Exception
+  {
+    final Consumer<SMFTSection> seek =
+      section -> mapped.seek(
+        Math.toIntExact(section.offset()),
+        section.line() - 1);
+
+    final List<SMFTSection> sections = index.sections();
+    int section_index = 0;
+    while (section_index < sections.size()) {
+      final SMFTSection section = sections.get(section_index);
+      ++section_index;
+
+      final SMFTParsingStatus status;
+      switch (section.kind()) {
+        case SECTION_VERTICES_NON_INTERLEAVED: {
+          final int first = section_index;
+          while (section_index < sections.size()
+            && sections.get(section_index).kind() == SECTION_ATTRIBUTE) {
+            ++section_index;
+          }
+          status = this.vertices.parseIndexed(
+            receiver, sections.subList(first, section_index), seek);
+          break;
+        }
+        case SECTION_TRIANGLES:
+        case SECTION_METADATA: {
+          seek.accept(section);
+          final List<String> line = this.reader.line().orElseThrow();
+          status = this.body_commands.get(line.get(0)).parse(receiver, line);
+          break;
+        }
+        case SECTION_ATTRIBUTE:
+        default: {
+          throw new UnreachableCodeException();
+        }
+      }
+
+      /*
+       * After a section fails, continue exactly as a sequential parser
+       * would from the point of failure.
+       */
+
+      switch (status) {
+        case SUCCESS:
+          continue;
+        case FAILURE:
+          switch (SMFTSections.skipUntilEnd(this.reader, receiver)) {
+            case SUCCESS:
+              return this.parseBodyCommands(receiver);
+            case FAILURE:
+              return FAILURE;
+          }
+          break;
+      }
+    }
+
+    /*
+     * Finish by reading past the end of the file, as a sequential parser
+     * would, so that any errors reported after the body have the same
+     * positions.
+     */
+
+    mapped.seek(mapped.size(), index.lineCount());
+    this.reader.line();
+    return SUCCESS;
+  }
+
   private SMFTParsingStatus parseBodyCommands(
     final SMFParserEventsBodyType receiver)
     throws Exception
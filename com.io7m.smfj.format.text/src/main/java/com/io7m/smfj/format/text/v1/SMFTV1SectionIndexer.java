@@ -0,0 +1,318 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.text.v1;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.format.text.SMFTByteLineLexer;
+import com.io7m.smfj.format.text.SMFTLineReaderMapped;
+import com.io7m.smfj.format.text.SMFTSection;
+import com.io7m.smfj.format.text.SMFTSectionIndex;
+import com.io7m.smfj.format.text.SMFTSectionKind;
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Functions to build section indices for the body of 1.* files.
+ */
+
+final class SMFTV1SectionIndexer
+{
+  private SMFTV1SectionIndexer()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * <p>Build an index of the body sections that follow the header. The reader
+   * must be positioned at the first line after the header, and is left at an
+   * unspecified position.</p>
+   *
+   * <p>The data lines of sections are counted, but are not lexed or parsed. Any
+   * problem with the structure of the body, such as an unrecognized command
+   * or a section with too few lines, causes indexing to fail so that the
+   * caller can fall back to parsing the body sequentially and reporting the
+   * problem in the usual manner.</p>
+   *
+   * @param reader   The line reader
+   * @param header   The parsed header
+   * @param modified The modification time of the file, if known
+   *
+   * @return An index, or nothing if the body could not be indexed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static Optional<SMFTSectionIndex> index(
+    final SMFTLineReaderMapped reader,
+    final SMFHeader header,
+    final Optional<FileTime> modified)
+    throws IOException
+  {
+    final SMFTSectionIndex.Builder builder = SMFTSectionIndex.builder();
+    builder.setFileSize(reader.size());
+    builder.setFileLastModified(modified);
+    builder.setBodyOffset(reader.offset());
+
+    final List<SMFTSection> sections = new ArrayList<>();
+    while (true) {
+      final int offset = reader.offset();
+      final Optional<List<String>> line_opt = reader.line();
+      if (!line_opt.isPresent()) {
+        builder.setSections(sections);
+        builder.setLineCount(reader.position().line() - 1);
+        return Optional.of(builder.build());
+      }
+
+      final List<String> line = line_opt.get();
+      if (line.isEmpty()) {
+        continue;
+      }
+
+      final int line_number = reader.position().line();
+      switch (line.get(0)) {
+        case "vertices-noninterleaved": {
+          sections.add(SMFTSection.of(
+            SMFTSectionKind.SECTION_VERTICES_NON_INTERLEAVED,
+            offset,
+            line_number,
+            Optional.empty()));
+          if (!indexAttributes(reader, header, sections)) {
+            return Optional.empty();
+          }
+          break;
+        }
+        case "triangles": {
+          sections.add(SMFTSection.of(
+            SMFTSectionKind.SECTION_TRIANGLES,
+            offset,
+            line_number,
+            Optional.empty()));
+          if (!indexTriangles(reader, header)) {
+            return Optional.empty();
+          }
+          break;
+        }
+        case "metadata": {
+          sections.add(SMFTSection.of(
+            SMFTSectionKind.SECTION_METADATA,
+            offset,
+            line_number,
+            Optional.empty()));
+          if (!indexMetadata(reader, line)) {
+            return Optional.empty();
+          }
+          break;
+        }
+        default: {
+          return Optional.empty();
+        }
+      }
+    }
+  }
+
+  /**
+   * <p>Check that an index still describes the body of a file. Each section
+   * offset must be the start of a line, the offsets must be increasing, and
+   * the line at each offset must be the command that starts the indexed
+   * section. The reader is left at an unspecified position.</p>
+   *
+   * <p>The data lines of sections are not read, and so a file that has been
+   * edited without moving any section command passes the check. The offsets
+   * in the index remain correct for such a file.</p>
+   *
+   * @param reader The line reader
+   * @param index  The index
+   *
+   * @return {@code true} if the index matches the body of the file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static boolean check(
+    final SMFTLineReaderMapped reader,
+    final SMFTSectionIndex index)
+    throws IOException
+  {
+    long offset_previous = index.bodyOffset() - 1L;
+    for (final SMFTSection section : index.sections()) {
+      final long offset = section.offset();
+      if (offset <= offset_previous || offset >= (long) reader.size()) {
+        return false;
+      }
+      offset_previous = offset;
+
+      final int offset_int = (int) offset;
+      if (!reader.isLineStart(offset_int)) {
+        return false;
+      }
+
+      reader.seek(offset_int, section.line() - 1);
+      final Optional<List<String>> line_opt = reader.line();
+      if (!line_opt.isPresent()) {
+        return false;
+      }
+      if (!isSectionCommand(section, line_opt.get())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSectionCommand(
+    final SMFTSection section,
+    final List<String> line)
+  {
+    switch (section.kind()) {
+      case SECTION_VERTICES_NON_INTERLEAVED:
+        return List.of("vertices-noninterleaved").equals(line);
+      case SECTION_ATTRIBUTE:
+        return List.of("attribute", section.attribute().orElseThrow().value())
+          .equals(line);
+      case SECTION_TRIANGLES:
+        return List.of("triangles").equals(line);
+      case SECTION_METADATA:
+        return line.size() == 5 && "metadata".equals(line.get(0));
+    }
+    throw new UnreachableCodeException();
+  }
+
+  private static boolean indexAttributes(
+    final SMFTLineReaderMapped reader,
+    final SMFHeader header,
+    final List<SMFTSection> sections)
+    throws IOException
+  {
+    while (true) {
+      final int offset = reader.offset();
+      final Optional<List<String>> line_opt = reader.line();
+      if (!line_opt.isPresent()) {
+        return false;
+      }
+
+      final List<String> line = line_opt.get();
+      if (line.isEmpty()) {
+        continue;
+      }
+
+      switch (line.get(0)) {
+        case "attribute": {
+          if (line.size() != 2) {
+            return false;
+          }
+
+          final SMFAttributeName name;
+          try {
+            name = SMFAttributeName.of(line.get(1));
+          } catch (final IllegalArgumentException e) {
+            return false;
+          }
+
+          sections.add(SMFTSection.of(
+            SMFTSectionKind.SECTION_ATTRIBUTE,
+            offset,
+            reader.position().line(),
+            Optional.of(name)));
+
+          if (!skipLines(reader, header.vertexCount())) {
+            return false;
+          }
+          break;
+        }
+        case "end": {
+          return line.size() == 1;
+        }
+        default: {
+          return false;
+        }
+      }
+    }
+  }
+
+  private static boolean indexTriangles(
+    final SMFTLineReaderMapped reader,
+    final SMFHeader header)
+    throws IOException
+  {
+    if (!skipLines(reader, header.triangles().triangleCount())) {
+      return false;
+    }
+
+    while (true) {
+      final Optional<List<String>> line_opt = reader.line();
+      if (!line_opt.isPresent()) {
+        return false;
+      }
+
+      final List<String> line = line_opt.get();
+      if (line.isEmpty()) {
+        continue;
+      }
+      return List.of("end").equals(line);
+    }
+  }
+
+  private static boolean indexMetadata(
+    final SMFTLineReaderMapped reader,
+    final List<String> line)
+    throws IOException
+  {
+    if (line.size() != 5) {
+      return false;
+    }
+
+    final int count;
+    try {
+      count = Integer.parseUnsignedInt(line.get(4));
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+
+    /*
+     * The metadata parser does not permit empty lines, so each of the lines
+     * is read here rather than skipped.
+     */
+
+    final SMFTByteLineLexer bytes = new SMFTByteLineLexer();
+    for (int index = 0; Integer.compareUnsigned(index, count) < 0; ++index) {
+      if (!reader.lineBytes(bytes)) {
+        return false;
+      }
+      if (bytes.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean skipLines(
+    final SMFTLineReaderMapped reader,
+    final long count)
+    throws IOException
+  {
+    for (long index = 0L; Long.compareUnsigned(index, count) < 0; ++index) {
+      if (!reader.lineSkip()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -25,6 +25,7 @@ import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFTriangles;
 import com.io7m.smfj.format.text.SMFBase64Lines;
+import com.io7m.smfj.format.text.SMFTNumberFormatter;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
@@ -39,7 +40,6 @@ import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -55,6 +55,8 @@ public final class SMFTV1Serializer implements SMFSerializerType
 {
   private final SMFFormatVersion version;
   private final BufferedWriter writer;
+  private final SMFTNumberFormatter formatter;
+  private final boolean narrow_floats;
   private boolean done_header;
   private boolean done_vertices;
   private SMFHeader header;
@@ -73,6 +75,28 @@ public final class SMFTV1Serializer implements SMFSerializerType
     final URI in_uri,
     final OutputStream in_stream)
   {
+    this(in_version, in_uri, in_stream, false);
+  }
+
+  /**
+   * Construct a serializer.
+   *
+   * @param in_version       The format version
+   * @param in_uri           The URI of the target, for diagnostic purposes
+   * @param in_stream        An output stream
+   * @param in_narrow_floats {@code true} if floating point values of
+   *                         attributes with components of at most 32 bits
+   *                         should be written as the shortest decimal that
+   *                         rounds to the {@code float} value
+   */
+
+  public SMFTV1Serializer(
+    final SMFFormatVersion in_version,
+    final URI in_uri,
+    final OutputStream in_stream,
+    final boolean in_narrow_floats)
+  {
+    this.narrow_floats = in_narrow_floats;
     this.version = Objects.requireNonNull(in_version, "Version");
 
     Preconditions.checkPreconditionI(
@@ -82,6 +106,7 @@ public final class SMFTV1Serializer implements SMFSerializerType
 
     this.writer = new BufferedWriter(
       new OutputStreamWriter(in_stream, StandardCharsets.UTF_8));
+    this.formatter = new SMFTNumberFormatter();
   }
 
   @Override
@@ -234,7 +259,8 @@ public final class SMFTV1Serializer implements SMFSerializerType
     try {
       this.writer.append("vertices-noninterleaved");
       this.writer.newLine();
-      return new VertexDataNonInterleaved(this.writer, this.header);
+      return new VertexDataNonInterleaved(
+        this.writer, this.formatter, this.header, this.narrow_floats);
     } finally {
       this.done_vertices = true;
     }
@@ -254,7 +280,7 @@ public final class SMFTV1Serializer implements SMFSerializerType
     try {
       this.writer.append("triangles");
       this.writer.newLine();
-      return new Triangles(this.writer, this.header);
+      return new Triangles(this.writer, this.formatter, this.header);
     } finally {
       this.done_triangles = true;
     }
@@ -270,7 +296,6 @@ public final class SMFTV1Serializer implements SMFSerializerType
       throw new IllegalStateException("Header has not yet been serialized");
     }
 
-    final List<String> lines = SMFBase64Lines.toBase64Lines(data);
     this.writer.append("metadata ");
     this.writer.append(schema.name().value());
     this.writer.append(" ");
@@ -278,21 +303,11 @@ public final class SMFTV1Serializer implements SMFSerializerType
     this.writer.append(" ");
     this.writer.append(Integer.toUnsignedString(schema.versionMinor()));
     this.writer.append(" ");
-    this.writer.append(Integer.toUnsignedString(lines.size()));
+    this.writer.append(
+      Integer.toUnsignedString(SMFBase64Lines.lineCount(data.length)));
     this.writer.newLine();
 
-    try {
-      lines.forEach(line -> {
-        try {
-          this.writer.append(line);
-          this.writer.newLine();
-        } catch (final IOException e) {
-          throw new UncheckedIOException(e);
-        }
-      });
-    } catch (final UncheckedIOException e) {
-      throw e.getCause();
-    }
+    SMFBase64Lines.writeBase64Lines(data, this.writer, System.lineSeparator());
 
     this.writer.append("end");
     this.writer.newLine();
@@ -312,12 +327,18 @@ public final class SMFTV1Serializer implements SMFSerializerType
     private final SMFHeader header;
     private final Deque<SMFAttribute> queue;
     private final BufferedWriter writer;
+    private final SMFTNumberFormatter formatter;
+    private final boolean narrow_floats;
 
     VertexDataNonInterleaved(
       final BufferedWriter in_writer,
-      final SMFHeader in_header)
+      final SMFTNumberFormatter in_formatter,
+      final SMFHeader in_header,
+      final boolean in_narrow_floats)
     {
+      this.narrow_floats = in_narrow_floats;
       this.writer = Objects.requireNonNull(in_writer, "Writer");
+      this.formatter = Objects.requireNonNull(in_formatter, "Formatter");
       this.header = Objects.requireNonNull(in_header, "Header");
       this.queue = new LinkedList<>();
       this.header.attributesInOrder().forEach(this.queue::add);
@@ -358,8 +379,10 @@ public final class SMFTV1Serializer implements SMFSerializerType
 
       return new ValuesNonInterleaved(
         this.writer,
+        this.formatter,
         this.header.vertexCount(),
-        this.queue.poll());
+        this.queue.poll(),
+        this.narrow_floats);
     }
 
     @Override
@@ -387,16 +410,30 @@ public final class SMFTV1Serializer implements SMFSerializerType
   {
     private final SMFAttribute attribute;
     private final BufferedWriter writer;
+    private final SMFTNumberFormatter formatter;
+    private final int size_bits;
     private long vertices;
 
     ValuesNonInterleaved(
       final BufferedWriter in_writer,
+      final SMFTNumberFormatter in_formatter,
       final long in_vertices,
-      final SMFAttribute in_attribute)
+      final SMFAttribute in_attribute,
+      final boolean in_narrow_floats)
     {
       this.writer = Objects.requireNonNull(in_writer, "Writer");
+      this.formatter = Objects.requireNonNull(in_formatter, "Formatter");
       this.vertices = in_vertices;
       this.attribute = Objects.requireNonNull(in_attribute, "Attribute");
+
+      /*
+       * Values are written at full double precision unless narrowing has
+       * been requested, because readers such as the memory mesh producer
+       * keep the parsed double values as they are.
+       */
+
+      this.size_bits =
+        in_narrow_floats ? this.attribute.componentSizeBits() : 64;
     }
 
     @Override
@@ -410,13 +447,16 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_FLOATING, 4);
       this.checkVerticesRemaining();
 
-      this.writer.append(Double.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(y));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(z));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(w));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendFloating(x, this.size_bits);
+      f.append(' ');
+      f.appendFloating(y, this.size_bits);
+      f.append(' ');
+      f.appendFloating(z, this.size_bits);
+      f.append(' ');
+      f.appendFloating(w, this.size_bits);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -480,11 +520,14 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_FLOATING, 3);
       this.checkVerticesRemaining();
 
-      this.writer.append(Double.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(y));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(z));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendFloating(x, this.size_bits);
+      f.append(' ');
+      f.appendFloating(y, this.size_bits);
+      f.append(' ');
+      f.appendFloating(z, this.size_bits);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -497,9 +540,12 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_FLOATING, 2);
       this.checkVerticesRemaining();
 
-      this.writer.append(Double.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Double.toString(y));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendFloating(x, this.size_bits);
+      f.append(' ');
+      f.appendFloating(y, this.size_bits);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -511,7 +557,10 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_FLOATING, 1);
       this.checkVerticesRemaining();
 
-      this.writer.append(Double.toString(x));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendFloating(x, this.size_bits);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -526,13 +575,16 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_SIGNED, 4);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(y));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(z));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(w));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendSigned(x);
+      f.append(' ');
+      f.appendSigned(y);
+      f.append(' ');
+      f.appendSigned(z);
+      f.append(' ');
+      f.appendSigned(w);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -546,11 +598,14 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_SIGNED, 3);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(y));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(z));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendSigned(x);
+      f.append(' ');
+      f.appendSigned(y);
+      f.append(' ');
+      f.appendSigned(z);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -563,9 +618,12 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_SIGNED, 2);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toString(y));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendSigned(x);
+      f.append(' ');
+      f.appendSigned(y);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -577,7 +635,10 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_SIGNED, 1);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toString(x));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendSigned(x);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -592,13 +653,16 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_UNSIGNED, 4);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toUnsignedString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(y));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(z));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(w));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendUnsigned(x);
+      f.append(' ');
+      f.appendUnsigned(y);
+      f.append(' ');
+      f.appendUnsigned(z);
+      f.append(' ');
+      f.appendUnsigned(w);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -612,11 +676,14 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_UNSIGNED, 3);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toUnsignedString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(y));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(z));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendUnsigned(x);
+      f.append(' ');
+      f.appendUnsigned(y);
+      f.append(' ');
+      f.appendUnsigned(z);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -629,9 +696,12 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_UNSIGNED, 2);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toUnsignedString(x));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(y));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendUnsigned(x);
+      f.append(' ');
+      f.appendUnsigned(y);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -643,7 +713,10 @@ public final class SMFTV1Serializer implements SMFSerializerType
       this.checkType(ELEMENT_TYPE_INTEGER_UNSIGNED, 1);
       this.checkVerticesRemaining();
 
-      this.writer.append(Long.toUnsignedString(x));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendUnsigned(x);
+      f.writeTo(this.writer);
       this.writer.newLine();
     }
 
@@ -671,14 +744,17 @@ public final class SMFTV1Serializer implements SMFSerializerType
   private static final class Triangles implements SMFSerializerDataTrianglesType
   {
     private final BufferedWriter writer;
+    private final SMFTNumberFormatter formatter;
     private final SMFHeader header;
     private long remaining;
 
     Triangles(
       final BufferedWriter in_writer,
+      final SMFTNumberFormatter in_formatter,
       final SMFHeader in_header)
     {
       this.writer = Objects.requireNonNull(in_writer, "Writer");
+      this.formatter = Objects.requireNonNull(in_formatter, "Formatter");
       this.header = Objects.requireNonNull(in_header, "Header");
       this.remaining = this.header.triangles().triangleCount();
     }
@@ -702,11 +778,14 @@ public final class SMFTV1Serializer implements SMFSerializerType
         throw new IllegalStateException(text);
       }
 
-      this.writer.append(Long.toUnsignedString(v0));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(v1));
-      this.writer.append(" ");
-      this.writer.append(Long.toUnsignedString(v2));
+      final SMFTNumberFormatter f = this.formatter;
+      f.reset();
+      f.appendUnsigned(v0);
+      f.append(' ');
+      f.appendUnsigned(v1);
+      f.append(' ');
+      f.appendUnsigned(v2);
+      f.writeTo(this.writer);
       this.writer.newLine();
 
       this.remaining = Math.subtractExact(this.remaining, 1L);
@@ -23,6 +23,8 @@ module com.io7m.smfj.format.text
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
   requires static org.osgi.service.component.annotations;
+  requires static com.io7m.immutables.style;
+  requires static org.immutables.value;
 
   requires com.io7m.jaffirm.core;
   requires com.io7m.jcoords.core;
@@ -23,9 +23,11 @@ import com.io7m.jxe.core.JXESchemaResolutionMappings;
 import com.io7m.smfj.core.SMFFormatDescription;
 import com.io7m.smfj.core.SMFFormatVersion;
 import com.io7m.smfj.core.SMFPartialLogged;
+import com.io7m.smfj.format.xml.internal.SMFX;
 import com.io7m.smfj.format.xml.internal.SMFXParser;
 import com.io7m.smfj.format.xml.internal.SMFXProbe;
 import com.io7m.smfj.format.xml.internal.SMFXSerializer;
+import com.io7m.smfj.format.xml.internal.SMFXStreamParser;
 import com.io7m.smfj.parser.api.SMFParseErrors;
 import com.io7m.smfj.parser.api.SMFParserEventsType;
 import com.io7m.smfj.parser.api.SMFParserProviderType;
@@ -43,9 +45,11 @@ import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import org.osgi.service.component.annotations.Component;
@@ -70,26 +74,87 @@ public final class SMFFormatXML
       SMFFormatXML.class.getResource("/com/io7m/smfj/format/xml/schema-2.0.xsd")
     );
 
+  private static final JXESchemaDefinition SCHEMA_M2P1 =
+    JXESchemaDefinition.of(
+      URI.create("urn:com.io7m.smf:xml:2:1"),
+      "schema-2.1.xsd",
+      SMFFormatXML.class.getResource("/com/io7m/smfj/format/xml/schema-2.1.xsd")
+    );
+
   private static final JXESchemaResolutionMappings SCHEMAS =
     JXESchemaResolutionMappings.builder()
       .putMappings(URI.create("urn:com.io7m.smf:xml:2:0"), SCHEMA_M2P0)
+      .putMappings(URI.create("urn:com.io7m.smf:xml:2:1"), SCHEMA_M2P1)
       .build();
 
   private static final SMFFormatDescription FORMAT = makeFormat();
   private static final SortedSet<SMFFormatVersion> SUPPORTED = makeVersion();
+  private static final SortedSet<SMFFormatVersion> SUPPORTED_ELEMENTS =
+    Collections.unmodifiableSortedSet(
+      new TreeSet<>(Set.of(SMFFormatVersion.of(2, 0))));
   private final JXEHardenedSAXParsers parsers;
+  private final XMLInputFactory readers;
   private final XMLOutputFactory writers;
+  private final SMFFormatXMLParserKind parserKind;
+  private final SMFFormatXMLDataEncoding dataEncoding;
 
   /**
-   * Construct a format provider.
+   * Construct a format provider that uses the validating SAX parser.
    */
 
   public SMFFormatXML()
   {
+    this(SMFFormatXMLParserKind.PARSER_SAX_VALIDATING);
+  }
+
+  /**
+   * Construct a format provider that serializes version 2.0 documents.
+   *
+   * @param inParserKind The kind of parser used for sequential parsing
+   */
+
+  public SMFFormatXML(
+    final SMFFormatXMLParserKind inParserKind)
+  {
+    this(inParserKind, SMFFormatXMLDataEncoding.DATA_ELEMENTS);
+  }
+
+  /**
+   * Construct a format provider. Providers that use the
+   * {@link SMFFormatXMLDataEncoding#DATA_ELEMENTS} encoding only serialize
+   * version 2.0 documents, so that the latest version that they report is
+   * readable by all existing readers. Providers that use any other encoding
+   * also serialize version 2.1 documents.
+   *
+   * @param inParserKind   The kind of parser used for sequential parsing
+   * @param inDataEncoding The encoding of attribute and triangle data used
+   *                       when serializing version 2.1 (or later) documents
+   */
+
+  public SMFFormatXML(
+    final SMFFormatXMLParserKind inParserKind,
+    final SMFFormatXMLDataEncoding inDataEncoding)
+  {
+    this.parserKind =
+      Objects.requireNonNull(inParserKind, "parserKind");
+    this.dataEncoding =
+      Objects.requireNonNull(inDataEncoding, "dataEncoding");
     this.parsers = new JXEHardenedSAXParsers();
+    this.readers = createReaders();
     this.writers = XMLOutputFactory.newInstance();
   }
 
+  private static XMLInputFactory createReaders()
+  {
+    final var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(
+      XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+    return factory;
+  }
+
   private static SMFFormatDescription makeFormat()
   {
     final SMFFormatDescription.Builder b = SMFFormatDescription.builder();
@@ -105,6 +170,7 @@ public final class SMFFormatXML
   {
     final var supported = new TreeSet<SMFFormatVersion>();
     supported.add(SMFFormatVersion.of(2, 0));
+    supported.add(SMFFormatVersion.of(2, 1));
     return Collections.unmodifiableSortedSet(supported);
   }
 
@@ -131,6 +197,10 @@ public final class SMFFormatXML
     Objects.requireNonNull(uri, "uri");
     Objects.requireNonNull(stream, "stream");
 
+    if (this.parserKind == SMFFormatXMLParserKind.PARSER_STREAMING) {
+      return new SMFXStreamParser(events, uri, this.readers, stream);
+    }
+
     try {
       final var reader =
         this.parsers.createXMLReader(
@@ -188,6 +258,9 @@ public final class SMFFormatXML
   @Override
   public SortedSet<SMFFormatVersion> serializerSupportedVersions()
   {
+    if (this.dataEncoding == SMFFormatXMLDataEncoding.DATA_ELEMENTS) {
+      return SUPPORTED_ELEMENTS;
+    }
     return SUPPORTED;
   }
 
@@ -202,9 +275,25 @@ public final class SMFFormatXML
     Objects.requireNonNull(uri, "uri");
     Objects.requireNonNull(stream, "stream");
 
+    if (!this.serializerSupportedVersions().contains(version)) {
+      throw new UnsupportedOperationException(
+        String.format("Unsupported format version: %s", version));
+    }
+
+    final String namespaceURI = SMFX.namespaceOfVersion(version);
+
+    final SMFFormatXMLDataEncoding encoding;
+    if (SMFX.namespaceURI2p0().equals(namespaceURI)) {
+      encoding = SMFFormatXMLDataEncoding.DATA_ELEMENTS;
+    } else {
+      encoding = this.dataEncoding;
+    }
+
     try {
       return new SMFXSerializer(
-        this.writers.createXMLStreamWriter(stream, "UTF-8"))
+        this.writers.createXMLStreamWriter(stream, "UTF-8"),
+        namespaceURI,
+        encoding)
         .start();
     } catch (final XMLStreamException e) {
       throw new IOException(e);
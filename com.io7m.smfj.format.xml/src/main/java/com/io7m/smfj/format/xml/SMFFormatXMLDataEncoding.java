@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml;
+
+/**
+ * The available encodings of attribute and triangle data in serialized
+ * documents.
+ */
+
+public enum SMFFormatXMLDataEncoding
+{
+  /**
+   * Each attribute element and each triangle is written as a separate XML
+   * element, with each component written as an XML attribute. This is the
+   * only encoding available in version 2.0 of the format, and is the
+   * default.
+   */
+
+  DATA_ELEMENTS,
+
+  /**
+   * The values of each attribute, and all of the triangles, are written as
+   * whitespace-separated text in a single {@code DataText} element. Floating
+   * point values are written in the shortest form that is read back exactly.
+   */
+
+  DATA_TEXT,
+
+  /**
+   * The values of each attribute, and all of the triangles, are written as a
+   * packed array of components in a single {@code DataBase64} element. Each
+   * component occupies the number of bits declared for the attribute (or the
+   * triangle index size) and is stored in the byte order declared in the
+   * header.
+   */
+
+  DATA_BASE64
+}
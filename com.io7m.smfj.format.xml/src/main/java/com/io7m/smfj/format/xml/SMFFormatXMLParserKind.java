@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml;
+
+/**
+ * The available implementations of the XML parser.
+ */
+
+public enum SMFFormatXMLParserKind
+{
+  /**
+   * A SAX parser that validates documents against the XSD schema as they are
+   * parsed. This is the default.
+   */
+
+  PARSER_SAX_VALIDATING,
+
+  /**
+   * <p>A StAX parser that reads vertex and triangle data with a single tight
+   * loop. The parser publishes the same events as the validating parser for
+   * valid documents.</p>
+   *
+   * <p>The parser does not validate documents against the XSD schema.
+   * Instead, it checks the structure of documents, the attributes of each
+   * element, the syntax of numbers and names, and the uniqueness of
+   * attribute data as they are read. It stops at the first error, and its
+   * error messages differ from those of the schema validator, which may
+   * report several errors for the same document and may report errors that
+   * depend on later content (such as missing elements) at a different
+   * position. The checks mirror the constraints of the schema but are not
+   * derived from it, so applications that must reject exactly the documents
+   * that the schema rejects should use {@link #PARSER_SAX_VALIDATING}.</p>
+   */
+
+  PARSER_STREAMING
+}
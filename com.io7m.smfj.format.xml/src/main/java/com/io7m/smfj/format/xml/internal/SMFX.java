@@ -40,6 +40,7 @@ import org.xml.sax.Attributes;
 public final class SMFX implements BTElementHandlerType<Object, Object>
 {
   private final SMFParserEventsType events;
+  private final String namespaceURI;
   private SMFHeader header;
   private SMFParserEventsHeaderType eventsHeader;
   private SMFParserEventsBodyType eventsBody;
@@ -47,9 +48,13 @@ public final class SMFX implements BTElementHandlerType<Object, Object>
 
   public SMFX(
     final BTElementParsingContextType context,
+    final String inNamespaceURI,
     final SMFParserEventsType inEvents)
   {
-    this.events = Objects.requireNonNull(inEvents, "inEvents");
+    this.namespaceURI =
+      Objects.requireNonNull(inNamespaceURI, "namespaceURI");
+    this.events =
+      Objects.requireNonNull(inEvents, "inEvents");
   }
 
   public static String namespaceURI2p0()
@@ -57,26 +62,82 @@ public final class SMFX implements BTElementHandlerType<Object, Object>
     return "urn:com.io7m.smf:xml:2:0";
   }
 
+  /**
+   * The 2.1 namespace adds the {@code DataText} and {@code DataBase64}
+   * elements, which carry all of the values of an attribute, or all of the
+   * triangles, in a single element.
+   *
+   * @return The namespace URI of version 2.1 of the format
+   */
+
+  public static String namespaceURI2p1()
+  {
+    return "urn:com.io7m.smf:xml:2:1";
+  }
+
+  /**
+   * @param namespaceURI A namespace URI
+   *
+   * @return The format version denoted by the given namespace, if any
+   */
+
+  public static Optional<SMFFormatVersion> versionOfNamespace(
+    final String namespaceURI)
+  {
+    if (namespaceURI2p0().equals(namespaceURI)) {
+      return Optional.of(SMFFormatVersion.of(2, 0));
+    }
+    if (namespaceURI2p1().equals(namespaceURI)) {
+      return Optional.of(SMFFormatVersion.of(2, 1));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @param version A format version
+   *
+   * @return The namespace URI of the given format version
+   */
+
+  public static String namespaceOfVersion(
+    final SMFFormatVersion version)
+  {
+    if (version.major() == 2 && version.minor() == 0) {
+      return namespaceURI2p0();
+    }
+    if (version.major() == 2 && version.minor() == 1) {
+      return namespaceURI2p1();
+    }
+    throw new IllegalArgumentException(
+      String.format("Unsupported format version: %s", version));
+  }
+
   @Override
   public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>> onChildHandlersRequested(
     final BTElementParsingContextType context)
   {
     return Map.ofEntries(
       Map.entry(
-        BTQualifiedName.of(namespaceURI2p0(), "Header"),
-        c -> new SMFXHeader(c, this.events)
+        BTQualifiedName.of(this.namespaceURI, "Header"),
+        c -> new SMFXHeader(c, this.namespaceURI, this.events)
       ),
       Map.entry(
-        BTQualifiedName.of(namespaceURI2p0(), "VertexDataNonInterleaved"),
-        c -> new SMFXVertexDataNonInterleaved(c, this.header, this.eventsBody)
+        BTQualifiedName.of(this.namespaceURI, "VertexDataNonInterleaved"),
+        c -> new SMFXVertexDataNonInterleaved(
+          c, this.namespaceURI, this.header, this.eventsBody)
       ),
       Map.entry(
-        BTQualifiedName.of(namespaceURI2p0(), "Triangles"),
-        c -> new SMFXTriangles(c, this.triangleTracker, this.eventsBody)
+        BTQualifiedName.of(this.namespaceURI, "Triangles"),
+        c -> new SMFXTriangles(
+          c,
+          this.namespaceURI,
+          this.header,
+          this.triangleTracker,
+          this.eventsBody)
       ),
       Map.entry(
-        BTQualifiedName.of(namespaceURI2p0(), "Metadata"),
-        c -> new SMFXMetadata(c, this.eventsBody)
+        BTQualifiedName.of(this.namespaceURI, "Metadata"),
+        c -> new SMFXMetadata(c, this.namespaceURI, this.eventsBody)
       )
     );
   }
@@ -88,7 +149,8 @@ public final class SMFX implements BTElementHandlerType<Object, Object>
   {
     this.events.onStart();
     this.eventsHeader =
-      this.events.onVersionReceived(SMFFormatVersion.of(2, 0))
+      this.events.onVersionReceived(
+        versionOfNamespace(this.namespaceURI).orElseThrow())
         .orElse(new SMFParserEventsHeaderIgnoringReceiver(this.events));
   }
 
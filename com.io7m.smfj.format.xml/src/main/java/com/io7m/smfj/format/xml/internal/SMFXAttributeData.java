@@ -22,6 +22,7 @@ import com.io7m.blackthorne.api.BTElementHandlerType;
 import com.io7m.blackthorne.api.BTElementParsingContextType;
 import com.io7m.blackthorne.api.BTQualifiedName;
 import com.io7m.junreachable.UnimplementedCodeException;
+import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFVoid;
@@ -37,13 +38,18 @@ public final class SMFXAttributeData
 {
   private final SMFParserEventsDataAttributesNonInterleavedType events;
   private final SMFHeader header;
+  private final String namespaceURI;
+  private SMFAttribute attribute;
   private SMFParserEventsDataAttributeValuesType eventsValues;
 
   public SMFXAttributeData(
     final BTElementParsingContextType inContext,
+    final String inNamespaceURI,
     final SMFHeader inHeader,
     final SMFParserEventsDataAttributesNonInterleavedType inEvents)
   {
+    this.namespaceURI =
+      Objects.requireNonNull(inNamespaceURI, "namespaceURI");
     this.header =
       Objects.requireNonNull(inHeader, "header");
     this.events =
@@ -56,52 +62,68 @@ public final class SMFXAttributeData
   {
     return Map.ofEntries(
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeFloat4"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeFloat4"),
         c -> new SMFXAttributeFloat4(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeFloat3"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeFloat3"),
         c -> new SMFXAttributeFloat3(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeFloat2"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeFloat2"),
         c -> new SMFXAttributeFloat2(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeFloat1"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeFloat1"),
         c -> new SMFXAttributeFloat1(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerUnsigned4"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerUnsigned4"),
         c -> new SMFXAttributeIntegerUnsigned4(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerUnsigned3"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerUnsigned3"),
         c -> new SMFXAttributeIntegerUnsigned3(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerUnsigned2"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerUnsigned2"),
         c -> new SMFXAttributeIntegerUnsigned2(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerUnsigned1"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerUnsigned1"),
         c -> new SMFXAttributeIntegerUnsigned1(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerSigned4"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerSigned4"),
         c -> new SMFXAttributeIntegerSigned4(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerSigned3"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerSigned3"),
         c -> new SMFXAttributeIntegerSigned3(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerSigned2"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerSigned2"),
         c -> new SMFXAttributeIntegerSigned2(context, this.eventsValues)
       ),
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeIntegerSigned1"),
+        BTQualifiedName.of(this.namespaceURI, "AttributeIntegerSigned1"),
         c -> new SMFXAttributeIntegerSigned1(context, this.eventsValues)
+      ),
+      Map.entry(
+        BTQualifiedName.of(this.namespaceURI, "DataText"),
+        c -> new SMFXPackedData(
+          c,
+          this.events,
+          () -> SMFXPackedDecoders.attribute(
+            this.header, this.attribute, false, this.eventsValues))
+      ),
+      Map.entry(
+        BTQualifiedName.of(this.namespaceURI, "DataBase64"),
+        c -> new SMFXPackedData(
+          c,
+          this.events,
+          () -> SMFXPackedDecoders.attribute(
+            this.header, this.attribute, true, this.eventsValues))
       )
     );
   }
@@ -113,14 +135,14 @@ public final class SMFXAttributeData
   {
     final var attributeName =
       SMFAttributeName.of(attributes.getValue("name"));
-    final var attribute =
+    this.attribute =
       this.header.attributesByName().get(attributeName);
 
-    if (attribute == null) {
+    if (this.attribute == null) {
       throw new UnimplementedCodeException();
     }
 
-    this.eventsValues = this.events.onDataAttributeStart(attribute)
+    this.eventsValues = this.events.onDataAttributeStart(this.attribute)
       .orElse(new SMFParserEventsDataAttributeValuesIgnoringReceiver(this.events));
   }
 
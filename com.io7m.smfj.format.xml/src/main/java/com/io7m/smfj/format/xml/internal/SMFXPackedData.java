@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml.internal;
+
+import com.io7m.blackthorne.api.BTElementHandlerType;
+import com.io7m.blackthorne.api.BTElementParsingContextType;
+import com.io7m.smfj.core.SMFVoid;
+import com.io7m.smfj.parser.api.SMFParseError;
+import com.io7m.smfj.parser.api.SMFParserEventsErrorType;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+
+/**
+ * A handler for {@code DataText} and {@code DataBase64} elements.
+ */
+
+public final class SMFXPackedData
+  implements BTElementHandlerType<Object, SMFVoid>
+{
+  private final SMFParserEventsErrorType errors;
+  private final Supplier<SMFXPackedDecoder> decoders;
+  private SMFXPackedDecoder decoder;
+
+  public SMFXPackedData(
+    final BTElementParsingContextType context,
+    final SMFParserEventsErrorType inErrors,
+    final Supplier<SMFXPackedDecoder> inDecoders)
+  {
+    this.errors =
+      Objects.requireNonNull(inErrors, "errors");
+    this.decoders =
+      Objects.requireNonNull(inDecoders, "decoders");
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+    throws SAXException
+  {
+    try {
+      this.decoder = this.decoders.get();
+    } catch (final Exception e) {
+      throw context.parseException(e);
+    }
+  }
+
+  @Override
+  public void onCharacters(
+    final BTElementParsingContextType context,
+    final char[] data,
+    final int offset,
+    final int length)
+    throws SAXException
+  {
+    try {
+      this.decoder.characters(data, offset, length);
+    } catch (final Exception e) {
+      throw context.parseException(e);
+    }
+  }
+
+  @Override
+  public SMFVoid onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    try {
+      this.decoder.finish();
+    } catch (final Exception e) {
+      this.errors.onError(SMFParseError.of(
+        SMFXLexical.ofLocator(context.documentLocator()),
+        e.getMessage(),
+        Optional.of(e)));
+    }
+    return SMFVoid.void_();
+  }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml.internal;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.smfj.core.SMFComponentType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An incremental decoder for the content of {@code DataText} and
+ * {@code DataBase64} elements. Characters may be delivered in arbitrarily
+ * sized chunks; tokens and Base64 groups that span chunks are carried over.
+ * Each time a complete element (a vertex value or a triangle) has been
+ * decoded, it is passed to a consumer.
+ */
+
+public final class SMFXPackedDecoder
+{
+  private static final int[] BASE64_VALUES = makeBase64Values();
+
+  private final boolean base64;
+  private final SMFComponentType componentType;
+  private final int componentCount;
+  private final int componentSizeBits;
+  private final ElementConsumerType consumer;
+  private final double[] doubles;
+  private final long[] longs;
+  private final byte[] elementBytes;
+  private final ByteBuffer elementBuffer;
+  private char[] token;
+  private int tokenLength;
+  private int component;
+  private int elementBytesCount;
+  private int quad;
+  private int quadCount;
+  private int padding;
+  private long elements;
+
+  private SMFXPackedDecoder(
+    final boolean inBase64,
+    final SMFComponentType inComponentType,
+    final int inComponentCount,
+    final int inComponentSizeBits,
+    final ByteOrder inByteOrder,
+    final ElementConsumerType inConsumer)
+  {
+    this.base64 = inBase64;
+    this.componentType =
+      Objects.requireNonNull(inComponentType, "componentType");
+    this.componentCount = inComponentCount;
+    this.componentSizeBits = inComponentSizeBits;
+    this.consumer =
+      Objects.requireNonNull(inConsumer, "consumer");
+
+    if (this.componentCount < 1 || this.componentCount > 4) {
+      throw new IllegalArgumentException(
+        "Component count must be in the range [1, 4]");
+    }
+
+    this.doubles = new double[4];
+    this.longs = new long[4];
+    this.token = new char[32];
+
+    if (this.base64) {
+      checkSizeBits(this.componentType, this.componentSizeBits);
+      this.elementBytes =
+        new byte[(this.componentSizeBits / 8) * this.componentCount];
+      this.elementBuffer =
+        ByteBuffer.wrap(this.elementBytes)
+          .order(Objects.requireNonNull(inByteOrder, "byteOrder"));
+    } else {
+      this.elementBytes = new byte[0];
+      this.elementBuffer = ByteBuffer.wrap(this.elementBytes);
+    }
+  }
+
+  /**
+   * Create a decoder for whitespace-separated text.
+   *
+   * @param componentType  The component type
+   * @param componentCount The number of components per element
+   * @param consumer       The element consumer
+   *
+   * @return A new decoder
+   */
+
+  public static SMFXPackedDecoder createText(
+    final SMFComponentType componentType,
+    final int componentCount,
+    final ElementConsumerType consumer)
+  {
+    return new SMFXPackedDecoder(
+      false,
+      componentType,
+      componentCount,
+      64,
+      ByteOrder.BIG_ENDIAN,
+      consumer);
+  }
+
+  /**
+   * Create a decoder for Base64 encoded packed arrays.
+   *
+   * @param componentType     The component type
+   * @param componentCount    The number of components per element
+   * @param componentSizeBits The size of each packed component
+   * @param byteOrder         The byte order of the packed components
+   * @param consumer          The element consumer
+   *
+   * @return A new decoder
+   */
+
+  public static SMFXPackedDecoder createBase64(
+    final SMFComponentType componentType,
+    final int componentCount,
+    final int componentSizeBits,
+    final ByteOrder byteOrder,
+    final ElementConsumerType consumer)
+  {
+    return new SMFXPackedDecoder(
+      true,
+      componentType,
+      componentCount,
+      componentSizeBits,
+      byteOrder,
+      consumer);
+  }
+
+  private static void checkSizeBits(
+    final SMFComponentType type,
+    final int sizeBits)
+  {
+    final boolean valid;
+    switch (type) {
+      case ELEMENT_TYPE_FLOATING:
+        valid = sizeBits == 16 || sizeBits == 32 || sizeBits == 64;
+        break;
+      default:
+        valid = sizeBits == 8 || sizeBits == 16 || sizeBits == 32 || sizeBits == 64;
+        break;
+    }
+    if (!valid) {
+      throw new IllegalArgumentException(String.format(
+        "Unsupported component size for packed %s data: %d",
+        type,
+        Integer.valueOf(sizeBits)));
+    }
+  }
+
+  private static int[] makeBase64Values()
+  {
+    final int[] values = new int[128];
+    Arrays.fill(values, -1);
+    final String alphabet =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+    for (int index = 0; index < alphabet.length(); ++index) {
+      values[alphabet.charAt(index)] = index;
+    }
+    return values;
+  }
+
+  private static boolean isWhitespace(
+    final char c)
+  {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  /**
+   * @return The number of complete elements decoded so far
+   */
+
+  public long elements()
+  {
+    return this.elements;
+  }
+
+  /**
+   * Decode a chunk of characters.
+   *
+   * @param data   The characters
+   * @param offset The offset of the first character
+   * @param length The number of characters
+   *
+   * @throws IllegalArgumentException If the data is malformed
+   */
+
+  public void characters(
+    final char[] data,
+    final int offset,
+    final int length)
+    throws IllegalArgumentException
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+
+    if (this.base64) {
+      this.charactersBase64(data, offset, length);
+    } else {
+      this.charactersText(data, offset, length);
+    }
+  }
+
+  /**
+   * Finish decoding.
+   *
+   * @return The number of complete elements decoded
+   *
+   * @throws IllegalArgumentException If the data ended with an incomplete
+   *                                  element
+   */
+
+  public long finish()
+    throws IllegalArgumentException
+  {
+    if (this.base64) {
+      if (this.quadCount != 0) {
+        throw new IllegalArgumentException("Truncated Base64 data");
+      }
+      if (this.elementBytesCount != 0) {
+        throw new IllegalArgumentException(String.format(
+          "Packed data ends with an incomplete element (%d trailing octets)",
+          Integer.valueOf(this.elementBytesCount)));
+      }
+    } else {
+      this.endToken();
+      if (this.component != 0) {
+        throw new IllegalArgumentException(String.format(
+          "Text data ends with an incomplete element (%d trailing components)",
+          Integer.valueOf(this.component)));
+      }
+    }
+    return this.elements;
+  }
+
+  private void charactersText(
+    final char[] data,
+    final int offset,
+    final int length)
+  {
+    final int end = offset + length;
+    for (int index = offset; index < end; ++index) {
+      final char c = data[index];
+      if (isWhitespace(c)) {
+        this.endToken();
+      } else {
+        if (this.tokenLength == this.token.length) {
+          this.token = Arrays.copyOf(this.token, this.token.length * 2);
+        }
+        this.token[this.tokenLength] = c;
+        ++this.tokenLength;
+      }
+    }
+  }
+
+  private void endToken()
+  {
+    if (this.tokenLength == 0) {
+      return;
+    }
+
+    // CHECKSTYLE:OFF
+    final String text = new String(this.token, 0, this.tokenLength);
+    // CHECKSTYLE:ON
+    this.tokenLength = 0;
+
+    switch (this.componentType) {
+      case ELEMENT_TYPE_INTEGER_SIGNED:
+        this.longs[this.component] = Long.parseLong(text);
+        break;
+      case ELEMENT_TYPE_INTEGER_UNSIGNED:
+        this.longs[this.component] = Long.parseUnsignedLong(text);
+        break;
+      case ELEMENT_TYPE_FLOATING:
+        this.doubles[this.component] = Double.parseDouble(text);
+        break;
+    }
+
+    ++this.component;
+    if (this.component == this.componentCount) {
+      this.component = 0;
+      this.publish();
+    }
+  }
+
+  private void charactersBase64(
+    final char[] data,
+    final int offset,
+    final int length)
+  {
+    final int end = offset + length;
+    for (int index = offset; index < end; ++index) {
+      final char c = data[index];
+      if (isWhitespace(c)) {
+        continue;
+      }
+
+      if (c == '=') {
+        if (this.quadCount < 2) {
+          throw new IllegalArgumentException("Misplaced Base64 padding");
+        }
+        ++this.padding;
+        ++this.quadCount;
+        this.quad <<= 6;
+      } else {
+        final int value = c < 128 ? BASE64_VALUES[c] : -1;
+        if (value < 0) {
+          throw new IllegalArgumentException(String.format(
+            "Illegal Base64 character U+%04X", Integer.valueOf(c)));
+        }
+        if (this.padding > 0) {
+          throw new IllegalArgumentException("Data follows Base64 padding");
+        }
+        this.quad = (this.quad << 6) | value;
+        ++this.quadCount;
+      }
+
+      if (this.quadCount == 4) {
+        final int octets = 3 - this.padding;
+        this.octet(this.quad >>> 16);
+        if (octets > 1) {
+          this.octet(this.quad >>> 8);
+        }
+        if (octets > 2) {
+          this.octet(this.quad);
+        }
+        this.quad = 0;
+        this.quadCount = 0;
+        if (this.padding > 0) {
+          this.padding = 4;
+        }
+      }
+    }
+  }
+
+  private void octet(
+    final int value)
+  {
+    this.elementBytes[this.elementBytesCount] = (byte) value;
+    ++this.elementBytesCount;
+    if (this.elementBytesCount == this.elementBytes.length) {
+      this.elementBytesCount = 0;
+      this.unpack();
+      this.publish();
+    }
+  }
+
+  private void unpack()
+  {
+    final ByteBuffer b = this.elementBuffer;
+    final int count = this.componentCount;
+    switch (this.componentType) {
+      case ELEMENT_TYPE_FLOATING: {
+        for (int index = 0; index < count; ++index) {
+          this.doubles[index] = this.unpackFloating(b, index);
+        }
+        break;
+      }
+      case ELEMENT_TYPE_INTEGER_SIGNED: {
+        for (int index = 0; index < count; ++index) {
+          this.longs[index] = this.unpackSigned(b, index);
+        }
+        break;
+      }
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        for (int index = 0; index < count; ++index) {
+          this.longs[index] = this.unpackUnsigned(b, index);
+        }
+        break;
+      }
+    }
+  }
+
+  private double unpackFloating(
+    final ByteBuffer b,
+    final int index)
+  {
+    switch (this.componentSizeBits) {
+      case 16:
+        return Binary16.unpackDouble(b.getChar(index * 2));
+      case 32:
+        return b.getFloat(index * 4);
+      default:
+        return b.getDouble(index * 8);
+    }
+  }
+
+  private long unpackSigned(
+    final ByteBuffer b,
+    final int index)
+  {
+    switch (this.componentSizeBits) {
+      case 8:
+        return b.get(index);
+      case 16:
+        return b.getShort(index * 2);
+      case 32:
+        return b.getInt(index * 4);
+      default:
+        return b.getLong(index * 8);
+    }
+  }
+
+  private long unpackUnsigned(
+    final ByteBuffer b,
+    final int index)
+  {
+    switch (this.componentSizeBits) {
+      case 8:
+        return (long) b.get(index) & 0xffL;
+      case 16:
+        return b.getChar(index * 2);
+      case 32:
+        return (long) b.getInt(index * 4) & 0xffff_ffffL;
+      default:
+        return b.getLong(index * 8);
+    }
+  }
+
+  private void publish()
+  {
+    this.consumer.onElement(this.doubles, this.longs);
+    ++this.elements;
+  }
+
+  /**
+   * A consumer of decoded elements.
+   */
+
+  public interface ElementConsumerType
+  {
+    /**
+     * An element has been decoded. Floating point components are available
+     * in {@code floating}, and integer components in {@code integers}. The
+     * arrays are reused for every element.
+     *
+     * @param floating The floating point components
+     * @param integers The integer components
+     */
+
+    void onElement(
+      double[] floating,
+      long[] integers);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml.internal;
+
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.format.support.SMFTriangleTracker;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import java.net.URI;
+import java.util.function.Supplier;
+
+/**
+ * Functions to create packed data decoders that deliver elements to parser
+ * event receivers.
+ */
+
+public final class SMFXPackedDecoders
+{
+  private SMFXPackedDecoders()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Create a decoder for the values of the given attribute.
+   *
+   * @param header    The header
+   * @param attribute The attribute
+   * @param base64    {@code true} if the data is Base64 encoded
+   * @param values    The receiver of values
+   *
+   * @return A new decoder
+   */
+
+  public static SMFXPackedDecoder attribute(
+    final SMFHeader header,
+    final SMFAttribute attribute,
+    final boolean base64,
+    final SMFParserEventsDataAttributeValuesType values)
+  {
+    final var consumer = attributeConsumer(attribute, values);
+    if (base64) {
+      return SMFXPackedDecoder.createBase64(
+        attribute.componentType(),
+        attribute.componentCount(),
+        attribute.componentSizeBits(),
+        header.dataByteOrder(),
+        consumer);
+    }
+    return SMFXPackedDecoder.createText(
+      attribute.componentType(),
+      attribute.componentCount(),
+      consumer);
+  }
+
+  /**
+   * Create a decoder for triangles.
+   *
+   * @param header    The header
+   * @param base64    {@code true} if the data is Base64 encoded
+   * @param tracker   The triangle tracker
+   * @param position  A supplier of the current lexical position
+   * @param triangles The receiver of triangles
+   *
+   * @return A new decoder
+   */
+
+  public static SMFXPackedDecoder triangles(
+    final SMFHeader header,
+    final boolean base64,
+    final SMFTriangleTracker tracker,
+    final Supplier<LexicalPosition<URI>> position,
+    final SMFParserEventsDataTrianglesType triangles)
+  {
+    final SMFXPackedDecoder.ElementConsumerType consumer = (d, x) -> {
+      tracker.addTriangle(position, x[0], x[1], x[2]);
+      triangles.onDataTriangle(x[0], x[1], x[2]);
+    };
+
+    if (base64) {
+      return SMFXPackedDecoder.createBase64(
+        SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED,
+        3,
+        header.triangles().triangleIndexSizeBits(),
+        header.dataByteOrder(),
+        consumer);
+    }
+    return SMFXPackedDecoder.createText(
+      SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED,
+      3,
+      consumer);
+  }
+
+  private static SMFXPackedDecoder.ElementConsumerType attributeConsumer(
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType v)
+  {
+    switch (attribute.componentType()) {
+      case ELEMENT_TYPE_FLOATING:
+        return floatConsumer(attribute, v);
+      case ELEMENT_TYPE_INTEGER_SIGNED:
+        return signedConsumer(attribute, v);
+      case ELEMENT_TYPE_INTEGER_UNSIGNED:
+        return unsignedConsumer(attribute, v);
+    }
+    throw new UnreachableCodeException();
+  }
+
+  private static SMFXPackedDecoder.ElementConsumerType floatConsumer(
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType v)
+  {
+    switch (attribute.componentCount()) {
+      case 1:
+        return (d, x) -> v.onDataAttributeValueFloat1(d[0]);
+      case 2:
+        return (d, x) -> v.onDataAttributeValueFloat2(d[0], d[1]);
+      case 3:
+        return (d, x) -> v.onDataAttributeValueFloat3(d[0], d[1], d[2]);
+      case 4:
+        return (d, x) -> v.onDataAttributeValueFloat4(
+          d[0], d[1], d[2], d[3]);
+      default:
+        throw badCount(attribute);
+    }
+  }
+
+  private static SMFXPackedDecoder.ElementConsumerType signedConsumer(
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType v)
+  {
+    switch (attribute.componentCount()) {
+      case 1:
+        return (d, x) -> v.onDataAttributeValueIntegerSigned1(x[0]);
+      case 2:
+        return (d, x) -> v.onDataAttributeValueIntegerSigned2(x[0], x[1]);
+      case 3:
+        return (d, x) -> v.onDataAttributeValueIntegerSigned3(
+          x[0], x[1], x[2]);
+      case 4:
+        return (d, x) -> v.onDataAttributeValueIntegerSigned4(
+          x[0], x[1], x[2], x[3]);
+      default:
+        throw badCount(attribute);
+    }
+  }
+
+  private static SMFXPackedDecoder.ElementConsumerType unsignedConsumer(
+    final SMFAttribute attribute,
+    final SMFParserEventsDataAttributeValuesType v)
+  {
+    switch (attribute.componentCount()) {
+      case 1:
+        return (d, x) -> v.onDataAttributeValueIntegerUnsigned1(x[0]);
+      case 2:
+        return (d, x) -> v.onDataAttributeValueIntegerUnsigned2(x[0], x[1]);
+      case 3:
+        return (d, x) -> v.onDataAttributeValueIntegerUnsigned3(
+          x[0], x[1], x[2]);
+      case 4:
+        return (d, x) -> v.onDataAttributeValueIntegerUnsigned4(
+          x[0], x[1], x[2], x[3]);
+      default:
+        throw badCount(attribute);
+    }
+  }
+
+  private static IllegalArgumentException badCount(
+    final SMFAttribute attribute)
+  {
+    return new IllegalArgumentException(String.format(
+      "Unsupported component count for attribute %s: %d",
+      attribute.name().value(),
+      Integer.valueOf(attribute.componentCount())));
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml.internal;
+
+import com.io7m.ieee754b16.Binary16;
+import com.io7m.smfj.core.SMFComponentType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.Objects;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * An encoder that writes the content of {@code DataText} and
+ * {@code DataBase64} elements. Output is accumulated in a bounded buffer and
+ * written to the underlying stream writer in chunks, so the encoded form of
+ * an attribute is never held in memory in its entirety.
+ */
+
+public final class SMFXPackedEncoder
+{
+  private static final int TEXT_CHUNK = 8192;
+  private static final int BASE64_CHUNK = 3 * 2048;
+
+  private final XMLStreamWriter writer;
+  private final boolean base64;
+  private final int componentSizeBits;
+  private final StringBuilder text;
+  private final ByteBuffer bytes;
+  private final Base64.Encoder encoder;
+  private final int componentCount;
+  private int column;
+
+  private SMFXPackedEncoder(
+    final XMLStreamWriter inWriter,
+    final boolean inBase64,
+    final int inComponentCount,
+    final int inComponentSizeBits,
+    final ByteOrder inByteOrder)
+  {
+    this.writer = Objects.requireNonNull(inWriter, "writer");
+    this.base64 = inBase64;
+    this.componentCount = inComponentCount;
+    this.componentSizeBits = inComponentSizeBits;
+    this.text = new StringBuilder(TEXT_CHUNK + 64);
+    this.bytes =
+      ByteBuffer.allocate(inBase64 ? BASE64_CHUNK : 0)
+        .order(Objects.requireNonNull(inByteOrder, "byteOrder"));
+    this.encoder = Base64.getEncoder();
+  }
+
+  /**
+   * Create an encoder for whitespace-separated text.
+   *
+   * @param writer         The output writer
+   * @param componentCount The number of components per element
+   *
+   * @return A new encoder
+   */
+
+  public static SMFXPackedEncoder createText(
+    final XMLStreamWriter writer,
+    final int componentCount)
+  {
+    return new SMFXPackedEncoder(
+      writer, false, componentCount, 64, ByteOrder.BIG_ENDIAN);
+  }
+
+  /**
+   * Create an encoder for Base64 encoded packed arrays.
+   *
+   * @param writer            The output writer
+   * @param componentType     The component type
+   * @param componentCount    The number of components per element
+   * @param componentSizeBits The size of each packed component
+   * @param byteOrder         The byte order of the packed components
+   *
+   * @return A new encoder
+   */
+
+  public static SMFXPackedEncoder createBase64(
+    final XMLStreamWriter writer,
+    final SMFComponentType componentType,
+    final int componentCount,
+    final int componentSizeBits,
+    final ByteOrder byteOrder)
+  {
+    final boolean valid;
+    switch (componentType) {
+      case ELEMENT_TYPE_FLOATING:
+        valid = componentSizeBits == 16
+          || componentSizeBits == 32
+          || componentSizeBits == 64;
+        break;
+      default:
+        valid = componentSizeBits == 8
+          || componentSizeBits == 16
+          || componentSizeBits == 32
+          || componentSizeBits == 64;
+        break;
+    }
+    if (!valid) {
+      throw new IllegalArgumentException(String.format(
+        "Unsupported component size for packed %s data: %d",
+        componentType,
+        Integer.valueOf(componentSizeBits)));
+    }
+
+    return new SMFXPackedEncoder(
+      writer, true, componentCount, componentSizeBits, byteOrder);
+  }
+
+  /**
+   * Write a floating point component.
+   *
+   * @param x The value
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public void floating(
+    final double x)
+    throws XMLStreamException
+  {
+    if (this.base64) {
+      this.reserve();
+      switch (this.componentSizeBits) {
+        case 16:
+          this.bytes.putChar(Binary16.packDouble(x));
+          break;
+        case 32:
+          this.bytes.putFloat((float) x);
+          break;
+        default:
+          this.bytes.putDouble(x);
+          break;
+      }
+    } else {
+      this.separate();
+      this.text.append(x);
+      this.flushTextIfFull();
+    }
+  }
+
+  /**
+   * Write a signed integer component.
+   *
+   * @param x The value
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public void signed(
+    final long x)
+    throws XMLStreamException
+  {
+    if (this.base64) {
+      this.integer(x);
+    } else {
+      this.separate();
+      this.text.append(x);
+      this.flushTextIfFull();
+    }
+  }
+
+  /**
+   * Write an unsigned integer component.
+   *
+   * @param x The value
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public void unsigned(
+    final long x)
+    throws XMLStreamException
+  {
+    if (this.base64) {
+      this.integer(x);
+    } else {
+      this.separate();
+      if (x >= 0L) {
+        this.text.append(x);
+      } else {
+        this.text.append(Long.toUnsignedString(x));
+      }
+      this.flushTextIfFull();
+    }
+  }
+
+  /**
+   * Flush any buffered output.
+   *
+   * @throws XMLStreamException On errors
+   */
+
+  public void finish()
+    throws XMLStreamException
+  {
+    if (this.base64) {
+      this.flushBytes(true);
+    } else {
+      if (this.text.length() > 0) {
+        this.text.append('\n');
+        this.flushText();
+      }
+    }
+  }
+
+  private void integer(
+    final long x)
+    throws XMLStreamException
+  {
+    this.reserve();
+    switch (this.componentSizeBits) {
+      case 8:
+        this.bytes.put((byte) x);
+        break;
+      case 16:
+        this.bytes.putShort((short) x);
+        break;
+      case 32:
+        this.bytes.putInt((int) x);
+        break;
+      default:
+        this.bytes.putLong(x);
+        break;
+    }
+  }
+
+  private void separate()
+  {
+    if (this.column == 0) {
+      this.text.append('\n');
+    } else {
+      this.text.append(' ');
+    }
+    ++this.column;
+    if (this.column == this.componentCount) {
+      this.column = 0;
+    }
+  }
+
+  private void reserve()
+    throws XMLStreamException
+  {
+    if (this.bytes.remaining() < 8) {
+      this.flushBytes(false);
+    }
+  }
+
+  private void flushBytes(
+    final boolean last)
+    throws XMLStreamException
+  {
+    /*
+     * Only ever encode multiples of three octets except at the very end, so
+     * that padding can only appear at the end of the concatenated chunks.
+     */
+
+    this.bytes.flip();
+    final int limit = this.bytes.limit();
+    final int size = last ? limit : limit - (limit % 3);
+    if (size > 0) {
+      final byte[] chunk = new byte[size];
+      this.bytes.get(chunk);
+      this.writer.writeCharacters("\n");
+      this.writer.writeCharacters(this.encoder.encodeToString(chunk));
+      if (last) {
+        this.writer.writeCharacters("\n");
+      }
+    }
+    this.bytes.compact();
+  }
+
+  private void flushTextIfFull()
+    throws XMLStreamException
+  {
+    if (this.text.length() >= TEXT_CHUNK) {
+      this.flushText();
+    }
+  }
+
+  private void flushText()
+    throws XMLStreamException
+  {
+    this.writer.writeCharacters(this.text.toString());
+    this.text.setLength(0);
+  }
+}
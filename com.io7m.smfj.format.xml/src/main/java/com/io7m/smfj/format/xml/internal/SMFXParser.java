@@ -75,7 +75,11 @@ public final class SMFXParser implements SMFParserSequentialType
         Map.ofEntries(
           Map.entry(
             BTQualifiedName.of(SMFX.namespaceURI2p0(), "SMF"),
-            c -> new SMFX(c, this.events)
+            c -> new SMFX(c, SMFX.namespaceURI2p0(), this.events)
+          ),
+          Map.entry(
+            BTQualifiedName.of(SMFX.namespaceURI2p1(), "SMF"),
+            c -> new SMFX(c, SMFX.namespaceURI2p1(), this.events)
           )
         )
       );
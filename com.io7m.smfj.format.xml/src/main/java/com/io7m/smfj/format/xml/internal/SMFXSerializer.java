@@ -18,12 +18,15 @@
 
 package com.io7m.smfj.format.xml.internal;
 
+import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFComponentType;
 import com.io7m.smfj.core.SMFCoordinateSystem;
 import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.format.xml.SMFFormatXMLDataEncoding;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
@@ -39,17 +42,35 @@ import javax.xml.stream.XMLStreamWriter;
 public final class SMFXSerializer implements SMFSerializerType
 {
   private final XMLStreamWriter writer;
+  private final String namespace;
+  private final SMFFormatXMLDataEncoding encoding;
+  private SMFHeader headerReceived;
 
   public SMFXSerializer(
-    final XMLStreamWriter inWriter)
+    final XMLStreamWriter inWriter,
+    final String inNamespaceURI,
+    final SMFFormatXMLDataEncoding inEncoding)
   {
-    this.writer = Objects.requireNonNull(inWriter, "writer");
+    this.writer =
+      Objects.requireNonNull(inWriter, "writer");
+    this.namespace =
+      Objects.requireNonNull(inNamespaceURI, "namespaceURI");
+    this.encoding =
+      Objects.requireNonNull(inEncoding, "encoding");
+
+    if (SMFX.namespaceURI2p0().equals(inNamespaceURI)
+      && inEncoding != SMFFormatXMLDataEncoding.DATA_ELEMENTS) {
+      throw new IllegalArgumentException(String.format(
+        "The %s data encoding requires a newer format version than %s",
+        inEncoding,
+        inNamespaceURI));
+    }
   }
 
   public SMFXSerializer start()
     throws XMLStreamException
   {
-    final var namespaceURI = SMFX.namespaceURI2p0();
+    final var namespaceURI = this.namespace;
 
     this.writer.writeStartDocument("UTF-8", "1.0");
     this.writer.setPrefix("sx", namespaceURI);
@@ -64,7 +85,9 @@ public final class SMFXSerializer implements SMFSerializerType
     throws IllegalStateException, IOException
   {
     try {
-      final var namespaceURI = SMFX.namespaceURI2p0();
+      this.headerReceived = Objects.requireNonNull(header, "header");
+
+      final var namespaceURI = this.namespace;
       this.writer.writeStartElement("sx", "Header", namespaceURI);
       this.writer.writeAttribute(
         "vertexCount",
@@ -183,7 +206,7 @@ public final class SMFXSerializer implements SMFSerializerType
     throws IllegalStateException, IOException
   {
     try {
-      return new DataAttributesNonInterleaved(this.writer).start();
+      return new DataAttributesNonInterleaved(this).start();
     } catch (final Exception e) {
       throw new IOException(e);
     }
@@ -194,7 +217,7 @@ public final class SMFXSerializer implements SMFSerializerType
     throws IllegalStateException, IOException
   {
     try {
-      return new DataTriangles(this.writer).start();
+      return new DataTriangles(this).start();
     } catch (final Exception e) {
       throw new IOException(e);
     }
@@ -207,7 +230,7 @@ public final class SMFXSerializer implements SMFSerializerType
     throws IllegalStateException, IOException
   {
     try {
-      final var namespaceURI = SMFX.namespaceURI2p0();
+      final var namespaceURI = this.namespace;
       this.writer.writeStartElement("sx", "Metadata", namespaceURI);
       this.writeSchemaIdentifier(namespaceURI, schema);
       this.writer.writeStartElement("sx", "Base64Data", namespaceURI);
@@ -232,28 +255,93 @@ public final class SMFXSerializer implements SMFSerializerType
     }
   }
 
+  private SMFXPackedEncoder createPackedEncoder(
+    final SMFComponentType componentType,
+    final int componentCount,
+    final int componentSizeBits)
+    throws XMLStreamException
+  {
+    switch (this.encoding) {
+      case DATA_ELEMENTS:
+        return null;
+      case DATA_TEXT: {
+        this.writer.writeStartElement(
+          "sx", "DataText", this.namespace);
+        return SMFXPackedEncoder.createText(this.writer, componentCount);
+      }
+      case DATA_BASE64: {
+        final var encoder =
+          SMFXPackedEncoder.createBase64(
+            this.writer,
+            componentType,
+            componentCount,
+            componentSizeBits,
+            this.headerReceived.dataByteOrder());
+        this.writer.writeStartElement(
+          "sx", "DataBase64", this.namespace);
+        return encoder;
+      }
+    }
+    throw new UnreachableCodeException();
+  }
+
+  private void finishPackedEncoder(
+    final SMFXPackedEncoder packed)
+    throws XMLStreamException
+  {
+    if (packed != null) {
+      packed.finish();
+      this.writer.writeEndElement();
+    }
+  }
+
   private static final class DataAttributeValues
     implements SMFSerializerDataAttributesValuesType
   {
+    private final SMFXSerializer serializer;
     private final XMLStreamWriter writer;
+    private final String namespace;
     private final SMFAttributeName name;
+    private SMFAttribute attributeCurrent;
+    private SMFXPackedEncoder packed;
 
     DataAttributeValues(
-      final XMLStreamWriter inWriter,
+      final SMFXSerializer inSerializer,
       final SMFAttributeName inName)
     {
-      this.writer = Objects.requireNonNull(inWriter, "writer");
+      this.serializer = Objects.requireNonNull(inSerializer, "serializer");
+      this.writer = inSerializer.writer;
+      this.namespace = inSerializer.namespace;
       this.name = Objects.requireNonNull(inName, "inName");
     }
 
     DataAttributeValues start()
       throws IOException
     {
+      final SMFAttribute attribute;
+      if (this.serializer.encoding != SMFFormatXMLDataEncoding.DATA_ELEMENTS) {
+        attribute = Optional.ofNullable(this.serializer.headerReceived)
+          .map(h -> h.attributesByName().get(this.name))
+          .orElseThrow(() -> new IllegalArgumentException(String.format(
+            "The attribute '%s' is not declared in the header",
+            this.name.value())));
+      } else {
+        attribute = null;
+      }
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeData", namespaceURI);
         this.writer.writeAttribute("name", this.name.value());
+
+        if (attribute != null) {
+          this.attributeCurrent = attribute;
+          this.packed = this.serializer.createPackedEncoder(
+            attribute.componentType(),
+            attribute.componentCount(),
+            attribute.componentSizeBits());
+        }
         return this;
       } catch (final Exception e) {
         throw new IOException(e);
@@ -268,8 +356,18 @@ public final class SMFXSerializer implements SMFSerializerType
       final double w)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_FLOATING, 4);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.floating(x);
+          this.packed.floating(y);
+          this.packed.floating(z);
+          this.packed.floating(w);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeFloat4", namespaceURI);
         this.writer.writeAttribute("c0", Double.toString(x));
@@ -289,8 +387,17 @@ public final class SMFXSerializer implements SMFSerializerType
       final double z)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_FLOATING, 3);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.floating(x);
+          this.packed.floating(y);
+          this.packed.floating(z);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeFloat3", namespaceURI);
         this.writer.writeAttribute("c0", Double.toString(x));
@@ -308,8 +415,16 @@ public final class SMFXSerializer implements SMFSerializerType
       final double y)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_FLOATING, 2);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.floating(x);
+          this.packed.floating(y);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeFloat2", namespaceURI);
         this.writer.writeAttribute("c0", Double.toString(x));
@@ -324,8 +439,15 @@ public final class SMFXSerializer implements SMFSerializerType
     public void serializeValueFloat1(final double x)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_FLOATING, 1);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.floating(x);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeFloat1", namespaceURI);
         this.writer.writeAttribute("c0", Double.toString(x));
@@ -343,8 +465,18 @@ public final class SMFXSerializer implements SMFSerializerType
       final long w)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED, 4);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.signed(x);
+          this.packed.signed(y);
+          this.packed.signed(z);
+          this.packed.signed(w);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerSigned4", namespaceURI);
         this.writer.writeAttribute("c0", Long.toString(x));
@@ -364,8 +496,17 @@ public final class SMFXSerializer implements SMFSerializerType
       final long z)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED, 3);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.signed(x);
+          this.packed.signed(y);
+          this.packed.signed(z);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerSigned3", namespaceURI);
         this.writer.writeAttribute("c0", Long.toString(x));
@@ -383,8 +524,16 @@ public final class SMFXSerializer implements SMFSerializerType
       final long y)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED, 2);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.signed(x);
+          this.packed.signed(y);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerSigned2", namespaceURI);
         this.writer.writeAttribute("c0", Long.toString(x));
@@ -399,8 +548,15 @@ public final class SMFXSerializer implements SMFSerializerType
     public void serializeValueIntegerSigned1(final long x)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_SIGNED, 1);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.signed(x);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerSigned1", namespaceURI);
         this.writer.writeAttribute("c0", Long.toString(x));
@@ -418,8 +574,18 @@ public final class SMFXSerializer implements SMFSerializerType
       final long w)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED, 4);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.unsigned(x);
+          this.packed.unsigned(y);
+          this.packed.unsigned(z);
+          this.packed.unsigned(w);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerUnsigned4", namespaceURI);
         this.writer.writeAttribute("c0", Long.toUnsignedString(x));
@@ -439,8 +605,17 @@ public final class SMFXSerializer implements SMFSerializerType
       final long z)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED, 3);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.unsigned(x);
+          this.packed.unsigned(y);
+          this.packed.unsigned(z);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerUnsigned3", namespaceURI);
         this.writer.writeAttribute("c0", Long.toUnsignedString(x));
@@ -458,8 +633,16 @@ public final class SMFXSerializer implements SMFSerializerType
       final long y)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED, 2);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.unsigned(x);
+          this.packed.unsigned(y);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerUnsigned2", namespaceURI);
         this.writer.writeAttribute("c0", Long.toUnsignedString(x));
@@ -474,8 +657,15 @@ public final class SMFXSerializer implements SMFSerializerType
     public void serializeValueIntegerUnsigned1(final long x)
       throws IOException, IllegalArgumentException, IllegalStateException
     {
+      this.checkType(SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED, 1);
+
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.unsigned(x);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "AttributeIntegerUnsigned1", namespaceURI);
         this.writer.writeAttribute("c0", Long.toUnsignedString(x));
@@ -485,11 +675,51 @@ public final class SMFXSerializer implements SMFSerializerType
       }
     }
 
+    /**
+     * Packed data has no per-value structure, so values of the wrong type
+     * or component count would silently corrupt the data that follows.
+     */
+
+    private void checkType(
+      final SMFComponentType triedType,
+      final int triedCount)
+    {
+      final var attr = this.attributeCurrent;
+      if (attr == null) {
+        return;
+      }
+
+      if (attr.componentType() == triedType
+        && attr.componentCount() == triedCount) {
+        return;
+      }
+
+      throw new IllegalArgumentException(
+        new StringBuilder(128)
+          .append("Incorrect value type.")
+          .append(System.lineSeparator())
+          .append("  Attribute name: ")
+          .append(attr.name().value())
+          .append(System.lineSeparator())
+          .append("  Attribute type: ")
+          .append(attr.componentType().getName())
+          .append(" ")
+          .append(attr.componentCount())
+          .append(System.lineSeparator())
+          .append("  Received type: ")
+          .append(triedType.getName())
+          .append(" ")
+          .append(triedCount)
+          .append(System.lineSeparator())
+          .toString());
+    }
+
     @Override
     public void close()
       throws IOException
     {
       try {
+        this.serializer.finishPackedEncoder(this.packed);
         this.writer.writeEndElement();
       } catch (final Exception e) {
         throw new IOException(e);
@@ -500,21 +730,33 @@ public final class SMFXSerializer implements SMFSerializerType
   private static final class DataTriangles
     implements SMFSerializerDataTrianglesType
   {
+    private final SMFXSerializer serializer;
     private final XMLStreamWriter writer;
+    private final String namespace;
+    private SMFXPackedEncoder packed;
 
     DataTriangles(
-      final XMLStreamWriter inWriter)
+      final SMFXSerializer inSerializer)
     {
-      this.writer = Objects.requireNonNull(inWriter, "writer");
+      this.serializer = Objects.requireNonNull(inSerializer, "serializer");
+      this.writer = inSerializer.writer;
+      this.namespace = inSerializer.namespace;
     }
 
     DataTriangles start()
       throws IOException
     {
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "Triangles", namespaceURI);
+
+        if (this.serializer.encoding != SMFFormatXMLDataEncoding.DATA_ELEMENTS) {
+          this.packed = this.serializer.createPackedEncoder(
+            SMFComponentType.ELEMENT_TYPE_INTEGER_UNSIGNED,
+            3,
+            this.serializer.headerReceived.triangles().triangleIndexSizeBits());
+        }
         return this;
       } catch (final Exception e) {
         throw new IOException(e);
@@ -529,7 +771,14 @@ public final class SMFXSerializer implements SMFSerializerType
       throws IOException, IllegalStateException
     {
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        if (this.packed != null) {
+          this.packed.unsigned(v0);
+          this.packed.unsigned(v1);
+          this.packed.unsigned(v2);
+          return;
+        }
+
+        final var namespaceURI = this.namespace;
         this.writer.writeStartElement(
           "sx", "Triangle", namespaceURI);
         this.writer.writeAttribute("v0", Long.toUnsignedString(v0));
@@ -546,6 +795,7 @@ public final class SMFXSerializer implements SMFSerializerType
       throws IOException
     {
       try {
+        this.serializer.finishPackedEncoder(this.packed);
         this.writer.writeEndElement();
       } catch (final Exception e) {
         throw new IOException(e);
@@ -556,19 +806,21 @@ public final class SMFXSerializer implements SMFSerializerType
   private static final class DataAttributesNonInterleaved
     implements SMFSerializerDataAttributesNonInterleavedType
   {
+    private final SMFXSerializer serializer;
     private final XMLStreamWriter writer;
 
     DataAttributesNonInterleaved(
-      final XMLStreamWriter inWriter)
+      final SMFXSerializer inSerializer)
     {
-      this.writer = Objects.requireNonNull(inWriter, "writer");
+      this.serializer = Objects.requireNonNull(inSerializer, "serializer");
+      this.writer = inSerializer.writer;
     }
 
     DataAttributesNonInterleaved start()
       throws IOException
     {
       try {
-        final var namespaceURI = SMFX.namespaceURI2p0();
+        final var namespaceURI = this.serializer.namespace;
         this.writer.writeStartElement(
           "sx", "VertexDataNonInterleaved", namespaceURI);
         return this;
@@ -583,7 +835,7 @@ public final class SMFXSerializer implements SMFSerializerType
       throws IllegalArgumentException, IllegalStateException, IOException
     {
       try {
-        return new DataAttributeValues(this.writer, name).start();
+        return new DataAttributeValues(this.serializer, name).start();
       } catch (final Exception e) {
         throw new IOException(e);
       }
@@ -0,0 +1,964 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.format.xml.internal;
+
+import com.io7m.jcoords.core.conversion.CAxis;
+import com.io7m.jcoords.core.conversion.CAxisSystem;
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.core.SMFCoordinateSystem;
+import com.io7m.smfj.core.SMFFaceWindingOrder;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFSchemaName;
+import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.format.support.SMFTriangleTracker;
+import com.io7m.smfj.parser.api.SMFParseError;
+import com.io7m.smfj.parser.api.SMFParseErrors;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import com.io7m.smfj.parser.api.SMFParserEventsErrorType;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderType;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+import com.io7m.smfj.parser.api.SMFParserSequentialType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * A parser that reads documents with a single StAX loop rather than
+ * dispatching to one handler object per element. The parser publishes
+ * exactly the same events as {@link SMFXParser} for valid documents. The
+ * document is not validated against the XSD schema; instead, the
+ * constraints of the schema (element structure, permitted attributes,
+ * number and name syntax, and unique attribute data) are checked as the
+ * document is read, and parsing stops at the first error. The text of
+ * packed data elements is decoded as it arrives and is never accumulated
+ * in memory.
+ */
+
+public final class SMFXStreamParser implements SMFParserSequentialType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFXStreamParser.class);
+
+  private static final Pattern NAME_PATTERN =
+    Pattern.compile("[a-z_.0-9]{0,64}");
+
+  private static final int RANK_HEADER = 0;
+  private static final int RANK_VERTEX_DATA = 1;
+  private static final int RANK_TRIANGLES = 2;
+  private static final int RANK_METADATA = 3;
+
+  private static final int RANK_COORDINATE_SYSTEM = 0;
+  private static final int RANK_TRIANGLE_SPECIFICATION = 1;
+  private static final int RANK_SCHEMA_IDENTIFIER = 2;
+  private static final int RANK_ATTRIBUTES = 3;
+
+  private final SMFParserEventsType events;
+  private final URI source;
+  private final XMLInputFactory readers;
+  private final InputStream stream;
+  private final double[] doubles;
+  private final long[] longs;
+  private final Supplier<LexicalPosition<URI>> positionSupplier;
+  private XMLStreamReader reader;
+  private String namespaceURI;
+  private SMFFormatVersion version;
+  private SMFHeader header;
+  private SMFParserEventsHeaderType eventsHeader;
+  private SMFParserEventsBodyType eventsBody;
+  private SMFTriangleTracker triangleTracker;
+
+  public SMFXStreamParser(
+    final SMFParserEventsType inEvents,
+    final URI inSource,
+    final XMLInputFactory inReaders,
+    final InputStream inStream)
+  {
+    this.events =
+      Objects.requireNonNull(inEvents, "events");
+    this.source =
+      Objects.requireNonNull(inSource, "inSource");
+    this.readers =
+      Objects.requireNonNull(inReaders, "readers");
+    this.stream =
+      Objects.requireNonNull(inStream, "stream");
+
+    this.doubles = new double[4];
+    this.longs = new long[4];
+    this.positionSupplier = this::position;
+  }
+
+  private static int componentIndex(
+    final XMLStreamReader r,
+    final int attribute,
+    final char prefix,
+    final int count)
+  {
+    final String name = r.getAttributeLocalName(attribute);
+    if (name.length() == 2
+      && name.charAt(0) == prefix
+      && isUnqualified(r, attribute)) {
+      final int index = name.charAt(1) - '0';
+      if (index >= 0 && index < count) {
+        return index;
+      }
+    }
+    throw unexpectedAttribute(r, attribute);
+  }
+
+  private static boolean isUnqualified(
+    final XMLStreamReader r,
+    final int attribute)
+  {
+    final String namespace = r.getAttributeNamespace(attribute);
+    return namespace == null || namespace.isEmpty();
+  }
+
+  private static IllegalArgumentException unexpectedAttribute(
+    final XMLStreamReader r,
+    final int attribute)
+  {
+    return new IllegalArgumentException(
+      String.format(
+        "Unexpected attribute: %s",
+        r.getAttributeName(attribute)));
+  }
+
+  /**
+   * Parse a value of the XSD {@code double} type. {@link Double#parseDouble}
+   * also accepts hexadecimal values, type suffixes, and {@code Infinity},
+   * none of which the schema accepts.
+   */
+
+  private static double parseDouble(
+    final String text)
+  {
+    final String trimmed = text.trim();
+    final int length = trimmed.length();
+    final char last = length == 0 ? ' ' : trimmed.charAt(length - 1);
+    final boolean lastValid = (last >= '0' && last <= '9') || last == '.';
+    if (!(lastValid || "NaN".equals(trimmed))
+      || trimmed.indexOf('x') >= 0
+      || trimmed.indexOf('X') >= 0) {
+      throw new NumberFormatException(
+        String.format("Not a valid double value: \"%s\"", text));
+    }
+    return Double.parseDouble(trimmed);
+  }
+
+  private static int rankOfBodyElement(
+    final String name)
+  {
+    switch (name) {
+      case "Header":
+        return RANK_HEADER;
+      case "VertexDataNonInterleaved":
+        return RANK_VERTEX_DATA;
+      case "Triangles":
+        return RANK_TRIANGLES;
+      case "Metadata":
+        return RANK_METADATA;
+      default:
+        return -1;
+    }
+  }
+
+  private static int rankOfHeaderElement(
+    final String name)
+  {
+    switch (name) {
+      case "CoordinateSystem":
+        return RANK_COORDINATE_SYSTEM;
+      case "TriangleSpecification":
+        return RANK_TRIANGLE_SPECIFICATION;
+      case "SchemaIdentifier":
+        return RANK_SCHEMA_IDENTIFIER;
+      case "Attributes":
+        return RANK_ATTRIBUTES;
+      default:
+        return -1;
+    }
+  }
+
+  @Override
+  public void parse()
+  {
+    try {
+      this.reader =
+        this.readers.createXMLStreamReader(this.source.toString(), this.stream);
+      try {
+        this.parseDocument();
+        LOG.debug("parsing completed");
+      } finally {
+        this.reader.close();
+      }
+    } catch (final ParseFailure e) {
+      this.events.onError(e.error);
+    } catch (final XMLStreamException e) {
+      final Location location = e.getLocation();
+      if (location != null) {
+        this.events.onError(SMFParseError.of(
+          LexicalPosition.of(
+            location.getLineNumber(),
+            location.getColumnNumber(),
+            Optional.of(this.source)),
+          e.getMessage(),
+          Optional.of(e)
+        ));
+      } else {
+        this.events.onError(SMFParseErrors.errorException(e));
+      }
+    }
+  }
+
+  private void parseDocument()
+    throws XMLStreamException, ParseFailure
+  {
+    this.reader.nextTag();
+    this.namespaceURI = this.reader.getNamespaceURI();
+    this.version =
+      SMFX.versionOfNamespace(this.namespaceURI)
+        .orElseThrow(this::unexpectedElement);
+    if (!"SMF".equals(this.elementName())) {
+      throw this.unexpectedElement();
+    }
+    this.checkAttributes();
+
+    this.events.onStart();
+    this.eventsHeader =
+      this.events.onVersionReceived(this.version)
+        .orElseGet(() -> new SMFParserEventsHeaderIgnoringReceiver(this.events));
+
+    int last = -1;
+    while (this.reader.nextTag() == START_ELEMENT) {
+      final int rank = rankOfBodyElement(this.elementName());
+      final boolean ordered =
+        rank > last || (rank == RANK_METADATA && last == RANK_METADATA);
+      if (rank < 0 || !ordered || (last < 0 && rank != RANK_HEADER)) {
+        throw this.unexpectedElement();
+      }
+      last = rank;
+
+      switch (rank) {
+        case RANK_HEADER:
+          this.parseHeader();
+          break;
+        case RANK_VERTEX_DATA:
+          this.parseVertexDataNonInterleaved();
+          break;
+        case RANK_TRIANGLES:
+          this.parseTriangles();
+          break;
+        default:
+          this.parseMetadata();
+          break;
+      }
+    }
+
+    if (last < 0) {
+      throw this.failure("Expected a Header element.");
+    }
+
+    this.triangleTracker.check(this.position());
+    this.events.onFinish();
+
+    while (this.reader.hasNext()) {
+      this.reader.next();
+    }
+  }
+
+  private void parseHeader()
+    throws XMLStreamException, ParseFailure
+  {
+    final SMFHeader.Builder builder = SMFHeader.builder();
+    try {
+      this.checkAttributes("vertexCount", "endianness");
+      builder.setVertexCount(
+        Long.parseUnsignedLong(this.attributeToken("vertexCount")));
+
+      builder.setDataByteOrder(
+        parseEndianness(this.attribute("endianness")));
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+
+    int last = -1;
+    boolean sawCoordinates = false;
+    boolean sawTriangles = false;
+    boolean sawAttributes = false;
+    while (this.reader.nextTag() == START_ELEMENT) {
+      final int rank = rankOfHeaderElement(this.elementName());
+      if (rank <= last) {
+        throw this.unexpectedElement();
+      }
+      last = rank;
+
+      switch (rank) {
+        case RANK_COORDINATE_SYSTEM:
+          builder.setCoordinateSystem(this.parseCoordinateSystem());
+          sawCoordinates = true;
+          break;
+        case RANK_TRIANGLE_SPECIFICATION:
+          builder.setTriangles(this.parseTriangleSpecification());
+          sawTriangles = true;
+          break;
+        case RANK_SCHEMA_IDENTIFIER:
+          builder.setSchemaIdentifier(this.parseSchemaIdentifier());
+          break;
+        default:
+          builder.setAttributesInOrder(this.parseAttributes());
+          sawAttributes = true;
+          break;
+      }
+    }
+
+    if (!(sawCoordinates && sawTriangles && sawAttributes)) {
+      throw this.failure(
+        "A Header element must contain CoordinateSystem, TriangleSpecification, and Attributes elements.");
+    }
+
+    try {
+      this.header = builder.build();
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+
+    this.triangleTracker =
+      new SMFTriangleTracker(
+        (lexical, message) -> {
+          this.events.onError(
+            SMFParseError.of(lexical, message, Optional.empty()));
+        },
+        this.header.vertexCount(),
+        this.header.triangles().triangleCount());
+
+    this.eventsBody =
+      this.eventsHeader.onHeaderParsed(this.header)
+        .orElseGet(() -> new SMFParserEventsBodyIgnoringReceiver(this.events));
+  }
+
+  private static ByteOrder parseEndianness(
+    final String endianness)
+  {
+    switch (endianness) {
+      case "BIG_ENDIAN":
+        return ByteOrder.BIG_ENDIAN;
+      case "LITTLE_ENDIAN":
+        return ByteOrder.LITTLE_ENDIAN;
+      default:
+        throw new IllegalArgumentException(
+          String.format("Unrecognized endianness: %s", endianness));
+    }
+  }
+
+  private SMFCoordinateSystem parseCoordinateSystem()
+    throws XMLStreamException, ParseFailure
+  {
+    final SMFCoordinateSystem result;
+    try {
+      this.checkAttributes("right", "up", "forward", "windingOrder");
+      final var right =
+        CAxis.valueOf(this.attribute("right"));
+      final var up =
+        CAxis.valueOf(this.attribute("up"));
+      final var forward =
+        CAxis.valueOf(this.attribute("forward"));
+      final var winding =
+        SMFFaceWindingOrder.valueOf(this.attribute("windingOrder"));
+
+      result = SMFCoordinateSystem.builder()
+        .setAxes(CAxisSystem.of(right, up, forward))
+        .setWindingOrder(winding)
+        .build();
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+    this.requireEnd();
+    return result;
+  }
+
+  private SMFTriangles parseTriangleSpecification()
+    throws XMLStreamException, ParseFailure
+  {
+    final SMFTriangles.Builder builder = SMFTriangles.builder();
+    try {
+      this.checkAttributes("count", "sizeBits");
+      builder.setTriangleCount(
+        Long.parseUnsignedLong(this.attributeToken("count")));
+      builder.setTriangleIndexSizeBits(
+        Integer.parseUnsignedInt(this.attributeToken("sizeBits")));
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+    this.requireEnd();
+
+    try {
+      return builder.build();
+    } catch (final Exception e) {
+      this.events.onError(SMFParseErrors.errorException(e));
+      return SMFTriangles.of(0L, 32);
+    }
+  }
+
+  private SMFSchemaIdentifier parseSchemaIdentifier()
+    throws XMLStreamException, ParseFailure
+  {
+    final SMFSchemaIdentifier result;
+    try {
+      this.checkAttributes("name", "versionMajor", "versionMinor");
+      result = SMFSchemaIdentifier.builder()
+        .setName(SMFSchemaName.of(this.attributeName("name")))
+        .setVersionMajor(
+          Integer.parseUnsignedInt(this.attributeToken("versionMajor")))
+        .setVersionMinor(
+          Integer.parseUnsignedInt(this.attributeToken("versionMinor")))
+        .build();
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+    this.requireEnd();
+    return result;
+  }
+
+  private ArrayList<SMFAttribute> parseAttributes()
+    throws XMLStreamException, ParseFailure
+  {
+    this.checkAttributes();
+    final var attributes = new ArrayList<SMFAttribute>();
+    while (this.reader.nextTag() == START_ELEMENT) {
+      if (!"Attribute".equals(this.elementName())) {
+        throw this.unexpectedElement();
+      }
+
+      try {
+        this.checkAttributes(
+          "name", "componentKind", "componentCount", "componentSizeBits");
+        attributes.add(
+          SMFAttribute.builder()
+            .setName(SMFAttributeName.of(this.attributeName("name")))
+            .setComponentType(
+              SMFComponentType.valueOf(this.attribute("componentKind")))
+            .setComponentCount(
+              Integer.parseUnsignedInt(this.attributeToken("componentCount")))
+            .setComponentSizeBits(
+              Integer.parseUnsignedInt(
+                this.attributeToken("componentSizeBits")))
+            .build());
+      } catch (final RuntimeException e) {
+        throw this.failure(e);
+      }
+      this.requireEnd();
+    }
+    return attributes;
+  }
+
+  private void parseVertexDataNonInterleaved()
+    throws XMLStreamException, ParseFailure
+  {
+    this.checkAttributes();
+    final SMFParserEventsDataAttributesNonInterleavedType eventsNI;
+    try {
+      eventsNI = this.eventsBody.onAttributesNonInterleaved()
+        .orElseGet(
+          () -> new SMFParserEventsDataAttributesNonInterleavedIgnoringReceiver(
+            this.eventsBody));
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+
+    final var specified = new HashSet<SMFAttributeName>();
+    while (this.reader.nextTag() == START_ELEMENT) {
+      if (!"AttributeData".equals(this.elementName())) {
+        throw this.unexpectedElement();
+      }
+      this.parseAttributeData(eventsNI, specified);
+    }
+
+    eventsNI.onDataAttributesNonInterleavedFinish();
+  }
+
+  private void parseAttributeData(
+    final SMFParserEventsDataAttributesNonInterleavedType eventsNI,
+    final Set<SMFAttributeName> specified)
+    throws XMLStreamException, ParseFailure
+  {
+    final SMFAttribute attribute;
+    try {
+      this.checkAttributes("name");
+      final var attributeName =
+        SMFAttributeName.of(this.attributeName("name"));
+      attribute = this.header.attributesByName().get(attributeName);
+      if (attribute == null) {
+        throw new IllegalArgumentException(String.format(
+          "The attribute '%s' is not declared in the header",
+          attributeName.value()));
+      }
+      if (!specified.add(attributeName)) {
+        throw new IllegalArgumentException(String.format(
+          "Data for the attribute '%s' has already been specified",
+          attributeName.value()));
+      }
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+
+    final SMFParserEventsDataAttributeValuesType eventsValues =
+      eventsNI.onDataAttributeStart(attribute)
+        .orElseGet(
+          () -> new SMFParserEventsDataAttributeValuesIgnoringReceiver(eventsNI));
+
+    boolean elements = false;
+    while (this.reader.nextTag() == START_ELEMENT) {
+      final String name = this.elementName();
+      if (!elements && this.isPackedData(name)) {
+        this.parsePackedData(
+          () -> SMFXPackedDecoders.attribute(
+            this.header,
+            attribute,
+            "DataBase64".equals(name),
+            eventsValues),
+          eventsValues);
+        this.requireEnd();
+        break;
+      }
+      elements = true;
+
+      this.parseAttributeElement(name, eventsValues);
+      this.requireEnd();
+    }
+
+    eventsValues.onDataAttributeValueFinish();
+  }
+
+  private void parseAttributeElement(
+    final String name,
+    final SMFParserEventsDataAttributeValuesType eventsValues)
+    throws XMLStreamException, ParseFailure
+  {
+    final double[] d = this.doubles;
+    final long[] x = this.longs;
+    try {
+      switch (name) {
+        case "AttributeFloat4":
+          this.readDoubles(4);
+          eventsValues.onDataAttributeValueFloat4(d[0], d[1], d[2], d[3]);
+          break;
+        case "AttributeFloat3":
+          this.readDoubles(3);
+          eventsValues.onDataAttributeValueFloat3(d[0], d[1], d[2]);
+          break;
+        case "AttributeFloat2":
+          this.readDoubles(2);
+          eventsValues.onDataAttributeValueFloat2(d[0], d[1]);
+          break;
+        case "AttributeFloat1":
+          this.readDoubles(1);
+          eventsValues.onDataAttributeValueFloat1(d[0]);
+          break;
+        case "AttributeIntegerSigned4":
+          this.readLongs(4, 'c', false);
+          eventsValues.onDataAttributeValueIntegerSigned4(
+            x[0], x[1], x[2], x[3]);
+          break;
+        case "AttributeIntegerSigned3":
+          this.readLongs(3, 'c', false);
+          eventsValues.onDataAttributeValueIntegerSigned3(x[0], x[1], x[2]);
+          break;
+        case "AttributeIntegerSigned2":
+          this.readLongs(2, 'c', false);
+          eventsValues.onDataAttributeValueIntegerSigned2(x[0], x[1]);
+          break;
+        case "AttributeIntegerSigned1":
+          this.readLongs(1, 'c', false);
+          eventsValues.onDataAttributeValueIntegerSigned1(x[0]);
+          break;
+        case "AttributeIntegerUnsigned4":
+          this.readLongs(4, 'c', true);
+          eventsValues.onDataAttributeValueIntegerUnsigned4(
+            x[0], x[1], x[2], x[3]);
+          break;
+        case "AttributeIntegerUnsigned3":
+          this.readLongs(3, 'c', true);
+          eventsValues.onDataAttributeValueIntegerUnsigned3(
+            x[0], x[1], x[2]);
+          break;
+        case "AttributeIntegerUnsigned2":
+          this.readLongs(2, 'c', true);
+          eventsValues.onDataAttributeValueIntegerUnsigned2(x[0], x[1]);
+          break;
+        case "AttributeIntegerUnsigned1":
+          this.readLongs(1, 'c', true);
+          eventsValues.onDataAttributeValueIntegerUnsigned1(x[0]);
+          break;
+        default:
+          throw this.unexpectedElement();
+      }
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+  }
+
+  private void parseTriangles()
+    throws XMLStreamException, ParseFailure
+  {
+    this.checkAttributes();
+    final SMFParserEventsDataTrianglesType eventsTriangles =
+      this.eventsBody.onTriangles()
+        .orElseGet(
+          () -> new SMFParserEventsDataTrianglesIgnoringReceiver(this.eventsBody));
+
+    final SMFTriangleTracker tracker = this.triangleTracker;
+    final long[] x = this.longs;
+    boolean elements = false;
+    while (this.reader.nextTag() == START_ELEMENT) {
+      final String name = this.elementName();
+      if (!elements && this.isPackedData(name)) {
+        this.parsePackedData(
+          () -> SMFXPackedDecoders.triangles(
+            this.header,
+            "DataBase64".equals(name),
+            tracker,
+            this.positionSupplier,
+            eventsTriangles),
+          eventsTriangles);
+        this.requireEnd();
+        break;
+      }
+      elements = true;
+
+      if (!"Triangle".equals(name)) {
+        throw this.unexpectedElement();
+      }
+
+      try {
+        this.readLongs(3, 'v', true);
+        tracker.addTriangle(this.positionSupplier, x[0], x[1], x[2]);
+        eventsTriangles.onDataTriangle(x[0], x[1], x[2]);
+      } catch (final RuntimeException e) {
+        throw this.failure(e);
+      }
+      this.requireEnd();
+    }
+
+    eventsTriangles.onDataTrianglesFinish();
+  }
+
+  private void parseMetadata()
+    throws XMLStreamException, ParseFailure
+  {
+    this.checkAttributes();
+    this.reader.nextTag();
+    if (!"SchemaIdentifier".equals(this.elementName())) {
+      throw this.unexpectedElement();
+    }
+
+    final SMFSchemaIdentifier schemaId = this.parseSchemaIdentifier();
+    final Optional<SMFParserEventsDataMetaType> eventsMeta =
+      this.eventsBody.onMeta(schemaId);
+
+    this.reader.nextTag();
+    if (!"Base64Data".equals(this.elementName())) {
+      throw this.unexpectedElement();
+    }
+    this.checkAttributes();
+
+    final byte[] data;
+    try {
+      data = Base64.getDecoder().decode(this.reader.getElementText());
+    } catch (final IllegalArgumentException e) {
+      throw this.failure(e);
+    }
+    eventsMeta.ifPresent(e -> e.onMetaData(schemaId, data));
+
+    this.requireEnd();
+  }
+
+  private boolean isPackedData(
+    final String name)
+  {
+    if (SMFX.namespaceURI2p0().equals(this.namespaceURI)) {
+      return false;
+    }
+    return "DataText".equals(name) || "DataBase64".equals(name);
+  }
+
+  /**
+   * Feed the text of the current packed data element directly to a decoder
+   * without accumulating the text of the element in memory.
+   */
+
+  private void parsePackedData(
+    final Supplier<SMFXPackedDecoder> decoders,
+    final SMFParserEventsErrorType errors)
+    throws XMLStreamException, ParseFailure
+  {
+    this.checkAttributes();
+    final SMFXPackedDecoder decoder;
+    try {
+      decoder = decoders.get();
+    } catch (final RuntimeException e) {
+      throw this.failure(e);
+    }
+
+    final XMLStreamReader r = this.reader;
+    while (true) {
+      switch (r.next()) {
+        case CHARACTERS:
+        case CDATA:
+        case SPACE:
+          try {
+            decoder.characters(
+              r.getTextCharacters(), r.getTextStart(), r.getTextLength());
+          } catch (final RuntimeException e) {
+            throw this.failure(e);
+          }
+          break;
+        case COMMENT:
+        case PROCESSING_INSTRUCTION:
+          break;
+        case END_ELEMENT:
+          try {
+            decoder.finish();
+          } catch (final RuntimeException e) {
+            errors.onError(SMFParseError.of(
+              this.position(), e.getMessage(), Optional.of(e)));
+          }
+          return;
+        default:
+          throw this.unexpectedElement();
+      }
+    }
+  }
+
+  private void readDoubles(
+    final int count)
+  {
+    final XMLStreamReader r = this.reader;
+    final int attributes = r.getAttributeCount();
+    int seen = 0;
+    for (int index = 0; index < attributes; ++index) {
+      final int component = componentIndex(r, index, 'c', count);
+      this.doubles[component] = parseDouble(r.getAttributeValue(index));
+      seen |= 1 << component;
+    }
+    checkComponents(seen, 'c', count);
+  }
+
+  private void readLongs(
+    final int count,
+    final char prefix,
+    final boolean unsigned)
+  {
+    final XMLStreamReader r = this.reader;
+    final int attributes = r.getAttributeCount();
+    int seen = 0;
+    for (int index = 0; index < attributes; ++index) {
+      final int component = componentIndex(r, index, prefix, count);
+      final String text = r.getAttributeValue(index).trim();
+      this.longs[component] =
+        unsigned ? Long.parseUnsignedLong(text) : Long.parseLong(text);
+      seen |= 1 << component;
+    }
+    checkComponents(seen, prefix, count);
+  }
+
+  private static void checkComponents(
+    final int seen,
+    final char prefix,
+    final int count)
+  {
+    final int expected = (1 << count) - 1;
+    if (seen != expected) {
+      final int missing = Integer.numberOfTrailingZeros(~seen & expected);
+      throw new IllegalArgumentException(
+        String.format("Missing attribute: %c%d", prefix, missing));
+    }
+  }
+
+  private String attribute(
+    final String name)
+  {
+    final String value = this.reader.getAttributeValue(null, name);
+    if (value == null) {
+      throw new IllegalArgumentException(
+        String.format("Missing attribute: %s", name));
+    }
+    return value;
+  }
+
+  /**
+   * @return The value of an attribute of an XSD numeric type, which has any
+   * surrounding whitespace removed in the same manner as the schema
+   */
+
+  private String attributeToken(
+    final String name)
+  {
+    return this.attribute(name).trim();
+  }
+
+  /**
+   * @return The value of an attribute of the XSD name types, which are more
+   * restrictive than the names accepted by the core model
+   */
+
+  private String attributeName(
+    final String name)
+  {
+    final String value = this.attribute(name);
+    if (!NAME_PATTERN.matcher(value).matches()) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Names must match the pattern: %s", NAME_PATTERN.pattern()));
+    }
+    return value;
+  }
+
+  /**
+   * Check that the current element has no attributes other than the given
+   * required attributes.
+   */
+
+  private void checkAttributes(
+    final String... names)
+    throws ParseFailure
+  {
+    final XMLStreamReader r = this.reader;
+    final int attributes = r.getAttributeCount();
+    for (int index = 0; index < attributes; ++index) {
+      final String namespace = r.getAttributeNamespace(index);
+      if (W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(namespace)) {
+        continue;
+      }
+
+      boolean expected = false;
+      if (isUnqualified(r, index)) {
+        final String name = r.getAttributeLocalName(index);
+        for (final String required : names) {
+          expected = expected || required.equals(name);
+        }
+      }
+      if (!expected) {
+        throw this.failure(unexpectedAttribute(r, index));
+      }
+    }
+  }
+
+  private String elementName()
+    throws ParseFailure
+  {
+    if (!Objects.equals(this.namespaceURI, this.reader.getNamespaceURI())) {
+      throw this.unexpectedElement();
+    }
+    return this.reader.getLocalName();
+  }
+
+  private void requireEnd()
+    throws XMLStreamException, ParseFailure
+  {
+    if (this.reader.nextTag() != END_ELEMENT) {
+      throw this.unexpectedElement();
+    }
+  }
+
+  private LexicalPosition<URI> position()
+  {
+    final Location location = this.reader.getLocation();
+    return LexicalPosition.of(
+      location.getLineNumber(),
+      location.getColumnNumber(),
+      Optional.of(this.source));
+  }
+
+  private ParseFailure unexpectedElement()
+  {
+    return this.failure(String.format(
+      "Unexpected element: {%s}%s",
+      this.reader.getNamespaceURI(),
+      this.reader.getLocalName()));
+  }
+
+  private ParseFailure failure(
+    final String message)
+  {
+    return new ParseFailure(
+      SMFParseError.of(this.position(), message, Optional.empty()));
+  }
+
+  private ParseFailure failure(
+    final Exception e)
+  {
+    return new ParseFailure(
+      SMFParseError.of(this.position(), e.getMessage(), Optional.of(e)));
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.stream.close();
+  }
+
+  private static final class ParseFailure extends Exception
+  {
+    private final SMFParseError error;
+
+    ParseFailure(
+      final SMFParseError inError)
+    {
+      super(inError.message(), null, false, false);
+      this.error = inError;
+    }
+  }
+}
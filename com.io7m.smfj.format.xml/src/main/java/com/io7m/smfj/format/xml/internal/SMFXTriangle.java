@@ -19,10 +19,13 @@ package com.io7m.smfj.format.xml.internal;
 
 import com.io7m.blackthorne.api.BTElementHandlerType;
 import com.io7m.blackthorne.api.BTElementParsingContextType;
+import com.io7m.jlexing.core.LexicalPosition;
 import com.io7m.smfj.core.SMFVoid;
 import com.io7m.smfj.format.support.SMFTriangleTracker;
 import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import java.net.URI;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -31,14 +34,18 @@ public final class SMFXTriangle
 {
   private final SMFTriangleTracker triangleTracker;
   private final SMFParserEventsDataTrianglesType triangles;
+  private final Supplier<LexicalPosition<URI>> lexical;
 
   public SMFXTriangle(
     final BTElementParsingContextType context,
     final SMFTriangleTracker inTriangleTracker,
+    final Supplier<LexicalPosition<URI>> inLexical,
     final SMFParserEventsDataTrianglesType inTriangles)
   {
     this.triangleTracker =
       Objects.requireNonNull(inTriangleTracker, "triangleTracker");
+    this.lexical =
+      Objects.requireNonNull(inLexical, "lexical");
     this.triangles =
       Objects.requireNonNull(inTriangles, "triangles");
   }
@@ -56,8 +63,7 @@ public final class SMFXTriangle
         Long.parseUnsignedLong(attributes.getValue("v1"));
       final var v2 =
         Long.parseUnsignedLong(attributes.getValue("v2"));
-      this.triangleTracker.addTriangle(
-        SMFXLexical.ofLocator(context.documentLocator()), v0, v1, v2);
+      this.triangleTracker.addTriangle(this.lexical, v0, v1, v2);
       this.triangles.onDataTriangle(v0, v1, v2);
     } catch (final Exception e) {
       throw context.parseException(e);
@@ -21,13 +21,17 @@ import com.io7m.blackthorne.api.BTElementHandlerConstructorType;
 import com.io7m.blackthorne.api.BTElementHandlerType;
 import com.io7m.blackthorne.api.BTElementParsingContextType;
 import com.io7m.blackthorne.api.BTQualifiedName;
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFVoid;
 import com.io7m.smfj.format.support.SMFTriangleTracker;
 import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesIgnoringReceiver;
 import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import java.net.URI;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
@@ -36,17 +40,34 @@ public final class SMFXTriangles
 {
   private final SMFParserEventsBodyType eventsBody;
   private final SMFTriangleTracker triangleTracker;
+  private final String namespaceURI;
+  private final SMFHeader header;
+  private final Supplier<LexicalPosition<URI>> lexical;
   private SMFParserEventsDataTrianglesType eventsTriangles;
 
   public SMFXTriangles(
     final BTElementParsingContextType context,
+    final String inNamespaceURI,
+    final SMFHeader inHeader,
     final SMFTriangleTracker inTriangleTracker,
     final SMFParserEventsBodyType inBodyEvents)
   {
+    this.namespaceURI =
+      Objects.requireNonNull(inNamespaceURI, "namespaceURI");
+    this.header =
+      Objects.requireNonNull(inHeader, "header");
     this.triangleTracker =
       Objects.requireNonNull(inTriangleTracker, "triangleTracker");
     this.eventsBody =
       Objects.requireNonNull(inBodyEvents, "inBodyEvents");
+
+    /*
+     * The locator always reflects the current parsing position, so one
+     * supplier serves every triangle in the element, and a position is only
+     * constructed if a triangle turns out to be invalid.
+     */
+
+    this.lexical = () -> SMFXLexical.ofLocator(context.documentLocator());
   }
 
   @Override
@@ -55,15 +76,39 @@ public final class SMFXTriangles
   {
     return Map.ofEntries(
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "Triangle"),
+        BTQualifiedName.of(this.namespaceURI, "Triangle"),
         c -> new SMFXTriangle(
           context,
           this.triangleTracker,
+          this.lexical,
           this.eventsTriangles)
+      ),
+      Map.entry(
+        BTQualifiedName.of(this.namespaceURI, "DataText"),
+        c -> this.packed(c, false)
+      ),
+      Map.entry(
+        BTQualifiedName.of(this.namespaceURI, "DataBase64"),
+        c -> this.packed(c, true)
       )
     );
   }
 
+  private SMFXPackedData packed(
+    final BTElementParsingContextType context,
+    final boolean base64)
+  {
+    return new SMFXPackedData(
+      context,
+      this.eventsBody,
+      () -> SMFXPackedDecoders.triangles(
+        this.header,
+        base64,
+        this.triangleTracker,
+        this.lexical,
+        this.eventsTriangles));
+  }
+
   @Override
   public void onElementStart(
     final BTElementParsingContextType context,
@@ -36,13 +36,17 @@ public final class SMFXVertexDataNonInterleaved
 {
   private final SMFParserEventsBodyType events;
   private final SMFHeader header;
+  private final String namespaceURI;
   private SMFParserEventsDataAttributesNonInterleavedType eventsNI;
 
   public SMFXVertexDataNonInterleaved(
     final BTElementParsingContextType context,
+    final String inNamespaceURI,
     final SMFHeader inHeader,
     final SMFParserEventsBodyType inEvents)
   {
+    this.namespaceURI =
+      Objects.requireNonNull(inNamespaceURI, "namespaceURI");
     this.header = Objects.requireNonNull(inHeader, "header");
     this.events = Objects.requireNonNull(inEvents, "events");
   }
@@ -53,8 +57,9 @@ public final class SMFXVertexDataNonInterleaved
   {
     return Map.ofEntries(
       Map.entry(
-        BTQualifiedName.of(SMFX.namespaceURI2p0(), "AttributeData"),
-        c -> new SMFXAttributeData(c, this.header, this.eventsNI)
+        BTQualifiedName.of(this.namespaceURI, "AttributeData"),
+        c -> new SMFXAttributeData(
+          c, this.namespaceURI, this.header, this.eventsNI)
       )
     );
   }
@@ -27,6 +27,7 @@ module com.io7m.smfj.format.xml
   requires static org.osgi.service.component.annotations;
 
   requires com.io7m.blackthorne.api;
+  requires com.io7m.ieee754b16.core;
   requires com.io7m.jaffirm.core;
   requires com.io7m.jcoords.core;
   requires com.io7m.jlexing.core;
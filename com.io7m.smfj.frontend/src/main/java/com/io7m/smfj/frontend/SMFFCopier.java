@@ -35,6 +35,7 @@ import com.io7m.smfj.serializer.api.SMFSerializerType;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -317,6 +318,20 @@ public final class SMFFCopier
     }
   }
 
+  @Override
+  public void onDataTriangles(
+    final long[] indices,
+    final int offset,
+    final int count)
+  {
+    try {
+      this.serializer_triangles.serializeTriangles(
+        LongBuffer.wrap(indices, offset, count * 3), count);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   @Override
   public void onDataTrianglesFinish()
   {
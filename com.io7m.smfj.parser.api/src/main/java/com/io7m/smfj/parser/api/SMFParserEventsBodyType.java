@@ -33,6 +33,24 @@ public interface SMFParserEventsBodyType
   Optional<SMFParserEventsDataAttributesNonInterleavedType>
   onAttributesNonInterleaved();
 
+  /**
+   * <p>Request that interleaved vertex data be delivered as it appears in the
+   * file. If the file stores vertex data in interleaved form and this method
+   * returns a receiver, the parser passes the data to the receiver without
+   * decoding it, and {@link #onAttributesNonInterleaved()} is not called for
+   * that data. Otherwise, interleaved vertex data is decoded and delivered to
+   * the receiver returned by {@link #onAttributesNonInterleaved()} exactly as
+   * if it had been stored in non-interleaved form.</p>
+   *
+   * @return A listener that will receive interleaved mesh data
+   */
+
+  default Optional<SMFParserEventsDataAttributesInterleavedType>
+  onAttributesInterleaved()
+  {
+    return Optional.empty();
+  }
+
   /**
    * @return A listener that will receive triangle data
    */
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.parser.api;
+
+/**
+ * <p>A receiver of blocks of attribute values.</p>
+ *
+ * <p>Parsers that support bulk delivery pass whole blocks of vertices to
+ * receivers of this type instead of making one call per vertex. Each block
+ * contains the values of a whole number of vertices, with the components of
+ * each vertex stored consecutively (so {@code count} is always a multiple of
+ * the component count of the attribute). The arrays are owned by the parser
+ * and their contents are only valid for the duration of each call.</p>
+ *
+ * <p>Blocks are delivered in vertex order, and
+ * {@link SMFParserEventsDataAttributeValuesType#onDataAttributeValueFinish()}
+ * is called on the originating receiver when all blocks have been
+ * delivered.</p>
+ *
+ * @see SMFParserEventsDataAttributeValuesType#onDataAttributeValuesBulk()
+ */
+
+public interface SMFParserEventsDataAttributeValuesBulkType
+{
+  /**
+   * A block of 16-bit or 32-bit floating point values has been received.
+   *
+   * @param values The array containing the values
+   * @param offset The index of the first value
+   * @param count  The number of values
+   */
+
+  void onDataAttributeValuesFloat32(
+    float[] values,
+    int offset,
+    int count);
+
+  /**
+   * A block of 64-bit floating point values has been received.
+   *
+   * @param values The array containing the values
+   * @param offset The index of the first value
+   * @param count  The number of values
+   */
+
+  void onDataAttributeValuesFloat64(
+    double[] values,
+    int offset,
+    int count);
+
+  /**
+   * A block of signed integer values has been received.
+   *
+   * @param values The array containing the values
+   * @param offset The index of the first value
+   * @param count  The number of values
+   */
+
+  void onDataAttributeValuesIntegerSigned(
+    long[] values,
+    int offset,
+    int count);
+
+  /**
+   * A block of unsigned integer values has been received. Unsigned 64-bit
+   * values that do not fit into a signed {@code long} are delivered in two's
+   * complement form, in the same manner as
+   * {@link SMFParserEventsDataAttributeValuesType#onDataAttributeValueIntegerUnsigned1(long)}.
+   *
+   * @param values The array containing the values
+   * @param offset The index of the first value
+   * @param count  The number of values
+   */
+
+  void onDataAttributeValuesIntegerUnsigned(
+    long[] values,
+    int offset,
+    int count);
+}
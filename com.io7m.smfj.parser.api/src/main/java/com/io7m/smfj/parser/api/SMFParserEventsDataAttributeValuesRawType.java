@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.parser.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A receiver of raw, undecoded attribute data.</p>
+ *
+ * <p>Parsers that support raw delivery pass the encoded data of whole blocks
+ * of vertices to receivers of this type. The layout of each vertex is that
+ * of the attribute announced by
+ * {@link SMFParserEventsDataAttributesNonInterleavedType#onDataAttributeStart(com.io7m.smfj.core.SMFAttribute)}:
+ * the components of each vertex are stored consecutively, each component
+ * occupying {@link com.io7m.smfj.core.SMFAttribute#componentSizeOctets()}
+ * octets, in the byte order given by the header.</p>
+ *
+ * @see SMFParserEventsDataAttributeValuesType#onDataAttributeValuesRaw()
+ */
+
+public interface SMFParserEventsDataAttributeValuesRawType
+{
+  /**
+   * A block of raw vertex data has been received. The data lies between the
+   * buffer's position and limit, and always contains a whole number of
+   * vertices. The buffer is read-only, its byte order is set to that of
+   * the data, and it is only valid for the duration of the call.
+   *
+   * @param data The data
+   */
+
+  void onDataAttributeValuesRaw(
+    ByteBuffer data);
+}
@@ -16,6 +16,8 @@
 
 package com.io7m.smfj.parser.api;
 
+import java.util.Optional;
+
 /**
  * A receiver of parse events for mesh attribute data.
  */
@@ -172,4 +174,36 @@ public interface SMFParserEventsDataAttributeValuesType
    */
 
   void onDataAttributeValueFinish();
+
+  /**
+   * Request that values be delivered in blocks. Parsers that support bulk
+   * delivery will call the returned receiver instead of the per-vertex
+   * methods of this interface. Parsers that do not support it, or receivers
+   * that return {@link Optional#empty()}, receive values one vertex at a
+   * time.
+   *
+   * @return A bulk receiver, if bulk delivery is desired
+   */
+
+  default Optional<SMFParserEventsDataAttributeValuesBulkType>
+  onDataAttributeValuesBulk()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Request that values be delivered as raw, undecoded data. Parsers that
+   * support raw delivery will call the returned receiver instead of any bulk
+   * receiver or the per-vertex methods of this interface.
+   *
+   * @return A raw receiver, if raw delivery is desired
+   *
+   * @see #onDataAttributeValuesBulk()
+   */
+
+  default Optional<SMFParserEventsDataAttributeValuesRawType>
+  onDataAttributeValuesRaw()
+  {
+    return Optional.empty();
+  }
 }
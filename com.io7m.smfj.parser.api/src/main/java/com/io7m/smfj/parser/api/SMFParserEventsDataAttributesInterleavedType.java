@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.parser.api;
+
+import com.io7m.smfj.core.SMFInterleavedLayout;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A receiver of raw, undecoded interleaved vertex data.</p>
+ *
+ * <p>Parsers pass receivers of this type the vertex data of files that store
+ * vertex data in interleaved form, exactly as it appears in the file. The
+ * data of each vertex occupies {@link SMFInterleavedLayout#stride()} octets,
+ * and the data of each attribute within a vertex is stored at the offset
+ * given by {@link SMFInterleavedLayout#offsets()}, in the layout described
+ * by {@link SMFParserEventsDataAttributeValuesRawType}.</p>
+ *
+ * @see SMFParserEventsBodyType#onAttributesInterleaved()
+ */
+
+public interface SMFParserEventsDataAttributesInterleavedType
+  extends SMFParserEventsErrorType
+{
+  /**
+   * <p>A block of interleaved vertex data has been received. The data lies
+   * between the buffer's position and limit, and always contains a whole
+   * number of vertices. The buffer is read-only and its byte order is set to
+   * that of the data. Blocks are delivered in vertex order; small files are
+   * delivered in a single block.</p>
+   *
+   * <p>If the buffer is direct, it is a memory-mapped view of the file and
+   * remains valid after the call for as long as the file is not modified.
+   * Otherwise, the buffer is only valid for the duration of the call.</p>
+   *
+   * @param layout      The layout of the data
+   * @param vertexFirst The index of the first vertex in the block
+   * @param data        The data
+   */
+
+  void onDataAttributesInterleaved(
+    SMFInterleavedLayout layout,
+    long vertexFirst,
+    ByteBuffer data);
+
+  /**
+   * Called when parsing of all interleaved attribute data has finished.
+   */
+
+  void onDataAttributesInterleavedFinish();
+}
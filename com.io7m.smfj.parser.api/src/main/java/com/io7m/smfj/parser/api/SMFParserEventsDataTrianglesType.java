@@ -16,6 +16,8 @@
 
 package com.io7m.smfj.parser.api;
 
+import java.util.Objects;
+
 /**
  * A receiver of parse events for triangle data.
  */
@@ -36,6 +38,39 @@ public interface SMFParserEventsDataTrianglesType extends
     long v1,
     long v2);
 
+  /**
+   * <p>A block of triangles has been parsed. The block contains the three
+   * vertex indices of each triangle stored consecutively. The array is owned
+   * by the parser and its contents are only valid for the duration of the
+   * call.</p>
+   *
+   * <p>Parsers that decode triangles in blocks call this method instead of
+   * {@link #onDataTriangle(long, long, long)}. The default implementation
+   * calls {@link #onDataTriangle(long, long, long)} for each triangle in
+   * turn.</p>
+   *
+   * @param indices The array containing the vertex indices
+   * @param offset  The index of the first vertex index of the first triangle
+   * @param count   The number of triangles
+   */
+
+  default void onDataTriangles(
+    final long[] indices,
+    final int offset,
+    final int count)
+  {
+    Objects.checkFromIndexSize(
+      offset, Math.multiplyExact(count, 3), indices.length);
+
+    final int end = offset + count * 3;
+    for (int index = offset; index < end; index += 3) {
+      this.onDataTriangle(
+        indices[index],
+        indices[index + 1],
+        indices[index + 2]);
+    }
+  }
+
   /**
    * Parsing of triangles has completed.
    */
@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.parser.api;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFWarningType;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An event receiver that passes events to a delegate receiver, but declines
+ * the data of any attribute that is not in a given set of attribute names.
+ * Parsers skip the data of declined attributes without decoding it. The
+ * delegate receives a header that contains only the requested attributes, and
+ * so sees a mesh that simply does not have any of the other attributes.
+ */
+
+public final class SMFParserEventsProjection implements SMFParserEventsType
+{
+  private final SMFParserEventsType delegate;
+  private final Set<SMFAttributeName> attributes;
+
+  private SMFParserEventsProjection(
+    final SMFParserEventsType in_delegate,
+    final Set<SMFAttributeName> in_attributes)
+  {
+    this.delegate =
+      Objects.requireNonNull(in_delegate, "Delegate");
+    this.attributes =
+      Set.copyOf(Objects.requireNonNull(in_attributes, "Attributes"));
+  }
+
+  /**
+   * Create a projecting event receiver.
+   *
+   * @param delegate   The receiver that will receive events
+   * @param attributes The attributes whose data will be delivered
+   *
+   * @return A projecting event receiver
+   */
+
+  public static SMFParserEventsType of(
+    final SMFParserEventsType delegate,
+    final Set<SMFAttributeName> attributes)
+  {
+    return new SMFParserEventsProjection(delegate, attributes);
+  }
+
+  /**
+   * @return The attributes whose data will be delivered
+   */
+
+  public Set<SMFAttributeName> attributes()
+  {
+    return this.attributes;
+  }
+
+  @Override
+  public void onStart()
+  {
+    this.delegate.onStart();
+  }
+
+  @Override
+  public Optional<SMFParserEventsHeaderType> onVersionReceived(
+    final SMFFormatVersion version)
+  {
+    return this.delegate.onVersionReceived(version)
+      .map(Header::new);
+  }
+
+  @Override
+  public void onFinish()
+  {
+    this.delegate.onFinish();
+  }
+
+  @Override
+  public void onError(
+    final SMFErrorType e)
+  {
+    this.delegate.onError(e);
+  }
+
+  @Override
+  public void onWarning(
+    final SMFWarningType w)
+  {
+    this.delegate.onWarning(w);
+  }
+
+  private final class Header implements SMFParserEventsHeaderType
+  {
+    private final SMFParserEventsHeaderType header;
+
+    Header(
+      final SMFParserEventsHeaderType in_header)
+    {
+      this.header = Objects.requireNonNull(in_header, "Header");
+    }
+
+    @Override
+    public Optional<SMFParserEventsBodyType> onHeaderParsed(
+      final SMFHeader in_header)
+    {
+      final var projected =
+        in_header.withAttributesInOrder(
+          in_header.attributesInOrder()
+            .stream()
+            .filter(a -> SMFParserEventsProjection.this.attributes.contains(a.name()))
+            .collect(Collectors.toList()));
+      return this.header.onHeaderParsed(projected).map(Body::new);
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      this.header.onError(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      this.header.onWarning(w);
+    }
+  }
+
+  private final class Body implements SMFParserEventsBodyType
+  {
+    private final SMFParserEventsBodyType body;
+
+    Body(
+      final SMFParserEventsBodyType in_body)
+    {
+      this.body = Objects.requireNonNull(in_body, "Body");
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributesNonInterleavedType>
+    onAttributesNonInterleaved()
+    {
+      return this.body.onAttributesNonInterleaved().map(NonInterleaved::new);
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataTrianglesType> onTriangles()
+    {
+      return this.body.onTriangles();
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataMetaType> onMeta(
+      final SMFSchemaIdentifier schema)
+    {
+      return this.body.onMeta(schema);
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      this.body.onError(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      this.body.onWarning(w);
+    }
+  }
+
+  private final class NonInterleaved
+    implements SMFParserEventsDataAttributesNonInterleavedType
+  {
+    private final SMFParserEventsDataAttributesNonInterleavedType data;
+
+    NonInterleaved(
+      final SMFParserEventsDataAttributesNonInterleavedType in_data)
+    {
+      this.data = Objects.requireNonNull(in_data, "Data");
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributeValuesType> onDataAttributeStart(
+      final SMFAttribute attribute)
+    {
+      if (SMFParserEventsProjection.this.attributes.contains(attribute.name())) {
+        return this.data.onDataAttributeStart(attribute);
+      }
+      return Optional.empty();
+    }
+
+    @Override
+    public void onDataAttributesNonInterleavedFinish()
+    {
+      this.data.onDataAttributesNonInterleavedFinish();
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      this.data.onError(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      this.data.onWarning(w);
+    }
+  }
+}
@@ -16,11 +16,13 @@
 
 package com.io7m.smfj.parser.api;
 
+import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.core.SMFFormatDescription;
 import com.io7m.smfj.core.SMFFormatVersion;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.channels.FileChannel;
+import java.util.Set;
 import java.util.SortedSet;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -80,4 +82,62 @@ public interface SMFParserProviderType
     URI uri,
     FileChannel file)
     throws UnsupportedOperationException;
+
+  /**
+   * Create a sequential parser that only delivers the data of the given
+   * attributes. The data of all other attributes is skipped without being
+   * decoded, where the format allows.
+   *
+   * @param events     The event receiver
+   * @param uri        The URI referred to by the input stream, for diagnostic
+   *                   messages
+   * @param stream     An input stream
+   * @param attributes The attributes whose data will be delivered
+   *
+   * @return A new parser for the format
+   *
+   * @throws UnsupportedOperationException If sequential parsing is not
+   *                                       supported
+   * @see SMFParserEventsProjection
+   */
+
+  default SMFParserSequentialType parserCreateSequentialProjected(
+    final SMFParserEventsType events,
+    final URI uri,
+    final InputStream stream,
+    final Set<SMFAttributeName> attributes)
+    throws UnsupportedOperationException
+  {
+    return this.parserCreateSequential(
+      SMFParserEventsProjection.of(events, attributes), uri, stream);
+  }
+
+  /**
+   * Create a random-access parser that only delivers the data of the given
+   * attributes. The data of all other attributes is skipped without being
+   * decoded, where the format allows.
+   *
+   * @param events     The event receiver
+   * @param uri        The URI referred to by the input stream, for diagnostic
+   *                   messages
+   * @param file       A file channel
+   * @param attributes The attributes whose data will be delivered
+   *
+   * @return A new parser for the format
+   *
+   * @throws UnsupportedOperationException If random-access parsing is not
+   *                                       supported
+   * @see SMFParserEventsProjection
+   */
+
+  default SMFParserRandomAccessType parserCreateRandomAccessProjected(
+    final SMFParserEventsType events,
+    final URI uri,
+    final FileChannel file,
+    final Set<SMFAttributeName> attributes)
+    throws UnsupportedOperationException
+  {
+    return this.parserCreateRandomAccess(
+      SMFParserEventsProjection.of(events, attributes), uri, file);
+  }
 }
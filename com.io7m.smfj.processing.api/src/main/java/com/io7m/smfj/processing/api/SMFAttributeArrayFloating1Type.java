@@ -18,6 +18,7 @@ package com.io7m.smfj.processing.api;
 
 import com.io7m.smfj.core.SMFPartialBiFunctionType;
 import java.util.List;
+import java.util.Objects;
 import org.immutables.value.Value;
 
 /**
@@ -54,13 +55,39 @@ public interface SMFAttributeArrayFloating1Type extends SMFAttributeArrayType
   @Override
   default int size()
   {
-    return this.values().size();
+    return this.data().size();
   }
 
   /**
-   * @return The array values
+   * @return The packed array values, with one value per vertex
    */
 
   @Value.Parameter
-  List<Double> values();
+  SMFPackedDoubleArray data();
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The value of vertex {@code index}
+   */
+
+  default double get(
+    final int index)
+  {
+    Objects.checkIndex(index, this.size());
+    return this.data().get(index);
+  }
+
+  /**
+   * A read-only view of the array values. The elements of the view are
+   * created on demand; use {@link #data()} to access the values without
+   * allocating.
+   *
+   * @return The array values
+   */
+
+  default List<Double> values()
+  {
+    return SMFAttributeArrayViews.view(this.size(), this::get);
+  }
 }
@@ -16,9 +16,11 @@
 
 package com.io7m.smfj.processing.api;
 
+import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
 import com.io7m.smfj.core.SMFPartialBiFunctionType;
 import java.util.List;
+import java.util.Objects;
 import org.immutables.value.Value;
 
 /**
@@ -55,13 +57,78 @@ public interface SMFAttributeArrayFloating2Type extends SMFAttributeArrayType
   @Override
   default int size()
   {
-    return this.values().size();
+    return this.data().size() / 2;
   }
 
   /**
-   * @return The array values
+   * @return The packed array values, with the 2 components of each vertex
+   * stored consecutively
    */
 
   @Value.Parameter
-  List<Vector2D> values();
+  SMFPackedDoubleArray data();
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The x component of vertex {@code index}
+   */
+
+  default double x(
+    final int index)
+  {
+    return this.data().get(Math.multiplyExact(index, 2));
+  }
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The y component of vertex {@code index}
+   */
+
+  default double y(
+    final int index)
+  {
+    return this.data().get(Math.multiplyExact(index, 2) + 1);
+  }
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The value of vertex {@code index}
+   */
+
+  default Vector2D get(
+    final int index)
+  {
+    Objects.checkIndex(index, this.size());
+    return Vector2D.of(this.x(index), this.y(index));
+  }
+
+  /**
+   * A read-only view of the array values. The elements of the view are
+   * created on demand; use {@link #data()} to access the values without
+   * allocating.
+   *
+   * @return The array values
+   */
+
+  default List<Vector2D> values()
+  {
+    return SMFAttributeArrayViews.view(this.size(), this::get);
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final int dataSize = this.data().size();
+    Preconditions.checkPreconditionI(
+      dataSize,
+      dataSize % 2 == 0,
+      x -> "Array size must be a multiple of the component count 2");
+  }
 }
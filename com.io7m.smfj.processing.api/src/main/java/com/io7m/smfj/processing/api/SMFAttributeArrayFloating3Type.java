@@ -16,9 +16,11 @@
 
 package com.io7m.smfj.processing.api;
 
+import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
 import com.io7m.smfj.core.SMFPartialBiFunctionType;
 import java.util.List;
+import java.util.Objects;
 import org.immutables.value.Value;
 
 /**
@@ -55,13 +57,90 @@ public interface SMFAttributeArrayFloating3Type extends SMFAttributeArrayType
   @Override
   default int size()
   {
-    return this.values().size();
+    return this.data().size() / 3;
   }
 
   /**
-   * @return The array values
+   * @return The packed array values, with the 3 components of each vertex
+   * stored consecutively
    */
 
   @Value.Parameter
-  List<Vector3D> values();
+  SMFPackedDoubleArray data();
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The x component of vertex {@code index}
+   */
+
+  default double x(
+    final int index)
+  {
+    return this.data().get(Math.multiplyExact(index, 3));
+  }
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The y component of vertex {@code index}
+   */
+
+  default double y(
+    final int index)
+  {
+    return this.data().get(Math.multiplyExact(index, 3) + 1);
+  }
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The z component of vertex {@code index}
+   */
+
+  default double z(
+    final int index)
+  {
+    return this.data().get(Math.multiplyExact(index, 3) + 2);
+  }
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The value of vertex {@code index}
+   */
+
+  default Vector3D get(
+    final int index)
+  {
+    Objects.checkIndex(index, this.size());
+    return Vector3D.of(this.x(index), this.y(index), this.z(index));
+  }
+
+  /**
+   * A read-only view of the array values. The elements of the view are
+   * created on demand; use {@link #data()} to access the values without
+   * allocating.
+   *
+   * @return The array values
+   */
+
+  default List<Vector3D> values()
+  {
+    return SMFAttributeArrayViews.view(this.size(), this::get);
+  }
+
+  /**
+   * Check preconditions for the type.
+   */
+
+  @Value.Check
+  default void checkPreconditions()
+  {
+    final int dataSize = this.data().size();
+    Preconditions.checkPreconditionI(
+      dataSize,
+      dataSize % 3 == 0,
+      x -> "Array size must be a multiple of the component count 3");
+  }
 }
@@ -18,6 +18,7 @@ package com.io7m.smfj.processing.api;
 
 import com.io7m.smfj.core.SMFPartialBiFunctionType;
 import java.util.List;
+import java.util.Objects;
 import org.immutables.value.Value;
 
 /**
@@ -55,13 +56,39 @@ public interface SMFAttributeArrayIntegerSigned1Type extends
   @Override
   default int size()
   {
-    return this.values().size();
+    return this.data().size();
   }
 
   /**
-   * @return The array values
+   * @return The packed array values, with one value per vertex
    */
 
   @Value.Parameter
-  List<Long> values();
+  SMFPackedLongArray data();
+
+  /**
+   * @param index The vertex index
+   *
+   * @return The value of vertex {@code index}
+   */
+
+  default long get(
+    final int index)
+  {
+    Objects.checkIndex(index, this.size());
+    return this.data().get(index);
+  }
+
+  /**
+   * A read-only view of the array values. The elements of the view are
+   * created on demand; use {@link #data()} to access the values without
+   * allocating.
+   *
+   * @return The array values
+   */
+
+  default List<Long> values()
+  {
+    return SMFAttributeArrayViews.view(this.size(), this::get);
+  }
 }
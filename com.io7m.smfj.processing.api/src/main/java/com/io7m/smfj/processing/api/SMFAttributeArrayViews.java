@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only list views of packed attribute arrays.
+ */
+
+final class SMFAttributeArrayViews
+{
+  private SMFAttributeArrayViews()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  static <T> List<T> view(
+    final int size,
+    final IntFunction<T> element)
+  {
+    return new View<>(size, element);
+  }
+
+  private static final class View<T> extends AbstractList<T>
+    implements RandomAccess
+  {
+    private final int size;
+    private final IntFunction<T> element;
+
+    View(
+      final int inSize,
+      final IntFunction<T> inElement)
+    {
+      this.size = inSize;
+      this.element = inElement;
+    }
+
+    @Override
+    public T get(final int index)
+    {
+      return this.element.apply(Objects.checkIndex(index, this.size));
+    }
+
+    @Override
+    public int size()
+    {
+      return this.size;
+    }
+  }
+}
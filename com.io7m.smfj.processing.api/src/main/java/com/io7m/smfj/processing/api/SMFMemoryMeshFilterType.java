@@ -17,6 +17,7 @@
 package com.io7m.smfj.processing.api;
 
 import com.io7m.smfj.core.SMFPartialLogged;
+import java.util.Optional;
 
 /**
  * A filter that transforms an in-memory mesh.
@@ -48,4 +49,16 @@ public interface SMFMemoryMeshFilterType
   SMFPartialLogged<SMFMemoryMesh> filter(
     SMFFilterCommandContext context,
     SMFMemoryMesh m);
+
+  /**
+   * A filter may be able to transform a mesh as it is parsed, without the
+   * mesh being loaded into memory first.
+   *
+   * @return A streaming version of this filter, if the filter supports it
+   */
+
+  default Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.empty();
+  }
 }
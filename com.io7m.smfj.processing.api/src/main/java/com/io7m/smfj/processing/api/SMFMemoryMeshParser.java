@@ -16,12 +16,6 @@
 
 package com.io7m.smfj.processing.api;
 
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4L;
 import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFFormatVersion;
 import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
@@ -44,6 +38,8 @@ import java.util.Optional;
 
 public final class SMFMemoryMeshParser
 {
+  private static final int TRIANGLE_CHUNK_INDICES = 3 * 1024;
+
   private SMFMemoryMeshParser()
   {
     throw new UnreachableCodeException();
@@ -102,10 +98,13 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayFloating4Type array_4d)
     {
-      final List<Vector4D> vv = array_4d.values();
-      for (int index = 0; index < array_4d.size(); ++index) {
-        final Vector4D v = vv.get(index);
-        events.onDataAttributeValueFloat4(v.x(), v.y(), v.z(), v.w());
+      final var data = array_4d.data();
+      for (int index = 0; index < data.size(); index += 4) {
+        events.onDataAttributeValueFloat4(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2),
+          data.get(index + 3));
       }
       return Boolean.TRUE;
     }
@@ -114,10 +113,12 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayFloating3Type array_3d)
     {
-      final List<Vector3D> vv = array_3d.values();
-      for (int index = 0; index < array_3d.size(); ++index) {
-        final Vector3D v = vv.get(index);
-        events.onDataAttributeValueFloat3(v.x(), v.y(), v.z());
+      final var data = array_3d.data();
+      for (int index = 0; index < data.size(); index += 3) {
+        events.onDataAttributeValueFloat3(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2));
       }
       return Boolean.TRUE;
     }
@@ -126,10 +127,11 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayFloating2Type array_2d)
     {
-      final List<Vector2D> vv = array_2d.values();
-      for (int index = 0; index < array_2d.size(); ++index) {
-        final Vector2D v = vv.get(index);
-        events.onDataAttributeValueFloat2(v.x(), v.y());
+      final var data = array_2d.data();
+      for (int index = 0; index < data.size(); index += 2) {
+        events.onDataAttributeValueFloat2(
+          data.get(index),
+          data.get(index + 1));
       }
       return Boolean.TRUE;
     }
@@ -138,10 +140,9 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayFloating1Type array_1d)
     {
-      final List<Double> vv = array_1d.values();
-      for (int index = 0; index < array_1d.size(); ++index) {
-        final Double v = vv.get(index);
-        events.onDataAttributeValueFloat1(v.doubleValue());
+      final var data = array_1d.data();
+      for (int index = 0; index < data.size(); ++index) {
+        events.onDataAttributeValueFloat1(data.get(index));
       }
       return Boolean.TRUE;
     }
@@ -150,10 +151,13 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerSigned4Type array_4d)
     {
-      final List<Vector4L> vv = array_4d.values();
-      for (int index = 0; index < array_4d.size(); ++index) {
-        final Vector4L v = vv.get(index);
-        events.onDataAttributeValueIntegerSigned4(v.x(), v.y(), v.z(), v.w());
+      final var data = array_4d.data();
+      for (int index = 0; index < data.size(); index += 4) {
+        events.onDataAttributeValueIntegerSigned4(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2),
+          data.get(index + 3));
       }
       return Boolean.TRUE;
     }
@@ -162,10 +166,12 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerSigned3Type array_3d)
     {
-      final List<Vector3L> vv = array_3d.values();
-      for (int index = 0; index < array_3d.size(); ++index) {
-        final Vector3L v = vv.get(index);
-        events.onDataAttributeValueIntegerSigned3(v.x(), v.y(), v.z());
+      final var data = array_3d.data();
+      for (int index = 0; index < data.size(); index += 3) {
+        events.onDataAttributeValueIntegerSigned3(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2));
       }
       return Boolean.TRUE;
     }
@@ -174,10 +180,11 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerSigned2Type array_2d)
     {
-      final List<Vector2L> vv = array_2d.values();
-      for (int index = 0; index < array_2d.size(); ++index) {
-        final Vector2L v = vv.get(index);
-        events.onDataAttributeValueIntegerSigned2(v.x(), v.y());
+      final var data = array_2d.data();
+      for (int index = 0; index < data.size(); index += 2) {
+        events.onDataAttributeValueIntegerSigned2(
+          data.get(index),
+          data.get(index + 1));
       }
       return Boolean.TRUE;
     }
@@ -186,10 +193,9 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerSigned1Type array_1d)
     {
-      final List<Long> vv = array_1d.values();
-      for (int index = 0; index < array_1d.size(); ++index) {
-        final Long v = vv.get(index);
-        events.onDataAttributeValueIntegerSigned1(v.longValue());
+      final var data = array_1d.data();
+      for (int index = 0; index < data.size(); ++index) {
+        events.onDataAttributeValueIntegerSigned1(data.get(index));
       }
       return Boolean.TRUE;
     }
@@ -198,10 +204,13 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerUnsigned4Type array_4d)
     {
-      final List<Vector4L> vv = array_4d.values();
-      for (int index = 0; index < array_4d.size(); ++index) {
-        final Vector4L v = vv.get(index);
-        events.onDataAttributeValueIntegerUnsigned4(v.x(), v.y(), v.z(), v.w());
+      final var data = array_4d.data();
+      for (int index = 0; index < data.size(); index += 4) {
+        events.onDataAttributeValueIntegerUnsigned4(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2),
+          data.get(index + 3));
       }
       return Boolean.TRUE;
     }
@@ -210,10 +219,12 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerUnsigned3Type array_3d)
     {
-      final List<Vector3L> vv = array_3d.values();
-      for (int index = 0; index < array_3d.size(); ++index) {
-        final Vector3L v = vv.get(index);
-        events.onDataAttributeValueIntegerUnsigned3(v.x(), v.y(), v.z());
+      final var data = array_3d.data();
+      for (int index = 0; index < data.size(); index += 3) {
+        events.onDataAttributeValueIntegerUnsigned3(
+          data.get(index),
+          data.get(index + 1),
+          data.get(index + 2));
       }
       return Boolean.TRUE;
     }
@@ -222,10 +233,11 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerUnsigned2Type array_2d)
     {
-      final List<Vector2L> vv = array_2d.values();
-      for (int index = 0; index < array_2d.size(); ++index) {
-        final Vector2L v = vv.get(index);
-        events.onDataAttributeValueIntegerUnsigned2(v.x(), v.y());
+      final var data = array_2d.data();
+      for (int index = 0; index < data.size(); index += 2) {
+        events.onDataAttributeValueIntegerUnsigned2(
+          data.get(index),
+          data.get(index + 1));
       }
       return Boolean.TRUE;
     }
@@ -234,10 +246,9 @@ public final class SMFMemoryMeshParser
       final SMFParserEventsDataAttributeValuesType events,
       final SMFAttributeArrayIntegerUnsigned1Type array_1d)
     {
-      final List<Long> vv = array_1d.values();
-      for (int index = 0; index < array_1d.size(); ++index) {
-        final Long v = vv.get(index);
-        events.onDataAttributeValueIntegerUnsigned1(v.longValue());
+      final var data = array_1d.data();
+      for (int index = 0; index < data.size(); ++index) {
+        events.onDataAttributeValueIntegerUnsigned1(data.get(index));
       }
       return Boolean.TRUE;
     }
@@ -294,10 +305,18 @@ public final class SMFMemoryMeshParser
       if (t_opt.isPresent()) {
         final SMFParserEventsDataTrianglesType t = t_opt.get();
         try {
-          final List<Vector3L> triangles = this.mesh.triangles();
-          for (int index = 0; index < triangles.size(); ++index) {
-            final Vector3L tri = triangles.get(index);
-            t.onDataTriangle(tri.x(), tri.y(), tri.z());
+          final var triangles = this.mesh.triangleIndices();
+          final var chunk = new long[TRIANGLE_CHUNK_INDICES];
+          final int count = triangles.indexCount();
+          for (int base = 0; base < count; base += chunk.length) {
+            final int size = Math.min(chunk.length, count - base);
+            triangles.copyTo(base, chunk, 0, size);
+            for (int index = 0; index < size; index += 3) {
+              t.onDataTriangle(
+                chunk[index],
+                chunk[index + 1],
+                chunk[index + 2]);
+            }
           }
         } finally {
           t.onDataTrianglesFinish();
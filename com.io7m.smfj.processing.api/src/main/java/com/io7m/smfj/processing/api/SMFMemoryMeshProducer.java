@@ -17,12 +17,6 @@
 package com.io7m.smfj.processing.api;
 
 import com.io7m.jaffirm.core.Preconditions;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4L;
 import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.core.SMFAttributeName;
@@ -32,6 +26,7 @@ import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFWarningType;
 import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
 import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
@@ -57,18 +52,29 @@ public final class SMFMemoryMeshProducer
   SMFParserEventsDataTrianglesType,
   SMFParserEventsDataAttributesNonInterleavedType,
   SMFParserEventsDataMetaType,
-  SMFParserEventsDataAttributeValuesType
+  SMFParserEventsDataAttributeValuesType,
+  SMFParserEventsDataAttributeValuesBulkType
 {
   private static final Logger LOG =
     LoggerFactory.getLogger(SMFMemoryMeshProducer.class);
 
-  private final List<Object> elements;
+  /**
+   * The maximum number of values that will be preallocated for an attribute
+   * or for the triangle indices based on the counts declared in the header.
+   * Arrays larger than this grow on demand, so a corrupt header cannot cause a huge allocation
+   * up front.
+   */
+
+  private static final long PREALLOCATE_MAXIMUM = 1L << 24;
+
   private final List<SMFErrorType> errors;
   private final List<SMFMetadata> metadata;
   private final List<SMFWarningType> warnings;
-  private final List<Vector3L> triangles;
   private final Map<SMFAttributeName, SMFAttributeArrayType> arrays;
   private SMFAttribute attribute_current;
+  private SMFPackedDoubleArray.Builder floats;
+  private SMFPackedLongArray.Builder integers;
+  private SMFTriangleIndexBuffer.Builder triangles;
   private SMFHeader header;
   private SMFMemoryMesh mesh;
   private boolean finished;
@@ -80,9 +86,10 @@ public final class SMFMemoryMeshProducer
     this.errors = new ArrayList<>();
     this.warnings = new ArrayList<>();
     this.arrays = new HashMap<>();
-    this.triangles = new ArrayList<>();
+    this.triangles = SMFTriangleIndexBuffer.builder(32, 0);
     this.metadata = new ArrayList<>();
-    this.elements = new ArrayList<>();
+    this.floats = SMFPackedDoubleArray.builder(0);
+    this.integers = SMFPackedLongArray.builder(0);
   }
 
   /**
@@ -150,7 +157,7 @@ public final class SMFMemoryMeshProducer
         SMFMemoryMesh.builder()
           .setArrays(this.arrays)
           .setHeader(this.header)
-          .setTriangles(this.triangles)
+          .setTriangleIndices(this.triangles.build())
           .setMetadata(this.metadata)
           .build();
     }
@@ -209,7 +216,8 @@ public final class SMFMemoryMeshProducer
   public void onDataAttributeValueIntegerSigned1(
     final long x)
   {
-    this.elements.add(Long.valueOf(x));
+    this.integers
+      .add(x);
   }
 
   @Override
@@ -217,7 +225,9 @@ public final class SMFMemoryMeshProducer
     final long x,
     final long y)
   {
-    this.elements.add(Vector2L.of(x, y));
+    this.integers
+      .add(x)
+      .add(y);
   }
 
   @Override
@@ -226,7 +236,10 @@ public final class SMFMemoryMeshProducer
     final long y,
     final long z)
   {
-    this.elements.add(Vector3L.of(x, y, z));
+    this.integers
+      .add(x)
+      .add(y)
+      .add(z);
   }
 
   @Override
@@ -236,14 +249,19 @@ public final class SMFMemoryMeshProducer
     final long z,
     final long w)
   {
-    this.elements.add(Vector4L.of(x, y, z, w));
+    this.integers
+      .add(x)
+      .add(y)
+      .add(z)
+      .add(w);
   }
 
   @Override
   public void onDataAttributeValueIntegerUnsigned1(
     final long x)
   {
-    this.elements.add(Long.valueOf(x));
+    this.integers
+      .add(x);
   }
 
   @Override
@@ -251,7 +269,9 @@ public final class SMFMemoryMeshProducer
     final long x,
     final long y)
   {
-    this.elements.add(Vector2L.of(x, y));
+    this.integers
+      .add(x)
+      .add(y);
   }
 
   @Override
@@ -260,7 +280,10 @@ public final class SMFMemoryMeshProducer
     final long y,
     final long z)
   {
-    this.elements.add(Vector3L.of(x, y, z));
+    this.integers
+      .add(x)
+      .add(y)
+      .add(z);
   }
 
   @Override
@@ -270,14 +293,19 @@ public final class SMFMemoryMeshProducer
     final long z,
     final long w)
   {
-    this.elements.add(Vector4L.of(x, y, z, w));
+    this.integers
+      .add(x)
+      .add(y)
+      .add(z)
+      .add(w);
   }
 
   @Override
   public void onDataAttributeValueFloat1(
     final double x)
   {
-    this.elements.add(Double.valueOf(x));
+    this.floats
+      .add(x);
   }
 
   @Override
@@ -285,7 +313,9 @@ public final class SMFMemoryMeshProducer
     final double x,
     final double y)
   {
-    this.elements.add(Vector2D.of(x, y));
+    this.floats
+      .add(x)
+      .add(y);
   }
 
   @Override
@@ -294,7 +324,10 @@ public final class SMFMemoryMeshProducer
     final double y,
     final double z)
   {
-    this.elements.add(Vector3D.of(x, y, z));
+    this.floats
+      .add(x)
+      .add(y)
+      .add(z);
   }
 
   @Override
@@ -304,72 +337,112 @@ public final class SMFMemoryMeshProducer
     final double z,
     final double w)
   {
-    this.elements.add(Vector4D.of(x, y, z, w));
+    this.floats
+      .add(x)
+      .add(y)
+      .add(z)
+      .add(w);
+  }
+
+  @Override
+  public void onDataAttributeValuesFloat32(
+    final float[] values,
+    final int offset,
+    final int count)
+  {
+    Objects.checkFromIndexSize(offset, count, values.length);
+    for (int index = 0; index < count; ++index) {
+      this.floats.add(values[offset + index]);
+    }
+  }
+
+  @Override
+  public void onDataAttributeValuesFloat64(
+    final double[] values,
+    final int offset,
+    final int count)
+  {
+    this.floats.addAll(values, offset, count);
+  }
+
+  @Override
+  public void onDataAttributeValuesIntegerSigned(
+    final long[] values,
+    final int offset,
+    final int count)
+  {
+    this.integers.addAll(values, offset, count);
+  }
+
+  @Override
+  public void onDataAttributeValuesIntegerUnsigned(
+    final long[] values,
+    final int offset,
+    final int count)
+  {
+    this.integers.addAll(values, offset, count);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributeValuesBulkType> onDataAttributeValuesBulk()
+  {
+    return Optional.of(this);
   }
 
   @Override
   public void onDataAttributeValueFinish()
   {
     LOG.debug("finished attribute {}", this.attribute_current.name().value());
+    this.arrays.put(
+      this.attribute_current.name(),
+      arrayOf(this.attribute_current, this.floats, this.integers));
+  }
+
+  /**
+   * Build an attribute array from the values accumulated for an attribute.
+   *
+   * @param attribute The attribute
+   * @param floats    The accumulated floating point values
+   * @param integers  The accumulated integer values
+   *
+   * @return An attribute array
+   */
 
-    switch (this.attribute_current.componentType()) {
+  static SMFAttributeArrayType arrayOf(
+    final SMFAttribute attribute,
+    final SMFPackedDoubleArray.Builder floats,
+    final SMFPackedLongArray.Builder integers)
+  {
+    switch (attribute.componentType()) {
       case ELEMENT_TYPE_INTEGER_SIGNED: {
-        this.finishIntegerSignedAttribute();
-        break;
+        return arrayIntegerSigned(attribute, integers.build());
       }
-
       case ELEMENT_TYPE_INTEGER_UNSIGNED: {
-        this.finishIntegerUnsignedAttribute();
-        break;
+        return arrayIntegerUnsigned(attribute, integers.build());
       }
-
       case ELEMENT_TYPE_FLOATING: {
-        this.finishFloatingAttribute();
-        break;
+        return arrayFloating(attribute, floats.build());
       }
     }
+    throw new UnreachableCodeException();
   }
 
-  @SuppressWarnings("unchecked")
-  private static <A, B extends A> List<B> unsafeListCast(final List<A> xs)
-  {
-    return (List<B>) xs;
-  }
-
-  private void finishFloatingAttribute()
+  private static SMFAttributeArrayType arrayFloating(
+    final SMFAttribute attribute,
+    final SMFPackedDoubleArray data)
   {
-    switch (this.attribute_current.componentCount()) {
+    switch (attribute.componentCount()) {
       case 4: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayFloating4.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayFloating4.of(data);
       }
       case 3: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayFloating3.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayFloating3.of(data);
       }
       case 2: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayFloating2.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayFloating2.of(data);
       }
       case 1: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayFloating1.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayFloating1.of(data);
       }
       default: {
         throw new UnreachableCodeException();
@@ -377,40 +450,22 @@ public final class SMFMemoryMeshProducer
     }
   }
 
-  private void finishIntegerUnsignedAttribute()
+  private static SMFAttributeArrayType arrayIntegerUnsigned(
+    final SMFAttribute attribute,
+    final SMFPackedLongArray data)
   {
-    switch (this.attribute_current.componentCount()) {
+    switch (attribute.componentCount()) {
       case 4: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerUnsigned4.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerUnsigned4.of(data);
       }
       case 3: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerUnsigned3.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerUnsigned3.of(data);
       }
       case 2: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerUnsigned2.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerUnsigned2.of(data);
       }
       case 1: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerUnsigned1.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerUnsigned1.of(data);
       }
       default: {
         throw new UnreachableCodeException();
@@ -418,40 +473,22 @@ public final class SMFMemoryMeshProducer
     }
   }
 
-  private void finishIntegerSignedAttribute()
+  private static SMFAttributeArrayType arrayIntegerSigned(
+    final SMFAttribute attribute,
+    final SMFPackedLongArray data)
   {
-    switch (this.attribute_current.componentCount()) {
+    switch (attribute.componentCount()) {
       case 4: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerSigned4.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerSigned4.of(data);
       }
       case 3: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerSigned3.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerSigned3.of(data);
       }
       case 2: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerSigned2.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerSigned2.of(data);
       }
       case 1: {
-        this.arrays.put(
-          this.attribute_current.name(),
-          SMFAttributeArrayIntegerSigned1.builder()
-            .setValues(unsafeListCast(this.elements))
-            .build());
-        break;
+        return SMFAttributeArrayIntegerSigned1.of(data);
       }
       default: {
         throw new UnreachableCodeException();
@@ -465,7 +502,16 @@ public final class SMFMemoryMeshProducer
     final long v1,
     final long v2)
   {
-    this.triangles.add(Vector3L.of(v0, v1, v2));
+    this.triangles.add(v0, v1, v2);
+  }
+
+  @Override
+  public void onDataTriangles(
+    final long[] indices,
+    final int offset,
+    final int count)
+  {
+    this.triangles.addAll(indices, offset, count);
   }
 
   @Override
@@ -479,6 +525,14 @@ public final class SMFMemoryMeshProducer
     final SMFHeader in_header)
   {
     this.header = Objects.requireNonNull(in_header, "Header");
+
+    final var headerTriangles = this.header.triangles();
+    this.triangles =
+      SMFTriangleIndexBuffer.builder(
+        headerTriangles.triangleIndexSizeBits(),
+        (int) Math.min(
+          PREALLOCATE_MAXIMUM / 3L,
+          headerTriangles.triangleCount()));
     return Optional.of(this);
   }
 
@@ -488,7 +542,23 @@ public final class SMFMemoryMeshProducer
   {
     Objects.requireNonNull(attribute, "Attribute");
     this.attribute_current = attribute;
-    this.elements.clear();
+
+    final int capacity =
+      (int) Math.min(
+        PREALLOCATE_MAXIMUM,
+        this.header.vertexCount() * (long) attribute.componentCount());
+
+    switch (attribute.componentType()) {
+      case ELEMENT_TYPE_INTEGER_SIGNED:
+      case ELEMENT_TYPE_INTEGER_UNSIGNED: {
+        this.integers = SMFPackedLongArray.builder(capacity);
+        break;
+      }
+      case ELEMENT_TYPE_FLOATING: {
+        this.floats = SMFPackedDoubleArray.builder(capacity);
+        break;
+      }
+    }
     return Optional.of(this);
   }
 
@@ -16,12 +16,6 @@
 
 package com.io7m.smfj.processing.api;
 
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector2L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
-import com.io7m.jtensors.core.unparameterized.vectors.Vector4L;
 import com.io7m.junreachable.UnreachableCodeException;
 import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.core.SMFAttributeName;
@@ -32,7 +26,13 @@ import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
 import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
 import com.io7m.smfj.serializer.api.SMFSerializerType;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static com.io7m.smfj.core.SMFVoid.void_;
 
@@ -42,6 +42,13 @@ import static com.io7m.smfj.core.SMFVoid.void_;
 
 public final class SMFMemoryMeshSerializer
 {
+  /**
+   * The number of attribute values copied per block; a multiple of every
+   * possible component count.
+   */
+
+  private static final int VALUE_CHUNK = 12 * 1024;
+
   private SMFMemoryMeshSerializer()
   {
     throw new UnreachableCodeException();
@@ -71,6 +78,39 @@ public final class SMFMemoryMeshSerializer
     serializeMetadata(mesh, s);
   }
 
+  /**
+   * Serialize the given mesh to the given serializer. If the serializer
+   * supports concurrent serialization of attributes, the data of each
+   * attribute is serialized as a separate task on the given executor, and
+   * the method returns when all of the tasks have completed. Otherwise, the
+   * mesh is serialized as by {@link #serialize(SMFMemoryMesh,
+   * SMFSerializerType)}.
+   *
+   * @param mesh     A mesh
+   * @param s        A serializer
+   * @param executor An executor for attribute tasks
+   *
+   * @throws IOException On I/O errors
+   * @see SMFSerializerDataAttributesNonInterleavedType#serializeDataConcurrentSupported()
+   */
+
+  public static void serialize(
+    final SMFMemoryMesh mesh,
+    final SMFSerializerType s,
+    final Executor executor)
+    throws IOException
+  {
+    Objects.requireNonNull(mesh, "Mesh");
+    Objects.requireNonNull(s, "Serial");
+    Objects.requireNonNull(executor, "Executor");
+
+    final SMFHeader header = mesh.header();
+    s.serializeHeader(header);
+    serializeNonInterleavedConcurrently(mesh, s, header, executor);
+    serializeTriangles(mesh, s);
+    serializeMetadata(mesh, s);
+  }
+
   private static void serializeMetadata(
     final SMFMemoryMesh mesh,
     final SMFSerializerType s)
@@ -87,9 +127,11 @@ public final class SMFMemoryMeshSerializer
     throws IOException
   {
     try (SMFSerializerDataTrianglesType st = s.serializeTrianglesStart()) {
-      for (final Vector3L t : mesh.triangles()) {
-        st.serializeTriangle(t.x(), t.y(), t.z());
-      }
+      final var triangles = mesh.triangleIndices();
+      st.serializeTriangles(
+        triangles.asBuffer(),
+        triangles.indexSizeBits(),
+        triangles.triangleCount());
     }
   }
 
@@ -101,38 +143,117 @@ public final class SMFMemoryMeshSerializer
   {
     try (SMFSerializerDataAttributesNonInterleavedType sv =
            s.serializeVertexDataNonInterleavedStart()) {
+      serializeAttributes(mesh, header, sv);
+    }
+  }
+
+  private static void serializeAttributes(
+    final SMFMemoryMesh mesh,
+    final SMFHeader header,
+    final SMFSerializerDataAttributesNonInterleavedType sv)
+    throws IOException
+  {
+    for (final SMFAttribute attribute : header.attributesInOrder()) {
+      final SMFAttributeName name = attribute.name();
+      try (SMFSerializerDataAttributesValuesType sav =
+             sv.serializeData(name)) {
+        serializeArray(sav, mesh.arrays().get(name));
+      }
+    }
+  }
+
+  private static void serializeNonInterleavedConcurrently(
+    final SMFMemoryMesh mesh,
+    final SMFSerializerType s,
+    final SMFHeader header,
+    final Executor executor)
+    throws IOException
+  {
+    try (SMFSerializerDataAttributesNonInterleavedType sv =
+           s.serializeVertexDataNonInterleavedStart()) {
+      if (!sv.serializeDataConcurrentSupported()) {
+        serializeAttributes(mesh, header, sv);
+        return;
+      }
+
+      final var tasks = new ArrayList<CompletableFuture<Void>>();
       for (final SMFAttribute attribute : header.attributesInOrder()) {
         final SMFAttributeName name = attribute.name();
-        try (SMFSerializerDataAttributesValuesType sav =
-               sv.serializeData(name)) {
-          final SMFAttributeArrayType array = mesh.arrays().get(name);
-          array.matchArray(
-            sav,
-            SMFMemoryMeshSerializer::serializeFloat4,
-            SMFMemoryMeshSerializer::serializeFloat3,
-            SMFMemoryMeshSerializer::serializeFloat2,
-            SMFMemoryMeshSerializer::serializeFloat1,
-            SMFMemoryMeshSerializer::serializeUnsigned4,
-            SMFMemoryMeshSerializer::serializeUnsigned3,
-            SMFMemoryMeshSerializer::serializeUnsigned2,
-            SMFMemoryMeshSerializer::serializeUnsigned1,
-            SMFMemoryMeshSerializer::serializeSigned4,
-            SMFMemoryMeshSerializer::serializeSigned3,
-            SMFMemoryMeshSerializer::serializeSigned2,
-            SMFMemoryMeshSerializer::serializeSigned1);
-        }
+        final SMFAttributeArrayType array = mesh.arrays().get(name);
+        tasks.add(CompletableFuture.runAsync(() -> {
+          try (SMFSerializerDataAttributesValuesType sav =
+                 sv.serializeData(name)) {
+            serializeArray(sav, array);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, executor));
+      }
+
+      await(CompletableFuture.allOf(
+        tasks.toArray(new CompletableFuture<?>[0])));
+    }
+  }
+
+  private static void await(
+    final CompletableFuture<Void> future)
+    throws IOException
+  {
+    try {
+      future.join();
+    } catch (final CompletionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
       }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    } catch (final CancellationException e) {
+      throw new IOException("Serialization was cancelled", e);
     }
   }
 
+  /**
+   * Serialize the values of the given attribute array.
+   *
+   * @param sav   The attribute value serializer
+   * @param array The attribute array
+   *
+   * @throws IOException On I/O errors
+   */
+
+  static void serializeArray(
+    final SMFSerializerDataAttributesValuesType sav,
+    final SMFAttributeArrayType array)
+    throws IOException
+  {
+    array.matchArray(
+      sav,
+      SMFMemoryMeshSerializer::serializeFloat4,
+      SMFMemoryMeshSerializer::serializeFloat3,
+      SMFMemoryMeshSerializer::serializeFloat2,
+      SMFMemoryMeshSerializer::serializeFloat1,
+      SMFMemoryMeshSerializer::serializeUnsigned4,
+      SMFMemoryMeshSerializer::serializeUnsigned3,
+      SMFMemoryMeshSerializer::serializeUnsigned2,
+      SMFMemoryMeshSerializer::serializeUnsigned1,
+      SMFMemoryMeshSerializer::serializeSigned4,
+      SMFMemoryMeshSerializer::serializeSigned3,
+      SMFMemoryMeshSerializer::serializeSigned2,
+      SMFMemoryMeshSerializer::serializeSigned1);
+  }
+
   private static SMFVoid serializeSigned1(
     final SMFSerializerDataAttributesValuesType s,
     final SMFAttributeArrayIntegerSigned1Type y)
     throws IOException
   {
-    for (final Long v : y.values()) {
-      s.serializeValueIntegerSigned1(v.longValue());
-    }
+    serializeSigneds(s, 1, y.data());
     return void_();
   }
 
@@ -141,9 +262,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerSigned2Type y)
     throws IOException
   {
-    for (final Vector2L v : y.values()) {
-      s.serializeValueIntegerSigned2(v.x(), v.y());
-    }
+    serializeSigneds(s, 2, y.data());
     return void_();
   }
 
@@ -152,9 +271,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerSigned3Type y)
     throws IOException
   {
-    for (final Vector3L v : y.values()) {
-      s.serializeValueIntegerSigned3(v.x(), v.y(), v.z());
-    }
+    serializeSigneds(s, 3, y.data());
     return void_();
   }
 
@@ -163,9 +280,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerSigned4Type y)
     throws IOException
   {
-    for (final Vector4L v : y.values()) {
-      s.serializeValueIntegerSigned4(v.x(), v.y(), v.z(), v.w());
-    }
+    serializeSigneds(s, 4, y.data());
     return void_();
   }
 
@@ -174,9 +289,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerUnsigned1Type y)
     throws IOException
   {
-    for (final Long v : y.values()) {
-      s.serializeValueIntegerUnsigned1(v.longValue());
-    }
+    serializeUnsigneds(s, 1, y.data());
     return void_();
   }
 
@@ -185,9 +298,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerUnsigned2Type y)
     throws IOException
   {
-    for (final Vector2L v : y.values()) {
-      s.serializeValueIntegerUnsigned2(v.x(), v.y());
-    }
+    serializeUnsigneds(s, 2, y.data());
     return void_();
   }
 
@@ -196,9 +307,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerUnsigned3Type y)
     throws IOException
   {
-    for (final Vector3L v : y.values()) {
-      s.serializeValueIntegerUnsigned3(v.x(), v.y(), v.z());
-    }
+    serializeUnsigneds(s, 3, y.data());
     return void_();
   }
 
@@ -207,9 +316,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayIntegerUnsigned4Type y)
     throws IOException
   {
-    for (final Vector4L v : y.values()) {
-      s.serializeValueIntegerUnsigned4(v.x(), v.y(), v.z(), v.w());
-    }
+    serializeUnsigneds(s, 4, y.data());
     return void_();
   }
 
@@ -218,9 +325,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayFloating1Type y)
     throws IOException
   {
-    for (final Double v : y.values()) {
-      s.serializeValueFloat1(v.doubleValue());
-    }
+    serializeFloats(s, 1, y.data());
     return void_();
   }
 
@@ -229,9 +334,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayFloating2Type y)
     throws IOException
   {
-    for (final Vector2D v : y.values()) {
-      s.serializeValueFloat2(v.x(), v.y());
-    }
+    serializeFloats(s, 2, y.data());
     return void_();
   }
 
@@ -240,9 +343,7 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayFloating3Type y)
     throws IOException
   {
-    for (final Vector3D v : y.values()) {
-      s.serializeValueFloat3(v.x(), v.y(), v.z());
-    }
+    serializeFloats(s, 3, y.data());
     return void_();
   }
 
@@ -251,9 +352,58 @@ public final class SMFMemoryMeshSerializer
     final SMFAttributeArrayFloating4Type y)
     throws IOException
   {
-    for (final Vector4D v : y.values()) {
-      s.serializeValueFloat4(v.x(), v.y(), v.z(), v.w());
-    }
+    serializeFloats(s, 4, y.data());
     return void_();
   }
+
+  /*
+   * Values are copied out of the packed arrays in blocks of whole vertices,
+   * and passed to the serializer a block at a time so that serializers that
+   * can encode blocks directly avoid per-vertex calls.
+   */
+
+  private static void serializeFloats(
+    final SMFSerializerDataAttributesValuesType s,
+    final int components,
+    final SMFPackedDoubleArray data)
+    throws IOException
+  {
+    final var chunk = new double[Math.min(VALUE_CHUNK, data.size())];
+    final int count = data.size();
+    for (int base = 0; base < count; base += chunk.length) {
+      final int size = Math.min(chunk.length, count - base);
+      data.copyTo(base, chunk, 0, size);
+      s.serializeValuesFloat64(components, chunk, 0, size);
+    }
+  }
+
+  private static void serializeSigneds(
+    final SMFSerializerDataAttributesValuesType s,
+    final int components,
+    final SMFPackedLongArray data)
+    throws IOException
+  {
+    final var chunk = new long[Math.min(VALUE_CHUNK, data.size())];
+    final int count = data.size();
+    for (int base = 0; base < count; base += chunk.length) {
+      final int size = Math.min(chunk.length, count - base);
+      data.copyTo(base, chunk, 0, size);
+      s.serializeValuesIntegerSigned(components, chunk, 0, size);
+    }
+  }
+
+  private static void serializeUnsigneds(
+    final SMFSerializerDataAttributesValuesType s,
+    final int components,
+    final SMFPackedLongArray data)
+    throws IOException
+  {
+    final var chunk = new long[Math.min(VALUE_CHUNK, data.size())];
+    final int count = data.size();
+    for (int base = 0; base < count; base += chunk.length) {
+      final int size = Math.min(chunk.length, count - base);
+      data.copyTo(base, chunk, 0, size);
+      s.serializeValuesIntegerUnsigned(components, chunk, 0, size);
+    }
+  }
 }
@@ -54,21 +54,44 @@ public interface SMFMemoryMeshType
   List<SMFMetadata> metadata();
 
   /**
-   * @return The triangles
+   * The triangle indices. The indices use the index size declared in the
+   * header, unless one or more of them are too large to be represented at
+   * that size, in which case the smallest size that can represent all of
+   * them is used.
+   *
+   * @return The triangle indices
    */
 
   @Value.Parameter
-  List<Vector3L> triangles();
+  SMFTriangleIndexBuffer triangleIndices();
 
   /**
-   * Check preconditions for the type.
+   * A read-only view of the triangles. The elements of the view are
+   * created on demand; use {@link #triangleIndices()} to access the
+   * triangles without allocating.
+   *
+   * @return The triangles
+   */
+
+  default List<Vector3L> triangles()
+  {
+    final var indices = this.triangleIndices();
+    return SMFAttributeArrayViews.view(
+      indices.triangleCount(), indices::triangle);
+  }
+
+  /**
+   * Check preconditions for the type, and repack the triangle indices to
+   * the size declared in the header if necessary.
+   *
+   * @return A normalized mesh
    */
 
   @Value.Check
-  default void checkPreconditions()
+  default SMFMemoryMeshType checkPreconditions()
   {
     {
-      final long triSize = (long) this.triangles().size();
+      final long triSize = (long) this.triangleIndices().triangleCount();
       final long triHCount = this.header().triangles().triangleCount();
       Preconditions.checkPreconditionL(
         triSize,
@@ -84,5 +107,17 @@ public interface SMFMemoryMeshType
         arraySize == arrayVCount,
         x -> "Attribute array size must match header count");
     });
+
+    final var indices = this.triangleIndices();
+    final int sizeBits =
+      Math.max(
+        this.header().triangles().triangleIndexSizeBits(),
+        SMFTriangleIndexBuffer.indexSizeBitsRequired(indices.maximum()));
+
+    if (indices.indexSizeBits() == sizeBits) {
+      return this;
+    }
+    return SMFMemoryMesh.copyOf(this)
+      .withTriangleIndices(indices.withIndexSizeBits(sizeBits));
   }
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>An immutable, packed array of {@code long} values.</p>
+ *
+ * <p>The values of each vertex of an attribute are stored consecutively,
+ * so the {@code n}th component of vertex {@code v} of an attribute with
+ * {@code c} components is stored at index {@code (v * c) + n}. The array
+ * stores signed and unsigned integer values without boxing; unsigned
+ * 64-bit values are stored in two's complement form.</p>
+ */
+
+public final class SMFPackedLongArray
+{
+  private static final SMFPackedLongArray EMPTY =
+    new SMFPackedLongArray(new long[0], 0);
+
+  private final long[] values;
+  private final int size;
+
+  private SMFPackedLongArray(
+    final long[] inValues,
+    final int inSize)
+  {
+    this.values = inValues;
+    this.size = inSize;
+  }
+
+  /**
+   * @return An empty array
+   */
+
+  public static SMFPackedLongArray empty()
+  {
+    return EMPTY;
+  }
+
+  /**
+   * Create an array containing a copy of the given values.
+   *
+   * @param values The values
+   *
+   * @return A packed array
+   */
+
+  public static SMFPackedLongArray of(
+    final long... values)
+  {
+    Objects.requireNonNull(values, "values");
+    return new SMFPackedLongArray(values.clone(), values.length);
+  }
+
+  /**
+   * Create a new mutable builder.
+   *
+   * @param capacity The initial capacity of the builder
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder(
+    final int capacity)
+  {
+    return new Builder(capacity);
+  }
+
+  /**
+   * @return The number of values in the array
+   */
+
+  public int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @param index The value index
+   *
+   * @return The value at {@code index}
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is out of range
+   */
+
+  public long get(
+    final int index)
+    throws IndexOutOfBoundsException
+  {
+    return this.values[Objects.checkIndex(index, this.size)];
+  }
+
+  /**
+   * Copy {@code count} values starting at {@code index} into
+   * {@code target}, starting at {@code targetOffset}.
+   *
+   * @param index        The index of the first value
+   * @param target       The target array
+   * @param targetOffset The index of the first value in the target array
+   * @param count        The number of values
+   *
+   * @throws IndexOutOfBoundsException If any of the ranges are invalid
+   */
+
+  public void copyTo(
+    final int index,
+    final long[] target,
+    final int targetOffset,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    Objects.requireNonNull(target, "target");
+    Objects.checkFromIndexSize(index, count, this.size);
+    System.arraycopy(this.values, index, target, targetOffset, count);
+  }
+
+  /**
+   * @return A copy of the values in the array
+   */
+
+  public long[] toArray()
+  {
+    return Arrays.copyOf(this.values, this.size);
+  }
+
+  /**
+   * @return A read-only view of the array that does not copy the values
+   */
+
+  public LongBuffer asBuffer()
+  {
+    return LongBuffer.wrap(this.values, 0, this.size).asReadOnlyBuffer();
+  }
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || !Objects.equals(this.getClass(), o.getClass())) {
+      return false;
+    }
+    final SMFPackedLongArray that = (SMFPackedLongArray) o;
+    return Arrays.equals(
+      this.values, 0, this.size, that.values, 0, that.size);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = 1;
+    for (int index = 0; index < this.size; ++index) {
+      result = 31 * result + Long.hashCode(this.values[index]);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(64)
+      .append("[SMFPackedLongArray size=")
+      .append(this.size)
+      .append(']')
+      .toString();
+  }
+
+  /**
+   * A mutable builder for packed arrays.
+   */
+
+  public static final class Builder
+  {
+    private long[] values;
+    private int size;
+
+    private Builder(
+      final int capacity)
+    {
+      if (capacity < 0) {
+        throw new IllegalArgumentException(
+          "Capacity must be non-negative: " + capacity);
+      }
+      this.values = new long[capacity];
+      this.size = 0;
+    }
+
+    private void reserve(
+      final int count)
+    {
+      final int required = Math.addExact(this.size, count);
+      if (required > this.values.length) {
+        final int doubled =
+          (int) Math.min(
+            (long) this.values.length * 2L,
+            (long) Integer.MAX_VALUE - 8L);
+        this.values =
+          Arrays.copyOf(this.values, Math.max(required, Math.max(doubled, 16)));
+      }
+    }
+
+    /**
+     * @return The number of values added so far
+     */
+
+    public int size()
+    {
+      return this.size;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param x The value
+     *
+     * @return this
+     */
+
+    public Builder add(
+      final long x)
+    {
+      this.reserve(1);
+      this.values[this.size] = x;
+      ++this.size;
+      return this;
+    }
+
+    /**
+     * Add {@code count} values from {@code source}, starting at
+     * {@code offset}.
+     *
+     * @param source The source array
+     * @param offset The index of the first value
+     * @param count  The number of values
+     *
+     * @return this
+     */
+
+    public Builder addAll(
+      final long[] source,
+      final int offset,
+      final int count)
+    {
+      Objects.requireNonNull(source, "source");
+      Objects.checkFromIndexSize(offset, count, source.length);
+      this.reserve(count);
+      System.arraycopy(source, offset, this.values, this.size, count);
+      this.size += count;
+      return this;
+    }
+
+    /**
+     * Build an array. The builder must not be used after this method has
+     * been called.
+     *
+     * @return A packed array containing all of the added values
+     */
+
+    public SMFPackedLongArray build()
+    {
+      final long[] result;
+      if (this.size == this.values.length) {
+        result = this.values;
+      } else {
+        result = Arrays.copyOf(this.values, this.size);
+      }
+      this.values = new long[0];
+      this.size = 0;
+      return new SMFPackedLongArray(result, result.length);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsErrorType;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A buffer that holds the values of an attribute that a parser delivered
+ * before a serializer was ready to accept them.
+ */
+
+final class SMFStreamingAttributeBuffer
+  implements SMFParserEventsDataAttributeValuesType,
+  SMFParserEventsDataAttributeValuesBulkType
+{
+  private final SMFParserEventsErrorType errors;
+  private final SMFAttribute attribute;
+  private final Runnable onFinish;
+  private final SMFPackedDoubleArray.Builder floats;
+  private final SMFPackedLongArray.Builder integers;
+  private boolean finished;
+
+  SMFStreamingAttributeBuffer(
+    final SMFParserEventsErrorType inErrors,
+    final SMFAttribute inAttribute,
+    final Runnable inOnFinish)
+  {
+    this.errors =
+      Objects.requireNonNull(inErrors, "errors");
+    this.attribute =
+      Objects.requireNonNull(inAttribute, "attribute");
+    this.onFinish =
+      Objects.requireNonNull(inOnFinish, "onFinish");
+    this.floats = SMFPackedDoubleArray.builder(0);
+    this.integers = SMFPackedLongArray.builder(0);
+  }
+
+  /**
+   * @return {@code true} if all of the values of the attribute have been
+   * received
+   */
+
+  boolean isFinished()
+  {
+    return this.finished;
+  }
+
+  /**
+   * @return The buffered values
+   */
+
+  SMFAttributeArrayType array()
+  {
+    return SMFMemoryMeshProducer.arrayOf(
+      this.attribute, this.floats, this.integers);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned1(
+    final long x)
+  {
+    this.integers.add(x);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned2(
+    final long x,
+    final long y)
+  {
+    this.integers.add(x).add(y);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned3(
+    final long x,
+    final long y,
+    final long z)
+  {
+    this.integers.add(x).add(y).add(z);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerSigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+  {
+    this.integers.add(x).add(y).add(z).add(w);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned1(
+    final long x)
+  {
+    this.integers.add(x);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned2(
+    final long x,
+    final long y)
+  {
+    this.integers.add(x).add(y);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned3(
+    final long x,
+    final long y,
+    final long z)
+  {
+    this.integers.add(x).add(y).add(z);
+  }
+
+  @Override
+  public void onDataAttributeValueIntegerUnsigned4(
+    final long x,
+    final long y,
+    final long z,
+    final long w)
+  {
+    this.integers.add(x).add(y).add(z).add(w);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat1(
+    final double x)
+  {
+    this.floats.add(x);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat2(
+    final double x,
+    final double y)
+  {
+    this.floats.add(x).add(y);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat3(
+    final double x,
+    final double y,
+    final double z)
+  {
+    this.floats.add(x).add(y).add(z);
+  }
+
+  @Override
+  public void onDataAttributeValueFloat4(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+  {
+    this.floats.add(x).add(y).add(z).add(w);
+  }
+
+  @Override
+  public void onDataAttributeValuesFloat32(
+    final float[] values,
+    final int offset,
+    final int count)
+  {
+    Objects.checkFromIndexSize(offset, count, values.length);
+    for (int index = 0; index < count; ++index) {
+      this.floats.add(values[offset + index]);
+    }
+  }
+
+  @Override
+  public void onDataAttributeValuesFloat64(
+    final double[] values,
+    final int offset,
+    final int count)
+  {
+    this.floats.addAll(values, offset, count);
+  }
+
+  @Override
+  public void onDataAttributeValuesIntegerSigned(
+    final long[] values,
+    final int offset,
+    final int count)
+  {
+    this.integers.addAll(values, offset, count);
+  }
+
+  @Override
+  public void onDataAttributeValuesIntegerUnsigned(
+    final long[] values,
+    final int offset,
+    final int count)
+  {
+    this.integers.addAll(values, offset, count);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributeValuesBulkType> onDataAttributeValuesBulk()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public void onDataAttributeValueFinish()
+  {
+    this.finished = true;
+    this.onFinish.run();
+  }
+
+  @Override
+  public void onError(
+    final SMFErrorType e)
+  {
+    this.errors.onError(e);
+  }
+
+  @Override
+  public void onWarning(
+    final SMFWarningType w)
+  {
+    this.errors.onWarning(w);
+  }
+}
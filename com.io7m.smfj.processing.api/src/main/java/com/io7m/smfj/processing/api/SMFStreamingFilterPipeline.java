@@ -0,0 +1,717 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFPartialLogged;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderType;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesNonInterleavedType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataAttributesValuesType;
+import com.io7m.smfj.serializer.api.SMFSerializerDataTrianglesType;
+import com.io7m.smfj.serializer.api.SMFSerializerType;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A parser event receiver that evaluates a sequence of streaming filters on a
+ * mesh as it is parsed, and writes the filtered mesh directly to a serializer.
+ *
+ * <p>Vertex data and triangles are passed to the serializer as they arrive,
+ * so a mesh is filtered in constant memory as long as the parser delivers
+ * the attributes in the order in which they are declared in the header, and
+ * delivers vertex data before triangles. Data that arrives earlier than the
+ * serializer can accept it is held in memory until the serializer is ready.
+ * Metadata is always held in memory and serialized last.</p>
+ *
+ * <p>The serializer is not closed by this receiver.</p>
+ */
+
+public final class SMFStreamingFilterPipeline
+  implements SMFParserEventsType,
+  SMFParserEventsHeaderType,
+  SMFParserEventsBodyType,
+  SMFParserEventsDataAttributesNonInterleavedType,
+  SMFParserEventsDataTrianglesType,
+  SMFParserEventsDataMetaType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(SMFStreamingFilterPipeline.class);
+
+  private final SMFFilterCommandContext context;
+  private final List<SMFStreamingFilterType> filters;
+  private final SMFSerializerType serializer;
+  private final List<SMFErrorType> errors;
+  private final List<SMFWarningType> warnings;
+  private final List<SMFMetadata> metadata;
+  private final Map<SMFAttributeName, SMFAttributeName> names;
+  private final ArrayDeque<SMFAttributeName> pending;
+  private final Map<SMFAttributeName, SMFStreamingAttributeBuffer> buffered;
+  private SMFHeader header;
+  private SMFSerializerDataAttributesNonInterleavedType vertices;
+  private boolean verticesDone;
+  private SMFTriangleIndexBuffer.Builder trianglesBuffered;
+  private SMFSerializerDataTrianglesType triangles;
+  private boolean trianglesDone;
+  private boolean failed;
+
+  private SMFStreamingFilterPipeline(
+    final SMFFilterCommandContext inContext,
+    final List<SMFStreamingFilterType> inFilters,
+    final SMFSerializerType inSerializer)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.filters =
+      List.copyOf(Objects.requireNonNull(inFilters, "filters"));
+    this.serializer =
+      Objects.requireNonNull(inSerializer, "serializer");
+
+    this.errors = new ArrayList<>();
+    this.warnings = new ArrayList<>();
+    this.metadata = new ArrayList<>();
+    this.names = new HashMap<>();
+    this.pending = new ArrayDeque<>();
+    this.buffered = new HashMap<>();
+  }
+
+  /**
+   * Create a new pipeline.
+   *
+   * @param context    The filtering context
+   * @param filters    The filters, in evaluation order
+   * @param serializer The serializer that will receive the filtered mesh
+   *
+   * @return A new pipeline
+   */
+
+  public static SMFStreamingFilterPipeline create(
+    final SMFFilterCommandContext context,
+    final List<SMFStreamingFilterType> filters,
+    final SMFSerializerType serializer)
+  {
+    return new SMFStreamingFilterPipeline(context, filters, serializer);
+  }
+
+  /**
+   * @return The list of errors encountered, if any
+   */
+
+  public List<SMFErrorType> errors()
+  {
+    return List.copyOf(this.errors);
+  }
+
+  /**
+   * @return The list of warnings encountered, if any
+   */
+
+  public List<SMFWarningType> warnings()
+  {
+    return List.copyOf(this.warnings);
+  }
+
+  private void fail(
+    final Exception e)
+  {
+    LOG.debug("serialization failed: ", e);
+    this.failed = true;
+    this.errors.add(SMFProcessingError.of(
+      String.format("Serialization failed: %s", e.getMessage()),
+      Optional.of(e)));
+  }
+
+  private boolean isFailed()
+  {
+    return this.failed || !this.errors.isEmpty();
+  }
+
+  @Override
+  public void onStart()
+  {
+
+  }
+
+  @Override
+  public Optional<SMFParserEventsHeaderType> onVersionReceived(
+    final SMFFormatVersion version)
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public void onFinish()
+  {
+    if (this.isFailed() || this.header == null) {
+      return;
+    }
+
+    try {
+      if (!this.verticesDone) {
+        this.errors.add(SMFProcessingError.of(
+          "Vertex data was not received for all attributes",
+          Optional.empty()));
+        return;
+      }
+      this.finishTriangles();
+      this.finishMetadata();
+    } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+      this.fail(e);
+    }
+  }
+
+  private void finishTriangles()
+    throws IOException
+  {
+    if (this.trianglesDone) {
+      return;
+    }
+
+    try (var serial = this.serializer.serializeTrianglesStart()) {
+      if (this.trianglesBuffered != null) {
+        final var buffer = this.trianglesBuffered.build();
+        for (int index = 0; index < buffer.triangleCount(); ++index) {
+          serial.serializeTriangle(
+            buffer.v0(index),
+            buffer.v1(index),
+            buffer.v2(index));
+        }
+        this.trianglesBuffered = null;
+      }
+    }
+    this.trianglesDone = true;
+  }
+
+  private void finishMetadata()
+    throws IOException
+  {
+    List<SMFMetadata> current = List.copyOf(this.metadata);
+    for (final var filter : this.filters) {
+      final SMFPartialLogged<List<SMFMetadata>> result =
+        filter.filterMetadata(this.context, current);
+      this.warnings.addAll(result.warnings());
+      if (result.isFailed()) {
+        this.errors.addAll(result.errors());
+        return;
+      }
+      current = result.get();
+    }
+
+    for (final var meta : current) {
+      this.serializer.serializeMetadata(meta.schema(), meta.data());
+    }
+  }
+
+  @Override
+  public void onError(
+    final SMFErrorType e)
+  {
+    this.errors.add(e);
+  }
+
+  @Override
+  public void onWarning(
+    final SMFWarningType w)
+  {
+    this.warnings.add(w);
+  }
+
+  @Override
+  public Optional<SMFParserEventsBodyType> onHeaderParsed(
+    final SMFHeader inHeader)
+  {
+    Objects.requireNonNull(inHeader, "header");
+
+    for (final var attribute : inHeader.attributesInOrder()) {
+      this.names.put(attribute.name(), attribute.name());
+    }
+
+    SMFHeader current = inHeader;
+    for (final var filter : this.filters) {
+      LOG.debug("evaluating filter: {}", filter.name());
+
+      final SMFPartialLogged<SMFHeader> result =
+        filter.filterHeader(this.context, current);
+      this.warnings.addAll(result.warnings());
+      if (result.isFailed()) {
+        this.errors.addAll(result.errors());
+        return Optional.empty();
+      }
+
+      current = result.get();
+      this.names.replaceAll((source, target) -> {
+        if (target == null) {
+          return null;
+        }
+        return filter.filterAttributeName(target).orElse(null);
+      });
+    }
+
+    this.header = current;
+    for (final var attribute : current.attributesInOrder()) {
+      this.pending.add(attribute.name());
+    }
+
+    try {
+      this.serializer.serializeHeader(current);
+      this.checkVerticesDone();
+    } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+      this.fail(e);
+      return Optional.empty();
+    }
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributesNonInterleavedType> onAttributesNonInterleaved()
+  {
+    if (this.isFailed()) {
+      return Optional.empty();
+    }
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataTrianglesType> onTriangles()
+  {
+    if (this.isFailed()) {
+      return Optional.empty();
+    }
+    return Optional.of(this);
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataMetaType> onMeta(
+    final SMFSchemaIdentifier schema)
+  {
+    if (this.isFailed()) {
+      return Optional.empty();
+    }
+    return Optional.of(this);
+  }
+
+  @Override
+  public void onMetaData(
+    final SMFSchemaIdentifier schema,
+    final byte[] data)
+  {
+    this.metadata.add(SMFMetadata.of(schema, data));
+  }
+
+  @Override
+  public Optional<SMFParserEventsDataAttributeValuesType> onDataAttributeStart(
+    final SMFAttribute attribute)
+  {
+    final var target = this.names.get(attribute.name());
+    if (this.isFailed() || target == null) {
+      return Optional.empty();
+    }
+
+    if (Objects.equals(this.pending.peek(), target)) {
+      try {
+        return Optional.of(new Direct(this.openAttribute(target)));
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+        return Optional.empty();
+      }
+    }
+
+    LOG.debug(
+      "attribute {} arrived out of order; buffering it",
+      target.value());
+
+    final var buffer =
+      new SMFStreamingAttributeBuffer(
+        this,
+        this.header.attributesByName().get(target),
+        this::flushBuffered);
+    this.buffered.put(target, buffer);
+    return Optional.of(buffer);
+  }
+
+  @Override
+  public void onDataAttributesNonInterleavedFinish()
+  {
+
+  }
+
+  private SMFSerializerDataAttributesValuesType openAttribute(
+    final SMFAttributeName name)
+    throws IOException
+  {
+    if (this.vertices == null) {
+      this.vertices = this.serializer.serializeVertexDataNonInterleavedStart();
+    }
+    return this.vertices.serializeData(name);
+  }
+
+  private void finishAttribute(
+    final SMFSerializerDataAttributesValuesType values)
+  {
+    try {
+      values.close();
+      this.pending.poll();
+      this.flushBufferedAttributes();
+    } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+      this.fail(e);
+    }
+  }
+
+  private void flushBuffered()
+  {
+    if (this.isFailed()) {
+      return;
+    }
+
+    try {
+      this.flushBufferedAttributes();
+    } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+      this.fail(e);
+    }
+  }
+
+  private void flushBufferedAttributes()
+    throws IOException
+  {
+    while (!this.pending.isEmpty()) {
+      final var name = this.pending.peek();
+      final var buffer = this.buffered.get(name);
+      if (buffer == null || !buffer.isFinished()) {
+        break;
+      }
+
+      try (var values = this.openAttribute(name)) {
+        SMFMemoryMeshSerializer.serializeArray(values, buffer.array());
+      }
+      this.buffered.remove(name);
+      this.pending.poll();
+    }
+    this.checkVerticesDone();
+  }
+
+  private void checkVerticesDone()
+    throws IOException
+  {
+    if (this.pending.isEmpty() && !this.verticesDone) {
+      if (this.vertices == null) {
+        this.vertices = this.serializer.serializeVertexDataNonInterleavedStart();
+      }
+      this.vertices.close();
+      this.verticesDone = true;
+    }
+  }
+
+  @Override
+  public void onDataTriangle(
+    final long v0,
+    final long v1,
+    final long v2)
+  {
+    if (this.isFailed()) {
+      return;
+    }
+
+    if (!this.verticesDone) {
+      if (this.trianglesBuffered == null) {
+        LOG.debug("triangles arrived before vertex data; buffering them");
+        this.trianglesBuffered =
+          SMFTriangleIndexBuffer.builder(
+            this.header.triangles().triangleIndexSizeBits(), 0);
+      }
+      this.trianglesBuffered.add(v0, v1, v2);
+      return;
+    }
+
+    try {
+      if (this.triangles == null) {
+        this.triangles = this.serializer.serializeTrianglesStart();
+      }
+      this.triangles.serializeTriangle(v0, v1, v2);
+    } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+      this.fail(e);
+    }
+  }
+
+  @Override
+  public void onDataTrianglesFinish()
+  {
+    if (this.isFailed() || this.triangles == null) {
+      return;
+    }
+
+    try {
+      this.triangles.close();
+      this.trianglesDone = true;
+    } catch (final IOException | IllegalStateException e) {
+      this.fail(e);
+    }
+  }
+
+  /**
+   * A receiver that passes attribute values directly to a serializer.
+   */
+
+  private final class Direct implements SMFParserEventsDataAttributeValuesType
+  {
+    private final SMFSerializerDataAttributesValuesType values;
+
+    Direct(
+      final SMFSerializerDataAttributesValuesType inValues)
+    {
+      this.values = Objects.requireNonNull(inValues, "values");
+    }
+
+    private boolean isFailed()
+    {
+      return SMFStreamingFilterPipeline.this.failed;
+    }
+
+    private void fail(
+      final Exception e)
+    {
+      SMFStreamingFilterPipeline.this.fail(e);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned1(
+      final long x)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerSigned1(x);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned2(
+      final long x,
+      final long y)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerSigned2(x, y);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned3(
+      final long x,
+      final long y,
+      final long z)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerSigned3(x, y, z);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned4(
+      final long x,
+      final long y,
+      final long z,
+      final long w)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerSigned4(x, y, z, w);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned1(
+      final long x)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerUnsigned1(x);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned2(
+      final long x,
+      final long y)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerUnsigned2(x, y);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned3(
+      final long x,
+      final long y,
+      final long z)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerUnsigned3(x, y, z);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned4(
+      final long x,
+      final long y,
+      final long z,
+      final long w)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueIntegerUnsigned4(x, y, z, w);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueFloat1(
+      final double x)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueFloat1(x);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueFloat2(
+      final double x,
+      final double y)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueFloat2(x, y);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueFloat3(
+      final double x,
+      final double y,
+      final double z)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueFloat3(x, y, z);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueFloat4(
+      final double x,
+      final double y,
+      final double z,
+      final double w)
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      try {
+        this.values.serializeValueFloat4(x, y, z, w);
+      } catch (final IOException | IllegalStateException | IllegalArgumentException e) {
+        this.fail(e);
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueFinish()
+    {
+      if (this.isFailed()) {
+        return;
+      }
+      SMFStreamingFilterPipeline.this.finishAttribute(this.values);
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      SMFStreamingFilterPipeline.this.onError(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      SMFStreamingFilterPipeline.this.onWarning(w);
+    }
+  }
+}
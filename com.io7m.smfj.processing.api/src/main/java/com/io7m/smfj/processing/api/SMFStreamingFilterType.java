@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFPartialLogged;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A filter that transforms a mesh as it is being parsed, without requiring
+ * the entire mesh to be held in memory. A streaming filter may transform the
+ * header and the metadata of a mesh, and may rename or remove attributes, but
+ * cannot change the values of attributes or triangles.
+ *
+ * @see SMFStreamingFilterPipeline
+ */
+
+public interface SMFStreamingFilterType
+{
+  /**
+   * @return The name of the filter
+   */
+
+  String name();
+
+  /**
+   * Evaluate the filter on the given header.
+   *
+   * @param context The filtering context
+   * @param header  A header
+   *
+   * @return A filtered header, or a list or reasons why the filtering did not
+   * work
+   */
+
+  SMFPartialLogged<SMFHeader> filterHeader(
+    SMFFilterCommandContext context,
+    SMFHeader header);
+
+  /**
+   * Determine the name that the data of the given attribute will have after
+   * filtering. The name is given as it appears in the header that was passed
+   * to {@link #filterHeader(SMFFilterCommandContext, SMFHeader)}.
+   *
+   * @param name The name of an attribute
+   *
+   * @return The new name of the attribute, or nothing if the attribute is
+   * removed by the filter
+   */
+
+  default Optional<SMFAttributeName> filterAttributeName(
+    final SMFAttributeName name)
+  {
+    return Optional.of(name);
+  }
+
+  /**
+   * Evaluate the filter on the metadata of a mesh.
+   *
+   * @param context  The filtering context
+   * @param metadata The metadata
+   *
+   * @return The filtered metadata, or a list or reasons why the filtering did
+   * not work
+   */
+
+  default SMFPartialLogged<List<SMFMetadata>> filterMetadata(
+    final SMFFilterCommandContext context,
+    final List<SMFMetadata> metadata)
+  {
+    return SMFPartialLogged.succeeded(metadata);
+  }
+}
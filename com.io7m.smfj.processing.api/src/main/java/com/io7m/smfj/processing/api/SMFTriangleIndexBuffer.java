@@ -0,0 +1,607 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.processing.api;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
+import com.io7m.junreachable.UnreachableCodeException;
+import com.io7m.smfj.core.SMFSupportedSizes;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * <p>An immutable, packed buffer of triangle indices.</p>
+ *
+ * <p>Each index occupies {@link #indexSizeBits()} bits, and the three
+ * indices of each triangle are stored consecutively. Indices are unsigned;
+ * 64-bit indices that do not fit into a signed {@code long} are returned in
+ * two's complement form.</p>
+ */
+
+public final class SMFTriangleIndexBuffer
+{
+  private final ByteBuffer data;
+  private final int indexSizeBits;
+  private final int indexCount;
+  private final long maximum;
+
+  private SMFTriangleIndexBuffer(
+    final ByteBuffer inData,
+    final int inIndexSizeBits,
+    final int inIndexCount,
+    final long inMaximum)
+  {
+    this.data = inData;
+    this.indexSizeBits = inIndexSizeBits;
+    this.indexCount = inIndexCount;
+    this.maximum = inMaximum;
+  }
+
+  /**
+   * @param indexSizeBits The size in bits of each index
+   *
+   * @return An empty buffer
+   */
+
+  public static SMFTriangleIndexBuffer empty(
+    final int indexSizeBits)
+  {
+    return builder(indexSizeBits, 0).build();
+  }
+
+  /**
+   * Create a buffer containing the given indices. The buffer uses the
+   * smallest index size that is at least {@code indexSizeBits} and that can
+   * hold all of the given indices.
+   *
+   * @param indexSizeBits The size in bits of each index
+   * @param indices       The indices; three for each triangle
+   *
+   * @return A buffer
+   */
+
+  public static SMFTriangleIndexBuffer of(
+    final int indexSizeBits,
+    final long... indices)
+  {
+    Objects.requireNonNull(indices, "indices");
+    if (indices.length % 3 != 0) {
+      throw new IllegalArgumentException(
+        "Index count must be a multiple of 3: " + indices.length);
+    }
+
+    final var builder = builder(indexSizeBits, indices.length / 3);
+    for (int index = 0; index < indices.length; index += 3) {
+      builder.add(indices[index], indices[index + 1], indices[index + 2]);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Create a new mutable builder. The builder starts with indices of size
+   * {@code indexSizeBits} and switches to a larger size if an index is
+   * added that does not fit.
+   *
+   * @param indexSizeBits    The size in bits of each index
+   * @param triangleCapacity The initial capacity in triangles
+   *
+   * @return A new builder
+   */
+
+  public static Builder builder(
+    final int indexSizeBits,
+    final int triangleCapacity)
+  {
+    return new Builder(indexSizeBits, triangleCapacity);
+  }
+
+  /**
+   * @param value An unsigned index
+   *
+   * @return The smallest supported index size in bits that can hold
+   * {@code value}
+   */
+
+  public static int indexSizeBitsRequired(
+    final long value)
+  {
+    if (Long.compareUnsigned(value, 0xffL) <= 0) {
+      return 8;
+    }
+    if (Long.compareUnsigned(value, 0xffffL) <= 0) {
+      return 16;
+    }
+    if (Long.compareUnsigned(value, 0xffffffffL) <= 0) {
+      return 32;
+    }
+    return 64;
+  }
+
+  private static ByteBuffer allocate(
+    final int indexSizeBits,
+    final int indexCount)
+  {
+    return ByteBuffer.allocate(Math.multiplyExact(indexCount, indexSizeBits / 8))
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static long getIndex(
+    final ByteBuffer data,
+    final int indexSizeBits,
+    final int index)
+  {
+    switch (indexSizeBits) {
+      case 8:
+        return Byte.toUnsignedLong(data.get(index));
+      case 16:
+        return Short.toUnsignedLong(data.getShort(index << 1));
+      case 32:
+        return Integer.toUnsignedLong(data.getInt(index << 2));
+      case 64:
+        return data.getLong(index << 3);
+      default:
+        throw new UnreachableCodeException();
+    }
+  }
+
+  private static void putIndex(
+    final ByteBuffer data,
+    final int indexSizeBits,
+    final int index,
+    final long value)
+  {
+    switch (indexSizeBits) {
+      case 8:
+        data.put(index, (byte) value);
+        break;
+      case 16:
+        data.putShort(index << 1, (short) value);
+        break;
+      case 32:
+        data.putInt(index << 2, (int) value);
+        break;
+      case 64:
+        data.putLong(index << 3, value);
+        break;
+      default:
+        throw new UnreachableCodeException();
+    }
+  }
+
+  /**
+   * @return The size in bits of each index
+   */
+
+  public int indexSizeBits()
+  {
+    return this.indexSizeBits;
+  }
+
+  /**
+   * @return The number of triangles in the buffer
+   */
+
+  public int triangleCount()
+  {
+    return this.indexCount / 3;
+  }
+
+  /**
+   * @return The number of indices in the buffer
+   */
+
+  public int indexCount()
+  {
+    return this.indexCount;
+  }
+
+  /**
+   * @return The largest (unsigned) index in the buffer, or {@code 0} if the
+   * buffer is empty
+   */
+
+  public long maximum()
+  {
+    return this.maximum;
+  }
+
+  /**
+   * @param index The index of the index
+   *
+   * @return The index at position {@code index}
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is out of range
+   */
+
+  public long index(
+    final int index)
+    throws IndexOutOfBoundsException
+  {
+    return getIndex(
+      this.data,
+      this.indexSizeBits,
+      Objects.checkIndex(index, this.indexCount));
+  }
+
+  /**
+   * @param triangle The triangle
+   *
+   * @return The first vertex index of {@code triangle}
+   */
+
+  public long v0(
+    final int triangle)
+  {
+    return this.index(Math.multiplyExact(triangle, 3));
+  }
+
+  /**
+   * @param triangle The triangle
+   *
+   * @return The second vertex index of {@code triangle}
+   */
+
+  public long v1(
+    final int triangle)
+  {
+    return this.index(Math.multiplyExact(triangle, 3) + 1);
+  }
+
+  /**
+   * @param triangle The triangle
+   *
+   * @return The third vertex index of {@code triangle}
+   */
+
+  public long v2(
+    final int triangle)
+  {
+    return this.index(Math.multiplyExact(triangle, 3) + 2);
+  }
+
+  /**
+   * @param triangle The triangle
+   *
+   * @return The vertex indices of {@code triangle}
+   */
+
+  public Vector3L triangle(
+    final int triangle)
+  {
+    Objects.checkIndex(triangle, this.triangleCount());
+    return Vector3L.of(this.v0(triangle), this.v1(triangle), this.v2(triangle));
+  }
+
+  /**
+   * Copy {@code count} indices starting at {@code index} into
+   * {@code target}, starting at {@code targetOffset}.
+   *
+   * @param index        The position of the first index
+   * @param target       The target array
+   * @param targetOffset The position of the first index in the target array
+   * @param count        The number of indices
+   *
+   * @throws IndexOutOfBoundsException If any of the ranges are invalid
+   */
+
+  public void copyTo(
+    final int index,
+    final long[] target,
+    final int targetOffset,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    Objects.requireNonNull(target, "target");
+    Objects.checkFromIndexSize(index, count, this.indexCount);
+    Objects.checkFromIndexSize(targetOffset, count, target.length);
+
+    switch (this.indexSizeBits) {
+      case 8: {
+        for (int k = 0; k < count; ++k) {
+          target[targetOffset + k] =
+            Byte.toUnsignedLong(this.data.get(index + k));
+        }
+        break;
+      }
+      case 16: {
+        final var view = this.data.asShortBuffer();
+        for (int k = 0; k < count; ++k) {
+          target[targetOffset + k] =
+            Short.toUnsignedLong(view.get(index + k));
+        }
+        break;
+      }
+      case 32: {
+        final var view = this.data.asIntBuffer();
+        for (int k = 0; k < count; ++k) {
+          target[targetOffset + k] =
+            Integer.toUnsignedLong(view.get(index + k));
+        }
+        break;
+      }
+      case 64: {
+        this.data.asLongBuffer().get(index, target, targetOffset, count);
+        break;
+      }
+      default:
+        throw new UnreachableCodeException();
+    }
+  }
+
+  /**
+   * @return A read-only view of the packed indices, in native byte order,
+   * that does not copy the indices
+   */
+
+  public ByteBuffer asBuffer()
+  {
+    return this.data.asReadOnlyBuffer().order(this.data.order());
+  }
+
+  /**
+   * Repack the buffer using indices of a different size.
+   *
+   * @param newIndexSizeBits The new size in bits of each index
+   *
+   * @return A buffer using the given index size
+   *
+   * @throws IllegalArgumentException If one or more indices cannot be
+   *                                  represented with the given size
+   */
+
+  public SMFTriangleIndexBuffer withIndexSizeBits(
+    final int newIndexSizeBits)
+    throws IllegalArgumentException
+  {
+    SMFSupportedSizes.checkIntegerUnsignedSupported(
+      "triangle indices", newIndexSizeBits);
+
+    if (newIndexSizeBits == this.indexSizeBits) {
+      return this;
+    }
+    if (indexSizeBitsRequired(this.maximum) > newIndexSizeBits) {
+      throw new IllegalArgumentException(
+        String.format(
+          "Index %s cannot be represented with %d bits",
+          Long.toUnsignedString(this.maximum),
+          Integer.valueOf(newIndexSizeBits)));
+    }
+
+    final var newData = allocate(newIndexSizeBits, this.indexCount);
+    for (int index = 0; index < this.indexCount; ++index) {
+      putIndex(
+        newData,
+        newIndexSizeBits,
+        index,
+        getIndex(this.data, this.indexSizeBits, index));
+    }
+    return new SMFTriangleIndexBuffer(
+      newData, newIndexSizeBits, this.indexCount, this.maximum);
+  }
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || !Objects.equals(this.getClass(), o.getClass())) {
+      return false;
+    }
+    final SMFTriangleIndexBuffer that = (SMFTriangleIndexBuffer) o;
+    return this.indexSizeBits == that.indexSizeBits
+      && this.indexCount == that.indexCount
+      && this.data.equals(that.data);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(
+      Integer.valueOf(this.indexSizeBits),
+      Integer.valueOf(this.indexCount),
+      this.data);
+  }
+
+  @Override
+  public String toString()
+  {
+    return new StringBuilder(64)
+      .append("[SMFTriangleIndexBuffer size=")
+      .append(this.indexSizeBits)
+      .append(" triangles=")
+      .append(this.triangleCount())
+      .append(']')
+      .toString();
+  }
+
+  /**
+   * A mutable builder for triangle index buffers.
+   */
+
+  public static final class Builder
+  {
+    private ByteBuffer data;
+    private int indexSizeBits;
+    private int indexCount;
+    private long maximum;
+
+    private Builder(
+      final int inIndexSizeBits,
+      final int triangleCapacity)
+    {
+      SMFSupportedSizes.checkIntegerUnsignedSupported(
+        "triangle indices", inIndexSizeBits);
+      if (triangleCapacity < 0) {
+        throw new IllegalArgumentException(
+          "Capacity must be non-negative: " + triangleCapacity);
+      }
+
+      this.indexSizeBits = inIndexSizeBits;
+      this.data =
+        allocate(inIndexSizeBits, Math.multiplyExact(triangleCapacity, 3));
+      this.indexCount = 0;
+      this.maximum = 0L;
+    }
+
+    private void reserve(
+      final int requiredSizeBits,
+      final int additionalIndices)
+    {
+      final int capacity = this.data.capacity() / (this.indexSizeBits / 8);
+      final int required = Math.addExact(this.indexCount, additionalIndices);
+      final int newSizeBits = Math.max(this.indexSizeBits, requiredSizeBits);
+
+      if (required <= capacity && newSizeBits == this.indexSizeBits) {
+        return;
+      }
+
+      int newCapacity = capacity;
+      if (required > capacity) {
+        newCapacity =
+          (int) Math.min(
+            Math.max((long) capacity * 2L, 48L),
+            (long) Integer.MAX_VALUE - 8L);
+        newCapacity = Math.max(required, newCapacity - newCapacity % 3);
+      }
+
+      final var newData = allocate(newSizeBits, newCapacity);
+      for (int index = 0; index < this.indexCount; ++index) {
+        putIndex(
+          newData,
+          newSizeBits,
+          index,
+          getIndex(this.data, this.indexSizeBits, index));
+      }
+      this.data = newData;
+      this.indexSizeBits = newSizeBits;
+    }
+
+    /**
+     * @return The number of triangles added so far
+     */
+
+    public int triangleCount()
+    {
+      return this.indexCount / 3;
+    }
+
+    /**
+     * Add a triangle.
+     *
+     * @param v0 The first vertex index
+     * @param v1 The second vertex index
+     * @param v2 The third vertex index
+     *
+     * @return this
+     */
+
+    public Builder add(
+      final long v0,
+      final long v1,
+      final long v2)
+    {
+      long max = this.maximum;
+      max = Long.compareUnsigned(v0, max) > 0 ? v0 : max;
+      max = Long.compareUnsigned(v1, max) > 0 ? v1 : max;
+      max = Long.compareUnsigned(v2, max) > 0 ? v2 : max;
+
+      this.reserve(indexSizeBitsRequired(max), 3);
+      this.maximum = max;
+
+      final int base = this.indexCount;
+      putIndex(this.data, this.indexSizeBits, base, v0);
+      putIndex(this.data, this.indexSizeBits, base + 1, v1);
+      putIndex(this.data, this.indexSizeBits, base + 2, v2);
+      this.indexCount = base + 3;
+      return this;
+    }
+
+    /**
+     * Add a block of triangles. The block contains the three vertex indices
+     * of each triangle stored consecutively. Storage is reserved once for
+     * the whole block.
+     *
+     * @param indices The array containing the vertex indices
+     * @param offset  The index of the first vertex index of the first
+     *                triangle
+     * @param count   The number of triangles
+     *
+     * @return this
+     *
+     * @throws IndexOutOfBoundsException If the range is invalid
+     */
+
+    public Builder addAll(
+      final long[] indices,
+      final int offset,
+      final int count)
+      throws IndexOutOfBoundsException
+    {
+      Objects.requireNonNull(indices, "indices");
+      final int size = Math.multiplyExact(count, 3);
+      Objects.checkFromIndexSize(offset, size, indices.length);
+
+      long max = this.maximum;
+      final int end = offset + size;
+      for (int index = offset; index < end; ++index) {
+        final long value = indices[index];
+        max = Long.compareUnsigned(value, max) > 0 ? value : max;
+      }
+
+      this.reserve(indexSizeBitsRequired(max), size);
+      this.maximum = max;
+
+      final int base = this.indexCount;
+      for (int index = 0; index < size; ++index) {
+        putIndex(
+          this.data,
+          this.indexSizeBits,
+          base + index,
+          indices[offset + index]);
+      }
+      this.indexCount = base + size;
+      return this;
+    }
+
+    /**
+     * Build a buffer. The builder must not be used after this method has
+     * been called.
+     *
+     * @return A buffer containing all of the added triangles
+     */
+
+    public SMFTriangleIndexBuffer build()
+    {
+      final int sizeBits = this.indexSizeBits;
+      final int count = this.indexCount;
+      final int octets = count * (sizeBits / 8);
+
+      final ByteBuffer result;
+      if (octets == this.data.capacity()) {
+        result = this.data;
+      } else {
+        result = allocate(sizeBits, count);
+        result.put(0, this.data, 0, octets);
+      }
+
+      this.data = allocate(sizeBits, 0);
+      this.indexCount = 0;
+      return new SMFTriangleIndexBuffer(result, sizeBits, count, this.maximum);
+    }
+  }
+}
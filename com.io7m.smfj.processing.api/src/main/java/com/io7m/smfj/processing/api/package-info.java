@@ -19,7 +19,7 @@
  */
 
 @Export
-@Version("1.0.0")
+@Version("2.2.0")
 package com.io7m.smfj.processing.api;
 
 import org.osgi.annotation.bundle.Export;
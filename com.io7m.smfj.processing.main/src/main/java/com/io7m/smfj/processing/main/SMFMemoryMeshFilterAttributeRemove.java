@@ -25,6 +25,7 @@ import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
 import com.io7m.smfj.processing.api.SMFProcessingError;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +40,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterAttributeRemove implements
-  SMFMemoryMeshFilterType
+  SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -118,54 +119,79 @@ public final class SMFMemoryMeshFilterAttributeRemove implements
   }
 
   @Override
-  public SMFPartialLogged<SMFMemoryMesh> filter(
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
     final SMFFilterCommandContext context,
-    final SMFMemoryMesh m)
+    final SMFHeader header)
   {
     Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(m, "Mesh");
+    Objects.requireNonNull(header, "Header");
 
     final List<SMFProcessingError> errors =
       SMFFilterCommandChecks.checkAttributeExists(
         List.of(),
-        m.header().attributesByName(),
+        header.attributesByName(),
         this.source);
 
     if (!errors.isEmpty()) {
       return SMFPartialLogged.failed(errors);
     }
 
-    /*
-     * Filter the array from the existing arrays.
-     */
-
-    final Map<SMFAttributeName, SMFAttributeArrayType> newArrays =
-      m.arrays()
-        .entrySet()
-        .stream()
-        .filter(e -> !Objects.equals(e.getKey(), this.source))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-    final SMFHeader origHeader = m.header();
-
     /*
      * Filter the attribute from the existing attributes.
      */
 
     final var newAttributes =
-      origHeader.attributesInOrder()
+      header.attributesInOrder()
         .stream()
         .filter(attr -> !Objects.equals(attr.name(), this.source))
         .collect(Collectors.toList());
 
-    final SMFHeader newHeader =
-      origHeader.withAttributesInOrder(newAttributes);
-
     return SMFPartialLogged.succeeded(
-      SMFMemoryMesh.builder()
+      header.withAttributesInOrder(newAttributes));
+  }
+
+  @Override
+  public Optional<SMFAttributeName> filterAttributeName(
+    final SMFAttributeName name)
+  {
+    if (Objects.equals(name, this.source)) {
+      return Optional.empty();
+    }
+    return Optional.of(name);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFMemoryMesh> filter(
+    final SMFFilterCommandContext context,
+    final SMFMemoryMesh m)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(m, "Mesh");
+
+    return this.filterHeader(context, m.header()).map(newHeader -> {
+
+      /*
+       * Filter the array from the existing arrays.
+       */
+
+      final Map<SMFAttributeName, SMFAttributeArrayType> newArrays =
+        m.arrays()
+          .entrySet()
+          .stream()
+          .filter(e -> !Objects.equals(e.getKey(), this.source))
+          .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+      return SMFMemoryMesh.builder()
         .from(m)
         .setHeader(newHeader)
         .setArrays(newArrays)
-        .build());
+        .build();
+    });
   }
 }
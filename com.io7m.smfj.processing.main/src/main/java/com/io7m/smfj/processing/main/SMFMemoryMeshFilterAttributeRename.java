@@ -25,11 +25,11 @@ import com.io7m.smfj.processing.api.SMFAttributeArrayType;
 import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedMap;
@@ -44,7 +44,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterAttributeRename implements
-  SMFMemoryMeshFilterType
+  SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -129,15 +129,21 @@ public final class SMFMemoryMeshFilterAttributeRename implements
   }
 
   @Override
-  public SMFPartialLogged<SMFMemoryMesh> filter(
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
     final SMFFilterCommandContext context,
-    final SMFMemoryMesh m)
+    final SMFHeader header)
   {
     Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(m, "Mesh");
+    Objects.requireNonNull(header, "Header");
 
     final SortedMap<SMFAttributeName, SMFAttribute> by_name =
-      m.header().attributesByName();
+      header.attributesByName();
 
     /*
      * Check the source attribute exists, and check that no attribute
@@ -152,39 +158,57 @@ public final class SMFMemoryMeshFilterAttributeRename implements
       return SMFPartialLogged.failed(errors);
     }
 
-    final Map<SMFAttributeName, SMFAttributeArrayType> arrays = m.arrays();
-    final SMFHeader orig_header = m.header();
-
-    /*
-     * Rename array.
-     */
-
-    final HashMap<SMFAttributeName, SMFAttributeArrayType> newArrays =
-      new HashMap<>(arrays);
-
-    final var array = newArrays.get(this.source);
-    newArrays.remove(this.source);
-    newArrays.put(this.target, array);
-
     /*
      * Rename attribute.
      */
 
     final var newAttributes =
-      orig_header.attributesInOrder()
+      header.attributesInOrder()
         .stream()
         .map(this::replaceAttribute)
         .collect(Collectors.toList());
 
-    final SMFHeader new_header =
-      orig_header.withAttributesInOrder(newAttributes);
-
     return SMFPartialLogged.succeeded(
-      SMFMemoryMesh.builder()
+      header.withAttributesInOrder(newAttributes));
+  }
+
+  @Override
+  public Optional<SMFAttributeName> filterAttributeName(
+    final SMFAttributeName name)
+  {
+    if (Objects.equals(name, this.source)) {
+      return Optional.of(this.target);
+    }
+    return Optional.of(name);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFMemoryMesh> filter(
+    final SMFFilterCommandContext context,
+    final SMFMemoryMesh m)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(m, "Mesh");
+
+    return this.filterHeader(context, m.header()).map(newHeader -> {
+
+      /*
+       * Rename array.
+       */
+
+      final HashMap<SMFAttributeName, SMFAttributeArrayType> newArrays =
+        new HashMap<>(m.arrays());
+
+      final var array = newArrays.get(this.source);
+      newArrays.remove(this.source);
+      newArrays.put(this.target, array);
+
+      return SMFMemoryMesh.builder()
         .from(m)
-        .setHeader(new_header)
+        .setHeader(newHeader)
         .setArrays(newArrays)
-        .build());
+        .build();
+    });
   }
 
   private SMFAttribute replaceAttribute(
@@ -24,6 +24,7 @@ import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
 import com.io7m.smfj.processing.api.SMFProcessingError;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
@@ -40,7 +41,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterAttributeResample implements
-  SMFMemoryMeshFilterType
+  SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -125,17 +126,21 @@ public final class SMFMemoryMeshFilterAttributeResample implements
   }
 
   @Override
-  public SMFPartialLogged<SMFMemoryMesh> filter(
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
     final SMFFilterCommandContext context,
-    final SMFMemoryMesh m)
+    final SMFHeader header)
   {
     Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(m, "Mesh");
-
-    final SMFHeader header = m.header();
+    Objects.requireNonNull(header, "Header");
 
     final SortedMap<SMFAttributeName, SMFAttribute> by_name =
-      m.header().attributesByName();
+      header.attributesByName();
 
     final var errors =
       new ArrayList<>(checkAttributeExists(List.of(), by_name, this.attribute));
@@ -153,14 +158,8 @@ public final class SMFMemoryMeshFilterAttributeResample implements
                    replaceExistingWithResampled(original, resampled, existing))
             .collect(Collectors.toList());
 
-        final SMFHeader new_header =
-          header.withAttributesInOrder(newAttributes);
-
         return SMFPartialLogged.succeeded(
-          SMFMemoryMesh.builder()
-            .from(m)
-            .setHeader(new_header)
-            .build());
+          header.withAttributesInOrder(newAttributes));
       } catch (final UnsupportedOperationException e) {
         errors.add(SMFProcessingError.of(e.getMessage(), Optional.of(e)));
       }
@@ -169,6 +168,16 @@ public final class SMFMemoryMeshFilterAttributeResample implements
     return SMFPartialLogged.failed(errors);
   }
 
+  @Override
+  public SMFPartialLogged<SMFMemoryMesh> filter(
+    final SMFFilterCommandContext context,
+    final SMFMemoryMesh m)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(m, "Mesh");
+    return this.filterHeader(context, m.header()).map(m::withHeader);
+  }
+
   private static SMFAttribute replaceExistingWithResampled(
     final SMFAttribute original,
     final SMFAttribute resampled,
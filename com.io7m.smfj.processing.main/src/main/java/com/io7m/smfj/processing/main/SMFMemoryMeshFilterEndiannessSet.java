@@ -16,10 +16,12 @@
 
 package com.io7m.smfj.processing.main;
 
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFPartialLogged;
 import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.net.URI;
 import java.nio.ByteOrder;
 import java.util.List;
@@ -33,7 +35,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterEndiannessSet
-  implements SMFMemoryMeshFilterType
+  implements SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -123,6 +125,22 @@ public final class SMFMemoryMeshFilterEndiannessSet
     return makeSyntax();
   }
 
+  @Override
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
+    final SMFFilterCommandContext context,
+    final SMFHeader header)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(header, "Header");
+    return SMFPartialLogged.succeeded(header.withDataByteOrder(this.byteOrder));
+  }
+
   @Override
   public SMFPartialLogged<SMFMemoryMesh> filter(
     final SMFFilterCommandContext context,
@@ -130,8 +148,6 @@ public final class SMFMemoryMeshFilterEndiannessSet
   {
     Objects.requireNonNull(context, "Context");
     Objects.requireNonNull(m, "Mesh");
-
-    final var newHeader = m.header().withDataByteOrder(this.byteOrder);
-    return SMFPartialLogged.succeeded(m.withHeader(newHeader));
+    return this.filterHeader(context, m.header()).map(m::withHeader);
   }
 }
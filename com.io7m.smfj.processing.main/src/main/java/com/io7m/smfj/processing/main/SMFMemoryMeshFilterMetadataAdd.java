@@ -16,6 +16,7 @@
 
 package com.io7m.smfj.processing.main;
 
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFPartialLogged;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFSchemaName;
@@ -24,6 +25,7 @@ import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
 import com.io7m.smfj.processing.api.SMFMetadata;
 import com.io7m.smfj.processing.api.SMFProcessingError;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -44,7 +46,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterMetadataAdd
-  implements SMFMemoryMeshFilterType
+  implements SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -141,12 +143,28 @@ public final class SMFMemoryMeshFilterMetadataAdd
   }
 
   @Override
-  public SMFPartialLogged<SMFMemoryMesh> filter(
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
     final SMFFilterCommandContext context,
-    final SMFMemoryMesh m)
+    final SMFHeader header)
   {
     Objects.requireNonNull(context, "Context");
-    Objects.requireNonNull(m, "Mesh");
+    Objects.requireNonNull(header, "Header");
+    return SMFPartialLogged.succeeded(header);
+  }
+
+  @Override
+  public SMFPartialLogged<List<SMFMetadata>> filterMetadata(
+    final SMFFilterCommandContext context,
+    final List<SMFMetadata> metadata)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(metadata, "Metadata");
 
     final Path file = context.resolvePath(this.meta_file);
     LOG.debug("resolved metadata file: {}", file);
@@ -155,17 +173,27 @@ public final class SMFMemoryMeshFilterMetadataAdd
       final byte[] data = stream.readAllBytes();
       final SMFMetadata meta = SMFMetadata.of(this.schema_id, data);
 
-      final var newMeta = new ArrayList<>(m.metadata());
+      final var newMeta = new ArrayList<>(metadata);
       newMeta.add(meta);
-
-      return SMFPartialLogged.succeeded(
-        SMFMemoryMesh.builder()
-          .from(m)
-          .setMetadata(newMeta)
-          .build());
+      return SMFPartialLogged.succeeded(newMeta);
     } catch (final IOException e) {
       return SMFPartialLogged.failed(
         SMFProcessingError.of(e.getMessage(), Optional.of(e)));
     }
   }
+
+  @Override
+  public SMFPartialLogged<SMFMemoryMesh> filter(
+    final SMFFilterCommandContext context,
+    final SMFMemoryMesh m)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(m, "Mesh");
+
+    return this.filterMetadata(context, m.metadata())
+      .map(newMeta -> SMFMemoryMesh.builder()
+        .from(m)
+        .setMetadata(newMeta)
+        .build());
+  }
 }
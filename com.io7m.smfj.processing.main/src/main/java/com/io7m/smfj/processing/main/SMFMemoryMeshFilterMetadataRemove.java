@@ -16,12 +16,14 @@
 
 package com.io7m.smfj.processing.main;
 
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFPartialLogged;
 import com.io7m.smfj.core.SMFSchemaName;
 import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
 import com.io7m.smfj.processing.api.SMFMetadata;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +40,7 @@ import static com.io7m.smfj.processing.api.SMFFilterCommandParsing.errorExpected
  */
 
 public final class SMFMemoryMeshFilterMetadataRemove
-  implements SMFMemoryMeshFilterType
+  implements SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -171,6 +173,36 @@ public final class SMFMemoryMeshFilterMetadataRemove
     return makeSyntax();
   }
 
+  @Override
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
+    final SMFFilterCommandContext context,
+    final SMFHeader header)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(header, "Header");
+    return SMFPartialLogged.succeeded(header);
+  }
+
+  @Override
+  public SMFPartialLogged<List<SMFMetadata>> filterMetadata(
+    final SMFFilterCommandContext context,
+    final List<SMFMetadata> metadata)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(metadata, "Metadata");
+
+    return SMFPartialLogged.succeeded(
+      metadata.stream()
+        .filter(this::shouldPreserve)
+        .collect(Collectors.toList()));
+  }
+
   @Override
   public SMFPartialLogged<SMFMemoryMesh> filter(
     final SMFFilterCommandContext context,
@@ -179,16 +211,10 @@ public final class SMFMemoryMeshFilterMetadataRemove
     Objects.requireNonNull(context, "Context");
     Objects.requireNonNull(m, "Mesh");
 
-    final var filteredMeta =
-      m.metadata()
-        .stream()
-        .filter(this::shouldPreserve)
-        .collect(Collectors.toList());
-
-    return SMFPartialLogged.succeeded(
-      SMFMemoryMesh.builder()
+    return this.filterMetadata(context, m.metadata())
+      .map(newMeta -> SMFMemoryMesh.builder()
         .from(m)
-        .setMetadata(filteredMeta)
+        .setMetadata(newMeta)
         .build());
   }
 
@@ -16,6 +16,7 @@
 
 package com.io7m.smfj.processing.main;
 
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.core.SMFPartialLogged;
 import com.io7m.smfj.core.SMFSchemaIdentifier;
 import com.io7m.smfj.core.SMFSchemaName;
@@ -23,6 +24,7 @@ import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFFilterCommandParsing;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
 import java.net.URI;
 import java.util.List;
 import java.util.Objects;
@@ -33,7 +35,7 @@ import java.util.Optional;
  */
 
 public final class SMFMemoryMeshFilterSchemaSet implements
-  SMFMemoryMeshFilterType
+  SMFMemoryMeshFilterType, SMFStreamingFilterType
 {
   /**
    * The command name.
@@ -121,6 +123,22 @@ public final class SMFMemoryMeshFilterSchemaSet implements
     return makeSyntax();
   }
 
+  @Override
+  public Optional<SMFStreamingFilterType> streaming()
+  {
+    return Optional.of(this);
+  }
+
+  @Override
+  public SMFPartialLogged<SMFHeader> filterHeader(
+    final SMFFilterCommandContext context,
+    final SMFHeader header)
+  {
+    Objects.requireNonNull(context, "Context");
+    Objects.requireNonNull(header, "Header");
+    return SMFPartialLogged.succeeded(header.withSchemaIdentifier(this.config));
+  }
+
   @Override
   public SMFPartialLogged<SMFMemoryMesh> filter(
     final SMFFilterCommandContext context,
@@ -128,7 +146,6 @@ public final class SMFMemoryMeshFilterSchemaSet implements
   {
     Objects.requireNonNull(context, "Context");
     Objects.requireNonNull(m, "Mesh");
-    return SMFPartialLogged.succeeded(m.withHeader(m.header().withSchemaIdentifier(
-      this.config)));
+    return this.filterHeader(context, m.header()).map(m::withHeader);
   }
 }
@@ -16,13 +16,13 @@
 
 package com.io7m.smfj.processing.main;
 
-import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
 import com.io7m.smfj.core.SMFPartialLogged;
 import com.io7m.smfj.core.SMFTriangles;
 import com.io7m.smfj.processing.api.SMFFilterCommandContext;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
 import com.io7m.smfj.processing.api.SMFProcessingError;
+import com.io7m.smfj.processing.api.SMFTriangleIndexBuffer;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,6 +48,8 @@ public final class SMFMemoryMeshFilterTrianglesOptimize implements
   private static final String SYNTAX =
     "(<size> | '-') ('validate' | 'no-validate')";
 
+  private static final int TRIANGLE_CHUNK_INDICES = 3 * 1024;
+
   private final SMFMemoryMeshFilterTrianglesOptimizeConfiguration config;
 
   private SMFMemoryMeshFilterTrianglesOptimize(
@@ -194,34 +196,25 @@ public final class SMFMemoryMeshFilterTrianglesOptimize implements
 
     final List<SMFProcessingError> errors = new ArrayList<>();
     final long vertices = m.header().vertexCount();
-    final List<Vector3L> triangles = m.triangles();
+    final SMFTriangleIndexBuffer triangles = m.triangleIndices();
     final OptionalInt optimize_opt = this.config.optimize();
 
-    long max = 0L;
-    for (int index = 0; index < triangles.size(); ++index) {
-      final Vector3L triangle = triangles.get(index);
-
-      final long v0 = triangle.x();
-      final long v1 = triangle.y();
-      final long v2 = triangle.z();
-
-      if (this.config.validate()) {
-        if (Long.compareUnsigned(v0, vertices) >= 0) {
-          errors.add(nonexistentVertex(index, v0));
-        }
-        if (Long.compareUnsigned(v1, vertices) >= 0) {
-          errors.add(nonexistentVertex(index, v1));
-        }
-        if (Long.compareUnsigned(v2, vertices) >= 0) {
-          errors.add(nonexistentVertex(index, v2));
+    if (this.config.validate()) {
+      final long[] chunk = new long[TRIANGLE_CHUNK_INDICES];
+      final int count = triangles.indexCount();
+      for (int base = 0; base < count; base += chunk.length) {
+        final int size = Math.min(chunk.length, count - base);
+        triangles.copyTo(base, chunk, 0, size);
+        for (int index = 0; index < size; ++index) {
+          final long vertex = chunk[index];
+          if (Long.compareUnsigned(vertex, vertices) >= 0) {
+            errors.add(nonexistentVertex((base + index) / 3, vertex));
+          }
         }
       }
-
-      max = Math.max(max, v0);
-      max = Math.max(max, v1);
-      max = Math.max(max, v2);
     }
 
+    final long max = triangles.maximum();
     final int triangle_size = optimize(m, optimize_opt, max);
     if (errors.isEmpty()) {
       final SMFTriangles new_triangles =
@@ -29,7 +29,6 @@ module com.io7m.smfj.processing.main
   requires static org.osgi.annotation.versioning;
   requires static org.osgi.service.component.annotations;
 
-  requires com.io7m.jtensors.core;
   requires com.io7m.junreachable.core;
   requires com.io7m.smfj.core;
   requires com.io7m.smfj.processing.api;
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.serializer.api;
+
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A serializer that forwards all calls to a serializer that writes to a
+ * channel stream, and that flushes and closes the stream when closed.
+ */
+
+final class SMFSerializerChannelForwarding implements SMFSerializerType
+{
+  private final SMFSerializerType delegate;
+  private final SMFSerializerChannelStream stream;
+
+  SMFSerializerChannelForwarding(
+    final SMFSerializerType inDelegate,
+    final SMFSerializerChannelStream inStream)
+  {
+    this.delegate = Objects.requireNonNull(inDelegate, "delegate");
+    this.stream = Objects.requireNonNull(inStream, "stream");
+  }
+
+  @Override
+  public void serializeHeader(
+    final SMFHeader header)
+    throws IllegalStateException, IOException
+  {
+    this.delegate.serializeHeader(header);
+  }
+
+  @Override
+  public SMFSerializerDataAttributesNonInterleavedType serializeVertexDataNonInterleavedStart()
+    throws IllegalStateException, IOException
+  {
+    return this.delegate.serializeVertexDataNonInterleavedStart();
+  }
+
+  @Override
+  public SMFSerializerDataTrianglesType serializeTrianglesStart()
+    throws IllegalStateException, IOException
+  {
+    return this.delegate.serializeTrianglesStart();
+  }
+
+  @Override
+  public void serializeMetadata(
+    final SMFSchemaIdentifier schema,
+    final byte[] data)
+    throws IllegalStateException, IOException
+  {
+    this.delegate.serializeMetadata(schema, data);
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    try {
+      this.delegate.close();
+    } catch (final IOException | RuntimeException e) {
+      try {
+        this.stream.close();
+      } catch (final IOException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
+    }
+    this.stream.close();
+  }
+}
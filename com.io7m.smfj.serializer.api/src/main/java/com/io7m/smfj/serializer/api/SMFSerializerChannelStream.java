@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.serializer.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * A buffered stream that writes to a file channel, and that does not close
+ * the channel when closed.
+ */
+
+final class SMFSerializerChannelStream extends OutputStream
+{
+  private static final int BUFFER_SIZE = 65536;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private boolean closed;
+
+  SMFSerializerChannelStream(
+    final FileChannel inChannel)
+  {
+    this.channel = Objects.requireNonNull(inChannel, "channel");
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  private void checkNotClosed()
+    throws IOException
+  {
+    if (this.closed) {
+      throw new IOException("Stream is closed");
+    }
+  }
+
+  private void writeFully(
+    final ByteBuffer data)
+    throws IOException
+  {
+    while (data.hasRemaining()) {
+      this.channel.write(data);
+    }
+  }
+
+  @Override
+  public void write(
+    final int b)
+    throws IOException
+  {
+    this.checkNotClosed();
+    if (!this.buffer.hasRemaining()) {
+      this.flush();
+    }
+    this.buffer.put((byte) b);
+  }
+
+  @Override
+  public void write(
+    final byte[] data,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, data.length);
+    this.checkNotClosed();
+
+    if (length > this.buffer.remaining()) {
+      this.flush();
+    }
+    if (length >= this.buffer.capacity()) {
+      this.writeFully(ByteBuffer.wrap(data, offset, length));
+      return;
+    }
+    this.buffer.put(data, offset, length);
+  }
+
+  @Override
+  public void flush()
+    throws IOException
+  {
+    this.checkNotClosed();
+    this.buffer.flip();
+    this.writeFully(this.buffer);
+    this.buffer.clear();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.closed) {
+      this.flush();
+      this.closed = true;
+    }
+  }
+}
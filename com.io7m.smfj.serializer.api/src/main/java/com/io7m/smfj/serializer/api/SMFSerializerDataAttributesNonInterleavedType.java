@@ -32,7 +32,8 @@ public interface SMFSerializerDataAttributesNonInterleavedType extends Closeable
    * <p>This method must be called once for each attribute in the header passed
    * to {@link SMFSerializerType#serializeHeader(com.io7m.smfj.core.SMFHeader)}
    * in the order the attributes are specified by {@link
-   * com.io7m.smfj.core.SMFHeader#attributesInOrder()}.</p>
+   * com.io7m.smfj.core.SMFHeader#attributesInOrder()}, unless {@link
+   * #serializeDataConcurrentSupported()} returns {@code true}.</p>
    *
    * <p>If the method raises an exception, the serializer is considered to have
    * <i>failed</i> and all subsequent method calls will raise {@link
@@ -55,4 +56,28 @@ public interface SMFSerializerDataAttributesNonInterleavedType extends Closeable
   SMFSerializerDataAttributesValuesType serializeData(
     SMFAttributeName name)
     throws IllegalArgumentException, IllegalStateException, IOException;
+
+  /**
+   * <p>Determine whether attributes may be serialized concurrently.</p>
+   *
+   * <p>If this method returns {@code true}, then the data of each attribute
+   * is written to its own region of the output, and:</p>
+   *
+   * <ul>
+   * <li>{@link #serializeData(SMFAttributeName)} may be called once for each
+   * attribute, in any order, and from any number of threads at once.</li>
+   * <li>The serializers returned by {@link #serializeData(SMFAttributeName)}
+   * are independent of each other, and each one may be used from a different
+   * thread. Each serializer must only be used by one thread at a time.</li>
+   * <li>All of the returned serializers must be closed before this
+   * serializer is closed.</li>
+   * </ul>
+   *
+   * @return {@code true} if attributes may be serialized concurrently
+   */
+
+  default boolean serializeDataConcurrentSupported()
+  {
+    return false;
+  }
 }
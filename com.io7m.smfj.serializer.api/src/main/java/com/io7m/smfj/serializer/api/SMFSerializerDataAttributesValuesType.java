@@ -18,9 +18,19 @@ package com.io7m.smfj.serializer.api;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
 
 /**
- * Functions for serializing values.
+ * <p>Functions for serializing values.</p>
+ *
+ * <p>Values may be serialized one vertex at a time, or in blocks of whole
+ * vertices with the {@code serializeValues} methods. A block contains the
+ * components of each vertex stored consecutively, so the number of values in
+ * a block is always a multiple of the component count of the attribute. The
+ * default implementations of the block methods serialize each vertex in turn
+ * with the per-vertex methods; serializers that can encode whole blocks at
+ * once override them. Blocks and individual vertices may be freely mixed.</p>
  */
 
 public interface SMFSerializerDataAttributesValuesType extends Closeable
@@ -252,4 +262,270 @@ public interface SMFSerializerDataAttributesValuesType extends Closeable
   void serializeValueIntegerUnsigned1(
     long x)
     throws IOException, IllegalArgumentException, IllegalStateException;
+
+  /**
+   * Serialize a block of floating point values.
+   *
+   * @param components The number of components in each vertex
+   * @param values     The array containing the values
+   * @param offset     The index of the first value
+   * @param count      The number of values
+   *
+   * @throws IllegalStateException     If the header has not yet been
+   *                                   serialized
+   * @throws IllegalStateException     If the serializer has previously failed
+   * @throws IllegalArgumentException  If the current attribute is not of a
+   *                                   type appropriate to this method call, or
+   *                                   {@code count} is not a multiple of
+   *                                   {@code components}
+   * @throws IndexOutOfBoundsException If the range is not within the array
+   * @throws IOException               On I/O errors
+   */
+
+  default void serializeValuesFloat32(
+    final int components,
+    final float[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    checkBlock(components, values.length, offset, count);
+    final int end = offset + count;
+    for (int index = offset; index < end; index += components) {
+      switch (components) {
+        case 1:
+          this.serializeValueFloat1(values[index]);
+          break;
+        case 2:
+          this.serializeValueFloat2(values[index], values[index + 1]);
+          break;
+        case 3:
+          this.serializeValueFloat3(
+            values[index], values[index + 1], values[index + 2]);
+          break;
+        default:
+          this.serializeValueFloat4(
+            values[index],
+            values[index + 1],
+            values[index + 2],
+            values[index + 3]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Serialize a block of floating point values.
+   *
+   * @param components The number of components in each vertex
+   * @param values     The array containing the values
+   * @param offset     The index of the first value
+   * @param count      The number of values
+   *
+   * @throws IllegalStateException     If the header has not yet been
+   *                                   serialized
+   * @throws IllegalStateException     If the serializer has previously failed
+   * @throws IllegalArgumentException  If the current attribute is not of a
+   *                                   type appropriate to this method call, or
+   *                                   {@code count} is not a multiple of
+   *                                   {@code components}
+   * @throws IndexOutOfBoundsException If the range is not within the array
+   * @throws IOException               On I/O errors
+   */
+
+  default void serializeValuesFloat64(
+    final int components,
+    final double[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    checkBlock(components, values.length, offset, count);
+    final int end = offset + count;
+    for (int index = offset; index < end; index += components) {
+      switch (components) {
+        case 1:
+          this.serializeValueFloat1(values[index]);
+          break;
+        case 2:
+          this.serializeValueFloat2(values[index], values[index + 1]);
+          break;
+        case 3:
+          this.serializeValueFloat3(
+            values[index], values[index + 1], values[index + 2]);
+          break;
+        default:
+          this.serializeValueFloat4(
+            values[index],
+            values[index + 1],
+            values[index + 2],
+            values[index + 3]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Serialize a block of signed integer values.
+   *
+   * @param components The number of components in each vertex
+   * @param values     The array containing the values
+   * @param offset     The index of the first value
+   * @param count      The number of values
+   *
+   * @throws IllegalStateException     If the header has not yet been
+   *                                   serialized
+   * @throws IllegalStateException     If the serializer has previously failed
+   * @throws IllegalArgumentException  If the current attribute is not of a
+   *                                   type appropriate to this method call, or
+   *                                   {@code count} is not a multiple of
+   *                                   {@code components}
+   * @throws IndexOutOfBoundsException If the range is not within the array
+   * @throws IOException               On I/O errors
+   */
+
+  default void serializeValuesIntegerSigned(
+    final int components,
+    final long[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    checkBlock(components, values.length, offset, count);
+    final int end = offset + count;
+    for (int index = offset; index < end; index += components) {
+      switch (components) {
+        case 1:
+          this.serializeValueIntegerSigned1(values[index]);
+          break;
+        case 2:
+          this.serializeValueIntegerSigned2(values[index], values[index + 1]);
+          break;
+        case 3:
+          this.serializeValueIntegerSigned3(
+            values[index], values[index + 1], values[index + 2]);
+          break;
+        default:
+          this.serializeValueIntegerSigned4(
+            values[index],
+            values[index + 1],
+            values[index + 2],
+            values[index + 3]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Serialize a block of unsigned integer values. Unsigned 64-bit values
+   * that do not fit into a signed {@code long} are given in two's complement
+   * form, in the same manner as
+   * {@link #serializeValueIntegerUnsigned1(long)}.
+   *
+   * @param components The number of components in each vertex
+   * @param values     The array containing the values
+   * @param offset     The index of the first value
+   * @param count      The number of values
+   *
+   * @throws IllegalStateException     If the header has not yet been
+   *                                   serialized
+   * @throws IllegalStateException     If the serializer has previously failed
+   * @throws IllegalArgumentException  If the current attribute is not of a
+   *                                   type appropriate to this method call, or
+   *                                   {@code count} is not a multiple of
+   *                                   {@code components}
+   * @throws IndexOutOfBoundsException If the range is not within the array
+   * @throws IOException               On I/O errors
+   */
+
+  default void serializeValuesIntegerUnsigned(
+    final int components,
+    final long[] values,
+    final int offset,
+    final int count)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    checkBlock(components, values.length, offset, count);
+    final int end = offset + count;
+    for (int index = offset; index < end; index += components) {
+      switch (components) {
+        case 1:
+          this.serializeValueIntegerUnsigned1(values[index]);
+          break;
+        case 2:
+          this.serializeValueIntegerUnsigned2(
+            values[index], values[index + 1]);
+          break;
+        case 3:
+          this.serializeValueIntegerUnsigned3(
+            values[index], values[index + 1], values[index + 2]);
+          break;
+        default:
+          this.serializeValueIntegerUnsigned4(
+            values[index],
+            values[index + 1],
+            values[index + 2],
+            values[index + 3]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if this serializer accepts raw data with
+   * {@link #serializeValuesRaw(ByteBuffer)}
+   */
+
+  default boolean serializeValuesRawSupported()
+  {
+    return false;
+  }
+
+  /**
+   * Serialize a block of raw, already encoded vertex data. The data lies
+   * between the buffer's position and limit, and must contain a whole number
+   * of vertices in the layout of the current attribute: the components of
+   * each vertex are stored consecutively, each component occupying
+   * {@link com.io7m.smfj.core.SMFAttribute#componentSizeOctets()} octets, in
+   * the byte order given by the header. The data is written unchanged. The
+   * position of the buffer is advanced to its limit.
+   *
+   * @param data The data
+   *
+   * @throws IllegalStateException         If the header has not yet been
+   *                                       serialized
+   * @throws IllegalStateException         If the serializer has previously
+   *                                       failed
+   * @throws IllegalArgumentException      If the data does not contain a
+   *                                       whole number of vertices
+   * @throws UnsupportedOperationException If raw data is not supported
+   * @throws IOException                   On I/O errors
+   * @see #serializeValuesRawSupported()
+   */
+
+  default void serializeValuesRaw(
+    final ByteBuffer data)
+    throws IOException, IllegalArgumentException, IllegalStateException
+  {
+    Objects.requireNonNull(data, "data");
+    throw new UnsupportedOperationException(
+      "This serializer does not accept raw data");
+  }
+
+  private static void checkBlock(
+    final int components,
+    final int length,
+    final int offset,
+    final int count)
+  {
+    if (components < 1 || components > 4) {
+      throw new IllegalArgumentException(
+        "Component count must be in the range [1, 4]");
+    }
+    Objects.checkFromIndexSize(offset, count, length);
+    if (count % components != 0) {
+      throw new IllegalArgumentException(
+        "Value count must be a multiple of the component count");
+    }
+  }
 }
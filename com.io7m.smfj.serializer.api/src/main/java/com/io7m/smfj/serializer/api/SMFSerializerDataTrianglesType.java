@@ -18,9 +18,22 @@ package com.io7m.smfj.serializer.api;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 
 /**
- * Functions for serializing triangles.
+ * <p>Functions for serializing triangles.</p>
+ *
+ * <p>Triangles may be serialized one at a time, or in blocks with the
+ * {@code serializeTriangles} methods. A block contains the three vertex
+ * indices of each triangle stored consecutively, starting at the position
+ * of the given buffer; the position of the buffer is advanced past the
+ * indices that were serialized. The default implementations of the block
+ * methods serialize each triangle in turn with
+ * {@link #serializeTriangle(long, long, long)}; serializers that can encode
+ * whole blocks at once override them.</p>
  */
 
 public interface SMFSerializerDataTrianglesType extends Closeable
@@ -46,4 +59,154 @@ public interface SMFSerializerDataTrianglesType extends Closeable
     long v1,
     long v2)
     throws IOException, IllegalStateException;
+
+  /**
+   * Serialize a block of triangles. Each index is treated as an unsigned
+   * 32-bit integer.
+   *
+   * @param indices The buffer containing the vertex indices
+   * @param count   The number of triangles
+   *
+   * @throws IllegalStateException    If the header has not yet been
+   *                                  serialized
+   * @throws IllegalStateException    If the required number of
+   *                                  triangles have already been
+   *                                  serialized
+   * @throws IllegalStateException    If the serializer has
+   *                                  previously failed
+   * @throws BufferUnderflowException If the buffer contains fewer
+   *                                  than {@code count} triangles
+   * @throws IOException              On I/O errors
+   */
+
+  default void serializeTriangles(
+    final IntBuffer indices,
+    final int count)
+    throws IOException, IllegalStateException
+  {
+    checkRemaining(indices.remaining(), count);
+    for (int index = 0; index < count; ++index) {
+      this.serializeTriangle(
+        Integer.toUnsignedLong(indices.get()),
+        Integer.toUnsignedLong(indices.get()),
+        Integer.toUnsignedLong(indices.get()));
+    }
+  }
+
+  /**
+   * Serialize a block of triangles.
+   *
+   * @param indices The buffer containing the vertex indices
+   * @param count   The number of triangles
+   *
+   * @throws IllegalStateException    If the header has not yet been
+   *                                  serialized
+   * @throws IllegalStateException    If the required number of
+   *                                  triangles have already been
+   *                                  serialized
+   * @throws IllegalStateException    If the serializer has
+   *                                  previously failed
+   * @throws BufferUnderflowException If the buffer contains fewer
+   *                                  than {@code count} triangles
+   * @throws IOException              On I/O errors
+   */
+
+  default void serializeTriangles(
+    final LongBuffer indices,
+    final int count)
+    throws IOException, IllegalStateException
+  {
+    checkRemaining(indices.remaining(), count);
+    for (int index = 0; index < count; ++index) {
+      this.serializeTriangle(indices.get(), indices.get(), indices.get());
+    }
+  }
+
+  /**
+   * Serialize a block of packed triangles. Each index is an unsigned integer
+   * of {@code indexSizeBits} bits stored in the byte order of the buffer.
+   * Serializers writing indices of the same size may copy the data without
+   * decoding it.
+   *
+   * @param data          The buffer containing the vertex indices
+   * @param indexSizeBits The size in bits of each index: 8, 16, 32, or 64
+   * @param count         The number of triangles
+   *
+   * @throws IllegalStateException    If the header has not yet been
+   *                                  serialized
+   * @throws IllegalStateException    If the required number of
+   *                                  triangles have already been
+   *                                  serialized
+   * @throws IllegalStateException    If the serializer has
+   *                                  previously failed
+   * @throws IllegalArgumentException If the index size is not
+   *                                  supported
+   * @throws BufferUnderflowException If the buffer contains fewer
+   *                                  than {@code count} triangles
+   * @throws IOException              On I/O errors
+   */
+
+  default void serializeTriangles(
+    final ByteBuffer data,
+    final int indexSizeBits,
+    final int count)
+    throws IOException, IllegalStateException, IllegalArgumentException
+  {
+    switch (indexSizeBits) {
+      case 8: {
+        checkRemaining(data.remaining(), count);
+        for (int index = 0; index < count; ++index) {
+          this.serializeTriangle(
+            Byte.toUnsignedLong(data.get()),
+            Byte.toUnsignedLong(data.get()),
+            Byte.toUnsignedLong(data.get()));
+        }
+        break;
+      }
+      case 16: {
+        checkRemaining(data.remaining() / 2, count);
+        for (int index = 0; index < count; ++index) {
+          this.serializeTriangle(
+            Short.toUnsignedLong(data.getShort()),
+            Short.toUnsignedLong(data.getShort()),
+            Short.toUnsignedLong(data.getShort()));
+        }
+        break;
+      }
+      case 32: {
+        checkRemaining(data.remaining() / 4, count);
+        for (int index = 0; index < count; ++index) {
+          this.serializeTriangle(
+            Integer.toUnsignedLong(data.getInt()),
+            Integer.toUnsignedLong(data.getInt()),
+            Integer.toUnsignedLong(data.getInt()));
+        }
+        break;
+      }
+      case 64: {
+        checkRemaining(data.remaining() / 8, count);
+        for (int index = 0; index < count; ++index) {
+          this.serializeTriangle(data.getLong(), data.getLong(), data.getLong());
+        }
+        break;
+      }
+      default: {
+        throw new IllegalArgumentException(
+          "Unsupported index size: " + indexSizeBits);
+      }
+    }
+  }
+
+  private static void checkRemaining(
+    final int remaining,
+    final int count)
+  {
+    if (count < 0) {
+      throw new IllegalArgumentException(
+        "Triangle count must be non-negative: " + count);
+    }
+    if ((long) remaining < (long) count * 3L) {
+      throw new BufferUnderflowException();
+    }
+  }
 }
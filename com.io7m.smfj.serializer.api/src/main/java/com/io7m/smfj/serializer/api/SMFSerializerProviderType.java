@@ -21,6 +21,8 @@ import com.io7m.smfj.core.SMFFormatVersion;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
 import java.util.SortedSet;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -61,4 +63,39 @@ public interface SMFSerializerProviderType
     URI uri,
     OutputStream stream)
     throws UnsupportedOperationException, IOException;
+
+  /**
+   * Create a serializer that writes to a file channel. Data is written
+   * starting at the current position of the channel, and the position of
+   * the channel is left at the end of the written data when the serializer
+   * is closed. The channel is not closed by the serializer. Formats may
+   * write directly to the channel, avoiding the copies and per-value calls
+   * required when writing to a stream. The default implementation writes
+   * to a buffered stream over the channel, and flushes the stream after
+   * closing the serializer returned by
+   * {@link #serializerCreate(SMFFormatVersion, URI, OutputStream)}.
+   *
+   * @param version The format version
+   * @param uri     The URI referred to by the channel, for diagnostic
+   *                messages
+   * @param channel A file channel
+   *
+   * @return A new serializer for the format
+   *
+   * @throws IOException                   On I/O errors
+   * @throws UnsupportedOperationException If the given version is not
+   *                                       supported
+   */
+
+  default SMFSerializerType serializerCreateChannel(
+    final SMFFormatVersion version,
+    final URI uri,
+    final FileChannel channel)
+    throws UnsupportedOperationException, IOException
+  {
+    Objects.requireNonNull(channel, "channel");
+    final var stream = new SMFSerializerChannelStream(channel);
+    return new SMFSerializerChannelForwarding(
+      this.serializerCreate(version, uri, stream), stream);
+  }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.cmdline;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.tests.TestDirectories;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.load;
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.resourceFile;
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.resourceFileAs;
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.run;
+
+public final class SMFCommandBatchTest
+{
+  private static final SMFAttributeName RENAMED =
+    SMFAttributeName.of("position");
+
+  /**
+   * Every mesh below the input directory is filtered, and written to the
+   * same relative path below the output directory with the output suffix.
+   */
+
+  @Test
+  public void testBatchDirectory()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var inputs = directory.resolve("in");
+    final var outputs = directory.resolve("out");
+    resourceFileAs(inputs, "all.smft", "a.smft");
+    resourceFileAs(inputs, "all.smft", "x/b.smft");
+    resourceFileAs(inputs, "all.smft", "x/y/c.smft");
+    Files.writeString(inputs.resolve("ignored.txt"), "Not a mesh.");
+    final var commands = resourceFile(directory, "rename.smfc");
+
+    Assertions.assertEquals(0, run(
+      "batch",
+      "--input-directory", inputs.toString(),
+      "--output-directory", outputs.toString(),
+      "--output-format", "smf/b",
+      "--commands", commands.toString(),
+      "--threads", "2"));
+
+    for (final var name : List.of("a.smfb", "x/b.smfb", "x/y/c.smfb")) {
+      final var mesh = load(outputs.resolve(name));
+      Assertions.assertTrue(
+        mesh.header().attributesByName().containsKey(RENAMED));
+    }
+    Assertions.assertFalse(Files.exists(outputs.resolve("ignored.smfb")));
+  }
+
+  /**
+   * The entries of a manifest are resolved against the manifest's
+   * directory, and comments and blank lines are ignored.
+   */
+
+  @Test
+  public void testBatchManifest()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var outputs = directory.resolve("out");
+    resourceFileAs(directory, "all.smft", "a.smft");
+    resourceFileAs(directory, "all.smft", "x/b.smft");
+    resourceFileAs(directory, "all.smft", "unlisted.smft");
+    final var commands = resourceFile(directory, "rename.smfc");
+    final var manifest = directory.resolve("manifest.txt");
+    Files.writeString(manifest, "# Inputs\n\na.smft\n  x/b.smft  \n");
+
+    Assertions.assertEquals(0, run(
+      "batch",
+      "--input-manifest", manifest.toString(),
+      "--output-directory", outputs.toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString()));
+
+    for (final var name : List.of("a.smft", "x/b.smft")) {
+      final var mesh = load(outputs.resolve(name));
+      Assertions.assertTrue(
+        mesh.header().attributesByName().containsKey(RENAMED));
+    }
+    Assertions.assertFalse(Files.exists(outputs.resolve("unlisted.smft")));
+  }
+
+  /**
+   * A failing file causes a non-zero exit code, but does not prevent the
+   * other files from being processed.
+   */
+
+  @Test
+  public void testBatchPartialFailure()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var inputs = directory.resolve("in");
+    final var outputs = directory.resolve("out");
+    resourceFileAs(inputs, "all.smft", "a.smft");
+    Files.writeString(inputs.resolve("b.smft"), "smf 1 0\ngarbage\n");
+    final var commands = resourceFile(directory, "rename.smfc");
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--input-directory", inputs.toString(),
+      "--output-directory", outputs.toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString(),
+      "--threads", "2"));
+
+    Assertions.assertTrue(
+      load(outputs.resolve("a.smft"))
+        .header()
+        .attributesByName()
+        .containsKey(RENAMED));
+    Assertions.assertFalse(Files.exists(outputs.resolve("b.smft")));
+  }
+
+  /**
+   * Two inputs that would be written to the same output are rejected
+   * before any work starts.
+   */
+
+  @Test
+  public void testBatchOutputCollision()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var outputs = directory.resolve("out");
+    resourceFileAs(directory, "all.smft", "a.smft");
+    final var commands = resourceFile(directory, "rename.smfc");
+    final var manifest = directory.resolve("manifest.txt");
+    Files.writeString(manifest, "a.smft\n./a.smft\n");
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--input-manifest", manifest.toString(),
+      "--output-directory", outputs.toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString()));
+
+    Assertions.assertFalse(Files.exists(outputs));
+  }
+
+  /**
+   * An input for which no parser exists is rejected before any work
+   * starts.
+   */
+
+  @Test
+  public void testBatchNoParser()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var outputs = directory.resolve("out");
+    resourceFileAs(directory, "all.smft", "a.smft");
+    Files.writeString(directory.resolve("b.unknown"), "Not a mesh.");
+    final var commands = resourceFile(directory, "rename.smfc");
+    final var manifest = directory.resolve("manifest.txt");
+    Files.writeString(manifest, "a.smft\nb.unknown\n");
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--input-manifest", manifest.toString(),
+      "--output-directory", outputs.toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString()));
+
+    Assertions.assertFalse(Files.exists(outputs));
+  }
+
+  /**
+   * Exactly one of an input directory or an input manifest is required.
+   */
+
+  @Test
+  public void testBatchInputsAmbiguous()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var commands = resourceFile(directory, "rename.smfc");
+    final var manifest = directory.resolve("manifest.txt");
+    Files.writeString(manifest, "");
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--input-directory", directory.toString(),
+      "--input-manifest", manifest.toString(),
+      "--output-directory", directory.resolve("out").toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString()));
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--output-directory", directory.resolve("out").toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString()));
+  }
+
+  /**
+   * At least one worker thread is required.
+   */
+
+  @Test
+  public void testBatchThreadsInvalid()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var commands = resourceFile(directory, "rename.smfc");
+
+    Assertions.assertEquals(1, run(
+      "batch",
+      "--input-directory", directory.toString(),
+      "--output-directory", directory.resolve("out").toString(),
+      "--output-format", "smf/t",
+      "--commands", commands.toString(),
+      "--threads", "0"));
+  }
+}
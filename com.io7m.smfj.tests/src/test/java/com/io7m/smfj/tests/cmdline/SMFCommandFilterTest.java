@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.cmdline;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.tests.TestDirectories;
+import java.nio.file.Files;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.load;
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.resourceFile;
+import static com.io7m.smfj.tests.cmdline.SMFCommandLineTesting.run;
+
+public final class SMFCommandFilterTest
+{
+  /**
+   * A filter list in which every filter can stream produces the filtered
+   * mesh without loading it into memory first.
+   */
+
+  @Test
+  public void testFilterStreaming()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = resourceFile(directory, "rename.smfc");
+    final var output = directory.resolve("out.smfb");
+
+    Assertions.assertEquals(0, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--output-file", output.toString(),
+      "--commands", commands.toString()));
+
+    final var expected = load(input);
+    final var received = load(output);
+    final var attributes = received.header().attributesByName();
+
+    Assertions.assertTrue(
+      attributes.containsKey(SMFAttributeName.of("position")));
+    Assertions.assertFalse(
+      attributes.containsKey(SMFAttributeName.of("f32_4")));
+    Assertions.assertEquals(
+      expected.arrays().get(SMFAttributeName.of("f32_4")),
+      received.arrays().get(SMFAttributeName.of("position")));
+    Assertions.assertEquals(expected.triangles(), received.triangles());
+  }
+
+  /**
+   * A filter list containing a filter that cannot stream is evaluated on
+   * the mesh in memory.
+   */
+
+  @Test
+  public void testFilterInMemory()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = resourceFile(directory, "trim.smfc");
+    final var output = directory.resolve("out.smft");
+
+    Assertions.assertEquals(0, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--output-file", output.toString(),
+      "--commands", commands.toString()));
+
+    final var expected = load(input);
+    final var received = load(output);
+
+    Assertions.assertEquals(
+      Set.of(SMFAttributeName.of("f32_4"), SMFAttributeName.of("f32_3")),
+      received.header().attributesByName().keySet());
+    Assertions.assertEquals(
+      expected.arrays().get(SMFAttributeName.of("f32_3")),
+      received.arrays().get(SMFAttributeName.of("f32_3")));
+    Assertions.assertEquals(expected.triangles(), received.triangles());
+  }
+
+  /**
+   * A streaming filter that fails must not leave a partial output file.
+   */
+
+  @Test
+  public void testFilterStreamingFailureRemovesOutput()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = resourceFile(directory, "rename_missing.smfc");
+    final var output = directory.resolve("out.smft");
+
+    Assertions.assertEquals(1, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--output-file", output.toString(),
+      "--commands", commands.toString()));
+
+    Assertions.assertFalse(Files.exists(output));
+  }
+
+  /**
+   * Filters may be evaluated without writing any output.
+   */
+
+  @Test
+  public void testFilterNoOutput()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = resourceFile(directory, "check.smfc");
+
+    Assertions.assertEquals(0, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--commands", commands.toString()));
+  }
+
+  /**
+   * A filter that fails causes a non-zero exit code.
+   */
+
+  @Test
+  public void testFilterNoOutputFailure()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = resourceFile(directory, "check_bad.smfc");
+
+    Assertions.assertEquals(1, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--commands", commands.toString()));
+  }
+
+  /**
+   * Unparseable filter commands cause a non-zero exit code.
+   */
+
+  @Test
+  public void testFilterBadCommands()
+    throws Exception
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var input = resourceFile(directory, "all.smft");
+    final var commands = directory.resolve("bad.smfc");
+    Files.writeString(commands, "com.io7m.smf:nonexistent x\n");
+
+    Assertions.assertEquals(1, run(
+      "filter",
+      "--input-file", input.toString(),
+      "--commands", commands.toString()));
+  }
+}
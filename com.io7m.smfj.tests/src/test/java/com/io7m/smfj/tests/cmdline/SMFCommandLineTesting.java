@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.cmdline;
+
+import com.io7m.smfj.cmdline.Main;
+import com.io7m.smfj.frontend.SMFParserProviders;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+
+final class SMFCommandLineTesting
+{
+  private SMFCommandLineTesting()
+  {
+
+  }
+
+  static Path resourceFile(
+    final Path directory,
+    final String name)
+    throws IOException
+  {
+    return resourceFileAs(directory, name, name);
+  }
+
+  static Path resourceFileAs(
+    final Path directory,
+    final String name,
+    final String output)
+    throws IOException
+  {
+    final var path =
+      String.format("/com/io7m/smfj/tests/cmdline/%s", name);
+    final var url = SMFCommandLineTesting.class.getResource(path);
+    if (url == null) {
+      throw new FileNotFoundException(path);
+    }
+
+    final var file = directory.resolve(output);
+    Files.createDirectories(file.getParent());
+    try (var stream = url.openStream()) {
+      Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  static int run(
+    final String... arguments)
+  {
+    return Main.mainExitless(arguments);
+  }
+
+  static SMFMemoryMesh load(
+    final Path file)
+    throws IOException
+  {
+    final var parsers =
+      SMFParserProviders.findParserProvider(Optional.empty(), file.toString())
+        .orElseThrow();
+
+    final var loader = SMFMemoryMeshProducer.create();
+    try (var stream = Files.newInputStream(file)) {
+      try (var parser =
+             parsers.parserCreateSequential(loader, file.toUri(), stream)) {
+        parser.parse();
+      }
+    }
+
+    Assertions.assertEquals(List.of(), loader.errors());
+    return loader.mesh();
+  }
+}
@@ -0,0 +1,1244 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.binary2;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFInterleavedLayout;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
+import com.io7m.smfj.format.binary2.internal.SMFB2ParsingSectionVertexDataInterleaved;
+import com.io7m.smfj.parser.api.SMFParserEventsBodyType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesBulkType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesRawType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributeValuesType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataAttributesNonInterleavedType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataMetaType;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesIgnoringReceiver;
+import com.io7m.smfj.parser.api.SMFParserEventsDataTrianglesType;
+import com.io7m.smfj.parser.api.SMFParserEventsHeaderType;
+import com.io7m.smfj.parser.api.SMFParserEventsType;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshSerializer;
+import com.io7m.smfj.tests.TestDirectories;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFFormatBinary2BulkTest
+{
+  private enum Mode
+  {
+    PER_VERTEX,
+    BULK,
+    RAW
+  }
+
+  private enum Access
+  {
+    SEQUENTIAL,
+    RANDOM_ACCESS,
+    RANDOM_ACCESS_MAPPED,
+    RANDOM_ACCESS_PARALLEL
+  }
+
+  private static Path resourceFile(
+    final String name)
+    throws IOException
+  {
+    final var path =
+      String.format("/com/io7m/smfj/tests/format/binary2/%s", name);
+    final var url = SMFFormatBinary2BulkTest.class.getResource(path);
+    if (url == null) {
+      throw new FileNotFoundException(path);
+    }
+
+    final var file = TestDirectories.temporaryDirectory().resolve(name);
+    try (var stream = url.openStream()) {
+      Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  private static Collector parse(
+    final Path file,
+    final Access access,
+    final Mode mode)
+    throws IOException
+  {
+    return parseInto(file, access, new Collector(mode));
+  }
+
+  private static Collector parseInto(
+    final Path file,
+    final Access access,
+    final Collector collector)
+    throws IOException
+  {
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      return parseWith(file, access, collector, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static Collector parseWith(
+    final Path file,
+    final Access access,
+    final Collector collector,
+    final Executor executor)
+    throws IOException
+  {
+    final var configuration =
+      SMFFormatBinary2Configuration.builder()
+        .setRandomAccessMemoryMapped(access == Access.RANDOM_ACCESS_MAPPED);
+    if (access == Access.RANDOM_ACCESS_PARALLEL) {
+      configuration.setRandomAccessExecutor(executor);
+    }
+    final var format = new SMFFormatBinary2(configuration.build());
+
+    switch (access) {
+      case SEQUENTIAL: {
+        try (var stream = Files.newInputStream(file)) {
+          try (var parser = collector.projection.isPresent()
+            ? format.parserCreateSequentialProjected(
+            collector, file.toUri(), stream, collector.projection.get())
+            : format.parserCreateSequential(collector, file.toUri(), stream)) {
+            parser.parse();
+          }
+        }
+        break;
+      }
+      case RANDOM_ACCESS:
+      case RANDOM_ACCESS_MAPPED:
+      case RANDOM_ACCESS_PARALLEL: {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          try (var parser = collector.projection.isPresent()
+            ? format.parserCreateRandomAccessProjected(
+            collector, file.toUri(), channel, collector.projection.get())
+            : format.parserCreateRandomAccess(collector, file.toUri(), channel)) {
+            parser.parse();
+          }
+        }
+        break;
+      }
+    }
+
+    if (!collector.errorsExpected) {
+      Assertions.assertEquals(List.of(), collector.errors);
+    }
+    return collector;
+  }
+
+  /**
+   * Values delivered in blocks must be identical to those delivered one
+   * vertex at a time, for every access mode.
+   */
+
+  private static void checkBulkMatchesPerVertex(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+
+    Assertions.assertFalse(expected.values.isEmpty());
+
+    for (final var access : Access.values()) {
+      checkSameValues(expected, parse(file, access, Mode.BULK), access);
+      checkSameValues(expected, parse(file, access, Mode.PER_VERTEX), access);
+    }
+  }
+
+  private static void checkSameValues(
+    final Collector expected,
+    final Collector received,
+    final Access access)
+  {
+    Assertions.assertEquals(
+      expected.values.keySet(),
+      received.values.keySet(),
+      access.toString());
+
+    for (final var attributeName : expected.values.keySet()) {
+      Assertions.assertEquals(
+        expected.values.get(attributeName),
+        received.values.get(attributeName),
+        String.format("%s %s", access, attributeName.value()));
+    }
+    Assertions.assertEquals(
+      expected.finished,
+      received.finished,
+      access.toString());
+  }
+
+  /**
+   * Raw data must cover every vertex of every attribute, in the byte order
+   * of the file.
+   */
+
+  private static void checkRawCoversAllData(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+
+    for (final var access : Access.values()) {
+      final var received = parse(file, access, Mode.RAW);
+      final var header = received.header;
+
+      for (final var attribute : header.attributesInOrder()) {
+        Assertions.assertEquals(
+          Long.valueOf(header.vertexCount() * attribute.sizeOctets()),
+          received.rawOctets.get(attribute.name()),
+          String.format("%s %s", access, attribute.name().value()));
+      }
+      Assertions.assertEquals(
+        List.of(header.dataByteOrder()),
+        received.rawOrders.stream().distinct().toList());
+    }
+  }
+
+  /**
+   * Declining to receive an attribute must not affect the values delivered
+   * for the attributes that follow it.
+   */
+
+  private static void checkSkippedAttribute(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+    final var skipped =
+      expected.header.attributesInOrder().get(0).name();
+
+    for (final var mode : List.of(Mode.PER_VERTEX, Mode.BULK)) {
+      for (final var access : Access.values()) {
+        final var collector = new Collector(mode);
+        collector.skip = skipped;
+        final var received = parseInto(file, access, collector);
+
+        Assertions.assertFalse(received.values.containsKey(skipped));
+        for (final var attributeName : expected.values.keySet()) {
+          if (!Objects.equals(attributeName, skipped)) {
+            Assertions.assertEquals(
+              expected.values.get(attributeName),
+              received.values.get(attributeName),
+              String.format("%s %s %s", mode, access, attributeName.value()));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * A projection must deliver exactly the requested attributes, and must
+   * deliver a header containing only those attributes.
+   */
+
+  private static void checkProjection(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+    final var attributes =
+      expected.header.attributesInOrder();
+    final var requested =
+      Set.of(attributes.get(attributes.size() - 1).name());
+
+    for (final var mode : List.of(Mode.PER_VERTEX, Mode.BULK)) {
+      for (final var access : Access.values()) {
+        final var collector = new Collector(mode);
+        collector.projection = Optional.of(requested);
+        final var received = parseInto(file, access, collector);
+
+        Assertions.assertEquals(requested, received.values.keySet());
+        Assertions.assertEquals(
+          requested,
+          received.header.attributesByName().keySet());
+        for (final var attributeName : requested) {
+          Assertions.assertEquals(
+            expected.values.get(attributeName),
+            received.values.get(attributeName),
+            String.format("%s %s %s", mode, access, attributeName.value()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Serialize the given file again with interleaved vertex data, using both
+   * a stream and a channel, and check that both produce the same file.
+   */
+
+  private static Path serializeInterleaved(
+    final Path file)
+    throws IOException
+  {
+    final var loader = SMFMemoryMeshProducer.create();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser = new SMFFormatBinary2()
+        .parserCreateRandomAccess(loader, file.toUri(), channel)) {
+        parser.parse();
+      }
+    }
+    Assertions.assertEquals(List.of(), loader.errors());
+
+    final var format =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setSerializeVertexDataInterleaved(true)
+          .build());
+
+    final var version = SMFFormatVersion.of(2, 0);
+    final var directory = TestDirectories.temporaryDirectory();
+    final var outputStream = directory.resolve("interleavedStream.smfb");
+    try (var stream = Files.newOutputStream(outputStream)) {
+      try (var serializer =
+             format.serializerCreate(version, outputStream.toUri(), stream)) {
+        SMFMemoryMeshSerializer.serialize(loader.mesh(), serializer);
+      }
+    }
+
+    final var outputChannel = directory.resolve("interleavedChannel.smfb");
+    try (var channel = FileChannel.open(
+      outputChannel,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      try (var serializer =
+             format.serializerCreateChannel(
+               version, outputChannel.toUri(), channel)) {
+        SMFMemoryMeshSerializer.serialize(loader.mesh(), serializer);
+      }
+    }
+
+    Assertions.assertArrayEquals(
+      Files.readAllBytes(outputStream),
+      Files.readAllBytes(outputChannel));
+
+    /*
+     * A channel that can be read is mapped. The file is filled with
+     * garbage first, to check that the gaps between attributes are cleared.
+     */
+
+    final var outputMapped = directory.resolve("interleavedMapped.smfb");
+    final var garbage = new byte[(int) Files.size(outputStream)];
+    Arrays.fill(garbage, (byte) 0x5a);
+    Files.write(outputMapped, garbage);
+
+    try (var channel = FileChannel.open(
+      outputMapped,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE)) {
+      try (var serializer =
+             format.serializerCreateChannel(
+               version, outputMapped.toUri(), channel)) {
+        SMFMemoryMeshSerializer.serialize(loader.mesh(), serializer);
+      }
+    }
+
+    Assertions.assertArrayEquals(
+      Files.readAllBytes(outputStream),
+      Files.readAllBytes(outputMapped));
+    return outputStream;
+  }
+
+  /**
+   * Interleaved data must be delivered as exactly the same values as the
+   * non-interleaved data it was produced from.
+   */
+
+  private static void checkInterleavedMatchesNonInterleaved(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+    final var interleaved = serializeInterleaved(file);
+
+    for (final var access : Access.values()) {
+      checkSameValues(
+        expected, parse(interleaved, access, Mode.PER_VERTEX), access);
+      checkSameValues(
+        expected, parse(interleaved, access, Mode.BULK), access);
+    }
+  }
+
+  /**
+   * Interleave the raw data of each attribute according to the given layout,
+   * leaving any gaps between attributes zeroed.
+   */
+
+  private static byte[] interleave(
+    final Collector raw,
+    final SMFInterleavedLayout layout)
+  {
+    final var vertexCount = Math.toIntExact(raw.header.vertexCount());
+    final var stride = layout.stride();
+    final var result = new byte[Math.multiplyExact(vertexCount, stride)];
+
+    for (final var attribute : raw.header.attributesInOrder()) {
+      final var data = raw.rawBytes.get(attribute.name()).toByteArray();
+      final var size = attribute.sizeOctets();
+      final var offset = layout.offsets().get(attribute.name()).intValue();
+      Assertions.assertEquals(vertexCount * size, data.length);
+      for (int index = 0; index < vertexCount; ++index) {
+        System.arraycopy(
+          data, index * size, result, index * stride + offset, size);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Receivers of interleaved data must receive every vertex, consisting of
+   * exactly the octets of the non-interleaved data it was produced from, and
+   * must receive mapped buffers when the parser maps the file.
+   */
+
+  private static void checkInterleavedRaw(
+    final String name)
+    throws Exception
+  {
+    final var file = resourceFile(name);
+    final var raw = parse(file, Access.SEQUENTIAL, Mode.RAW);
+    final var interleaved = serializeInterleaved(file);
+
+    for (final var access : Access.values()) {
+      final var collector = new Collector(Mode.PER_VERTEX);
+      collector.interleaved = true;
+      final var received = parseInto(interleaved, access, collector);
+      final var header = received.header;
+      final var layout = received.layout;
+
+      Assertions.assertTrue(received.values.isEmpty());
+      Assertions.assertEquals(
+        header.attributesByName().keySet(),
+        layout.offsets().keySet());
+      for (final var attribute : header.attributesInOrder()) {
+        Assertions.assertTrue(
+          layout.offsets().get(attribute.name()).intValue()
+            + attribute.sizeOctets() <= layout.stride());
+      }
+
+      Assertions.assertEquals(
+        header.vertexCount() * (long) layout.stride(),
+        received.interleavedOctets,
+        access.toString());
+      Assertions.assertArrayEquals(
+        interleave(raw, layout),
+        received.interleavedBytes.toByteArray(),
+        access.toString());
+      final var mapped =
+        access == Access.RANDOM_ACCESS_MAPPED
+          || access == Access.RANDOM_ACCESS_PARALLEL;
+      Assertions.assertEquals(
+        List.of(Boolean.valueOf(mapped)),
+        received.interleavedDirect.stream().distinct().toList(),
+        access.toString());
+      Assertions.assertEquals(
+        List.of(header.dataByteOrder()),
+        received.rawOrders.stream().distinct().toList());
+    }
+  }
+
+  private static Collector parseInterleavedLayout(
+    final Path file)
+    throws IOException
+  {
+    final var collector = new Collector(Mode.PER_VERTEX);
+    collector.interleaved = true;
+    return parseInto(file, Access.SEQUENTIAL, collector);
+  }
+
+  /**
+   * Copy an interleaved file, replacing one 32-bit field of the data of its
+   * interleaved vertex data section.
+   */
+
+  private static Path patchInterleaved(
+    final Path file,
+    final int field,
+    final int value)
+    throws IOException
+  {
+    final var data = ByteBuffer.wrap(Files.readAllBytes(file));
+    final var magic = SMFB2ParsingSectionVertexDataInterleaved.magic();
+
+    var section = -1;
+    for (int index = 0; index + 8 <= data.capacity(); index += 16) {
+      if (data.getLong(index) == magic) {
+        section = index;
+        break;
+      }
+    }
+    Assertions.assertTrue(section >= 0, "Interleaved section must exist");
+    data.putInt(section + 16 + field, value);
+
+    final var output =
+      TestDirectories.temporaryDirectory().resolve("patched.smfb");
+    Files.write(output, data.array());
+    return output;
+  }
+
+  private static void checkInterleavedRejected(
+    final Path file,
+    final String message)
+    throws Exception
+  {
+    for (final var access : Access.values()) {
+      final var collector = new Collector(Mode.PER_VERTEX);
+      collector.interleaved = true;
+      collector.errorsExpected = true;
+      final var received = parseInto(file, access, collector);
+
+      Assertions.assertTrue(
+        received.errors.stream().anyMatch(e -> e.message().contains(message)),
+        String.format("%s %s", access, received.errors));
+      Assertions.assertEquals(0L, received.interleavedOctets);
+      Assertions.assertTrue(received.values.isEmpty());
+    }
+  }
+
+  /**
+   * An attribute that extends beyond the stride must be rejected.
+   */
+
+  @Test
+  public void testInterleavedAttributeOutsideStride()
+    throws Exception
+  {
+    final var file =
+      serializeInterleaved(resourceFile("smfFull_validAll0.smfb"));
+    final var received = parseInterleavedLayout(file);
+    final var last = received.header.attributesInOrder().size() - 1;
+
+    checkInterleavedRejected(
+      patchInterleaved(file, 16 + 4 * last, received.layout.stride()),
+      "does not fit within the stride");
+  }
+
+  /**
+   * Attributes that overlap within a vertex must be rejected.
+   */
+
+  @Test
+  public void testInterleavedAttributesOverlap()
+    throws Exception
+  {
+    final var file =
+      serializeInterleaved(resourceFile("smfFull_validAll0.smfb"));
+    final var received = parseInterleavedLayout(file);
+    final var attributes = received.header.attributesInOrder();
+    final var offsets = received.layout.offsets();
+
+    Assertions.assertTrue(offsets.containsValue(Integer.valueOf(0)));
+
+    var moved = -1;
+    for (int index = 0; index < attributes.size(); ++index) {
+      if (offsets.get(attributes.get(index).name()).intValue() != 0) {
+        moved = index;
+        break;
+      }
+    }
+    Assertions.assertTrue(moved >= 0);
+
+    checkInterleavedRejected(
+      patchInterleaved(file, 16 + 4 * moved, 0),
+      "overlaps attribute");
+  }
+
+  /**
+   * Interleaved data of an unsupported version must be skipped with a
+   * warning.
+   */
+
+  @Test
+  public void testInterleavedUnsupportedVersion()
+    throws Exception
+  {
+    final var file =
+      patchInterleaved(
+        serializeInterleaved(resourceFile("smfFull_validAll0.smfb")), 0, 2);
+
+    for (final var access : Access.values()) {
+      final var collector = new Collector(Mode.PER_VERTEX);
+      collector.interleaved = true;
+      final var received = parseInto(file, access, collector);
+
+      Assertions.assertTrue(
+        received.warnings.stream().anyMatch(
+          w -> w.message().contains("Unsupported interleaved vertex data")),
+        access.toString());
+      Assertions.assertEquals(0L, received.interleavedOctets);
+      Assertions.assertTrue(received.values.isEmpty());
+    }
+  }
+
+  /**
+   * Interleaved serializers must reject attributes that are serialized twice,
+   * and must refuse to close while any attribute has not been serialized.
+   */
+
+  @Test
+  public void testInterleavedSerializerIncomplete()
+    throws Exception
+  {
+    final var file = resourceFile("smfFull_validAll0.smfb");
+    final var header = parse(file, Access.SEQUENTIAL, Mode.RAW).header;
+    final var name = header.attributesInOrder().get(0).name();
+
+    final var format =
+      new SMFFormatBinary2(
+        SMFFormatBinary2Configuration.builder()
+          .setSerializeVertexDataInterleaved(true)
+          .build());
+
+    final var version = SMFFormatVersion.of(2, 0);
+    final var directory = TestDirectories.temporaryDirectory();
+    final var outputStream = directory.resolve("incompleteStream.smfb");
+    try (var stream = Files.newOutputStream(outputStream)) {
+      final var serializer =
+        format.serializerCreate(version, outputStream.toUri(), stream);
+      serializer.serializeHeader(header);
+      final var vertices = serializer.serializeVertexDataNonInterleavedStart();
+      Assertions.assertFalse(vertices.serializeDataConcurrentSupported());
+      vertices.serializeData(name);
+      Assertions.assertThrows(
+        IllegalStateException.class, () -> vertices.serializeData(name));
+      Assertions.assertThrows(IllegalStateException.class, vertices::close);
+    }
+
+    final var outputChannel = directory.resolve("incompleteChannel.smfb");
+    try (var channel = FileChannel.open(
+      outputChannel,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      final var serializer =
+        format.serializerCreateChannel(version, outputChannel.toUri(), channel);
+      serializer.serializeHeader(header);
+      final var vertices = serializer.serializeVertexDataNonInterleavedStart();
+      Assertions.assertTrue(vertices.serializeDataConcurrentSupported());
+      vertices.serializeData(name);
+      Assertions.assertThrows(
+        IllegalStateException.class, () -> vertices.serializeData(name));
+      Assertions.assertThrows(IllegalStateException.class, vertices::close);
+    }
+  }
+
+  @Test
+  public void testInterleavedValid0()
+    throws Exception
+  {
+    checkInterleavedMatchesNonInterleaved("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testInterleavedValid1()
+    throws Exception
+  {
+    checkInterleavedMatchesNonInterleaved("smfFull_validAll1.smfb");
+  }
+
+  @Test
+  public void testInterleavedRawValid0()
+    throws Exception
+  {
+    checkInterleavedRaw("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testInterleavedRawValid1()
+    throws Exception
+  {
+    checkInterleavedRaw("smfFull_validAll1.smfb");
+  }
+
+  @Test
+  public void testProjectionValid0()
+    throws Exception
+  {
+    checkProjection("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testProjectionValid1()
+    throws Exception
+  {
+    checkProjection("smfFull_validAll1.smfb");
+  }
+
+  @Test
+  public void testSkippedAttributeValid0()
+    throws Exception
+  {
+    checkSkippedAttribute("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testSkippedAttributeValid1()
+    throws Exception
+  {
+    checkSkippedAttribute("smfFull_validAll1.smfb");
+  }
+
+  /**
+   * An executor with a single worker must produce the same values as any
+   * other, whether or not it is used to decode in advance.
+   */
+
+  @Test
+  public void testParallelSingleWorkerValid0()
+    throws Exception
+  {
+    final var file = resourceFile("smfFull_validAll0.smfb");
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+
+    final var executor = Executors.newSingleThreadExecutor();
+    try {
+      for (final var mode : List.of(Mode.PER_VERTEX, Mode.BULK)) {
+        checkSameValues(
+          expected,
+          parseWith(
+            file, Access.RANDOM_ACCESS_PARALLEL, new Collector(mode), executor),
+          Access.RANDOM_ACCESS_PARALLEL);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Attributes that are excluded by a projection must not be decoded.
+   */
+
+  @Test
+  public void testParallelProjectionSkipsDecodingValid0()
+    throws Exception
+  {
+    Assumptions.assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+
+    final var file = resourceFile("smfFull_validAll0.smfb");
+    final var expected =
+      parse(file, Access.SEQUENTIAL, Mode.PER_VERTEX);
+    final var attributes =
+      expected.header.attributesInOrder();
+    final var requested =
+      Set.of(attributes.get(attributes.size() - 1).name());
+
+    final var pool = Executors.newFixedThreadPool(4);
+    try {
+      final var tasksAll = new AtomicInteger();
+      final Executor countingAll = task -> {
+        tasksAll.incrementAndGet();
+        pool.execute(task);
+      };
+      checkSameValues(
+        expected,
+        parseWith(
+          file,
+          Access.RANDOM_ACCESS_PARALLEL,
+          new Collector(Mode.PER_VERTEX),
+          countingAll),
+        Access.RANDOM_ACCESS_PARALLEL);
+
+      final var tasksProjected = new AtomicInteger();
+      final Executor countingProjected = task -> {
+        tasksProjected.incrementAndGet();
+        pool.execute(task);
+      };
+      final var collector = new Collector(Mode.PER_VERTEX);
+      collector.projection = Optional.of(requested);
+      final var received =
+        parseWith(
+          file, Access.RANDOM_ACCESS_PARALLEL, collector, countingProjected);
+
+      Assertions.assertEquals(requested, received.values.keySet());
+      for (final var attributeName : requested) {
+        Assertions.assertEquals(
+          expected.values.get(attributeName),
+          received.values.get(attributeName));
+      }
+      Assertions.assertTrue(tasksProjected.get() > 0);
+      Assertions.assertTrue(tasksProjected.get() < tasksAll.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testBulkValid0()
+    throws Exception
+  {
+    checkBulkMatchesPerVertex("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testBulkValid1()
+    throws Exception
+  {
+    checkBulkMatchesPerVertex("smfFull_validAll1.smfb");
+  }
+
+  @Test
+  public void testRawValid0()
+    throws Exception
+  {
+    checkRawCoversAllData("smfFull_validAll0.smfb");
+  }
+
+  @Test
+  public void testRawValid1()
+    throws Exception
+  {
+    checkRawCoversAllData("smfFull_validAll1.smfb");
+  }
+
+  private static final class Collector
+    implements SMFParserEventsType,
+    SMFParserEventsHeaderType,
+    SMFParserEventsBodyType,
+    SMFParserEventsDataAttributesNonInterleavedType,
+    SMFParserEventsDataAttributesInterleavedType
+  {
+    private final Mode mode;
+    private final Map<SMFAttributeName, List<Number>> values;
+    private final Map<SMFAttributeName, Long> rawOctets;
+    private final List<ByteOrder> rawOrders;
+    private final List<SMFAttributeName> finished;
+    private final List<SMFErrorType> errors;
+    private final List<Boolean> interleavedDirect;
+    private final List<SMFWarningType> warnings;
+    private final Map<SMFAttributeName, ByteArrayOutputStream> rawBytes;
+    private final ByteArrayOutputStream interleavedBytes;
+    private SMFHeader header;
+    private boolean errorsExpected;
+    private boolean interleaved;
+    private SMFInterleavedLayout layout;
+    private long interleavedOctets;
+    private SMFAttributeName skip;
+    private Optional<Set<SMFAttributeName>> projection = Optional.empty();
+
+    Collector(
+      final Mode inMode)
+    {
+      this.mode = inMode;
+      this.values = new HashMap<>();
+      this.rawOctets = new HashMap<>();
+      this.rawOrders = new ArrayList<>();
+      this.finished = new ArrayList<>();
+      this.errors = new ArrayList<>();
+      this.interleavedDirect = new ArrayList<>();
+      this.warnings = new ArrayList<>();
+      this.rawBytes = new HashMap<>();
+      this.interleavedBytes = new ByteArrayOutputStream();
+    }
+
+    private static void copyInto(
+      final ByteBuffer data,
+      final ByteArrayOutputStream output)
+    {
+      final var bytes = new byte[data.remaining()];
+      data.duplicate().get(bytes);
+      output.writeBytes(bytes);
+    }
+
+    @Override
+    public void onStart()
+    {
+
+    }
+
+    @Override
+    public Optional<SMFParserEventsHeaderType> onVersionReceived(
+      final SMFFormatVersion version)
+    {
+      return Optional.of(this);
+    }
+
+    @Override
+    public void onFinish()
+    {
+
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      this.errors.add(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      this.warnings.add(w);
+    }
+
+    @Override
+    public Optional<SMFParserEventsBodyType> onHeaderParsed(
+      final SMFHeader inHeader)
+    {
+      this.header = inHeader;
+      return Optional.of(this);
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributesNonInterleavedType>
+    onAttributesNonInterleaved()
+    {
+      return Optional.of(this);
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributesInterleavedType>
+    onAttributesInterleaved()
+    {
+      if (this.interleaved) {
+        return Optional.of(this);
+      }
+      return Optional.empty();
+    }
+
+    @Override
+    public void onDataAttributesInterleaved(
+      final SMFInterleavedLayout inLayout,
+      final long vertexFirst,
+      final ByteBuffer data)
+    {
+      Assertions.assertTrue(data.isReadOnly());
+      Assertions.assertEquals(
+        this.interleavedOctets, vertexFirst * (long) inLayout.stride());
+      this.layout = inLayout;
+      this.rawOrders.add(data.order());
+      this.interleavedDirect.add(Boolean.valueOf(data.isDirect()));
+      this.interleavedOctets += (long) data.remaining();
+      copyInto(data, this.interleavedBytes);
+    }
+
+    @Override
+    public void onDataAttributesInterleavedFinish()
+    {
+
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataTrianglesType>
+    onTriangles()
+    {
+      return Optional.of(
+        new SMFParserEventsDataTrianglesIgnoringReceiver(this));
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataMetaType> onMeta(
+      final SMFSchemaIdentifier schema)
+    {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributeValuesType> onDataAttributeStart(
+      final SMFAttribute attribute)
+    {
+      final var name = attribute.name();
+      if (Objects.equals(name, this.skip)) {
+        return Optional.empty();
+      }
+      final var list = new ArrayList<Number>();
+      this.values.put(name, list);
+      this.rawOctets.put(name, Long.valueOf(0L));
+      this.rawBytes.put(name, new ByteArrayOutputStream());
+      return Optional.of(new Values(this, name, list));
+    }
+
+    @Override
+    public void onDataAttributesNonInterleavedFinish()
+    {
+
+    }
+  }
+
+  private static final class Values
+    implements SMFParserEventsDataAttributeValuesType,
+    SMFParserEventsDataAttributeValuesBulkType,
+    SMFParserEventsDataAttributeValuesRawType
+  {
+    private final Collector collector;
+    private final SMFAttributeName name;
+    private final List<Number> values;
+
+    Values(
+      final Collector inCollector,
+      final SMFAttributeName inName,
+      final List<Number> inValues)
+    {
+      this.collector = inCollector;
+      this.name = inName;
+      this.values = inValues;
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributeValuesBulkType>
+    onDataAttributeValuesBulk()
+    {
+      if (this.collector.mode == Mode.BULK) {
+        return Optional.of(this);
+      }
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<SMFParserEventsDataAttributeValuesRawType>
+    onDataAttributeValuesRaw()
+    {
+      if (this.collector.mode == Mode.RAW) {
+        return Optional.of(this);
+      }
+      return Optional.empty();
+    }
+
+    @Override
+    public void onDataAttributeValuesRaw(
+      final ByteBuffer data)
+    {
+      Assertions.assertTrue(data.isReadOnly());
+      this.collector.rawOrders.add(data.order());
+      this.collector.rawOctets.merge(
+        this.name, Long.valueOf(data.remaining()), Long::sum);
+      Collector.copyInto(data, this.collector.rawBytes.get(this.name));
+    }
+
+    @Override
+    public void onDataAttributeValuesFloat32(
+      final float[] inValues,
+      final int offset,
+      final int count)
+    {
+      for (var index = 0; index < count; ++index) {
+        this.values.add(Double.valueOf(inValues[offset + index]));
+      }
+    }
+
+    @Override
+    public void onDataAttributeValuesFloat64(
+      final double[] inValues,
+      final int offset,
+      final int count)
+    {
+      for (var index = 0; index < count; ++index) {
+        this.values.add(Double.valueOf(inValues[offset + index]));
+      }
+    }
+
+    @Override
+    public void onDataAttributeValuesIntegerSigned(
+      final long[] inValues,
+      final int offset,
+      final int count)
+    {
+      for (var index = 0; index < count; ++index) {
+        this.values.add(Long.valueOf(inValues[offset + index]));
+      }
+    }
+
+    @Override
+    public void onDataAttributeValuesIntegerUnsigned(
+      final long[] inValues,
+      final int offset,
+      final int count)
+    {
+      this.onDataAttributeValuesIntegerSigned(inValues, offset, count);
+    }
+
+    private void addLongs(
+      final long... xs)
+    {
+      for (final var x : xs) {
+        this.values.add(Long.valueOf(x));
+      }
+    }
+
+    private void addDoubles(
+      final double... xs)
+    {
+      for (final var x : xs) {
+        this.values.add(Double.valueOf(x));
+      }
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned1(
+      final long x)
+    {
+      this.addLongs(x);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned2(
+      final long x,
+      final long y)
+    {
+      this.addLongs(x, y);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned3(
+      final long x,
+      final long y,
+      final long z)
+    {
+      this.addLongs(x, y, z);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerSigned4(
+      final long x,
+      final long y,
+      final long z,
+      final long w)
+    {
+      this.addLongs(x, y, z, w);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned1(
+      final long x)
+    {
+      this.addLongs(x);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned2(
+      final long x,
+      final long y)
+    {
+      this.addLongs(x, y);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned3(
+      final long x,
+      final long y,
+      final long z)
+    {
+      this.addLongs(x, y, z);
+    }
+
+    @Override
+    public void onDataAttributeValueIntegerUnsigned4(
+      final long x,
+      final long y,
+      final long z,
+      final long w)
+    {
+      this.addLongs(x, y, z, w);
+    }
+
+    @Override
+    public void onDataAttributeValueFloat1(
+      final double x)
+    {
+      this.addDoubles(x);
+    }
+
+    @Override
+    public void onDataAttributeValueFloat2(
+      final double x,
+      final double y)
+    {
+      this.addDoubles(x, y);
+    }
+
+    @Override
+    public void onDataAttributeValueFloat3(
+      final double x,
+      final double y,
+      final double z)
+    {
+      this.addDoubles(x, y, z);
+    }
+
+    @Override
+    public void onDataAttributeValueFloat4(
+      final double x,
+      final double y,
+      final double z,
+      final double w)
+    {
+      this.addDoubles(x, y, z, w);
+    }
+
+    @Override
+    public void onDataAttributeValueFinish()
+    {
+      this.collector.finished.add(this.name);
+    }
+
+    @Override
+    public void onError(
+      final SMFErrorType e)
+    {
+      this.collector.onError(e);
+    }
+
+    @Override
+    public void onWarning(
+      final SMFWarningType w)
+    {
+      this.collector.onWarning(w);
+    }
+  }
+}
@@ -19,15 +19,23 @@
 package com.io7m.smfj.tests.format.binary2;
 
 import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2Configuration;
 import com.io7m.smfj.format.xml.SMFFormatXML;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.tests.TestDirectories;
 import com.io7m.smfj.tests.processing.SMFMemoryMeshTesting;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -52,6 +60,86 @@ public final class SMFFormatBinary2Test
     return url.openStream();
   }
 
+  private static Path resourceFile(
+    final String name)
+    throws IOException
+  {
+    final var directory = TestDirectories.temporaryDirectory();
+    final var file = directory.resolve(name);
+    try (var stream = resource(name)) {
+      Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  private static SMFMemoryMeshProducerType parseRandomAccess(
+    final String name,
+    final boolean mapped)
+    throws IOException
+  {
+    return parseRandomAccess(
+      name,
+      SMFFormatBinary2Configuration.builder()
+        .setRandomAccessMemoryMapped(mapped)
+        .build());
+  }
+
+  private static SMFMemoryMeshProducerType parseRandomAccessParallel(
+    final String name)
+    throws IOException
+  {
+    final var executor = Executors.newFixedThreadPool(4);
+    try {
+      return parseRandomAccess(
+        name,
+        SMFFormatBinary2Configuration.builder()
+          .setRandomAccessExecutor(executor)
+          .build());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static SMFMemoryMeshProducerType parseRandomAccess(
+    final String name,
+    final SMFFormatBinary2Configuration configuration)
+    throws IOException
+  {
+    final var format = new SMFFormatBinary2(configuration);
+
+    final var meshes = SMFMemoryMeshProducer.create();
+    final var file = resourceFile(name);
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser =
+             format.parserCreateRandomAccess(meshes, file.toUri(), channel)) {
+        parser.parse();
+      }
+    }
+    logEverything(meshes);
+    return meshes;
+  }
+
+  private static void checkFailureRandomAccess(
+    final String file,
+    final boolean mapped)
+    throws IOException
+  {
+    final var meshes = parseRandomAccess(file, mapped);
+    Assertions.assertFalse(
+      meshes.errors().isEmpty(),
+      "At least one error must have been logged");
+  }
+
+  private static void checkFailureRandomAccessParallel(
+    final String file)
+    throws IOException
+  {
+    final var meshes = parseRandomAccessParallel(file);
+    Assertions.assertFalse(
+      meshes.errors().isEmpty(),
+      "At least one error must have been logged");
+  }
+
   private static void logEverything(final SMFMemoryMeshProducerType meshes)
   {
     meshes.errors()
@@ -144,4 +232,164 @@ public final class SMFFormatBinary2Test
   {
     checkFailure("smfFull_invalidTrianglesOutOfRange0.smfb");
   }
+
+  @Test
+  public void testValid0RandomAccess()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccess("smfFull_validAll0.smfb", false);
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testValid1RandomAccess()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccess("smfFull_validAll1.smfb", false);
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testInvalid0RandomAccess()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader0.smfb", false);
+  }
+
+  @Test
+  public void testInvalid1RandomAccess()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader1.smfb", false);
+  }
+
+  @Test
+  public void testInvalid2RandomAccess()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader2.smfb", false);
+  }
+
+  @Test
+  public void testInvalid3RandomAccess()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidTooFewTriangles0.smfb", false);
+  }
+
+  @Test
+  public void testInvalid4RandomAccess()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidTrianglesOutOfRange0.smfb", false);
+  }
+
+  @Test
+  public void testValid0Mapped()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccess("smfFull_validAll0.smfb", true);
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testValid1Mapped()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccess("smfFull_validAll1.smfb", true);
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testInvalid0Mapped()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader0.smfb", true);
+  }
+
+  @Test
+  public void testInvalid1Mapped()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader1.smfb", true);
+  }
+
+  @Test
+  public void testInvalid2Mapped()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidSMFHeader2.smfb", true);
+  }
+
+  @Test
+  public void testInvalid3Mapped()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidTooFewTriangles0.smfb", true);
+  }
+
+  @Test
+  public void testInvalid4Mapped()
+    throws Exception
+  {
+    checkFailureRandomAccess("smfFull_invalidTrianglesOutOfRange0.smfb", true);
+  }
+
+  @Test
+  public void testValid0Parallel()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccessParallel("smfFull_validAll0.smfb");
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testValid1Parallel()
+    throws Exception
+  {
+    final var meshes =
+      parseRandomAccessParallel("smfFull_validAll1.smfb");
+    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+  }
+
+  @Test
+  public void testInvalid0Parallel()
+    throws Exception
+  {
+    checkFailureRandomAccessParallel("smfFull_invalidSMFHeader0.smfb");
+  }
+
+  @Test
+  public void testInvalid1Parallel()
+    throws Exception
+  {
+    checkFailureRandomAccessParallel("smfFull_invalidSMFHeader1.smfb");
+  }
+
+  @Test
+  public void testInvalid2Parallel()
+    throws Exception
+  {
+    checkFailureRandomAccessParallel("smfFull_invalidSMFHeader2.smfb");
+  }
+
+  @Test
+  public void testInvalid3Parallel()
+    throws Exception
+  {
+    checkFailureRandomAccessParallel("smfFull_invalidTooFewTriangles0.smfb");
+  }
+
+  @Test
+  public void testInvalid4Parallel()
+    throws Exception
+  {
+    checkFailureRandomAccessParallel(
+      "smfFull_invalidTrianglesOutOfRange0.smfb");
+  }
 }
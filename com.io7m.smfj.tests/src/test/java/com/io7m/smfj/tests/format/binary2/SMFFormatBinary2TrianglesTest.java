@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.smfj.tests.format.binary2;
+
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.tests.TestDirectories;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Round trips of triangles through each of the triangle serialization
+ * methods, for each index size and byte order.
+ */
+
+public final class SMFFormatBinary2TrianglesTest
+{
+  /**
+   * Enough triangles to span several blocks in the parser.
+   */
+
+  private static final int TRIANGLES = 10000;
+
+  /**
+   * A block size that does not divide the parser or serializer block sizes.
+   */
+
+  private static final int CALL_TRIANGLES = 1000;
+
+  private enum Method
+  {
+    PER_TRIANGLE,
+    INT_BUFFER,
+    LONG_BUFFER,
+    BYTE_BUFFER_FILE_ORDER,
+    BYTE_BUFFER_OTHER_ORDER,
+    BYTE_BUFFER_64
+  }
+
+  private static long vertexCountFor(
+    final int bits)
+  {
+    switch (bits) {
+      case 8:
+        return 256L;
+      case 16:
+        return 65536L;
+      default:
+        return 0x1_0000_0000L;
+    }
+  }
+
+  private static long[] indicesFor(
+    final long vertexCount)
+  {
+    final long[] indices = new long[TRIANGLES * 3];
+    for (int index = 0; index < indices.length; ++index) {
+      indices[index] = ((long) index * 2654435761L) % vertexCount;
+    }
+    indices[1] = vertexCount - 1L;
+    return indices;
+  }
+
+  private static ByteOrder otherOrder(
+    final ByteOrder order)
+  {
+    return order.equals(ByteOrder.BIG_ENDIAN)
+      ? ByteOrder.LITTLE_ENDIAN
+      : ByteOrder.BIG_ENDIAN;
+  }
+
+  private static ByteBuffer packed(
+    final long[] indices,
+    final int bits,
+    final ByteOrder order)
+  {
+    final var buffer =
+      ByteBuffer.allocate(indices.length * (bits / 8)).order(order);
+    for (final long value : indices) {
+      switch (bits) {
+        case 8:
+          buffer.put((byte) value);
+          break;
+        case 16:
+          buffer.putShort((short) value);
+          break;
+        case 32:
+          buffer.putInt((int) value);
+          break;
+        default:
+          buffer.putLong(value);
+          break;
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static void serialize(
+    final Path file,
+    final SMFHeader header,
+    final long[] indices,
+    final Method method)
+    throws IOException
+  {
+    final var format = new SMFFormatBinary2();
+    final var version = format.serializerSupportedVersions().last();
+    final var bits = header.triangles().triangleIndexSizeBits();
+    final var order = header.dataByteOrder();
+
+    try (var stream = Files.newOutputStream(file)) {
+      try (var serializer =
+             format.serializerCreate(version, file.toUri(), stream)) {
+        serializer.serializeHeader(header);
+        try (var triangles = serializer.serializeTrianglesStart()) {
+          final IntBuffer ints = IntBuffer.allocate(indices.length);
+          for (final long value : indices) {
+            ints.put((int) value);
+          }
+          ints.flip();
+
+          final LongBuffer longs = LongBuffer.wrap(indices);
+          final ByteBuffer fileOrder = packed(indices, bits, order);
+          final ByteBuffer otherOrder =
+            packed(indices, bits, otherOrder(order));
+          final ByteBuffer wide =
+            packed(indices, 64, ByteOrder.nativeOrder());
+
+          int remaining = TRIANGLES;
+          int offset = 0;
+          while (remaining > 0) {
+            final int count = Math.min(remaining, CALL_TRIANGLES);
+            switch (method) {
+              case PER_TRIANGLE: {
+                for (int index = 0; index < count; ++index) {
+                  final int base = (offset + index) * 3;
+                  triangles.serializeTriangle(
+                    indices[base], indices[base + 1], indices[base + 2]);
+                }
+                break;
+              }
+              case INT_BUFFER: {
+                triangles.serializeTriangles(ints, count);
+                break;
+              }
+              case LONG_BUFFER: {
+                triangles.serializeTriangles(longs, count);
+                break;
+              }
+              case BYTE_BUFFER_FILE_ORDER: {
+                triangles.serializeTriangles(fileOrder, bits, count);
+                break;
+              }
+              case BYTE_BUFFER_OTHER_ORDER: {
+                triangles.serializeTriangles(otherOrder, bits, count);
+                break;
+              }
+              case BYTE_BUFFER_64: {
+                triangles.serializeTriangles(wide, 64, count);
+                break;
+              }
+            }
+            offset += count;
+            remaining -= count;
+          }
+        }
+      }
+    }
+  }
+
+  private static void checkParsed(
+    final SMFMemoryMeshProducerType producer,
+    final int bits,
+    final long[] indices)
+  {
+    Assertions.assertEquals(List.of(), producer.errors());
+
+    final var triangles = producer.mesh().triangleIndices();
+    Assertions.assertEquals(bits, triangles.indexSizeBits());
+    Assertions.assertEquals(TRIANGLES, triangles.triangleCount());
+
+    final long[] received = new long[indices.length];
+    triangles.copyTo(0, received, 0, received.length);
+    Assertions.assertArrayEquals(indices, received);
+  }
+
+  private static void checkRoundTrip(
+    final int bits,
+    final ByteOrder order,
+    final Method method)
+    throws IOException
+  {
+    final var vertexCount = vertexCountFor(bits);
+    final var indices = indicesFor(vertexCount);
+    final var header =
+      SMFHeader.builder()
+        .setVertexCount(vertexCount)
+        .setTriangles(SMFTriangles.of((long) TRIANGLES, bits))
+        .setDataByteOrder(order)
+        .build();
+
+    final var file =
+      TestDirectories.temporaryDirectory().resolve("triangles.smfb");
+    serialize(file, header, indices, method);
+
+    final var format = new SMFFormatBinary2();
+
+    final var sequential = SMFMemoryMeshProducer.create();
+    try (var stream = Files.newInputStream(file)) {
+      try (var parser =
+             format.parserCreateSequential(sequential, file.toUri(), stream)) {
+        parser.parse();
+      }
+    }
+    checkParsed(sequential, bits, indices);
+
+    final var random = SMFMemoryMeshProducer.create();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser =
+             format.parserCreateRandomAccess(random, file.toUri(), channel)) {
+        parser.parse();
+      }
+    }
+    checkParsed(random, bits, indices);
+  }
+
+  /**
+   * Triangles serialized with each method are parsed back unchanged, for
+   * each index size and byte order.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testRoundTrip()
+  {
+    final var tests = new ArrayList<DynamicTest>();
+    for (final int bits : new int[]{8, 16, 32, 64}) {
+      for (final var order : List.of(
+        ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+        for (final var method : Method.values()) {
+          tests.add(DynamicTest.dynamicTest(
+            String.format("testRoundTrip_%d_%s_%s", bits, order, method),
+            () -> checkRoundTrip(bits, order, method)));
+        }
+      }
+    }
+    return tests.stream();
+  }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.obj;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.format.obj.SMFFormatOBJ;
+import com.io7m.smfj.format.obj.SMFFormatOBJConfiguration;
+import com.io7m.smfj.format.obj.SMFFormatOBJImporterKind;
+import com.io7m.smfj.processing.api.SMFAttributeArrayFloating3;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.tests.TestDirectories;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+public final class SMFFormatOBJTest
+{
+  private static final String QUAD =
+    String.join(
+      "\n",
+      "v 0.0 0.0 0.0",
+      "v 1.0 0.0 0.0",
+      "v 1.0 1.0 0.0",
+      "v 0.0 1.0 0.0",
+      "vt 0.0 0.0",
+      "vt 1.0 0.0",
+      "vt 1.0 1.0",
+      "vt 0.0 1.0",
+      "vn 0.0 0.0 1.0",
+      "f 1/1/1 2/2/1 3/3/1",
+      "f 1/1/1 3/3/1 4/4/1",
+      "");
+
+  @Test
+  public void testImportQuad()
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    final var format = new SMFFormatOBJ();
+    try (var parser = format.parserCreateSequential(
+      producer,
+      URI.create("urn:quad.obj"),
+      new ByteArrayInputStream(QUAD.getBytes(UTF_8)))) {
+      parser.parse();
+    }
+
+    Assertions.assertEquals(0, producer.errors().size());
+
+    final var mesh = producer.mesh();
+    final var header = mesh.header();
+    Assertions.assertEquals(4L, header.vertexCount());
+    Assertions.assertEquals(2L, header.triangles().triangleCount());
+    Assertions.assertTrue(
+      header.attributesByName().containsKey(SMFAttributeName.of("position")));
+    Assertions.assertTrue(
+      header.attributesByName().containsKey(SMFAttributeName.of("normal")));
+    Assertions.assertTrue(
+      header.attributesByName().containsKey(SMFAttributeName.of("uv:0")));
+    Assertions.assertEquals(3L, mesh.triangleIndices().v2(1));
+  }
+
+  private static String grid(
+    final int size)
+  {
+    final var text = new StringBuilder(size * size * 64);
+    for (int y = 0; y <= size; ++y) {
+      for (int x = 0; x <= size; ++x) {
+        text.append("v ")
+          .append(x)
+          .append(' ')
+          .append(y)
+          .append(" 0.0\n");
+      }
+    }
+
+    final int row = size + 1;
+    for (int y = 0; y < size; ++y) {
+      for (int x = 0; x < size; ++x) {
+        final int v0 = (y * row) + x + 1;
+        final int v1 = v0 + 1;
+        final int v2 = v0 + row + 1;
+        final int v3 = v0 + row;
+        text.append("f ")
+          .append(v0).append("// ")
+          .append(v1).append("// ")
+          .append(v2).append("//\n");
+        text.append("f ")
+          .append(v0).append("// ")
+          .append(v2).append("// ")
+          .append(v3).append("//\n");
+      }
+    }
+    return text.toString();
+  }
+
+  @Test
+  public void testImportGridSharedVertices()
+    throws IOException
+  {
+    final int size = 100;
+    final var producer = SMFMemoryMeshProducer.create();
+    final var format = new SMFFormatOBJ();
+    try (var parser = format.parserCreateSequential(
+      producer,
+      URI.create("urn:grid.obj"),
+      new ByteArrayInputStream(grid(size).getBytes(UTF_8)))) {
+      parser.parse();
+    }
+
+    Assertions.assertEquals(0, producer.errors().size());
+
+    final var mesh = producer.mesh();
+    final var header = mesh.header();
+    Assertions.assertEquals(
+      (long) (size + 1) * (long) (size + 1), header.vertexCount());
+    Assertions.assertEquals(
+      2L * (long) size * (long) size, header.triangles().triangleCount());
+    Assertions.assertEquals(1, header.attributesInOrder().size());
+
+    final var positions = (SMFAttributeArrayFloating3)
+      mesh.arrays().get(SMFAttributeName.of("position"));
+
+    final var triangles = mesh.triangleIndices();
+    final int last = triangles.triangleCount() - 1;
+    final var corner = positions.values().get((int) triangles.v1(last));
+    Assertions.assertEquals((double) size, corner.x());
+    Assertions.assertEquals((double) size, corner.y());
+    Assertions.assertEquals(0.0, corner.z());
+  }
+
+  private static SMFMemoryMeshProducerType importWith(
+    final SMFFormatOBJImporterKind kind,
+    final String text)
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    final var format = new SMFFormatOBJ(kind);
+    try (var parser = format.parserCreateSequential(
+      producer,
+      URI.create("urn:model.obj"),
+      new ByteArrayInputStream(text.getBytes(UTF_8)))) {
+      parser.parse();
+    }
+    Assertions.assertEquals(List.of(), producer.errors());
+    return producer;
+  }
+
+  @Test
+  public void testImportTwoPassIdenticalQuad()
+    throws IOException
+  {
+    final var memory =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, QUAD);
+    final var two_pass =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_TWO_PASS, QUAD);
+    Assertions.assertEquals(memory.mesh(), two_pass.mesh());
+  }
+
+  @Test
+  public void testImportTwoPassIdenticalGrid()
+    throws IOException
+  {
+    final String text = grid(100);
+    final var memory =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, text);
+    final var two_pass =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_TWO_PASS, text);
+    Assertions.assertEquals(memory.mesh(), two_pass.mesh());
+  }
+
+  private static SMFMemoryMeshProducerType importRandomAccess(
+    final SMFFormatOBJImporterKind kind,
+    final String text)
+    throws IOException
+  {
+    final var path = Files.createTempFile("smfj-obj-", ".obj");
+    try {
+      Files.writeString(path, text, UTF_8);
+
+      final var producer = SMFMemoryMeshProducer.create();
+      final var format = new SMFFormatOBJ(kind);
+      try (var channel = FileChannel.open(path, READ)) {
+        try (var parser = format.parserCreateRandomAccess(
+          producer, path.toUri(), channel)) {
+          parser.parse();
+        }
+      }
+      Assertions.assertEquals(List.of(), producer.errors());
+      return producer;
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testImportRandomAccessIdenticalQuad()
+    throws IOException
+  {
+    final var sequential =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, QUAD);
+    final var parallel =
+      importRandomAccess(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, QUAD);
+    Assertions.assertEquals(sequential.mesh(), parallel.mesh());
+  }
+
+  @Test
+  public void testImportRandomAccessIdenticalGrid()
+    throws IOException
+  {
+    final String text = grid(400);
+    final var sequential =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, text);
+
+    for (final var kind : SMFFormatOBJImporterKind.values()) {
+      final var parallel = importRandomAccess(kind, text);
+      Assertions.assertEquals(sequential.mesh(), parallel.mesh());
+    }
+  }
+
+  /**
+   * A grid whose positions, normals, and texture coordinates are not
+   * representable exactly with single precision.
+   */
+
+  private static String fractionalGrid(
+    final int size)
+  {
+    final var text = new StringBuilder(size * size * 256);
+    for (int y = 0; y <= size; ++y) {
+      for (int x = 0; x <= size; ++x) {
+        text.append("v ")
+          .append((double) x / 3.0)
+          .append(' ')
+          .append((double) y / 7.0)
+          .append(" 0.1\n");
+        text.append("vt ")
+          .append((double) x / (double) (size * 3))
+          .append(' ')
+          .append((double) y / (double) (size * 7))
+          .append('\n');
+        text.append("vn 0.0 0.6 ")
+          .append(Math.sqrt(0.64))
+          .append('\n');
+      }
+    }
+
+    final int row = size + 1;
+    for (int y = 0; y < size; ++y) {
+      for (int x = 0; x < size; ++x) {
+        final int v0 = (y * row) + x + 1;
+        final int v1 = v0 + 1;
+        final int v2 = v0 + row + 1;
+        final int v3 = v0 + row;
+        text.append("f ")
+          .append(v0).append('/').append(v0).append('/').append(v0)
+          .append(' ')
+          .append(v1).append('/').append(v1).append('/').append(v1)
+          .append(' ')
+          .append(v2).append('/').append(v2).append('/').append(v2)
+          .append('\n');
+        text.append("f ")
+          .append(v0).append('/').append(v0).append('/').append(v0)
+          .append(' ')
+          .append(v2).append('/').append(v2).append('/').append(v2)
+          .append(' ')
+          .append(v3).append('/').append(v3).append('/').append(v3)
+          .append('\n');
+      }
+    }
+    return text.toString();
+  }
+
+  private static SMFMemoryMeshProducerType importWithConfiguration(
+    final SMFFormatOBJConfiguration configuration,
+    final String text)
+    throws IOException
+  {
+    final var producer = SMFMemoryMeshProducer.create();
+    final var format = new SMFFormatOBJ(configuration);
+    try (var parser = format.parserCreateSequential(
+      producer,
+      URI.create("urn:model.obj"),
+      new ByteArrayInputStream(text.getBytes(UTF_8)))) {
+      parser.parse();
+    }
+    Assertions.assertEquals(List.of(), producer.errors());
+    return producer;
+  }
+
+  private static SMFMemoryMeshProducerType importRandomAccessWithConfiguration(
+    final SMFFormatOBJConfiguration configuration,
+    final Path directory,
+    final String text)
+    throws IOException
+  {
+    final var path = directory.resolve("model.obj");
+    try {
+      Files.writeString(path, text, UTF_8);
+
+      final var producer = SMFMemoryMeshProducer.create();
+      final var format = new SMFFormatOBJ(configuration);
+      try (var channel = FileChannel.open(path, READ)) {
+        try (var parser = format.parserCreateRandomAccess(
+          producer, path.toUri(), channel)) {
+          parser.parse();
+        }
+      }
+      Assertions.assertEquals(List.of(), producer.errors());
+      return producer;
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  private static long fileCount(
+    final Path directory)
+    throws IOException
+  {
+    try (var stream = Files.list(directory)) {
+      return stream.count();
+    }
+  }
+
+  /**
+   * Values that cannot be represented with single precision are delivered
+   * identically by the in-memory and two-pass importers.
+   */
+
+  @Test
+  public void testImportTwoPassIdenticalFractional()
+    throws IOException
+  {
+    final String text = fractionalGrid(20);
+    final var memory =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, text);
+    final var two_pass =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_TWO_PASS, text);
+    Assertions.assertEquals(memory.mesh(), two_pass.mesh());
+
+    final var positions = (SMFAttributeArrayFloating3)
+      two_pass.mesh().arrays().get(SMFAttributeName.of("position"));
+    final var last = positions.values().get(positions.values().size() - 1);
+    Assertions.assertEquals((double) (float) (20.0 / 3.0), last.x());
+    Assertions.assertEquals((double) (float) (20.0 / 7.0), last.y());
+    Assertions.assertEquals((double) 0.1f, last.z());
+  }
+
+  /**
+   * The two-pass importer reads values correctly when its temporary files
+   * are mapped in many small segments, and deletes the files afterwards.
+   */
+
+  @Test
+  public void testImportTwoPassSegments()
+    throws IOException
+  {
+    final String text = fractionalGrid(20);
+    final var memory =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, text);
+
+    for (final long size : new long[]{8L, 24L, 4096L}) {
+      final var directory = TestDirectories.temporaryDirectory();
+      final var configuration =
+        SMFFormatOBJConfiguration.builder()
+          .setImporterKind(SMFFormatOBJImporterKind.IMPORTER_TWO_PASS)
+          .setTemporaryDirectory(directory)
+          .setSpillSegmentSize(size)
+          .build();
+
+      final var sequential = importWithConfiguration(configuration, text);
+      Assertions.assertEquals(memory.mesh(), sequential.mesh());
+      Assertions.assertEquals(0L, fileCount(directory));
+
+      final var parallel =
+        importRandomAccessWithConfiguration(configuration, directory, text);
+      Assertions.assertEquals(memory.mesh(), parallel.mesh());
+      Assertions.assertEquals(0L, fileCount(directory));
+    }
+  }
+
+  /**
+   * Segment sizes that could split a value are rejected.
+   */
+
+  @Test
+  public void testSpillSegmentSizeInvalid()
+  {
+    for (final long size : new long[]{0L, -8L, 12L, 1L << 32}) {
+      Assertions.assertThrows(IllegalArgumentException.class, () -> {
+        SMFFormatOBJConfiguration.builder()
+          .setSpillSegmentSize(size)
+          .build();
+      });
+    }
+  }
+
+  /**
+   * Random-access parsers parse ranges of the file in the configured pool.
+   */
+
+  @Test
+  public void testImportRandomAccessConfiguredPool()
+    throws IOException
+  {
+    final String text = grid(400);
+    final var sequential =
+      importWith(SMFFormatOBJImporterKind.IMPORTER_IN_MEMORY, text);
+
+    final var pool = new CountingPool();
+    try {
+      final var directory = TestDirectories.temporaryDirectory();
+      final var configuration =
+        SMFFormatOBJConfiguration.builder()
+          .setParallelPool(pool)
+          .build();
+
+      final var parallel =
+        importRandomAccessWithConfiguration(configuration, directory, text);
+      Assertions.assertEquals(sequential.mesh(), parallel.mesh());
+      Assertions.assertTrue(
+        pool.submitted.get() > 1,
+        "Pool must have been used for more than one range");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static final class CountingPool extends ForkJoinPool
+  {
+    private final AtomicInteger submitted;
+
+    CountingPool()
+    {
+      super(4);
+      this.submitted = new AtomicInteger();
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(
+      final Callable<T> task)
+    {
+      this.submitted.incrementAndGet();
+      return super.submit(task);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.support;
+
+import com.io7m.jlexing.core.LexicalPosition;
+import com.io7m.smfj.format.support.SMFTriangleTracker;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFTriangleTrackerTest
+{
+  private static final LexicalPosition<URI> POSITION =
+    LexicalPosition.of(23, 0, Optional.of(URI.create("urn:x")));
+
+  @Test
+  public void testLexicalOnlyOnError()
+  {
+    final var messages = new ArrayList<String>();
+    final var tracker =
+      new SMFTriangleTracker((lex, message) -> {
+        Assertions.assertEquals(POSITION, lex);
+        messages.add(message);
+      }, 3L, 2L);
+
+    final int[] calls = new int[1];
+    tracker.addTriangle(() -> {
+      ++calls[0];
+      return POSITION;
+    }, 0L, 1L, 2L);
+    Assertions.assertEquals(0, calls[0]);
+    Assertions.assertEquals(0, messages.size());
+
+    tracker.addTriangle(() -> {
+      ++calls[0];
+      return POSITION;
+    }, 0L, 3L, -1L);
+    Assertions.assertEquals(1, calls[0]);
+    Assertions.assertEquals(2, messages.size());
+
+    Assertions.assertTrue(tracker.check(POSITION));
+  }
+
+  @Test
+  public void testCountMismatch()
+  {
+    final var messages = new ArrayList<String>();
+    final var tracker =
+      new SMFTriangleTracker((lex, message) -> messages.add(message), 3L, 2L);
+
+    tracker.addTriangle(POSITION, 0L, 1L, 2L);
+    Assertions.assertFalse(tracker.check(POSITION));
+    Assertions.assertEquals(1, messages.size());
+  }
+}
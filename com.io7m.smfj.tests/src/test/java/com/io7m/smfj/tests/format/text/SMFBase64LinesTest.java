@@ -16,7 +16,10 @@
 
 package com.io7m.smfj.tests.format.text;
 
+import com.io7m.smfj.format.text.SMFBase64LineDecoder;
 import com.io7m.smfj.format.text.SMFBase64Lines;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.List;
 import net.java.quickcheck.QuickCheck;
 import net.java.quickcheck.characteristic.AbstractCharacteristic;
@@ -54,4 +57,93 @@ public final class SMFBase64LinesTest
         }
       });
   }
+
+  @Test
+  public void testWriteLinesIdentical()
+  {
+    QuickCheck.forAllVerbose(
+      new ByteArrayGenerator(),
+      new AbstractCharacteristic<byte[]>()
+      {
+        @Override
+        protected void doSpecify(final byte[] data)
+          throws Throwable
+        {
+          final StringWriter writer = new StringWriter();
+          SMFBase64Lines.writeBase64Lines(data, writer, "\n");
+
+          final String text = writer.toString();
+          final List<String> lines =
+            text.isEmpty() ? List.of() : Arrays.asList(text.split("\n"));
+
+          Assertions.assertEquals(SMFBase64Lines.toBase64Lines(data), lines);
+          Assertions.assertEquals(
+            SMFBase64Lines.lineCount(data.length), lines.size());
+          lines.forEach(line -> Assertions.assertTrue(line.length() <= 72));
+        }
+      });
+  }
+
+  @Test
+  public void testDecodeArbitraryLines()
+  {
+    QuickCheck.forAllVerbose(
+      new ByteArrayGenerator(),
+      new AbstractCharacteristic<byte[]>()
+      {
+        @Override
+        protected void doSpecify(final byte[] data)
+          throws Throwable
+        {
+          final String text =
+            String.join("", SMFBase64Lines.toBase64Lines(data));
+
+          final SMFBase64LineDecoder decoder = SMFBase64LineDecoder.create(1L);
+          int index = 0;
+          int step = 1;
+          while (index < text.length()) {
+            final int next = Math.min(text.length(), index + step);
+            decoder.addLine(text.substring(index, next));
+            index = next;
+            step = (step % 11) + 1;
+          }
+
+          Assertions.assertArrayEquals(data, decoder.finish());
+        }
+      });
+  }
+
+  @Test
+  public void testLineCount()
+  {
+    Assertions.assertEquals(0, SMFBase64Lines.lineCount(0));
+    Assertions.assertEquals(1, SMFBase64Lines.lineCount(1));
+    Assertions.assertEquals(1, SMFBase64Lines.lineCount(54));
+    Assertions.assertEquals(2, SMFBase64Lines.lineCount(55));
+    Assertions.assertEquals(2, SMFBase64Lines.lineCount(108));
+  }
+
+  @Test
+  public void testDecodeDataAfterPadding()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      SMFBase64Lines.fromBase64Lines(List.of("AA==", "AAAA"));
+    });
+  }
+
+  @Test
+  public void testDecodeTruncated()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      SMFBase64Lines.fromBase64Lines(List.of("AAAA", "A"));
+    });
+  }
+
+  @Test
+  public void testDecodeNonASCII()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      SMFBase64Lines.fromBase64Lines(List.of("AA\u00e9A"));
+    });
+  }
 }
@@ -0,0 +1,414 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.text;
+
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.format.text.SMFFormatTextConfiguration;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.tests.TestDirectories;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+public final class SMFFormatTextParallelTest
+{
+  private static final int VERTICES = 5000;
+  private static ForkJoinPool POOL;
+
+  @BeforeAll
+  public static void setupPool()
+  {
+    POOL = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  public static void shutdownPool()
+  {
+    POOL.shutdown();
+  }
+
+  private static SMFMemoryMeshProducerType parseSequential(
+    final Path file)
+    throws IOException
+  {
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var stream = Files.newInputStream(file)) {
+      try (var parser =
+             new SMFFormatText().parserCreateSequential(
+               meshes, file.toUri(), stream)) {
+        parser.parse();
+      }
+    }
+    return meshes;
+  }
+
+  private static SMFMemoryMeshProducerType parseParallel(
+    final Path file,
+    final int chunkSize)
+    throws IOException
+  {
+    return parseParallelWith(file, POOL, chunkSize, chunkSize);
+  }
+
+  private static SMFMemoryMeshProducerType parseParallelWith(
+    final Path file,
+    final ForkJoinPool pool,
+    final int chunkOctets,
+    final int chunkLines)
+    throws IOException
+  {
+    final var format =
+      new SMFFormatText(
+        SMFFormatTextConfiguration.builder()
+          .setParallelPool(pool)
+          .setParallelChunkSizeOctets(chunkOctets)
+          .setParallelChunkSizeLines(chunkLines)
+          .build());
+
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser =
+             format.parserCreateParallel(meshes, file.toUri(), channel)) {
+        parser.parse();
+      }
+    }
+    return meshes;
+  }
+
+  private static List<String> errorsOf(
+    final SMFMemoryMeshProducerType meshes)
+  {
+    return meshes.errors()
+      .stream()
+      .map(SMFErrorType::fullMessage)
+      .collect(Collectors.toList());
+  }
+
+  private static List<String> warningsOf(
+    final SMFMemoryMeshProducerType meshes)
+  {
+    return meshes.warnings()
+      .stream()
+      .map(SMFWarningType::fullMessage)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Summarize the result of a parse: the errors, the warnings, and the mesh
+   * if there were no errors. The mesh producer raises exceptions for some
+   * inconsistent meshes, in which case the exception message is the result.
+   */
+
+  private static Object summarize(
+    final ParseFunctionType parse)
+    throws IOException
+  {
+    try {
+      final var meshes = parse.parse();
+      return List.of(
+        errorsOf(meshes),
+        warningsOf(meshes),
+        meshes.errors().isEmpty() ? meshes.mesh() : "failed");
+    } catch (final IllegalStateException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static void checkSameAsSequential(
+    final Path file)
+    throws IOException
+  {
+    final var expected = summarize(() -> parseSequential(file));
+
+    for (final int chunkSize : new int[]{1, 7, 64, 1048576}) {
+      Assertions.assertEquals(
+        expected,
+        summarize(() -> parseParallel(file, chunkSize)));
+    }
+  }
+
+  /**
+   * Generate a mesh with one attribute of each kind, with blank lines,
+   * comments, and mixed line terminators scattered through the data.
+   */
+
+  static Path generate(
+    final String corruptLine)
+    throws IOException
+  {
+    final var text = new StringBuilder(VERTICES * 64);
+    text.append("smf 1 0\n");
+    text.append("vertices ").append(VERTICES).append('\n');
+    text.append("triangles ").append(VERTICES - 2).append(" 32\n");
+    text.append("attribute \"f\" float 3 64\n");
+    text.append("attribute \"s\" integer-signed 2 32\n");
+    text.append("attribute \"u\" integer-unsigned 4 16\n");
+    text.append("end\n");
+    text.append("vertices-noninterleaved\n");
+
+    text.append("attribute \"f\"\n");
+    for (int index = 0; index < VERTICES; ++index) {
+      final double x = (double) index * 0.1;
+      text.append(x).append(' ').append(-x).append(' ');
+      text.append(index % 7 == 0 ? "1.0e-3" : "+2.5");
+      text.append(index % 3 == 0 ? "\r\n" : "\n");
+      if (index % 997 == 0) {
+        text.append("# comment\n\n   \r");
+      }
+    }
+
+    text.append("attribute \"s\"\n");
+    for (int index = 0; index < VERTICES; ++index) {
+      if (index == VERTICES / 2 && corruptLine != null) {
+        text.append(corruptLine).append('\n');
+        continue;
+      }
+      text.append(-index).append("  ").append(index).append('\n');
+    }
+
+    text.append("attribute \"u\"\n");
+    for (int index = 0; index < VERTICES; ++index) {
+      text.append(index).append(' ').append(index + 1).append(' ');
+      text.append(index + 2).append(' ').append("\"3\"").append('\r');
+    }
+
+    text.append("end\n");
+    text.append("triangles\n");
+    for (int index = 0; index < VERTICES - 2; ++index) {
+      text.append(index).append(' ').append(index + 1).append(' ');
+      text.append(index + 2).append('\n');
+      if (index % 1013 == 0) {
+        text.append('\n');
+      }
+    }
+    text.append("end\n");
+
+    final var file =
+      TestDirectories.temporaryDirectory().resolve("generated.smft");
+    Files.writeString(file, text.toString(), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void testGenerated()
+    throws Exception
+  {
+    final var file = generate(null);
+    final var meshes = parseParallel(file, 4096);
+    Assertions.assertEquals(List.of(), errorsOf(meshes));
+    Assertions.assertEquals(
+      (long) VERTICES, meshes.mesh().header().vertexCount());
+    checkSameAsSequential(file);
+  }
+
+  /**
+   * Generate a mesh with a single attribute in which every line of data is
+   * exactly four octets long, and a single triangle.
+   */
+
+  private static Path generateFixedWidth(
+    final int vertices)
+    throws IOException
+  {
+    final var text = new StringBuilder(vertices * 4 + 256);
+    text.append("smf 1 0\n");
+    text.append("vertices ").append(vertices).append('\n');
+    text.append("triangles 1 32\n");
+    text.append("attribute \"x\" integer-signed 1 32\n");
+    text.append("end\n");
+    text.append("vertices-noninterleaved\n");
+    text.append("attribute \"x\"\n");
+    for (int index = 0; index < vertices; ++index) {
+      text.append(String.format("%03d\n", Integer.valueOf(index % 1000)));
+    }
+    text.append("end\n");
+    text.append("triangles\n");
+    text.append("0 1 2\n");
+    text.append("end\n");
+
+    final var file =
+      TestDirectories.temporaryDirectory().resolve("fixed.smft");
+    Files.writeString(file, text.toString(), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /**
+   * The line limit bounds the size of chunks independently of the octet
+   * limit.
+   */
+
+  @Test
+  public void testChunkLineLimit()
+    throws Exception
+  {
+    final var file = generateFixedWidth(1000);
+    final var pool = new CountingPool();
+    try {
+      final var meshes = parseParallelWith(file, pool, 1048576, 10);
+      Assertions.assertEquals(List.of(), errorsOf(meshes));
+      Assertions.assertEquals(
+        summarize(() -> parseSequential(file)),
+        summarize(() -> meshes));
+
+      /*
+       * 100 chunks of 10 lines for the attribute, and one for the triangle.
+       */
+
+      Assertions.assertEquals(101, pool.submitted.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * The octet limit bounds the size of chunks independently of the line
+   * limit.
+   */
+
+  @Test
+  public void testChunkOctetLimit()
+    throws Exception
+  {
+    final var file = generateFixedWidth(1000);
+    final var pool = new CountingPool();
+    try {
+      final var meshes = parseParallelWith(file, pool, 80, 1048576);
+      Assertions.assertEquals(List.of(), errorsOf(meshes));
+      Assertions.assertEquals(
+        summarize(() -> parseSequential(file)),
+        summarize(() -> meshes));
+
+      /*
+       * 50 chunks of 20 four-octet lines for the attribute, and one for the
+       * triangle.
+       */
+
+      Assertions.assertEquals(51, pool.submitted.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testChunkLimitsInvalid()
+  {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      SMFFormatTextConfiguration.builder()
+        .setParallelChunkSizeLines(0)
+        .build();
+    });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      SMFFormatTextConfiguration.builder()
+        .setParallelChunkSizeOctets(0)
+        .build();
+    });
+  }
+
+  @Test
+  public void testGeneratedCorruptValue()
+    throws Exception
+  {
+    final var file = generate("1 x");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @Test
+  public void testGeneratedCorruptCount()
+    throws Exception
+  {
+    final var file = generate("1 2 3");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @Test
+  public void testGeneratedEarlyEnd()
+    throws Exception
+  {
+    final var file = generate("end");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testResourceFiles()
+    throws Exception
+  {
+    final var root =
+      Paths.get(SMFFormatTextParallelTest.class.getResource(
+        "/com/io7m/smfj/tests").toURI());
+
+    final List<Path> files;
+    try (var stream = Files.walk(root)) {
+      files = stream
+        .filter(p -> p.toString().endsWith(".smft"))
+        .sorted()
+        .collect(Collectors.toList());
+    }
+
+    return files.stream()
+      .map(file -> DynamicTest.dynamicTest(
+        "testResourceFile_" + root.relativize(file),
+        () -> checkSameAsSequential(file)));
+  }
+
+  private interface ParseFunctionType
+  {
+    SMFMemoryMeshProducerType parse()
+      throws IOException;
+  }
+
+  private static final class CountingPool extends ForkJoinPool
+  {
+    private final AtomicInteger submitted;
+
+    CountingPool()
+    {
+      super(4);
+      this.submitted = new AtomicInteger();
+    }
+
+    @Override
+    public <T> ForkJoinTask<T> submit(
+      final Callable<T> task)
+    {
+      this.submitted.incrementAndGet();
+      return super.submit(task);
+    }
+  }
+}
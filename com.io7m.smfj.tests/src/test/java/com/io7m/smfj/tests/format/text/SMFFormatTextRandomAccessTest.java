@@ -0,0 +1,371 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.text;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFErrorType;
+import com.io7m.smfj.core.SMFWarningType;
+import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.format.text.SMFFormatTextConfiguration;
+import com.io7m.smfj.format.text.SMFTSectionIndexCache;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
+import com.io7m.smfj.tests.TestDirectories;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+public final class SMFFormatTextRandomAccessTest
+{
+  private static SMFFormatText format(
+    final SMFTSectionIndexCache cache)
+  {
+    return new SMFFormatText(
+      SMFFormatTextConfiguration.builder()
+        .setSectionIndexCache(cache)
+        .build());
+  }
+
+  private static SMFMemoryMeshProducerType parseSequential(
+    final Path file)
+    throws IOException
+  {
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var stream = Files.newInputStream(file)) {
+      try (var parser =
+             new SMFFormatText().parserCreateSequential(
+               meshes, file.toUri(), stream)) {
+        parser.parse();
+      }
+    }
+    return meshes;
+  }
+
+  private static SMFMemoryMeshProducerType parseRandomAccess(
+    final Path file,
+    final SMFTSectionIndexCache cache,
+    final Set<SMFAttributeName> attributes)
+    throws IOException
+  {
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser =
+             format(cache).parserCreateRandomAccessProjected(
+               meshes, file.toUri(), channel, attributes)) {
+        parser.parse();
+      }
+    }
+    return meshes;
+  }
+
+  private static SMFMemoryMeshProducerType parseRandomAccess(
+    final Path file,
+    final SMFTSectionIndexCache cache)
+    throws IOException
+  {
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      try (var parser =
+             format(cache).parserCreateRandomAccess(
+               meshes, file.toUri(), channel)) {
+        parser.parse();
+      }
+    }
+    return meshes;
+  }
+
+  private static Object summarize(
+    final ParseFunctionType parse)
+    throws IOException
+  {
+    try {
+      final var meshes = parse.parse();
+      return List.of(
+        meshes.errors()
+          .stream()
+          .map(SMFErrorType::fullMessage)
+          .collect(Collectors.toList()),
+        meshes.warnings()
+          .stream()
+          .map(SMFWarningType::fullMessage)
+          .collect(Collectors.toList()),
+        meshes.errors().isEmpty() ? meshes.mesh() : "failed");
+    } catch (final IllegalStateException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Check that a random-access parse gives the same result as a sequential
+   * parse, both when the index is built and when it is taken from the cache.
+   */
+
+  private static void checkSameAsSequential(
+    final Path file)
+    throws IOException
+  {
+    final var expected = summarize(() -> parseSequential(file));
+    final var cache = SMFTSectionIndexCache.create();
+
+    Assertions.assertEquals(
+      expected, summarize(() -> parseRandomAccess(file, cache)));
+    Assertions.assertEquals(
+      expected, summarize(() -> parseRandomAccess(file, cache)));
+  }
+
+  @Test
+  public void testGenerated()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate(null);
+    final var cache = SMFTSectionIndexCache.create();
+    final var meshes = parseRandomAccess(file, cache);
+    Assertions.assertEquals(List.of(), meshes.errors());
+    Assertions.assertEquals(1, cache.size());
+    Assertions.assertEquals(
+      5,
+      cache.find(
+        file.toUri(),
+        Files.size(file),
+        Optional.of(Files.getLastModifiedTime(file)))
+        .get()
+        .sections()
+        .size());
+    checkSameAsSequential(file);
+  }
+
+  @Test
+  public void testGeneratedProjected()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate(null);
+    final var name = SMFAttributeName.of("s");
+    final var expected = parseSequential(file).mesh();
+    final var cache = SMFTSectionIndexCache.create();
+
+    for (int index = 0; index < 2; ++index) {
+      final var meshes = parseRandomAccess(file, cache, Set.of(name));
+      Assertions.assertEquals(List.of(), meshes.errors());
+
+      final var mesh = meshes.mesh();
+      Assertions.assertEquals(Set.of(name), mesh.arrays().keySet());
+      Assertions.assertEquals(
+        expected.arrays().get(name), mesh.arrays().get(name));
+      Assertions.assertEquals(
+        expected.triangleIndices(), mesh.triangleIndices());
+    }
+  }
+
+  @Test
+  public void testGeneratedCacheStale()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate(null);
+    final var cache = SMFTSectionIndexCache.create();
+    parseRandomAccess(file, cache);
+
+    final var modified = SMFFormatTextParallelTest.generate("1 x");
+    Files.copy(modified, file, StandardCopyOption.REPLACE_EXISTING);
+    checkSameAsSequential(file);
+  }
+
+  private static String sameSizeMesh(
+    final String valuesA,
+    final String valuesB)
+  {
+    return String.join(
+      "\n",
+      "smf 1 0",
+      "vertices 2",
+      "triangles 1 32",
+      "attribute \"a\" integer-signed 1 32",
+      "attribute \"b\" integer-signed 1 32",
+      "end",
+      "vertices-noninterleaved",
+      "attribute \"a\"",
+      valuesA,
+      "attribute \"b\"",
+      valuesB,
+      "end",
+      "triangles",
+      "0 1 1",
+      "end",
+      "");
+  }
+
+  /**
+   * A cached index is not used for a file that has been edited without
+   * changing its size or its modification time, if the edit moves any
+   * section.
+   */
+
+  @Test
+  public void testCacheStaleSameSizeSameTime()
+    throws Exception
+  {
+    final var file =
+      TestDirectories.temporaryDirectory().resolve("same.smft");
+    final var original = sameSizeMesh("10\n20", "3\n4");
+    final var edited = sameSizeMesh("1\n2", "30\n40");
+    Assertions.assertEquals(original.length(), edited.length());
+
+    Files.writeString(file, original, StandardCharsets.UTF_8);
+    final var time = FileTime.fromMillis(1_000_000_000_000L);
+    Files.setLastModifiedTime(file, time);
+
+    final var cache = SMFTSectionIndexCache.create();
+    final var meshOriginal = parseRandomAccess(file, cache);
+    Assertions.assertEquals(List.of(), meshOriginal.errors());
+    Assertions.assertEquals(1, cache.size());
+
+    Files.writeString(file, edited, StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(file, time);
+    Assertions.assertTrue(
+      cache.find(file.toUri(), Files.size(file), Optional.of(time))
+        .isPresent());
+
+    final var meshEdited = parseRandomAccess(file, cache);
+    Assertions.assertEquals(List.of(), meshEdited.errors());
+    Assertions.assertEquals(
+      summarize(() -> parseSequential(file)),
+      summarize(() -> meshEdited));
+    Assertions.assertNotEquals(
+      meshOriginal.mesh().arrays(),
+      meshEdited.mesh().arrays());
+
+    final var attributeB =
+      cache.find(file.toUri(), Files.size(file), Optional.of(time))
+        .orElseThrow()
+        .sections()
+        .get(2);
+    Assertions.assertEquals(
+      Optional.of(SMFAttributeName.of("b")), attributeB.attribute());
+    Assertions.assertEquals(
+      (long) edited.lastIndexOf("attribute \"b\""), attributeB.offset());
+  }
+
+  /**
+   * A cached index is not found for a file with a different modification
+   * time, even if the size is the same.
+   */
+
+  @Test
+  public void testCacheStaleSameSizeDifferentTime()
+    throws Exception
+  {
+    final var file =
+      TestDirectories.temporaryDirectory().resolve("same.smft");
+    final var original = sameSizeMesh("10\n20", "3\n4");
+    final var edited = sameSizeMesh("1\n2", "30\n40");
+
+    Files.writeString(file, original, StandardCharsets.UTF_8);
+    final var timeThen = FileTime.fromMillis(1_000_000_000_000L);
+    Files.setLastModifiedTime(file, timeThen);
+
+    final var cache = SMFTSectionIndexCache.create();
+    parseRandomAccess(file, cache);
+
+    Files.writeString(file, edited, StandardCharsets.UTF_8);
+    final var timeNow = FileTime.fromMillis(1_000_000_001_000L);
+    Files.setLastModifiedTime(file, timeNow);
+
+    Assertions.assertTrue(
+      cache.find(file.toUri(), Files.size(file), Optional.of(timeThen))
+        .isPresent());
+    Assertions.assertFalse(
+      cache.find(file.toUri(), Files.size(file), Optional.of(timeNow))
+        .isPresent());
+
+    final var meshEdited = parseRandomAccess(file, cache);
+    Assertions.assertEquals(
+      summarize(() -> parseSequential(file)),
+      summarize(() -> meshEdited));
+    Assertions.assertTrue(
+      cache.find(file.toUri(), Files.size(file), Optional.of(timeNow))
+        .isPresent());
+  }
+
+  @Test
+  public void testGeneratedCorruptValue()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate("1 x");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @Test
+  public void testGeneratedCorruptCount()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate("1 2 3");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @Test
+  public void testGeneratedEarlyEnd()
+    throws Exception
+  {
+    final var file = SMFFormatTextParallelTest.generate("end");
+    Assertions.assertFalse(parseSequential(file).errors().isEmpty());
+    checkSameAsSequential(file);
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> testResourceFiles()
+    throws Exception
+  {
+    final var root =
+      Paths.get(SMFFormatTextRandomAccessTest.class.getResource(
+        "/com/io7m/smfj/tests").toURI());
+
+    final List<Path> files;
+    try (var stream = Files.walk(root)) {
+      files = stream
+        .filter(p -> p.toString().endsWith(".smft"))
+        .sorted()
+        .collect(Collectors.toList());
+    }
+
+    return files.stream()
+      .map(file -> DynamicTest.dynamicTest(
+        "testResourceFile_" + root.relativize(file),
+        () -> checkSameAsSequential(file)));
+  }
+
+  private interface ParseFunctionType
+  {
+    SMFMemoryMeshProducerType parse()
+      throws IOException;
+  }
+}
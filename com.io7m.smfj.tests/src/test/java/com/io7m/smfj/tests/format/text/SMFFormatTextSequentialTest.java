@@ -16,6 +16,7 @@
 
 package com.io7m.smfj.tests.format.text;
 
+import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.format.text.SMFFormatText;
 import com.io7m.smfj.parser.api.SMFParserEventsType;
 import com.io7m.smfj.parser.api.SMFParserSequentialType;
@@ -27,6 +28,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +68,33 @@ public final class SMFFormatTextSequentialTest
     }
   }
 
+  @Test
+  public void testProjection()
+    throws Exception
+  {
+    final var memoryMesh = SMFMemoryMeshProducer.create();
+    final var position = SMFAttributeName.of("position");
+    final var uv = SMFAttributeName.of("uv");
+
+    try (var parser = new SMFFormatText().parserCreateSequentialProjected(
+      memoryMesh,
+      URI.create("urn:file"),
+      resource("projection.smft"),
+      Set.of(position, uv))) {
+      parser.parse();
+    }
+
+    Assertions.assertEquals(0, memoryMesh.errors().size());
+
+    final var mesh = memoryMesh.mesh();
+    Assertions.assertEquals(Set.of(position, uv), mesh.arrays().keySet());
+    Assertions.assertEquals(
+      Set.of(position, uv),
+      mesh.header().attributesByName().keySet());
+    Assertions.assertEquals(3L, mesh.header().vertexCount());
+    Assertions.assertEquals(1L, mesh.triangleIndices().triangleCount());
+  }
+
   private static InputStream resource(
     final String name)
     throws IOException
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.text;
+
+import com.io7m.smfj.format.text.SMFTByteLineLexer;
+import com.io7m.smfj.format.text.SMFTLineReaderList;
+import com.io7m.smfj.format.text.SMFTLineReaderStreamIO;
+import com.io7m.smfj.format.text.SMFTLineReaderType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFTByteLineLexerTest
+{
+  private static final URI URN = URI.create("urn:test");
+
+  private static SMFTByteLineLexer lexerFor(
+    final String text)
+    throws IOException
+  {
+    final SMFTLineReaderType reader =
+      SMFTLineReaderStreamIO.create(
+        URN,
+        new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    final SMFTByteLineLexer lexer = new SMFTByteLineLexer();
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    return lexer;
+  }
+
+  private static void checkDouble(
+    final String text)
+    throws IOException
+  {
+    final SMFTByteLineLexer lexer = lexerFor(text);
+    final double value = lexer.nextDouble();
+    if (lexer.isCompleteSuccess()) {
+      Assertions.assertEquals(
+        Double.doubleToRawLongBits(Double.parseDouble(text)),
+        Double.doubleToRawLongBits(value),
+        text);
+    }
+  }
+
+  private static void checkDoubleFast(
+    final String text)
+    throws IOException
+  {
+    final SMFTByteLineLexer lexer = lexerFor(text);
+    final double value = lexer.nextDouble();
+    Assertions.assertTrue(lexer.isCompleteSuccess(), text);
+    Assertions.assertEquals(
+      Double.doubleToRawLongBits(Double.parseDouble(text)),
+      Double.doubleToRawLongBits(value),
+      text);
+  }
+
+  private static void checkDoubleFallback(
+    final String text)
+    throws IOException
+  {
+    final SMFTByteLineLexer lexer = lexerFor(text);
+    lexer.nextDouble();
+    Assertions.assertFalse(lexer.isCompleteSuccess(), text);
+  }
+
+  @Test
+  public void testDoublesSimple()
+    throws Exception
+  {
+    checkDoubleFast("0");
+    checkDoubleFast("0.0");
+    checkDoubleFast("-0.0");
+    checkDoubleFast("1");
+    checkDoubleFast("-1");
+    checkDoubleFast("+1");
+    checkDoubleFast("1.");
+    checkDoubleFast(".5");
+    checkDoubleFast("0.1");
+    checkDoubleFast("-0.333333333333333333");
+    checkDoubleFast("3.141592653589793");
+    checkDoubleFast("1.0e10");
+    checkDoubleFast("1.0E-10");
+    checkDoubleFast("1.0e+10");
+    checkDoubleFast("1.7976931348623157e308");
+    checkDoubleFast("2.2250738585072014E-308");
+    checkDoubleFast("1234567890123456789");
+    checkDoubleFast("3.0e25");
+    checkDoubleFast("6.02214076e-23");
+    checkDoubleFast("123456789012345678e-300");
+  }
+
+  @Test
+  public void testDoublesFallback()
+    throws Exception
+  {
+    checkDoubleFallback(".");
+    checkDoubleFallback("-");
+    checkDoubleFallback("1e");
+    checkDoubleFallback("1e-");
+    checkDoubleFallback("1.0f");
+    checkDoubleFallback("1.0d");
+    checkDoubleFallback("NaN");
+    checkDoubleFallback("Infinity");
+    checkDoubleFallback("0x1p3");
+    checkDoubleFallback("1.0x");
+    checkDoubleFallback("12345678901234567890");
+    checkDoubleFallback("1e123456");
+    checkDoubleFallback("4.9e-324");
+    checkDoubleFallback("1e309");
+  }
+
+  @Test
+  public void testDoublesRandom()
+    throws Exception
+  {
+    final Random random = new Random(0x5eedL);
+    for (int index = 0; index < 100_000; ++index) {
+      final double value =
+        Double.longBitsToDouble(random.nextLong());
+      if (Double.isFinite(value)) {
+        checkDouble(Double.toString(value));
+      }
+      checkDouble(Float.toString(random.nextFloat() * 1000.0f - 500.0f));
+      checkDouble(Double.toString(random.nextDouble()));
+    }
+  }
+
+  @Test
+  public void testDoublesRandomDigits()
+    throws Exception
+  {
+    final Random random = new Random(0xd161L);
+    final StringBuilder text = new StringBuilder(64);
+    for (int index = 0; index < 100_000; ++index) {
+      text.setLength(0);
+      final int digits = 1 + random.nextInt(19);
+      for (int d = 0; d < digits; ++d) {
+        text.append((char) ('0' + random.nextInt(10)));
+      }
+      text.append('e');
+      text.append(random.nextInt(640) - 320);
+      checkDouble(text.toString());
+    }
+  }
+
+  @Test
+  public void testIntegers()
+    throws Exception
+  {
+    final SMFTByteLineLexer lexer =
+      lexerFor("  0 23 -1 -9223372036854775 999999999999999999  ");
+
+    Assertions.assertEquals(0L, lexer.nextUnsigned());
+    Assertions.assertEquals(23L, lexer.nextSigned());
+    Assertions.assertEquals(-1L, lexer.nextSigned());
+    Assertions.assertEquals(-9223372036854775L, lexer.nextSigned());
+    Assertions.assertEquals(999999999999999999L, lexer.nextUnsigned());
+    Assertions.assertTrue(lexer.isCompleteSuccess());
+  }
+
+  @Test
+  public void testIntegersFallback()
+    throws Exception
+  {
+    final SMFTByteLineLexer lexer = lexerFor("1 -2 3");
+    Assertions.assertEquals(1L, lexer.nextUnsigned());
+    lexer.nextUnsigned();
+    Assertions.assertFalse(lexer.isCompleteSuccess());
+
+    lexer.rewind();
+    Assertions.assertEquals(1L, lexer.nextUnsigned());
+    Assertions.assertEquals(-2L, lexer.nextSigned());
+    Assertions.assertEquals(3L, lexer.nextUnsigned());
+    Assertions.assertTrue(lexer.isCompleteSuccess());
+
+    final SMFTByteLineLexer tooLong = lexerFor("9223372036854775807");
+    tooLong.nextUnsigned();
+    Assertions.assertFalse(tooLong.isCompleteSuccess());
+
+    final SMFTByteLineLexer trailing = lexerFor("1 2 3");
+    trailing.nextUnsigned();
+    trailing.nextUnsigned();
+    Assertions.assertFalse(trailing.isCompleteSuccess());
+  }
+
+  @Test
+  public void testEmptyAndComments()
+    throws Exception
+  {
+    final SMFTLineReaderType reader =
+      SMFTLineReaderStreamIO.create(
+        URN,
+        new ByteArrayInputStream(
+          "\n  \r\n# comment\r1 2 3\n\"a b\" c"
+            .getBytes(StandardCharsets.UTF_8)));
+
+    final SMFTByteLineLexer lexer = new SMFTByteLineLexer();
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertTrue(lexer.isEmpty());
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertTrue(lexer.isEmpty());
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertTrue(lexer.isEmpty());
+    Assertions.assertEquals(List.of(), lexer.lex());
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertFalse(lexer.isEmpty());
+    Assertions.assertEquals(List.of("1", "2", "3"), lexer.lex());
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertEquals(List.of("a b", "c"), lexer.lex());
+    Assertions.assertFalse(reader.lineBytes(lexer));
+  }
+
+  @Test
+  public void testListReaderTokens()
+    throws Exception
+  {
+    final SMFTLineReaderType reader =
+      SMFTLineReaderList.create(
+        URN, List.of("\"a \\\"b\" c", "1.5 -2 3"), 1);
+
+    final SMFTByteLineLexer lexer = new SMFTByteLineLexer();
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertEquals(List.of("a \"b", "c"), lexer.lex());
+    Assertions.assertTrue(reader.lineBytes(lexer));
+    Assertions.assertEquals(1.5, lexer.nextDouble());
+    Assertions.assertEquals(-2L, lexer.nextSigned());
+    Assertions.assertEquals(3L, lexer.nextUnsigned());
+    Assertions.assertTrue(lexer.isCompleteSuccess());
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.format.text;
+
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
+import com.io7m.smfj.core.SMFTriangles;
+import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.format.text.SMFFormatTextConfiguration;
+import com.io7m.smfj.format.text.SMFTNumberFormatter;
+import com.io7m.smfj.processing.api.SMFAttributeArrayFloating1Type;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static com.io7m.smfj.core.SMFComponentType.ELEMENT_TYPE_FLOATING;
+
+public final class SMFTNumberFormatterTest
+{
+  private static final int COUNT = 100_000;
+
+  private static String formatDouble(
+    final double x)
+  {
+    final var formatter = new SMFTNumberFormatter();
+    formatter.appendDouble(x);
+    return formatter.text();
+  }
+
+  private static String formatFloat(
+    final float x)
+  {
+    final var formatter = new SMFTNumberFormatter();
+    formatter.appendFloat(x);
+    return formatter.text();
+  }
+
+  /**
+   * Generate values, alternating between arbitrary bit patterns and values
+   * of magnitudes typical of meshes.
+   */
+
+  private static double[] values(
+    final long seed)
+  {
+    final var random = new SplittableRandom(seed);
+    final double[] data = new double[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      if (index % 2 == 0) {
+        data[index] = Double.longBitsToDouble(random.nextLong());
+      } else {
+        data[index] =
+          (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(-8, 8));
+      }
+    }
+    return data;
+  }
+
+  private static byte[] serialize(
+    final SMFFormatText format,
+    final SMFAttribute attribute,
+    final double[] data)
+    throws IOException
+  {
+    final var header =
+      SMFHeader.builder()
+        .setVertexCount(data.length)
+        .setTriangles(SMFTriangles.of(0L, 32))
+        .setAttributesInOrder(List.of(attribute))
+        .build();
+
+    final var output = new ByteArrayOutputStream();
+    try (var serializer = format.serializerCreate(
+      SMFFormatVersion.of(1, 0), URI.create("urn:out"), output)) {
+      serializer.serializeHeader(header);
+      try (var vertices = serializer.serializeVertexDataNonInterleavedStart()) {
+        try (var values = vertices.serializeData(attribute.name())) {
+          for (final double x : data) {
+            values.serializeValueFloat1(x);
+          }
+        }
+      }
+    }
+    return output.toByteArray();
+  }
+
+  private static SMFAttributeArrayFloating1Type parse(
+    final SMFAttribute attribute,
+    final byte[] text)
+    throws IOException
+  {
+    final var meshes = SMFMemoryMeshProducer.create();
+    try (var parser = new SMFFormatText().parserCreateSequential(
+      meshes, URI.create("urn:in"), new ByteArrayInputStream(text))) {
+      parser.parse();
+    }
+    Assertions.assertEquals(List.of(), meshes.errors());
+    return (SMFAttributeArrayFloating1Type)
+      meshes.mesh().arrays().get(attribute.name());
+  }
+
+  @Test
+  public void testLayout()
+  {
+    Assertions.assertEquals("0.0", formatDouble(0.0));
+    Assertions.assertEquals("-0.0", formatDouble(-0.0));
+    Assertions.assertEquals("1.0", formatDouble(1.0));
+    Assertions.assertEquals("0.1", formatDouble(0.1));
+    Assertions.assertEquals("-123.25", formatDouble(-123.25));
+    Assertions.assertEquals("0.001", formatDouble(0.001));
+    Assertions.assertEquals("1.0E-4", formatDouble(0.0001));
+    Assertions.assertEquals("1000000.0", formatDouble(1.0e6));
+    Assertions.assertEquals("1.0E7", formatDouble(1.0e7));
+    Assertions.assertEquals("4.9E-324", formatDouble(Double.MIN_VALUE));
+    Assertions.assertEquals(
+      "1.7976931348623157E308", formatDouble(Double.MAX_VALUE));
+    Assertions.assertEquals("NaN", formatDouble(Double.NaN));
+    Assertions.assertEquals(
+      "-Infinity", formatDouble(Double.NEGATIVE_INFINITY));
+    Assertions.assertEquals("0.1", formatFloat(0.1f));
+    Assertions.assertEquals("-0.0", formatFloat(-0.0f));
+  }
+
+  @Test
+  public void testIntegers()
+  {
+    final var formatter = new SMFTNumberFormatter();
+    formatter.appendSigned(Long.MIN_VALUE);
+    formatter.append(' ');
+    formatter.appendSigned(-1L);
+    formatter.append(' ');
+    formatter.appendSigned(0L);
+    formatter.append(' ');
+    formatter.appendUnsigned(-1L);
+    formatter.append(' ');
+    formatter.appendUnsigned(Long.MAX_VALUE);
+    Assertions.assertEquals(
+      "-9223372036854775808 -1 0 18446744073709551615 9223372036854775807",
+      formatter.text());
+
+    formatter.reset();
+    Assertions.assertEquals(0, formatter.length());
+  }
+
+  @Test
+  public void testDoubleRoundTrip()
+  {
+    for (final double x : values(0x534d46L)) {
+      final String text = formatDouble(x);
+      Assertions.assertEquals(
+        Double.doubleToLongBits(x),
+        Double.doubleToLongBits(Double.parseDouble(text)),
+        text);
+      Assertions.assertTrue(
+        text.length() <= Double.toString(x).length(),
+        text);
+    }
+  }
+
+  @Test
+  public void testFloatRoundTrip()
+  {
+    for (final double y : values(0x534d47L)) {
+      final float x = (float) y;
+      if (Float.isNaN(x)) {
+        continue;
+      }
+      final String text = formatFloat(x);
+      Assertions.assertEquals(
+        Float.floatToIntBits(x),
+        Float.floatToIntBits((float) Double.parseDouble(text)),
+        text);
+    }
+  }
+
+  /**
+   * Values written by the serializer are parsed back exactly.
+   */
+
+  @Test
+  public void testSerializerRoundTrip()
+    throws Exception
+  {
+    final var attribute =
+      SMFAttribute.of(SMFAttributeName.of("x"), ELEMENT_TYPE_FLOATING, 1, 64);
+    final double[] data = values(0x534d48L);
+    for (int index = 0; index < data.length; ++index) {
+      if (!Double.isFinite(data[index])) {
+        data[index] = 0.0;
+      }
+    }
+
+    final var array =
+      parse(attribute, serialize(new SMFFormatText(), attribute, data));
+    Assertions.assertArrayEquals(data, array.data().toArray());
+  }
+
+  /**
+   * Values of 32-bit attributes written by a serializer that narrows floats
+   * are parsed back exactly, once narrowed to the declared size.
+   */
+
+  @Test
+  public void testSerializerRoundTripNarrowed()
+    throws Exception
+  {
+    final var attribute =
+      SMFAttribute.of(SMFAttributeName.of("x"), ELEMENT_TYPE_FLOATING, 1, 32);
+    final double[] data = values(0x534d49L);
+    for (int index = 0; index < data.length; ++index) {
+      final float x = (float) data[index];
+      data[index] = Float.isFinite(x) ? (double) x : 0.0;
+    }
+
+    final var format =
+      new SMFFormatText(
+        SMFFormatTextConfiguration.builder()
+          .setSerializerNarrowFloats(true)
+          .build());
+
+    final byte[] narrowed = serialize(format, attribute, data);
+    final byte[] full = serialize(new SMFFormatText(), attribute, data);
+    Assertions.assertTrue(narrowed.length < full.length);
+
+    final var array = parse(attribute, narrowed);
+    for (int index = 0; index < data.length; ++index) {
+      Assertions.assertEquals(
+        (float) data[index],
+        (float) array.get(index));
+    }
+  }
+}
@@ -74,6 +74,8 @@ public final class SMFTV1BodyCommandTrianglesTest
 
     Mockito.when(this.reader.line())
       .thenReturn(Optional.of(List.of("end")));
+    Mockito.when(this.reader.lineBytes(Mockito.any()))
+      .thenCallRealMethod();
 
     final SMFTParsingStatus r = cmd.parse(this.events, List.of("triangles"));
     Assertions.assertEquals(SUCCESS, r);
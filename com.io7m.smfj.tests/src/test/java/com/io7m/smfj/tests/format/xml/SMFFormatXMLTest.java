@@ -18,14 +18,25 @@
 
 package com.io7m.smfj.tests.format.xml;
 
+import com.io7m.smfj.core.SMFAttribute;
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFComponentType;
+import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.core.SMFHeader;
 import com.io7m.smfj.format.xml.SMFFormatXML;
+import com.io7m.smfj.format.xml.SMFFormatXMLDataEncoding;
+import com.io7m.smfj.format.xml.SMFFormatXMLParserKind;
+import com.io7m.smfj.parser.api.SMFParseErrorType;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
 import com.io7m.smfj.tests.processing.SMFMemoryMeshTesting;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -58,10 +69,12 @@ public final class SMFFormatXMLTest
       .forEach(e -> LOG.warn("{}: ", e, e.exception().orElse(null)));
   }
 
-  private static void checkFailure(final String file)
+  private static SMFMemoryMeshProducerType parse(
+    final SMFFormatXMLParserKind kind,
+    final String file)
     throws IOException
   {
-    final var format = new SMFFormatXML();
+    final var format = new SMFFormatXML(kind);
     final var meshes = SMFMemoryMeshProducer.create();
 
     try (var stream = resource(file)) {
@@ -70,27 +83,188 @@ public final class SMFFormatXMLTest
       }
     }
     logEverything(meshes);
+    return meshes;
+  }
+
+  private static void checkFailure(final String file)
+    throws IOException
+  {
+    for (final var kind : SMFFormatXMLParserKind.values()) {
+      checkFailure(kind, file);
+    }
+  }
 
+  private static void checkFailure(
+    final SMFFormatXMLParserKind kind,
+    final String file)
+    throws IOException
+  {
+    final var meshes = parse(kind, file);
     Assertions.assertFalse(
       meshes.errors().isEmpty(),
       "At least one error must have been logged");
   }
 
+  /**
+   * The streaming parser does not validate documents against the schema,
+   * but it must reject the same documents as the validating parser, and
+   * report its first error at the same position.
+   */
+
+  private static void checkEquivalentFailure(
+    final String file)
+    throws IOException
+  {
+    final var sax =
+      parse(SMFFormatXMLParserKind.PARSER_SAX_VALIDATING, file);
+    final var stax =
+      parse(SMFFormatXMLParserKind.PARSER_STREAMING, file);
+
+    Assertions.assertFalse(sax.errors().isEmpty());
+    Assertions.assertFalse(stax.errors().isEmpty());
+
+    final var saxPosition =
+      ((SMFParseErrorType) sax.errors().get(0)).lexical();
+    final var staxPosition =
+      ((SMFParseErrorType) stax.errors().get(0)).lexical();
+    Assertions.assertEquals(saxPosition.line(), staxPosition.line());
+    Assertions.assertEquals(saxPosition.column(), staxPosition.column());
+  }
+
   @Test
   public void testAll()
     throws Exception
   {
-    final var format = new SMFFormatXML();
+    for (final var kind : SMFFormatXMLParserKind.values()) {
+      final var meshes = parse(kind, "all.smfx");
+      Assertions.assertEquals(List.of(), meshes.errors());
+      SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+    }
+  }
 
-    final var meshes = SMFMemoryMeshProducer.create();
-    try (var stream = resource("all.smfx")) {
-      try (var parser = format.parserCreateSequential(meshes, TEST, stream)) {
-        parser.parse();
-      }
+  @Test
+  public void testStreamingIdentical()
+    throws Exception
+  {
+    final var sax =
+      parse(SMFFormatXMLParserKind.PARSER_SAX_VALIDATING, "all.smfx");
+    final var stax =
+      parse(SMFFormatXMLParserKind.PARSER_STREAMING, "all.smfx");
+
+    Assertions.assertEquals(sax.mesh(), stax.mesh());
+  }
+
+  @Test
+  public void testAllText()
+    throws Exception
+  {
+    for (final var kind : SMFFormatXMLParserKind.values()) {
+      final var meshes = parse(kind, "all-text.smfx");
+      Assertions.assertEquals(List.of(), meshes.errors());
+      SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
     }
-    logEverything(meshes);
+  }
+
+  @Test
+  public void testAllBase64()
+    throws Exception
+  {
+    for (final var kind : SMFFormatXMLParserKind.values()) {
+      final var meshes = parse(kind, "all-base64.smfx");
+      Assertions.assertEquals(List.of(), meshes.errors());
+      SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+    }
+  }
+
+  @Test
+  public void testStreamingIdenticalPacked()
+    throws Exception
+  {
+    for (final var file : List.of("all-text.smfx", "all-base64.smfx")) {
+      final var sax =
+        parse(SMFFormatXMLParserKind.PARSER_SAX_VALIDATING, file);
+      final var stax =
+        parse(SMFFormatXMLParserKind.PARSER_STREAMING, file);
+
+      Assertions.assertEquals(sax.mesh(), stax.mesh());
+    }
+  }
+
+  @Test
+  public void testStreamingOutOfOrder()
+    throws Exception
+  {
+    checkFailure(SMFFormatXMLParserKind.PARSER_STREAMING, "invalid7.smfx");
+  }
+
+  @Test
+  public void testStreamingUndeclaredAttribute()
+    throws Exception
+  {
+    checkFailure(SMFFormatXMLParserKind.PARSER_STREAMING, "invalid8.smfx");
+  }
+
+  @Test
+  public void testStreamingMissingComponent()
+    throws Exception
+  {
+    checkFailure(SMFFormatXMLParserKind.PARSER_STREAMING, "invalid9.smfx");
+  }
+
+  @Test
+  public void testStreamingIdenticalWhitespace()
+    throws Exception
+  {
+    final var sax =
+      parse(SMFFormatXMLParserKind.PARSER_SAX_VALIDATING, "whitespace.smfx");
+    final var stax =
+      parse(SMFFormatXMLParserKind.PARSER_STREAMING, "whitespace.smfx");
 
-    SMFMemoryMeshTesting.checkStandardMesh(meshes.mesh());
+    Assertions.assertEquals(List.of(), sax.errors());
+    Assertions.assertEquals(List.of(), stax.errors());
+    Assertions.assertEquals(sax.mesh(), stax.mesh());
+  }
+
+  @Test
+  public void testEquivalentUnexpectedAttribute()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid13.smfx");
+  }
+
+  @Test
+  public void testEquivalentUnexpectedComponent()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid14.smfx");
+  }
+
+  @Test
+  public void testEquivalentQualifiedAttribute()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid15.smfx");
+  }
+
+  @Test
+  public void testEquivalentDuplicateAttributeData()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid16.smfx");
+  }
+
+  @Test
+  public void testEquivalentDoubleSyntax()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid17.smfx");
+  }
+
+  @Test
+  public void testEquivalentAttributeName()
+    throws Exception
+  {
+    checkEquivalentFailure("invalid18.smfx");
   }
 
   @Test
@@ -141,4 +315,109 @@ public final class SMFFormatXMLTest
   {
     checkFailure("invalid6.smfx");
   }
+
+  @Test
+  public void testInvalid10()
+    throws Exception
+  {
+    checkFailure("invalid10.smfx");
+  }
+
+  @Test
+  public void testInvalid11()
+    throws Exception
+  {
+    checkFailure("invalid11.smfx");
+  }
+
+  @Test
+  public void testInvalid12()
+    throws Exception
+  {
+    checkFailure("invalid12.smfx");
+  }
+
+  /**
+   * A provider that uses the default data encoding serializes version 2.0,
+   * so that callers that serialize the latest supported version produce
+   * documents that existing readers understand.
+   */
+
+  @Test
+  public void testSerializerDefaultVersion()
+    throws Exception
+  {
+    final var v2p0 = SMFFormatVersion.of(2, 0);
+    final var v2p1 = SMFFormatVersion.of(2, 1);
+
+    final var format = new SMFFormatXML();
+    Assertions.assertEquals(v2p0, format.serializerSupportedVersions().last());
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> {
+      format.serializerCreate(v2p1, TEST, new ByteArrayOutputStream());
+    });
+
+    final var output = new ByteArrayOutputStream();
+    try (var serializer = format.serializerCreate(v2p0, TEST, output)) {
+      serializer.serializeHeader(SMFHeader.builder().build());
+    }
+    final var text = output.toString(StandardCharsets.UTF_8);
+    Assertions.assertTrue(text.contains("urn:com.io7m.smf:xml:2:0"), text);
+
+    for (final var encoding : List.of(
+      SMFFormatXMLDataEncoding.DATA_TEXT,
+      SMFFormatXMLDataEncoding.DATA_BASE64)) {
+      final var packed =
+        new SMFFormatXML(SMFFormatXMLParserKind.PARSER_STREAMING, encoding);
+      Assertions.assertEquals(
+        v2p1, packed.serializerSupportedVersions().last());
+    }
+  }
+
+  /**
+   * Packed data cannot be checked by the parser for values of the wrong
+   * type, so the serializer must reject them.
+   */
+
+  @Test
+  public void testSerializerPackedWrongType()
+    throws Exception
+  {
+    final var name = SMFAttributeName.of("x");
+    final var header =
+      SMFHeader.builder()
+        .setVertexCount(1L)
+        .setAttributesInOrder(List.of(SMFAttribute.of(
+          name, SMFComponentType.ELEMENT_TYPE_FLOATING, 3, 32)))
+        .build();
+
+    for (final var encoding : List.of(
+      SMFFormatXMLDataEncoding.DATA_TEXT,
+      SMFFormatXMLDataEncoding.DATA_BASE64)) {
+      final var format =
+        new SMFFormatXML(SMFFormatXMLParserKind.PARSER_STREAMING, encoding);
+      final var version = SMFFormatVersion.of(2, 1);
+
+      try (var serializer =
+             format.serializerCreate(
+               version, TEST, new ByteArrayOutputStream())) {
+        serializer.serializeHeader(header);
+        final var vertices = serializer.serializeVertexDataNonInterleavedStart();
+        final var values = vertices.serializeData(name);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+          values.serializeValueFloat4(0.0, 1.0, 2.0, 3.0);
+        });
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+          values.serializeValueFloat2(0.0, 1.0);
+        });
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+          values.serializeValueIntegerSigned3(0L, 1L, 2L);
+        });
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+          values.serializeValueIntegerUnsigned3(0L, 1L, 2L);
+        });
+        values.serializeValueFloat3(0.0, 1.0, 2.0);
+      }
+    }
+  }
 }
@@ -23,6 +23,8 @@ import com.io7m.smfj.core.SMFAttribute;
 import com.io7m.smfj.format.binary2.SMFFormatBinary2;
 import com.io7m.smfj.format.text.SMFFormatText;
 import com.io7m.smfj.format.xml.SMFFormatXML;
+import com.io7m.smfj.format.xml.SMFFormatXMLDataEncoding;
+import com.io7m.smfj.format.xml.SMFFormatXMLParserKind;
 import com.io7m.smfj.parser.api.SMFParserProviderType;
 import com.io7m.smfj.processing.api.SMFAttributeArrayFloating1Type;
 import com.io7m.smfj.processing.api.SMFAttributeArrayFloating2Type;
@@ -111,7 +113,7 @@ public final class SMFLargeRoundTripTest
 
       try (var output = Files.newOutputStream(file)) {
         try (var writer = format.serializerCreate(
-          format.parserSupportedVersions().last(),
+          format.serializerSupportedVersions().last(),
           file.toUri(),
           output)) {
           SMFMemoryMeshSerializer.serialize(meshCurrent, writer);
@@ -584,4 +586,63 @@ public final class SMFLargeRoundTripTest
         new SMFFormatXML()
       ));
   }
+
+  @Test
+  public void testRoundTrip_BE_32_TXsBXs()
+    throws Exception
+  {
+    runTrips(
+      "all.smft",
+      ByteOrder.BIG_ENDIAN,
+      32,
+      new SMFFormatText(),
+      List.of(
+        new SMFFormatText(),
+        new SMFFormatXML(SMFFormatXMLParserKind.PARSER_STREAMING),
+        new SMFFormatBinary2(),
+        new SMFFormatXML(SMFFormatXMLParserKind.PARSER_STREAMING)
+      ));
+  }
+
+  @Test
+  public void testRoundTrip_LE_16_TXbBXb()
+    throws Exception
+  {
+    runTrips(
+      "all.smft",
+      ByteOrder.LITTLE_ENDIAN,
+      16,
+      new SMFFormatText(),
+      List.of(
+        new SMFFormatText(),
+        new SMFFormatXML(
+          SMFFormatXMLParserKind.PARSER_SAX_VALIDATING,
+          SMFFormatXMLDataEncoding.DATA_BASE64),
+        new SMFFormatBinary2(),
+        new SMFFormatXML(
+          SMFFormatXMLParserKind.PARSER_STREAMING,
+          SMFFormatXMLDataEncoding.DATA_BASE64)
+      ));
+  }
+
+  @Test
+  public void testRoundTrip_BE_64_TXeBXe()
+    throws Exception
+  {
+    runTrips(
+      "all.smft",
+      ByteOrder.BIG_ENDIAN,
+      64,
+      new SMFFormatText(),
+      List.of(
+        new SMFFormatText(),
+        new SMFFormatXML(
+          SMFFormatXMLParserKind.PARSER_SAX_VALIDATING,
+          SMFFormatXMLDataEncoding.DATA_ELEMENTS),
+        new SMFFormatBinary2(),
+        new SMFFormatXML(
+          SMFFormatXMLParserKind.PARSER_STREAMING,
+          SMFFormatXMLDataEncoding.DATA_ELEMENTS)
+      ));
+  }
 }
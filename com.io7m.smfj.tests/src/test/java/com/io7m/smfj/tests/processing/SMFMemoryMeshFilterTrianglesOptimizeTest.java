@@ -76,6 +76,8 @@ public final class SMFMemoryMeshFilterTrianglesOptimizeTest extends
       Assertions.assertTrue(Long.compareUnsigned(triangle.y(), max) <= 0);
       Assertions.assertTrue(Long.compareUnsigned(triangle.z(), max) <= 0);
     }
+
+    Assertions.assertEquals(bits, mesh.triangleIndices().indexSizeBits());
   }
 
   @Test
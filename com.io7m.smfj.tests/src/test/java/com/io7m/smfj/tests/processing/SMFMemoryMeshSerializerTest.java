@@ -16,6 +16,7 @@
 
 package com.io7m.smfj.tests.processing;
 
+import com.io7m.ieee754b16.Binary16;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2L;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
@@ -25,7 +26,9 @@ import com.io7m.jtensors.core.unparameterized.vectors.Vector4L;
 import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.core.SMFFormatVersion;
 import com.io7m.smfj.core.SMFVoid;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
 import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.parser.api.SMFParserProviderType;
 import com.io7m.smfj.parser.api.SMFParserSequentialType;
 import com.io7m.smfj.processing.api.SMFAttributeArrayFloating1Type;
 import com.io7m.smfj.processing.api.SMFAttributeArrayFloating2Type;
@@ -44,6 +47,7 @@ import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
 import com.io7m.smfj.processing.api.SMFMemoryMeshSerializer;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
 import com.io7m.smfj.serializer.api.SMFSerializerType;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -51,6 +55,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -71,13 +76,17 @@ public final class SMFMemoryMeshSerializerTest
 
   private static SMFVoid checkFloat4(
     final SMFAttributeArrayFloating4Type a0,
-    final SMFAttributeArrayFloating4Type a1)
+    final SMFAttributeArrayFloating4Type a1,
+    final DoubleUnaryOperator precision)
   {
     final List<Vector4D> v0 = a0.values();
     final List<Vector4D> v1 = a1.values();
 
     for (int index = 0; index < v0.size(); ++index) {
-      Assertions.assertEquals(v0.get(index), v1.get(index));
+      final Vector4D e = v0.get(index);
+      Assertions.assertEquals(
+        Vector4D.of(precision.applyAsDouble(e.x()), precision.applyAsDouble(e.y()), precision.applyAsDouble(e.z()), precision.applyAsDouble(e.w())),
+        v1.get(index));
     }
 
     return void_();
@@ -85,13 +94,17 @@ public final class SMFMemoryMeshSerializerTest
 
   private static SMFVoid checkFloat3(
     final SMFAttributeArrayFloating3Type a0,
-    final SMFAttributeArrayFloating3Type a1)
+    final SMFAttributeArrayFloating3Type a1,
+    final DoubleUnaryOperator precision)
   {
     final List<Vector3D> v0 = a0.values();
     final List<Vector3D> v1 = a1.values();
 
     for (int index = 0; index < v0.size(); ++index) {
-      Assertions.assertEquals(v0.get(index), v1.get(index));
+      final Vector3D e = v0.get(index);
+      Assertions.assertEquals(
+        Vector3D.of(precision.applyAsDouble(e.x()), precision.applyAsDouble(e.y()), precision.applyAsDouble(e.z())),
+        v1.get(index));
     }
 
     return void_();
@@ -99,13 +112,17 @@ public final class SMFMemoryMeshSerializerTest
 
   private static SMFVoid checkFloat2(
     final SMFAttributeArrayFloating2Type a0,
-    final SMFAttributeArrayFloating2Type a1)
+    final SMFAttributeArrayFloating2Type a1,
+    final DoubleUnaryOperator precision)
   {
     final List<Vector2D> v0 = a0.values();
     final List<Vector2D> v1 = a1.values();
 
     for (int index = 0; index < v0.size(); ++index) {
-      Assertions.assertEquals(v0.get(index), v1.get(index));
+      final Vector2D e = v0.get(index);
+      Assertions.assertEquals(
+        Vector2D.of(precision.applyAsDouble(e.x()), precision.applyAsDouble(e.y())),
+        v1.get(index));
     }
 
     return void_();
@@ -113,13 +130,16 @@ public final class SMFMemoryMeshSerializerTest
 
   private static SMFVoid checkFloat1(
     final SMFAttributeArrayFloating1Type a0,
-    final SMFAttributeArrayFloating1Type a1)
+    final SMFAttributeArrayFloating1Type a1,
+    final DoubleUnaryOperator precision)
   {
     final List<Double> v0 = a0.values();
     final List<Double> v1 = a1.values();
 
     for (int index = 0; index < v0.size(); ++index) {
-      Assertions.assertEquals(v0.get(index), v1.get(index));
+      Assertions.assertEquals(
+        Double.valueOf(precision.applyAsDouble(v0.get(index).doubleValue())),
+        v1.get(index));
     }
 
     return void_();
@@ -240,6 +260,46 @@ public final class SMFMemoryMeshSerializerTest
   @Test
   public void testAll()
     throws Exception
+  {
+    checkRoundTrip(
+      new SMFFormatText(), SMFFormatVersion.of(1, 0), ".smft", false);
+  }
+
+  /**
+   * The binary serializer encodes blocks of values directly, so a round
+   * trip through it exercises the block serialization of every attribute
+   * type. Floating point values are expected to come back exactly as they
+   * would after being encoded at the size of their components.
+   */
+
+  @Test
+  public void testAllBinary2()
+    throws Exception
+  {
+    checkRoundTrip(
+      new SMFFormatBinary2(), SMFFormatVersion.of(2, 0), ".smfb", true);
+  }
+
+  private static DoubleUnaryOperator precisionOf(
+    final int bits)
+  {
+    switch (bits) {
+      case 16:
+        return x -> Binary16.unpackDouble(Binary16.packDouble(x));
+      case 32:
+        return x -> (double) (float) x;
+      default:
+        return x -> x;
+    }
+  }
+
+  private static <F extends SMFParserProviderType & SMFSerializerProviderType>
+  void checkRoundTrip(
+    final F fmt,
+    final SMFFormatVersion version,
+    final String suffix,
+    final boolean encodedPrecision)
+    throws Exception
   {
     final SMFMemoryMeshProducerType loader0 = SMFMemoryMeshProducer.create();
 
@@ -251,11 +311,9 @@ public final class SMFMemoryMeshSerializerTest
     Assertions.assertTrue(loader0.errors().isEmpty());
 
     final SMFMemoryMesh mesh0 = loader0.mesh();
-    final SMFFormatText fmt = new SMFFormatText();
-    final Path tmp = Files.createTempFile("smf-memory-", ".smft");
+    final Path tmp = Files.createTempFile("smf-memory-", suffix);
     try (OutputStream stream =
            Files.newOutputStream(tmp, CREATE, TRUNCATE_EXISTING)) {
-      final SMFFormatVersion version = SMFFormatVersion.of(1, 0);
       try (SMFSerializerType serial =
              fmt.serializerCreate(version, tmp.toUri(), stream)) {
         SMFMemoryMeshSerializer.serialize(mesh0, serial);
@@ -282,13 +340,22 @@ public final class SMFMemoryMeshSerializerTest
       final SMFAttributeName name = pair.getKey();
       final SMFAttributeArrayType a0 = pair.getValue();
       final SMFAttributeArrayType a1 = mesh1.arrays().get(name);
+      final DoubleUnaryOperator precision =
+        encodedPrecision
+          ? precisionOf(
+          mesh0.header().attributesByName().get(name).componentSizeBits())
+          : x -> x;
 
       a0.matchArray(
         void_(),
-        (x, y) -> checkFloat4(y, (SMFAttributeArrayFloating4Type) a1),
-        (x, y) -> checkFloat3(y, (SMFAttributeArrayFloating3Type) a1),
-        (x, y) -> checkFloat2(y, (SMFAttributeArrayFloating2Type) a1),
-        (x, y) -> checkFloat1(y, (SMFAttributeArrayFloating1Type) a1),
+        (x, y) -> checkFloat4(
+          y, (SMFAttributeArrayFloating4Type) a1, precision),
+        (x, y) -> checkFloat3(
+          y, (SMFAttributeArrayFloating3Type) a1, precision),
+        (x, y) -> checkFloat2(
+          y, (SMFAttributeArrayFloating2Type) a1, precision),
+        (x, y) -> checkFloat1(
+          y, (SMFAttributeArrayFloating1Type) a1, precision),
         (x, y) -> checkUnsigned4(y, (SMFAttributeArrayIntegerUnsigned4Type) a1),
         (x, y) -> checkUnsigned3(y, (SMFAttributeArrayIntegerUnsigned3Type) a1),
         (x, y) -> checkUnsigned2(y, (SMFAttributeArrayIntegerUnsigned2Type) a1),
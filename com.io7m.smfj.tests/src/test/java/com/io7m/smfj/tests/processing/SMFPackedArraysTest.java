@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.processing;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4L;
+import com.io7m.smfj.processing.api.SMFAttributeArrayFloating1;
+import com.io7m.smfj.processing.api.SMFAttributeArrayFloating3;
+import com.io7m.smfj.processing.api.SMFAttributeArrayIntegerSigned1;
+import com.io7m.smfj.processing.api.SMFAttributeArrayIntegerUnsigned4;
+import com.io7m.smfj.processing.api.SMFPackedDoubleArray;
+import com.io7m.smfj.processing.api.SMFPackedLongArray;
+import java.nio.ReadOnlyBufferException;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFPackedArraysTest
+{
+  @Test
+  public void testDoubleBuilderGrows()
+  {
+    final var builder = SMFPackedDoubleArray.builder(0);
+    for (int index = 0; index < 1000; ++index) {
+      builder.add((double) index);
+    }
+    builder.addAll(new double[]{-1.0, -2.0, -3.0}, 1, 2);
+
+    final var array = builder.build();
+    Assertions.assertEquals(1002, array.size());
+    Assertions.assertEquals(999.0, array.get(999));
+    Assertions.assertEquals(-2.0, array.get(1000));
+    Assertions.assertEquals(-3.0, array.get(1001));
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> array.get(1002));
+  }
+
+  @Test
+  public void testDoubleEquality()
+  {
+    final var builder = SMFPackedDoubleArray.builder(100);
+    builder.add(1.0).add(2.0).add(3.0);
+    final var array0 = builder.build();
+    final var array1 = SMFPackedDoubleArray.of(1.0, 2.0, 3.0);
+
+    Assertions.assertEquals(array0, array1);
+    Assertions.assertEquals(array0.hashCode(), array1.hashCode());
+    Assertions.assertNotEquals(array0, SMFPackedDoubleArray.of(1.0, 2.0));
+    Assertions.assertEquals(3, array0.toArray().length);
+  }
+
+  @Test
+  public void testLongBufferReadOnly()
+  {
+    final var array = SMFPackedLongArray.of(1L, 2L, 3L, 4L);
+    final var buffer = array.asBuffer();
+    Assertions.assertEquals(4, buffer.remaining());
+    Assertions.assertEquals(3L, buffer.get(2));
+    Assertions.assertThrows(
+      ReadOnlyBufferException.class, () -> buffer.put(0, 23L));
+
+    final long[] target = new long[4];
+    array.copyTo(1, target, 2, 2);
+    Assertions.assertArrayEquals(new long[]{0L, 0L, 2L, 3L}, target);
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> array.copyTo(3, target, 0, 2));
+  }
+
+  @Test
+  public void testAttributeArrayAccessors()
+  {
+    final var array =
+      SMFAttributeArrayFloating3.of(
+        SMFPackedDoubleArray.of(0.0, 1.0, 2.0, 3.0, 4.0, 5.0));
+
+    Assertions.assertEquals(2, array.size());
+    Assertions.assertEquals(3.0, array.x(1));
+    Assertions.assertEquals(4.0, array.y(1));
+    Assertions.assertEquals(5.0, array.z(1));
+    Assertions.assertEquals(Vector3D.of(0.0, 1.0, 2.0), array.get(0));
+    Assertions.assertEquals(
+      List.of(Vector3D.of(0.0, 1.0, 2.0), Vector3D.of(3.0, 4.0, 5.0)),
+      array.values());
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> array.get(2));
+  }
+
+  @Test
+  public void testAttributeArraySingleComponent()
+  {
+    final var floats =
+      SMFAttributeArrayFloating1.of(SMFPackedDoubleArray.of(1.0, 2.0, 3.0));
+
+    Assertions.assertEquals(3, floats.size());
+    Assertions.assertEquals(2.0, floats.get(1));
+    Assertions.assertEquals(List.of(1.0, 2.0, 3.0), floats.values());
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> floats.get(3));
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> floats.get(-1));
+
+    final var longs =
+      SMFAttributeArrayIntegerSigned1.of(SMFPackedLongArray.of(-1L, 2L));
+
+    Assertions.assertEquals(2, longs.size());
+    Assertions.assertEquals(-1L, longs.get(0));
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class, () -> longs.get(2));
+  }
+
+  @Test
+  public void testAttributeArrayUnsigned()
+  {
+    final var array =
+      SMFAttributeArrayIntegerUnsigned4.of(
+        SMFPackedLongArray.of(0xffffffffffffffffL, 1L, 2L, 3L));
+
+    Assertions.assertEquals(1, array.size());
+    Assertions.assertEquals(
+      Vector4L.of(0xffffffffffffffffL, 1L, 2L, 3L), array.get(0));
+  }
+
+  @Test
+  public void testAttributeArrayComponentMismatch()
+  {
+    Assertions.assertThrows(
+      Exception.class,
+      () -> SMFAttributeArrayFloating3.of(SMFPackedDoubleArray.of(0.0, 1.0)));
+  }
+}
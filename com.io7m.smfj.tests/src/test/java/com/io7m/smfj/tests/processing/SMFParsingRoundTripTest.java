@@ -18,26 +18,36 @@ package com.io7m.smfj.tests.processing;
 
 import com.io7m.smfj.core.SMFAttributeName;
 import com.io7m.smfj.core.SMFFormatVersion;
+import com.io7m.smfj.format.binary2.SMFFormatBinary2;
 import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.format.xml.SMFFormatXML;
+import com.io7m.smfj.parser.api.SMFParserProviderType;
 import com.io7m.smfj.parser.api.SMFParserSequentialType;
 import com.io7m.smfj.processing.api.SMFAttributeArrayType;
 import com.io7m.smfj.processing.api.SMFMemoryMesh;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
 import com.io7m.smfj.processing.api.SMFMemoryMeshProducerType;
 import com.io7m.smfj.processing.api.SMFMemoryMeshSerializer;
+import com.io7m.smfj.serializer.api.SMFSerializerProviderType;
 import com.io7m.smfj.serializer.api.SMFSerializerType;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.io7m.smfj.tests.processing.SMFMemoryMeshFilterTesting.WarningsAllowed.WARNINGS_DISALLOWED;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 public final class SMFParsingRoundTripTest
 {
@@ -108,4 +118,200 @@ public final class SMFParsingRoundTripTest
     Assertions.assertEquals(mesh0.metadata(), mesh1.metadata());
     Assertions.assertEquals(mesh0, mesh1);
   }
+
+  /**
+   * Serializing to a channel must produce exactly the same file as
+   * serializing to a stream.
+   */
+
+  private static void checkChannelMatchesStream(
+    final SMFSerializerProviderType fmt,
+    final SMFFormatVersion version,
+    final String suffix)
+    throws Exception
+  {
+    final SMFMemoryMeshProducerType loader0 = SMFMemoryMeshProducer.create();
+    try (var parser =
+           SMFTestFiles.createParser(loader0, "all.smft")) {
+      SMFMemoryMeshFilterTesting.logEverything(LOG, loader0, WARNINGS_DISALLOWED);
+    }
+
+    final SMFMemoryMesh mesh0 = loader0.mesh();
+
+    final Path tmpStream = Files.createTempFile("smf-stream-", suffix);
+    try (OutputStream out = Files.newOutputStream(tmpStream)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreate(version, tmpStream.toUri(), out)) {
+        SMFMemoryMeshSerializer.serialize(mesh0, s);
+      }
+    }
+
+    final Path tmpChannel = Files.createTempFile("smf-channel-", suffix);
+    try (FileChannel channel =
+           FileChannel.open(tmpChannel, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreateChannel(version, tmpChannel.toUri(), channel)) {
+        SMFMemoryMeshSerializer.serialize(mesh0, s);
+      }
+      Assertions.assertEquals(Files.size(tmpStream), channel.position());
+    }
+
+    Assertions.assertArrayEquals(
+      Files.readAllBytes(tmpStream),
+      Files.readAllBytes(tmpChannel));
+  }
+
+  @Test
+  public void testChannelMatchesStreamBinary2()
+    throws Exception
+  {
+    checkChannelMatchesStream(
+      new SMFFormatBinary2(), SMFFormatVersion.of(2, 0), ".smfb");
+  }
+
+  @Test
+  public void testChannelMatchesStreamText()
+    throws Exception
+  {
+    checkChannelMatchesStream(
+      new SMFFormatText(), SMFFormatVersion.of(1, 0), ".smft");
+  }
+
+  @Test
+  public void testChannelMatchesStreamXML()
+    throws Exception
+  {
+    checkChannelMatchesStream(
+      new SMFFormatXML(), SMFFormatVersion.of(2, 0), ".smfx");
+  }
+
+  /**
+   * A mesh serialized to a channel must parse back to the same mesh.
+   */
+
+  private static <F extends SMFParserProviderType & SMFSerializerProviderType>
+  void checkChannelRoundTrip(
+    final F fmt,
+    final SMFFormatVersion version,
+    final String suffix)
+    throws Exception
+  {
+    final SMFMemoryMeshProducerType loader0 = SMFMemoryMeshProducer.create();
+    try (var parser =
+           SMFTestFiles.createParser(loader0, "all.smft")) {
+      SMFMemoryMeshFilterTesting.logEverything(LOG, loader0, WARNINGS_DISALLOWED);
+    }
+
+    final SMFMemoryMesh mesh0 = loader0.mesh();
+
+    final Path tmp = Files.createTempFile("smf-channel-", suffix);
+    try (FileChannel channel =
+           FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreateChannel(version, tmp.toUri(), channel)) {
+        SMFMemoryMeshSerializer.serialize(mesh0, s);
+      }
+      Assertions.assertTrue(channel.isOpen());
+      Assertions.assertEquals(Files.size(tmp), channel.position());
+    }
+
+    final SMFMemoryMeshProducerType loader1 = SMFMemoryMeshProducer.create();
+    try (InputStream stream = Files.newInputStream(tmp, READ)) {
+      try (SMFParserSequentialType p =
+             fmt.parserCreateSequential(loader1, tmp.toUri(), stream)) {
+        p.parse();
+      }
+    }
+
+    Assertions.assertEquals(0, loader1.errors().size());
+    Assertions.assertEquals(mesh0, loader1.mesh());
+  }
+
+  @Test
+  public void testChannelRoundTripText()
+    throws Exception
+  {
+    checkChannelRoundTrip(
+      new SMFFormatText(), SMFFormatVersion.of(1, 0), ".smft");
+  }
+
+  @Test
+  public void testChannelRoundTripXML()
+    throws Exception
+  {
+    checkChannelRoundTrip(
+      new SMFFormatXML(), SMFFormatVersion.of(2, 0), ".smfx");
+  }
+
+  @Test
+  public void testChannelConcurrentMatchesStreamBinary2()
+    throws Exception
+  {
+    final SMFMemoryMeshProducerType loader0 = SMFMemoryMeshProducer.create();
+    try (var parser =
+           SMFTestFiles.createParser(loader0, "all.smft")) {
+      SMFMemoryMeshFilterTesting.logEverything(LOG, loader0, WARNINGS_DISALLOWED);
+    }
+
+    final SMFMemoryMesh mesh0 = loader0.mesh();
+    final SMFFormatBinary2 fmt = new SMFFormatBinary2();
+    final SMFFormatVersion version = SMFFormatVersion.of(2, 0);
+
+    final Path tmpStream = Files.createTempFile("smf-stream-", ".smfb");
+    try (OutputStream out = Files.newOutputStream(tmpStream)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreate(version, tmpStream.toUri(), out)) {
+        SMFMemoryMeshSerializer.serialize(mesh0, s);
+      }
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final Path tmpChannel = Files.createTempFile("smf-channel-", ".smfb");
+    try (FileChannel channel =
+           FileChannel.open(tmpChannel, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreateChannel(version, tmpChannel.toUri(), channel)) {
+        SMFMemoryMeshSerializer.serialize(mesh0, s, executor);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Assertions.assertArrayEquals(
+      Files.readAllBytes(tmpStream),
+      Files.readAllBytes(tmpChannel));
+  }
+
+  @Test
+  public void testChannelConcurrentDuplicateAttribute()
+    throws Exception
+  {
+    final SMFMemoryMeshProducerType loader0 = SMFMemoryMeshProducer.create();
+    try (var parser =
+           SMFTestFiles.createParser(loader0, "all.smft")) {
+      SMFMemoryMeshFilterTesting.logEverything(LOG, loader0, WARNINGS_DISALLOWED);
+    }
+
+    final SMFMemoryMesh mesh0 = loader0.mesh();
+    final SMFFormatBinary2 fmt = new SMFFormatBinary2();
+
+    final Path tmpChannel = Files.createTempFile("smf-channel-", ".smfb");
+    try (FileChannel channel =
+           FileChannel.open(tmpChannel, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      try (SMFSerializerType s =
+             fmt.serializerCreateChannel(
+               SMFFormatVersion.of(2, 0), tmpChannel.toUri(), channel)) {
+        s.serializeHeader(mesh0.header());
+        try (var sv = s.serializeVertexDataNonInterleavedStart()) {
+          Assertions.assertTrue(sv.serializeDataConcurrentSupported());
+
+          final var name =
+            mesh0.header().attributesInOrder().get(0).name();
+          sv.serializeData(name).close();
+          Assertions.assertThrows(
+            IllegalStateException.class, () -> sv.serializeData(name));
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.processing;
+
+import com.io7m.smfj.core.SMFAttributeName;
+import com.io7m.smfj.core.SMFSchemaIdentifier;
+import com.io7m.smfj.core.SMFSchemaName;
+import com.io7m.smfj.format.text.SMFFormatText;
+import com.io7m.smfj.processing.api.SMFFilterCommandContext;
+import com.io7m.smfj.processing.api.SMFMemoryMesh;
+import com.io7m.smfj.processing.api.SMFMemoryMeshFilterType;
+import com.io7m.smfj.processing.api.SMFMemoryMeshProducer;
+import com.io7m.smfj.processing.api.SMFMemoryMeshSerializer;
+import com.io7m.smfj.processing.api.SMFStreamingFilterPipeline;
+import com.io7m.smfj.processing.api.SMFStreamingFilterType;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeRemove;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeRename;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeResample;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterAttributeTrim;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterEndiannessSet;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterMetadataAdd;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterMetadataRemove;
+import com.io7m.smfj.processing.main.SMFMemoryMeshFilterSchemaSet;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFStreamingFilterPipelineTest
+  extends SMFMemoryMeshFilterContract
+{
+  private static final URI OUTPUT = URI.create("urn:output");
+
+  private static SMFMemoryMesh load(
+    final String name)
+    throws IOException
+  {
+    final var loader = SMFMemoryMeshProducer.create();
+    try (var parser = SMFTestFiles.createParser(loader, name)) {
+      Assertions.assertEquals(List.of(), loader.errors());
+    }
+    return loader.mesh();
+  }
+
+  /**
+   * Filter a mesh in memory and serialize the result.
+   */
+
+  private static String filterInMemory(
+    final SMFFilterCommandContext context,
+    final List<SMFMemoryMeshFilterType> filters,
+    final String name)
+    throws IOException
+  {
+    SMFMemoryMesh mesh = load(name);
+    for (final var filter : filters) {
+      final var result = filter.filter(context, mesh);
+      Assertions.assertTrue(result.isSucceeded());
+      mesh = result.get();
+    }
+
+    final var format = new SMFFormatText();
+    final var output = new ByteArrayOutputStream();
+    try (var serializer = format.serializerCreate(
+      format.serializerSupportedVersions().last(), OUTPUT, output)) {
+      SMFMemoryMeshSerializer.serialize(mesh, serializer);
+    }
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Filter a mesh as it is parsed, serializing the result directly.
+   */
+
+  private static SMFStreamingFilterPipeline filterStreaming(
+    final SMFFilterCommandContext context,
+    final List<SMFMemoryMeshFilterType> filters,
+    final String name,
+    final ByteArrayOutputStream output)
+    throws IOException
+  {
+    final var streaming =
+      filters.stream()
+        .map(f -> f.streaming().orElseThrow())
+        .collect(Collectors.toList());
+
+    final var format = new SMFFormatText();
+    try (var serializer = format.serializerCreate(
+      format.serializerSupportedVersions().last(), OUTPUT, output)) {
+      final var pipeline =
+        SMFStreamingFilterPipeline.create(context, streaming, serializer);
+      try (var parser = SMFTestFiles.createParser(pipeline, name)) {
+        return pipeline;
+      }
+    }
+  }
+
+  private void checkSameAsInMemory(
+    final List<SMFMemoryMeshFilterType> filters,
+    final String name)
+    throws IOException
+  {
+    checkSameAsInMemory(this.createContext(), filters, name);
+  }
+
+  private static void checkSameAsInMemory(
+    final SMFFilterCommandContext context,
+    final List<SMFMemoryMeshFilterType> filters,
+    final String name)
+    throws IOException
+  {
+    final var expected = filterInMemory(context, filters, name);
+
+    final var output = new ByteArrayOutputStream();
+    final var pipeline = filterStreaming(context, filters, name, output);
+    Assertions.assertEquals(List.of(), pipeline.errors());
+    Assertions.assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testNoFilters()
+    throws Exception
+  {
+    this.checkSameAsInMemory(List.of(), "all.smft");
+  }
+
+  @Test
+  public void testHeaderFilters()
+    throws Exception
+  {
+    this.checkSameAsInMemory(
+      List.of(
+        SMFMemoryMeshFilterAttributeRename.create(
+          SMFAttributeName.of("f32_4"),
+          SMFAttributeName.of("renamed")),
+        SMFMemoryMeshFilterAttributeRemove.create(
+          SMFAttributeName.of("i8_2")),
+        SMFMemoryMeshFilterAttributeRemove.create(
+          SMFAttributeName.of("renamed")),
+        SMFMemoryMeshFilterAttributeRename.create(
+          SMFAttributeName.of("u16_3"),
+          SMFAttributeName.of("renamed")),
+        SMFMemoryMeshFilterAttributeResample.create(
+          SMFAttributeName.of("f64_3"), 16),
+        SMFMemoryMeshFilterSchemaSet.create(
+          SMFSchemaIdentifier.of(SMFSchemaName.of("com.io7m.example"), 1, 0)),
+        SMFMemoryMeshFilterEndiannessSet.create(ByteOrder.LITTLE_ENDIAN)),
+      "all.smft");
+  }
+
+  @Test
+  public void testMetadataFilters()
+    throws Exception
+  {
+    final Path root =
+      this.filesystem.getRootDirectories().iterator().next();
+    final Path path = this.filesystem.getPath("/data");
+    Files.write(path, new byte[]{(byte) 0x0, (byte) 0x1, (byte) 0x2});
+
+    checkSameAsInMemory(
+      SMFFilterCommandContext.of(root, root),
+      List.of(
+        SMFMemoryMeshFilterMetadataRemove.create(
+          Optional.of(SMFSchemaName.of("com.io7m.smf.example.different")),
+          Optional.empty()),
+        SMFMemoryMeshFilterMetadataAdd.create(
+          SMFSchemaIdentifier.of(SMFSchemaName.of("com.io7m.example"), 1, 0),
+          path)),
+      "all.smft");
+  }
+
+  @Test
+  public void testOutOfOrder()
+    throws Exception
+  {
+    this.checkSameAsInMemory(List.of(), "out_of_order.smft");
+  }
+
+  @Test
+  public void testOutOfOrderRenamed()
+    throws Exception
+  {
+    this.checkSameAsInMemory(
+      List.of(
+        SMFMemoryMeshFilterAttributeRename.create(
+          SMFAttributeName.of("position"),
+          SMFAttributeName.of("p")),
+        SMFMemoryMeshFilterAttributeRemove.create(
+          SMFAttributeName.of("uv"))),
+      "out_of_order.smft");
+  }
+
+  @Test
+  public void testFilterFails()
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    final var pipeline =
+      filterStreaming(
+        this.createContext(),
+        List.of(SMFMemoryMeshFilterAttributeRename.create(
+          SMFAttributeName.of("nonexistent"),
+          SMFAttributeName.of("renamed"))),
+        "all.smft",
+        output);
+
+    Assertions.assertFalse(pipeline.errors().isEmpty());
+  }
+
+  @Test
+  public void testStreamingUnsupported()
+  {
+    final Optional<SMFStreamingFilterType> streaming =
+      SMFMemoryMeshFilterAttributeTrim.create(
+        Set.of(SMFAttributeName.of("x")))
+        .streaming();
+
+    Assertions.assertEquals(Optional.empty(), streaming);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.smfj.tests.processing;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
+import com.io7m.smfj.processing.api.SMFTriangleIndexBuffer;
+import java.nio.ReadOnlyBufferException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class SMFTriangleIndexBufferTest
+{
+  @Test
+  public void testSizes()
+  {
+    Assertions.assertEquals(8, SMFTriangleIndexBuffer.indexSizeBitsRequired(0L));
+    Assertions.assertEquals(8, SMFTriangleIndexBuffer.indexSizeBitsRequired(255L));
+    Assertions.assertEquals(16, SMFTriangleIndexBuffer.indexSizeBitsRequired(256L));
+    Assertions.assertEquals(32, SMFTriangleIndexBuffer.indexSizeBitsRequired(65536L));
+    Assertions.assertEquals(64, SMFTriangleIndexBuffer.indexSizeBitsRequired(0x1_0000_0000L));
+    Assertions.assertEquals(64, SMFTriangleIndexBuffer.indexSizeBitsRequired(-1L));
+  }
+
+  @Test
+  public void testBuilderPacked()
+  {
+    final var builder = SMFTriangleIndexBuffer.builder(16, 1);
+    builder.add(0L, 1L, 2L);
+    builder.add(65535L, 3L, 4L);
+
+    final var buffer = builder.build();
+    Assertions.assertEquals(16, buffer.indexSizeBits());
+    Assertions.assertEquals(2, buffer.triangleCount());
+    Assertions.assertEquals(65535L, buffer.maximum());
+    Assertions.assertEquals(65535L, buffer.v0(1));
+    Assertions.assertEquals(Vector3L.of(0L, 1L, 2L), buffer.triangle(0));
+    Assertions.assertEquals(12, buffer.asBuffer().remaining());
+    Assertions.assertThrows(
+      ReadOnlyBufferException.class, () -> buffer.asBuffer().put(0, (byte) 1));
+  }
+
+  @Test
+  public void testBuilderWidens()
+  {
+    final var builder = SMFTriangleIndexBuffer.builder(8, 0);
+    for (int index = 0; index < 100; ++index) {
+      builder.add(index, index + 1L, index + 2L);
+    }
+    builder.add(0L, 70000L, 1L);
+
+    final var buffer = builder.build();
+    Assertions.assertEquals(32, buffer.indexSizeBits());
+    Assertions.assertEquals(101, buffer.triangleCount());
+    Assertions.assertEquals(Vector3L.of(99L, 100L, 101L), buffer.triangle(99));
+    Assertions.assertEquals(70000L, buffer.v1(100));
+  }
+
+  @Test
+  public void testBuilderAddAll()
+  {
+    final long[] indices = new long[3 + 300 + 3];
+    for (int index = 0; index < 300; ++index) {
+      indices[3 + index] = index;
+    }
+    indices[3 + 299] = 70000L;
+
+    final var builder = SMFTriangleIndexBuffer.builder(8, 0);
+    builder.add(5L, 6L, 7L);
+    builder.addAll(indices, 3, 100);
+
+    final var buffer = builder.build();
+    Assertions.assertEquals(32, buffer.indexSizeBits());
+    Assertions.assertEquals(101, buffer.triangleCount());
+    Assertions.assertEquals(70000L, buffer.maximum());
+    Assertions.assertEquals(Vector3L.of(5L, 6L, 7L), buffer.triangle(0));
+    Assertions.assertEquals(Vector3L.of(0L, 1L, 2L), buffer.triangle(1));
+    Assertions.assertEquals(Vector3L.of(297L, 298L, 70000L), buffer.triangle(100));
+
+    Assertions.assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> SMFTriangleIndexBuffer.builder(8, 0).addAll(indices, 4, 102));
+  }
+
+  @Test
+  public void testRepack()
+  {
+    final var buffer =
+      SMFTriangleIndexBuffer.of(64, 0L, 1L, 2L, 3L, 4L, 300L);
+
+    final var narrow = buffer.withIndexSizeBits(16);
+    Assertions.assertEquals(16, narrow.indexSizeBits());
+    Assertions.assertNotEquals(buffer, narrow);
+    Assertions.assertEquals(buffer, narrow.withIndexSizeBits(64));
+
+    final long[] target = new long[6];
+    narrow.copyTo(0, target, 0, 6);
+    Assertions.assertArrayEquals(new long[]{0L, 1L, 2L, 3L, 4L, 300L}, target);
+
+    Assertions.assertThrows(
+      IllegalArgumentException.class, () -> buffer.withIndexSizeBits(8));
+  }
+
+  @Test
+  public void testUnsigned64()
+  {
+    final var buffer = SMFTriangleIndexBuffer.of(8, -1L, 0L, 1L);
+    Assertions.assertEquals(64, buffer.indexSizeBits());
+    Assertions.assertEquals(-1L, buffer.maximum());
+    Assertions.assertEquals(-1L, buffer.v0(0));
+  }
+
+  @Test
+  public void testBadCount()
+  {
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> SMFTriangleIndexBuffer.of(32, 0L, 1L));
+  }
+}
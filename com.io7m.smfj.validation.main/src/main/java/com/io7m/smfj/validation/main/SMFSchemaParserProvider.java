@@ -637,7 +637,7 @@ public final class SMFSchemaParserProvider
             SMFParseError.of(reader.position(), "I/O error", Optional.of(e));
           return SMFPartialLogged.failed(error);
         }
-      } catch (final IOException e) {
+      } catch (final java.io.UncheckedIOException e) {
         final SMFParseError error =
           SMFParseError.of(
             LexicalPosition.of(1, 0, Optional.of(this.uri)),